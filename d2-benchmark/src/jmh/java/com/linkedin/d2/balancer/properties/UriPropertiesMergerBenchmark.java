@@ -0,0 +1,111 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.properties;
+
+import com.linkedin.d2.discovery.event.PropertyDelta;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures how ZooKeeperEphemeralStore merges the uri nodes of a cluster of 100 to 10000 hosts after one host is
+ * replaced by another, either as a delta of the previous value or by merging all the nodes again. The cost of the
+ * delta should not depend on the number of hosts.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UriPropertiesMergerBenchmark
+{
+  private static final String CLUSTER = "TestCluster";
+
+  @State(Scope.Benchmark)
+  public static class ClusterState
+  {
+    @Param({ "100", "1000", "10000" })
+    int _hosts;
+
+    final UriPropertiesMerger _merger = new UriPropertiesMerger();
+    final Map<String, UriProperties> _nodes = new HashMap<>();
+    final Deque<String> _nodeNames = new ArrayDeque<>();
+    UriProperties _value;
+    int _nextHost;
+
+    @Setup
+    public void setUp()
+    {
+      for (_nextHost = 0; _nextHost < _hosts; _nextHost++)
+      {
+        addNode();
+      }
+      _value = _merger.merge(CLUSTER, _nodes.values());
+    }
+
+    UriProperties addNode()
+    {
+      URI uri = URI.create("http://host-" + _nextHost + ".test:1234/cluster");
+      Map<Integer, PartitionData> partitionData = Collections.singletonMap(_nextHost % 10, new PartitionData(1d));
+      UriProperties node = new UriProperties(CLUSTER, Collections.singletonMap(uri, partitionData));
+      String name = "ephemeral-" + _nextHost;
+      _nodes.put(name, node);
+      _nodeNames.addLast(name);
+      return node;
+    }
+
+    PropertyDelta<UriProperties> replaceHost()
+    {
+      UriProperties removed = _nodes.remove(_nodeNames.removeFirst());
+      _nextHost++;
+      UriProperties added = addNode();
+      return new PropertyDelta<>(_value, Collections.singletonList(added), Collections.singletonList(removed));
+    }
+  }
+
+  @Benchmark
+  public UriProperties measureDeltaMerge(ClusterState state)
+  {
+    PropertyDelta<UriProperties> delta = state.replaceHost();
+    state._value = state._merger.merge(CLUSTER, delta, state._nodes.values());
+    return state._value;
+  }
+
+  @Benchmark
+  public UriProperties measureFullMerge(ClusterState state)
+  {
+    state.replaceHost();
+    state._value = state._merger.merge(CLUSTER, state._nodes.values());
+    return state._value;
+  }
+}
@@ -20,6 +20,9 @@ import com.linkedin.d2.balancer.util.hashing.ConsistentHashRing;
 import com.linkedin.d2.balancer.util.hashing.MPConsistentHashRing;
 import com.linkedin.d2.balancer.util.hashing.Ring;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
@@ -123,6 +126,39 @@ public class ConsistentHashRingBenchmark {
     return state._ring.get(state._random.nextInt());
   }
 
+  @State(Scope.Benchmark)
+  public static class MPCHash_1000Hosts_Rebuild_State {
+    Map<URI, Integer> _pointsMap = new HashMap<>(buildPointsMap(1000, 100));
+    MPConsistentHashRing<URI> _ring = new MPConsistentHashRing<>(_pointsMap);
+    List<URI> _hosts = new ArrayList<>(_pointsMap.keySet());
+    Random _random = new Random();
+
+    // degrades or recovers 10 hosts, like a degrader state update
+    void changePoints() {
+      for (int i = 0; i < 10; i++) {
+        _pointsMap.put(_hosts.get(_random.nextInt(_hosts.size())), 1 + _random.nextInt(100));
+      }
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Ring<URI> measureMPCHash_1000Hosts_FullRebuild(MPCHash_1000Hosts_Rebuild_State state) {
+    state.changePoints();
+    state._ring = new MPConsistentHashRing<>(state._pointsMap);
+    return state._ring;
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Ring<URI> measureMPCHash_1000Hosts_IncrementalUpdate(MPCHash_1000Hosts_Rebuild_State state) {
+    state.changePoints();
+    state._ring = state._ring.update(state._pointsMap);
+    return state._ring;
+  }
+
   private static Map<URI, Integer> buildPointsMap(int numHosts, int numPointsPerHost) {
     return IntStream.range(0, numHosts).boxed().collect(
         Collectors.toMap(
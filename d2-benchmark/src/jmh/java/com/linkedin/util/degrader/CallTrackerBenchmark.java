@@ -0,0 +1,113 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.util.degrader;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the throughput of call tracking by a single {@link CallTracker} shared by 1 to 64 threads, like the
+ * call tracker of a TrackerClient on a busy client host. Each operation starts and ends a call, ending every tenth
+ * with an error, and the 1 second interval makes the trackers roll over during the measurement.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CallTrackerBenchmark
+{
+  private static final long INTERVAL = 1000;
+
+  @State(Scope.Benchmark)
+  public static class CallTrackerState
+  {
+    @Param({ "CallTrackerImpl", "StripedCallTrackerImpl" })
+    String _implementation;
+
+    CallTracker _callTracker;
+
+    @Setup
+    public void setUp()
+    {
+      _callTracker = "StripedCallTrackerImpl".equals(_implementation)
+          ? new StripedCallTrackerImpl(INTERVAL)
+          : new CallTrackerImpl(INTERVAL);
+      // like TrackerClient, a degrader listens to the rollover events
+      _callTracker.addStatsRolloverEventListener(event -> event.getCallStats());
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadState
+  {
+    int _calls;
+  }
+
+  private static void trackCall(CallTrackerState state, ThreadState threadState)
+  {
+    CallCompletion callCompletion = state._callTracker.startCall();
+    if (++threadState._calls % 10 == 0)
+    {
+      callCompletion.endCallWithError(ErrorType.SERVER_ERROR);
+    }
+    else
+    {
+      callCompletion.endCall();
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void measureTrackCall_1Thread(CallTrackerState state, ThreadState threadState)
+  {
+    trackCall(state, threadState);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void measureTrackCall_4Threads(CallTrackerState state, ThreadState threadState)
+  {
+    trackCall(state, threadState);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public void measureTrackCall_16Threads(CallTrackerState state, ThreadState threadState)
+  {
+    trackCall(state, threadState);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public void measureTrackCall_64Threads(CallTrackerState state, ThreadState threadState)
+  {
+    trackCall(state, threadState);
+  }
+}
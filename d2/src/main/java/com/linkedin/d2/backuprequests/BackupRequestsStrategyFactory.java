@@ -52,7 +52,8 @@ class BackupRequestsStrategyFactory
   {
     try
     {
-      return new TrackingBackupRequestsStrategy(tryCreate(backupRequestsConfiguration));
+      return new TrackingBackupRequestsStrategy(tryCreate(backupRequestsConfiguration),
+          () -> tryCreate(backupRequestsConfiguration));
     } catch (Exception e)
     {
       LOG.error("Failed to create BackupRequestsStrategy from configuration: " + backupRequestsConfiguration, e);
@@ -16,13 +16,23 @@
 package com.linkedin.d2.backuprequests;
 
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.linkedin.d2.balancer.util.partitions.DefaultPartitionAccessor.DEFAULT_PARTITION_ID;
 
 
 /**
  * Wrapper for {@link BackupRequestsStrategy} that keeps track of statistics and exposes some of them through
  * {@link BackupRequestsStrategyStatsProvider} interface.
+ * <p>
+ * When created with a factory of partition strategies, the partitions of a service get their own
+ * {@link BackupRequestsStrategy}, created on first use, so that each partition sends backup requests based on
+ * its own latency distribution and within its own cost budget. The default partition uses the delegate. Statistics
+ * and latency metrics are kept across all partitions.
  *
  * @author Jaroslaw Odzga (jodzga@linkedin.com)
  *
@@ -31,6 +41,8 @@ public class TrackingBackupRequestsStrategy implements BackupRequestsStrategy, B
 {
 
   private final BackupRequestsStrategy _delegate;
+  private final Supplier<BackupRequestsStrategy> _partitionDelegateFactory;
+  private final ConcurrentMap<Integer, BackupRequestsStrategy> _partitionDelegates = new ConcurrentHashMap<>();
 
   private final LongAdder _totalAllowedCount = new LongAdder();
   private final LongAdder _totalSuccessCount = new LongAdder();
@@ -44,14 +56,48 @@ public class TrackingBackupRequestsStrategy implements BackupRequestsStrategy, B
   private final LatencyMetric _latencyWithoutBackup = new LatencyMetric();
 
   public TrackingBackupRequestsStrategy(BackupRequestsStrategy delegate)
+  {
+    this(delegate, null);
+  }
+
+  /**
+   * @param delegate strategy used for the default partition, and for all partitions if
+   *                 partitionDelegateFactory is null
+   * @param partitionDelegateFactory creates the strategy of every other partition, may be null
+   */
+  public TrackingBackupRequestsStrategy(BackupRequestsStrategy delegate,
+      Supplier<BackupRequestsStrategy> partitionDelegateFactory)
   {
     _delegate = delegate;
+    _partitionDelegateFactory = partitionDelegateFactory;
+  }
+
+  private BackupRequestsStrategy getDelegate(int partitionId)
+  {
+    if (partitionId == DEFAULT_PARTITION_ID || _partitionDelegateFactory == null)
+    {
+      return _delegate;
+    }
+    BackupRequestsStrategy delegate = _partitionDelegates.get(partitionId);
+    if (delegate == null)
+    {
+      delegate = _partitionDelegates.computeIfAbsent(partitionId, id -> _partitionDelegateFactory.get());
+    }
+    return delegate;
   }
 
   @Override
   public Optional<Long> getTimeUntilBackupRequestNano()
   {
-    final Optional<Long> delay = _delegate.getTimeUntilBackupRequestNano();
+    return getTimeUntilBackupRequestNano(DEFAULT_PARTITION_ID);
+  }
+
+  /**
+   * Same as {@link #getTimeUntilBackupRequestNano()} for a request to the given partition.
+   */
+  public Optional<Long> getTimeUntilBackupRequestNano(int partitionId)
+  {
+    final Optional<Long> delay = getDelegate(partitionId).getTimeUntilBackupRequestNano();
     delay.ifPresent(this::recordDelay);
     return delay;
   }
@@ -72,13 +118,29 @@ public class TrackingBackupRequestsStrategy implements BackupRequestsStrategy, B
   @Override
   public void recordCompletion(long responseTime)
   {
-    _delegate.recordCompletion(responseTime);
+    recordCompletion(DEFAULT_PARTITION_ID, responseTime);
+  }
+
+  /**
+   * Same as {@link #recordCompletion(long)} for a request to the given partition.
+   */
+  public void recordCompletion(int partitionId, long responseTime)
+  {
+    getDelegate(partitionId).recordCompletion(responseTime);
   }
 
   @Override
   public boolean isBackupRequestAllowed()
   {
-    final boolean allowed = _delegate.isBackupRequestAllowed();
+    return isBackupRequestAllowed(DEFAULT_PARTITION_ID);
+  }
+
+  /**
+   * Same as {@link #isBackupRequestAllowed()} for a request to the given partition.
+   */
+  public boolean isBackupRequestAllowed(int partitionId)
+  {
+    final boolean allowed = getDelegate(partitionId).isBackupRequestAllowed();
     if (allowed)
     {
       _totalAllowedCount.increment();;
@@ -234,7 +296,8 @@ public class TrackingBackupRequestsStrategy implements BackupRequestsStrategy, B
   @Override
   public String toString()
   {
-    return "TrackingBackupRequestsStrategy [delegate=" + _delegate + ", totalAllowedCount=" + _totalAllowedCount
+    return "TrackingBackupRequestsStrategy [delegate=" + _delegate + ", partitionDelegates=" + _partitionDelegates
+        + ", totalAllowedCount=" + _totalAllowedCount
         + ", totalSuccessCount=" + _totalSuccessCount + ", lastDelayStats=" + _lastDelayStats + ", snapshotStats="
         + _snapshotStats + ", snapshotDelayStats=" + _snapshotDelayStats + "]";
   }
@@ -30,6 +30,8 @@ import com.linkedin.d2.balancer.simple.SslSessionValidatorFactory;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategyFactory;
 import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyFactoryV3;
+import com.linkedin.d2.balancer.strategies.leastloaded.LeastLoadedLoadBalancerStrategy;
+import com.linkedin.d2.balancer.strategies.leastloaded.LeastLoadedLoadBalancerStrategyFactory;
 import com.linkedin.d2.balancer.strategies.random.RandomLoadBalancerStrategyFactory;
 import com.linkedin.d2.balancer.util.downstreams.DownstreamServicesFetcher;
 import com.linkedin.d2.balancer.util.downstreams.FSBasedDownstreamServicesFetcher;
@@ -473,6 +475,9 @@ public class D2ClientBuilder
     loadBalancerStrategyFactories.putIfAbsent("degraderV3", degraderStrategyFactoryV3);
     loadBalancerStrategyFactories.putIfAbsent("degraderV2_1", degraderStrategyFactoryV3);
 
+    loadBalancerStrategyFactories.putIfAbsent(LeastLoadedLoadBalancerStrategy.LEAST_LOADED_STRATEGY_NAME,
+        new LeastLoadedLoadBalancerStrategyFactory());
+
     return loadBalancerStrategyFactories;
   }
 
@@ -23,6 +23,7 @@ import com.linkedin.d2.balancer.properties.ClusterProperties;
 import com.linkedin.d2.balancer.properties.ServiceProperties;
 import com.linkedin.d2.balancer.properties.UriProperties;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
+import com.linkedin.d2.balancer.util.RoutingSnapshot;
 import com.linkedin.d2.balancer.util.partitions.PartitionAccessor;
 import com.linkedin.d2.discovery.event.PropertyEventThread.PropertyEventShutdownCallback;
 import com.linkedin.r2.transport.common.bridge.client.TransportClient;
@@ -90,6 +91,35 @@ public interface LoadBalancerState
   List<SchemeStrategyPair> getStrategiesForService(String serviceName,
                                                     List<String> prioritizedSchemes);
 
+  long UNTRACKED_ROUTING_GENERATION = -1;
+
+  /**
+   * Returns a number which changes whenever a change of the given service, of its cluster or of the uris
+   * of its cluster has been applied to this state, so callers can cache what they derive from it. States
+   * which do not track changes return {@link #UNTRACKED_ROUTING_GENERATION}, and nothing should be cached.
+   */
+  default long getRoutingGeneration(String serviceName)
+  {
+    return UNTRACKED_ROUTING_GENERATION;
+  }
+
+  /**
+   * Returns the routing snapshot last stored for the given service, scheme and partition, or null if
+   * there is none. States which do not track changes never hold any.
+   */
+  default RoutingSnapshot getRoutingSnapshot(String serviceName, String scheme, int partitionId)
+  {
+    return null;
+  }
+
+  /**
+   * Stores a routing snapshot for the given service, scheme and partition, until it is replaced or the
+   * service or its cluster is removed. States which do not track changes ignore it.
+   */
+  default void putRoutingSnapshot(String serviceName, String scheme, int partitionId, RoutingSnapshot snapshot)
+  {
+  }
+
   public static interface LoadBalancerStateListenerCallback
   {
     public static int SERVICE = 0;
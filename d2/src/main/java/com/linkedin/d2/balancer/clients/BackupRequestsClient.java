@@ -25,6 +25,7 @@ import com.linkedin.d2.backuprequests.TrackingBackupRequestsStrategy;
 import com.linkedin.d2.balancer.D2Client;
 import com.linkedin.d2.balancer.D2ClientConfig;
 import com.linkedin.d2.balancer.D2ClientDelegator;
+import com.linkedin.d2.balancer.Facilities;
 import com.linkedin.d2.balancer.KeyMapper;
 import com.linkedin.d2.balancer.LoadBalancer;
 import com.linkedin.d2.balancer.ServiceUnavailableException;
@@ -32,6 +33,8 @@ import com.linkedin.d2.balancer.properties.PropertyKeys;
 import com.linkedin.d2.balancer.properties.ServiceProperties;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy.ExcludedHostHints;
 import com.linkedin.d2.balancer.util.LoadBalancerUtil;
+import com.linkedin.d2.balancer.util.partitions.DefaultPartitionAccessor;
+import com.linkedin.d2.balancer.util.partitions.PartitionAccessor;
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.message.Request;
 import com.linkedin.r2.message.RequestContext;
@@ -40,6 +43,7 @@ import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.stream.StreamRequest;
 import com.linkedin.r2.message.stream.StreamResponse;
 import com.linkedin.r2.util.NamedThreadFactory;
+import com.linkedin.r2.util.RequestCancellation;
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
@@ -61,6 +65,10 @@ import org.slf4j.LoggerFactory;
 /**
  * {@link DynamicClient} with backup requests feature.
  *
+ * The delay and the cost budget of backup requests are tracked per partition of the service, so that a slow
+ * partition does not inflate the delay of the others. Once either the original or the backup request completes,
+ * the other one is cancelled through {@link R2Constants#REQUEST_CANCELLATION}, which releases its connection.
+ *
  * Only instantiated when backupRequestsEnabled in {@link D2ClientConfig} is set to true.
  *
  * @author Jaroslaw Odzga (jodzga@linkedin.com)
@@ -326,14 +334,16 @@ public class BackupRequestsClient extends D2ClientDelegator
           final TrackingBackupRequestsStrategy st = strategy.get();
           final long startNano = System.nanoTime();
 
+          final int partitionId = getPartitionId(serviceName, request);
+
           URI targetHostUri = KeyMapper.TargetHostHints.getRequestContextTargetHost(requestContext);
           if (targetHostUri == null)
           {
-            Optional<Long> delayNano = st.getTimeUntilBackupRequestNano();
+            Optional<Long> delayNano = st.getTimeUntilBackupRequestNano(partitionId);
             if (delayNano.isPresent())
             {
-              return new DecoratedCallback<>(request, requestContext, client, callback, st, delayNano.get(),
-                  _executorService, startNano, serviceName, operation);
+              return new DecoratedCallback<>(request, requestContext, client, callback, st, partitionId,
+                  delayNano.get(), _executorService, startNano, serviceName, operation);
             }
           }
           // if caller specified concrete target host or backup strategy is not ready yet then return
@@ -350,7 +360,7 @@ public class BackupRequestsClient extends D2ClientDelegator
             private void recordLatency()
             {
               long latency = System.nanoTime() - startNano;
-              st.recordCompletion(latency);
+              st.recordCompletion(partitionId, latency);
               st.getLatencyWithoutBackup().record(latency,
                   histogram -> notifyLatency(serviceName, operation, histogram, false));
               st.getLatencyWithBackup().record(latency,
@@ -388,6 +398,29 @@ public class BackupRequestsClient extends D2ClientDelegator
     }
   }
 
+  /**
+   * Returns the partition the request goes to, or the default partition if the service is not partitioned or
+   * the partition cannot be determined.
+   */
+  private int getPartitionId(String serviceName, Request request)
+  {
+    Facilities facilities = getFacilities();
+    if (facilities == null)
+    {
+      return DefaultPartitionAccessor.DEFAULT_PARTITION_ID;
+    }
+    try
+    {
+      PartitionAccessor accessor = facilities.getPartitionInfoProvider().getPartitionAccessor(serviceName);
+      return accessor.getMaxPartitionId() == 0 ? DefaultPartitionAccessor.DEFAULT_PARTITION_ID
+          : accessor.getPartitionId(request.getURI());
+    } catch (Exception e)
+    {
+      LOG.debug("Failed to determine partition of request, using the default partition", e);
+      return DefaultPartitionAccessor.DEFAULT_PARTITION_ID;
+    }
+  }
+
   @Override
   public void shutdown(Callback<None> callback)
   {
@@ -413,12 +446,15 @@ public class BackupRequestsClient extends D2ClientDelegator
     private final DecoratorClient<R, T> _client;
     private final Callback<T> _callback;
     private final TrackingBackupRequestsStrategy _strategy;
+    private final int _partitionId;
     private final long _startNano;
     private final String _serviceName;
     private final String _operation;
+    private final RequestCancellation _cancellation = new RequestCancellation();
+    private final RequestCancellation _backupCancellation = new RequestCancellation();
 
     public DecoratedCallback(R request, RequestContext requestContext, DecoratorClient<R, T> client,
-        Callback<T> callback, TrackingBackupRequestsStrategy strategy, long delayNano,
+        Callback<T> callback, TrackingBackupRequestsStrategy strategy, int partitionId, long delayNano,
         ScheduledExecutorService executorService, long startNano, String serviceName, String operation)
     {
       _startNano = startNano;
@@ -426,9 +462,12 @@ public class BackupRequestsClient extends D2ClientDelegator
       _requestContext = requestContext;
       _backupRequestContext = requestContext.clone();
       _backupRequestContext.putLocalAttr(BACKUP_REQUEST_ATTRIBUTE_NAME, delayNano);
+      _backupRequestContext.putLocalAttr(R2Constants.REQUEST_CANCELLATION, _backupCancellation);
+      _requestContext.putLocalAttr(R2Constants.REQUEST_CANCELLATION, _cancellation);
       _client = client;
       _callback = callback;
       _strategy = strategy;
+      _partitionId = partitionId;
       _serviceName = serviceName;
       _operation = operation;
       executorService.schedule(this::maybeSendBackupRequest, delayNano, TimeUnit.NANOSECONDS);
@@ -442,7 +481,7 @@ public class BackupRequestsClient extends D2ClientDelegator
       if (exclusionSet != null)
       {
         exclusionSet.forEach(uri -> ExcludedHostHints.addRequestContextExcludedHost(_backupRequestContext, uri));
-        if (!_done.get() && _strategy.isBackupRequestAllowed())
+        if (!_done.get() && _strategy.isBackupRequestAllowed(_partitionId))
         {
           _client.doRequest(_request, _backupRequestContext, new Callback<T>()
           {
@@ -451,6 +490,7 @@ public class BackupRequestsClient extends D2ClientDelegator
             {
               if (_done.compareAndSet(false, true))
               {
+                _cancellation.cancel();
                 completeBackup();
                 _callback.onSuccess(result);
               }
@@ -463,6 +503,7 @@ public class BackupRequestsClient extends D2ClientDelegator
               // because the original request might have been made successfully
               if (!(e instanceof ServiceUnavailableException) && _done.compareAndSet(false, true))
               {
+                _cancellation.cancel();
                 completeBackup();
                 _callback.onError(e);
               }
@@ -491,10 +532,17 @@ public class BackupRequestsClient extends D2ClientDelegator
     private void trackingCompletion(Runnable completion)
     {
       long latency = System.nanoTime() - _startNano;
-      //feed backup request strategy with latency of the original request
-      _strategy.recordCompletion(latency);
+      // the request context belongs to the caller, who may reuse it for another request
+      _requestContext.removeLocalAttr(R2Constants.REQUEST_CANCELLATION);
+      /*
+       * feed backup request strategy with latency of the original request; if the original request was cancelled
+       * because the backup completed first, this is a lower bound of its latency, but it is still above the
+       * backup delay, which keeps the percentile the delay is based on unaffected
+       */
+      _strategy.recordCompletion(_partitionId, latency);
       if (_done.compareAndSet(false, true))
       {
+        _backupCancellation.cancel();
         //if original request completed before backup then update both latency metrics
         _strategy.getLatencyWithBackup().record(latency,
             histogram -> notifyLatency(_serviceName, _operation, histogram, true));
@@ -47,6 +47,7 @@ import com.linkedin.util.degrader.DegraderControl;
 import com.linkedin.util.degrader.DegraderImpl;
 import com.linkedin.util.degrader.DegraderImpl.Config;
 import com.linkedin.util.degrader.ErrorType;
+import com.linkedin.util.degrader.StripedCallTrackerImpl;
 
 import java.net.ConnectException;
 import java.net.URI;
@@ -55,6 +56,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -94,10 +96,20 @@ public class TrackerClient implements LoadBalancerClient
 
   public TrackerClient(URI uri, Map<Integer, PartitionData> partitionDataMap, TransportClient wrappedClient,
                        Clock clock, Config config, long interval, String errorStatusRegex)
+  {
+    this(uri, partitionDataMap, wrappedClient, clock, config, interval, errorStatusRegex, false);
+  }
+
+  /**
+   * @param stripedCallTracker whether calls are counted by a {@link StripedCallTrackerImpl}, which does not take a
+   *                           lock on every call, rather than by a {@link CallTrackerImpl}
+   */
+  public TrackerClient(URI uri, Map<Integer, PartitionData> partitionDataMap, TransportClient wrappedClient,
+                       Clock clock, Config config, long interval, String errorStatusRegex, boolean stripedCallTracker)
   {
     _uri = uri;
     _wrappedClient = wrappedClient;
-    _callTracker = new CallTrackerImpl(interval, clock);
+    _callTracker = stripedCallTracker ? new StripedCallTrackerImpl(interval, clock) : new CallTrackerImpl(interval, clock);
     Pattern errorPattern;
     try
     {
@@ -360,6 +372,12 @@ public class TrackerClient implements LoadBalancerClient
       {
         callCompletion.endCallWithError(ErrorType.TIMEOUT_EXCEPTION);
       }
+      else if (originalThrowable instanceof CancellationException)
+      {
+        // the caller cancelled the call, e.g. because its backup request completed first, which is no
+        // fault of the host
+        callCompletion.endCall();
+      }
       else
       {
         callCompletion.endCallWithError(ErrorType.REMOTE_INVOCATION_EXCEPTION);
@@ -166,6 +166,10 @@ public class LoadBalancerStrategyPropertiesConverter
     {
       map.put(PropertyKeys.HTTP_LB_ERROR_STATUS_REGEX, config.getErrorStatusRegex());
     }
+    if (config.hasStripedCallTracker())
+    {
+      map.put(PropertyKeys.HTTP_LB_STRIPED_CALL_TRACKER, config.isStripedCallTracker().toString());
+    }
     if (config.hasLowEmittingInterval())
     {
       map.put(PropertyKeys.HTTP_LB_LOW_EVENT_EMITTING_INTERVAL, config.getLowEmittingInterval().toString());
@@ -308,6 +312,10 @@ public class LoadBalancerStrategyPropertiesConverter
     {
       config.setErrorStatusRegex(coerce(properties.get(PropertyKeys.HTTP_LB_ERROR_STATUS_REGEX), String.class));
     }
+    if (properties.containsKey(PropertyKeys.HTTP_LB_STRIPED_CALL_TRACKER))
+    {
+      config.setStripedCallTracker(coerce(properties.get(PropertyKeys.HTTP_LB_STRIPED_CALL_TRACKER), Boolean.class));
+    }
     if (properties.containsKey(PropertyKeys.HTTP_LB_LOW_EVENT_EMITTING_INTERVAL))
     {
       config.setLowEmittingInterval(coerce(properties.get(PropertyKeys.HTTP_LB_LOW_EVENT_EMITTING_INTERVAL), Integer.class));
@@ -0,0 +1,436 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.properties;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+
+/**
+ * An immutable hash map whose {@link #plus} and {@link #minus} return a new map sharing everything but the path
+ * to the changed key with this one, so changing a few keys of a large map costs O(log n) instead of a full copy.
+ * It is a hash array mapped trie consuming 5 bits of the key hash per level.
+ *
+ * The mutators of {@link Map} throw {@link UnsupportedOperationException}.
+ */
+final class PersistentHashMap<K, V> extends AbstractMap<K, V>
+{
+  private static final int BITS = 5;
+  // 7 levels consume the 32 bits of the hash, plus one for the keys whose hashes collide
+  private static final int MAX_DEPTH = 8;
+  private static final PersistentHashMap<Object, Object> EMPTY = new PersistentHashMap<Object, Object>(BitmapNode.EMPTY, 0);
+
+  private final Node _root;
+  private final int _size;
+
+  private PersistentHashMap(Node root, int size)
+  {
+    _root = root;
+    _size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <K, V> PersistentHashMap<K, V> empty()
+  {
+    return (PersistentHashMap<K, V>) EMPTY;
+  }
+
+  /**
+   * @return the given map when it is already a {@link PersistentHashMap}, a copy of it otherwise
+   */
+  static <K, V> PersistentHashMap<K, V> copyOf(Map<K, V> map)
+  {
+    if (map instanceof PersistentHashMap)
+    {
+      return (PersistentHashMap<K, V>) map;
+    }
+    PersistentHashMap<K, V> copy = empty();
+    for (Map.Entry<K, V> entry : map.entrySet())
+    {
+      copy = copy.plus(entry.getKey(), entry.getValue());
+    }
+    return copy;
+  }
+
+  /**
+   * @return a map with the mappings of this one and the given one, which replaces any previous mapping of the key
+   */
+  PersistentHashMap<K, V> plus(K key, V value)
+  {
+    int hash = hash(key);
+    int size = _root.find(hash, key, 0) == null ? _size + 1 : _size;
+    return new PersistentHashMap<K, V>(_root.put(new Leaf(hash, key, value), 0), size);
+  }
+
+  /**
+   * @return a map with the mappings of this one but the one of the given key, or this map when it has no such mapping
+   */
+  PersistentHashMap<K, V> minus(Object key)
+  {
+    int hash = hash(key);
+    if (_root.find(hash, key, 0) == null)
+    {
+      return this;
+    }
+    Node root = _root.remove(hash, key, 0);
+    return new PersistentHashMap<K, V>(root == null ? BitmapNode.EMPTY : root, _size - 1);
+  }
+
+  @Override
+  public int size()
+  {
+    return _size;
+  }
+
+  @Override
+  public boolean containsKey(Object key)
+  {
+    return _root.find(hash(key), key, 0) != null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key)
+  {
+    Leaf leaf = _root.find(hash(key), key, 0);
+    return leaf == null ? null : (V) leaf.getValue();
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet()
+  {
+    return new AbstractSet<Map.Entry<K, V>>()
+    {
+      @Override
+      public Iterator<Map.Entry<K, V>> iterator()
+      {
+        return new EntryIterator<K, V>(_root);
+      }
+
+      @Override
+      public int size()
+      {
+        return _size;
+      }
+
+      @Override
+      public boolean contains(Object o)
+      {
+        if (!(o instanceof Map.Entry))
+        {
+          return false;
+        }
+        Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+        Leaf leaf = _root.find(hash(entry.getKey()), entry.getKey(), 0);
+        return leaf != null && Objects.equals(leaf.getValue(), entry.getValue());
+      }
+    };
+  }
+
+  private static int hash(Object key)
+  {
+    int hash = key == null ? 0 : key.hashCode();
+    return hash ^ (hash >>> 16);
+  }
+
+  private static int bit(int hash, int shift)
+  {
+    return 1 << ((hash >>> shift) & 31);
+  }
+
+  private static final class Leaf extends AbstractMap.SimpleImmutableEntry<Object, Object>
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final int _hash;
+
+    Leaf(int hash, Object key, Object value)
+    {
+      super(key, value);
+      _hash = hash;
+    }
+
+    boolean matches(int hash, Object key)
+    {
+      return _hash == hash && Objects.equals(getKey(), key);
+    }
+  }
+
+  /**
+   * A node of the trie, whose slots hold either a {@link Leaf} or a child node.
+   */
+  private abstract static class Node
+  {
+    final Object[] _slots;
+
+    Node(Object[] slots)
+    {
+      _slots = slots;
+    }
+
+    abstract Leaf find(int hash, Object key, int shift);
+
+    abstract Node put(Leaf leaf, int shift);
+
+    /**
+     * Removes a key the node is known to hold.
+     *
+     * @return the node without the key, or null when it becomes empty
+     */
+    abstract Node remove(int hash, Object key, int shift);
+
+    /**
+     * @return the only leaf of this node, which the parent can hold directly, or this node
+     */
+    Object collapse()
+    {
+      return _slots.length == 1 && _slots[0] instanceof Leaf ? _slots[0] : this;
+    }
+  }
+
+  /**
+   * A node holding one slot for each 5 bits value of the hashes at its level present in its bitmap.
+   */
+  private static final class BitmapNode extends Node
+  {
+    static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    private final int _bitmap;
+
+    BitmapNode(int bitmap, Object[] slots)
+    {
+      super(slots);
+      _bitmap = bitmap;
+    }
+
+    private int index(int bit)
+    {
+      return Integer.bitCount(_bitmap & (bit - 1));
+    }
+
+    @Override
+    Leaf find(int hash, Object key, int shift)
+    {
+      int bit = bit(hash, shift);
+      if ((_bitmap & bit) == 0)
+      {
+        return null;
+      }
+      Object slot = _slots[index(bit)];
+      if (slot instanceof Node)
+      {
+        return ((Node) slot).find(hash, key, shift + BITS);
+      }
+      Leaf leaf = (Leaf) slot;
+      return leaf.matches(hash, key) ? leaf : null;
+    }
+
+    @Override
+    Node put(Leaf leaf, int shift)
+    {
+      int bit = bit(leaf._hash, shift);
+      int index = index(bit);
+      if ((_bitmap & bit) == 0)
+      {
+        Object[] slots = new Object[_slots.length + 1];
+        System.arraycopy(_slots, 0, slots, 0, index);
+        slots[index] = leaf;
+        System.arraycopy(_slots, index, slots, index + 1, _slots.length - index);
+        return new BitmapNode(_bitmap | bit, slots);
+      }
+
+      Object slot = _slots[index];
+      Object replacement;
+      if (slot instanceof Node)
+      {
+        replacement = ((Node) slot).put(leaf, shift + BITS);
+      }
+      else if (((Leaf) slot).matches(leaf._hash, leaf.getKey()))
+      {
+        replacement = leaf;
+      }
+      else if (((Leaf) slot)._hash == leaf._hash)
+      {
+        replacement = new CollisionNode(leaf._hash, new Object[] { slot, leaf });
+      }
+      else
+      {
+        replacement = EMPTY.put((Leaf) slot, shift + BITS).put(leaf, shift + BITS);
+      }
+      Object[] slots = _slots.clone();
+      slots[index] = replacement;
+      return new BitmapNode(_bitmap, slots);
+    }
+
+    @Override
+    Node remove(int hash, Object key, int shift)
+    {
+      int bit = bit(hash, shift);
+      int index = index(bit);
+      Object slot = _slots[index];
+      if (slot instanceof Node)
+      {
+        Node child = ((Node) slot).remove(hash, key, shift + BITS);
+        if (child != null)
+        {
+          Object[] slots = _slots.clone();
+          slots[index] = child.collapse();
+          return new BitmapNode(_bitmap, slots);
+        }
+      }
+
+      if (_slots.length == 1)
+      {
+        return null;
+      }
+      Object[] slots = new Object[_slots.length - 1];
+      System.arraycopy(_slots, 0, slots, 0, index);
+      System.arraycopy(_slots, index + 1, slots, index, slots.length - index);
+      return new BitmapNode(_bitmap & ~bit, slots);
+    }
+  }
+
+  /**
+   * A node holding the leaves of keys whose hashes are all the same.
+   */
+  private static final class CollisionNode extends Node
+  {
+    private final int _hash;
+
+    CollisionNode(int hash, Object[] slots)
+    {
+      super(slots);
+      _hash = hash;
+    }
+
+    @Override
+    Leaf find(int hash, Object key, int shift)
+    {
+      for (Object slot : _slots)
+      {
+        if (((Leaf) slot).matches(hash, key))
+        {
+          return (Leaf) slot;
+        }
+      }
+      return null;
+    }
+
+    @Override
+    Node put(Leaf leaf, int shift)
+    {
+      if (leaf._hash != _hash)
+      {
+        return new BitmapNode(bit(_hash, shift), new Object[] { this }).put(leaf, shift);
+      }
+      for (int i = 0; i < _slots.length; i++)
+      {
+        if (((Leaf) _slots[i]).matches(leaf._hash, leaf.getKey()))
+        {
+          Object[] slots = _slots.clone();
+          slots[i] = leaf;
+          return new CollisionNode(_hash, slots);
+        }
+      }
+      Object[] slots = new Object[_slots.length + 1];
+      System.arraycopy(_slots, 0, slots, 0, _slots.length);
+      slots[_slots.length] = leaf;
+      return new CollisionNode(_hash, slots);
+    }
+
+    @Override
+    Node remove(int hash, Object key, int shift)
+    {
+      Object[] slots = new Object[_slots.length - 1];
+      int j = 0;
+      for (Object slot : _slots)
+      {
+        if (!((Leaf) slot).matches(hash, key))
+        {
+          slots[j++] = slot;
+        }
+      }
+      return new CollisionNode(_hash, slots);
+    }
+  }
+
+  /**
+   * Walks the trie depth first, keeping the slots and position of each level on a stack.
+   */
+  private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>>
+  {
+    private final Object[][] _slots = new Object[MAX_DEPTH][];
+    private final int[] _positions = new int[MAX_DEPTH];
+    private int _depth;
+    private Leaf _next;
+
+    EntryIterator(Node root)
+    {
+      _slots[0] = root._slots;
+      advance();
+    }
+
+    private void advance()
+    {
+      _next = null;
+      while (_depth >= 0)
+      {
+        if (_positions[_depth] == _slots[_depth].length)
+        {
+          _depth--;
+          continue;
+        }
+        Object slot = _slots[_depth][_positions[_depth]++];
+        if (slot instanceof Node)
+        {
+          _depth++;
+          _slots[_depth] = ((Node) slot)._slots;
+          _positions[_depth] = 0;
+        }
+        else
+        {
+          _next = (Leaf) slot;
+          return;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      return _next != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map.Entry<K, V> next()
+    {
+      if (_next == null)
+      {
+        throw new NoSuchElementException();
+      }
+      Map.Entry<K, V> next = (Map.Entry<K, V>) (Map.Entry<?, ?>) _next;
+      advance();
+      return next;
+    }
+  }
+}
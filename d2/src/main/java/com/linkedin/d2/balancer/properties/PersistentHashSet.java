@@ -0,0 +1,92 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.properties;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+
+
+/**
+ * An immutable set backed by a {@link PersistentHashMap}, whose {@link #plus} and {@link #minus} share everything
+ * but the changed path with this set.
+ *
+ * The mutators of {@link Set} throw {@link UnsupportedOperationException}.
+ */
+final class PersistentHashSet<E> extends AbstractSet<E>
+{
+  private static final PersistentHashSet<Object> EMPTY = new PersistentHashSet<Object>(PersistentHashMap.<Object, Boolean>empty());
+
+  private final PersistentHashMap<E, Boolean> _map;
+
+  private PersistentHashSet(PersistentHashMap<E, Boolean> map)
+  {
+    _map = map;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <E> PersistentHashSet<E> empty()
+  {
+    return (PersistentHashSet<E>) EMPTY;
+  }
+
+  /**
+   * @return the given set when it is already a {@link PersistentHashSet}, a copy of it otherwise
+   */
+  static <E> PersistentHashSet<E> copyOf(Set<E> set)
+  {
+    if (set instanceof PersistentHashSet)
+    {
+      return (PersistentHashSet<E>) set;
+    }
+    PersistentHashSet<E> copy = empty();
+    for (E element : set)
+    {
+      copy = copy.plus(element);
+    }
+    return copy;
+  }
+
+  PersistentHashSet<E> plus(E element)
+  {
+    return _map.containsKey(element) ? this : new PersistentHashSet<E>(_map.plus(element, Boolean.TRUE));
+  }
+
+  PersistentHashSet<E> minus(Object element)
+  {
+    PersistentHashMap<E, Boolean> map = _map.minus(element);
+    return map == _map ? this : new PersistentHashSet<E>(map);
+  }
+
+  @Override
+  public Iterator<E> iterator()
+  {
+    return _map.keySet().iterator();
+  }
+
+  @Override
+  public int size()
+  {
+    return _map.size();
+  }
+
+  @Override
+  public boolean contains(Object o)
+  {
+    return _map.containsKey(o);
+  }
+}
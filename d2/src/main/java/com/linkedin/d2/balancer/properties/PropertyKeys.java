@@ -95,6 +95,7 @@ public class PropertyKeys
   public static final String HTTP_LB_QUARANTINE_EXECUTOR_SERVICE = "http.loadBalancer.quarantine.executorService";
   public static final String HTTP_LB_QUARANTINE_METHOD = "http.loadBalancer.quarantine.method";
   public static final String HTTP_LB_ERROR_STATUS_REGEX = "http.loadBalancer.errorStatusRegex";
+  public static final String HTTP_LB_STRIPED_CALL_TRACKER = "http.loadBalancer.stripedCallTracker";
   public static final String HTTP_LB_LOW_EVENT_EMITTING_INTERVAL = "http.loadBalancer.lowEmittingInterval";
   public static final String HTTP_LB_HIGH_EVENT_EMITTING_INTERVAL = "http.loadBalancer.highEmittingInterval";
 
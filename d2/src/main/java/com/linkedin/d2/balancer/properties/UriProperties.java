@@ -36,6 +36,10 @@ public class UriProperties
   // Properties specific to a particular machine in the cluster
   private final Map<URI, Map<String, Object>> _uriSpecificProperties;
 
+  // how many nodes announce each uri announced by more than one node, kept by UriPropertiesMerger so that removing a
+  // node does not have to look for the uri in all the other nodes; not part of the value
+  private final Map<URI, Integer> _duplicateUris;
+
   public UriProperties(String clusterName, Map<URI, Map<Integer, PartitionData>> partitionDescriptions)
   {
     this(clusterName, partitionDescriptions, Collections.<URI, Map<String, Object>>emptyMap());
@@ -44,6 +48,17 @@ public class UriProperties
   public UriProperties(String clusterName,
                        Map<URI, Map<Integer, PartitionData>> partitionDescriptions,
                        Map<URI, Map<String, Object>> uriSpecificProperties)
+  {
+    this(clusterName, partitionDescriptions, uriSpecificProperties, null);
+  }
+
+  /**
+   * @param duplicateUris how many nodes announce each uri announced by more than one node, or null when unknown
+   */
+  UriProperties(String clusterName,
+                Map<URI, Map<Integer, PartitionData>> partitionDescriptions,
+                Map<URI, Map<String, Object>> uriSpecificProperties,
+                Map<URI, Integer> duplicateUris)
   {
     _clusterName = clusterName;
     Map<URI, Map<Integer, PartitionData>> partitionDescriptionsMap = new HashMap<URI, Map<Integer, PartitionData>>(partitionDescriptions.size() * 2);
@@ -97,6 +112,143 @@ public class UriProperties
 
     _uriSpecificProperties = (uriSpecificProperties == null) ? Collections.<URI, Map<String, Object>>emptyMap() :
         Collections.unmodifiableMap(uriSpecificProperties);
+    _duplicateUris = duplicateUris == null ? null : Collections.unmodifiableMap(new HashMap<URI, Integer>(duplicateUris));
+  }
+
+  /**
+   * Creates the properties resulting from changing some uris of the previous properties. The maps and sets of the
+   * result share everything but the changed uris with the previous ones, so the cost of the change does not depend
+   * on the number of uris of the cluster once they are backed by persistent maps, which the first change takes care of.
+   *
+   * @param previous the properties to change
+   * @param changedPartitionDescriptions the new unmodifiable partition descriptions of the uris added or changed
+   * @param removedUris the uris which are no longer part of the cluster
+   * @param changedUriSpecificProperties the new uri specific properties of the uris added or changed, null values
+   *                                     removing them
+   * @param duplicateUris how many nodes announce each uri announced by more than one node
+   */
+  UriProperties(UriProperties previous,
+                Map<URI, Map<Integer, PartitionData>> changedPartitionDescriptions,
+                Set<URI> removedUris,
+                Map<URI, Map<String, Object>> changedUriSpecificProperties,
+                Map<URI, Integer> duplicateUris)
+  {
+    _clusterName = previous._clusterName;
+    PersistentHashMap<URI, Map<Integer, PartitionData>> partitionDescriptions = PersistentHashMap.copyOf(previous._partitionDesc);
+    PersistentHashMap<URI, Map<String, Object>> uriSpecificProperties = PersistentHashMap.copyOf(previous._uriSpecificProperties);
+    // the uri sets of the scheme and partitions the change touches
+    Map<String, Map<Integer, PersistentHashSet<URI>>> changedUriSets = new HashMap<String, Map<Integer, PersistentHashSet<URI>>>();
+
+    for (URI uri : removedUris)
+    {
+      Map<Integer, PartitionData> oldPartitions = partitionDescriptions.get(uri);
+      if (oldPartitions != null)
+      {
+        partitionDescriptions = partitionDescriptions.minus(uri);
+        for (Integer partitionId : oldPartitions.keySet())
+        {
+          removeFromUriSet(previous, changedUriSets, uri, partitionId);
+        }
+      }
+      uriSpecificProperties = uriSpecificProperties.minus(uri);
+    }
+    for (Map.Entry<URI, Map<Integer, PartitionData>> entry : changedPartitionDescriptions.entrySet())
+    {
+      final URI uri = entry.getKey();
+      Map<Integer, PartitionData> oldPartitions = partitionDescriptions.get(uri);
+      partitionDescriptions = partitionDescriptions.plus(uri, entry.getValue());
+      if (oldPartitions != null)
+      {
+        for (Integer partitionId : oldPartitions.keySet())
+        {
+          removeFromUriSet(previous, changedUriSets, uri, partitionId);
+        }
+      }
+      for (Integer partitionId : entry.getValue().keySet())
+      {
+        PersistentHashSet<URI> uriSet = getChangedUriSet(previous, changedUriSets, uri.getScheme(), partitionId);
+        changedUriSets.get(uri.getScheme()).put(partitionId, uriSet.plus(uri));
+      }
+    }
+    for (Map.Entry<URI, Map<String, Object>> entry : changedUriSpecificProperties.entrySet())
+    {
+      uriSpecificProperties = entry.getValue() == null ? uriSpecificProperties.minus(entry.getKey())
+          : uriSpecificProperties.plus(entry.getKey(), entry.getValue());
+    }
+    _partitionDesc = partitionDescriptions;
+    _uriSpecificProperties = uriSpecificProperties;
+
+    // replace the changed sets, dropping the ones which became empty the same way the full grouping never creates them;
+    // the maps copied here have one entry per scheme and per partition, whatever the number of uris
+    Map<String, Map<Integer, Set<URI>>> urisBySchemeAndPartition = new HashMap<String, Map<Integer, Set<URI>>>(previous._urisBySchemeAndPartition);
+    for (Map.Entry<String, Map<Integer, PersistentHashSet<URI>>> entry : changedUriSets.entrySet())
+    {
+      final String scheme = entry.getKey();
+      Map<Integer, Set<URI>> previousPartitionUris = previous._urisBySchemeAndPartition.get(scheme);
+      Map<Integer, Set<URI>> partitionUris = previousPartitionUris == null ? new HashMap<Integer, Set<URI>>()
+          : new HashMap<Integer, Set<URI>>(previousPartitionUris);
+      for (Map.Entry<Integer, PersistentHashSet<URI>> partitionUriEntry : entry.getValue().entrySet())
+      {
+        if (partitionUriEntry.getValue().isEmpty())
+        {
+          partitionUris.remove(partitionUriEntry.getKey());
+        }
+        else
+        {
+          partitionUris.put(partitionUriEntry.getKey(), partitionUriEntry.getValue());
+        }
+      }
+      if (partitionUris.isEmpty())
+      {
+        urisBySchemeAndPartition.remove(scheme);
+      }
+      else
+      {
+        urisBySchemeAndPartition.put(scheme, Collections.unmodifiableMap(partitionUris));
+      }
+    }
+    _urisBySchemeAndPartition = Collections.unmodifiableMap(urisBySchemeAndPartition);
+
+    _duplicateUris = duplicateUris.isEmpty() ? Collections.<URI, Integer>emptyMap() : Collections.unmodifiableMap(duplicateUris);
+  }
+
+  private static void removeFromUriSet(UriProperties previous,
+                                       Map<String, Map<Integer, PersistentHashSet<URI>>> changedUriSets,
+                                       URI uri,
+                                       Integer partitionId)
+  {
+    PersistentHashSet<URI> uriSet = getChangedUriSet(previous, changedUriSets, uri.getScheme(), partitionId);
+    changedUriSets.get(uri.getScheme()).put(partitionId, uriSet.minus(uri));
+  }
+
+  private static PersistentHashSet<URI> getChangedUriSet(UriProperties previous,
+                                                         Map<String, Map<Integer, PersistentHashSet<URI>>> changedUriSets,
+                                                         String scheme,
+                                                         Integer partitionId)
+  {
+    Map<Integer, PersistentHashSet<URI>> partitionUris = changedUriSets.get(scheme);
+    if (partitionUris == null)
+    {
+      partitionUris = new HashMap<Integer, PersistentHashSet<URI>>();
+      changedUriSets.put(scheme, partitionUris);
+    }
+    PersistentHashSet<URI> uriSet = partitionUris.get(partitionId);
+    if (uriSet == null)
+    {
+      Set<URI> previousUris = previous.getUriBySchemeAndPartition(scheme, partitionId);
+      uriSet = previousUris == null ? PersistentHashSet.<URI>empty() : PersistentHashSet.copyOf(previousUris);
+      partitionUris.put(partitionId, uriSet);
+    }
+    return uriSet;
+  }
+
+  /**
+   * @return how many nodes announce each uri announced by more than one node, or null when these properties were not
+   *         merged from the nodes of the cluster
+   */
+  Map<URI, Integer> getDuplicateUris()
+  {
+    return _duplicateUris;
   }
 
   public String getClusterName()
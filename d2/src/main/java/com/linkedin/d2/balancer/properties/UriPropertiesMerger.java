@@ -16,11 +16,13 @@
 
 package com.linkedin.d2.balancer.properties;
 
+import com.linkedin.d2.discovery.event.PropertyDelta;
 import com.linkedin.d2.discovery.stores.zk.ZooKeeperPropertyMerger;
 
 import java.net.URI;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,6 +33,7 @@ public class UriPropertiesMerger implements ZooKeeperPropertyMerger<UriPropertie
   {
     Map<URI, Map<Integer, PartitionData>> partitionData = new HashMap<URI, Map<Integer, PartitionData>>();
     Map<URI, Map<String, Object>> uriSpecificProperties = new HashMap<URI, Map<String, Object>>();
+    Map<URI, Integer> duplicateUris = new HashMap<URI, Integer>();
 
     String clusterName = propertyName;
 
@@ -38,7 +41,10 @@ public class UriPropertiesMerger implements ZooKeeperPropertyMerger<UriPropertie
     {
       for (Map.Entry<URI, Map<Integer, PartitionData>> entry : property.getPartitionDesc().entrySet())
       {
-        partitionData.put(entry.getKey(), entry.getValue());
+        if (partitionData.put(entry.getKey(), entry.getValue()) != null)
+        {
+          duplicateUris.merge(entry.getKey(), 2, (count, ignored) -> count + 1);
+        }
       }
       for (Map.Entry<URI, Map<String, Object>> entry: property.getUriSpecificProperties().entrySet())
       {
@@ -46,7 +52,98 @@ public class UriPropertiesMerger implements ZooKeeperPropertyMerger<UriPropertie
       }
     }
 
-    return new UriProperties(clusterName, partitionData, uriSpecificProperties);
+    return new UriProperties(clusterName, partitionData, uriSpecificProperties, duplicateUris);
+  }
+
+  /**
+   * Applies the delta to its previous value, touching only the uris of the nodes added and removed. The nodes left
+   * are only looked at when a removed node announced a uri which another node announces too, which
+   * {@link UriProperties#getDuplicateUris()} tells without looking.
+   */
+  @Override
+  public UriProperties merge(String propertyName,
+                             PropertyDelta<UriProperties> delta,
+                             Collection<UriProperties> propertiesToMerge)
+  {
+    UriProperties previous = delta.getPreviousValue();
+    if (previous == null || previous.getDuplicateUris() == null)
+    {
+      return merge(propertyName, propertiesToMerge);
+    }
+
+    Map<URI, Map<Integer, PartitionData>> changedPartitionData = new HashMap<URI, Map<Integer, PartitionData>>();
+    Map<URI, Map<String, Object>> changedUriSpecificProperties = new HashMap<URI, Map<String, Object>>();
+    Map<URI, Integer> duplicateUris = new HashMap<URI, Integer>(previous.getDuplicateUris());
+    Set<URI> removedUris = new HashSet<URI>();
+    // the uris a removed node announced which another node still announces
+    Set<URI> stillAnnouncedUris = new HashSet<URI>();
+
+    for (UriProperties property : delta.getRemoved())
+    {
+      for (URI uri : property.Uris())
+      {
+        Integer count = duplicateUris.get(uri);
+        if (count == null)
+        {
+          removedUris.add(uri);
+        }
+        else
+        {
+          if (count == 2)
+          {
+            duplicateUris.remove(uri);
+          }
+          else
+          {
+            duplicateUris.put(uri, count - 1);
+          }
+          stillAnnouncedUris.add(uri);
+        }
+      }
+    }
+    for (UriProperties property : delta.getAdded())
+    {
+      for (URI uri : property.Uris())
+      {
+        boolean announced = changedPartitionData.containsKey(uri)
+            || (previous.getPartitionDataMap(uri) != null && !removedUris.contains(uri));
+        if (announced)
+        {
+          duplicateUris.merge(uri, 2, (count, ignored) -> count + 1);
+        }
+        removedUris.remove(uri);
+        putUri(property, uri, changedPartitionData, changedUriSpecificProperties);
+      }
+    }
+
+    stillAnnouncedUris.removeAll(removedUris);
+    stillAnnouncedUris.removeAll(changedPartitionData.keySet());
+    if (!stillAnnouncedUris.isEmpty())
+    {
+      // the removed node may be the one whose descriptions the previous value holds
+      for (UriProperties property : propertiesToMerge)
+      {
+        for (URI uri : property.Uris())
+        {
+          if (stillAnnouncedUris.contains(uri))
+          {
+            putUri(property, uri, changedPartitionData, changedUriSpecificProperties);
+          }
+        }
+      }
+    }
+
+    return new UriProperties(previous, changedPartitionData, removedUris, changedUriSpecificProperties, duplicateUris);
+  }
+
+  private static void putUri(UriProperties property,
+                             URI uri,
+                             Map<URI, Map<Integer, PartitionData>> partitionData,
+                             Map<URI, Map<String, Object>> uriSpecificProperties)
+  {
+    partitionData.put(uri, property.getPartitionDataMap(uri));
+    // a null value removes the uri specific properties the uri had
+    uriSpecificProperties.put(uri, property.getUriSpecificProperties().get(uri));
   }
 
   @Override
@@ -17,6 +17,7 @@
 package com.linkedin.d2.balancer.simple;
 
 import com.linkedin.d2.balancer.LoadBalancerState;
+import com.linkedin.d2.discovery.event.PropertyDelta;
 import com.linkedin.d2.discovery.event.PropertyEventBus;
 import com.linkedin.d2.discovery.event.PropertyEventSubscriber;
 import com.linkedin.r2.util.ClosableQueue;
@@ -99,6 +100,21 @@ public abstract class AbstractLoadBalancerSubscriber<T> implements
 
     handlePut(propertyName, propertyValue);
 
+    notifyWaiters(propertyName);
+  }
+
+  @Override
+  public void onDelta(final String propertyName, final T propertyValue, final PropertyDelta<T> delta)
+  {
+    trace(_log, _name, ".onDelta: ", propertyName, ": ", delta);
+
+    handleDelta(propertyName, propertyValue, delta);
+
+    notifyWaiters(propertyName);
+  }
+
+  private void notifyWaiters(String propertyName)
+  {
     // if bad properties are received, then onInitialize()::handlePut might throw an exception and
     // the queue might not be closed. If the queue is not closed, then even if the underlying
     // problem with the properties is fixed and handlePut succeeds, new callbacks will be added
@@ -151,5 +167,14 @@ public abstract class AbstractLoadBalancerSubscriber<T> implements
 
   protected abstract void handlePut(String propertyName, T propertyValue);
 
+  /**
+   * Applies an incremental change of the property. Subscribers which can't make use of the delta
+   * handle the new value as a put, which is the default.
+   */
+  protected void handleDelta(String propertyName, T propertyValue, PropertyDelta<T> delta)
+  {
+    handlePut(propertyName, propertyValue);
+  }
+
   protected abstract void handleRemove(String name);
 }
@@ -56,11 +56,13 @@ class ClusterLoadBalancerSubscriber extends
       _simpleLoadBalancerState.getClusterInfo().put(listenTo,
         new ClusterInfoItem(_simpleLoadBalancerState, discoveryProperties, null));
     }
+    _simpleLoadBalancerState.invalidateClusterRoutingSnapshots(listenTo);
   }
 
   @Override
   protected void handleRemove(final String listenTo)
   {
     _simpleLoadBalancerState.getClusterInfo().remove(listenTo);
+    _simpleLoadBalancerState.removeClusterRoutingSnapshots(listenTo);
   }
 }
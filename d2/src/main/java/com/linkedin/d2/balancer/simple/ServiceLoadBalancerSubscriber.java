@@ -115,6 +115,7 @@ class ServiceLoadBalancerSubscriber extends
       // in this case it's better to leave the state intact and not do anything
       _log.warn("We receive a null service properties for {}. ", listenTo);
     }
+    _simpleLoadBalancerState.invalidateRoutingSnapshots(Collections.singleton(listenTo));
   }
 
   @Override
@@ -140,5 +141,6 @@ class ServiceLoadBalancerSubscriber extends
       _simpleLoadBalancerState.shutdownClients(listenTo);
 
     }
+    _simpleLoadBalancerState.removeServiceRoutingSnapshots(listenTo);
   }
 }
@@ -41,6 +41,7 @@ import com.linkedin.d2.balancer.util.HostToKeyMapper;
 import com.linkedin.d2.balancer.util.KeysAndHosts;
 import com.linkedin.d2.balancer.util.LoadBalancerUtil;
 import com.linkedin.d2.balancer.util.MapKeyResult;
+import com.linkedin.d2.balancer.util.RoutingSnapshot;
 import com.linkedin.d2.balancer.util.hashing.HashFunction;
 import com.linkedin.d2.balancer.util.hashing.HashRingProvider;
 import com.linkedin.d2.balancer.util.hashing.RandomHash;
@@ -695,9 +696,27 @@ public class SimpleLoadBalancer implements LoadBalancer, HashRingProvider, Clien
                                                   String scheme,
                                                   int partitionId)
   {
-    Set<URI> possibleUris = uris.getUriBySchemeAndPartition(scheme, partitionId);
+    // read the generation before the tracker clients, so that a snapshot racing with a change is
+    // rebuilt on the next request
+    long routingGeneration = _state.getRoutingGeneration(serviceName);
+    List<TrackerClient> clientsToBalance;
+    if (routingGeneration == LoadBalancerState.UNTRACKED_ROUTING_GENERATION)
+    {
+      clientsToBalance = getPotentialClients(serviceName, serviceProperties, clusterProperties,
+          uris.getUriBySchemeAndPartition(scheme, partitionId));
+    }
+    else
+    {
+      RoutingSnapshot snapshot = _state.getRoutingSnapshot(serviceName, scheme, partitionId);
+      if (snapshot == null || !snapshot.isCurrent(routingGeneration, serviceProperties, clusterProperties, uris))
+      {
+        snapshot = new RoutingSnapshot(getPotentialClients(serviceName, serviceProperties, clusterProperties,
+            uris.getUriBySchemeAndPartition(scheme, partitionId)), routingGeneration, serviceProperties, clusterProperties, uris);
+        _state.putRoutingSnapshot(serviceName, scheme, partitionId, snapshot);
+      }
+      clientsToBalance = snapshot;
+    }
 
-    List<TrackerClient> clientsToBalance = getPotentialClients(serviceName, serviceProperties, clusterProperties, possibleUris);
     if (clientsToBalance.isEmpty())
     {
       info(_log, "Can not find a host for service: ", serviceName, ", scheme: ", scheme, ", partition: ", partitionId);
@@ -879,4 +898,5 @@ public class SimpleLoadBalancer implements LoadBalancer, HashRingProvider, Clien
     }
   }
 
+
 }
@@ -38,6 +38,7 @@ import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategy
 import com.linkedin.d2.balancer.util.ClientFactoryProvider;
 import com.linkedin.d2.balancer.util.LoadBalancerUtil;
 import com.linkedin.d2.balancer.util.RateLimitedLogger;
+import com.linkedin.d2.balancer.util.RoutingSnapshot;
 import com.linkedin.d2.balancer.util.partitions.PartitionAccessor;
 import com.linkedin.d2.balancer.util.partitions.PartitionAccessorRegistry;
 import com.linkedin.d2.balancer.util.partitions.PartitionAccessorRegistryImpl;
@@ -56,6 +57,7 @@ import com.linkedin.util.clock.SystemClock;
 import com.linkedin.util.degrader.DegraderImpl;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -63,6 +65,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -82,6 +85,8 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
   private static final Logger                                                            _log =
                                                                                                   LoggerFactory.getLogger(SimpleLoadBalancerState.class);
   private static final int DEGRADER_RATELIMITEDLOG_RATE_MS = 20000;
+  // routing generation of the services without one, snapshots built with it are never kept
+  private static final long NO_ROUTING_GENERATION = 0;
 
   private final UriLoadBalancerSubscriber _uriSubscriber;
   private final ClusterLoadBalancerSubscriber _clusterSubscriber;
@@ -97,6 +102,20 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
 
   private final AtomicLong                                                               _version;
 
+  /**
+   * Routing generation per service, bumped after every change of the service, of its cluster or of
+   * the uris of its cluster has been fully applied, so routing snapshots of the service built before
+   * it are rebuilt. Generations are drawn from _routingSequence, so none is ever reused.
+   */
+  private final ConcurrentMap<String, Long>                                              _routingGenerations;
+  private final AtomicLong                                                               _routingSequence;
+
+  /**
+   * Routing snapshots per service, scheme and partition. Entries are rebuilt by the load balancer
+   * when the generation of their service moves, and evicted when their service or cluster is removed.
+   */
+  private final ConcurrentMap<RoutingKey, RoutingSnapshot>                               _routingSnapshots;
+
   private final Map<String, Set<String>>                                                 _servicesPerCluster;
 
   /**
@@ -252,6 +271,9 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     _serviceProperties =
         new ConcurrentHashMap<String, LoadBalancerStateItem<ServiceProperties>>();
     _version = new AtomicLong(0);
+    _routingGenerations = new ConcurrentHashMap<>();
+    _routingSequence = new AtomicLong(0);
+    _routingSnapshots = new ConcurrentHashMap<>();
 
     _uriBus = uriBus;
     _uriSubscriber = new UriLoadBalancerSubscriber(uriBus, this);
@@ -520,6 +542,84 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     return _version;
   }
 
+  @Override
+  public long getRoutingGeneration(String serviceName)
+  {
+    return _routingGenerations.getOrDefault(serviceName, NO_ROUTING_GENERATION);
+  }
+
+  /**
+   * Bumps the routing generation of the given services.
+   */
+  void invalidateRoutingSnapshots(Collection<String> serviceNames)
+  {
+    if (serviceNames != null)
+    {
+      for (String serviceName : serviceNames)
+      {
+        _routingGenerations.put(serviceName, _routingSequence.incrementAndGet());
+      }
+    }
+  }
+
+  /**
+   * Bumps the routing generation of the services of the given cluster.
+   */
+  void invalidateClusterRoutingSnapshots(String clusterName)
+  {
+    invalidateRoutingSnapshots(_servicesPerCluster.get(clusterName));
+  }
+
+  /**
+   * Bumps the routing generation of the services of the given cluster and evicts their routing snapshots.
+   */
+  void removeClusterRoutingSnapshots(String clusterName)
+  {
+    Set<String> serviceNames = _servicesPerCluster.get(clusterName);
+    // bump before evicting, so that a snapshot stored concurrently is either evicted here or
+    // dropped by putRoutingSnapshot
+    invalidateRoutingSnapshots(serviceNames);
+    if (serviceNames != null && !serviceNames.isEmpty())
+    {
+      _routingSnapshots.keySet().removeIf(key -> serviceNames.contains(key._serviceName));
+    }
+  }
+
+  /**
+   * Forgets the routing generation of the given service and evicts its routing snapshots.
+   */
+  void removeServiceRoutingSnapshots(String serviceName)
+  {
+    // forget the generation before evicting, so that a snapshot stored concurrently is either evicted
+    // here or dropped by putRoutingSnapshot
+    _routingGenerations.remove(serviceName);
+    _routingSnapshots.keySet().removeIf(key -> serviceName.equals(key._serviceName));
+  }
+
+  @Override
+  public RoutingSnapshot getRoutingSnapshot(String serviceName, String scheme, int partitionId)
+  {
+    return _routingSnapshots.get(new RoutingKey(serviceName, scheme, partitionId));
+  }
+
+  @Override
+  public void putRoutingSnapshot(String serviceName, String scheme, int partitionId, RoutingSnapshot snapshot)
+  {
+    RoutingKey key = new RoutingKey(serviceName, scheme, partitionId);
+    _routingSnapshots.put(key, snapshot);
+    if (snapshot.getRoutingGeneration() != getRoutingGeneration(serviceName)
+        || snapshot.getRoutingGeneration() == NO_ROUTING_GENERATION)
+    {
+      // the service changed while the snapshot was built, possibly being removed
+      _routingSnapshots.remove(key, snapshot);
+    }
+  }
+
+  int getRoutingSnapshotCount()
+  {
+    return _routingSnapshots.size();
+  }
+
   public int getClusterCount()
   {
     return _clusterInfo.size();
@@ -771,7 +871,7 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
 
   TrackerClient getTrackerClient(String serviceName, URI uri, Map<Integer, PartitionData> partitionDataMap,
                                  DegraderImpl.Config config, Clock clk, long callTrackerInterval,
-                                 String errorStatusPattern)
+                                 String errorStatusPattern, boolean stripedCallTracker)
   {
     Map<String,TransportClient> clientsByScheme = _serviceClients.get(serviceName);
     if (clientsByScheme == null)
@@ -790,7 +890,8 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
             new Object[]{uri.getScheme(), serviceName, uri, partitionDataMap });
       return null;
     }
-    TrackerClient trackerClient = new TrackerClient(uri, partitionDataMap, client, clk, config, callTrackerInterval, errorStatusPattern);
+    TrackerClient trackerClient = new TrackerClient(uri, partitionDataMap, client, clk, config, callTrackerInterval,
+        errorStatusPattern, stripedCallTracker);
     return trackerClient;
   }
 
@@ -918,6 +1019,17 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     return pattern;
   }
 
+  static boolean isStripedCallTracker(ServiceProperties serviceProperties)
+  {
+    boolean stripedCallTracker = false;
+    if (serviceProperties.getLoadBalancerStrategyProperties() != null)
+    {
+      stripedCallTracker = MapUtil.getWithDefault(serviceProperties.getLoadBalancerStrategyProperties(),
+          PropertyKeys.HTTP_LB_STRIPED_CALL_TRACKER, false, Boolean.class);
+    }
+    return stripedCallTracker;
+  }
+
   void refreshTransportClientsPerService(ServiceProperties serviceProperties)
   {
     String serviceName = serviceProperties.getServiceName();
@@ -966,10 +1078,12 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
           CollectionUtils.getMapInitialCapacity(uris.size(), 0.75f), 0.75f, 1);
       long trackerClientInterval = getTrackerClientInterval (serviceProperties);
       String errorStatusPattern = getErrorStatusPattern(serviceProperties);
+      boolean stripedCallTracker = isStripedCallTracker(serviceProperties);
       for (URI uri : uris)
       {
         TrackerClient trackerClient = getTrackerClient(serviceName, uri, uriProperties.getPartitionDataMap(uri),
-                                                       config, clk, trackerClientInterval, errorStatusPattern);
+                                                       config, clk, trackerClientInterval, errorStatusPattern,
+                                                       stripedCallTracker);
         if (trackerClient != null)
         {
           newTrackerClients.put(uri, trackerClient);
@@ -1191,4 +1305,38 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     void onClientRemoved(String serviceName, TrackerClient client);
   }
 
+  private static final class RoutingKey
+  {
+    private final String _serviceName;
+    private final String _scheme;
+    private final int _partitionId;
+
+    RoutingKey(String serviceName, String scheme, int partitionId)
+    {
+      _serviceName = serviceName;
+      _scheme = scheme;
+      _partitionId = partitionId;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      if (this == o)
+      {
+        return true;
+      }
+      if (!(o instanceof RoutingKey))
+      {
+        return false;
+      }
+      RoutingKey other = (RoutingKey) o;
+      return _partitionId == other._partitionId && _serviceName.equals(other._serviceName) && _scheme.equals(other._scheme);
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return (_serviceName.hashCode() * 31 + _scheme.hashCode()) * 31 + _partitionId;
+    }
+  }
 }
@@ -25,11 +25,14 @@ import com.linkedin.d2.balancer.properties.PropertyKeys;
 import com.linkedin.d2.balancer.properties.ServiceProperties;
 import com.linkedin.d2.balancer.properties.UriProperties;
 import com.linkedin.d2.balancer.strategies.degrader.DegraderConfigFactory;
+import com.linkedin.d2.discovery.event.PropertyDelta;
 import com.linkedin.d2.discovery.event.PropertyEventBus;
 import com.linkedin.util.clock.Clock;
 import com.linkedin.util.clock.SystemClock;
 import com.linkedin.util.degrader.DegraderImpl;
 import java.net.URI;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
@@ -64,128 +67,197 @@ class UriLoadBalancerSubscriber extends
     // add tracker clients for uris that we aren't already tracking
     if (discoveryProperties != null)
     {
-      String clusterName = discoveryProperties.getClusterName();
+      addTrackerClients(discoveryProperties, discoveryProperties.Uris());
+    }
+
+    // replace the URI properties
+    _simpleLoadBalancerState.getUriProperties().put(listenTo,
+      new LoadBalancerStateItem<>(discoveryProperties,
+        _simpleLoadBalancerState.getVersionAccess().incrementAndGet(),
+        System.currentTimeMillis()));
+
+    // now remove URIs that we're tracking, but have been removed from the new uri
+    // properties
+    if (discoveryProperties != null)
+    {
+      removeTrackerClients(discoveryProperties, null);
+    }
+    else
+    {
+      // uri properties was null, we'll just log the event and continues.
+      // The reasoning is we might receive a null event when there's a problem writing/reading
+      // cache file, or we just started listening to a cluster without any uris yet.
+      warn(_log, "received a null uri properties for cluster: ", listenTo);
+    }
+    _simpleLoadBalancerState.invalidateClusterRoutingSnapshots(listenTo);
+  }
 
-      Set<String> serviceNames = _simpleLoadBalancerState.getServicesPerCluster().get(clusterName);
-      //updates all the services that these uris provide
-      if (serviceNames != null)
+  /**
+   * Only looks at the uris the delta touches, instead of every uri of the cluster. Falls back to
+   * {@link #handlePut(String, UriProperties)} if the state doesn't hold the value the delta applies to.
+   */
+  @Override
+  protected void handleDelta(final String listenTo, final UriProperties discoveryProperties,
+                             final PropertyDelta<UriProperties> delta)
+  {
+    LoadBalancerStateItem<UriProperties> currentItem = _simpleLoadBalancerState.getUriProperties().get(listenTo);
+    if (discoveryProperties == null || currentItem == null || currentItem.getProperty() == null
+      || currentItem.getProperty() != delta.getPreviousValue())
+    {
+      handlePut(listenTo, discoveryProperties);
+      return;
+    }
+
+    Set<URI> changedUris = new HashSet<>();
+    for (UriProperties added : delta.getAdded())
+    {
+      changedUris.addAll(added.Uris());
+    }
+    for (UriProperties removed : delta.getRemoved())
+    {
+      changedUris.addAll(removed.Uris());
+    }
+    debug(_log, "applying uri changes for cluster: ", listenTo, ": ", changedUris);
+
+    addTrackerClients(discoveryProperties, changedUris);
+
+    _simpleLoadBalancerState.getUriProperties().put(listenTo,
+      new LoadBalancerStateItem<>(discoveryProperties,
+        _simpleLoadBalancerState.getVersionAccess().incrementAndGet(),
+        System.currentTimeMillis()));
+
+    removeTrackerClients(discoveryProperties, changedUris);
+    _simpleLoadBalancerState.invalidateClusterRoutingSnapshots(listenTo);
+  }
+
+  /**
+   * Creates or replaces the tracker clients of the given uris which are part of the uri properties
+   * and new or announced with different partitions, for all the services of the cluster.
+   */
+  private void addTrackerClients(UriProperties discoveryProperties, Collection<URI> uris)
+  {
+    String clusterName = discoveryProperties.getClusterName();
+
+    Set<String> serviceNames = _simpleLoadBalancerState.getServicesPerCluster().get(clusterName);
+    //updates all the services that these uris provide
+    if (serviceNames != null)
+    {
+      for (String serviceName : serviceNames)
       {
-        for (String serviceName : serviceNames)
+        Map<URI, TrackerClient> trackerClients =
+          _simpleLoadBalancerState.getTrackerClients().get(serviceName);
+        if (trackerClients == null)
         {
-          Map<URI, TrackerClient> trackerClients =
-            _simpleLoadBalancerState.getTrackerClients().get(serviceName);
-          if (trackerClients == null)
-          {
-            trackerClients = new ConcurrentHashMap<URI, TrackerClient>();
-            _simpleLoadBalancerState.getTrackerClients().put(serviceName, trackerClients);
-          }
-          LoadBalancerStateItem<ServiceProperties> serviceProperties = _simpleLoadBalancerState.getServiceProperties().get(serviceName);
-          DegraderImpl.Config config = null;
-          Clock clk = SystemClock.instance();
+          trackerClients = new ConcurrentHashMap<URI, TrackerClient>();
+          _simpleLoadBalancerState.getTrackerClients().put(serviceName, trackerClients);
+        }
+        LoadBalancerStateItem<ServiceProperties> serviceProperties = _simpleLoadBalancerState.getServiceProperties().get(serviceName);
+        DegraderImpl.Config config = null;
+        Clock clk = SystemClock.instance();
 
-          if (serviceProperties == null || serviceProperties.getProperty() == null ||
-            serviceProperties.getProperty().getDegraderProperties() == null)
-          {
-            debug(_log, "trying to see if there's a special degraderImpl properties but serviceInfo is null " +
-              "for serviceName = " + serviceName + " so we'll set config to default");
-          }
-          else
+        if (serviceProperties == null || serviceProperties.getProperty() == null ||
+          serviceProperties.getProperty().getDegraderProperties() == null)
+        {
+          debug(_log, "trying to see if there's a special degraderImpl properties but serviceInfo is null " +
+            "for serviceName = " + serviceName + " so we'll set config to default");
+        }
+        else
+        {
+          Map<String, String> degraderImplProperties =
+            serviceProperties.getProperty().getDegraderProperties();
+          config = DegraderConfigFactory.toDegraderConfig(degraderImplProperties);
+        }
+        if (serviceProperties != null && serviceProperties.getProperty() != null &&
+          serviceProperties.getProperty().getLoadBalancerStrategyProperties() != null)
+        {
+          Map<String, Object> loadBalancerStrategyProperties =
+            serviceProperties.getProperty().getLoadBalancerStrategyProperties();
+          clk = MapUtil.getWithDefault(loadBalancerStrategyProperties, PropertyKeys.CLOCK, SystemClock.instance(), Clock.class);
+        }
+
+        long trackerClientInterval = SimpleLoadBalancerState.getTrackerClientInterval(serviceProperties.getProperty());
+        String errorStatusPattern = SimpleLoadBalancerState.getErrorStatusPattern(serviceProperties.getProperty());
+        boolean stripedCallTracker = SimpleLoadBalancerState.isStripedCallTracker(serviceProperties.getProperty());
+        for (URI uri : uris)
+        {
+          Map<Integer, PartitionData> partitionDataMap = discoveryProperties.getPartitionDataMap(uri);
+          if (partitionDataMap == null)
           {
-            Map<String, String> degraderImplProperties =
-              serviceProperties.getProperty().getDegraderProperties();
-            config = DegraderConfigFactory.toDegraderConfig(degraderImplProperties);
+            // removed from the uri properties, taken care of by removeTrackerClients
+            continue;
           }
-          if (serviceProperties != null && serviceProperties.getProperty() != null &&
-            serviceProperties.getProperty().getLoadBalancerStrategyProperties() != null)
+          TrackerClient client = trackerClients.get(uri);
+          if (client == null || !client.getParttitionDataMap().equals(partitionDataMap))
           {
-            Map<String, Object> loadBalancerStrategyProperties =
-              serviceProperties.getProperty().getLoadBalancerStrategyProperties();
-            clk = MapUtil.getWithDefault(loadBalancerStrategyProperties, PropertyKeys.CLOCK, SystemClock.instance(), Clock.class);
-          }
+            client = _simpleLoadBalancerState.getTrackerClient(serviceName,
+              uri,
+              partitionDataMap,
+              config,
+              clk,
+              trackerClientInterval,
+              errorStatusPattern,
+              stripedCallTracker);
 
-          long trackerClientInterval = SimpleLoadBalancerState.getTrackerClientInterval(serviceProperties.getProperty());
-          String errorStatusPattern = SimpleLoadBalancerState.getErrorStatusPattern(serviceProperties.getProperty());
-          for (URI uri : discoveryProperties.Uris())
-          {
-            Map<Integer, PartitionData> partitionDataMap = discoveryProperties.getPartitionDataMap(uri);
-            TrackerClient client = trackerClients.get(uri);
-            if (client == null || !client.getParttitionDataMap().equals(partitionDataMap))
+            if (client != null)
             {
-              client = _simpleLoadBalancerState.getTrackerClient(serviceName,
-                uri,
-                partitionDataMap,
-                config,
-                clk,
-                trackerClientInterval,
-                errorStatusPattern);
-
-              if (client != null)
-              {
-                debug(_log, "adding new tracker client from updated uri properties: ", client);
+              debug(_log, "adding new tracker client from updated uri properties: ", client);
 
-                // notify listeners of the added client
-                for (SimpleLoadBalancerState.SimpleLoadBalancerStateListener listener : _simpleLoadBalancerState.getListeners())
-                {
-                  listener.onClientAdded(serviceName, client);
-                }
-
-                trackerClients.put(uri, client);
+              // notify listeners of the added client
+              for (SimpleLoadBalancerState.SimpleLoadBalancerStateListener listener : _simpleLoadBalancerState.getListeners())
+              {
+                listener.onClientAdded(serviceName, client);
               }
+
+              trackerClients.put(uri, client);
             }
           }
         }
       }
-
     }
+  }
 
-    // replace the URI properties
-    _simpleLoadBalancerState.getUriProperties().put(listenTo,
-      new LoadBalancerStateItem<>(discoveryProperties,
-        _simpleLoadBalancerState.getVersionAccess().incrementAndGet(),
-        System.currentTimeMillis()));
-
-    // now remove URIs that we're tracking, but have been removed from the new uri
-    // properties
-    if (discoveryProperties != null)
+  /**
+   * Removes the tracker clients of the given uris which are not part of the uri properties anymore,
+   * for all the services of the cluster.
+   *
+   * @param uris the uris to check, or null to check every uri that we're tracking
+   */
+  private void removeTrackerClients(UriProperties discoveryProperties, Collection<URI> uris)
+  {
+    Set<String> serviceNames = _simpleLoadBalancerState.getServicesPerCluster().get(discoveryProperties.getClusterName());
+    if (serviceNames != null)
     {
-      Set<String> serviceNames = _simpleLoadBalancerState.getServicesPerCluster().get(discoveryProperties.getClusterName());
-      if (serviceNames != null)
+      for (String serviceName : serviceNames)
       {
-        for (String serviceName : serviceNames)
+        Map<URI, TrackerClient> trackerClients = _simpleLoadBalancerState.getTrackerClients().get(serviceName);
+        if (trackerClients != null)
         {
-          Map<URI, TrackerClient> trackerClients = _simpleLoadBalancerState.getTrackerClients().get(serviceName);
-          if (trackerClients != null)
+          for (Iterator<URI> it = (uris == null ? trackerClients.keySet() : uris).iterator(); it.hasNext(); )
           {
-            for (Iterator<URI> it = trackerClients.keySet().iterator(); it.hasNext(); )
-            {
-              URI uri = it.next();
+            URI uri = it.next();
 
-              if (!discoveryProperties.Uris().contains(uri))
+            if (!discoveryProperties.Uris().contains(uri))
+            {
+              TrackerClient client = trackerClients.remove(uri);
+              if (client == null)
               {
-                TrackerClient client = trackerClients.remove(uri);
+                continue;
+              }
 
-                debug(_log, "removing dead tracker client: ", client);
+              debug(_log, "removing dead tracker client: ", client);
 
-                // notify listeners of the removed client
-                for (SimpleLoadBalancerState.SimpleLoadBalancerStateListener listener : _simpleLoadBalancerState.getListeners())
-                {
-                  listener.onClientRemoved(serviceName, client);
-                }
-                // We don't shut down the dead TrackerClient, because TrackerClients hold no
-                // resources and simply point to the common cluster client (from _serviceeClients).
+              // notify listeners of the removed client
+              for (SimpleLoadBalancerState.SimpleLoadBalancerStateListener listener : _simpleLoadBalancerState.getListeners())
+              {
+                listener.onClientRemoved(serviceName, client);
               }
+              // We don't shut down the dead TrackerClient, because TrackerClients hold no
+              // resources and simply point to the common cluster client (from _serviceeClients).
             }
           }
         }
       }
     }
-    else
-    {
-      // uri properties was null, we'll just log the event and continues.
-      // The reasoning is we might receive a null event when there's a problem writing/reading
-      // cache file, or we just started listening to a cluster without any uris yet.
-      warn(_log, "received a null uri properties for cluster: ", listenTo);
-    }
   }
 
   @Override
@@ -194,5 +266,6 @@ class UriLoadBalancerSubscriber extends
     _simpleLoadBalancerState.getUriProperties().remove(listenTo);
     warn(_log, "received a uri properties event remove() for cluster: ", listenTo);
     _simpleLoadBalancerState.removeTrackerClients(listenTo);
+    _simpleLoadBalancerState.removeClusterRoutingSnapshots(listenTo);
   }
 }
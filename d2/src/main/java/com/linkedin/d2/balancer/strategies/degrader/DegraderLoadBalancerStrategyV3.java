@@ -23,6 +23,7 @@ import com.linkedin.d2.balancer.KeyMapper;
 import com.linkedin.d2.balancer.clients.TrackerClient;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
 import com.linkedin.d2.balancer.util.RateLimitedLogger;
+import com.linkedin.d2.balancer.util.RoutingSnapshot;
 import com.linkedin.d2.balancer.util.hashing.HashFunction;
 import com.linkedin.d2.balancer.util.hashing.RandomHash;
 import com.linkedin.d2.balancer.util.hashing.Ring;
@@ -313,12 +314,7 @@ public class DegraderLoadBalancerStrategyV3 implements LoadBalancerStrategy
 
   private TrackerClient searchClientFromUri(URI uri, List<TrackerClient> trackerClients)
   {
-    for (TrackerClient trackerClient : trackerClients) {
-      if (trackerClient.getUri().equals(uri)) {
-        return trackerClient;
-      }
-    }
-    return null;
+    return RoutingSnapshot.findClient(uri, trackerClients);
   }
 
   private void updatePartitionState(long clusterGenerationId, Partition partition, List<TrackerClient> trackerClients, DegraderLoadBalancerStrategyConfig config)
@@ -18,12 +18,18 @@ package com.linkedin.d2.balancer.strategies.degrader;
 
 import com.linkedin.d2.balancer.util.hashing.MPConsistentHashRing;
 import com.linkedin.d2.balancer.util.hashing.Ring;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 /**
+ * Creates rings with the consistent hash algorithm of the config. The most recent rings are kept keyed by their
+ * points map, so a points map which is unchanged, or which oscillates between a few states, reuses its ring
+ * instead of rebuilding it. Point-based rings only keep the last ring since each one holds all of its points.
+ *
  * @author Ang Xu
  */
 public class DegraderRingFactory<T> implements RingFactory<T>
@@ -34,7 +40,13 @@ public class DegraderRingFactory<T> implements RingFactory<T>
 
   private static final Logger _log = LoggerFactory.getLogger(DegraderRingFactory.class);
 
+  /**
+   * The number of rings kept for multi-probe and distribution based rings, whose size is O(# of hosts).
+   */
+  static final int RING_CACHE_SIZE = 4;
+
   private final RingFactory<T> _ringFactory;
+  private final Map<Map<T, Integer>, Ring<T>> _ringCache;
 
   public DegraderRingFactory(DegraderLoadBalancerStrategyConfig config)
   {
@@ -63,10 +75,29 @@ public class DegraderRingFactory<T> implements RingFactory<T>
       _log.warn("Unknown consistent hash algorithm {}, falling back to multiprobe hash ring with default settings", consistentHashAlgorithm);
       _ringFactory = new MPConsistentHashRingFactory<>(MPConsistentHashRing.DEFAULT_NUM_PROBES, MPConsistentHashRing.DEFAULT_POINTS_PER_HOST);
     }
+
+    final int ringCacheSize = _ringFactory instanceof PointBasedConsistentHashRingFactory ? 1 : RING_CACHE_SIZE;
+    _ringCache = new LinkedHashMap<Map<T, Integer>, Ring<T>>(ringCacheSize * 2, 0.75f, true)
+    {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Map<T, Integer>, Ring<T>> eldest)
+      {
+        return size() > ringCacheSize;
+      }
+    };
   }
 
   @Override
-  public Ring<T> createRing(Map<T, Integer> points) {
-    return _ringFactory.createRing(points);
+  public synchronized Ring<T> createRing(Map<T, Integer> points) {
+    Ring<T> ring = _ringCache.get(points);
+    if (ring == null)
+    {
+      ring = _ringFactory.createRing(points);
+      // copy the points since callers may keep modifying their map
+      _ringCache.put(new HashMap<>(points), ring);
+    }
+    return ring;
   }
 }
@@ -22,7 +22,8 @@ import java.util.Map;
 
 
 /**
- * A ring factory generates {@link MPConsistentHashRing}s.
+ * A ring factory generates {@link MPConsistentHashRing}s. Each ring is built as an update of the previous one,
+ * so only the hosts which were not in the previous ring are hashed.
  *
  * @author Ang Xu
  */
@@ -30,6 +31,7 @@ public class MPConsistentHashRingFactory<T> implements RingFactory<T>
 {
   private final int _numProbes;
   private final int _pointsPerHost;
+  private MPConsistentHashRing<T> _lastRing;
 
   public MPConsistentHashRingFactory(int numProbes, int pointsPerHost)
   {
@@ -38,8 +40,11 @@ public class MPConsistentHashRingFactory<T> implements RingFactory<T>
   }
 
   @Override
-  public Ring<T> createRing(Map<T, Integer> points)
+  public synchronized Ring<T> createRing(Map<T, Integer> points)
   {
-    return new MPConsistentHashRing<>(points, _numProbes, _pointsPerHost);
+    _lastRing = _lastRing == null
+        ? new MPConsistentHashRing<>(points, _numProbes, _pointsPerHost)
+        : _lastRing.update(points);
+    return _lastRing;
   }
 }
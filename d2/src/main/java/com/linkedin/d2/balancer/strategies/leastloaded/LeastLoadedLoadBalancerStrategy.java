@@ -0,0 +1,212 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.strategies.leastloaded;
+
+import com.linkedin.d2.balancer.clients.TrackerClient;
+import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
+import com.linkedin.d2.balancer.util.hashing.HashFunction;
+import com.linkedin.d2.balancer.util.hashing.RandomHash;
+import com.linkedin.d2.balancer.util.hashing.Ring;
+import com.linkedin.r2.message.Request;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.util.clock.Clock;
+import com.linkedin.util.clock.Time;
+import com.linkedin.util.degrader.CallTracker;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.annotation.Nonnull;
+
+
+/**
+ * A load balancer strategy which picks two hosts at random and sends the request to the less loaded of the two
+ * (the "power of two choices"). The load of a host is its number of calls in flight plus one, times the
+ * exponentially weighted moving average of its latency, divided by its partition weight.
+ *
+ * The calls in flight come from the {@link CallTracker} of the {@link TrackerClient}, so calls piling up on a
+ * slow host steer the very next requests away from it, instead of waiting for the next update of a ring. The
+ * latency average is updated with the average call time of each interval of the call tracker. Hosts without
+ * latency yet are compared by their calls in flight only.
+ */
+public class LeastLoadedLoadBalancerStrategy implements LoadBalancerStrategy
+{
+  public static final String LEAST_LOADED_STRATEGY_NAME = "leastLoaded";
+
+  /**
+   * The weight of the latest interval in the latency average.
+   */
+  static final double LATENCY_EWMA_WEIGHT = 0.5;
+
+  /**
+   * The state of a host is dropped when its call tracker has not rolled over for this long, which happens when
+   * the host is gone or no longer considered.
+   */
+  private static final long STALE_HOST_STATE_MS = Time.minutes(10);
+
+  private final ConcurrentMap<URI, HostState> _hostStates = new ConcurrentHashMap<>();
+  private final Clock _clock;
+  private volatile long _nextPruneTime;
+
+  public LeastLoadedLoadBalancerStrategy(Clock clock)
+  {
+    _clock = clock;
+    _nextPruneTime = clock.currentTimeMillis() + STALE_HOST_STATE_MS;
+  }
+
+  @Override
+  public TrackerClient getTrackerClient(Request request,
+                                        RequestContext requestContext,
+                                        long clusterGenerationId,
+                                        int partitionId,
+                                        List<TrackerClient> trackerClients)
+  {
+    List<TrackerClient> candidates = trackerClients;
+    Set<URI> excludedHosts = ExcludedHostHints.getRequestContextExcludedHosts(requestContext);
+    if (excludedHosts != null && !excludedHosts.isEmpty())
+    {
+      candidates = new ArrayList<>(trackerClients.size());
+      for (TrackerClient trackerClient : trackerClients)
+      {
+        if (!excludedHosts.contains(trackerClient.getUri()))
+        {
+          candidates.add(trackerClient);
+        }
+      }
+    }
+
+    int size = candidates.size();
+    if (size == 0)
+    {
+      return null;
+    }
+    if (size == 1)
+    {
+      return candidates.get(0);
+    }
+
+    pruneHostStates();
+
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int first = random.nextInt(size);
+    int second = random.nextInt(size - 1);
+    if (second >= first)
+    {
+      second++;
+    }
+    TrackerClient firstClient = candidates.get(first);
+    TrackerClient secondClient = candidates.get(second);
+    return isLessLoaded(secondClient, firstClient, partitionId) ? secondClient : firstClient;
+  }
+
+  @Nonnull
+  @Override
+  public Ring<URI> getRing(long clusterGenerationId, int partitionId, List<TrackerClient> trackerClients)
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public HashFunction<Request> getHashFunction()
+  {
+    return new RandomHash();
+  }
+
+  private boolean isLessLoaded(TrackerClient client, TrackerClient other, int partitionId)
+  {
+    double load = getCallsInFlightLoad(client, partitionId);
+    double otherLoad = getCallsInFlightLoad(other, partitionId);
+    double latency = getLatency(client);
+    double otherLatency = getLatency(other);
+    if (latency > 0 && otherLatency > 0)
+    {
+      load *= latency;
+      otherLoad *= otherLatency;
+    }
+    return load < otherLoad;
+  }
+
+  private static double getCallsInFlightLoad(TrackerClient client, int partitionId)
+  {
+    Double weight = client.getPartitionWeight(partitionId);
+    if (weight == null || weight <= 0)
+    {
+      return Double.MAX_VALUE;
+    }
+    return (client.getCallTracker().getCurrentConcurrency() + 1) / weight;
+  }
+
+  private double getLatency(TrackerClient client)
+  {
+    HostState hostState = _hostStates.get(client.getUri());
+    if (hostState == null)
+    {
+      hostState = _hostStates.computeIfAbsent(client.getUri(), uri -> new HostState(_clock.currentTimeMillis()));
+    }
+    return hostState.getLatency(client.getCallTracker());
+  }
+
+  private void pruneHostStates()
+  {
+    long now = _clock.currentTimeMillis();
+    if (now >= _nextPruneTime)
+    {
+      _nextPruneTime = now + STALE_HOST_STATE_MS;
+      _hostStates.values().removeIf(hostState -> hostState._lastIntervalEndTime < now - STALE_HOST_STATE_MS);
+    }
+  }
+
+  /**
+   * The latency average of a host, which is folded in once for every interval of its call tracker.
+   */
+  private static class HostState
+  {
+    private volatile CallTracker.CallStats _lastCallStats;
+    private volatile double _latency;
+    private volatile long _lastIntervalEndTime;
+
+    HostState(long createTime)
+    {
+      _lastIntervalEndTime = createTime;
+    }
+
+    double getLatency(CallTracker callTracker)
+    {
+      CallTracker.CallStats callStats = callTracker.getCallStats();
+      if (callStats != _lastCallStats)
+      {
+        synchronized (this)
+        {
+          if (callStats != _lastCallStats)
+          {
+            if (callStats.getCallCount() > 0)
+            {
+              double latency = callStats.getCallTimeStats().getAverage();
+              _latency = _latency > 0 ? _latency + LATENCY_EWMA_WEIGHT * (latency - _latency) : latency;
+            }
+            _lastIntervalEndTime = Math.max(_lastIntervalEndTime, callStats.getIntervalEndTime());
+            _lastCallStats = callStats;
+          }
+        }
+      }
+      return _latency;
+    }
+  }
+}
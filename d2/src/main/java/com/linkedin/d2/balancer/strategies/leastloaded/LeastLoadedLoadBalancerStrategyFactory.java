@@ -0,0 +1,49 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.strategies.leastloaded;
+
+import com.linkedin.common.util.MapUtil;
+import com.linkedin.d2.balancer.properties.PropertyKeys;
+import com.linkedin.d2.balancer.strategies.LoadBalancerStrategyFactory;
+import com.linkedin.util.clock.Clock;
+import com.linkedin.util.clock.SystemClock;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.linkedin.d2.discovery.util.LogUtil.debug;
+
+
+/**
+ * Creates {@link LeastLoadedLoadBalancerStrategy}s, registered as the "leastLoaded" strategy.
+ */
+public class LeastLoadedLoadBalancerStrategyFactory implements
+    LoadBalancerStrategyFactory<LeastLoadedLoadBalancerStrategy>
+{
+  private static final Logger _log = LoggerFactory.getLogger(LeastLoadedLoadBalancerStrategyFactory.class);
+
+  @Override
+  public LeastLoadedLoadBalancerStrategy newLoadBalancer(String serviceName,
+                                                         Map<String, Object> strategyProperties,
+                                                         Map<String, String> degraderProperties)
+  {
+    debug(_log, "created a least loaded load balancer strategy");
+
+    Clock clock = MapUtil.getWithDefault(strategyProperties, PropertyKeys.CLOCK, SystemClock.instance(), Clock.class);
+    return new LeastLoadedLoadBalancerStrategy(clock);
+  }
+}
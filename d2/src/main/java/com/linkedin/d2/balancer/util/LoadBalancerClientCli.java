@@ -33,6 +33,8 @@ import com.linkedin.d2.balancer.simple.SimpleLoadBalancerState;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategyFactory;
 import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyFactoryV3;
+import com.linkedin.d2.balancer.strategies.leastloaded.LeastLoadedLoadBalancerStrategy;
+import com.linkedin.d2.balancer.strategies.leastloaded.LeastLoadedLoadBalancerStrategyFactory;
 import com.linkedin.d2.balancer.strategies.random.RandomLoadBalancerStrategyFactory;
 import com.linkedin.d2.balancer.zkfs.ZKFSComponentFactory;
 import com.linkedin.d2.balancer.zkfs.ZKFSLoadBalancer;
@@ -717,6 +719,8 @@ public class LoadBalancerClientCli
     loadBalancerStrategyFactories.put("degraderV2", new DegraderLoadBalancerStrategyFactoryV3());
     loadBalancerStrategyFactories.put("degraderV3", new DegraderLoadBalancerStrategyFactoryV3());
     loadBalancerStrategyFactories.put("degraderV2_1", new DegraderLoadBalancerStrategyFactoryV3());
+    loadBalancerStrategyFactories.put(LeastLoadedLoadBalancerStrategy.LEAST_LOADED_STRATEGY_NAME,
+        new LeastLoadedLoadBalancerStrategyFactory());
 
     Map<String, TransportClientFactory> clientFactories =
         new HashMap<String, TransportClientFactory>();
@@ -770,6 +774,8 @@ public class LoadBalancerClientCli
     loadBalancerStrategyFactories.put("degraderV2", new DegraderLoadBalancerStrategyFactoryV3());
     loadBalancerStrategyFactories.put("degraderV3", new DegraderLoadBalancerStrategyFactoryV3());
     loadBalancerStrategyFactories.put("degraderV2_1", new DegraderLoadBalancerStrategyFactoryV3());
+    loadBalancerStrategyFactories.put(LeastLoadedLoadBalancerStrategy.LEAST_LOADED_STRATEGY_NAME,
+        new LeastLoadedLoadBalancerStrategyFactory());
 
 	ZKFSTogglingLoadBalancerFactoryImpl factory = new ZKFSTogglingLoadBalancerFactoryImpl(componentFactory,
                                         TIMEOUT, TimeUnit.MILLISECONDS,
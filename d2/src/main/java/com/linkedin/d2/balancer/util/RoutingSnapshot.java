@@ -0,0 +1,132 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.util;
+
+import com.linkedin.d2.balancer.clients.TrackerClient;
+import com.linkedin.d2.balancer.properties.ClusterProperties;
+import com.linkedin.d2.balancer.properties.ServiceProperties;
+import com.linkedin.d2.balancer.properties.UriProperties;
+import java.net.URI;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+
+/**
+ * An immutable list of the {@link TrackerClient}s a request to one partition of a service can be
+ * routed to with a given scheme, with banned uris already filtered out. Besides the list itself, the
+ * snapshot keeps a uri to client index so strategies can resolve a host picked from a ring without
+ * scanning the list.
+ *
+ * A snapshot remembers the properties it was built from and the routing generation of the
+ * {@link com.linkedin.d2.balancer.LoadBalancerState} at that time, so the load balancer can reuse it
+ * until any of them changes.
+ */
+public class RoutingSnapshot extends AbstractList<TrackerClient> implements RandomAccess
+{
+  private final TrackerClient[] _clients;
+  private final Map<URI, TrackerClient> _clientsByUri;
+  private final long _routingGeneration;
+  private final ServiceProperties _serviceProperties;
+  private final ClusterProperties _clusterProperties;
+  private final UriProperties _uriProperties;
+
+  public RoutingSnapshot(Collection<TrackerClient> clients,
+                         long routingGeneration,
+                         ServiceProperties serviceProperties,
+                         ClusterProperties clusterProperties,
+                         UriProperties uriProperties)
+  {
+    _clients = clients.toArray(new TrackerClient[clients.size()]);
+    _clientsByUri = new HashMap<>(_clients.length * 2);
+    for (TrackerClient client : _clients)
+    {
+      _clientsByUri.put(client.getUri(), client);
+    }
+    _routingGeneration = routingGeneration;
+    _serviceProperties = serviceProperties;
+    _clusterProperties = clusterProperties;
+    _uriProperties = uriProperties;
+  }
+
+  /**
+   * @return the client of the given uri, or null if the uri is not part of this snapshot.
+   */
+  public TrackerClient getClient(URI uri)
+  {
+    return _clientsByUri.get(uri);
+  }
+
+  /**
+   * @return the routing generation this snapshot was built at.
+   */
+  public long getRoutingGeneration()
+  {
+    return _routingGeneration;
+  }
+
+  /**
+   * @return true if this snapshot was built from exactly these properties at the given routing generation.
+   */
+  public boolean isCurrent(long routingGeneration,
+                           ServiceProperties serviceProperties,
+                           ClusterProperties clusterProperties,
+                           UriProperties uriProperties)
+  {
+    return _routingGeneration == routingGeneration
+        && _serviceProperties == serviceProperties
+        && _clusterProperties == clusterProperties
+        && _uriProperties == uriProperties;
+  }
+
+  @Override
+  public TrackerClient get(int index)
+  {
+    return _clients[index];
+  }
+
+  @Override
+  public int size()
+  {
+    return _clients.length;
+  }
+
+  /**
+   * Finds the client of the given uri in a list of clients, using the index if the list is a
+   * {@link RoutingSnapshot} and scanning it otherwise.
+   *
+   * @return the client of the given uri, or null if there is none in the list.
+   */
+  public static TrackerClient findClient(URI uri, List<TrackerClient> trackerClients)
+  {
+    if (trackerClients instanceof RoutingSnapshot)
+    {
+      return ((RoutingSnapshot) trackerClients).getClient(uri);
+    }
+    for (TrackerClient trackerClient : trackerClients)
+    {
+      if (trackerClient.getUri().equals(uri))
+      {
+        return trackerClient;
+      }
+    }
+    return null;
+  }
+}
@@ -19,6 +19,7 @@ package com.linkedin.d2.balancer.util.hashing;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -60,8 +61,11 @@ public class MPConsistentHashRing<T> implements Ring<T>
 
   private final List<Bucket> _buckets;
   private final List<T> _hosts;
+  /* bucket hashes of each host, which update() reuses for the hosts it keeps */
+  private final Map<T, long[]> _hostHashes;
   private final LongHashFunction[] _hashFunctions;
   private final int _numProbes;
+  private final int _pointsPerHost;
 
   /**
    * Creates a multi-probe consistent hash ring with DEFAULT_NUM_PROBES (21).
@@ -80,33 +84,72 @@ public class MPConsistentHashRing<T> implements Ring<T>
    *                  the hash ring is.
    */
   public MPConsistentHashRing(Map<T, Integer> pointsMap, int numProbes, int pointsPerHost)
+  {
+    this(pointsMap, numProbes, pointsPerHost, Collections.emptyMap(), createHashFunctions(numProbes));
+  }
+
+  private MPConsistentHashRing(Map<T, Integer> pointsMap, int numProbes, int pointsPerHost,
+      Map<T, long[]> previousHostHashes, LongHashFunction[] hashFunctions)
   {
     _buckets = new ArrayList<>(pointsMap.size());
     _hosts = new ArrayList<>(pointsMap.size());
+    _hostHashes = new HashMap<>(pointsMap.size() * 4 / 3 + 1);
     for (Map.Entry<T, Integer> entry : pointsMap.entrySet())
     {
       // ignore items whose point is equal to zero
       if (entry.getValue() > 0)
       {
-        byte[] bytesToHash = entry.getKey().toString().getBytes(UTF8);
-        long hash = HASH_FUNCTION_0.hashBytes(bytesToHash) & MASK;
-        _buckets.add(new Bucket(entry.getKey(), hash, entry.getValue()));
-        _hosts.add(entry.getKey());
-
-        long hashOfHash = hash;
-        int duplicate = pointsPerHost - 1;
-        while (duplicate-- > 0) {
-          hashOfHash = HASH_FUNCTION_0.hashLong(hashOfHash) & MASK;
-          _buckets.add(new Bucket(entry.getKey(), hashOfHash, entry.getValue()));
+        T host = entry.getKey();
+        long[] hashes = previousHostHashes.get(host);
+        if (hashes == null)
+        {
+          hashes = hashHost(host, pointsPerHost);
+        }
+        for (long hash : hashes)
+        {
+          _buckets.add(new Bucket(host, hash, entry.getValue()));
         }
+        _hosts.add(host);
+        _hostHashes.put(host, hashes);
       }
     }
     _numProbes = numProbes;
-    _hashFunctions = new LongHashFunction[_numProbes];
-    for (int i = 0; i < _numProbes; i++)
+    _pointsPerHost = pointsPerHost;
+    _hashFunctions = hashFunctions;
+  }
+
+  /**
+   * Creates a ring for the given points map which routes exactly like a ring constructed from it, reusing the
+   * bucket hashes of the hosts already in this ring so that only new hosts are hashed. This ring is not modified.
+   *
+   * @param pointsMap A map between object to store in the ring and its points.
+   * @return a new ring with the same number of probes and points per host as this ring.
+   */
+  public MPConsistentHashRing<T> update(Map<T, Integer> pointsMap)
+  {
+    return new MPConsistentHashRing<>(pointsMap, _numProbes, _pointsPerHost, _hostHashes, _hashFunctions);
+  }
+
+  private static long[] hashHost(Object host, int pointsPerHost)
+  {
+    long[] hashes = new long[Math.max(pointsPerHost, 1)];
+    byte[] bytesToHash = host.toString().getBytes(UTF8);
+    hashes[0] = HASH_FUNCTION_0.hashBytes(bytesToHash) & MASK;
+    for (int i = 1; i < hashes.length; i++)
+    {
+      hashes[i] = HASH_FUNCTION_0.hashLong(hashes[i - 1]) & MASK;
+    }
+    return hashes;
+  }
+
+  private static LongHashFunction[] createHashFunctions(int numProbes)
+  {
+    LongHashFunction[] hashFunctions = new LongHashFunction[numProbes];
+    for (int i = 0; i < numProbes; i++)
     {
-      _hashFunctions[i] = LongHashFunction.xx_r39(i);
+      hashFunctions[i] = LongHashFunction.xx_r39(i);
     }
+    return hashFunctions;
   }
 
   @Override
@@ -0,0 +1,73 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.discovery.event;
+
+import java.util.Collection;
+import java.util.Collections;
+
+
+/**
+ * Describes an incremental change of a property whose value is merged from several entries, such as
+ * the ephemeral nodes of a cluster: the value the change applies to, and the entries which were added
+ * to and removed from it. An entry which changed shows up as both removed and added.
+ *
+ * @see PropertyEventBus#publishDelta(String, Object, PropertyDelta)
+ * @see PropertyEventSubscriber#onDelta(String, Object, PropertyDelta)
+ */
+public class PropertyDelta<T>
+{
+  private final T _previousValue;
+  private final Collection<T> _added;
+  private final Collection<T> _removed;
+
+  public PropertyDelta(T previousValue, Collection<T> added, Collection<T> removed)
+  {
+    _previousValue = previousValue;
+    _added = Collections.unmodifiableCollection(added);
+    _removed = Collections.unmodifiableCollection(removed);
+  }
+
+  /**
+   * @return the value this delta applies to.
+   */
+  public T getPreviousValue()
+  {
+    return _previousValue;
+  }
+
+  /**
+   * @return the entries added to the previous value.
+   */
+  public Collection<T> getAdded()
+  {
+    return _added;
+  }
+
+  /**
+   * @return the entries removed from the previous value.
+   */
+  public Collection<T> getRemoved()
+  {
+    return _removed;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "PropertyDelta [_added=" + _added + ", _removed=" + _removed + "]";
+  }
+}
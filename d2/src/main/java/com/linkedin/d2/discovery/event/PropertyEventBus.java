@@ -34,6 +34,7 @@ import java.util.Set;
  * @see PropertyEventSubscriber#onInitialize(String, Object)
  * @see PropertyEventSubscriber#onAdd(String, Object)
  * @see PropertyEventSubscriber#onRemove(String)
+ * @see PropertyEventSubscriber#onDelta(String, Object, PropertyDelta)
  *
  * and the publisher callbacks:
  *
@@ -117,4 +118,18 @@ public interface PropertyEventBus<T>
    * @param prop the name of the property
    */
   void publishRemove(String prop);
+
+  /**
+   * Publishes an incremental change of a property value to the bus. Subscribers which were last
+   * notified of the previous value of the delta receive it through
+   * {@link PropertyEventSubscriber#onDelta(String, Object, PropertyDelta)}; the default implementation
+   * publishes the new value as an add.
+   * @param prop property name
+   * @param value the complete new property value
+   * @param delta what changed from the previous value
+   */
+  default void publishDelta(String prop, T value, PropertyDelta<T> delta)
+  {
+    publishAdd(prop, value);
+  }
 }
@@ -258,6 +258,36 @@ public class PropertyEventBusImpl<T> implements PropertyEventBus<T>
     });
   }
 
+  @Override
+  public void publishDelta(final String prop, final T value, final PropertyDelta<T> delta)
+  {
+    _thread.send(new PropertyEvent("PropertyEventBus.publishDelta " + prop)
+    {
+      public void innerRun()
+      {
+        // Ignore unless the property has been initialized
+        if (_properties.containsKey(prop))
+        {
+          // the delta only makes sense to subscribers which saw the value it applies to, which
+          // might not be the case if the bus switched publishers in between
+          boolean isDelta = _properties.get(prop) == delta.getPreviousValue();
+          _properties.put(prop, value);
+          for (final PropertyEventSubscriber<T> subscriber : subscribers(prop))
+          {
+            if (isDelta)
+            {
+              subscriber.onDelta(prop, value, delta);
+            }
+            else
+            {
+              subscriber.onAdd(prop, value);
+            }
+          }
+        }
+      }
+    });
+  }
+
   private List<PropertyEventSubscriber<T>> subscribers(String prop)
   {
     List<PropertyEventSubscriber<T>> subscribers = _subscribers.get(prop);
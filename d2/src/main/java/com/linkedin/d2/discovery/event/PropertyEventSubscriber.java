@@ -53,4 +53,17 @@ public interface PropertyEventSubscriber<T>
    * @param propertyName
    */
   void onRemove(String propertyName);
+
+  /**
+   * Invoked whenever the publisher publishes an incremental change. The delta applies to the value
+   * this subscriber was last notified of. Subscribers which can't make use of the delta treat it as
+   * an add, which is the default.
+   * @param propertyName
+   * @param propertyValue the complete new value
+   * @param delta what changed from the previous value
+   */
+  default void onDelta(String propertyName, T propertyValue, PropertyDelta<T> delta)
+  {
+    onAdd(propertyName, propertyValue);
+  }
 }
@@ -22,6 +22,7 @@ import com.linkedin.common.callback.MultiCallback;
 import com.linkedin.common.util.None;
 import com.linkedin.d2.balancer.util.FileSystemDirectory;
 import com.linkedin.d2.discovery.PropertySerializer;
+import com.linkedin.d2.discovery.event.PropertyDelta;
 import com.linkedin.d2.discovery.event.PropertyEventBus;
 import com.linkedin.d2.discovery.event.PropertyEventBusImpl;
 import com.linkedin.d2.discovery.event.PropertyEventBusRequestsThrottler;
@@ -154,6 +155,13 @@ public class LastSeenZKStore<T> implements PropertyEventPublisher<T>
       _clientBus.publishAdd(propertyName, propertyValue);
     }
 
+    @Override
+    public void onDelta(String propertyName, T propertyValue, PropertyDelta<T> delta)
+    {
+      updateFsStore(propertyName, propertyValue);
+      _clientBus.publishDelta(propertyName, propertyValue, delta);
+    }
+
     @Override
     public void onRemove(String propertyName)
     {
@@ -23,6 +23,7 @@ import com.linkedin.common.util.None;
 import com.linkedin.d2.balancer.util.FileSystemDirectory;
 import com.linkedin.d2.discovery.PropertySerializationException;
 import com.linkedin.d2.discovery.PropertySerializer;
+import com.linkedin.d2.discovery.event.PropertyDelta;
 import com.linkedin.d2.discovery.stores.PropertyStoreException;
 import com.linkedin.d2.discovery.stores.file.FileStore;
 import java.io.File;
@@ -583,7 +584,8 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
   /**
    * A Children watcher that can be attached to a znode whose children are all ephemeral nodes.
    * It will publish new merged property using {@link ZooKeeperPropertyMerger} whenever the
-   * children membership changed. It, however, does NOT capture any data updates on the children
+   * children membership changed; after the initial value, changes are published as a
+   * {@link PropertyDelta} of the children added and removed. It, however, does NOT capture any data updates on the children
    * node and should NOT be used when {@link this#_watchChildNodes} is {@code true}.
    */
   private class EphemeralStoreWatcher extends ZooKeeperStore<T>.ZKStoreWatcher
@@ -601,6 +603,10 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
     // FileStore to save unmodifiable nodes' data
     private FileStore<T> _fileStore = null;
 
+    // value last published to the bus, which the next change is published as a delta of; null when
+    // the next change has to be published as a whole
+    private T _publishedValue = null;
+
     EphemeralStoreWatcher(String prop)
     {
       _prop = prop;
@@ -628,8 +634,9 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
         case OK:
         {
           initCurrentNode(stat);
-          Set<String> newChildren = calculateChildrenDeltaAndUpdateState(children);
-          getChildrenData(path, newChildren, getChildrenDataCallback(path, init, property));
+          Map<String, T> removedChildren = new HashMap<>();
+          Set<String> newChildren = calculateChildrenDeltaAndUpdateState(children, removedChildren);
+          getChildrenData(path, newChildren, getChildrenDataCallback(path, init, property, removedChildren.values()));
           break;
         }
         case NONODE:
@@ -646,6 +653,7 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
             _eventBus.publishRemove(property);
             _log.debug("{}: published remove", path);
           }
+          _publishedValue = null;
           if (_fileStore != null)
           {
             _fileStore.removeDirectory();
@@ -658,7 +666,8 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
       }
     }
 
-    private Callback<Map<String, T>> getChildrenDataCallback(String path, boolean init, String property)
+    private Callback<Map<String, T>> getChildrenDataCallback(String path, boolean init, String property,
+        Collection<T> removedChildren)
     {
       return new Callback<Map<String, T>>()
       {
@@ -666,6 +675,8 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
         public void onError(Throwable e)
         {
           _log.error("Failed to merge children for path " + path, e);
+          // the children map no longer matches what was published
+          _publishedValue = null;
           if (init)
           {
             _eventBus.publishInitialize(property, null);
@@ -683,14 +694,23 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
           }
           if (init)
           {
-            _eventBus.publishInitialize(property, _merger.merge(property, _childrenMap.values()));
+            _publishedValue = _merger.merge(property, _childrenMap.values());
+            _eventBus.publishInitialize(property, _publishedValue);
             _log.debug("{}: published init", path);
           }
-          else
+          else if (_publishedValue == null)
           {
-            _eventBus.publishAdd(property, _merger.merge(property, _childrenMap.values()));
+            _publishedValue = _merger.merge(property, _childrenMap.values());
+            _eventBus.publishAdd(property, _publishedValue);
             _log.debug("{}: published add", path);
           }
+          else
+          {
+            PropertyDelta<T> delta = new PropertyDelta<>(_publishedValue, result.values(), removedChildren);
+            _publishedValue = _merger.merge(property, delta, _childrenMap.values());
+            _eventBus.publishDelta(property, _publishedValue, delta);
+            _log.debug("{}: published delta {}", path, delta);
+          }
         }
       };
     }
@@ -704,6 +724,7 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
         if (_czxid != 0)
         {
           _childrenMap.clear();
+          _publishedValue = null;
           if (_ephemeralNodesFilePath != null)
           {
             // The file structure for each children saved is: myBasePath/nodeWatchedProp/zkNodeId123/ephemeral-2
@@ -726,12 +747,12 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
       }
     }
 
-    private Set<String> calculateChildrenDeltaAndUpdateState(List<String> children)
+    private Set<String> calculateChildrenDeltaAndUpdateState(List<String> children, Map<String, T> removedChildren)
     {
       // remove children that have been evicted from the map
       Set<String> oldChildren = new HashSet<>(_childrenMap.keySet());
       oldChildren.removeAll(children);
-      oldChildren.forEach(_childrenMap::remove);
+      oldChildren.forEach(child -> removedChildren.put(child, _childrenMap.remove(child)));
       if (_fileStore != null)
       {
         oldChildren.forEach(_fileStore::remove);
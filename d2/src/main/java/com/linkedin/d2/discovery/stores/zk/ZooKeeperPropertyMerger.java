@@ -16,6 +16,7 @@
 
 package com.linkedin.d2.discovery.stores.zk;
 
+import com.linkedin.d2.discovery.event.PropertyDelta;
 import java.util.Collection;
 import java.util.Map;
 
@@ -29,6 +30,15 @@ public interface ZooKeeperPropertyMerger<T>
    */
   T merge(String propertyName, Collection<T> propertiesToMerge);
 
+  /**
+   * Merge multiple properties into one after some of them were added or removed, given the value
+   * previously merged. The default implementation merges all the properties again.
+   */
+  default T merge(String propertyName, PropertyDelta<T> delta, Collection<T> propertiesToMerge)
+  {
+    return merge(propertyName, propertiesToMerge);
+  }
+
   /**
    * unmerge should return the String key of the propertiesToMerge containing the value to delete
    */
@@ -17,6 +17,7 @@ package com.linkedin.d2.backuprequests;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
 
 import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
@@ -278,6 +279,40 @@ public class TestTrackingBackupRequestsStrategy
     }
   }
 
+  @Test
+  public void testPartitionStrategies()
+  {
+    TrackingBackupRequestsStrategy trackingStrategy = new TrackingBackupRequestsStrategy(
+        new BoundedCostBackupRequestsStrategy(5, 64, 1024, 128, 0),
+        () -> new BoundedCostBackupRequestsStrategy(5, 64, 1024, 128, 0));
+    final int fastPartition = 0;
+    final int slowPartition = 1;
+    for (int i = 0; i < 200; i++)
+    {
+      trackingStrategy.getTimeUntilBackupRequestNano(fastPartition);
+      trackingStrategy.recordCompletion(fastPartition, TimeUnit.MILLISECONDS.toNanos(1));
+      trackingStrategy.getTimeUntilBackupRequestNano(slowPartition);
+      trackingStrategy.recordCompletion(slowPartition, TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    // each partition backs up requests based on its own latencies
+    Optional<Long> fastDelay = trackingStrategy.getTimeUntilBackupRequestNano(fastPartition);
+    Optional<Long> slowDelay = trackingStrategy.getTimeUntilBackupRequestNano(slowPartition);
+    assertTrue(fastDelay.isPresent());
+    assertTrue(slowDelay.isPresent());
+    assertTrue(fastDelay.get() < TimeUnit.MILLISECONDS.toNanos(10), "fast partition delay: " + fastDelay.get());
+    assertTrue(slowDelay.get() > TimeUnit.MILLISECONDS.toNanos(50), "slow partition delay: " + slowDelay.get());
+    assertEquals(trackingStrategy.getTimeUntilBackupRequestNano(), fastDelay);
+
+    // a partition without history does not back up requests yet
+    assertEquals(trackingStrategy.getTimeUntilBackupRequestNano(2), Optional.empty());
+
+    // statistics are kept across partitions
+    assertTrue(trackingStrategy.isBackupRequestAllowed(fastPartition));
+    assertTrue(trackingStrategy.isBackupRequestAllowed(slowPartition));
+    assertEquals(trackingStrategy.getStats().getAllowed(), 2);
+  }
+
   private static class MockBackupRequestsStrategy implements BackupRequestsStrategy
   {
 
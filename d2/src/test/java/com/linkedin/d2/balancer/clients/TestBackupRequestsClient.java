@@ -32,6 +32,7 @@ import com.linkedin.d2.backuprequests.PoissonEventsArrival;
 import com.linkedin.d2.backuprequests.ResponseTimeDistribution;
 import com.linkedin.d2.balancer.LoadBalancer;
 import com.linkedin.d2.balancer.properties.ServiceProperties;
+import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy.ExcludedHostHints;
 import com.linkedin.d2.balancer.util.JacksonUtil;
 import com.linkedin.d2.discovery.event.PropertyEventThread.PropertyEventShutdownCallback;
 import com.linkedin.data.ByteString;
@@ -46,6 +47,7 @@ import com.linkedin.r2.message.rest.RestResponseBuilder;
 import com.linkedin.r2.transport.common.bridge.client.TransportClient;
 import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
 import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
+import com.linkedin.r2.util.RequestCancellation;
 import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
@@ -55,11 +57,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
@@ -72,6 +76,7 @@ import org.testng.annotations.Test;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
@@ -469,6 +474,77 @@ public class TestBackupRequestsClient
     assertSame(statsProvider2, removedStatsProvider2);
   }
 
+  @Test
+  public void testLosingRequestCancelled() throws Exception
+  {
+    AtomicBoolean hangOriginalRequests = new AtomicBoolean(false);
+    AtomicInteger cancelledRequests = new AtomicInteger();
+    TransportClient transportClient = new TransportClient()
+    {
+      @Override
+      public void shutdown(Callback<None> callback)
+      {
+      }
+
+      @Override
+      public void restRequest(RestRequest request, RequestContext requestContext, Map<String, String> wireAttrs,
+          TransportCallback<RestResponse> callback)
+      {
+        RequestCancellation cancellation =
+            (RequestCancellation) requestContext.getLocalAttr(R2Constants.REQUEST_CANCELLATION);
+        if (hangOriginalRequests.get()
+            && requestContext.getLocalAttr(BackupRequestsClient.BACKUP_REQUEST_ATTRIBUTE_NAME) == null)
+        {
+          // the original request only completes once cancelled
+          cancellation.setCancellable(() -> {
+            cancelledRequests.incrementAndGet();
+            callback.onResponse(TransportResponseImpl.error(new CancellationException()));
+            return true;
+          });
+        } else
+        {
+          callback.onResponse(TransportResponseImpl.success(new RestResponseBuilder().build(), wireAttrs));
+        }
+      }
+    };
+    ServiceProperties serviceProperties =
+        createServiceProperties(Arrays.asList(createBackupRequestsConfiguration(5, "get", 10)));
+    TestLoadBalancer loadBalancer = new TestLoadBalancer(transportClient, () -> serviceProperties)
+    {
+      @Override
+      public void getClient(Request request, RequestContext requestContext, Callback<TransportClient> clientCallback)
+      {
+        // like a real load balancer, exclude the host of the original request from the backup request
+        if (requestContext.getLocalAttr(BackupRequestsClient.BACKUP_REQUEST_ATTRIBUTE_NAME) == null)
+        {
+          ExcludedHostHints.addRequestContextExcludedHost(requestContext, URI.create("http://host1"));
+        }
+        super.getClient(request, requestContext, clientCallback);
+      }
+    };
+    BackupRequestsClient client = createClient(() -> serviceProperties, null, loadBalancer);
+    URI uri = URI.create("d2://testService");
+    RestRequest restRequest = new RestRequestBuilder(uri).setEntity(CONTENT).build();
+
+    // build up the latency history needed before backup requests are sent
+    for (int i = 0; i < 200; i++)
+    {
+      RequestContext requestContext = new RequestContext();
+      requestContext.putLocalAttr(R2Constants.OPERATION, "get");
+      assertEquals(client.restRequest(restRequest, requestContext).get().getStatus(), 200);
+      assertNull(requestContext.getLocalAttr(R2Constants.REQUEST_CANCELLATION));
+    }
+    assertEquals(cancelledRequests.get(), 0);
+
+    hangOriginalRequests.set(true);
+    RequestContext requestContext = new RequestContext();
+    requestContext.putLocalAttr(R2Constants.OPERATION, "get");
+    assertEquals(client.restRequest(restRequest, requestContext).get(5, TimeUnit.SECONDS).getStatus(), 200);
+    assertEquals(cancelledRequests.get(), 1);
+    // the cancellation is not left behind in the context of the caller
+    assertNull(requestContext.getLocalAttr(R2Constants.REQUEST_CANCELLATION));
+  }
+
   private ServiceProperties createServiceProperties(List<Map<String, Object>> backupRequests)
   {
     return new ServiceProperties(SERVICE_NAME, CLUSTER_NAME, PATH, Arrays.asList(STRATEGY_NAME),
@@ -496,7 +572,13 @@ public class TestBackupRequestsClient
   private BackupRequestsClient createClient(Supplier<ServiceProperties> servicePropertiesSupplier,
       TestBackupRequestsStrategyStatsConsumer statsConsumer, ResponseTimeDistribution responseTime)
   {
-    TestLoadBalancer loadBalancer = new TestLoadBalancer(responseTime, servicePropertiesSupplier);
+    return createClient(servicePropertiesSupplier, statsConsumer,
+        new TestLoadBalancer(responseTime, servicePropertiesSupplier));
+  }
+
+  private BackupRequestsClient createClient(Supplier<ServiceProperties> servicePropertiesSupplier,
+      TestBackupRequestsStrategyStatsConsumer statsConsumer, TestLoadBalancer loadBalancer)
+  {
     DynamicClient dynamicClient = new DynamicClient(loadBalancer, null);
     return new BackupRequestsClient(dynamicClient, loadBalancer, _executor, statsConsumer, 10, TimeUnit.SECONDS);
   }
@@ -507,6 +589,12 @@ public class TestBackupRequestsClient
     private final TransportClient _transportClient;
     private final Supplier<ServiceProperties> _servicePropertiesSupplier;
 
+    public TestLoadBalancer(TransportClient transportClient, Supplier<ServiceProperties> servicePropertiesSupplier)
+    {
+      _servicePropertiesSupplier = servicePropertiesSupplier;
+      _transportClient = transportClient;
+    }
+
     public TestLoadBalancer(final ResponseTimeDistribution responseTime,
         Supplier<ServiceProperties> servicePropertiesSupplier)
     {
@@ -553,13 +641,20 @@ public class TestBackupRequestsClient
     }
   }
 
-  @SuppressWarnings("unchecked")
   private final Map<String, Object> createBackupRequestsConfiguration(int cost, String operation)
       throws JsonParseException, JsonMappingException, IOException
+  {
+    return createBackupRequestsConfiguration(cost, operation, new BoundedCostBackupRequests().getMinBackupDelayMs());
+  }
+
+  @SuppressWarnings("unchecked")
+  private final Map<String, Object> createBackupRequestsConfiguration(int cost, String operation,
+      int minBackupDelayMs) throws JsonParseException, JsonMappingException, IOException
   {
     BackupRequestsConfiguration brc = new BackupRequestsConfiguration();
     BoundedCostBackupRequests bcbr = new BoundedCostBackupRequests();
     bcbr.setCost(cost);
+    bcbr.setMinBackupDelayMs(minBackupDelayMs);
     brc.setOperation(operation);
     brc.setStrategy(BackupRequestsConfiguration.Strategy.create(bcbr));
     String json = new JacksonDataCodec().mapToString(brc.data());
@@ -19,6 +19,7 @@ package com.linkedin.d2.balancer.clients;
 import com.linkedin.common.callback.Callback;
 import com.linkedin.common.util.None;
 import com.linkedin.d2.balancer.properties.PartitionData;
+import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyConfig;
 import com.linkedin.d2.balancer.util.partitions.DefaultPartitionAccessor;
 import com.linkedin.data.ByteString;
 import com.linkedin.r2.RemoteInvocationException;
@@ -46,6 +47,7 @@ import com.linkedin.util.clock.SettableClock;
 import com.linkedin.util.degrader.CallTracker;
 import com.linkedin.util.degrader.DegraderControl;
 import com.linkedin.util.degrader.DegraderImpl;
+import com.linkedin.util.degrader.StripedCallTrackerImpl;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.HashMap;
@@ -56,6 +58,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
@@ -120,8 +123,14 @@ public class TrackerClientTest
     assertEquals(wrappedClient.restWireAttrs, restWireAttrs);
   }
 
-  @Test
-  public void testCallTrackingRestRequest() throws Exception
+  @DataProvider
+  public Object[][] stripedCallTracker()
+  {
+    return new Object[][] { { false }, { true } };
+  }
+
+  @Test(dataProvider = "stripedCallTracker")
+  public void testCallTrackingRestRequest(boolean stripedCallTracker) throws Exception
   {
     URI uri = URI.create("http://test.qa.com:1234/foo");
     SettableClock clock = new SettableClock();
@@ -151,8 +160,9 @@ public class TrackerClientTest
       public void shutdown(Callback<None> callback) {}
     };
 
-    TrackerClient client = createTrackerClient(tc, clock, uri);
+    TrackerClient client = createTrackerClient(tc, clock, uri, stripedCallTracker);
     CallTracker callTracker = client.getCallTracker();
+    Assert.assertEquals(callTracker instanceof StripedCallTrackerImpl, stripedCallTracker);
     CallTracker.CallStats stats;
     DegraderControl degraderControl = client.getDegraderControl(DefaultPartitionAccessor.DEFAULT_PARTITION_ID);
     client.restRequest(new RestRequestBuilder(uri).build(), new RequestContext(), new HashMap<>(), new TestTransportCallback<>());
@@ -192,8 +202,8 @@ public class TrackerClientTest
     Assert.assertEquals(degraderControl.getCurrentComputedDropRate(), 0.2, 0.001);
   }
 
-  @Test
-  public void testCallTrackingStreamRequest() throws Exception
+  @Test(dataProvider = "stripedCallTracker")
+  public void testCallTrackingStreamRequest(boolean stripedCallTracker) throws Exception
   {
     URI uri = URI.create("http://test.qa.com:1234/foo");
     SettableClock clock = new SettableClock();
@@ -231,8 +241,9 @@ public class TrackerClientTest
       public void shutdown(Callback<None> callback) {}
     };
 
-    TrackerClient client = createTrackerClient(tc, clock, uri);
+    TrackerClient client = createTrackerClient(tc, clock, uri, stripedCallTracker);
     CallTracker callTracker = client.getCallTracker();
+    Assert.assertEquals(callTracker instanceof StripedCallTrackerImpl, stripedCallTracker);
     CallTracker.CallStats stats;
     DegraderControl degraderControl = client.getDegraderControl(DefaultPartitionAccessor.DEFAULT_PARTITION_ID);
     DelayConsumeCallback delayConsumeCallback = new DelayConsumeCallback();
@@ -297,7 +308,7 @@ public class TrackerClientTest
     Assert.assertEquals(degraderControl.getCurrentComputedDropRate(), 0.2, 0.001);
   }
 
-  private TrackerClient createTrackerClient(TransportClient tc, Clock clock, URI uri)
+  private TrackerClient createTrackerClient(TransportClient tc, Clock clock, URI uri, boolean stripedCallTracker)
   {
     double weight = 3d;
     Map<Integer, PartitionData> partitionDataMap = new HashMap<Integer, PartitionData>(2);
@@ -307,7 +318,9 @@ public class TrackerClientTest
     config.setLowErrorRate(0.0);
     config.setMinCallCount(1);
     config.setDownStep(0.20);
-    return new TrackerClient(uri, partitionDataMap, tc, clock, config);
+    return new TrackerClient(uri, partitionDataMap, tc, clock, config,
+        DegraderLoadBalancerStrategyConfig.DEFAULT_UPDATE_INTERVAL_MS, TrackerClient.DEFAULT_ERROR_STATUS_REGEX,
+        stripedCallTracker);
   }
 
   public static class TestClient implements TransportClient
@@ -97,6 +97,7 @@ public class LoadBalancerStrategyPropertiesConverterTest
     loadBalancerStrategyProperties.put(PropertyKeys.HTTP_LB_QUARANTINE_MAX_PERCENT, quarantineMaxPercent.toString());
     loadBalancerStrategyProperties.put(PropertyKeys.HTTP_LB_QUARANTINE_METHOD, quarantineMethod);
     loadBalancerStrategyProperties.put(PropertyKeys.HTTP_LB_ERROR_STATUS_REGEX, errorStatusRegex);
+    loadBalancerStrategyProperties.put(PropertyKeys.HTTP_LB_STRIPED_CALL_TRACKER, "true");
     loadBalancerStrategyProperties.put(PropertyKeys.HTTP_LB_LOW_EVENT_EMITTING_INTERVAL, lowEmittingInterval.toString());
     loadBalancerStrategyProperties.put(PropertyKeys.HTTP_LB_HIGH_EVENT_EMITTING_INTERVAL, highEmittingInterval.toString());
 
@@ -120,6 +121,7 @@ public class LoadBalancerStrategyPropertiesConverterTest
             .setNumberOfPointsPerHost(numPointsPerHost)
             .setQuarantineCfg(quarantineInfo)
             .setErrorStatusRegex(errorStatusRegex)
+            .setStripedCallTracker(true)
             .setLowEmittingInterval(lowEmittingInterval)
             .setHighEmittingInterval(highEmittingInterval);
 
@@ -0,0 +1,121 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.properties;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+
+public class PersistentHashMapTest
+{
+  @Test
+  public void testMatchesHashMap()
+  {
+    Random random = new Random(7);
+    Map<Key, Integer> expected = new HashMap<Key, Integer>();
+    PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+    for (int i = 0; i < 20000; i++)
+    {
+      // few hash values so that many keys collide
+      Key key = new Key(random.nextInt(3000), random.nextInt(500));
+      PersistentHashMap<Key, Integer> previous = map;
+      Map<Key, Integer> previousExpected = new HashMap<Key, Integer>(expected);
+      if (random.nextInt(3) == 0)
+      {
+        map = map.minus(key);
+        expected.remove(key);
+      }
+      else
+      {
+        map = map.plus(key, i);
+        expected.put(key, i);
+      }
+      Assert.assertEquals(map.size(), expected.size());
+      Assert.assertEquals(map.get(key), expected.get(key));
+      Assert.assertEquals(map.containsKey(key), expected.containsKey(key));
+      // updates leave the previous map untouched
+      Assert.assertEquals(previous.get(key), previousExpected.get(key));
+      Assert.assertEquals(previous.size(), previousExpected.size());
+    }
+    Assert.assertEquals(map, expected);
+    Assert.assertEquals(expected, map);
+    Assert.assertEquals(map.hashCode(), expected.hashCode());
+    Assert.assertEquals(PersistentHashMap.copyOf(expected), expected);
+
+    for (Key key : new HashSet<Key>(expected.keySet()))
+    {
+      map = map.minus(key);
+    }
+    Assert.assertTrue(map.isEmpty());
+    Assert.assertFalse(map.entrySet().iterator().hasNext());
+  }
+
+  @Test
+  public void testSet()
+  {
+    Set<String> expected = new HashSet<String>();
+    PersistentHashSet<String> set = PersistentHashSet.empty();
+    for (int i = 0; i < 100; i++)
+    {
+      set = set.plus("element-" + i);
+      expected.add("element-" + i);
+    }
+    Assert.assertSame(set.plus("element-0"), set);
+    Assert.assertSame(set.minus("absent"), set);
+    set = set.minus("element-0");
+    expected.remove("element-0");
+    Assert.assertEquals(set, expected);
+    Assert.assertEquals(expected, set);
+    Assert.assertEquals(set.hashCode(), expected.hashCode());
+  }
+
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void testUnmodifiable()
+  {
+    PersistentHashMap.<String, String>empty().plus("key", "value").put("key", "other");
+  }
+
+  private static final class Key
+  {
+    private final int _hash;
+    private final int _id;
+
+    Key(int id, int hash)
+    {
+      _id = id;
+      _hash = hash;
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return _hash;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+      return obj instanceof Key && ((Key) obj)._id == _id && ((Key) obj)._hash == _hash;
+    }
+  }
+}
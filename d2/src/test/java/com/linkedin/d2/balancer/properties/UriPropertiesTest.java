@@ -16,13 +16,19 @@
 
 package com.linkedin.d2.balancer.properties;
 
+import com.linkedin.d2.discovery.event.PropertyDelta;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 public class UriPropertiesTest
@@ -97,4 +103,130 @@ public class UriPropertiesTest
 
     }
   }
+
+  @Test
+  public void testMergeDelta()
+  {
+    UriPropertiesMerger merger = new UriPropertiesMerger();
+    URI uriD = URI.create("http://d.com");
+    URI uriF = URI.create("http://f.com");
+
+    Map<String, UriProperties> nodes = new HashMap<String, UriProperties>();
+    nodes.put("a", node(URI.create("http://a.com"), null, 0, 1));
+    nodes.put("b", node(URI.create("http://b.com"), null, 1));
+    nodes.put("c", node(URI.create("https://c.com"), null, 3));
+    nodes.put("d", node(uriD, Collections.<String, Object>singletonMap("key", "value"), 0));
+    // the same uri announced by two nodes
+    nodes.put("f1", node(uriF, null, 0));
+    nodes.put("f2", node(uriF, null, 0));
+    UriProperties previous = merger.merge("TestCluster", nodes.values());
+
+    List<UriProperties> removed = new ArrayList<UriProperties>();
+    for (String node : Arrays.asList("a", "b", "c", "d", "f1"))
+    {
+      removed.add(nodes.remove(node));
+    }
+    List<UriProperties> added = Arrays.asList(
+        node(URI.create("http://a.com"), null, 2), // changed partitions
+        node(URI.create("http://e.com"), null, 1), // new uri
+        node(uriD, null, 0)); // announced again without uri specific properties
+    nodes.put("a2", added.get(0));
+    nodes.put("e", added.get(1));
+    nodes.put("d2", added.get(2));
+
+    UriProperties merged = merger.merge("TestCluster", new PropertyDelta<UriProperties>(previous, added, removed), nodes.values());
+    Assert.assertEquals(merged, merger.merge("TestCluster", nodes.values()));
+    Assert.assertNull(merged.getUriBySchemeAndPartition("https", 3));
+    Assert.assertEquals(merged.getUriBySchemeAndPartition("http", 0), new HashSet<URI>(Arrays.asList(uriD, uriF)));
+    Assert.assertTrue(merged.getUriSpecificProperties().isEmpty());
+  }
+
+  @Test
+  public void testMergeDeltasMatchFullMerge()
+  {
+    UriPropertiesMerger merger = new UriPropertiesMerger();
+    Random random = new Random(42);
+    Map<String, UriProperties> nodes = new HashMap<String, UriProperties>();
+    for (int i = 0; i < 200; i++)
+    {
+      nodes.put("node-" + i, randomNode(random));
+    }
+    UriProperties merged = merger.merge("TestCluster", nodes.values());
+
+    int nextNode = nodes.size();
+    for (int i = 0; i < 500; i++)
+    {
+      List<UriProperties> removed = new ArrayList<UriProperties>();
+      List<UriProperties> added = new ArrayList<UriProperties>();
+      List<String> names = new ArrayList<String>(nodes.keySet());
+      Collections.shuffle(names, random);
+      for (String name : names.subList(0, random.nextInt(3)))
+      {
+        removed.add(nodes.remove(name));
+      }
+      for (int j = random.nextInt(3); j > 0; j--)
+      {
+        UriProperties node = randomNode(random);
+        nodes.put("node-" + nextNode++, node);
+        added.add(node);
+      }
+
+      merged = merger.merge("TestCluster", new PropertyDelta<UriProperties>(merged, added, removed), nodes.values());
+      UriProperties expected = merger.merge("TestCluster", nodes.values());
+      Assert.assertEquals(merged, expected);
+      Assert.assertEquals(merged.hashCode(), expected.hashCode());
+      Assert.assertEquals(merged.getDuplicateUris(), expected.getDuplicateUris());
+    }
+  }
+
+  @Test
+  public void testMergeDeltaSharesUnchangedUris()
+  {
+    UriPropertiesMerger merger = new UriPropertiesMerger();
+    Map<String, UriProperties> nodes = new HashMap<String, UriProperties>();
+    for (int i = 0; i < 1000; i++)
+    {
+      nodes.put("node-" + i, node(URI.create("http://host-" + i + ".com"), null, i % 2));
+    }
+    UriProperties previous = merger.merge("TestCluster", nodes.values());
+    // the first delta moves the previous value to maps it can share with the next ones
+    UriProperties added = node(URI.create("http://host-1000.com"), null, 0);
+    nodes.put("node-1000", added);
+    previous = merger.merge("TestCluster", new PropertyDelta<UriProperties>(previous, Collections.singletonList(added),
+        Collections.<UriProperties>emptyList()), nodes.values());
+
+    UriProperties removed = nodes.remove("node-0");
+    UriProperties merged = merger.merge("TestCluster", new PropertyDelta<UriProperties>(previous,
+        Collections.<UriProperties>emptyList(), Collections.singletonList(removed)), nodes.values());
+
+    Assert.assertEquals(merged, merger.merge("TestCluster", nodes.values()));
+    Assert.assertSame(merged.getUriBySchemeAndPartition("http", 1), previous.getUriBySchemeAndPartition("http", 1));
+    Assert.assertSame(merged.getPartitionDataMap(URI.create("http://host-2.com")),
+        previous.getPartitionDataMap(URI.create("http://host-2.com")));
+    Assert.assertTrue(merged.getPartitionDesc() instanceof PersistentHashMap);
+    Assert.assertTrue(merged.getUriBySchemeAndPartition("http", 0) instanceof PersistentHashSet);
+  }
+
+  /**
+   * A node announcing one of a few uris, so that some uris are announced by several nodes. The partition data and
+   * uri specific properties depend on the uri only, for the full merge to not depend on the order of the nodes.
+   */
+  private static UriProperties randomNode(Random random)
+  {
+    int host = random.nextInt(100);
+    URI uri = URI.create((host % 3 == 0 ? "https" : "http") + "://host-" + host + ".com");
+    return node(uri, host % 4 == 0 ? Collections.<String, Object>singletonMap("key", host) : null, host % 5, host % 7);
+  }
+
+  private static UriProperties node(URI uri, Map<String, Object> uriSpecificProperties, int... partitionIds)
+  {
+    Map<Integer, PartitionData> partitionData = new HashMap<Integer, PartitionData>();
+    for (int partitionId : partitionIds)
+    {
+      partitionData.put(partitionId, new PartitionData(1d));
+    }
+    return new UriProperties("TestCluster", Collections.singletonMap(uri, partitionData),
+        uriSpecificProperties == null ? Collections.<URI, Map<String, Object>>emptyMap()
+            : Collections.singletonMap(uri, uriSpecificProperties));
+  }
 }
@@ -30,6 +30,7 @@ import com.linkedin.d2.balancer.properties.PropertyKeys;
 import com.linkedin.d2.balancer.properties.RangeBasedPartitionProperties;
 import com.linkedin.d2.balancer.properties.ServiceProperties;
 import com.linkedin.d2.balancer.properties.UriProperties;
+import com.linkedin.d2.balancer.properties.UriPropertiesMerger;
 import com.linkedin.d2.balancer.simple.SimpleLoadBalancerState.SimpleLoadBalancerStateListener;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategyFactory;
@@ -38,7 +39,9 @@ import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategy
 import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerTest;
 import com.linkedin.d2.balancer.strategies.random.RandomLoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.random.RandomLoadBalancerStrategyFactory;
+import com.linkedin.d2.balancer.util.RoutingSnapshot;
 import com.linkedin.d2.balancer.util.partitions.DefaultPartitionAccessor;
+import com.linkedin.d2.discovery.event.PropertyDelta;
 import com.linkedin.d2.discovery.event.PropertyEventBusImpl;
 import com.linkedin.d2.discovery.event.PropertyEventThread.PropertyEventShutdownCallback;
 import com.linkedin.d2.discovery.event.SynchronousExecutorService;
@@ -531,6 +534,158 @@ public class SimpleLoadBalancerStateTest
     assertEquals(client.getUri(), uri);
   }
 
+  @Test(groups = { "small", "back-end" })
+  public void testRoutingGeneration()
+  {
+    reset();
+
+    URI uri = URI.create("http://cluster-1/test");
+    Map<Integer, PartitionData> partitionData = new HashMap<Integer, PartitionData>(1);
+    partitionData.put(DefaultPartitionAccessor.DEFAULT_PARTITION_ID, new PartitionData(1d));
+    Map<URI, Map<Integer, PartitionData>> uriData = new HashMap<URI, Map<Integer, PartitionData>>();
+    uriData.put(uri, partitionData);
+
+    _state.listenToCluster("cluster-1", new NullStateListenerCallback());
+    _state.listenToService("service-1", new NullStateListenerCallback());
+    _clusterRegistry.put("cluster-1", new ClusterProperties("cluster-1"));
+
+    long generation = _state.getRoutingGeneration("service-1");
+    _serviceRegistry.put("service-1", new ServiceProperties("service-1", "cluster-1",
+                                                            "/test", Arrays.asList("random"),
+                                                            Collections.<String, Object>emptyMap(),
+                                                            null, null, Collections.singletonList("http"), null));
+    assertTrue(_state.getRoutingGeneration("service-1") > generation);
+
+    generation = _state.getRoutingGeneration("service-1");
+    _clusterRegistry.put("cluster-1", new ClusterProperties("cluster-1"));
+    assertTrue(_state.getRoutingGeneration("service-1") > generation);
+
+    generation = _state.getRoutingGeneration("service-1");
+    _uriRegistry.put("cluster-1", new UriProperties("cluster-1", uriData));
+    assertTrue(_state.getRoutingGeneration("service-1") > generation);
+    assertNotNull(_state.getClient("service-1", uri));
+
+    // the generation moves only once the tracker clients of the removed uris are gone
+    generation = _state.getRoutingGeneration("service-1");
+    _uriRegistry.remove("cluster-1");
+    assertTrue(_state.getRoutingGeneration("service-1") > generation);
+    assertNull(_state.getClient("service-1", uri));
+
+    // changes of other services and clusters leave the generation alone
+    generation = _state.getRoutingGeneration("service-1");
+    _state.listenToCluster("cluster-2", new NullStateListenerCallback());
+    _state.listenToService("service-2", new NullStateListenerCallback());
+    _clusterRegistry.put("cluster-2", new ClusterProperties("cluster-2"));
+    _serviceRegistry.put("service-2", new ServiceProperties("service-2", "cluster-2",
+                                                            "/test", Arrays.asList("random"),
+                                                            Collections.<String, Object>emptyMap(),
+                                                            null, null, Collections.singletonList("http"), null));
+    _uriRegistry.put("cluster-2", new UriProperties("cluster-2", uriData));
+    _uriRegistry.remove("cluster-2");
+    assertEquals(_state.getRoutingGeneration("service-1"), generation);
+  }
+
+  @Test(groups = { "small", "back-end" })
+  public void testRemoveRoutingSnapshots()
+  {
+    reset();
+
+    _state.listenToCluster("cluster-1", new NullStateListenerCallback());
+    _state.listenToService("service-1", new NullStateListenerCallback());
+    _state.listenToService("service-2", new NullStateListenerCallback());
+    _clusterRegistry.put("cluster-1", new ClusterProperties("cluster-1"));
+    for (String serviceName : Arrays.asList("service-1", "service-2"))
+    {
+      _serviceRegistry.put(serviceName, new ServiceProperties(serviceName, "cluster-1",
+                                                              "/test", Arrays.asList("random"),
+                                                              Collections.<String, Object>emptyMap(),
+                                                              null, null, Collections.singletonList("http"), null));
+    }
+
+    // a snapshot built before the last change is not kept
+    _state.putRoutingSnapshot("service-1", "http", 0, newRoutingSnapshot(_state.getRoutingGeneration("service-1") - 1));
+    assertNull(_state.getRoutingSnapshot("service-1", "http", 0));
+    // nor is one of a service without generation
+    _state.putRoutingSnapshot("service-3", "http", 0, newRoutingSnapshot(_state.getRoutingGeneration("service-3")));
+    assertNull(_state.getRoutingSnapshot("service-3", "http", 0));
+
+    for (String serviceName : Arrays.asList("service-1", "service-2"))
+    {
+      _state.putRoutingSnapshot(serviceName, "http", 0, newRoutingSnapshot(_state.getRoutingGeneration(serviceName)));
+      _state.putRoutingSnapshot(serviceName, "http", 1, newRoutingSnapshot(_state.getRoutingGeneration(serviceName)));
+    }
+    assertEquals(_state.getRoutingSnapshotCount(), 4);
+    assertNotNull(_state.getRoutingSnapshot("service-1", "http", 1));
+
+    // a snapshot built before its service is removed is not kept
+    long generation = _state.getRoutingGeneration("service-1");
+    _serviceRegistry.remove("service-1");
+    _state.putRoutingSnapshot("service-1", "http", 2, newRoutingSnapshot(generation));
+    assertNull(_state.getRoutingSnapshot("service-1", "http", 0));
+    assertNull(_state.getRoutingSnapshot("service-1", "http", 1));
+    assertEquals(_state.getRoutingSnapshotCount(), 2);
+
+    _clusterRegistry.remove("cluster-1");
+    assertEquals(_state.getRoutingSnapshotCount(), 0);
+  }
+
+  private static RoutingSnapshot newRoutingSnapshot(long routingGeneration)
+  {
+    return new RoutingSnapshot(Collections.<TrackerClient>emptyList(), routingGeneration, null, null, null);
+  }
+
+  @Test(groups = { "small", "back-end" })
+  public void testUriDelta()
+  {
+    reset();
+
+    URI uri1 = URI.create("http://cluster-1/test1");
+    URI uri2 = URI.create("http://cluster-1/test2");
+    URI uri3 = URI.create("http://cluster-1/test3");
+    UriPropertiesMerger merger = new UriPropertiesMerger();
+    UriProperties node1 = singleUriProperties(uri1, 0);
+    UriProperties node2 = singleUriProperties(uri2, 0);
+    UriProperties node3 = singleUriProperties(uri3, 0);
+
+    _state.listenToCluster("cluster-1", new NullStateListenerCallback());
+    _state.listenToService("service-1", new NullStateListenerCallback());
+    _clusterRegistry.put("cluster-1", new ClusterProperties("cluster-1"));
+    _serviceRegistry.put("service-1", new ServiceProperties("service-1", "cluster-1",
+                                                            "/test", Arrays.asList("random"),
+                                                            Collections.<String, Object>emptyMap(),
+                                                            null, null, Collections.singletonList("http"), null));
+    UriProperties previous = merger.merge("cluster-1", Arrays.asList(node1, node2));
+    _uriRegistry.put("cluster-1", previous);
+    TrackerClient client1 = _state.getClient("service-1", uri1);
+    assertNotNull(client1);
+    assertNotNull(_state.getClient("service-1", uri2));
+
+    // uri2 goes away, uri3 joins and uri1 is not touched
+    PropertyDelta<UriProperties> delta =
+        new PropertyDelta<>(previous, Collections.singletonList(node3), Collections.singletonList(node2));
+    UriProperties current = merger.merge("cluster-1", delta, Arrays.asList(node1, node3));
+    _uriRegistry.putDelta("cluster-1", current, delta);
+
+    assertEquals(_state.getUriProperties("cluster-1").getProperty(), current);
+    assertTrue(_state.getClient("service-1", uri1) == client1);
+    assertNull(_state.getClient("service-1", uri2));
+    assertNotNull(_state.getClient("service-1", uri3));
+
+    // a delta which doesn't apply to the current value is handled as a whole new value
+    delta = new PropertyDelta<>(previous, Collections.emptyList(), Collections.singletonList(node1));
+    _uriRegistry.putDelta("cluster-1", merger.merge("cluster-1", Collections.singletonList(node2)), delta);
+
+    assertNull(_state.getClient("service-1", uri1));
+    assertNotNull(_state.getClient("service-1", uri2));
+    assertNull(_state.getClient("service-1", uri3));
+  }
+
+  private static UriProperties singleUriProperties(URI uri, int partitionId)
+  {
+    return new UriProperties("cluster-1",
+        Collections.singletonMap(uri, Collections.singletonMap(partitionId, new PartitionData(1d))));
+  }
+
   @Test(groups = { "small", "back-end" })
   public void testGetStrategy() throws URISyntaxException
   {
@@ -331,6 +331,20 @@ public class SimpleLoadBalancerTest
           (RewriteLoadBalancerClient) loadBalancer.getClient(uriRequest, new RequestContext());
       Assert.assertEquals(client.getUri(), expectedUri);
     }
+
+    // banning the other uri instead rebuilds the routing snapshot; the uris are announced again so
+    // the degrader strategy sees a new cluster generation
+    clusterRegistry.put("cluster-1", new ClusterProperties("cluster-1", Collections.emptyList(),
+        Collections.emptyMap(), Collections.singleton(uri2Usable), NullPartitionProperties.getInstance()));
+    uriRegistry.put("cluster-1", new UriProperties("cluster-1", uriData));
+
+    expectedUri = URI.create("http://test.qd.com:1234/foo");
+    for (int i = 0; i < 10; ++i)
+    {
+      RewriteLoadBalancerClient client =
+          (RewriteLoadBalancerClient) loadBalancer.getClient(uriRequest, new RequestContext());
+      Assert.assertEquals(client.getUri(), expectedUri);
+    }
   }
 
   /**
@@ -17,6 +17,7 @@
 package com.linkedin.d2.balancer.strategies.degrader;
 
 
+import com.linkedin.d2.balancer.properties.PropertyKeys;
 import com.linkedin.d2.balancer.util.hashing.ConsistentHashRing.Point;
 import com.linkedin.d2.balancer.util.hashing.Ring;
 import com.linkedin.d2.balancer.util.partitions.DefaultPartitionAccessor;
@@ -31,6 +32,8 @@ import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 
 
 public class DegraderRingFactoryTest
@@ -154,5 +157,35 @@ public class DegraderRingFactoryTest
       }
     }
   }
-}
 
+  @Test(groups = { "small", "back-end" })
+  public void testRingCache()
+  {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(PropertyKeys.HTTP_LB_CONSISTENT_HASH_ALGORITHM, DegraderRingFactory.MULTI_PROBE_CONSISTENT_HASH);
+    DegraderRingFactory<String> ringFactory =
+        new DegraderRingFactory<>(DegraderLoadBalancerStrategyConfig.createHttpConfigFromMap(properties));
+
+    Map<String, Integer> pointsMp = buildPointsMap(10);
+    Ring<String> ring = ringFactory.createRing(pointsMp);
+    assertSame(ringFactory.createRing(new HashMap<>(pointsMp)), ring);
+
+    // oscillating between two points maps reuses both rings
+    pointsMp.put("http://test.linkedin.com:10001", 50);
+    Ring<String> degradedRing = ringFactory.createRing(pointsMp);
+    assertNotSame(degradedRing, ring);
+    pointsMp.put("http://test.linkedin.com:10001", 100);
+    assertSame(ringFactory.createRing(pointsMp), ring);
+    pointsMp.put("http://test.linkedin.com:10001", 50);
+    assertSame(ringFactory.createRing(pointsMp), degradedRing);
+
+    // the least recently used ring is evicted beyond the cache size
+    for (int i = 1; i <= DegraderRingFactory.RING_CACHE_SIZE; i++)
+    {
+      pointsMp.put("http://test.linkedin.com:10002", i);
+      assertNotNull(ringFactory.createRing(pointsMp).get(1000));
+    }
+    pointsMp.put("http://test.linkedin.com:10002", 100);
+    assertNotSame(ringFactory.createRing(pointsMp), degradedRing);
+  }
+}
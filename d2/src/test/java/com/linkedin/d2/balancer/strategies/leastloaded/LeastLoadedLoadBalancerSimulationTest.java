@@ -0,0 +1,292 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.strategies.leastloaded;
+
+import com.linkedin.d2.balancer.clients.TrackerClient;
+import com.linkedin.d2.balancer.properties.PartitionData;
+import com.linkedin.d2.balancer.properties.PropertyKeys;
+import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
+import com.linkedin.d2.balancer.strategies.LoadBalancerStrategyFactory;
+import com.linkedin.d2.balancer.strategies.degrader.DegraderConfigFactory;
+import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyConfig;
+import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyFactoryV3;
+import com.linkedin.d2.balancer.util.partitions.DefaultPartitionAccessor;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.util.clock.SettableClock;
+import com.linkedin.util.degrader.CallCompletion;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Random;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Simulates a cluster in which one host becomes slow to compare the latencies of requests balanced by
+ * {@link LeastLoadedLoadBalancerStrategy} and by the degrader strategy.
+ *
+ * The simulation runs on a settable clock. Requests arrive with exponential inter-arrival times, and each host
+ * serves them with a fixed number of workers and exponential service times, queueing requests while all of its
+ * workers are busy. The latency of a request is its time in the queue plus its service time; requests still queued
+ * at the end count with their time so far.
+ */
+public class LeastLoadedLoadBalancerSimulationTest
+{
+  private static final int PARTITION_ID = DefaultPartitionAccessor.DEFAULT_PARTITION_ID;
+  private static final int HOSTS = 10;
+  private static final int WORKERS_PER_HOST = 8;
+  private static final double SERVICE_TIME_MS = 10;
+  private static final double SLOW_SERVICE_TIME_MS = 100;
+  private static final double REQUESTS_PER_MS = 3;
+  private static final long DURATION_MS = 12000;
+  // latencies are recorded once the strategies have warmed up on the healthy cluster
+  private static final long WARM_UP_MS = 3000;
+  // the first host becomes slow at this time, like on a bad deployment or a noisy neighbor
+  private static final long SLOW_DOWN_MS = 6000;
+  // the call tracker and degrader intervals are shortened as much as the simulation, so that the strategies get as
+  // many updates as on a cluster running ten times longer with the default interval
+  private static final long UPDATE_INTERVAL_MS = DegraderLoadBalancerStrategyConfig.DEFAULT_UPDATE_INTERVAL_MS / 10;
+
+  @Test(groups = { "small", "back-end" })
+  public void testTailLatency()
+  {
+    Latencies degrader = simulate(new DegraderLoadBalancerStrategyFactoryV3(), 42);
+    Latencies leastLoaded = simulate(new LeastLoadedLoadBalancerStrategyFactory(), 42);
+
+    assertTrue(leastLoaded.getPercentile(99) < degrader.getPercentile(99),
+        "leastLoaded " + leastLoaded + " degrader " + degrader);
+    assertTrue(leastLoaded.getPercentile(99.9) < degrader.getPercentile(99.9),
+        "leastLoaded " + leastLoaded + " degrader " + degrader);
+  }
+
+  private static Latencies simulate(LoadBalancerStrategyFactory<?> strategyFactory, long seed)
+  {
+    return new Simulation(strategyFactory, seed).run();
+  }
+
+  private static class Simulation
+  {
+    private final SettableClock _clock = new SettableClock();
+    private final Random _random;
+    private final PriorityQueue<Event> _events = new PriorityQueue<>();
+    private final List<Host> _hosts = new ArrayList<>();
+    private final List<TrackerClient> _trackerClients = new ArrayList<>();
+    private final LoadBalancerStrategy _strategy;
+    private final Latencies _latencies = new Latencies();
+    private double _time;
+    private long _sequence;
+
+    Simulation(LoadBalancerStrategyFactory<?> strategyFactory, long seed)
+    {
+      _random = new Random(seed);
+
+      Map<String, String> degraderProperties = new HashMap<>();
+      degraderProperties.put(PropertyKeys.DEGRADER_HIGH_LATENCY, "50");
+      degraderProperties.put(PropertyKeys.DEGRADER_LOW_LATENCY, "20");
+      degraderProperties.put(PropertyKeys.DEGRADER_MIN_CALL_COUNT, "10");
+      Map<String, Object> strategyProperties = new HashMap<>();
+      strategyProperties.put(PropertyKeys.CLOCK, _clock);
+      strategyProperties.put(PropertyKeys.HTTP_LB_STRATEGY_PROPERTIES_UPDATE_INTERVAL_MS, UPDATE_INTERVAL_MS);
+      _strategy = strategyFactory.newLoadBalancer("simulation", strategyProperties, degraderProperties);
+
+      Map<Integer, PartitionData> partitionDataMap = Collections.singletonMap(PARTITION_ID, new PartitionData(1d));
+      for (int i = 0; i < HOSTS; i++)
+      {
+        Host host = new Host(i == 0 ? SLOW_SERVICE_TIME_MS : SERVICE_TIME_MS);
+        TrackerClient trackerClient = new TrackerClient(URI.create("http://host-" + i + ".linkedin.com:1234"),
+            partitionDataMap, null, _clock, DegraderConfigFactory.toDegraderConfig(degraderProperties),
+            UPDATE_INTERVAL_MS, null);
+        _hosts.add(host);
+        _trackerClients.add(trackerClient);
+      }
+    }
+
+    Latencies run()
+    {
+      schedule(0, this::arrive);
+      while (!_events.isEmpty() && _events.peek()._time < DURATION_MS)
+      {
+        Event event = _events.poll();
+        _time = event._time;
+        _clock.setCurrentTimeMillis((long) _time);
+        event._action.run();
+      }
+      for (Host host : _hosts)
+      {
+        for (Call call : host._queue)
+        {
+          _latencies.add(call._startTime, DURATION_MS - call._startTime);
+        }
+      }
+      return _latencies;
+    }
+
+    private void schedule(double delay, Runnable action)
+    {
+      _events.add(new Event(_time + delay, _sequence++, action));
+    }
+
+    private double exponential(double mean)
+    {
+      return -mean * Math.log(1 - _random.nextDouble());
+    }
+
+    private void arrive()
+    {
+      schedule(exponential(1 / REQUESTS_PER_MS), this::arrive);
+
+      TrackerClient trackerClient =
+          _strategy.getTrackerClient(null, new RequestContext(), 0, PARTITION_ID, _trackerClients);
+      if (trackerClient == null)
+      {
+        _latencies.dropped();
+        return;
+      }
+      Host host = _hosts.get(_trackerClients.indexOf(trackerClient));
+      host.submit(new Call(_time, trackerClient.getCallTracker().startCall()));
+    }
+
+    private class Host
+    {
+      private final double _slowServiceTime;
+      private final Queue<Call> _queue = new ArrayDeque<>();
+      private int _busyWorkers;
+
+      Host(double slowServiceTime)
+      {
+        _slowServiceTime = slowServiceTime;
+      }
+
+      void submit(Call call)
+      {
+        if (_busyWorkers < WORKERS_PER_HOST)
+        {
+          _busyWorkers++;
+          serve(call);
+        }
+        else
+        {
+          _queue.add(call);
+        }
+      }
+
+      private void serve(Call call)
+      {
+        schedule(exponential(_time < SLOW_DOWN_MS ? SERVICE_TIME_MS : _slowServiceTime), () ->
+        {
+          call._callCompletion.endCall();
+          _latencies.add(call._startTime, _time - call._startTime);
+          Call next = _queue.poll();
+          if (next != null)
+          {
+            serve(next);
+          }
+          else
+          {
+            _busyWorkers--;
+          }
+        });
+      }
+    }
+  }
+
+  private static class Call
+  {
+    private final double _startTime;
+    private final CallCompletion _callCompletion;
+
+    Call(double startTime, CallCompletion callCompletion)
+    {
+      _startTime = startTime;
+      _callCompletion = callCompletion;
+    }
+  }
+
+  private static class Event implements Comparable<Event>
+  {
+    private final double _time;
+    private final long _sequence;
+    private final Runnable _action;
+
+    Event(double time, long sequence, Runnable action)
+    {
+      _time = time;
+      _sequence = sequence;
+      _action = action;
+    }
+
+    @Override
+    public int compareTo(Event other)
+    {
+      int result = Double.compare(_time, other._time);
+      return result != 0 ? result : Long.compare(_sequence, other._sequence);
+    }
+  }
+
+  private static class Latencies
+  {
+    private double[] _latencies = new double[1024];
+    private int _count;
+    private int _dropped;
+    private boolean _sorted;
+
+    void add(double startTime, double latency)
+    {
+      if (startTime < WARM_UP_MS)
+      {
+        return;
+      }
+      if (_count == _latencies.length)
+      {
+        _latencies = Arrays.copyOf(_latencies, _count * 2);
+      }
+      _latencies[_count++] = latency;
+      _sorted = false;
+    }
+
+    void dropped()
+    {
+      _dropped++;
+    }
+
+    double getPercentile(double percentile)
+    {
+      if (!_sorted)
+      {
+        Arrays.sort(_latencies, 0, _count);
+        _sorted = true;
+      }
+      return _latencies[Math.min((int) (_count * percentile / 100), _count - 1)];
+    }
+
+    @Override
+    public String toString()
+    {
+      return String.format("requests=%d dropped=%d p50=%.1fms p90=%.1fms p99=%.1fms p99.9=%.1fms",
+          _count, _dropped, getPercentile(50), getPercentile(90), getPercentile(99), getPercentile(99.9));
+    }
+  }
+}
@@ -0,0 +1,150 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.strategies.leastloaded;
+
+import com.linkedin.d2.balancer.clients.TrackerClient;
+import com.linkedin.d2.balancer.properties.PartitionData;
+import com.linkedin.d2.balancer.properties.PropertyKeys;
+import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
+import com.linkedin.d2.balancer.util.partitions.DefaultPartitionAccessor;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.util.clock.SettableClock;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+
+public class LeastLoadedLoadBalancerStrategyTest
+{
+  private static final int PARTITION_ID = DefaultPartitionAccessor.DEFAULT_PARTITION_ID;
+  private static final long INTERVAL = 5000;
+
+  private final SettableClock _clock = new SettableClock();
+
+  private LeastLoadedLoadBalancerStrategy createStrategy()
+  {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(PropertyKeys.CLOCK, _clock);
+    return new LeastLoadedLoadBalancerStrategyFactory().newLoadBalancer("unused", properties, null);
+  }
+
+  private TrackerClient createTrackerClient(String host, double weight)
+  {
+    Map<Integer, PartitionData> partitionDataMap = new HashMap<>(2);
+    partitionDataMap.put(PARTITION_ID, new PartitionData(weight));
+    return new TrackerClient(URI.create("http://" + host + ":1234/foo"), partitionDataMap, null, _clock, null,
+        INTERVAL, null);
+  }
+
+  private static TrackerClient choose(LeastLoadedLoadBalancerStrategy strategy, RequestContext requestContext,
+      List<TrackerClient> trackerClients)
+  {
+    return strategy.getTrackerClient(null, requestContext, 0, PARTITION_ID, trackerClients);
+  }
+
+  @Test(groups = { "small", "back-end" })
+  public void testCallsInFlight()
+  {
+    LeastLoadedLoadBalancerStrategy strategy = createStrategy();
+    TrackerClient busy = createTrackerClient("busy.linkedin.com", 1d);
+    TrackerClient idle = createTrackerClient("idle.linkedin.com", 1d);
+    for (int i = 0; i < 5; i++)
+    {
+      busy.getCallTracker().startCall();
+    }
+
+    List<TrackerClient> trackerClients = Arrays.asList(busy, idle);
+    for (int i = 0; i < 100; i++)
+    {
+      assertEquals(choose(strategy, new RequestContext(), trackerClients), idle);
+    }
+  }
+
+  @Test(groups = { "small", "back-end" })
+  public void testLatency()
+  {
+    LeastLoadedLoadBalancerStrategy strategy = createStrategy();
+    TrackerClient slow = createTrackerClient("slow.linkedin.com", 1d);
+    TrackerClient fast = createTrackerClient("fast.linkedin.com", 1d);
+    for (int i = 0; i < 10; i++)
+    {
+      slow.getCallTracker().trackCall(100);
+      fast.getCallTracker().trackCall(10);
+    }
+    _clock.addDuration(INTERVAL);
+
+    List<TrackerClient> trackerClients = Arrays.asList(slow, fast);
+    for (int i = 0; i < 100; i++)
+    {
+      assertEquals(choose(strategy, new RequestContext(), trackerClients), fast);
+    }
+
+    // the slow host with nothing in flight wins against the fast host with 20 calls in flight
+    for (int i = 0; i < 20; i++)
+    {
+      fast.getCallTracker().startCall();
+    }
+    for (int i = 0; i < 100; i++)
+    {
+      assertEquals(choose(strategy, new RequestContext(), trackerClients), slow);
+    }
+  }
+
+  @Test(groups = { "small", "back-end" })
+  public void testPartitionWeight()
+  {
+    LeastLoadedLoadBalancerStrategy strategy = createStrategy();
+    TrackerClient light = createTrackerClient("light.linkedin.com", 1d);
+    TrackerClient heavy = createTrackerClient("heavy.linkedin.com", 4d);
+    light.getCallTracker().startCall();
+    for (int i = 0; i < 3; i++)
+    {
+      heavy.getCallTracker().startCall();
+    }
+
+    List<TrackerClient> trackerClients = Arrays.asList(light, heavy);
+    for (int i = 0; i < 100; i++)
+    {
+      assertEquals(choose(strategy, new RequestContext(), trackerClients), heavy);
+    }
+  }
+
+  @Test(groups = { "small", "back-end" })
+  public void testExcludedHosts()
+  {
+    LeastLoadedLoadBalancerStrategy strategy = createStrategy();
+    TrackerClient busy = createTrackerClient("busy.linkedin.com", 1d);
+    TrackerClient idle = createTrackerClient("idle.linkedin.com", 1d);
+    busy.getCallTracker().startCall();
+    List<TrackerClient> trackerClients = Arrays.asList(busy, idle);
+
+    RequestContext requestContext = new RequestContext();
+    LoadBalancerStrategy.ExcludedHostHints.addRequestContextExcludedHost(requestContext, idle.getUri());
+    assertEquals(choose(strategy, requestContext, trackerClients), busy);
+
+    LoadBalancerStrategy.ExcludedHostHints.addRequestContextExcludedHost(requestContext, busy.getUri());
+    assertNull(choose(strategy, requestContext, trackerClients));
+    assertNull(choose(strategy, new RequestContext(), Collections.emptyList()));
+  }
+}
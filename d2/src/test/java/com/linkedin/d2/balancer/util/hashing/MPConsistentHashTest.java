@@ -140,6 +140,37 @@ public class MPConsistentHashTest
     Assert.assertTrue(pointsMap.isEmpty());
   }
 
+  @Test
+  public void testUpdate()
+  {
+    Random random = new Random(42);
+    Map<URI, Integer> pointsMap = new HashMap<>();
+    for (int i = 0; i < 50; i++)
+    {
+      pointsMap.put(URI.create("http://test.linkedin.com:" + (1000 + i)), 100);
+    }
+    MPConsistentHashRing<URI> hashRing = new MPConsistentHashRing<>(pointsMap, 21, 3);
+
+    for (int round = 0; round < 10; round++)
+    {
+      // degrade some hosts, drop one and add a new one
+      for (int i = 0; i < 5; i++)
+      {
+        pointsMap.put(URI.create("http://test.linkedin.com:" + (1000 + random.nextInt(50))), random.nextInt(101));
+      }
+      pointsMap.remove(URI.create("http://test.linkedin.com:" + (1000 + random.nextInt(50))));
+      pointsMap.put(URI.create("http://test.linkedin.com:" + (2000 + round)), 100);
+
+      hashRing = hashRing.update(pointsMap);
+      MPConsistentHashRing<URI> expected = new MPConsistentHashRing<>(pointsMap, 21, 3);
+      Assert.assertEquals(hashRing.isEmpty(), expected.isEmpty());
+      for (int key = 0; key < 1000; key++)
+      {
+        Assert.assertEquals(hashRing.get(key), expected.get(key));
+      }
+    }
+  }
+
 
   private Map<Integer, Integer> getDistribution(int numHosts, int pointsPerHost)
   {
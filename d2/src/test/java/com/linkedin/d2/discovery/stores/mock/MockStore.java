@@ -18,6 +18,7 @@ package com.linkedin.d2.discovery.stores.mock;
 
 import com.linkedin.common.callback.Callback;
 import com.linkedin.common.util.None;
+import com.linkedin.d2.discovery.event.PropertyDelta;
 import com.linkedin.d2.discovery.event.PropertyEventBus;
 import com.linkedin.d2.discovery.event.PropertyEventPublisher;
 import com.linkedin.d2.discovery.stores.PropertyStore;
@@ -78,6 +79,21 @@ public class MockStore<T> implements PropertyEventPublisher<T>, PropertyStore<T>
     }
   }
 
+  /**
+   * Like {@link #put(String, Object)}, but publishes the value as an incremental change.
+   */
+  public void putDelta(String listenTo, T discoveryProperties, PropertyDelta<T> delta)
+  {
+    synchronized (_lock)
+    {
+      _properties.put(listenTo, discoveryProperties);
+      if (_eventBus != null && _publishing.contains(listenTo))
+      {
+        _eventBus.publishDelta(listenTo, discoveryProperties, delta);
+      }
+    }
+  }
+
   @Override
   public void remove(String listenTo)
   {
@@ -19,11 +19,13 @@ package com.linkedin.d2.discovery.stores.zk;
 import com.linkedin.common.callback.Callback;
 import com.linkedin.common.callback.FutureCallback;
 import com.linkedin.common.util.None;
+import com.linkedin.d2.discovery.event.PropertyDelta;
 import com.linkedin.d2.discovery.event.PropertyEventBusImpl;
 import com.linkedin.d2.discovery.event.PropertyEventSubscriber;
 import com.linkedin.d2.discovery.stores.PropertySetStringMerger;
 import com.linkedin.d2.discovery.stores.PropertySetStringSerializer;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -35,6 +37,8 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.ZooDefs;
@@ -339,4 +343,90 @@ public class ZooKeeperEphemeralStoreChildrenWatcherTest
     _eventBus.unregister(Collections.singleton("bucket"), subscriber);
     client.shutdown();
   }
+
+  @Test
+  public void testChildNodeRemovedDelta() throws IOException, InterruptedException, ExecutionException, TimeoutException, KeeperException
+  {
+    ZKConnection client = new ZKConnection("localhost:" + _port, 5000);
+    client.start();
+
+    final ZooKeeperEphemeralStore<Set<String>> publisher =
+      new ZooKeeperEphemeralStore<>(client, new PropertySetStringSerializer(),
+        new PropertySetStringMerger(), "/", false, true);
+
+    final CountDownLatch initLatch = new CountDownLatch(1);
+    final CountDownLatch deltaLatch = new CountDownLatch(1);
+    final CountDownLatch startLatch = new CountDownLatch(1);
+    final AtomicReference<PropertyDelta<Set<String>>> delta = new AtomicReference<>();
+    final AtomicBoolean deltaOfInitialValue = new AtomicBoolean();
+    final PropertyEventSubscriber<Set<String>> subscriber = new PropertyEventSubscriber<Set<String>>()
+    {
+      @Override
+      public void onInitialize(String propertyName, Set<String> propertyValue)
+      {
+        _outputData = propertyValue;
+        initLatch.countDown();
+      }
+
+      @Override
+      public void onAdd(String propertyName, Set<String> propertyValue)
+      {
+      }
+
+      @Override
+      public void onDelta(String propertyName, Set<String> propertyValue, PropertyDelta<Set<String>> propertyDelta)
+      {
+        deltaOfInitialValue.set(propertyDelta.getPreviousValue() == _outputData);
+        _outputData = propertyValue;
+        delta.set(propertyDelta);
+        deltaLatch.countDown();
+      }
+
+      @Override
+      public void onRemove(String propertyName)
+      {
+      }
+    };
+
+    publisher.start(new Callback<None>()
+    {
+      @Override
+      public void onError(Throwable e)
+      {
+      }
+
+      @Override
+      public void onSuccess(None result)
+      {
+        _eventBus = new PropertyEventBusImpl<>(_executor, publisher);
+        _eventBus.register(Collections.singleton("bucket"), subscriber);
+        startLatch.countDown();
+      }
+    });
+
+    if (!startLatch.await(5, TimeUnit.SECONDS))
+    {
+      Assert.fail("unable to start ZookeeperChildrenDataPublisher");
+    }
+    if (!initLatch.await(5, TimeUnit.SECONDS))
+    {
+      Assert.fail("unable to publish initial property value");
+    }
+
+    FutureCallback<None> callback = new FutureCallback<>();
+    _zkClient.removeNodeUnsafe("/bucket/child-1", callback);
+    callback.get();
+
+    if (!deltaLatch.await(5, TimeUnit.SECONDS))
+    {
+      Assert.fail("didn't get notified for the removed node");
+    }
+    _testData.remove("/bucket/child-1");
+    Assert.assertEquals(_outputData, new HashSet<>(_testData.values()));
+    Assert.assertTrue(deltaOfInitialValue.get());
+    Assert.assertTrue(delta.get().getAdded().isEmpty());
+    Assert.assertEquals(new ArrayList<>(delta.get().getRemoved()), Collections.singletonList(Collections.singleton("1")));
+    _eventBus.unregister(Collections.singleton("bucket"), subscriber);
+    client.shutdown();
+  }
 }
@@ -0,0 +1,162 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data;
+
+import com.linkedin.data.codec.PsonDataCodec;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+/**
+ * Compares {@link DataMap}s backed by a {@link java.util.HashMap} with compact
+ * {@link DataMap}s created by {@link DataMap#newCompactDataMap(int)}.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DataMapBenchmark
+{
+  private static final int RECORD_COUNT = 100;
+
+  @State(Scope.Benchmark)
+  public static class RecordState
+  {
+    @Param({"2", "10", "30"})
+    int _fieldCount;
+
+    String[] _keys;
+    Object[] _values;
+    DataMap _hashDataMap;
+    DataMap _compactDataMap;
+    byte[] _psonBytes;
+    PsonDataCodec _hashCodec;
+    PsonDataCodec _compactCodec;
+
+    @Setup
+    public void setup() throws IOException, CloneNotSupportedException
+    {
+      _keys = new String[_fieldCount];
+      _values = new Object[_fieldCount];
+      for (int i = 0; i < _fieldCount; i++)
+      {
+        _keys[i] = "field" + i;
+        switch (i % 4)
+        {
+          case 0:
+            _values[i] = "value" + i;
+            break;
+          case 1:
+            _values[i] = i;
+            break;
+          case 2:
+            _values[i] = (long) i << 32;
+            break;
+          default:
+            _values[i] = (i & 1) == 0;
+        }
+      }
+      _hashDataMap = new DataMap();
+      _compactDataMap = DataMap.newCompactDataMap(_fieldCount);
+      for (int i = 0; i < _fieldCount; i++)
+      {
+        _hashDataMap.put(_keys[i], _values[i]);
+        _compactDataMap.put(_keys[i], _values[i]);
+      }
+
+      // a collection of records, as found in finder or batch responses
+      DataList records = new DataList();
+      for (int i = 0; i < RECORD_COUNT; i++)
+      {
+        records.add(_hashDataMap.copy());
+      }
+      DataMap response = new DataMap();
+      response.put("elements", records);
+
+      PsonDataCodec.Options options = new PsonDataCodec.Options().setEncodeCollectionCount(true);
+      _psonBytes = new PsonDataCodec().setOptions(options).mapToBytes(response);
+      _hashCodec = new PsonDataCodec().setOptions(options);
+      _compactCodec = new PsonDataCodec().setOptions(new PsonDataCodec.Options().setEncodeCollectionCount(true).setCompactDataMaps(true));
+    }
+  }
+
+  @Benchmark
+  public DataMap measureDecodeHashDataMap(RecordState state) throws IOException
+  {
+    return state._hashCodec.bytesToMap(state._psonBytes);
+  }
+
+  @Benchmark
+  public DataMap measureDecodeCompactDataMap(RecordState state) throws IOException
+  {
+    return state._compactCodec.bytesToMap(state._psonBytes);
+  }
+
+  @Benchmark
+  public void measureGetHashDataMap(RecordState state, Blackhole blackhole)
+  {
+    get(state._hashDataMap, state._keys, blackhole);
+  }
+
+  @Benchmark
+  public void measureGetCompactDataMap(RecordState state, Blackhole blackhole)
+  {
+    get(state._compactDataMap, state._keys, blackhole);
+  }
+
+  @Benchmark
+  public DataMap measurePutHashDataMap(RecordState state)
+  {
+    return put(new DataMap(), state._keys, state._values);
+  }
+
+  @Benchmark
+  public DataMap measurePutCompactDataMap(RecordState state)
+  {
+    return put(DataMap.newCompactDataMap(state._fieldCount), state._keys, state._values);
+  }
+
+  private static void get(DataMap map, String[] keys, Blackhole blackhole)
+  {
+    for (String key : keys)
+    {
+      blackhole.consume(map.get(key));
+    }
+  }
+
+  private static DataMap put(DataMap map, String[] keys, Object[] values)
+  {
+    for (int i = 0; i < keys.length; i++)
+    {
+      map.put(keys[i], values[i]);
+    }
+    return map;
+  }
+}
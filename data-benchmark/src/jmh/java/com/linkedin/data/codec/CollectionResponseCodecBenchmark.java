@@ -0,0 +1,146 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares encoding and decoding a collection response, whose elements repeat the same keys and many of the same
+ * string values, with each codec. {@link BinaryDataCodec} is measured with and without a shared symbol table. The
+ * encoded sizes are printed at setup.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CollectionResponseCodecBenchmark
+{
+  private static final int ELEMENT_COUNT = 100;
+
+  private static final SymbolTable SYMBOL_TABLE = new SymbolTable("benchmark", Arrays.asList(
+      "elements", "paging", "start", "count", "total", "links", "id", "urn", "firstName", "lastName", "headline",
+      "industry", "location", "country", "city", "connections", "premium", "created", "lastModified", "score"));
+
+  @State(Scope.Benchmark)
+  public static class CodecState
+  {
+    @Param({"json", "pson", "bson", "binary", "binarySymbolTable"})
+    String _codecName;
+
+    DataCodec _codec;
+    DataMap _response;
+    byte[] _bytes;
+
+    @Setup
+    public void setup() throws IOException
+    {
+      switch (_codecName)
+      {
+        case "json":
+          _codec = new JacksonDataCodec();
+          break;
+        case "pson":
+          _codec = new PsonDataCodec();
+          break;
+        case "bson":
+          _codec = new BsonDataCodec();
+          break;
+        case "binary":
+          _codec = new BinaryDataCodec();
+          break;
+        case "binarySymbolTable":
+          _codec = new BinaryDataCodec(name -> SYMBOL_TABLE, SYMBOL_TABLE);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown codec " + _codecName);
+      }
+
+      _response = createResponse();
+      _bytes = _codec.mapToBytes(_response);
+      System.out.println(_codecName + " encoded size: " + _bytes.length + " bytes");
+    }
+  }
+
+  @Benchmark
+  public byte[] measureEncoding(CodecState state) throws IOException
+  {
+    return state._codec.mapToBytes(state._response);
+  }
+
+  @Benchmark
+  public DataMap measureDecoding(CodecState state) throws IOException
+  {
+    return state._codec.bytesToMap(state._bytes);
+  }
+
+  private static DataMap createResponse()
+  {
+    String[] industries = { "Computer Software", "Internet", "Financial Services", "Higher Education" };
+    String[] countries = { "us", "ca", "in", "gb" };
+    String[] cities = { "San Francisco", "Toronto", "Bangalore", "London", "New York" };
+
+    DataList elements = new DataList();
+    for (int i = 0; i < ELEMENT_COUNT; i++)
+    {
+      DataMap element = new DataMap();
+      element.put("id", 100000L + i);
+      element.put("urn", "urn:li:member:" + (100000 + i));
+      element.put("firstName", "First" + i);
+      element.put("lastName", "Last" + i);
+      element.put("headline", "Senior Software Engineer working on distributed systems and data infrastructure " + i);
+      element.put("industry", industries[i % industries.length]);
+      DataMap location = new DataMap();
+      location.put("country", countries[i % countries.length]);
+      location.put("city", cities[i % cities.length]);
+      element.put("location", location);
+      element.put("connections", 500 + i);
+      element.put("premium", i % 3 == 0);
+      element.put("created", 1500000000000L + i);
+      element.put("lastModified", 1520000000000L + i);
+      element.put("score", 0.5 * i);
+      elements.add(element);
+    }
+
+    DataMap paging = new DataMap();
+    paging.put("start", 0);
+    paging.put("count", ELEMENT_COUNT);
+    paging.put("total", 1000);
+    paging.put("links", new DataList());
+
+    DataMap response = new DataMap();
+    response.put("elements", elements);
+    response.put("paging", paging);
+    return response;
+  }
+}
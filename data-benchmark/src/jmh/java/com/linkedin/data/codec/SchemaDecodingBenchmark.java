@@ -0,0 +1,155 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.schema.ArrayDataSchema;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.template.DataTemplateUtil;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares decoding a JSON collection of records with {@link JacksonDataCodec} and with
+ * {@link JacksonSchemaDataDecoder}. Both measurements include reading every field of
+ * every record at its schema type, as record template accessors do.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SchemaDecodingBenchmark
+{
+  private static final int RECORD_COUNT = 100;
+
+  private static final RecordDataSchema SCHEMA = (RecordDataSchema) DataTemplateUtil.parseSchema(
+      "{ \"type\" : \"record\", \"name\" : \"Greeting\", \"fields\" : [ " +
+      "{ \"name\" : \"id\", \"type\" : \"long\" }, " +
+      "{ \"name\" : \"message\", \"type\" : \"string\" }, " +
+      "{ \"name\" : \"score\", \"type\" : \"double\" }, " +
+      "{ \"name\" : \"ratio\", \"type\" : \"float\" }, " +
+      "{ \"name\" : \"created\", \"type\" : \"long\" }, " +
+      "{ \"name\" : \"tags\", \"type\" : { \"type\" : \"array\", \"items\" : \"string\" } }, " +
+      "{ \"name\" : \"counts\", \"type\" : { \"type\" : \"map\", \"values\" : \"long\" } } " +
+      "] }");
+
+  @State(Scope.Benchmark)
+  public static class DecodingState
+  {
+    @Param({"0", "4"})
+    int _unknownFieldCount;
+
+    byte[] _jsonBytes;
+    JacksonDataCodec _codec;
+    JacksonSchemaDataDecoder _decoder;
+    SchemaDecodingPlan _plan;
+    SchemaDecodingPlan _skippingPlan;
+
+    @Setup
+    public void setup() throws IOException
+    {
+      DataList records = new DataList();
+      for (int i = 0; i < RECORD_COUNT; i++)
+      {
+        DataMap record = new DataMap();
+        record.put("id", i);
+        record.put("message", "message" + i);
+        record.put("score", i * 3);
+        record.put("ratio", 0.5 * i);
+        record.put("created", 1500000000000L + i);
+        DataList tags = new DataList();
+        tags.add("a");
+        tags.add("b");
+        record.put("tags", tags);
+        DataMap counts = new DataMap();
+        counts.put("x", i);
+        counts.put("y", 2 * i);
+        record.put("counts", counts);
+        for (int j = 0; j < _unknownFieldCount; j++)
+        {
+          record.put("unknown" + j, "value" + j);
+        }
+        records.add(record);
+      }
+      DataMap response = new DataMap();
+      response.put("elements", records);
+
+      _codec = new JacksonDataCodec();
+      _jsonBytes = _codec.mapToBytes(response);
+      _decoder = new JacksonSchemaDataDecoder();
+      _plan = SchemaDecodingPlan.forEnvelope(
+          Collections.<String, DataSchema>singletonMap("elements", new ArrayDataSchema(SCHEMA)), false);
+      _skippingPlan = SchemaDecodingPlan.forEnvelope(
+          Collections.<String, DataSchema>singletonMap("elements", new ArrayDataSchema(SCHEMA)), true);
+    }
+  }
+
+  @Benchmark
+  public long measureGenericDecoding(DecodingState state) throws IOException
+  {
+    return readAll(state._codec.bytesToMap(state._jsonBytes));
+  }
+
+  @Benchmark
+  public long measureSchemaAwareDecoding(DecodingState state) throws IOException
+  {
+    return readAll(state._decoder.bytesToMap(state._jsonBytes, state._plan));
+  }
+
+  @Benchmark
+  public long measureSchemaAwareDecodingSkippingUnknownFields(DecodingState state) throws IOException
+  {
+    return readAll(state._decoder.bytesToMap(state._jsonBytes, state._skippingPlan));
+  }
+
+  private static long readAll(DataMap response)
+  {
+    long sum = 0;
+    for (Object element : response.getDataList("elements"))
+    {
+      DataMap record = (DataMap) element;
+      // coerce like the template accessors do, see DataTemplateUtil#coerceOutput
+      sum += DataTemplateUtil.coerceOutput(record.get("id"), Long.class);
+      sum += DataTemplateUtil.coerceOutput(record.get("created"), Long.class);
+      sum += DataTemplateUtil.coerceOutput(record.get("score"), Double.class).longValue();
+      sum += DataTemplateUtil.coerceOutput(record.get("ratio"), Float.class).longValue();
+      sum += record.getString("message").length();
+      sum += record.getDataList("tags").size();
+      for (Object count : record.getDataMap("counts").values())
+      {
+        sum += DataTemplateUtil.coerceOutput(count, Long.class);
+      }
+    }
+    return sum;
+  }
+}
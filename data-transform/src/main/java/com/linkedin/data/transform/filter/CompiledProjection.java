@@ -0,0 +1,436 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.transform.filter;
+
+
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.collections.CheckedUtil;
+import com.linkedin.data.schema.PathSpec;
+import com.linkedin.data.transform.Escaper;
+import com.linkedin.data.transform.ProjectionUtil;
+import com.linkedin.data.transform.filter.request.MaskTree;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * A projection mask compiled into an immutable tree, which copies the selected parts of a data object
+ * in a single pass. The result is the same as the one of {@link CopyFilter}, but the mask is analyzed
+ * once, at compile time, instead of on every data object it is applied to: field names are unescaped,
+ * array ranges are resolved and no per-node instructions are created while projecting.
+ *
+ * Only positive masks are compiled: masks which select fields with 1, select nested fields, select
+ * array elements with <code>$start</code> and <code>$count</code>, or project all array elements or
+ * map values with a complex <code>$*</code> that is not combined with explicit fields. Any other mask,
+ * for instance one with negative or composed wildcard masks, is applied with {@link CopyFilter}.
+ *
+ * Besides projecting data, a compiled projection answers whether a field is selected at all, which
+ * lets resources skip computing fields the client did not ask for, and whether a data object would
+ * be kept whole, which lets callers skip copying it.
+ *
+ * The mask passed to {@link #compile(DataMap)} must not be modified after compilation.
+ */
+public final class CompiledProjection
+{
+  private final DataMap _mask;
+  private final Node _root;
+
+  private CompiledProjection(DataMap mask, Node root)
+  {
+    _mask = mask;
+    _root = root;
+  }
+
+  /**
+   * Compiles the given projection mask.
+   *
+   * @param mask projection mask, as in {@link com.linkedin.data.transform.filter.request.MaskTree#getDataMap()}
+   * @return the compiled projection, which falls back to {@link CopyFilter} if the mask can not be compiled
+   */
+  public static CompiledProjection compile(DataMap mask)
+  {
+    return new CompiledProjection(mask, compileNode(mask));
+  }
+
+  /**
+   * @return true if the mask was compiled, false if projections are done with {@link CopyFilter}.
+   */
+  public boolean isCompiled()
+  {
+    return _root != null;
+  }
+
+  /**
+   * @return the projection mask this projection was compiled from.
+   */
+  public DataMap getMask()
+  {
+    return _mask;
+  }
+
+  /**
+   * Projects the given data object. The data object is not modified, the returned object shares
+   * the values which are selected as a whole with it.
+   *
+   * @param data {@link DataMap} or {@link DataList} to project
+   * @return the projected data, same as <code>new CopyFilter().filter(data, mask)</code>
+   * @throws RuntimeException if the data does not match the mask
+   */
+  public Object project(Object data)
+  {
+    if (_root == null)
+    {
+      return new CopyFilter().filter(data, _mask);
+    }
+    return project(data, _root);
+  }
+
+  /**
+   * Tells whether projecting the given data object would keep all of it, in which case the data
+   * object itself can stand for the projection result. This is the case when the mask selects every
+   * field present in the data, for instance a mask listing all fields of the data's schema.
+   *
+   * @param data {@link DataMap} or {@link DataList} to test
+   * @return true if the projection of the data would be equal to the data, false if it would not or
+   *         if the mask was not compiled
+   */
+  public boolean keepsAll(Object data)
+  {
+    return _root != null && keepsAll(data, _root);
+  }
+
+  /**
+   * Tells whether the field represented by the given {@link PathSpec} survives this projection,
+   * with the same semantics as {@link ProjectionUtil#isPathPresent(MaskTree, PathSpec)}.
+   *
+   * @param path PathSpec to test
+   * @return true if the path is present in the projection
+   */
+  public boolean isPathPresent(PathSpec path)
+  {
+    if (_root == null)
+    {
+      return ProjectionUtil.isPathPresent(new MaskTree(_mask), path);
+    }
+
+    Node node = _root;
+    for (String component : path.getPathComponents())
+    {
+      if (node == Node.ALL)
+      {
+        return true;
+      }
+      node = node._wildcard != null ? node._wildcard : node._fields.get(component);
+      if (node == null)
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Object project(Object data, Node node)
+  {
+    if (data == null)
+    {
+      throw error("Either data or operation is null");
+    }
+    if (data.getClass() == DataList.class)
+    {
+      return projectDataList((DataList) data, node);
+    }
+    else if (data.getClass() == DataMap.class)
+    {
+      return projectDataMap((DataMap) data, node);
+    }
+    throw error("Data type in instruction must be DataMap or DataList, but is: %1$s", data.getClass().getName());
+  }
+
+  private static DataMap projectDataMap(DataMap data, Node node)
+  {
+    if (node._wildcard != null)
+    {
+      final DataMap result = new DataMap((int) (data.size() / 0.75f) + 1);
+      for (Map.Entry<String, Object> entry : data.entrySet())
+      {
+        final Object value = entry.getValue();
+        CheckedUtil.putWithoutChecking(result,
+                                       entry.getKey(),
+                                       value instanceof DataComplex ? project(value, node._wildcard) : value);
+      }
+      return result;
+    }
+
+    final Map<String, Node> fields = node._fields;
+    final DataMap result = new DataMap((int) (Math.min(fields.size(), data.size()) / 0.75f) + 1);
+    // walk whichever of the data and the mask has fewer fields
+    if (data.size() < fields.size())
+    {
+      for (Map.Entry<String, Object> entry : data.entrySet())
+      {
+        final Node child = fields.get(entry.getKey());
+        if (child != null)
+        {
+          putProjected(result, entry.getKey(), entry.getValue(), child);
+        }
+      }
+    }
+    else
+    {
+      for (Map.Entry<String, Node> field : fields.entrySet())
+      {
+        final Object value = data.get(field.getKey());
+        if (value != null)
+        {
+          putProjected(result, field.getKey(), value, field.getValue());
+        }
+      }
+    }
+    return result;
+  }
+
+  private static void putProjected(DataMap result, String name, Object value, Node node)
+  {
+    if (node == Node.ALL)
+    {
+      CheckedUtil.putWithoutChecking(result, name, value);
+    }
+    else if (value instanceof DataComplex)
+    {
+      CheckedUtil.putWithoutChecking(result, name, project(value, node));
+    }
+    else
+    {
+      throw error("data is of primitive value: %1$s, but filter: %2$s is complex", value, node._mask);
+    }
+  }
+
+  private static DataList projectDataList(DataList data, Node node)
+  {
+    final Node wildcard = node._wildcard;
+    if (wildcard != null)
+    {
+      for (int i = 0; i < data.size(); ++i)
+      {
+        final Object element = data.get(i);
+        if (!(element instanceof DataComplex))
+        {
+          throw error("complex filter defined for array element, which is not an object nor an array, " +
+                          "but it is of type: %1$s, with value: %2$s",
+                      element.getClass().getName(),
+                      element);
+        }
+      }
+    }
+
+    final int start = node._start;
+    if (start >= data.size() || node._count <= 0)
+    {
+      return EMPTY_DATALIST;
+    }
+
+    final int count = Math.min(node._count, data.size() - start);
+    final DataList result = new DataList(count);
+    for (int i = start; i < start + count; ++i)
+    {
+      final Object element = data.get(i);
+      CheckedUtil.addWithoutChecking(result, wildcard == null ? element : project(element, wildcard));
+    }
+    return result;
+  }
+
+  private static boolean keepsAll(Object data, Node node)
+  {
+    if (node == Node.ALL)
+    {
+      return true;
+    }
+
+    if (data.getClass() == DataMap.class)
+    {
+      for (Map.Entry<String, Object> entry : ((DataMap) data).entrySet())
+      {
+        final Node child = node._wildcard != null ? node._wildcard : node._fields.get(entry.getKey());
+        if (child == null)
+        {
+          return false;
+        }
+        final Object value = entry.getValue();
+        if (value instanceof DataComplex)
+        {
+          if (!keepsAll(value, child))
+          {
+            return false;
+          }
+        }
+        else if (child != Node.ALL && node._wildcard == null)
+        {
+          // a complex mask on a primitive value fails the projection
+          return false;
+        }
+      }
+      return true;
+    }
+    else if (data.getClass() == DataList.class)
+    {
+      final DataList list = (DataList) data;
+      if (list.isEmpty())
+      {
+        return true;
+      }
+      if (node._start != 0 || node._count < list.size())
+      {
+        return false;
+      }
+      if (node._wildcard != null)
+      {
+        for (Object element : list)
+        {
+          if (!(element instanceof DataComplex) || !keepsAll(element, node._wildcard))
+          {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  private static RuntimeException error(String format, Object... args)
+  {
+    return new RuntimeException(String.format(format, args));
+  }
+
+  /**
+   * Compiles a mask node, or returns null if the node is not a positive mask, in which case
+   * {@link AbstractFilter} semantics can not be reproduced without interpreting the mask.
+   */
+  private static Node compileNode(DataMap mask)
+  {
+    if (mask.isEmpty())
+    {
+      return null;
+    }
+
+    final Map<String, Node> fields = new HashMap<String, Node>((int) (mask.size() / 0.75f) + 1);
+    Node wildcard = null;
+    int start = 0;
+    int count = Integer.MAX_VALUE;
+
+    for (Map.Entry<String, Object> entry : mask.entrySet())
+    {
+      final String key = entry.getKey();
+      final Object value = entry.getValue();
+
+      if (key.equals(FilterConstants.START) || key.equals(FilterConstants.COUNT))
+      {
+        if (value.getClass() != Integer.class || (Integer) value < 0)
+        {
+          return null;
+        }
+        if (key.equals(FilterConstants.START))
+        {
+          start = (Integer) value;
+        }
+        else
+        {
+          count = (Integer) value;
+        }
+      }
+      else if (key.equals(FilterConstants.WILDCARD))
+      {
+        if (value.getClass() != DataMap.class)
+        {
+          return null;
+        }
+        wildcard = compileNode((DataMap) value);
+        if (wildcard == null)
+        {
+          return null;
+        }
+      }
+      else
+      {
+        final String name = Escaper.unescape(key);
+        if (!Escaper.escape(name).equals(key))
+        {
+          // not a properly escaped field name
+          return null;
+        }
+
+        if (value.getClass() == Integer.class && value.equals(FilterConstants.POSITIVE))
+        {
+          fields.put(name, Node.ALL);
+        }
+        else if (value.getClass() == DataMap.class)
+        {
+          final Node child = compileNode((DataMap) value);
+          if (child == null)
+          {
+            return null;
+          }
+          fields.put(name, child);
+        }
+        else
+        {
+          return null;
+        }
+      }
+    }
+
+    if (wildcard != null && !fields.isEmpty())
+    {
+      // explicit fields are composed with the wildcard mask
+      return null;
+    }
+
+    return new Node(mask, fields, wildcard, start, count);
+  }
+
+  private static final class Node
+  {
+    // selects a value as a whole, like a mask of 1
+    private static final Node ALL = new Node(null, Collections.<String, Node>emptyMap(), null, 0, Integer.MAX_VALUE);
+
+    private final DataMap _mask;
+    // unescaped field names
+    private final Map<String, Node> _fields;
+    private final Node _wildcard;
+    private final int _start;
+    private final int _count;
+
+    private Node(DataMap mask, Map<String, Node> fields, Node wildcard, int start, int count)
+    {
+      _mask = mask;
+      _fields = fields;
+      _wildcard = wildcard;
+      _start = start;
+      _count = count;
+    }
+  }
+
+  private static final DataList EMPTY_DATALIST = new DataList();
+  static
+  {
+    EMPTY_DATALIST.makeReadOnly();
+  }
+}
@@ -0,0 +1,229 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.transform.filter;
+
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.schema.PathSpec;
+import com.linkedin.data.transform.DataProcessingException;
+import com.linkedin.data.transform.ProjectionUtil;
+import com.linkedin.data.transform.filter.request.MaskTree;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+import static com.linkedin.data.TestUtil.dataMapFromString;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+
+/**
+ * Runs the filter test cases through {@link CompiledProjection}, whether the masks compile or not,
+ * checks which masks are compiled and compares path presence with {@link ProjectionUtil}.
+ */
+public class TestCompiledProjection extends TestFilterOnData
+{
+  private static final String DATA =
+      "{'a': 1, 'b': {'c': 'x', 'd': [{'e': 1, 'f': 2}, {'e': 3}], 'g': {'h': {'i': 1}, 'j': 2}}, '$k': [1, 2, 3, 4]}";
+
+  @Override
+  protected void genericFilterTest(DataMap data, DataMap filter, DataMap expected, String description) throws DataProcessingException
+  {
+    final String dataBefore = data.toString();
+    final Object projected = CompiledProjection.compile(filter).project(data);
+    assertEquals(projected, expected, "The following test failed: \n" + description  +
+        "\nData: " + dataBefore + "\nFilter: " + filter +
+        "\nExpected: " + expected + "\nActual result: " + projected);
+    assertEquals(data.toString(), dataBefore, "The projected data was modified");
+  }
+
+  @DataProvider
+  public Object[][] compiledMasks()
+  {
+    return new Object[][] {
+        { "{'a': 1}" },
+        { "{'a': 1, 'b': 1, 'missing': 1}" },
+        { "{'b': {'c': 1, 'g': {'h': 1}}}" },
+        { "{'b': {'d': {'$*': {'e': 1}}}}" },
+        { "{'b': {'d': {'$*': {'f': 1}, '$start': 1}}}" },
+        { "{'b': {'d': {'$start': 1, '$count': 5}}}" },
+        { "{'b': {'d': {'$count': 0}}}" },
+        { "{'b': {'d': {'$start': 10}}}" },
+        { "{'b': {'d': {'e': 1}}}" },
+        { "{'b': {'g': {'$*': {'i': 1}}}}" },
+        { "{'b': {'$start': 0}}" },
+        { "{'$$k': {'$start': 1, '$count': 2}}" },
+        { "{'$*': {'d': 1}}" },
+    };
+  }
+
+  @Test(dataProvider = "compiledMasks")
+  public void testCompiledMask(String mask) throws IOException
+  {
+    final DataMap maskMap = dataMapFromString(mask.replace('\'', '"'));
+    final CompiledProjection projection = CompiledProjection.compile(maskMap);
+    assertTrue(projection.isCompiled(), mask);
+    assertProjectsLikeCopyFilter(projection);
+  }
+
+  @DataProvider
+  public Object[][] interpretedMasks()
+  {
+    return new Object[][] {
+        { "{}" },
+        { "{'a': 0}" },
+        { "{'b': {'c': 0}}" },
+        { "{'b': {}}" },
+        { "{'$*': 1}" },
+        { "{'$*': 0, 'a': 1}" },
+        { "{'$*': {'c': 1}, 'a': 1}" },
+        { "{'b': {'d': {'$start': -1}}}" },
+        { "{'b': {'d': {'$count': 'x'}}}" },
+        { "{'$k': 1}" },
+        { "{'a': 2}" },
+    };
+  }
+
+  @Test(dataProvider = "interpretedMasks")
+  public void testInterpretedMask(String mask) throws IOException
+  {
+    final DataMap maskMap = dataMapFromString(mask.replace('\'', '"'));
+    final CompiledProjection projection = CompiledProjection.compile(maskMap);
+    assertFalse(projection.isCompiled(), mask);
+    assertProjectsLikeCopyFilter(projection);
+  }
+
+  @Test
+  public void testComplexMaskOnPrimitive() throws IOException
+  {
+    final DataMap data = dataMapFromString(DATA.replace('\'', '"'));
+    final CompiledProjection projection = CompiledProjection.compile(dataMapFromString("{\"a\": {\"b\": 1}}"));
+    assertTrue(projection.isCompiled());
+    try
+    {
+      projection.project(data);
+      fail("Projecting a primitive with a complex mask should fail");
+    }
+    catch (RuntimeException e)
+    {
+      assertTrue(e.getMessage().startsWith("data is of primitive value"), e.getMessage());
+    }
+  }
+
+  @DataProvider
+  public Object[][] pathMasks()
+  {
+    return new Object[][] {
+        { "{'a': 1}" },
+        { "{'b': {'c': 1, 'g': {'h': 1}}}" },
+        { "{'b': {'d': {'$*': {'e': 1}}}}" },
+        { "{'b': {'d': {'$start': 1}}}" },
+        { "{'$*': {'d': 1}}" },
+        { "{'$$k': 1, 'b': {'$$*': 1}}" },
+        { "{'a': 0}" },
+        { "{'$*': 0, 'b': 1}" },
+        { "{}" },
+    };
+  }
+
+  @Test(dataProvider = "pathMasks")
+  public void testIsPathPresent(String mask) throws IOException
+  {
+    final DataMap maskMap = dataMapFromString(mask.replace('\'', '"'));
+    final CompiledProjection projection = CompiledProjection.compile(maskMap);
+    final PathSpec[] paths = {
+        new PathSpec(),
+        new PathSpec("a"),
+        new PathSpec("a", "x"),
+        new PathSpec("b"),
+        new PathSpec("b", "c"),
+        new PathSpec("b", "d"),
+        new PathSpec("b", "d", PathSpec.WILDCARD, "e"),
+        new PathSpec("b", "d", PathSpec.WILDCARD, "f"),
+        new PathSpec("b", "g", "h", "i"),
+        new PathSpec("b", "g", "j"),
+        new PathSpec("b", PathSpec.WILDCARD),
+        new PathSpec("$k"),
+        new PathSpec("x", "d"),
+    };
+    for (PathSpec path : paths)
+    {
+      assertEquals(projection.isPathPresent(path),
+                   ProjectionUtil.isPathPresent(new MaskTree(maskMap), path),
+                   "Mask: " + mask + ", path: " + path);
+    }
+  }
+
+  @Test
+  public void testKeepsAll() throws IOException
+  {
+    final DataMap data = dataMapFromString(DATA.replace('\'', '"'));
+    final String[] keepingMasks = {
+        "{'a': 1, 'b': 1, '$$k': 1}",
+        "{'a': 1, 'b': {'c': 1, 'd': 1, 'g': 1}, '$$k': {'$start': 0}, 'missing': 1}",
+        "{'a': 1, 'b': {'c': 1, 'd': {'$*': {'e': 1, 'f': 1}}, 'g': {'$*': {'i': 1}}}, '$$k': 1}",
+    };
+    for (String mask : keepingMasks)
+    {
+      final CompiledProjection projection = CompiledProjection.compile(dataMapFromString(mask.replace('\'', '"')));
+      assertTrue(projection.keepsAll(data), mask);
+      assertEquals(projection.project(data), data, mask);
+    }
+
+    final String[] droppingMasks = {
+        "{'a': 1, 'b': 1}",
+        "{'a': 1, 'b': {'c': 1, 'd': {'$*': {'e': 1}}, 'g': 1}, '$$k': 1}",
+        "{'a': 1, 'b': 1, '$$k': {'$start': 1}}",
+        "{'a': 1, 'b': 1, '$$k': {'$count': 3}}",
+        "{'a': {'x': 1}, 'b': 1, '$$k': 1}",
+        "{'a': 1, 'b': 1, '$$k': 1, '$*': 0}",
+    };
+    for (String mask : droppingMasks)
+    {
+      final CompiledProjection projection = CompiledProjection.compile(dataMapFromString(mask.replace('\'', '"')));
+      assertFalse(projection.keepsAll(data), mask);
+    }
+  }
+
+  private static void assertProjectsLikeCopyFilter(CompiledProjection projection) throws IOException
+  {
+    final DataMap data = dataMapFromString(DATA.replace('\'', '"'));
+    Object expected;
+    try
+    {
+      expected = new CopyFilter().filter(data, projection.getMask());
+    }
+    catch (RuntimeException e)
+    {
+      expected = e.getMessage();
+    }
+
+    Object actual;
+    try
+    {
+      actual = projection.project(data);
+    }
+    catch (RuntimeException e)
+    {
+      actual = e.getMessage();
+    }
+    assertEquals(actual, expected, "Mask: " + projection.getMask());
+  }
+}
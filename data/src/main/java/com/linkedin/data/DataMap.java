@@ -111,6 +111,29 @@ public final class DataMap extends CheckedMap<String,Object> implements DataComp
     super(initialCapacity, loadFactor, _checker);
   }
 
+  private DataMap(int expectedSize, boolean compact)
+  {
+    super(expectedSize, _checker, compact);
+  }
+
+  /**
+   * Constructs an empty {@link DataMap} backed by a compact open-addressing table
+   * instead of a {@link HashMap}.
+   * <p>
+   *
+   * The compact table does not allocate a node per entry, which reduces the memory
+   * footprint and allocation rate of small records such as those produced by decoding.
+   * It otherwise behaves like any other {@link DataMap}; clones and copies of the
+   * returned map are also compact.
+   *
+   * @param expectedSize provides the number of entries the {@link DataMap} should hold without resizing.
+   * @return a new, empty and compact {@link DataMap}.
+   */
+  public static DataMap newCompactDataMap(int expectedSize)
+  {
+    return new DataMap(expectedSize, true);
+  }
+
   @Override
   public DataMap clone() throws CloneNotSupportedException
   {
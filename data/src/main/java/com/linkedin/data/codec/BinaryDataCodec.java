@@ -0,0 +1,628 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.collections.CheckedUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A compact binary schema-less codec that encodes each distinct string once per message.
+ *
+ * <p>
+ * The message starts with a header, followed by the name of the shared {@link SymbolTable} used by the message,
+ * if any, and the value. Lengths, counts and integers are variable length encoded. Map keys, and string values of
+ * at most {@link #MAX_SYMBOL_LENGTH} characters, are symbols: the first occurrence of a symbol in the message
+ * encodes its value and assigns it the next id, after the ids of the shared symbol table, and the next occurrences
+ * only encode its id. A symbol is encoded as a variable length integer which is either {@code length << 1 | 1}
+ * followed by the UTF-8 bytes of a new symbol, or {@code id << 1}.
+ *
+ * <p>
+ * Maps and lists are encoded with their count, so the decoder can size them.
+ */
+public class BinaryDataCodec implements DataCodec
+{
+  private static final byte[] HEADER = { 0x23, 0x21, 0x52, 0x4c, 0x42, 0x31, 0x0a };  // #!RLB1\n
+
+  /**
+   * String values longer than this are encoded as literals rather than added to the symbols of the message.
+   */
+  public static final int MAX_SYMBOL_LENGTH = 64;
+
+  public static final byte BINARY_NULL = 0;
+  public static final byte BINARY_TRUE = 1;
+  public static final byte BINARY_FALSE = 2;
+  public static final byte BINARY_INT = 3;
+  public static final byte BINARY_LONG = 4;
+  public static final byte BINARY_FLOAT = 5;
+  public static final byte BINARY_DOUBLE = 6;
+  public static final byte BINARY_STRING = 7;
+  public static final byte BINARY_SYMBOL = 8;
+  public static final byte BINARY_BYTES = 9;
+  public static final byte BINARY_MAP = 10;
+  public static final byte BINARY_LIST = 11;
+
+  private static final SymbolTableProvider NO_SYMBOL_TABLES = name -> null;
+
+  private final SymbolTableProvider _symbolTableProvider;
+  private final SymbolTable _symbolTable;
+
+  /**
+   * Construct a codec that does not use shared symbol tables.
+   */
+  public BinaryDataCodec()
+  {
+    this(NO_SYMBOL_TABLES, null);
+  }
+
+  /**
+   * Construct a codec that encodes without shared symbol table and decodes messages using the shared symbol
+   * tables of the specified provider.
+   */
+  public BinaryDataCodec(SymbolTableProvider symbolTableProvider)
+  {
+    this(symbolTableProvider, null);
+  }
+
+  /**
+   * Construct a codec that encodes using the specified shared symbol table and decodes messages using the shared
+   * symbol tables of the specified provider.
+   *
+   * @param symbolTableProvider provides the shared symbol tables named by the decoded messages.
+   * @param symbolTable provides the shared symbol table used to encode, may be null.
+   */
+  public BinaryDataCodec(SymbolTableProvider symbolTableProvider, SymbolTable symbolTable)
+  {
+    _symbolTableProvider = symbolTableProvider;
+    _symbolTable = symbolTable;
+  }
+
+  /**
+   * @return a copy of the header that starts every message.
+   */
+  public static byte[] getHeader()
+  {
+    return HEADER.clone();
+  }
+
+  public SymbolTableProvider getSymbolTableProvider()
+  {
+    return _symbolTableProvider;
+  }
+
+  /**
+   * @return the shared symbol table used to encode, or null if none.
+   */
+  public SymbolTable getSymbolTable()
+  {
+    return _symbolTable;
+  }
+
+  @Override
+  public byte[] mapToBytes(DataMap map) throws IOException
+  {
+    return complexToBytes(map);
+  }
+
+  @Override
+  public byte[] listToBytes(DataList list) throws IOException
+  {
+    return complexToBytes(list);
+  }
+
+  @Override
+  public DataMap bytesToMap(byte[] input) throws IOException
+  {
+    return new BinaryParser(input, input.length).parse(DataMap.class);
+  }
+
+  @Override
+  public DataList bytesToList(byte[] input) throws IOException
+  {
+    return new BinaryParser(input, input.length).parse(DataList.class);
+  }
+
+  @Override
+  public void writeMap(DataMap map, OutputStream out) throws IOException
+  {
+    serialize(map).writeTo(out);
+  }
+
+  @Override
+  public void writeList(DataList list, OutputStream out) throws IOException
+  {
+    serialize(list).writeTo(out);
+  }
+
+  @Override
+  public DataMap readMap(InputStream in) throws IOException
+  {
+    return readComplex(in, DataMap.class);
+  }
+
+  @Override
+  public DataList readList(InputStream in) throws IOException
+  {
+    return readComplex(in, DataList.class);
+  }
+
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + "(" + _symbolTable + ")";
+  }
+
+  private byte[] complexToBytes(DataComplex complex) throws IOException
+  {
+    BinarySerializer serializer = serialize(complex);
+    return Arrays.copyOf(serializer._bytes, serializer._length);
+  }
+
+  private BinarySerializer serialize(DataComplex complex) throws IOException
+  {
+    BinarySerializer serializer = new BinarySerializer(_symbolTable);
+    Data.traverse(complex, serializer);
+    return serializer;
+  }
+
+  private <T extends DataComplex> T readComplex(InputStream in, Class<T> clazz) throws IOException
+  {
+    ByteString bytes = ByteString.read(in);
+    return new BinaryParser(bytes.copyBytes(), bytes.length()).parse(clazz);
+  }
+
+  private static class BinarySerializer implements Data.TraverseCallback
+  {
+    private final SymbolTable _symbolTable;
+    private final Map<String, Integer> _symbols = new HashMap<>();
+    private int _nextSymbolId;
+    private byte[] _bytes = new byte[256];
+    private int _length;
+
+    private BinarySerializer(SymbolTable symbolTable)
+    {
+      _symbolTable = symbolTable;
+      _nextSymbolId = (symbolTable == null) ? 0 : symbolTable.size();
+
+      write(HEADER, 0, HEADER.length);
+      if (symbolTable == null)
+      {
+        writeVarInt(0);
+      }
+      else
+      {
+        byte[] name = symbolTable.getName().getBytes(StandardCharsets.UTF_8);
+        writeVarInt(name.length);
+        write(name, 0, name.length);
+      }
+    }
+
+    @Override
+    public Iterable<Map.Entry<String, Object>> orderMap(DataMap map)
+    {
+      return map.entrySet();
+    }
+
+    @Override
+    public void nullValue()
+    {
+      write(BINARY_NULL);
+    }
+
+    @Override
+    public void booleanValue(boolean value)
+    {
+      write(value ? BINARY_TRUE : BINARY_FALSE);
+    }
+
+    @Override
+    public void integerValue(int value)
+    {
+      write(BINARY_INT);
+      writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    @Override
+    public void longValue(long value)
+    {
+      write(BINARY_LONG);
+      writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    @Override
+    public void floatValue(float value)
+    {
+      write(BINARY_FLOAT);
+      writeFixed(Float.floatToRawIntBits(value), 4);
+    }
+
+    @Override
+    public void doubleValue(double value)
+    {
+      write(BINARY_DOUBLE);
+      writeFixed(Double.doubleToRawLongBits(value), 8);
+    }
+
+    @Override
+    public void stringValue(String value)
+    {
+      if (value.length() <= MAX_SYMBOL_LENGTH)
+      {
+        write(BINARY_SYMBOL);
+        writeSymbol(value);
+      }
+      else
+      {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        write(BINARY_STRING);
+        writeVarInt(bytes.length);
+        write(bytes, 0, bytes.length);
+      }
+    }
+
+    @Override
+    public void byteStringValue(ByteString value)
+    {
+      write(BINARY_BYTES);
+      writeVarInt(value.length());
+      ensureCapacity(value.length());
+      value.copyBytes(_bytes, _length);
+      _length += value.length();
+    }
+
+    @Override
+    public void illegalValue(Object value) throws IOException
+    {
+      throw new DataEncodingException("Illegal type encountered: " + value.getClass());
+    }
+
+    @Override
+    public void emptyMap()
+    {
+      write(BINARY_MAP);
+      writeVarInt(0);
+    }
+
+    @Override
+    public void startMap(DataMap map)
+    {
+      write(BINARY_MAP);
+      writeVarInt(map.size());
+    }
+
+    @Override
+    public void key(String key)
+    {
+      writeSymbol(key);
+    }
+
+    @Override
+    public void endMap()
+    {
+    }
+
+    @Override
+    public void emptyList()
+    {
+      write(BINARY_LIST);
+      writeVarInt(0);
+    }
+
+    @Override
+    public void startList(DataList list)
+    {
+      write(BINARY_LIST);
+      writeVarInt(list.size());
+    }
+
+    @Override
+    public void index(int index)
+    {
+    }
+
+    @Override
+    public void endList()
+    {
+    }
+
+    private void writeSymbol(String symbol)
+    {
+      int id = (_symbolTable == null) ? -1 : _symbolTable.getSymbolId(symbol);
+      if (id < 0)
+      {
+        Integer found = _symbols.get(symbol);
+        if (found == null)
+        {
+          _symbols.put(symbol, _nextSymbolId++);
+          byte[] bytes = symbol.getBytes(StandardCharsets.UTF_8);
+          writeVarLong(((long) bytes.length << 1) | 1);
+          write(bytes, 0, bytes.length);
+          return;
+        }
+        id = found;
+      }
+      writeVarLong((long) id << 1);
+    }
+
+    private void writeVarInt(int value)
+    {
+      writeVarLong(value & 0xffffffffL);
+    }
+
+    /**
+     * Write an unsigned variable length integer, 7 bits per byte, the high bit is set on all bytes but the last.
+     */
+    private void writeVarLong(long value)
+    {
+      ensureCapacity(10);
+      while ((value & ~0x7fL) != 0)
+      {
+        _bytes[_length++] = (byte) ((value & 0x7f) | 0x80);
+        value >>>= 7;
+      }
+      _bytes[_length++] = (byte) value;
+    }
+
+    /**
+     * Write the specified number of low order bytes of the value in little endian order.
+     */
+    private void writeFixed(long value, int size)
+    {
+      ensureCapacity(size);
+      for (int i = 0; i < size; i++)
+      {
+        _bytes[_length++] = (byte) (value >>> (8 * i));
+      }
+    }
+
+    private void write(byte b)
+    {
+      ensureCapacity(1);
+      _bytes[_length++] = b;
+    }
+
+    private void write(byte[] bytes, int offset, int length)
+    {
+      ensureCapacity(length);
+      System.arraycopy(bytes, offset, _bytes, _length, length);
+      _length += length;
+    }
+
+    private void ensureCapacity(int size)
+    {
+      if (_length + size > _bytes.length)
+      {
+        _bytes = Arrays.copyOf(_bytes, Math.max(_bytes.length * 2, _length + size));
+      }
+    }
+
+    private void writeTo(OutputStream out) throws IOException
+    {
+      out.write(_bytes, 0, _length);
+    }
+  }
+
+  private class BinaryParser
+  {
+    private final byte[] _bytes;
+    private final int _limit;
+    private int _position;
+    private SymbolTable _sharedSymbolTable;
+    private int _sharedSymbolCount;
+    private final List<String> _symbols = new ArrayList<>();
+
+    private BinaryParser(byte[] bytes, int limit)
+    {
+      _bytes = bytes;
+      _limit = limit;
+    }
+
+    private <T extends DataComplex> T parse(Class<T> clazz) throws IOException
+    {
+      require(HEADER.length);
+      for (int i = 0; i < HEADER.length; i++)
+      {
+        if (_bytes[_position++] != HEADER[i])
+        {
+          throw new DataDecodingException("Expecting header " + Arrays.toString(HEADER));
+        }
+      }
+
+      int nameLength = readVarInt();
+      if (nameLength > 0)
+      {
+        require(nameLength);
+        String name = new String(_bytes, _position, nameLength, StandardCharsets.UTF_8);
+        _position += nameLength;
+        _sharedSymbolTable = _symbolTableProvider.getSymbolTable(name);
+        if (_sharedSymbolTable == null)
+        {
+          throw new DataDecodingException("Unknown symbol table " + name);
+        }
+        _sharedSymbolCount = _sharedSymbolTable.size();
+      }
+
+      Object value = parseValue();
+      if (!clazz.isInstance(value))
+      {
+        throw new DataDecodingException("Expecting " + clazz.getSimpleName() + " but got " + value.getClass().getSimpleName());
+      }
+      if (_position != _limit)
+      {
+        throw new DataDecodingException("Unexpected " + (_limit - _position) + " bytes after the end of the value");
+      }
+      return clazz.cast(value);
+    }
+
+    private Object parseValue() throws IOException
+    {
+      require(1);
+      byte type = _bytes[_position++];
+      switch (type)
+      {
+        case BINARY_NULL:
+          return Data.NULL;
+        case BINARY_TRUE:
+          return Boolean.TRUE;
+        case BINARY_FALSE:
+          return Boolean.FALSE;
+        case BINARY_INT:
+        {
+          int value = (int) readVarLong();
+          return (value >>> 1) ^ -(value & 1);
+        }
+        case BINARY_LONG:
+        {
+          long value = readVarLong();
+          return (value >>> 1) ^ -(value & 1);
+        }
+        case BINARY_FLOAT:
+          return Float.intBitsToFloat((int) readFixed(4));
+        case BINARY_DOUBLE:
+          return Double.longBitsToDouble(readFixed(8));
+        case BINARY_STRING:
+          return readString(readVarInt());
+        case BINARY_SYMBOL:
+          return readSymbol();
+        case BINARY_BYTES:
+        {
+          int length = readVarInt();
+          require(length);
+          ByteString value = ByteString.copy(_bytes, _position, length);
+          _position += length;
+          return value;
+        }
+        case BINARY_MAP:
+        {
+          int count = readVarInt();
+          DataMap map = new DataMap((int) (Math.min(count, _limit - _position) / 0.75f) + 1);
+          for (int i = 0; i < count; i++)
+          {
+            String key = readSymbol();
+            CheckedUtil.putWithoutChecking(map, key, parseValue());
+          }
+          return map;
+        }
+        case BINARY_LIST:
+        {
+          int count = readVarInt();
+          DataList list = new DataList(Math.min(count, _limit - _position));
+          for (int i = 0; i < count; i++)
+          {
+            CheckedUtil.addWithoutChecking(list, parseValue());
+          }
+          return list;
+        }
+        default:
+          throw new DataDecodingException("Illegal element type " + type + " at " + (_position - 1));
+      }
+    }
+
+    private String readSymbol() throws IOException
+    {
+      long value = readVarLong();
+      if ((value & 1) != 0)
+      {
+        String symbol = readString(checkedInt(value >>> 1));
+        _symbols.add(symbol);
+        return symbol;
+      }
+      long id = value >>> 1;
+      if (id < _sharedSymbolCount)
+      {
+        return _sharedSymbolTable.getSymbol((int) id);
+      }
+      if (id - _sharedSymbolCount >= _symbols.size())
+      {
+        throw new DataDecodingException("Unknown symbol id " + id);
+      }
+      return _symbols.get((int) (id - _sharedSymbolCount));
+    }
+
+    private String readString(int length) throws DataDecodingException
+    {
+      require(length);
+      String value = new String(_bytes, _position, length, StandardCharsets.UTF_8);
+      _position += length;
+      return value;
+    }
+
+    private int readVarInt() throws DataDecodingException
+    {
+      return checkedInt(readVarLong());
+    }
+
+    private long readVarLong() throws DataDecodingException
+    {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7)
+      {
+        require(1);
+        byte b = _bytes[_position++];
+        value |= (long) (b & 0x7f) << shift;
+        if ((b & 0x80) == 0)
+        {
+          return value;
+        }
+      }
+      throw new DataDecodingException("Malformed variable length integer at " + _position);
+    }
+
+    private long readFixed(int size) throws DataDecodingException
+    {
+      require(size);
+      long value = 0;
+      for (int i = 0; i < size; i++)
+      {
+        value |= (long) (_bytes[_position++] & 0xff) << (8 * i);
+      }
+      return value;
+    }
+
+    private int checkedInt(long value) throws DataDecodingException
+    {
+      if (value < 0 || value > Integer.MAX_VALUE)
+      {
+        throw new DataDecodingException("Length " + value + " is out of range at " + _position);
+      }
+      return (int) value;
+    }
+
+    private void require(int length) throws DataDecodingException
+    {
+      if (_limit - _position < length)
+      {
+        throw new DataDecodingException("Unexpected end of input, expecting " + length + " bytes at " + _position);
+      }
+    }
+  }
+}
@@ -64,7 +64,7 @@ public class BufferChain
   private static final int SIZE_LONG = 8;
   private static final int SIZE_FLOAT = 4;
   private static final int SIZE_DOUBLE = 8;
-  private static final int MIN_BUFFER_SIZE = 16;
+  static final int MIN_BUFFER_SIZE = 16;
 
   private static final Charset _charset = Charset.forName("UTF-8");
 
@@ -72,6 +72,7 @@ public class BufferChain
   private ByteBuffer _currentBuffer;
   private ArrayList<ByteBuffer> _bufferList = new ArrayList<ByteBuffer>();
   private int _bufferSize;
+  private BufferPool _bufferPool;
   private ByteOrder _order;
   private CharsetDecoder _decoder;
   private CharsetEncoder _encoder;
@@ -132,6 +133,25 @@ public class BufferChain
     initCoders();
   }
 
+  /**
+   * Construct an empty {@link BufferChain} with the specified byte order, whose buffers are
+   * taken from the specified {@link BufferPool}.
+   *
+   * Buffers are returned to the pool by {@link #release()}.
+   *
+   * @param order provides the byte order for the data in the buffer chain.
+   * @param bufferPool provides the pool of buffers, its buffer size is the buffer size of the chain.
+   */
+  public BufferChain(ByteOrder order, BufferPool bufferPool)
+  {
+    _bufferSize = bufferPool.getBufferSize();
+    _bufferPool = bufferPool;
+    _order = order;
+    _currentBuffer = allocateByteBuffer(_bufferSize);
+    _currentIndex = 0;
+    initCoders();
+  }
+
   /**
    * Construct a {@link BufferChain} with the specified data and data's byte order is the
    * default byte order.
@@ -968,6 +988,49 @@ public class BufferChain
     return bytes;
   }
 
+  /**
+   * Return the bytes in the buffer chain as a {@link ByteString} that references the
+   * buffers of the chain, i.e. it does not copy the data.
+   *
+   * The returned {@link ByteString} must not be used after the buffers are
+   * returned to their pool with {@link #release()}.
+   *
+   * @return the bytes in the buffer chain.
+   */
+  public ByteString toByteString()
+  {
+    if (_currentBuffer.remaining() > 0)
+    {
+      _currentBuffer.limit(_currentBuffer.position());
+    }
+    rewind();
+    ByteString.Builder builder = new ByteString.Builder();
+    for (ByteBuffer buffer : _bufferList)
+    {
+      builder.append(ByteString.unsafeWrap(buffer.array(), buffer.arrayOffset(), buffer.limit()));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Return the buffers of the chain to the {@link BufferPool} the chain was constructed with.
+   * The buffer chain, and any {@link ByteString} obtained from {@link #toByteString()}, must not
+   * be used afterwards. Does nothing if the chain does not have a pool or was already released.
+   */
+  public void release()
+  {
+    if (_bufferPool != null)
+    {
+      for (ByteBuffer buffer : _bufferList)
+      {
+        _bufferPool.release(buffer.array());
+      }
+      _bufferPool = null;
+      _bufferList = new ArrayList<ByteBuffer>();
+      _currentBuffer = null;
+    }
+  }
+
   /**
    * Rewind the buffer chain, i.e. set the current position to
    * the beginning of the buffer chain.
@@ -1244,7 +1307,9 @@ public class BufferChain
 
   private ByteBuffer allocateByteBuffer(int size)
   {
-    ByteBuffer byteBuffer = ByteBuffer.allocate(size > _bufferSize ? size : _bufferSize);
+    ByteBuffer byteBuffer = (_bufferPool != null && size <= _bufferSize) ?
+        ByteBuffer.wrap(_bufferPool.acquire()) :
+        ByteBuffer.allocate(size > _bufferSize ? size : _bufferSize);
     byteBuffer.order(_order);
     _bufferList.add(byteBuffer);
     return byteBuffer;
@@ -0,0 +1,142 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Bounded, thread-safe pool of fixed size byte arrays used as the buffers of a {@link BufferChain}.
+ * <p>
+ *
+ * Arrays are heap arrays because the encoded output is exposed as a {@link com.linkedin.data.ByteString},
+ * which can only reference heap memory without copying.
+ * <p>
+ *
+ * When the pool is empty, {@link #acquire()} allocates a new array. When the pool is full, {@link #release(byte[])}
+ * drops the array, leaving it to the garbage collector. The pool therefore never blocks and never holds more than
+ * {@code maxPooledBuffers * bufferSize} bytes.
+ */
+public final class BufferPool
+{
+  private final int _bufferSize;
+  private final int _maxPooledBuffers;
+  private final Queue<byte[]> _buffers = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger _pooledBuffers = new AtomicInteger();
+
+  /**
+   * Construct a pool of {@link BufferChain#DEFAULT_BUFFER_SIZE} buffers.
+   *
+   * @param maxPooledBuffers provides the maximum number of buffers kept by the pool.
+   */
+  public BufferPool(int maxPooledBuffers)
+  {
+    this(BufferChain.DEFAULT_BUFFER_SIZE, maxPooledBuffers);
+  }
+
+  /**
+   * Construct a pool of buffers of the specified size.
+   *
+   * @param bufferSize provides the size of the buffers in the pool.
+   * @param maxPooledBuffers provides the maximum number of buffers kept by the pool.
+   */
+  public BufferPool(int bufferSize, int maxPooledBuffers)
+  {
+    if (bufferSize < BufferChain.MIN_BUFFER_SIZE)
+    {
+      throw new IllegalArgumentException("Buffer size must be at least " + BufferChain.MIN_BUFFER_SIZE);
+    }
+    if (maxPooledBuffers < 0)
+    {
+      throw new IllegalArgumentException("Maximum number of pooled buffers must not be negative");
+    }
+    _bufferSize = bufferSize;
+    _maxPooledBuffers = maxPooledBuffers;
+  }
+
+  /**
+   * @return the size of the buffers in the pool.
+   */
+  public int getBufferSize()
+  {
+    return _bufferSize;
+  }
+
+  /**
+   * @return the maximum number of buffers kept by the pool.
+   */
+  public int getMaxPooledBuffers()
+  {
+    return _maxPooledBuffers;
+  }
+
+  /**
+   * @return the number of buffers currently available in the pool.
+   */
+  public int getPooledBuffers()
+  {
+    return _pooledBuffers.get();
+  }
+
+  /**
+   * Take a buffer from the pool, or allocate a new one if the pool is empty.
+   *
+   * @return a buffer of {@link #getBufferSize()} bytes, its content is undefined.
+   */
+  public byte[] acquire()
+  {
+    byte[] buffer = _buffers.poll();
+    if (buffer == null)
+    {
+      return new byte[_bufferSize];
+    }
+    _pooledBuffers.decrementAndGet();
+    return buffer;
+  }
+
+  /**
+   * Return a buffer to the pool. The caller must not use the buffer afterwards.
+   * Buffers of a different size than {@link #getBufferSize()} are ignored.
+   *
+   * @param buffer provides the buffer to return.
+   */
+  public void release(byte[] buffer)
+  {
+    if (buffer.length != _bufferSize)
+    {
+      return;
+    }
+    if (_pooledBuffers.incrementAndGet() <= _maxPooledBuffers)
+    {
+      _buffers.offer(buffer);
+    }
+    else
+    {
+      _pooledBuffers.decrementAndGet();
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "BufferPool{bufferSize=" + _bufferSize + ", maxPooledBuffers=" + _maxPooledBuffers +
+        ", pooledBuffers=" + _pooledBuffers.get() + "}";
+  }
+}
@@ -0,0 +1,383 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.collections.CheckedUtil;
+import com.linkedin.data.template.RecordTemplate;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * Decodes JSON directly into the {@link DataMap} backing a {@link RecordTemplate}, guided by a
+ * {@link SchemaDecodingPlan} precomputed from the record's schema.
+ * <p>
+ *
+ * Compared to {@link JacksonDataCodec}, this decoder
+ * <ul>
+ *   <li>allocates record maps at the size of their schema, using compact {@link DataMap}s,</li>
+ *   <li>uses the field name instances of the schema as keys,</li>
+ *   <li>coerces numbers to the type of the schema (e.g. int to long, double to float) and
+ *       bytes and fixed values to {@link ByteString} while parsing, instead of lazily
+ *       in the record template's accessors,</li>
+ *   <li>optionally drops fields that are not defined by the schema.</li>
+ * </ul>
+ * Values that do not match their schema are kept as parsed, like {@link JacksonDataCodec} does, and
+ * are left to validation. Parsing errors are reported on the returned map with {@link DataMap#addError(String)}.
+ * <p>
+ *
+ * The decoder doesn't keep state. Once properly initialized, it's safe to use the same instance concurrently.
+ */
+public class JacksonSchemaDataDecoder
+{
+  public JacksonSchemaDataDecoder()
+  {
+    this(new JsonFactory());
+  }
+
+  public JacksonSchemaDataDecoder(JsonFactory jsonFactory)
+  {
+    _jsonFactory = jsonFactory;
+    _jsonFactory.disable(JsonFactory.Feature.INTERN_FIELD_NAMES);
+    _jsonFactory.enable(JsonParser.Feature.ALLOW_COMMENTS);
+  }
+
+  /**
+   * Decodes the specified JSON bytes into the data of a record template.
+   *
+   * @param input provides the JSON bytes.
+   * @param templateClass provides the record template class whose schema guides decoding.
+   * @param skipUnknownFields if true, fields that are not defined by the schema are dropped.
+   * @return the decoded {@link DataMap}.
+   * @throws IOException if the input cannot be decoded.
+   */
+  public DataMap bytesToMap(byte[] input, Class<? extends RecordTemplate> templateClass, boolean skipUnknownFields)
+      throws IOException
+  {
+    return bytesToMap(input, SchemaDecodingPlan.forTemplate(templateClass, skipUnknownFields));
+  }
+
+  /**
+   * Decodes the specified JSON bytes using the specified plan.
+   *
+   * @param input provides the JSON bytes.
+   * @param plan provides the plan that guides decoding.
+   * @return the decoded {@link DataMap}.
+   * @throws IOException if the input cannot be decoded.
+   */
+  public DataMap bytesToMap(byte[] input, SchemaDecodingPlan plan) throws IOException
+  {
+    try (JsonParser jsonParser = _jsonFactory.createParser(input))
+    {
+      return new Parser(jsonParser).parse(plan);
+    }
+  }
+
+  /**
+   * Decodes JSON read from the specified stream into the data of a record template.
+   *
+   * @param in provides the JSON input.
+   * @param templateClass provides the record template class whose schema guides decoding.
+   * @param skipUnknownFields if true, fields that are not defined by the schema are dropped.
+   * @return the decoded {@link DataMap}.
+   * @throws IOException if the input cannot be decoded.
+   */
+  public DataMap readMap(InputStream in, Class<? extends RecordTemplate> templateClass, boolean skipUnknownFields)
+      throws IOException
+  {
+    return readMap(in, SchemaDecodingPlan.forTemplate(templateClass, skipUnknownFields));
+  }
+
+  /**
+   * Decodes JSON read from the specified stream using the specified plan.
+   *
+   * @param in provides the JSON input.
+   * @param plan provides the plan that guides decoding.
+   * @return the decoded {@link DataMap}.
+   * @throws IOException if the input cannot be decoded.
+   */
+  public DataMap readMap(InputStream in, SchemaDecodingPlan plan) throws IOException
+  {
+    try (JsonParser jsonParser = _jsonFactory.createParser(in))
+    {
+      return new Parser(jsonParser).parse(plan);
+    }
+  }
+
+  private static class Parser
+  {
+    Parser(JsonParser parser)
+    {
+      _parser = parser;
+    }
+
+    DataMap parse(SchemaDecodingPlan plan) throws IOException
+    {
+      if (_parser.nextToken() != JsonToken.START_OBJECT)
+      {
+        throw new DataDecodingException("JSON text for object must start with \"{\".");
+      }
+      DataMap map = parseRecord(plan.getRoot());
+      if (_errorBuilder != null)
+      {
+        map.addError(_errorBuilder.toString());
+      }
+      return map;
+    }
+
+    private Object parse(JsonToken token, SchemaDecodingPlan.Node node) throws IOException
+    {
+      if (token == null)
+      {
+        throw new DataDecodingException("Missing JSON token");
+      }
+      switch (token)
+      {
+        case START_OBJECT:
+          if (node instanceof SchemaDecodingPlan.RecordNode)
+          {
+            return parseRecord((SchemaDecodingPlan.RecordNode) node);
+          }
+          else if (node instanceof SchemaDecodingPlan.MapNode)
+          {
+            return parseMap(((SchemaDecodingPlan.MapNode) node)._values);
+          }
+          else if (node instanceof SchemaDecodingPlan.UnionNode)
+          {
+            return parseUnion((SchemaDecodingPlan.UnionNode) node);
+          }
+          return parseMap(null);
+        case START_ARRAY:
+          return parseList(node instanceof SchemaDecodingPlan.ArrayNode ? ((SchemaDecodingPlan.ArrayNode) node)._items : null);
+        default:
+          return parsePrimitive(token, node instanceof SchemaDecodingPlan.PrimitiveNode ? (SchemaDecodingPlan.PrimitiveNode) node : null);
+      }
+    }
+
+    private DataMap parseRecord(SchemaDecodingPlan.RecordNode record) throws IOException
+    {
+      DataMap map = DataMap.newCompactDataMap(record._size);
+      while (_parser.nextToken() != JsonToken.END_OBJECT)
+      {
+        String name = _parser.getCurrentName();
+        SchemaDecodingPlan.FieldNode field = record._fields.get(name);
+        JsonToken token = _parser.nextToken();
+        if (field != null)
+        {
+          put(map, field._name, parse(token, field._value));
+        }
+        else if (record._skipUnknownFields)
+        {
+          _parser.skipChildren();
+        }
+        else
+        {
+          put(map, name, parse(token, null));
+        }
+      }
+      return map;
+    }
+
+    private DataMap parseUnion(SchemaDecodingPlan.UnionNode union) throws IOException
+    {
+      DataMap map = new DataMap(2);
+      while (_parser.nextToken() != JsonToken.END_OBJECT)
+      {
+        String name = _parser.getCurrentName();
+        SchemaDecodingPlan.FieldNode member = union._members.get(name);
+        JsonToken token = _parser.nextToken();
+        if (member != null)
+        {
+          put(map, member._name, parse(token, member._value));
+        }
+        else
+        {
+          put(map, name, parse(token, null));
+        }
+      }
+      return map;
+    }
+
+    private DataMap parseMap(SchemaDecodingPlan.Node values) throws IOException
+    {
+      DataMap map = new DataMap();
+      while (_parser.nextToken() != JsonToken.END_OBJECT)
+      {
+        String name = _parser.getCurrentName();
+        put(map, name, parse(_parser.nextToken(), values));
+      }
+      return map;
+    }
+
+    private DataList parseList(SchemaDecodingPlan.Node items) throws IOException
+    {
+      DataList list = new DataList();
+      JsonToken token;
+      while ((token = _parser.nextToken()) != JsonToken.END_ARRAY)
+      {
+        Object value = parse(token, items);
+        if (value != null)
+        {
+          CheckedUtil.addWithoutChecking(list, value);
+        }
+      }
+      return list;
+    }
+
+    private void put(DataMap map, String name, Object value)
+    {
+      if (value == null)
+      {
+        return;
+      }
+      Object replaced = CheckedUtil.putWithoutChecking(map, name, value);
+      if (replaced != null)
+      {
+        error().append(_parser.getTokenLocation()).append(": \"").append(name).append("\" defined more than once.\n");
+      }
+    }
+
+    private Object parsePrimitive(JsonToken token, SchemaDecodingPlan.PrimitiveNode node) throws IOException
+    {
+      final DataSchemaType type = DataSchemaType.of(node);
+      switch (token)
+      {
+        case VALUE_STRING:
+          if (type == DataSchemaType.BYTES)
+          {
+            ByteString bytes = ByteString.copyAvroString(_parser.getText(), true);
+            if (bytes != null)
+            {
+              return bytes;
+            }
+          }
+          return _parser.getText();
+        case VALUE_NUMBER_INT:
+        case VALUE_NUMBER_FLOAT:
+          return parseNumber(token, type);
+        case VALUE_TRUE:
+          return Boolean.TRUE;
+        case VALUE_FALSE:
+          return Boolean.FALSE;
+        case VALUE_NULL:
+          return Data.NULL;
+        default:
+          error(token, null);
+          return null;
+      }
+    }
+
+    private Object parseNumber(JsonToken token, DataSchemaType type) throws IOException
+    {
+      JsonParser.NumberType numberType = _parser.getNumberType();
+      switch (type)
+      {
+        case LONG:
+          if (numberType == JsonParser.NumberType.INT || numberType == JsonParser.NumberType.LONG)
+          {
+            return _parser.getLongValue();
+          }
+          break;
+        case FLOAT:
+          return _parser.getFloatValue();
+        case DOUBLE:
+          return _parser.getDoubleValue();
+        default:
+          break;
+      }
+
+      switch (numberType)
+      {
+        case INT:
+          return _parser.getIntValue();
+        case LONG:
+          return _parser.getLongValue();
+        case FLOAT:
+          return _parser.getFloatValue();
+        case DOUBLE:
+          return _parser.getDoubleValue();
+        default:
+          error(token, numberType);
+          return null;
+      }
+    }
+
+    private StringBuilder error()
+    {
+      if (_errorBuilder == null)
+      {
+        _errorBuilder = new StringBuilder();
+      }
+      return _errorBuilder;
+    }
+
+    private void error(JsonToken token, JsonParser.NumberType type) throws IOException
+    {
+      StringBuilder builder = error();
+      builder.append(_parser.getTokenLocation()).append(": ");
+      builder.append("value: ").append(_parser.getText()).append(", token: ").append(token);
+      if (type != null)
+      {
+        builder.append(", number type: ").append(type);
+      }
+      builder.append(" not parsed.\n");
+    }
+
+    private final JsonParser _parser;
+    private StringBuilder _errorBuilder;
+  }
+
+  /**
+   * Coercions applied to primitive values.
+   */
+  private enum DataSchemaType
+  {
+    NONE, LONG, FLOAT, DOUBLE, BYTES;
+
+    static DataSchemaType of(SchemaDecodingPlan.PrimitiveNode node)
+    {
+      if (node == null)
+      {
+        return NONE;
+      }
+      switch (node._type)
+      {
+        case LONG:
+          return LONG;
+        case FLOAT:
+          return FLOAT;
+        case DOUBLE:
+          return DOUBLE;
+        case BYTES:
+        case FIXED:
+          return BYTES;
+        default:
+          return NONE;
+      }
+    }
+  }
+
+  private final JsonFactory _jsonFactory;
+}
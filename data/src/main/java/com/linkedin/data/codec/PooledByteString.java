@@ -0,0 +1,62 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+
+import com.linkedin.data.ByteString;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * A {@link ByteString} backed by buffers borrowed from a {@link BufferPool}.
+ * <p>
+ *
+ * The owner calls {@link #release()} once the bytes are no longer referenced, typically after the
+ * transport has written them, to return the buffers to the pool. The {@link ByteString} must not be used
+ * after it is released. Releasing is optional: buffers that are never released are garbage collected.
+ */
+public final class PooledByteString
+{
+  private final ByteString _byteString;
+  private final BufferChain _bufferChain;
+  private final AtomicBoolean _released = new AtomicBoolean();
+
+  PooledByteString(BufferChain bufferChain)
+  {
+    _bufferChain = bufferChain;
+    _byteString = bufferChain.toByteString();
+  }
+
+  /**
+   * @return the bytes, which reference the pooled buffers without copying.
+   */
+  public ByteString getByteString()
+  {
+    return _byteString;
+  }
+
+  /**
+   * Return the buffers to their pool. Only the first invocation has an effect.
+   */
+  public void release()
+  {
+    if (_released.compareAndSet(false, true))
+    {
+      _bufferChain.release();
+    }
+  }
+}
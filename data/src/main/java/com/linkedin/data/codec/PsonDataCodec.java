@@ -102,13 +102,45 @@ public class PsonDataCodec implements DataCodec
       return _bufferSize;
     }
 
+    /**
+     * Decode maps into {@link DataMap}s backed by a compact open-addressing table,
+     * see {@link DataMap#newCompactDataMap(int)}.
+     */
+    public Options setCompactDataMaps(boolean value)
+    {
+      _compactDataMaps = value;
+      return this;
+    }
+
+    public boolean getCompactDataMaps()
+    {
+      return _compactDataMaps;
+    }
+
+    /**
+     * Take the buffers used to encode and decode from the specified pool instead of allocating them.
+     * When set, the buffer size is the buffer size of the pool.
+     */
+    public Options setBufferPool(BufferPool value)
+    {
+      _bufferPool = value;
+      return this;
+    }
+
+    public BufferPool getBufferPool()
+    {
+      return _bufferPool;
+    }
+
     @Override
     public String toString()
     {
       return
         "encodeCollectionCount=" + _encodeCollectionCount +
         ", encodeStringLength=" + _encodeStringLength +
-        (_bufferSize != null ? ", bufferSize=" + _bufferSize : "");
+        (_compactDataMaps ? ", compactDataMaps=true" : "") +
+        (_bufferSize != null ? ", bufferSize=" + _bufferSize : "") +
+        (_bufferPool != null ? ", bufferPool=" + _bufferPool : "");
     }
 
     @Override
@@ -124,7 +156,9 @@ public class PsonDataCodec implements DataCodec
       return
         (_encodeCollectionCount == other._encodeCollectionCount) &&
         (_encodeStringLength == other._encodeStringLength) &&
-        (_bufferSize == null ? _bufferSize == other._bufferSize : _bufferSize.equals(other._bufferSize));
+        (_compactDataMaps == other._compactDataMaps) &&
+        (_bufferSize == null ? _bufferSize == other._bufferSize : _bufferSize.equals(other._bufferSize)) &&
+        (_bufferPool == other._bufferPool);
     }
 
     @Override
@@ -132,13 +166,17 @@ public class PsonDataCodec implements DataCodec
     {
       return
         ((_encodeCollectionCount ? 3131 : 0) +
-         (_encodeStringLength ? 31310000 : 0)) ^
-        (_bufferSize != null ? _bufferSize.hashCode() : 0);
+         (_encodeStringLength ? 31310000 : 0) +
+         (_compactDataMaps ? 313100 : 0)) ^
+        (_bufferSize != null ? _bufferSize.hashCode() : 0) ^
+        (_bufferPool != null ? _bufferPool.hashCode() : 0);
     }
 
     private boolean _encodeStringLength = true;
     private boolean _encodeCollectionCount = false;
     private Integer _bufferSize = null;
+    private boolean _compactDataMaps = false;
+    private BufferPool _bufferPool = null;
   }
 
   public PsonDataCodec()
@@ -172,7 +210,9 @@ public class PsonDataCodec implements DataCodec
   {
     try
     {
-      byte[] bytes = serialize(complex).toBytes();
+      PsonSerializer serializer = serialize(complex);
+      byte[] bytes = serializer.toBytes();
+      serializer.release();
       return bytes;
     }
     catch (RuntimeException exc)
@@ -191,7 +231,7 @@ public class PsonDataCodec implements DataCodec
         (_testMode && _options.getBufferSize() != null) ?
           new BufferChain(ByteOrder.LITTLE_ENDIAN, input, _options.getBufferSize()) :
           new BufferChain(ByteOrder.LITTLE_ENDIAN, input);
-      PsonParser psonParser = new PsonParser(buffer);
+      PsonParser psonParser = new PsonParser(buffer, _options.getCompactDataMaps());
       return clazz.cast(psonParser.read());
     }
     catch (RuntimeException exc)
@@ -208,6 +248,29 @@ public class PsonDataCodec implements DataCodec
     return complexToBytes(map);
   }
 
+  /**
+   * Encode the specified {@link DataMap} into a {@link PooledByteString} that references the
+   * encoding buffers without copying them. If a {@link BufferPool} is set in the {@link Options},
+   * the buffers are taken from the pool, and are returned to it by {@link PooledByteString#release()}.
+   *
+   * @param map provides the map to encode.
+   * @return the encoded bytes.
+   * @throws IOException if the map cannot be encoded.
+   */
+  public PooledByteString mapToPooledByteString(DataMap map) throws IOException
+  {
+    try
+    {
+      return new PooledByteString(serialize(map)._buffer);
+    }
+    catch (RuntimeException exc)
+    {
+      // do not want RuntimeException from BufferChain propagating
+      // as RuntimeException to client code.
+      throw new IOException("Unexpected RuntimeException", exc);
+    }
+  }
+
   @Override
   public byte[] listToBytes(DataList list) throws IOException
   {
@@ -230,7 +293,9 @@ public class PsonDataCodec implements DataCodec
   {
     try
     {
-      serialize(complex).writeToOutputStream(out);
+      PsonSerializer serializer = serialize(complex);
+      serializer.writeToOutputStream(out);
+      serializer.release();
     }
     catch (RuntimeException exc)
     {
@@ -256,14 +321,26 @@ public class PsonDataCodec implements DataCodec
   {
     try
     {
-      BufferChain buffer =
-        (_testMode && _options.getBufferSize() != null) ?
-          new BufferChain(ByteOrder.LITTLE_ENDIAN, _options.getBufferSize()) :
-          new BufferChain(ByteOrder.LITTLE_ENDIAN);
+      BufferChain buffer;
+      if (_testMode && _options.getBufferSize() != null)
+      {
+        buffer = new BufferChain(ByteOrder.LITTLE_ENDIAN, _options.getBufferSize());
+      }
+      else if (_options.getBufferPool() != null)
+      {
+        buffer = new BufferChain(ByteOrder.LITTLE_ENDIAN, _options.getBufferPool());
+      }
+      else
+      {
+        buffer = new BufferChain(ByteOrder.LITTLE_ENDIAN);
+      }
       buffer.readFromInputStream(in);
       buffer.rewind();
-      PsonParser psonParser = new PsonParser(buffer);
-      return clazz.cast(psonParser.read());
+      PsonParser psonParser = new PsonParser(buffer, _options.getCompactDataMaps());
+      // the parser copies bytes and strings out of the buffers
+      T complex = clazz.cast(psonParser.read());
+      buffer.release();
+      return complex;
     }
     catch (RuntimeException exc)
     {
@@ -285,6 +362,14 @@ public class PsonDataCodec implements DataCodec
     return readComplex(in, DataList.class);
   }
 
+  /**
+   * @return a copy of the header that starts every PSON encoded value.
+   */
+  public static byte[] getHeader()
+  {
+    return HEADER.clone();
+  }
+
   @Override
   public String toString()
   {
@@ -294,26 +379,26 @@ public class PsonDataCodec implements DataCodec
   final static byte ZERO_BYTE = 0;
   final static byte ONE_BYTE = 1;
 
-  final static int PSON_INVALID_KEY_INDEX = 0;
-
-  final static byte PSON_NULL = 0;
-  final static byte PSON_BOOLEAN = 1;
-  final static byte PSON_INT = 2;
-  final static byte PSON_LONG = 3;
-  final static byte PSON_FLOAT = 4;
-  final static byte PSON_DOUBLE = 5;
-  final static byte PSON_BINARY = 6;
-  final static byte PSON_STRING_EMPTY = 8;
-  final static byte PSON_STRING = 9;
-  final static byte PSON_STRING_WITH_LENGTH_4 = 10;
-  final static byte PSON_STRING_WITH_LENGTH_2 = 11;
-  final static byte PSON_ARRAY_EMPTY = 16;
-  final static byte PSON_ARRAY = 17;
-  final static byte PSON_ARRAY_WITH_COUNT = 18;
-  final static byte PSON_OBJECT_EMPTY = 32;
-  final static byte PSON_OBJECT = 33;
-  final static byte PSON_OBJECT_WITH_COUNT = 34;
-  final static byte PSON_LAST = (byte) 0xff;
+  public final static int PSON_INVALID_KEY_INDEX = 0;
+
+  public final static byte PSON_NULL = 0;
+  public final static byte PSON_BOOLEAN = 1;
+  public final static byte PSON_INT = 2;
+  public final static byte PSON_LONG = 3;
+  public final static byte PSON_FLOAT = 4;
+  public final static byte PSON_DOUBLE = 5;
+  public final static byte PSON_BINARY = 6;
+  public final static byte PSON_STRING_EMPTY = 8;
+  public final static byte PSON_STRING = 9;
+  public final static byte PSON_STRING_WITH_LENGTH_4 = 10;
+  public final static byte PSON_STRING_WITH_LENGTH_2 = 11;
+  public final static byte PSON_ARRAY_EMPTY = 16;
+  public final static byte PSON_ARRAY = 17;
+  public final static byte PSON_ARRAY_WITH_COUNT = 18;
+  public final static byte PSON_OBJECT_EMPTY = 32;
+  public final static byte PSON_OBJECT = 33;
+  public final static byte PSON_OBJECT_WITH_COUNT = 34;
+  public final static byte PSON_LAST = (byte) 0xff;
 
   private final static int MAX_STRING_WITH_LENGTH_2 = Short.MAX_VALUE / 2 - 1;
 
@@ -327,10 +412,17 @@ public class PsonDataCodec implements DataCodec
 
     protected PsonSerializer()
     {
-      _buffer =
-        _options.getBufferSize() == null ?
-          new BufferChain(ByteOrder.LITTLE_ENDIAN) :
-          new BufferChain(ByteOrder.LITTLE_ENDIAN, _options.getBufferSize());
+      if (_options.getBufferPool() != null)
+      {
+        _buffer = new BufferChain(ByteOrder.LITTLE_ENDIAN, _options.getBufferPool());
+      }
+      else
+      {
+        _buffer =
+          _options.getBufferSize() == null ?
+            new BufferChain(ByteOrder.LITTLE_ENDIAN) :
+            new BufferChain(ByteOrder.LITTLE_ENDIAN, _options.getBufferSize());
+      }
     }
 
     @Override
@@ -532,6 +624,11 @@ public class PsonDataCodec implements DataCodec
       _buffer.writeToOutputStream(out);
     }
 
+    private final void release()
+    {
+      _buffer.release();
+    }
+
     private void start(byte psonType) throws CharacterCodingException
     {
       _buffer.put(psonType);
@@ -540,10 +637,17 @@ public class PsonDataCodec implements DataCodec
 
   protected static class PsonParser
   {
+    private static final int DEFAULT_COMPACT_MAP_SIZE = 8;
 
     PsonParser(BufferChain buffer)
+    {
+      this(buffer, false);
+    }
+
+    PsonParser(BufferChain buffer, boolean compactDataMaps)
     {
       _buffer = buffer;
+      _compactDataMaps = compactDataMaps;
     }
 
     static final String HEX = "0123456789ABCDEF";
@@ -599,7 +703,15 @@ public class PsonDataCodec implements DataCodec
     DataMap parseMap(boolean withCount) throws IOException
     {
       int size = (withCount ? _buffer.getVarUnsignedInt() : -1);
-      DataMap map = (size >= 0 ? new DataMap((int) ((size * 1.5) + 0.5)) : new DataMap());
+      DataMap map;
+      if (_compactDataMaps)
+      {
+        map = DataMap.newCompactDataMap(size >= 0 ? size : DEFAULT_COMPACT_MAP_SIZE);
+      }
+      else
+      {
+        map = (size >= 0 ? new DataMap((int) ((size * 1.5) + 0.5)) : new DataMap());
+      }
       int count;
       for (count = 0; ; count++)
       {
@@ -662,7 +774,7 @@ public class PsonDataCodec implements DataCodec
       switch (psonType)
       {
         case PSON_OBJECT_EMPTY:
-          o = new DataMap();
+          o = _compactDataMaps ? DataMap.newCompactDataMap(0) : new DataMap();
           break;
         case PSON_OBJECT:
           o = parseMap(false);
@@ -738,6 +850,7 @@ public class PsonDataCodec implements DataCodec
     }
 
     private final BufferChain _buffer;
+    private final boolean _compactDataMaps;
     private String _keyArray[] = new String[100];
     private int _expectedKeyIndex = 1;
   }
@@ -0,0 +1,262 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+
+import com.linkedin.data.schema.ArrayDataSchema;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.MapDataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.schema.UnionDataSchema;
+import com.linkedin.data.template.DataTemplateUtil;
+import com.linkedin.data.template.RecordTemplate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Precomputed, immutable description of how to decode data of a given {@link DataSchema}.
+ * <p>
+ *
+ * A plan resolves typerefs, indexes the fields of each record by name, and keeps the
+ * field name instances of the schema so that decoded maps share them instead of
+ * holding a fresh copy of every key. Plans are used by {@link JacksonSchemaDataDecoder}.
+ * <p>
+ *
+ * Plans for record templates are cached per template class, see {@link #forTemplate(Class, boolean)}.
+ * Plans built from schemas with {@link #forRecord(RecordDataSchema, boolean)} or
+ * {@link #forEnvelope(Map, boolean)} are not cached and should be kept by the caller.
+ */
+public final class SchemaDecodingPlan
+{
+  private static final Map<Class<?>, SchemaDecodingPlan> _templatePlans = new ConcurrentHashMap<>();
+  private static final Map<Class<?>, SchemaDecodingPlan> _templatePlansSkippingUnknownFields = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the cached plan for the specified record template class.
+   *
+   * @param templateClass provides the record template class.
+   * @param skipUnknownFields if true, fields that are not defined by the record schemas are dropped while decoding.
+   * @return the plan for the schema of the template class.
+   */
+  public static SchemaDecodingPlan forTemplate(Class<? extends RecordTemplate> templateClass, boolean skipUnknownFields)
+  {
+    Map<Class<?>, SchemaDecodingPlan> plans = skipUnknownFields ? _templatePlansSkippingUnknownFields : _templatePlans;
+    // pre-screen to avoid locking in computeIfAbsent for cached plans, see DataTemplateUtil#getSchema
+    SchemaDecodingPlan plan = plans.get(templateClass);
+    return (plan != null) ? plan : plans.computeIfAbsent(templateClass,
+        key -> forRecord((RecordDataSchema) DataTemplateUtil.getSchema(templateClass), skipUnknownFields));
+  }
+
+  /**
+   * Builds a plan for the specified record schema.
+   *
+   * @param schema provides the record schema.
+   * @param skipUnknownFields if true, fields that are not defined by the record schemas are dropped while decoding.
+   * @return a new plan.
+   */
+  public static SchemaDecodingPlan forRecord(RecordDataSchema schema, boolean skipUnknownFields)
+  {
+    return new SchemaDecodingPlan(new Builder(skipUnknownFields).record(schema), skipUnknownFields);
+  }
+
+  /**
+   * Builds a plan for an envelope map, such as a collection response, whose known fields have the specified schemas.
+   * Other fields of the envelope are decoded without a schema and are never dropped; unknown fields of the records
+   * nested in the envelope are dropped if skipUnknownFields is true.
+   *
+   * @param fieldSchemas provides the schemas of the known fields of the envelope, keyed by field name.
+   * @param skipUnknownFields if true, fields that are not defined by nested record schemas are dropped while decoding.
+   * @return a new plan.
+   */
+  public static SchemaDecodingPlan forEnvelope(Map<String, ? extends DataSchema> fieldSchemas, boolean skipUnknownFields)
+  {
+    Builder builder = new Builder(skipUnknownFields);
+    Map<String, FieldNode> fields = new HashMap<>();
+    for (Map.Entry<String, ? extends DataSchema> entry : fieldSchemas.entrySet())
+    {
+      fields.put(entry.getKey(), new FieldNode(entry.getKey(), builder.node(entry.getValue())));
+    }
+    return new SchemaDecodingPlan(new RecordNode(fields, fields.size(), false), skipUnknownFields);
+  }
+
+  private SchemaDecodingPlan(RecordNode root, boolean skipUnknownFields)
+  {
+    _root = root;
+    _skipUnknownFields = skipUnknownFields;
+  }
+
+  /**
+   * @return true if fields that are not defined by record schemas are dropped while decoding.
+   */
+  public boolean isSkipUnknownFields()
+  {
+    return _skipUnknownFields;
+  }
+
+  RecordNode getRoot()
+  {
+    return _root;
+  }
+
+  /**
+   * Decoding instructions for a value, null means the value is decoded without a schema.
+   */
+  abstract static class Node
+  {
+  }
+
+  static final class RecordNode extends Node
+  {
+    RecordNode(Map<String, FieldNode> fields, int size, boolean skipUnknownFields)
+    {
+      _fields = fields;
+      _size = size;
+      _skipUnknownFields = skipUnknownFields;
+    }
+
+    final Map<String, FieldNode> _fields;
+    final int _size;
+    final boolean _skipUnknownFields;
+  }
+
+  static final class FieldNode
+  {
+    FieldNode(String name, Node value)
+    {
+      _name = name;
+      _value = value;
+    }
+
+    final String _name;
+    Node _value;
+  }
+
+  static final class ArrayNode extends Node
+  {
+    ArrayNode(Node items)
+    {
+      _items = items;
+    }
+
+    final Node _items;
+  }
+
+  static final class MapNode extends Node
+  {
+    MapNode(Node values)
+    {
+      _values = values;
+    }
+
+    final Node _values;
+  }
+
+  static final class UnionNode extends Node
+  {
+    UnionNode(Map<String, FieldNode> members)
+    {
+      _members = members;
+    }
+
+    final Map<String, FieldNode> _members;
+  }
+
+  static final class PrimitiveNode extends Node
+  {
+    private PrimitiveNode(DataSchema.Type type)
+    {
+      _type = type;
+    }
+
+    final DataSchema.Type _type;
+  }
+
+  private static final Map<DataSchema.Type, PrimitiveNode> PRIMITIVE_NODES = new EnumMap<>(DataSchema.Type.class);
+  static
+  {
+    for (DataSchema.Type type : new DataSchema.Type[] {
+        DataSchema.Type.INT, DataSchema.Type.LONG, DataSchema.Type.FLOAT, DataSchema.Type.DOUBLE,
+        DataSchema.Type.BYTES, DataSchema.Type.FIXED })
+    {
+      PRIMITIVE_NODES.put(type, new PrimitiveNode(type));
+    }
+  }
+
+  private static class Builder
+  {
+    Builder(boolean skipUnknownFields)
+    {
+      _skipUnknownFields = skipUnknownFields;
+    }
+
+    Node node(DataSchema schema)
+    {
+      DataSchema dereferenced = schema.getDereferencedDataSchema();
+      switch (dereferenced.getType())
+      {
+        case RECORD:
+          return record((RecordDataSchema) dereferenced);
+        case ARRAY:
+          return new ArrayNode(node(((ArrayDataSchema) dereferenced).getItems()));
+        case MAP:
+          return new MapNode(node(((MapDataSchema) dereferenced).getValues()));
+        case UNION:
+          Map<String, FieldNode> members = new HashMap<>();
+          for (UnionDataSchema.Member member : ((UnionDataSchema) dereferenced).getMembers())
+          {
+            String key = member.getUnionMemberKey();
+            members.put(key, new FieldNode(key, node(member.getType())));
+          }
+          return new UnionNode(members);
+        default:
+          // string, boolean, enum and null values need no coercion
+          return PRIMITIVE_NODES.get(dereferenced.getType());
+      }
+    }
+
+    RecordNode record(RecordDataSchema schema)
+    {
+      RecordNode node = _records.get(schema);
+      if (node == null)
+      {
+        Map<String, FieldNode> fields = new HashMap<>(schema.getFields().size() * 2);
+        node = new RecordNode(fields, schema.getFields().size(), _skipUnknownFields);
+        // register before visiting the fields to support recursive schemas
+        _records.put(schema, node);
+        for (RecordDataSchema.Field field : schema.getFields())
+        {
+          fields.put(field.getName(), new FieldNode(field.getName(), null));
+        }
+        for (RecordDataSchema.Field field : schema.getFields())
+        {
+          fields.get(field.getName())._value = node(field.getType());
+        }
+      }
+      return node;
+    }
+
+    private final boolean _skipUnknownFields;
+    private final Map<RecordDataSchema, RecordNode> _records = new IdentityHashMap<>();
+  }
+
+  private final RecordNode _root;
+  private final boolean _skipUnknownFields;
+}
@@ -0,0 +1,97 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * An immutable, named table of symbols shared by the encoder and the decoder of {@link BinaryDataCodec} messages.
+ * <p>
+ *
+ * Symbols of the table are encoded by their id, i.e. their index in the table, instead of their value, for
+ * example the field names of the records exchanged by a client and a server. Both sides must have the same
+ * table for a given name. Add new symbols by creating a table with a new name.
+ */
+public final class SymbolTable
+{
+  private final String _name;
+  private final String[] _symbols;
+  private final Map<String, Integer> _symbolIds;
+
+  /**
+   * @param name provides the name of the table, which identifies it in the encoded messages.
+   * @param symbols provides the symbols of the table, they must be unique.
+   */
+  public SymbolTable(String name, List<String> symbols)
+  {
+    if (name == null || name.isEmpty())
+    {
+      throw new IllegalArgumentException("Symbol table name must not be empty");
+    }
+    _name = name;
+    _symbols = symbols.toArray(new String[symbols.size()]);
+    _symbolIds = new HashMap<>((int) (_symbols.length / 0.75f) + 1);
+    for (int i = 0; i < _symbols.length; i++)
+    {
+      if (_symbolIds.put(_symbols[i], i) != null)
+      {
+        throw new IllegalArgumentException("Duplicate symbol " + _symbols[i] + " in symbol table " + name);
+      }
+    }
+  }
+
+  public String getName()
+  {
+    return _name;
+  }
+
+  /**
+   * @return the number of symbols in the table.
+   */
+  public int size()
+  {
+    return _symbols.length;
+  }
+
+  /**
+   * @return the symbol with the specified id.
+   * @throws IndexOutOfBoundsException if there is no symbol with the specified id.
+   */
+  public String getSymbol(int id)
+  {
+    return _symbols[id];
+  }
+
+  /**
+   * @return the id of the specified symbol, or -1 if the symbol is not in the table.
+   */
+  public int getSymbolId(String symbol)
+  {
+    Integer id = _symbolIds.get(symbol);
+    return id == null ? -1 : id;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "SymbolTable{name=" + _name + ", size=" + _symbols.length + "}";
+  }
+}
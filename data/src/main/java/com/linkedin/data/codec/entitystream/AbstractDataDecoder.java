@@ -0,0 +1,206 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.codec.DataDecodingException;
+import com.linkedin.entitystream.ReadHandle;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+
+/**
+ * Base class of the decoders of binary formats whose elements can be split across the chunks of the
+ * {@link com.linkedin.entitystream.EntityStream}. The bytes that are not parsed yet are kept in a buffer, which
+ * subclasses parse one complete element at a time in {@link #parse()}. The next chunk is requested once the current
+ * one is parsed.
+ */
+abstract class AbstractDataDecoder<T extends DataComplex> implements DataDecoder<T>
+{
+  private final Class<T> _resultClass;
+  private final CompletableFuture<T> _completable;
+  private T _result;
+  private ReadHandle _readHandle;
+  private boolean _consumed;
+
+  // the bytes that are not parsed yet are _bytes[_start, _end)
+  byte[] _bytes = new byte[0];
+  int _start;
+  int _end;
+  // number of bytes after _start known to not contain a zero byte, see findZero
+  private int _scanned;
+
+  AbstractDataDecoder(Class<T> resultClass)
+  {
+    _resultClass = resultClass;
+    _completable = new CompletableFuture<>();
+    _result = null;
+  }
+
+  /**
+   * Parse as many elements as the available bytes allow. Each element is either fully parsed and consumed,
+   * or left in the buffer until more bytes are available.
+   */
+  abstract void parse() throws DataDecodingException;
+
+  @Override
+  public void onInit(ReadHandle rh)
+  {
+    _readHandle = rh;
+    _readHandle.request(1);
+  }
+
+  @Override
+  public void onDataAvailable(ByteString data)
+  {
+    append(data);
+    try
+    {
+      parse();
+      if (_result != null && available() > 0)
+      {
+        throw new DataDecodingException("Unexpected " + available() + " bytes after the end of the value");
+      }
+    }
+    catch (DataDecodingException e)
+    {
+      handleException(e);
+      return;
+    }
+
+    _readHandle.request(1);
+  }
+
+  @Override
+  public void onDone()
+  {
+    // like JacksonJsonDataDecoder, an empty source is decoded as null
+    if (_result != null || (!_consumed && available() == 0))
+    {
+      _completable.complete(_result);
+    }
+    else
+    {
+      handleException(new DataDecodingException("Unexpected end of source after " + available() + " unparsed bytes"));
+    }
+  }
+
+  @Override
+  public void onError(Throwable e)
+  {
+    _completable.completeExceptionally(e);
+  }
+
+  @Override
+  public CompletionStage<T> getResult()
+  {
+    return _completable;
+  }
+
+  private void handleException(Throwable e)
+  {
+    _readHandle.cancel();
+    _completable.completeExceptionally(e);
+  }
+
+  private void append(ByteString data)
+  {
+    int length = data.length();
+    if (_end + length > _bytes.length)
+    {
+      int remaining = _end - _start;
+      byte[] bytes = (remaining + length > _bytes.length)
+          ? new byte[Math.max(_bytes.length * 2, remaining + length)]
+          : _bytes;
+      System.arraycopy(_bytes, _start, bytes, 0, remaining);
+      _bytes = bytes;
+      _start = 0;
+      _end = remaining;
+    }
+    data.copyBytes(_bytes, _end);
+    _end += length;
+  }
+
+  boolean hasResult()
+  {
+    return _result != null;
+  }
+
+  void setResult(Object value) throws DataDecodingException
+  {
+    checkResultClass(value);
+    _result = _resultClass.cast(value);
+  }
+
+  void checkResultClass(Object value) throws DataDecodingException
+  {
+    if (!_resultClass.isInstance(value))
+    {
+      throw new DataDecodingException("Expecting " + _resultClass.getSimpleName() + " but got " + value.getClass().getSimpleName());
+    }
+  }
+
+  int available()
+  {
+    return _end - _start;
+  }
+
+  void consume(int length)
+  {
+    _start += length;
+    _scanned = 0;
+    _consumed = true;
+  }
+
+  /**
+   * @return the index of the first zero byte at or after the specified offset from the start, or -1 if not available yet.
+   */
+  int findZero(int offset)
+  {
+    int index = _start + Math.max(offset, _scanned);
+    while (index < _end && _bytes[index] != 0)
+    {
+      index++;
+    }
+    if (index == _end)
+    {
+      _scanned = _end - _start;
+      return -1;
+    }
+    return index;
+  }
+
+  short getShort(int index)
+  {
+    return (short) ((_bytes[index] & 0xff) | (_bytes[index + 1] << 8));
+  }
+
+  int getInt(int index)
+  {
+    return (_bytes[index] & 0xff)
+        | ((_bytes[index + 1] & 0xff) << 8)
+        | ((_bytes[index + 2] & 0xff) << 16)
+        | (_bytes[index + 3] << 24);
+  }
+
+  long getLong(int index)
+  {
+    return (getInt(index) & 0xffffffffL) | ((long) getInt(index + 4) << 32);
+  }
+}
@@ -0,0 +1,434 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.BinaryDataCodec;
+import com.linkedin.data.codec.DataDecodingException;
+import com.linkedin.data.codec.SymbolTable;
+import com.linkedin.data.codec.SymbolTableProvider;
+import com.linkedin.data.collections.CheckedUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_BYTES;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_DOUBLE;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_FALSE;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_FLOAT;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_INT;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_LIST;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_LONG;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_MAP;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_NULL;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_STRING;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_SYMBOL;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_TRUE;
+
+
+/**
+ * A decoder of the {@link BinaryDataCodec} format for a {@link DataComplex} object implemented as a
+ * {@link com.linkedin.entitystream.Reader} reading from an {@link com.linkedin.entitystream.EntityStream} of ByteString.
+ *
+ * Because the raw bytes are pushed to the decoder, it keeps the partially built data structure, and the number of
+ * items left in each collection, in a stack.
+ */
+public class BinaryDataDecoder<T extends DataComplex> extends AbstractDataDecoder<T>
+{
+  private static final byte[] HEADER = BinaryDataCodec.getHeader();
+  private static final int MAX_VAR_LONG_LENGTH = 10;
+
+  private final SymbolTableProvider _symbolTableProvider;
+  private boolean _headerParsed;
+  private SymbolTable _sharedSymbolTable;
+  private int _sharedSymbolCount;
+  private final List<String> _symbols = new ArrayList<>();
+
+  private DataComplex[] _stack = new DataComplex[16];
+  private int[] _remaining = new int[16];
+  private int _depth;
+  private String _currKey;
+
+  /**
+   * @param symbolTableProvider provides the shared symbol tables named by the decoded messages.
+   */
+  public BinaryDataDecoder(Class<T> resultClass, SymbolTableProvider symbolTableProvider)
+  {
+    super(resultClass);
+    _symbolTableProvider = symbolTableProvider;
+  }
+
+  @Override
+  void parse() throws DataDecodingException
+  {
+    if (!_headerParsed)
+    {
+      if (!parseHeader())
+      {
+        return;
+      }
+      _headerParsed = true;
+    }
+
+    while (!hasResult())
+    {
+      boolean parsed;
+      if (_depth > 0 && _remaining[_depth - 1] == 0)
+      {
+        pop();
+        parsed = true;
+      }
+      else if (_depth > 0 && _currKey == null && _stack[_depth - 1] instanceof DataMap)
+      {
+        parsed = parseKey();
+      }
+      else
+      {
+        parsed = parseValue();
+      }
+
+      if (!parsed)
+      {
+        return;
+      }
+    }
+  }
+
+  private boolean parseHeader() throws DataDecodingException
+  {
+    int nameLengthLength = varLongLength(HEADER.length);
+    if (nameLengthLength == 0)
+    {
+      return false;
+    }
+    for (int i = 0; i < HEADER.length; i++)
+    {
+      if (_bytes[_start + i] != HEADER[i])
+      {
+        throw new DataDecodingException("Expecting header " + Arrays.toString(HEADER));
+      }
+    }
+    int nameLength = checkedInt(getVarLong(_start + HEADER.length));
+    int length = HEADER.length + nameLengthLength + nameLength;
+    if (available() < length)
+    {
+      return false;
+    }
+    if (nameLength > 0)
+    {
+      String name = new String(_bytes, _start + HEADER.length + nameLengthLength, nameLength, StandardCharsets.UTF_8);
+      _sharedSymbolTable = _symbolTableProvider.getSymbolTable(name);
+      if (_sharedSymbolTable == null)
+      {
+        throw new DataDecodingException("Unknown symbol table " + name);
+      }
+      _sharedSymbolCount = _sharedSymbolTable.size();
+    }
+    consume(length);
+    return true;
+  }
+
+  private boolean parseKey() throws DataDecodingException
+  {
+    int length = parseSymbol(0);
+    if (length == 0)
+    {
+      return false;
+    }
+    consume(length);
+    return true;
+  }
+
+  /**
+   * Parse the symbol at the specified offset from the start into {@link #_currKey}.
+   *
+   * @return the number of bytes of the symbol, or 0 if not available yet.
+   */
+  private int parseSymbol(int offset) throws DataDecodingException
+  {
+    int length = varLongLength(offset);
+    if (length == 0)
+    {
+      return 0;
+    }
+    long value = getVarLong(_start + offset);
+    if ((value & 1) != 0)
+    {
+      int symbolLength = checkedInt(value >>> 1);
+      if (available() < (long) offset + length + symbolLength)
+      {
+        return 0;
+      }
+      _currKey = new String(_bytes, _start + offset + length, symbolLength, StandardCharsets.UTF_8);
+      _symbols.add(_currKey);
+      return length + symbolLength;
+    }
+
+    long id = value >>> 1;
+    if (id < _sharedSymbolCount)
+    {
+      _currKey = _sharedSymbolTable.getSymbol((int) id);
+    }
+    else if (id - _sharedSymbolCount < _symbols.size())
+    {
+      _currKey = _symbols.get((int) (id - _sharedSymbolCount));
+    }
+    else
+    {
+      throw new DataDecodingException("Unknown symbol id " + id);
+    }
+    return length;
+  }
+
+  private boolean parseValue() throws DataDecodingException
+  {
+    if (available() < 1)
+    {
+      return false;
+    }
+
+    byte type = _bytes[_start];
+    switch (type)
+    {
+      case BINARY_NULL:
+        consume(1);
+        addValue(Data.NULL);
+        return true;
+      case BINARY_TRUE:
+        consume(1);
+        addValue(Boolean.TRUE);
+        return true;
+      case BINARY_FALSE:
+        consume(1);
+        addValue(Boolean.FALSE);
+        return true;
+      case BINARY_INT:
+      {
+        int length = varLongLength(1);
+        if (length == 0)
+        {
+          return false;
+        }
+        int value = (int) getVarLong(_start + 1);
+        consume(1 + length);
+        addValue((value >>> 1) ^ -(value & 1));
+        return true;
+      }
+      case BINARY_LONG:
+      {
+        int length = varLongLength(1);
+        if (length == 0)
+        {
+          return false;
+        }
+        long value = getVarLong(_start + 1);
+        consume(1 + length);
+        addValue((value >>> 1) ^ -(value & 1));
+        return true;
+      }
+      case BINARY_FLOAT:
+      {
+        if (available() < 5)
+        {
+          return false;
+        }
+        float value = Float.intBitsToFloat(getInt(_start + 1));
+        consume(5);
+        addValue(value);
+        return true;
+      }
+      case BINARY_DOUBLE:
+      {
+        if (available() < 9)
+        {
+          return false;
+        }
+        double value = Double.longBitsToDouble(getLong(_start + 1));
+        consume(9);
+        addValue(value);
+        return true;
+      }
+      case BINARY_STRING:
+      case BINARY_BYTES:
+      {
+        int length = varLongLength(1);
+        if (length == 0)
+        {
+          return false;
+        }
+        int valueLength = checkedInt(getVarLong(_start + 1));
+        if (available() < 1L + length + valueLength)
+        {
+          return false;
+        }
+        int valueStart = _start + 1 + length;
+        Object value = (type == BINARY_STRING)
+            ? new String(_bytes, valueStart, valueLength, StandardCharsets.UTF_8)
+            : ByteString.copy(_bytes, valueStart, valueLength);
+        consume(1 + length + valueLength);
+        addValue(value);
+        return true;
+      }
+      case BINARY_SYMBOL:
+      {
+        // the symbol is parsed into _currKey, restore the key of the enclosing map once the value is read
+        String key = _currKey;
+        int length = parseSymbol(1);
+        String value = _currKey;
+        _currKey = key;
+        if (length == 0)
+        {
+          return false;
+        }
+        consume(1 + length);
+        addValue(value);
+        return true;
+      }
+      case BINARY_MAP:
+      case BINARY_LIST:
+      {
+        int length = varLongLength(1);
+        if (length == 0)
+        {
+          return false;
+        }
+        int count = checkedInt(getVarLong(_start + 1));
+        consume(1 + length);
+        // do not trust the count to allocate more than the remaining bytes can fill
+        int capacity = Math.min(count, available());
+        DataComplex complex = (type == BINARY_MAP)
+            ? new DataMap((int) (capacity / 0.75f) + 1)
+            : new DataList(capacity);
+        if (_depth == 0)
+        {
+          checkResultClass(complex);
+        }
+        else
+        {
+          addValue(complex);
+        }
+
+        if (count > 0)
+        {
+          push(complex, count);
+        }
+        else if (_depth == 0)
+        {
+          setResult(complex);
+        }
+        return true;
+      }
+      default:
+        throw new DataDecodingException("Illegal element type " + type);
+    }
+  }
+
+  private void push(DataComplex dataComplex, int count)
+  {
+    if (_depth == _stack.length)
+    {
+      _stack = Arrays.copyOf(_stack, _depth * 2);
+      _remaining = Arrays.copyOf(_remaining, _depth * 2);
+    }
+    _stack[_depth] = dataComplex;
+    _remaining[_depth] = count;
+    _depth++;
+  }
+
+  private void pop() throws DataDecodingException
+  {
+    _depth--;
+    DataComplex dataComplex = _stack[_depth];
+    _stack[_depth] = null;
+    if (_depth == 0)
+    {
+      setResult(dataComplex);
+    }
+  }
+
+  private void addValue(Object value) throws DataDecodingException
+  {
+    if (_depth == 0)
+    {
+      throw new DataDecodingException("Expecting a map or a list but got " + value.getClass().getSimpleName());
+    }
+
+    DataComplex curr = _stack[_depth - 1];
+    if (curr instanceof DataList)
+    {
+      CheckedUtil.addWithoutChecking((DataList) curr, value);
+    }
+    else
+    {
+      CheckedUtil.putWithoutChecking((DataMap) curr, _currKey, value);
+      _currKey = null;
+    }
+    _remaining[_depth - 1]--;
+  }
+
+  /**
+   * @return the number of bytes of the variable length integer at the specified offset from the start,
+   *         or 0 if not available yet.
+   */
+  private int varLongLength(int offset) throws DataDecodingException
+  {
+    for (int i = 0; i < MAX_VAR_LONG_LENGTH; i++)
+    {
+      if (available() <= offset + i)
+      {
+        return 0;
+      }
+      if ((_bytes[_start + offset + i] & 0x80) == 0)
+      {
+        return i + 1;
+      }
+    }
+    throw new DataDecodingException("Malformed variable length integer");
+  }
+
+  /**
+   * Read the variable length integer at the specified index, whose length is checked by {@link #varLongLength(int)}.
+   */
+  private long getVarLong(int index)
+  {
+    long value = 0;
+    for (int shift = 0; ; shift += 7)
+    {
+      byte b = _bytes[index++];
+      value |= (long) (b & 0x7f) << shift;
+      if ((b & 0x80) == 0)
+      {
+        return value;
+      }
+    }
+  }
+
+  private static int checkedInt(long value) throws DataDecodingException
+  {
+    if (value < 0 || value > Integer.MAX_VALUE)
+    {
+      throw new DataDecodingException("Length " + value + " is out of range");
+    }
+    return (int) value;
+  }
+}
@@ -0,0 +1,332 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.BinaryDataCodec;
+import com.linkedin.data.codec.SymbolTable;
+import com.linkedin.entitystream.WriteHandle;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_BYTES;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_DOUBLE;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_FALSE;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_FLOAT;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_INT;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_LIST;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_LONG;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_MAP;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_NULL;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_STRING;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_SYMBOL;
+import static com.linkedin.data.codec.BinaryDataCodec.BINARY_TRUE;
+import static com.linkedin.data.codec.BinaryDataCodec.MAX_SYMBOL_LENGTH;
+
+
+/**
+ * An encoder of the {@link BinaryDataCodec} format for a {@link com.linkedin.data.DataComplex} object implemented as a
+ * {@link com.linkedin.entitystream.Writer} writing to an {@link com.linkedin.entitystream.EntityStream} of
+ * {@link ByteString}. The output is the same as {@link BinaryDataCodec}.
+ *
+ * Like {@link PsonDataEncoder}, it keeps the state of the traversal in a stack and only encodes enough data to fill
+ * the next chunk.
+ */
+public class BinaryDataEncoder implements DataEncoder
+{
+  private static final byte[] HEADER = BinaryDataCodec.getHeader();
+  private static final Object MAP = new Object();
+  private static final Object LIST = new Object();
+
+  private final QueueBufferedOutputStream _out;
+  private final Deque<Iterator<?>> _stack;
+  private final Deque<Object> _typeStack;
+  private final SymbolTable _symbolTable;
+  private final Map<String, Integer> _symbols = new HashMap<>();
+  private final byte[] _scratch = new byte[10];
+  private int _nextSymbolId;
+  private WriteHandle<? super ByteString> _writeHandle;
+  private boolean _done;
+
+  private BinaryDataEncoder(SymbolTable symbolTable, int bufferSize)
+  {
+    _out = new QueueBufferedOutputStream(bufferSize);
+    _stack = new ArrayDeque<>();
+    _typeStack = new ArrayDeque<>();
+    _symbolTable = symbolTable;
+    _nextSymbolId = (symbolTable == null) ? 0 : symbolTable.size();
+    _done = false;
+
+    _out.write(HEADER, 0, HEADER.length);
+    if (symbolTable == null)
+    {
+      writeVarLong(0);
+    }
+    else
+    {
+      byte[] name = symbolTable.getName().getBytes(StandardCharsets.UTF_8);
+      writeVarLong(name.length);
+      _out.write(name, 0, name.length);
+    }
+  }
+
+  /**
+   * @param symbolTable provides the shared symbol table used to encode, may be null.
+   */
+  public BinaryDataEncoder(DataMap dataMap, SymbolTable symbolTable, int bufferSize)
+  {
+    this(symbolTable, bufferSize);
+    writeValue(dataMap);
+  }
+
+  /**
+   * @param symbolTable provides the shared symbol table used to encode, may be null.
+   */
+  public BinaryDataEncoder(DataList dataList, SymbolTable symbolTable, int bufferSize)
+  {
+    this(symbolTable, bufferSize);
+    writeValue(dataList);
+  }
+
+  @Override
+  public void onInit(WriteHandle<? super ByteString> wh)
+  {
+    _writeHandle = wh;
+    // empty root collections are complete after the header
+    _done = _stack.isEmpty();
+  }
+
+  @Override
+  public void onWritePossible()
+  {
+    while (_writeHandle.remaining() > 0)
+    {
+      if (_done)
+      {
+        if (_out.isEmpty())
+        {
+          _writeHandle.done();
+          break;
+        }
+        else
+        {
+          _writeHandle.write(_out.getBytes());
+        }
+      }
+      else if (_out.isFull())
+      {
+        _writeHandle.write(_out.getBytes());
+      }
+      else
+      {
+        try
+        {
+          generate();
+        }
+        catch (Exception e)
+        {
+          _writeHandle.error(e);
+          break;
+        }
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void generate()
+  {
+    while (!_out.isFull())
+    {
+      Iterator<?> curr = _stack.peek();
+
+      if (curr.hasNext())
+      {
+        Object currItem = curr.next();
+        if (_typeStack.peek() == MAP)
+        {
+          Map.Entry<String, ?> entry = (Map.Entry<String, ?>) currItem;
+          writeSymbol(entry.getKey());
+          writeValue(entry.getValue());
+        }
+        else
+        {
+          writeValue(currItem);
+        }
+      }
+      else
+      {
+        // collections are encoded with their count, there is no end marker
+        _stack.pop();
+        _typeStack.pop();
+
+        _done = _stack.isEmpty();
+        if (_done)
+        {
+          break;
+        }
+      }
+    }
+  }
+
+  private void writeValue(Object value)
+  {
+    /* Expecting string and integer to be most popular */
+    Class<?> clas = value.getClass();
+    if (clas == String.class)
+    {
+      String string = (String) value;
+      if (string.length() <= MAX_SYMBOL_LENGTH)
+      {
+        _out.write(BINARY_SYMBOL);
+        writeSymbol(string);
+      }
+      else
+      {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        _out.write(BINARY_STRING);
+        writeVarLong(bytes.length);
+        _out.write(bytes, 0, bytes.length);
+      }
+    }
+    else if (clas == Integer.class)
+    {
+      int i = (Integer) value;
+      _out.write(BINARY_INT);
+      writeVarLong(((i << 1) ^ (i >> 31)) & 0xffffffffL);
+    }
+    else if (clas == DataMap.class)
+    {
+      DataMap map = (DataMap) value;
+      _out.write(BINARY_MAP);
+      writeVarLong(map.size());
+      if (!map.isEmpty())
+      {
+        _stack.push(map.entrySet().iterator());
+        _typeStack.push(MAP);
+      }
+    }
+    else if (clas == DataList.class)
+    {
+      DataList list = (DataList) value;
+      _out.write(BINARY_LIST);
+      writeVarLong(list.size());
+      if (!list.isEmpty())
+      {
+        _stack.push(list.iterator());
+        _typeStack.push(LIST);
+      }
+    }
+    else if (clas == Boolean.class)
+    {
+      _out.write((Boolean) value ? BINARY_TRUE : BINARY_FALSE);
+    }
+    else if (clas == Long.class)
+    {
+      long l = (Long) value;
+      _out.write(BINARY_LONG);
+      writeVarLong((l << 1) ^ (l >> 63));
+    }
+    else if (clas == Float.class)
+    {
+      _out.write(BINARY_FLOAT);
+      writeFixed(Float.floatToRawIntBits((Float) value), 4);
+    }
+    else if (clas == Double.class)
+    {
+      _out.write(BINARY_DOUBLE);
+      writeFixed(Double.doubleToRawLongBits((Double) value), 8);
+    }
+    else if (clas == ByteString.class)
+    {
+      ByteString byteString = (ByteString) value;
+      _out.write(BINARY_BYTES);
+      writeVarLong(byteString.length());
+      for (ByteString chunk : byteString.decompose())
+      {
+        byte[] bytes = chunk.copyBytes();
+        _out.write(bytes, 0, bytes.length);
+      }
+    }
+    else if (value == Data.NULL)
+    {
+      _out.write(BINARY_NULL);
+    }
+    else
+    {
+      throw new IllegalArgumentException("Unexpected value type " + clas + " for value " + value);
+    }
+  }
+
+  private void writeSymbol(String symbol)
+  {
+    int id = (_symbolTable == null) ? -1 : _symbolTable.getSymbolId(symbol);
+    if (id < 0)
+    {
+      Integer found = _symbols.get(symbol);
+      if (found == null)
+      {
+        _symbols.put(symbol, _nextSymbolId++);
+        byte[] bytes = symbol.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(((long) bytes.length << 1) | 1);
+        _out.write(bytes, 0, bytes.length);
+        return;
+      }
+      id = found;
+    }
+    writeVarLong((long) id << 1);
+  }
+
+  /**
+   * Write an unsigned variable length integer, see {@link BinaryDataCodec}.
+   */
+  private void writeVarLong(long value)
+  {
+    int length = 0;
+    while ((value & ~0x7fL) != 0)
+    {
+      _scratch[length++] = (byte) ((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    _scratch[length++] = (byte) value;
+    _out.write(_scratch, 0, length);
+  }
+
+  /**
+   * Write the specified number of low order bytes of the value in little endian order.
+   */
+  private void writeFixed(long value, int size)
+  {
+    for (int i = 0; i < size; i++)
+    {
+      _scratch[i] = (byte) (value >>> (8 * i));
+    }
+    _out.write(_scratch, 0, size);
+  }
+
+  @Override
+  public void onAbort(Throwable e)
+  {
+  }
+}
@@ -0,0 +1,89 @@
+/*
+    Copyright (c) 2018 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.SymbolTable;
+import com.linkedin.data.codec.SymbolTableProvider;
+import com.linkedin.entitystream.EntityStream;
+import com.linkedin.entitystream.EntityStreams;
+
+import java.util.concurrent.CompletionStage;
+
+
+/**
+ * A {@link StreamDataCodec} for the binary format of {@link com.linkedin.data.codec.BinaryDataCodec}. The entity is
+ * encoded and decoded incrementally, one chunk at a time.
+ */
+public class BinaryStreamDataCodec implements StreamDataCodec
+{
+  private final int _bufferSize;
+  private final SymbolTableProvider _symbolTableProvider;
+  private final SymbolTable _symbolTable;
+
+  /**
+   * @param symbolTableProvider provides the shared symbol tables named by the decoded messages.
+   * @param symbolTable provides the shared symbol table used to encode, may be null.
+   */
+  public BinaryStreamDataCodec(int bufferSize, SymbolTableProvider symbolTableProvider, SymbolTable symbolTable)
+  {
+    _bufferSize = bufferSize;
+    _symbolTableProvider = symbolTableProvider;
+    _symbolTable = symbolTable;
+  }
+
+  /**
+   * @return the shared symbol table used to encode, or null if none.
+   */
+  public SymbolTable getSymbolTable()
+  {
+    return _symbolTable;
+  }
+
+  @Override
+  public CompletionStage<DataMap> decodeMap(EntityStream<ByteString> entityStream)
+  {
+    BinaryDataDecoder<DataMap> decoder = new BinaryDataDecoder<>(DataMap.class, _symbolTableProvider);
+    entityStream.setReader(decoder);
+    return decoder.getResult();
+  }
+
+  @Override
+  public CompletionStage<DataList> decodeList(EntityStream<ByteString> entityStream)
+  {
+    BinaryDataDecoder<DataList> decoder = new BinaryDataDecoder<>(DataList.class, _symbolTableProvider);
+    entityStream.setReader(decoder);
+    return decoder.getResult();
+  }
+
+  @Override
+  public EntityStream<ByteString> encodeMap(DataMap map)
+  {
+    BinaryDataEncoder encoder = new BinaryDataEncoder(map, _symbolTable, _bufferSize);
+    return EntityStreams.newEntityStream(encoder);
+  }
+
+  @Override
+  public EntityStream<ByteString> encodeList(DataList list)
+  {
+    BinaryDataEncoder encoder = new BinaryDataEncoder(list, _symbolTable, _bufferSize);
+    return EntityStreams.newEntityStream(encoder);
+  }
+}
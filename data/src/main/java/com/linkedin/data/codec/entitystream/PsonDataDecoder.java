@@ -0,0 +1,442 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.DataDecodingException;
+import com.linkedin.data.codec.PsonDataCodec;
+import com.linkedin.data.collections.CheckedUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import static com.linkedin.data.codec.PsonDataCodec.PSON_ARRAY;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_ARRAY_EMPTY;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_ARRAY_WITH_COUNT;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_BINARY;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_BOOLEAN;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_DOUBLE;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_FLOAT;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_INT;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_INVALID_KEY_INDEX;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_LAST;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_LONG;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_NULL;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_OBJECT;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_OBJECT_EMPTY;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_OBJECT_WITH_COUNT;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_STRING;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_STRING_EMPTY;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_STRING_WITH_LENGTH_2;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_STRING_WITH_LENGTH_4;
+
+
+/**
+ * A PSON decoder for a {@link DataComplex} object implemented as a {@link com.linkedin.entitystream.Reader} reading
+ * from an {@link com.linkedin.entitystream.EntityStream} of ByteString. It decodes everything {@link PsonDataCodec}
+ * can encode, whatever the options.
+ *
+ * Because the raw bytes are pushed to the decoder, it keeps the partially built data structure in a stack. Only the
+ * bytes of the element that is split across chunks are retained between chunks.
+ */
+public class PsonDataDecoder<T extends DataComplex> extends AbstractDataDecoder<T>
+{
+  private static final byte[] HEADER = PsonDataCodec.getHeader();
+  private static final int MAX_VAR_INT_LENGTH = 5;
+
+  private boolean _headerParsed;
+  private final Deque<DataComplex> _stack;
+  private final Deque<Integer> _expectedSizes;
+  private boolean _isCurrList;
+  private String _currKey;
+  private String[] _keyArray = new String[100];
+  private int _expectedKeyIndex = 1;
+
+  public PsonDataDecoder(Class<T> resultClass)
+  {
+    super(resultClass);
+    _stack = new ArrayDeque<>();
+    _expectedSizes = new ArrayDeque<>();
+  }
+
+  @Override
+  void parse() throws DataDecodingException
+  {
+    if (!_headerParsed)
+    {
+      if (available() < HEADER.length)
+      {
+        return;
+      }
+      for (int i = 0; i < HEADER.length; i++)
+      {
+        if (_bytes[_start + i] != HEADER[i])
+        {
+          throw new DataDecodingException("Expecting PSON header");
+        }
+      }
+      consume(HEADER.length);
+      _headerParsed = true;
+    }
+
+    while (!hasResult())
+    {
+      boolean parsed = (_stack.isEmpty() || _isCurrList || _currKey != null) ? parseValue() : parseKey();
+      if (!parsed)
+      {
+        return;
+      }
+    }
+  }
+
+  private boolean parseKey() throws DataDecodingException
+  {
+    int length = varIntLength(0);
+    if (length == 0)
+    {
+      return false;
+    }
+    int keyIndex = getVarInt(_start);
+    if (keyIndex == PSON_INVALID_KEY_INDEX)
+    {
+      consume(length);
+      pop();
+    }
+    else if (keyIndex < 0)
+    {
+      int keyEnd = findZero(length);
+      if (keyEnd < 0)
+      {
+        return false;
+      }
+      keyIndex = -keyIndex;
+      if (keyIndex != _expectedKeyIndex)
+      {
+        throw new DataDecodingException("Received new key index " + keyIndex + " but expecting " + _expectedKeyIndex);
+      }
+      _expectedKeyIndex++;
+      if (keyIndex >= _keyArray.length)
+      {
+        _keyArray = Arrays.copyOf(_keyArray, _keyArray.length * 2);
+      }
+      int keyStart = _start + length;
+      _currKey = new String(_bytes, keyStart, keyEnd - keyStart, StandardCharsets.UTF_8);
+      _keyArray[keyIndex] = _currKey;
+      consume(keyEnd + 1 - _start);
+    }
+    else
+    {
+      if (keyIndex >= _expectedKeyIndex)
+      {
+        throw new DataDecodingException("Received unknown key index " + keyIndex);
+      }
+      _currKey = _keyArray[keyIndex];
+      consume(length);
+    }
+    return true;
+  }
+
+  private boolean parseValue() throws DataDecodingException
+  {
+    if (available() < 1)
+    {
+      return false;
+    }
+
+    byte psonType = _bytes[_start];
+    switch (psonType)
+    {
+      case PSON_OBJECT_EMPTY:
+        consume(1);
+        addValue(new DataMap());
+        return true;
+      case PSON_OBJECT:
+        consume(1);
+        push(new DataMap(), -1);
+        return true;
+      case PSON_OBJECT_WITH_COUNT:
+      {
+        int length = varIntLength(1);
+        if (length == 0)
+        {
+          return false;
+        }
+        int size = getVarUnsignedInt(_start + 1);
+        consume(1 + length);
+        push(new DataMap((int) ((size * 1.5) + 0.5)), size);
+        return true;
+      }
+      case PSON_ARRAY_EMPTY:
+        consume(1);
+        addValue(new DataList());
+        return true;
+      case PSON_ARRAY:
+        consume(1);
+        push(new DataList(), -1);
+        return true;
+      case PSON_ARRAY_WITH_COUNT:
+      {
+        int length = varIntLength(1);
+        if (length == 0)
+        {
+          return false;
+        }
+        int size = getVarUnsignedInt(_start + 1);
+        consume(1 + length);
+        push(new DataList(size), size);
+        return true;
+      }
+      case PSON_INT:
+      {
+        if (available() < 5)
+        {
+          return false;
+        }
+        int value = getInt(_start + 1);
+        consume(5);
+        addValue(value);
+        return true;
+      }
+      case PSON_LONG:
+      {
+        if (available() < 9)
+        {
+          return false;
+        }
+        long value = getLong(_start + 1);
+        consume(9);
+        addValue(value);
+        return true;
+      }
+      case PSON_FLOAT:
+      {
+        if (available() < 5)
+        {
+          return false;
+        }
+        float value = Float.intBitsToFloat(getInt(_start + 1));
+        consume(5);
+        addValue(value);
+        return true;
+      }
+      case PSON_DOUBLE:
+      {
+        if (available() < 9)
+        {
+          return false;
+        }
+        double value = Double.longBitsToDouble(getLong(_start + 1));
+        consume(9);
+        addValue(value);
+        return true;
+      }
+      case PSON_STRING_EMPTY:
+        consume(1);
+        addValue("");
+        return true;
+      case PSON_STRING:
+      {
+        int stringEnd = findZero(1);
+        if (stringEnd < 0)
+        {
+          return false;
+        }
+        String value = new String(_bytes, _start + 1, stringEnd - _start - 1, StandardCharsets.UTF_8);
+        consume(stringEnd + 1 - _start);
+        addValue(value);
+        return true;
+      }
+      case PSON_STRING_WITH_LENGTH_4:
+        return parseStringWithLength(4);
+      case PSON_STRING_WITH_LENGTH_2:
+        return parseStringWithLength(2);
+      case PSON_BOOLEAN:
+      {
+        if (available() < 2)
+        {
+          return false;
+        }
+        boolean value = _bytes[_start + 1] != 0;
+        consume(2);
+        addValue(value);
+        return true;
+      }
+      case PSON_BINARY:
+      {
+        if (available() < 5)
+        {
+          return false;
+        }
+        int length = getInt(_start + 1);
+        if (length < 0)
+        {
+          throw new DataDecodingException("Binary size should not be negative");
+        }
+        if (available() < 5L + length)
+        {
+          return false;
+        }
+        ByteString value = ByteString.copy(_bytes, _start + 5, length);
+        consume(5 + length);
+        addValue(value);
+        return true;
+      }
+      case PSON_NULL:
+        consume(1);
+        addValue(Data.NULL);
+        return true;
+      case PSON_LAST:
+        if (_stack.isEmpty() || !_isCurrList)
+        {
+          throw new DataDecodingException("Unexpected end of array");
+        }
+        consume(1);
+        pop();
+        return true;
+      default:
+        throw new DataDecodingException("Illegal PSON element code " + psonType);
+    }
+  }
+
+  private boolean parseStringWithLength(int lengthSize) throws DataDecodingException
+  {
+    if (available() < 1 + lengthSize)
+    {
+      return false;
+    }
+    int length = (lengthSize == 4) ? getInt(_start + 1) : getShort(_start + 1);
+    if (length <= 0)
+    {
+      throw new DataDecodingException("String size should be positive");
+    }
+    if (available() < 1L + lengthSize + length)
+    {
+      return false;
+    }
+    int stringStart = _start + 1 + lengthSize;
+    if (_bytes[stringStart + length - 1] != 0)
+    {
+      throw new DataDecodingException("C string not terminated with null");
+    }
+    String value = new String(_bytes, stringStart, length - 1, StandardCharsets.UTF_8);
+    consume(1 + lengthSize + length);
+    addValue(value);
+    return true;
+  }
+
+  private void push(DataComplex dataComplex, int expectedSize) throws DataDecodingException
+  {
+    if (_stack.isEmpty())
+    {
+      checkResultClass(dataComplex);
+    }
+    else
+    {
+      addValue(dataComplex);
+    }
+    _stack.push(dataComplex);
+    _expectedSizes.push(expectedSize);
+    _isCurrList = dataComplex instanceof DataList;
+  }
+
+  private void pop() throws DataDecodingException
+  {
+    DataComplex dataComplex = _stack.pop();
+    int expectedSize = _expectedSizes.pop();
+    int size = (dataComplex instanceof DataList) ? ((DataList) dataComplex).size() : ((DataMap) dataComplex).size();
+    if (expectedSize >= 0 && size != expectedSize)
+    {
+      throw new DataDecodingException("Actual number of items (" + size + ") is not the same as expected (" + expectedSize + ")");
+    }
+
+    if (_stack.isEmpty())
+    {
+      setResult(dataComplex);
+    }
+    else
+    {
+      _isCurrList = _stack.peek() instanceof DataList;
+    }
+  }
+
+  private void addValue(Object value) throws DataDecodingException
+  {
+    if (_stack.isEmpty())
+    {
+      // only empty collections are added at the root
+      setResult(value);
+    }
+    else if (_isCurrList)
+    {
+      CheckedUtil.addWithoutChecking((DataList) _stack.peek(), value);
+    }
+    else
+    {
+      CheckedUtil.putWithoutChecking((DataMap) _stack.peek(), _currKey, value);
+      _currKey = null;
+    }
+  }
+
+  /**
+   * @return the number of bytes of the variable length integer at the specified offset from the start,
+   *         or 0 if not available yet, see {@link com.linkedin.data.codec.BufferChain#getVarUnsignedInt()}.
+   */
+  private int varIntLength(int offset) throws DataDecodingException
+  {
+    for (int length = 1; length <= MAX_VAR_INT_LENGTH; length++)
+    {
+      int index = _start + offset + length - 1;
+      if (index >= _end)
+      {
+        return 0;
+      }
+      // the last byte has the high bit set
+      if ((_bytes[index] & 0x80) != 0)
+      {
+        return length;
+      }
+    }
+    throw new DataDecodingException("Variable length integer is longer than " + MAX_VAR_INT_LENGTH + " bytes");
+  }
+
+  private int getVarUnsignedInt(int index)
+  {
+    int value = 0;
+    int shift = 0;
+    byte b;
+    do
+    {
+      b = _bytes[index++];
+      value |= (b & 0x7f) << shift;
+      shift += 7;
+    }
+    while ((b & 0x80) == 0);
+    return value;
+  }
+
+  private int getVarInt(int index)
+  {
+    int value = getVarUnsignedInt(index);
+    return (value >> 1) ^ (-(value & 1));
+  }
+}
@@ -0,0 +1,348 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.PsonDataCodec;
+import com.linkedin.entitystream.WriteHandle;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static com.linkedin.data.codec.PsonDataCodec.PSON_ARRAY;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_ARRAY_EMPTY;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_BINARY;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_BOOLEAN;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_DOUBLE;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_FLOAT;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_INT;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_INVALID_KEY_INDEX;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_LAST;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_LONG;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_NULL;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_OBJECT;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_OBJECT_EMPTY;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_STRING_EMPTY;
+import static com.linkedin.data.codec.PsonDataCodec.PSON_STRING_WITH_LENGTH_4;
+
+
+/**
+ * A PSON encoder for a {@link com.linkedin.data.DataComplex} object implemented as a {@link com.linkedin.entitystream.Writer}
+ * writing to an {@link com.linkedin.entitystream.EntityStream} of {@link ByteString}. The output is the same as
+ * {@link PsonDataCodec} with its default options, i.e. strings are encoded with their length and collections without
+ * their count.
+ *
+ * Like {@link JacksonJsonDataEncoder}, the bytes are pulled from the encoder asynchronously, so it keeps the state of
+ * the traversal in a stack and only encodes enough data to fill the next chunk.
+ */
+public class PsonDataEncoder implements DataEncoder
+{
+  private static final byte[] HEADER = PsonDataCodec.getHeader();
+  private static final Object MAP = new Object();
+  private static final Object LIST = new Object();
+
+  private final QueueBufferedOutputStream _out;
+  private final Deque<Iterator<?>> _stack;
+  private final Deque<Object> _typeStack;
+  private final Map<String, Integer> _keyMap = new HashMap<>();
+  private final byte[] _scratch = new byte[8];
+  private int _keyIndex = 1;
+  private WriteHandle<? super ByteString> _writeHandle;
+  private boolean _done;
+
+  private PsonDataEncoder(int bufferSize)
+  {
+    _out = new QueueBufferedOutputStream(bufferSize);
+    _stack = new ArrayDeque<>();
+    _typeStack = new ArrayDeque<>();
+    _done = false;
+  }
+
+  public PsonDataEncoder(DataMap dataMap, int bufferSize)
+  {
+    this(bufferSize);
+
+    _out.write(HEADER, 0, HEADER.length);
+    writeValue(dataMap);
+  }
+
+  public PsonDataEncoder(DataList dataList, int bufferSize)
+  {
+    this(bufferSize);
+
+    _out.write(HEADER, 0, HEADER.length);
+    writeValue(dataList);
+  }
+
+  @Override
+  public void onInit(WriteHandle<? super ByteString> wh)
+  {
+    _writeHandle = wh;
+    // empty root collections are complete after the header
+    _done = _stack.isEmpty();
+  }
+
+  @Override
+  public void onWritePossible()
+  {
+    while (_writeHandle.remaining() > 0)
+    {
+      if (_done)
+      {
+        if (_out.isEmpty())
+        {
+          _writeHandle.done();
+          break;
+        }
+        else
+        {
+          _writeHandle.write(_out.getBytes());
+        }
+      }
+      else if (_out.isFull())
+      {
+        _writeHandle.write(_out.getBytes());
+      }
+      else
+      {
+        try
+        {
+          generate();
+        }
+        catch (Exception e)
+        {
+          _writeHandle.error(e);
+          break;
+        }
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void generate()
+  {
+    while (!_out.isFull())
+    {
+      Iterator<?> curr = _stack.peek();
+
+      if (curr.hasNext())
+      {
+        Object currItem = curr.next();
+        if (_typeStack.peek() == MAP)
+        {
+          Map.Entry<String, ?> entry = (Map.Entry<String, ?>) currItem;
+          writeKey(entry.getKey());
+          writeValue(entry.getValue());
+        }
+        else
+        {
+          writeValue(currItem);
+        }
+      }
+      else
+      {
+        _stack.pop();
+        Object type = _typeStack.pop();
+
+        if (type == MAP)
+        {
+          writeVarInt(PSON_INVALID_KEY_INDEX);
+        }
+        else
+        {
+          _out.write(PSON_LAST);
+        }
+
+        _done = _stack.isEmpty();
+        if (_done)
+        {
+          break;
+        }
+      }
+    }
+  }
+
+  private void writeKey(String key)
+  {
+    Integer found = _keyMap.get(key);
+    if (found == null)
+    {
+      _keyMap.put(key, _keyIndex);
+      writeVarInt(-_keyIndex);
+      byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+      _out.write(bytes, 0, bytes.length);
+      _out.write(0);
+      _keyIndex++;
+    }
+    else
+    {
+      writeVarInt(found);
+    }
+  }
+
+  private void writeValue(Object value)
+  {
+    /* Expecting string and integer to be most popular */
+    Class<?> clas = value.getClass();
+    if (clas == String.class)
+    {
+      writeString((String) value);
+    }
+    else if (clas == Integer.class)
+    {
+      _out.write(PSON_INT);
+      writeInt((Integer) value);
+    }
+    else if (clas == DataMap.class)
+    {
+      DataMap map = (DataMap) value;
+      if (map.isEmpty())
+      {
+        _out.write(PSON_OBJECT_EMPTY);
+      }
+      else
+      {
+        _out.write(PSON_OBJECT);
+        _stack.push(map.entrySet().iterator());
+        _typeStack.push(MAP);
+      }
+    }
+    else if (clas == DataList.class)
+    {
+      DataList list = (DataList) value;
+      if (list.isEmpty())
+      {
+        _out.write(PSON_ARRAY_EMPTY);
+      }
+      else
+      {
+        _out.write(PSON_ARRAY);
+        _stack.push(list.iterator());
+        _typeStack.push(LIST);
+      }
+    }
+    else if (clas == Boolean.class)
+    {
+      _out.write(PSON_BOOLEAN);
+      _out.write((Boolean) value ? 1 : 0);
+    }
+    else if (clas == Long.class)
+    {
+      _out.write(PSON_LONG);
+      writeLong((Long) value);
+    }
+    else if (clas == Float.class)
+    {
+      _out.write(PSON_FLOAT);
+      writeInt(Float.floatToRawIntBits((Float) value));
+    }
+    else if (clas == Double.class)
+    {
+      _out.write(PSON_DOUBLE);
+      writeLong(Double.doubleToRawLongBits((Double) value));
+    }
+    else if (clas == ByteString.class)
+    {
+      ByteString byteString = (ByteString) value;
+      _out.write(PSON_BINARY);
+      writeInt(byteString.length());
+      for (ByteString chunk : byteString.decompose())
+      {
+        byte[] bytes = chunk.copyBytes();
+        _out.write(bytes, 0, bytes.length);
+      }
+    }
+    else if (value == Data.NULL)
+    {
+      _out.write(PSON_NULL);
+    }
+    else
+    {
+      throw new IllegalArgumentException("Unexpected value type " + clas + " for value " + value);
+    }
+  }
+
+  private void writeString(String value)
+  {
+    if (value.isEmpty())
+    {
+      _out.write(PSON_STRING_EMPTY);
+    }
+    else
+    {
+      // the length includes the terminating zero byte
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      _out.write(PSON_STRING_WITH_LENGTH_4);
+      writeInt(bytes.length + 1);
+      _out.write(bytes, 0, bytes.length);
+      _out.write(0);
+    }
+  }
+
+  /**
+   * Write a little endian integer.
+   */
+  private void writeInt(int value)
+  {
+    for (int i = 0; i < 4; i++)
+    {
+      _scratch[i] = (byte) (value >>> (8 * i));
+    }
+    _out.write(_scratch, 0, 4);
+  }
+
+  /**
+   * Write a little endian long.
+   */
+  private void writeLong(long value)
+  {
+    for (int i = 0; i < 8; i++)
+    {
+      _scratch[i] = (byte) (value >>> (8 * i));
+    }
+    _out.write(_scratch, 0, 8);
+  }
+
+  /**
+   * Write a ZigZag variable length encoded integer, see {@link com.linkedin.data.codec.BufferChain#putVarInt(int)}.
+   */
+  private void writeVarInt(int value)
+  {
+    int z = (value << 1) ^ (value >> 31);
+    int length = 0;
+    while ((z & 0xffffff80) != 0)
+    {
+      _scratch[length++] = (byte) (z & 0x7f);
+      z >>>= 7;
+    }
+    // the last byte has the high bit set
+    _scratch[length++] = (byte) ((z & 0x7f) | 0x80);
+    _out.write(_scratch, 0, length);
+  }
+
+  @Override
+  public void onAbort(Throwable e)
+  {
+  }
+}
@@ -32,7 +32,9 @@ import java.util.Set;
  *
  * The underlying map implementation is {@link HashMap}. It delegates
  * map operations to the underlying {@link HashMap} associated
- * with this {@link CheckedMap}.
+ * with this {@link CheckedMap}. Sub-classes whose keys are always strings
+ * may instead choose a compact open-addressing implementation, see
+ * {@link #CheckedMap(int, MapChecker, boolean)}.
  * <P>
  *
  * A {@link CheckedMap} may be marked read-only to disable mutations,
@@ -152,6 +154,26 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
     _map = new HashMap<K,V>(initialCapacity, loadFactor);
   }
 
+  /**
+   * Construct a map with the specified expected size and {@link MapChecker},
+   * optionally backed by a compact open-addressing table instead of a {@link HashMap}.
+   * <p>
+   *
+   * The compact table stores keys and values in parallel arrays and does not allocate
+   * a node per entry. It only accepts {@link String} keys and is intended for
+   * sub-classes that always use string keys, such as records decoded from the wire.
+   *
+   * @param expectedSize provides the number of entries the map should hold without resizing.
+   * @param checker provides the {@link MapChecker}.
+   * @param compact if true, use the compact open-addressing table, otherwise use a {@link HashMap}.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  protected CheckedMap(int expectedSize, MapChecker<K,V> checker, boolean compact)
+  {
+    _checker = checker;
+    _map = compact ? (Map<K,V>) new CompactStringMap(expectedSize) : new HashMap<K,V>(expectedSize);
+  }
+
   @Override
   public void clear()
   {
@@ -160,11 +182,18 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   }
 
   @Override
-  @SuppressWarnings("unchecked")
+  @SuppressWarnings({"unchecked", "rawtypes"})
   public CheckedMap<K,V> clone() throws CloneNotSupportedException
   {
     CheckedMap<K,V> o = (CheckedMap<K,V>) super.clone();
-    o._map = (HashMap<K,V>) _map.clone();
+    if (_map instanceof CompactStringMap)
+    {
+      o._map = ((CompactStringMap) _map).clone();
+    }
+    else
+    {
+      o._map = (HashMap<K,V>) ((HashMap<K,V>) _map).clone();
+    }
     o._readOnly = false;
     return o;
   }
@@ -396,5 +425,5 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
 
   private boolean _readOnly = false;
   protected MapChecker<K,V> _checker;
-  private HashMap<K,V> _map;
+  private Map<K,V> _map;
 }
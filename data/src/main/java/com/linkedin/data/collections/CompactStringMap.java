@@ -0,0 +1,622 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.collections;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Compact open-addressing map specialized for {@link String} keys.
+ * <p>
+ *
+ * Keys and values are stored in two parallel arrays indexed by the same slot,
+ * collisions are resolved by linear probing and removals use backward-shift
+ * deletion so that no tombstones are left behind. Unlike {@link java.util.HashMap},
+ * no per-entry node is allocated, which makes this map considerably cheaper for
+ * the small records (tens of fields) that dominate decoded Pegasus data.
+ * <p>
+ *
+ * Lookups first compare keys by identity, which is the common case when keys are
+ * shared by a codec's key table or by generated record templates, and then fall back
+ * to comparing the cached {@link String#hashCode()} followed by {@link String#equals(Object)}.
+ * <p>
+ *
+ * This map does not allow null keys. The {@link #entrySet}, {@link #keySet} and
+ * {@link #values} views are read-only, which matches how {@link CheckedMap} exposes
+ * its underlying map. This class is not thread-safe.
+ *
+ * @param <V> the type of the values.
+ */
+final class CompactStringMap<V> extends AbstractMap<String,V> implements Cloneable
+{
+  private static final int MIN_CAPACITY = 4;
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  /**
+   * Construct an empty map with default initial capacity.
+   */
+  CompactStringMap()
+  {
+    this(MIN_CAPACITY);
+  }
+
+  /**
+   * Construct an empty map that can hold the specified number of entries without resizing.
+   *
+   * @param expectedSize provides the expected number of entries.
+   */
+  CompactStringMap(int expectedSize)
+  {
+    if (expectedSize < 0)
+    {
+      throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+    }
+    int capacity = capacityFor(expectedSize);
+    _keys = new String[capacity];
+    _values = new Object[capacity];
+    _threshold = thresholdFor(capacity);
+  }
+
+  /**
+   * Construct a map with the entries of the specified map.
+   *
+   * @param map provides the initial entries of the new map.
+   */
+  CompactStringMap(Map<? extends String, ? extends V> map)
+  {
+    this(map.size());
+    putAll(map);
+  }
+
+  @Override
+  public int size()
+  {
+    return _size;
+  }
+
+  @Override
+  public boolean isEmpty()
+  {
+    return _size == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key)
+  {
+    return key instanceof String && indexOf((String) key) >= 0;
+  }
+
+  @Override
+  public boolean containsValue(Object value)
+  {
+    final String[] keys = _keys;
+    final Object[] values = _values;
+    for (int i = 0; i < keys.length; i++)
+    {
+      if (keys[i] != null && (value == null ? values[i] == null : value.equals(values[i])))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key)
+  {
+    if (key instanceof String)
+    {
+      int index = indexOf((String) key);
+      if (index >= 0)
+      {
+        return (V) _values[index];
+      }
+    }
+    return null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V put(String key, V value)
+  {
+    if (key == null)
+    {
+      throw new NullPointerException("Key cannot be null");
+    }
+
+    final int hash = key.hashCode();
+    final String[] keys = _keys;
+    final int mask = keys.length - 1;
+    int index = spread(hash) & mask;
+    String k;
+    while ((k = keys[index]) != null)
+    {
+      if (k == key || (k.hashCode() == hash && k.equals(key)))
+      {
+        V previous = (V) _values[index];
+        _values[index] = value;
+        return previous;
+      }
+      index = (index + 1) & mask;
+    }
+
+    keys[index] = key;
+    _values[index] = value;
+    _modCount++;
+    if (++_size > _threshold)
+    {
+      resize(keys.length << 1);
+    }
+    return null;
+  }
+
+  @Override
+  public void putAll(Map<? extends String, ? extends V> map)
+  {
+    int newSize = _size + map.size();
+    if (newSize > _threshold)
+    {
+      resize(capacityFor(newSize));
+    }
+    for (Map.Entry<? extends String, ? extends V> e : map.entrySet())
+    {
+      put(e.getKey(), e.getValue());
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(Object key)
+  {
+    if (!(key instanceof String))
+    {
+      return null;
+    }
+    int index = indexOf((String) key);
+    if (index < 0)
+    {
+      return null;
+    }
+    V previous = (V) _values[index];
+    deleteSlot(index);
+    return previous;
+  }
+
+  @Override
+  public void clear()
+  {
+    if (_size > 0)
+    {
+      Arrays.fill(_keys, null);
+      Arrays.fill(_values, null);
+      _size = 0;
+      _modCount++;
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public CompactStringMap<V> clone()
+  {
+    try
+    {
+      CompactStringMap<V> o = (CompactStringMap<V>) super.clone();
+      o._keys = _keys.clone();
+      o._values = _values.clone();
+      o._entrySet = null;
+      o._keySet = null;
+      o._valuesView = null;
+      o._modCount = 0;
+      return o;
+    }
+    catch (CloneNotSupportedException e)
+    {
+      throw new AssertionError(e);
+    }
+  }
+
+  @Override
+  public int hashCode()
+  {
+    int h = 0;
+    final String[] keys = _keys;
+    final Object[] values = _values;
+    for (int i = 0; i < keys.length; i++)
+    {
+      if (keys[i] != null)
+      {
+        Object value = values[i];
+        h += keys[i].hashCode() ^ (value == null ? 0 : value.hashCode());
+      }
+    }
+    return h;
+  }
+
+  @Override
+  public boolean equals(Object object)
+  {
+    if (object == this)
+    {
+      return true;
+    }
+    if (!(object instanceof Map))
+    {
+      return false;
+    }
+    Map<?,?> other = (Map<?,?>) object;
+    if (other.size() != _size)
+    {
+      return false;
+    }
+    final String[] keys = _keys;
+    final Object[] values = _values;
+    try
+    {
+      for (int i = 0; i < keys.length; i++)
+      {
+        String key = keys[i];
+        if (key != null)
+        {
+          Object value = values[i];
+          if (value == null)
+          {
+            if (other.get(key) != null || !other.containsKey(key))
+            {
+              return false;
+            }
+          }
+          else if (!value.equals(other.get(key)))
+          {
+            return false;
+          }
+        }
+      }
+    }
+    catch (ClassCastException | NullPointerException e)
+    {
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Return read-only set view of the entries contained in this map.
+   *
+   * @return read-only set view of the entries contained in this map.
+   */
+  @Override
+  public Set<Map.Entry<String,V>> entrySet()
+  {
+    Set<Map.Entry<String,V>> entrySet = _entrySet;
+    if (entrySet == null)
+    {
+      entrySet = new AbstractSet<Map.Entry<String,V>>()
+      {
+        @Override
+        public Iterator<Map.Entry<String,V>> iterator()
+        {
+          return new SlotIterator<Map.Entry<String,V>>()
+          {
+            @Override
+            @SuppressWarnings("unchecked")
+            Map.Entry<String,V> element(int index)
+            {
+              return new SimpleImmutableEntry<String,V>(_keys[index], (V) _values[index]);
+            }
+          };
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+          if (!(o instanceof Map.Entry))
+          {
+            return false;
+          }
+          Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+          Object key = e.getKey();
+          if (!(key instanceof String))
+          {
+            return false;
+          }
+          int index = indexOf((String) key);
+          if (index < 0)
+          {
+            return false;
+          }
+          Object value = _values[index];
+          return value == null ? e.getValue() == null : value.equals(e.getValue());
+        }
+
+        @Override
+        public int size()
+        {
+          return _size;
+        }
+      };
+      _entrySet = entrySet;
+    }
+    return entrySet;
+  }
+
+  /**
+   * Return read-only set view of the keys contained in this map.
+   *
+   * @return read-only set view of the keys contained in this map.
+   */
+  @Override
+  public Set<String> keySet()
+  {
+    Set<String> keySet = _keySet;
+    if (keySet == null)
+    {
+      keySet = new AbstractSet<String>()
+      {
+        @Override
+        public Iterator<String> iterator()
+        {
+          return new SlotIterator<String>()
+          {
+            @Override
+            String element(int index)
+            {
+              return _keys[index];
+            }
+          };
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+          return containsKey(o);
+        }
+
+        @Override
+        public int size()
+        {
+          return _size;
+        }
+      };
+      _keySet = keySet;
+    }
+    return keySet;
+  }
+
+  /**
+   * Return read-only collection view of the values contained in this map.
+   *
+   * @return read-only collection view of the values contained in this map.
+   */
+  @Override
+  public Collection<V> values()
+  {
+    Collection<V> values = _valuesView;
+    if (values == null)
+    {
+      values = new AbstractCollection<V>()
+      {
+        @Override
+        public Iterator<V> iterator()
+        {
+          return new SlotIterator<V>()
+          {
+            @Override
+            @SuppressWarnings("unchecked")
+            V element(int index)
+            {
+              return (V) _values[index];
+            }
+          };
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+          return containsValue(o);
+        }
+
+        @Override
+        public int size()
+        {
+          return _size;
+        }
+      };
+      _valuesView = values;
+    }
+    return values;
+  }
+
+  /**
+   * Unit test use only.
+   *
+   * @return the number of slots in the table.
+   */
+  int capacity()
+  {
+    return _keys.length;
+  }
+
+  private int indexOf(String key)
+  {
+    final int hash = key.hashCode();
+    final String[] keys = _keys;
+    final int mask = keys.length - 1;
+    int index = spread(hash) & mask;
+    String k;
+    while ((k = keys[index]) != null)
+    {
+      if (k == key || (k.hashCode() == hash && k.equals(key)))
+      {
+        return index;
+      }
+      index = (index + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Remove the entry at the specified slot, shifting back the following entries of the
+   * probe sequence so that lookups never need to skip over deleted slots.
+   */
+  private void deleteSlot(int index)
+  {
+    final String[] keys = _keys;
+    final Object[] values = _values;
+    final int mask = keys.length - 1;
+    int hole = index;
+    int next = (hole + 1) & mask;
+    String k;
+    while ((k = keys[next]) != null)
+    {
+      int home = spread(k.hashCode()) & mask;
+      // move the entry back unless its home slot lies cyclically within (hole, next]
+      if (((next - home) & mask) >= ((next - hole) & mask))
+      {
+        keys[hole] = k;
+        values[hole] = values[next];
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    keys[hole] = null;
+    values[hole] = null;
+    _size--;
+    _modCount++;
+  }
+
+  private void resize(int newCapacity)
+  {
+    if (newCapacity > MAX_CAPACITY)
+    {
+      throw new IllegalStateException("Map is too large");
+    }
+    final String[] oldKeys = _keys;
+    final Object[] oldValues = _values;
+    final String[] newKeys = new String[newCapacity];
+    final Object[] newValues = new Object[newCapacity];
+    final int mask = newCapacity - 1;
+    for (int i = 0; i < oldKeys.length; i++)
+    {
+      String k = oldKeys[i];
+      if (k != null)
+      {
+        int index = spread(k.hashCode()) & mask;
+        while (newKeys[index] != null)
+        {
+          index = (index + 1) & mask;
+        }
+        newKeys[index] = k;
+        newValues[index] = oldValues[i];
+      }
+    }
+    _keys = newKeys;
+    _values = newValues;
+    _threshold = thresholdFor(newCapacity);
+  }
+
+  private static int spread(int hash)
+  {
+    return hash ^ (hash >>> 16);
+  }
+
+  private static int capacityFor(int expectedSize)
+  {
+    int capacity = MIN_CAPACITY;
+    while (thresholdFor(capacity) < expectedSize && capacity < MAX_CAPACITY)
+    {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  private static int thresholdFor(int capacity)
+  {
+    // load factor of 3/4
+    return (capacity >>> 1) + (capacity >>> 2);
+  }
+
+  private abstract class SlotIterator<E> implements Iterator<E>
+  {
+    SlotIterator()
+    {
+      _expectedModCount = _modCount;
+      _next = advance(0);
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      return _next < _keys.length;
+    }
+
+    @Override
+    public E next()
+    {
+      if (_expectedModCount != _modCount)
+      {
+        throw new ConcurrentModificationException();
+      }
+      int index = _next;
+      if (index >= _keys.length)
+      {
+        throw new NoSuchElementException();
+      }
+      _next = advance(index + 1);
+      return element(index);
+    }
+
+    @Override
+    public void remove()
+    {
+      throw new UnsupportedOperationException("Cannot mutate a map through its views");
+    }
+
+    abstract E element(int index);
+
+    private int advance(int from)
+    {
+      final String[] keys = _keys;
+      int i = from;
+      while (i < keys.length && keys[i] == null)
+      {
+        i++;
+      }
+      return i;
+    }
+
+    private final int _expectedModCount;
+    private int _next;
+  }
+
+  private String[] _keys;
+  private Object[] _values;
+  private int _size;
+  private int _threshold;
+  private int _modCount;
+  private Set<Map.Entry<String,V>> _entrySet;
+  private Set<String> _keySet;
+  private Collection<V> _valuesView;
+}
@@ -946,6 +946,54 @@ public class TestData
     }
   }
 
+  @Test
+  public void testCompactDataMap() throws CloneNotSupportedException
+  {
+    DataMap map1 = DataMap.newCompactDataMap(2);
+    map1.putAll(referenceMap1);
+    assertEquals(map1, new DataMap(referenceMap1));
+    assertEquals(new DataMap(referenceMap1), map1);
+    assertEquals(map1.hashCode(), new DataMap(referenceMap1).hashCode());
+    assertFalse(map1.getUnderlying() instanceof HashMap);
+
+    for (Object o : illegalObjects)
+    {
+      Exception exc = null;
+      try
+      {
+        map1.put("illegal", o);
+      }
+      catch (IllegalArgumentException e)
+      {
+        exc = e;
+      }
+      assertTrue(exc != null);
+    }
+
+    DataMap map2 = map1.clone();
+    assertTrue(map2.getUnderlying() != map1.getUnderlying());
+    assertEquals(map2.getUnderlying().getClass(), map1.getUnderlying().getClass());
+    map2.put("extra", "extra");
+    assertFalse(map1.containsKey("extra"));
+
+    DataMap map3 = map2.copy();
+    assertEquals(map3, map2);
+    assertEquals(map3.getUnderlying().getClass(), map1.getUnderlying().getClass());
+
+    map3.makeReadOnly();
+    assertTrue(map3.isReadOnly());
+    Exception exc = null;
+    try
+    {
+      map3.put("k", "v");
+    }
+    catch (UnsupportedOperationException e)
+    {
+      exc = e;
+    }
+    assertTrue(exc != null);
+  }
+
   @Test
   public void testMakeReadOnly() throws CloneNotSupportedException
   {
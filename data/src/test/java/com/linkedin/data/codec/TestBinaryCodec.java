@@ -0,0 +1,120 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.data.codec;
+
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.TestUtil;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+public class TestBinaryCodec extends TestCodec
+{
+  private static final SymbolTable SYMBOL_TABLE = new SymbolTable("test", Arrays.asList("id", "name", "elements", "paging"));
+
+  @Test(dataProvider = "codecData", dataProviderClass = CodecDataProviders.class)
+  public void testBinaryDataCodec(String testName, DataComplex dataComplex) throws IOException
+  {
+    testDataCodec(new BinaryDataCodec(), dataComplex);
+  }
+
+  @Test(dataProvider = "codecData", dataProviderClass = CodecDataProviders.class)
+  public void testBinaryDataCodecWithSymbolTable(String testName, DataComplex dataComplex) throws IOException
+  {
+    testDataCodec(new BinaryDataCodec(name -> SYMBOL_TABLE, SYMBOL_TABLE), dataComplex);
+  }
+
+  @Test
+  public void testRepeatedKeysAreEncodedOnce() throws IOException
+  {
+    DataList elements = new DataList();
+    for (int i = 0; i < 100; i++)
+    {
+      DataMap element = new DataMap();
+      element.put("id", i);
+      element.put("summary", "same description");
+      elements.add(element);
+    }
+    DataMap map = new DataMap();
+    map.put("elements", elements);
+
+    BinaryDataCodec codec = new BinaryDataCodec();
+    byte[] bytes = codec.mapToBytes(map);
+    assertEquals(count(bytes, "summary".getBytes()), 1);
+    assertEquals(count(bytes, "same description".getBytes()), 1);
+    assertTrue(bytes.length < new PsonDataCodec().mapToBytes(map).length);
+    TestUtil.assertEquivalent(codec.bytesToMap(bytes), map);
+
+    // the shared symbol table removes the keys it contains from the message
+    BinaryDataCodec sharedCodec = new BinaryDataCodec(name -> SYMBOL_TABLE, SYMBOL_TABLE);
+    byte[] sharedBytes = sharedCodec.mapToBytes(map);
+    assertEquals(count(sharedBytes, "elements".getBytes()), 0);
+    assertTrue(sharedBytes.length < bytes.length);
+    TestUtil.assertEquivalent(sharedCodec.bytesToMap(sharedBytes), map);
+  }
+
+  @Test(expectedExceptions = DataDecodingException.class)
+  public void testUnknownSymbolTable() throws IOException
+  {
+    byte[] bytes = new BinaryDataCodec(name -> null, SYMBOL_TABLE).mapToBytes(new DataMap());
+    new BinaryDataCodec().bytesToMap(bytes);
+  }
+
+  @Test(expectedExceptions = DataDecodingException.class)
+  public void testTruncated() throws IOException
+  {
+    DataMap map = new DataMap();
+    map.put("key", "value");
+    byte[] bytes = new BinaryDataCodec().mapToBytes(map);
+    new BinaryDataCodec().bytesToMap(Arrays.copyOf(bytes, bytes.length - 1));
+  }
+
+  @Test(expectedExceptions = DataDecodingException.class)
+  public void testWrongType() throws IOException
+  {
+    byte[] bytes = new BinaryDataCodec().listToBytes(new DataList(Collections.singletonList(1)));
+    new BinaryDataCodec().bytesToMap(bytes);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testDuplicateSymbols()
+  {
+    new SymbolTable("duplicate", Arrays.asList("a", "b", "a"));
+  }
+
+  private static int count(byte[] bytes, byte[] pattern)
+  {
+    int count = 0;
+    for (int i = 0; i + pattern.length <= bytes.length; i++)
+    {
+      if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + pattern.length), pattern))
+      {
+        count++;
+      }
+    }
+    return count;
+  }
+}
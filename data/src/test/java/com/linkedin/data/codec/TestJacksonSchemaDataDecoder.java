@@ -0,0 +1,180 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.schema.ArrayDataSchema;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.template.DataTemplateUtil;
+import com.linkedin.data.template.GetMode;
+import com.linkedin.data.template.TestMapTemplate;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Tests specific to {@link JacksonSchemaDataDecoder}
+ */
+public class TestJacksonSchemaDataDecoder
+{
+  private static final RecordDataSchema SCHEMA = (RecordDataSchema) DataTemplateUtil.parseSchema(
+      "{ \"type\" : \"record\", \"name\" : \"Node\", \"fields\" : [ " +
+      "{ \"name\" : \"int\", \"type\" : \"int\" }, " +
+      "{ \"name\" : \"long\", \"type\" : \"long\" }, " +
+      "{ \"name\" : \"float\", \"type\" : \"float\" }, " +
+      "{ \"name\" : \"double\", \"type\" : { \"type\" : \"typeref\", \"name\" : \"DoubleRef\", \"ref\" : \"double\" } }, " +
+      "{ \"name\" : \"bytes\", \"type\" : \"bytes\" }, " +
+      "{ \"name\" : \"fixed\", \"type\" : { \"type\" : \"fixed\", \"name\" : \"Fixed4\", \"size\" : 4 } }, " +
+      "{ \"name\" : \"string\", \"type\" : \"string\" }, " +
+      "{ \"name\" : \"longs\", \"type\" : { \"type\" : \"array\", \"items\" : \"long\" } }, " +
+      "{ \"name\" : \"floats\", \"type\" : { \"type\" : \"map\", \"values\" : \"float\" } }, " +
+      "{ \"name\" : \"union\", \"type\" : [ \"long\", \"Node\" ] }, " +
+      "{ \"name\" : \"children\", \"type\" : { \"type\" : \"array\", \"items\" : \"Node\" } } " +
+      "] }");
+
+  @Test
+  public void testCoercion() throws IOException
+  {
+    String json = "{ \"int\" : 1, \"long\" : 2, \"float\" : 3, \"double\" : 4, \"bytes\" : \"ab\", \"fixed\" : \"abcd\", " +
+        "\"string\" : \"s\", \"longs\" : [ 1, 2 ], \"floats\" : { \"a\" : 1.5 }, \"union\" : { \"long\" : 5 }, " +
+        "\"children\" : [ { \"long\" : 6, \"union\" : { \"Node\" : { \"double\" : 7 } } } ] }";
+    DataMap map = decode(json, SchemaDecodingPlan.forRecord(SCHEMA, false));
+
+    assertEquals(map.get("int"), 1);
+    assertEquals(map.get("long"), 2L);
+    assertEquals(map.get("float"), 3.0f);
+    assertEquals(map.get("double"), 4.0);
+    assertEquals(map.get("bytes"), ByteString.copyAvroString("ab", false));
+    assertEquals(map.get("fixed"), ByteString.copyAvroString("abcd", false));
+    assertEquals(map.get("string"), "s");
+    assertEquals(map.getDataList("longs"), new DataList(Arrays.<Object>asList(1L, 2L)));
+    assertEquals(map.getDataMap("floats").get("a"), 1.5f);
+    assertEquals(map.getDataMap("union").get("long"), 5L);
+
+    DataMap child = (DataMap) map.getDataList("children").get(0);
+    assertEquals(child.get("long"), 6L);
+    assertEquals(child.getDataMap("union").getDataMap("Node").get("double"), 7.0);
+
+    // the decoded data matches what the generic codec produces once coerced by the templates
+    DataMap generic = new JacksonDataCodec().stringToMap(json);
+    assertEquals(map.size(), generic.size());
+    assertEquals(map.get("string"), generic.get("string"));
+    assertNull(map.getError());
+  }
+
+  @Test
+  public void testKeysShareSchemaFieldNames() throws IOException
+  {
+    DataMap map = decode("{ \"long\" : 2 }", SchemaDecodingPlan.forRecord(SCHEMA, false));
+    String key = map.keySet().iterator().next();
+    assertSame(key, SCHEMA.getField("long").getName());
+  }
+
+  @Test
+  public void testUnknownFields() throws IOException
+  {
+    String json = "{ \"long\" : 1, \"extra\" : { \"a\" : [ 1, { \"b\" : 2 } ] }, " +
+        "\"children\" : [ { \"long\" : 2, \"other\" : 3 } ] }";
+
+    DataMap kept = decode(json, SchemaDecodingPlan.forRecord(SCHEMA, false));
+    assertTrue(kept.containsKey("extra"));
+    assertEquals(((DataMap) kept.getDataList("children").get(0)).get("other"), 3);
+
+    DataMap skipped = decode(json, SchemaDecodingPlan.forRecord(SCHEMA, true));
+    assertFalse(skipped.containsKey("extra"));
+    assertEquals(skipped.get("long"), 1L);
+    DataMap child = (DataMap) skipped.getDataList("children").get(0);
+    assertFalse(child.containsKey("other"));
+    assertEquals(child.get("long"), 2L);
+  }
+
+  @Test
+  public void testMismatchedValuesAreKept() throws IOException
+  {
+    DataMap map = decode("{ \"long\" : \"x\", \"bytes\" : \"\\u0100\", \"longs\" : { \"a\" : 1 }, \"union\" : null }",
+        SchemaDecodingPlan.forRecord(SCHEMA, false));
+    assertEquals(map.get("long"), "x");
+    assertEquals(map.get("bytes"), "\u0100");
+    assertEquals(map.getDataMap("longs").get("a"), 1);
+    assertSame(map.get("union"), Data.NULL);
+  }
+
+  @Test
+  public void testErrors() throws IOException
+  {
+    DataMap map = decode("{ \"long\" : 1, \"long\" : 2, \"int\" : 12345678901234567890 }",
+        SchemaDecodingPlan.forRecord(SCHEMA, false));
+    assertEquals(map.get("long"), 2L);
+    assertFalse(map.containsKey("int"));
+    assertTrue(map.getError().contains("\"long\" defined more than once"));
+    assertTrue(map.getError().contains("number type: BIG_INTEGER"));
+  }
+
+  @Test(expectedExceptions = DataDecodingException.class)
+  public void testNotAnObject() throws IOException
+  {
+    decode("[ 1 ]", SchemaDecodingPlan.forRecord(SCHEMA, false));
+  }
+
+  @Test
+  public void testEnvelope() throws IOException
+  {
+    SchemaDecodingPlan plan = SchemaDecodingPlan.forEnvelope(
+        Collections.<String, DataSchema>singletonMap("elements", new ArrayDataSchema(SCHEMA)), true);
+    DataMap map = decode("{ \"elements\" : [ { \"long\" : 1, \"other\" : 2 } ], \"paging\" : { \"count\" : 10 } }", plan);
+
+    DataMap element = (DataMap) map.getDataList("elements").get(0);
+    assertEquals(element.get("long"), 1L);
+    assertFalse(element.containsKey("other"));
+    // unknown envelope fields are not dropped
+    assertEquals(map.getDataMap("paging").get("count"), 10);
+  }
+
+  @Test
+  public void testForTemplate() throws IOException
+  {
+    SchemaDecodingPlan plan = SchemaDecodingPlan.forTemplate(TestMapTemplate.FooRecord.class, true);
+    assertSame(SchemaDecodingPlan.forTemplate(TestMapTemplate.FooRecord.class, true), plan);
+    assertTrue(plan.isSkipUnknownFields());
+    assertFalse(SchemaDecodingPlan.forTemplate(TestMapTemplate.FooRecord.class, false).isSkipUnknownFields());
+
+    DataMap map = new JacksonSchemaDataDecoder().readMap(
+        new ByteArrayInputStream("{ \"bar\" : \"b\", \"baz\" : 1 }".getBytes(Data.UTF_8_CHARSET)),
+        TestMapTemplate.FooRecord.class, true);
+    assertEquals(new TestMapTemplate.FooRecord(map).getBar(GetMode.STRICT), "b");
+    assertEquals(map.size(), 1);
+  }
+
+  private static DataMap decode(String json, SchemaDecodingPlan plan) throws IOException
+  {
+    return new JacksonSchemaDataDecoder().bytesToMap(json.getBytes(Data.UTF_8_CHARSET), plan);
+  }
+}
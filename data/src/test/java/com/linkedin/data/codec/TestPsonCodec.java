@@ -16,14 +16,20 @@
 
 package com.linkedin.data.codec;
 
+import com.linkedin.data.ByteString;
 import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.TestUtil;
 
 import org.testng.annotations.Test;
 
 import java.io.IOException;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
 
 public class TestPsonCodec extends TestCodec
@@ -65,4 +71,81 @@ public class TestPsonCodec extends TestCodec
     }
   }
 
+  @Test(dataProvider = "codecData", dataProviderClass = CodecDataProviders.class)
+  public void testPsonDataCodecWithCompactDataMaps(String testName, DataComplex dataComplex) throws IOException
+  {
+    PsonDataCodec codec = new PsonDataCodec(true);
+
+    for (boolean encodeCollectionCount : new boolean[] { true, false })
+    {
+      PsonDataCodec.Options option = new PsonDataCodec.Options();
+      option.setEncodeCollectionCount(encodeCollectionCount).setCompactDataMaps(true);
+      assertFalse(option.equals(new PsonDataCodec.Options().setEncodeCollectionCount(encodeCollectionCount)));
+
+      codec.setOptions(option);
+      testDataCodec(codec, dataComplex);
+    }
+  }
+
+  @Test(dataProvider = "codecData", dataProviderClass = CodecDataProviders.class)
+  public void testPsonDataCodecWithBufferPool(String testName, DataComplex dataComplex) throws IOException
+  {
+    BufferPool pool = new BufferPool(17, 4);
+    PsonDataCodec codec = new PsonDataCodec(true);
+    codec.setOptions(new PsonDataCodec.Options().setBufferPool(pool));
+
+    testDataCodec(codec, dataComplex);
+    assertTrue(pool.getPooledBuffers() <= pool.getMaxPooledBuffers());
+
+    if (dataComplex instanceof DataMap)
+    {
+      DataMap map = (DataMap) dataComplex;
+      PooledByteString pooled = codec.mapToPooledByteString(map);
+      ByteString bytes = pooled.getByteString();
+      assertEquals(bytes.copyBytes(), new PsonDataCodec().mapToBytes(map));
+      TestUtil.assertEquivalent(codec.readMap(bytes.asInputStream()), map);
+
+      pooled.release();
+      pooled.release();
+      assertTrue(pool.getPooledBuffers() <= pool.getMaxPooledBuffers());
+    }
+  }
+
+  @Test
+  public void testBufferPoolReuse() throws IOException
+  {
+    BufferPool pool = new BufferPool(64, 2);
+    assertEquals(pool.getPooledBuffers(), 0);
+
+    byte[] buffer = pool.acquire();
+    assertEquals(buffer.length, 64);
+    pool.release(buffer);
+    assertEquals(pool.getPooledBuffers(), 1);
+    assertSame(pool.acquire(), buffer);
+    assertEquals(pool.getPooledBuffers(), 0);
+
+    // buffers of another size are ignored, extra buffers are dropped
+    pool.release(new byte[32]);
+    assertEquals(pool.getPooledBuffers(), 0);
+    for (int i = 0; i < 3; i++)
+    {
+      pool.release(new byte[64]);
+    }
+    assertEquals(pool.getPooledBuffers(), 2);
+
+    PsonDataCodec codec = new PsonDataCodec().setOptions(new PsonDataCodec.Options().setBufferPool(pool));
+    DataMap map = new DataMap();
+    map.put("key", "value");
+    PooledByteString pooled = codec.mapToPooledByteString(map);
+    assertEquals(pool.getPooledBuffers(), 1);
+    assertEquals(codec.bytesToMap(pooled.getByteString().copyBytes()), map);
+    pooled.release();
+    assertEquals(pool.getPooledBuffers(), 2);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testBufferPoolTooSmall()
+  {
+    new BufferPool(8, 1);
+  }
 }
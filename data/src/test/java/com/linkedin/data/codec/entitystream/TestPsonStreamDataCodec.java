@@ -0,0 +1,155 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.ChunkedByteStringCollector;
+import com.linkedin.data.ChunkedByteStringWriter;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.CodecDataProviders;
+import com.linkedin.data.codec.PsonDataCodec;
+import com.linkedin.entitystream.CollectingReader;
+import com.linkedin.entitystream.EntityStream;
+import com.linkedin.entitystream.EntityStreams;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+
+public class TestPsonStreamDataCodec
+{
+  private static final PsonDataCodec PSON_DATA_CODEC = new PsonDataCodec();
+
+  @Test(dataProvider = "codecData", dataProviderClass = CodecDataProviders.class)
+  public void testEncoder(String testName, DataComplex dataComplex)
+      throws Exception
+  {
+    byte[] expected = toBytes(PSON_DATA_CODEC, dataComplex);
+
+    assertEquals(encode(dataComplex, 3), expected);
+    assertEquals(encode(dataComplex, 8192), expected);
+  }
+
+  @Test(dataProvider = "codecData", dataProviderClass = CodecDataProviders.class)
+  public void testDecoder(String testName, DataComplex dataComplex)
+      throws Exception
+  {
+    StringBuilder expected = new StringBuilder();
+    Data.dump("dataComplex", dataComplex, "", expected);
+
+    for (PsonDataCodec.Options options : Arrays.asList(
+        new PsonDataCodec.Options(),
+        new PsonDataCodec.Options().setEncodeCollectionCount(true),
+        new PsonDataCodec.Options().setEncodeStringLength(false)))
+    {
+      byte[] bytes = toBytes(new PsonDataCodec().setOptions(options), dataComplex);
+      for (int chunkSize : new int[] { 1, 3, bytes.length })
+      {
+        StringBuilder actual = new StringBuilder();
+        Data.dump("dataComplex", decode(bytes, chunkSize, dataComplex.getClass()), "", actual);
+        assertEquals(actual.toString(), expected.toString(), options + ", chunk size " + chunkSize);
+      }
+    }
+  }
+
+  @Test
+  public void testEmptySource()
+      throws Exception
+  {
+    assertNull(decode(new byte[0], 3, DataMap.class));
+  }
+
+  @Test(expectedExceptions = ExecutionException.class)
+  public void testInvalidMap()
+      throws Exception
+  {
+    decode(toBytes(PSON_DATA_CODEC, new DataList(Arrays.asList(1, 2))), 3, DataMap.class);
+  }
+
+  @Test(expectedExceptions = ExecutionException.class)
+  public void testInvalidList()
+      throws Exception
+  {
+    DataMap map = new DataMap();
+    map.put("key", true);
+    decode(toBytes(PSON_DATA_CODEC, map), 3, DataList.class);
+  }
+
+  @Test(expectedExceptions = ExecutionException.class)
+  public void testInvalidHeader()
+      throws Exception
+  {
+    decode("{\"key\": true}".getBytes(), 3, DataMap.class);
+  }
+
+  @Test(expectedExceptions = ExecutionException.class)
+  public void testIncompleteSource()
+      throws Exception
+  {
+    DataMap map = new DataMap();
+    map.put("key", "value");
+    byte[] bytes = toBytes(PSON_DATA_CODEC, map);
+    decode(Arrays.copyOf(bytes, bytes.length - 1), 3, DataMap.class);
+  }
+
+  @Test(expectedExceptions = ExecutionException.class)
+  public void testExtraBytes()
+      throws Exception
+  {
+    byte[] bytes = toBytes(PSON_DATA_CODEC, new DataMap());
+    decode(Arrays.copyOf(bytes, bytes.length + 1), 3, DataMap.class);
+  }
+
+  private static byte[] toBytes(PsonDataCodec codec, DataComplex dataComplex)
+      throws Exception
+  {
+    return dataComplex instanceof DataMap
+        ? codec.mapToBytes((DataMap) dataComplex)
+        : codec.listToBytes((DataList) dataComplex);
+  }
+
+  private static byte[] encode(DataComplex data, int bufferSize)
+      throws Exception
+  {
+    PsonStreamDataCodec codec = new PsonStreamDataCodec(bufferSize);
+    EntityStream<ByteString> entityStream = data instanceof DataMap
+        ? codec.encodeMap((DataMap) data)
+        : codec.encodeList((DataList) data);
+    CollectingReader<ByteString, ?, ChunkedByteStringCollector.Result> reader = new CollectingReader<>(new ChunkedByteStringCollector());
+    entityStream.setReader(reader);
+
+    return reader.getResult().toCompletableFuture().get().data;
+  }
+
+  private static <T extends DataComplex> T decode(byte[] bytes, int chunkSize, Class<T> clazz)
+      throws Exception
+  {
+    PsonDataDecoder<T> decoder = new PsonDataDecoder<>(clazz);
+    EntityStream<ByteString> entityStream = EntityStreams.newEntityStream(new ChunkedByteStringWriter(bytes, chunkSize));
+    entityStream.setReader(decoder);
+
+    return decoder.getResult().toCompletableFuture().get();
+  }
+}
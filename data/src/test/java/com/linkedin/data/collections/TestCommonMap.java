@@ -309,7 +309,8 @@ public class TestCommonMap
   {
     return new Object[][] {
       { new CowMapFactory() },
-      { new CheckedMapFactory() }
+      { new CheckedMapFactory() },
+      { new CompactCheckedMapFactory() }
     };
   }
 
@@ -378,4 +379,36 @@ public class TestCommonMap
       return new CheckedMap<K, V>(map, checker);
     }
   }
+
+  public static class CompactCheckedMapFactory implements CommonMapFactory
+  {
+    public <K,V> CommonMap<K,V> create()
+    {
+      return new CheckedMap<K, V>(0, null, true);
+    }
+    public <K,V> CommonMap<K,V> create(int initialCapacity)
+    {
+      return new CheckedMap<K, V>(initialCapacity, null, true);
+    }
+    public <K,V> CommonMap<K,V> create(int initialCapacity, float factor)
+    {
+      return new CheckedMap<K, V>(initialCapacity, null, true);
+    }
+    public <K,V> CommonMap<K,V> create(Map<K,V> map)
+    {
+      CommonMap<K,V> checkedMap = new CheckedMap<K, V>(map.size(), null, true);
+      checkedMap.putAll(map);
+      return checkedMap;
+    }
+    public <K,V> CommonMap<K,V> create(MapChecker<K,V> checker)
+    {
+      return new CheckedMap<K, V>(0, checker, true);
+    }
+    public <K,V> CommonMap<K,V> create(Map<K,V> map, MapChecker<K,V> checker)
+    {
+      CommonMap<K,V> checkedMap = new CheckedMap<K, V>(map.size(), checker, true);
+      checkedMap.putAll(map);
+      return checkedMap;
+    }
+  }
 }
@@ -0,0 +1,201 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.collections;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+
+public class TestCompactStringMap
+{
+  @Test
+  public void testCapacity()
+  {
+    assertEquals(new CompactStringMap<Object>(0).capacity(), 4);
+    assertEquals(new CompactStringMap<Object>(3).capacity(), 4);
+    assertEquals(new CompactStringMap<Object>(4).capacity(), 8);
+    assertEquals(new CompactStringMap<Object>(30).capacity(), 64);
+
+    CompactStringMap<Integer> map = new CompactStringMap<Integer>(0);
+    for (int i = 0; i < 7; i++)
+    {
+      map.put("k" + i, i);
+    }
+    assertEquals(map.capacity(), 16);
+    assertEquals(map.size(), 7);
+  }
+
+  @Test
+  public void testCollidingKeys()
+  {
+    // "Aa" and "BB" have the same hash code
+    CompactStringMap<String> map = new CompactStringMap<String>();
+    map.put("Aa", "1");
+    map.put("BB", "2");
+    map.put("AaAa", "3");
+    map.put("BBBB", "4");
+    map.put("AaBB", "5");
+    assertEquals(map.size(), 5);
+    assertEquals(map.get("Aa"), "1");
+    assertEquals(map.get("BB"), "2");
+    assertEquals(map.get("AaAa"), "3");
+    assertEquals(map.get("BBBB"), "4");
+    assertEquals(map.get("AaBB"), "5");
+
+    assertEquals(map.remove("AaAa"), "3");
+    assertNull(map.get("AaAa"));
+    assertEquals(map.get("BBBB"), "4");
+    assertEquals(map.get("AaBB"), "5");
+    assertEquals(map.size(), 4);
+  }
+
+  @Test
+  public void testNullKeyAndValue()
+  {
+    CompactStringMap<String> map = new CompactStringMap<String>();
+    try
+    {
+      map.put(null, "x");
+      fail("Expected NullPointerException");
+    }
+    catch (NullPointerException e)
+    {
+      // expected
+    }
+    assertNull(map.get(null));
+    assertFalse(map.containsKey(null));
+    assertNull(map.remove(null));
+    assertFalse(map.containsKey(1));
+
+    map.put("k", null);
+    assertTrue(map.containsKey("k"));
+    assertTrue(map.containsValue(null));
+    assertEquals(map.size(), 1);
+  }
+
+  @Test
+  public void testAgainstHashMap()
+  {
+    Random random = new Random(42);
+    Map<String, Integer> reference = new HashMap<String, Integer>();
+    CompactStringMap<Integer> map = new CompactStringMap<Integer>();
+    for (int i = 0; i < 100000; i++)
+    {
+      String key = "key" + random.nextInt(64);
+      int op = random.nextInt(3);
+      if (op == 0)
+      {
+        assertEquals(map.remove(key), reference.remove(key));
+      }
+      else
+      {
+        assertEquals(map.put(key, i), reference.put(key, i));
+      }
+      assertEquals(map.size(), reference.size());
+      if (i % 1000 == 0)
+      {
+        assertEquals(map, reference);
+        assertEquals(reference, map);
+        assertEquals(map.hashCode(), reference.hashCode());
+        assertEquals(map.entrySet(), reference.entrySet());
+        assertEquals(map.keySet(), reference.keySet());
+      }
+    }
+    for (String key : reference.keySet())
+    {
+      assertEquals(map.get(key), reference.get(key));
+    }
+  }
+
+  @Test
+  public void testClone()
+  {
+    CompactStringMap<String> map = new CompactStringMap<String>();
+    map.put("k1", "1");
+    map.put("k2", "2");
+    CompactStringMap<String> clone = map.clone();
+    assertNotSame(clone, map);
+    assertEquals(clone, map);
+
+    clone.put("k3", "3");
+    clone.remove("k1");
+    assertEquals(map.size(), 2);
+    assertEquals(map.get("k1"), "1");
+    assertNull(map.get("k3"));
+    assertEquals(clone.keySet().size(), 2);
+  }
+
+  @Test
+  public void testViews()
+  {
+    CompactStringMap<String> map = new CompactStringMap<String>();
+    map.put("k1", "1");
+    map.put("k2", "2");
+
+    Iterator<Map.Entry<String, String>> it = map.entrySet().iterator();
+    it.next();
+    try
+    {
+      it.remove();
+      fail("Expected UnsupportedOperationException");
+    }
+    catch (UnsupportedOperationException e)
+    {
+      // expected
+    }
+    try
+    {
+      map.values().clear();
+      fail("Expected UnsupportedOperationException");
+    }
+    catch (UnsupportedOperationException e)
+    {
+      // expected
+    }
+
+    // replacing the value of an existing key while iterating is allowed
+    for (String key : map.keySet())
+    {
+      map.put(key, "x");
+    }
+    assertEquals(map.get("k1"), "x");
+
+    Iterator<String> keys = map.keySet().iterator();
+    keys.next();
+    map.put("k3", "3");
+    try
+    {
+      keys.next();
+      fail("Expected ConcurrentModificationException");
+    }
+    catch (ConcurrentModificationException e)
+    {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,852 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.util.degrader;
+
+import com.linkedin.common.stats.LongStats;
+import com.linkedin.util.clock.Clock;
+import com.linkedin.util.clock.SystemClock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A {@link CallTracker} producing the same rollover events and {@link CallStats} as {@link CallTrackerImpl}, without
+ * the lock taken by {@link CallTrackerImpl} on every call start and end.
+ *
+ * <p>
+ * The calls of an interval are counted in stripes, which threads pick by a per-thread probe. It starts with a single
+ * stripe and adds stripes, up to the number of processors or {@value #STRIPE_LIMIT}, when threads contend on one.
+ * The call times are counted in a log-linear histogram shared by the stripes rather than kept like in
+ * {@link com.linkedin.common.stats.LongTracking}. The count, average, standard deviation, minimum and maximum call
+ * times are exact. The percentiles are exact for call times below {@value #LINEAR_BUCKETS} ms and otherwise within
+ * 1/{@value #SUB_BUCKETS} of the value.
+ *
+ * <p>
+ * Each stripe has two slots of counters, and there are two histograms, one per parity of the interval phase. The
+ * stripes are only aggregated at interval rollover, which flips the phase under a lock, then waits for the writers
+ * still in the slots of the previous phase. A call racing with the rollover may be counted in the next interval.
+ *
+ * <p>
+ * The memory of a tracker is bounded whatever the number of threads: the two histograms take about 9.5KB, which is
+ * less than the call times kept by {@link CallTrackerImpl}, and each stripe takes a few hundred bytes.
+ *
+ * <p>
+ * The current concurrency is a single atomic counter since the maximum concurrency of the interval needs its value
+ * at every call start.
+ */
+public class StripedCallTrackerImpl implements CallTracker
+{
+  private static final Clock DEFAULT_CLOCK = SystemClock.instance();
+  private static final ErrorType[] ERROR_TYPES = ErrorType.values();
+
+  private static final int STRIPE_LIMIT = 16;
+  private static final int MAX_STRIPES = maxStripes(Runtime.getRuntime().availableProcessors());
+
+  // call times below LINEAR_BUCKETS have their own bucket, above they are split in SUB_BUCKETS per power of 2
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int LINEAR_BUCKETS = 2 * SUB_BUCKETS;
+  private static final int MAX_EXPONENT = 40;
+  private static final int HISTOGRAM_SIZE = LINEAR_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+  private static final double[] PERCENTILES = { 0.50, 0.90, 0.95, 0.99 };
+
+  // Probe of the current thread used to pick a stripe, shared by all trackers
+  private static final ThreadLocal<int[]> PROBE =
+      ThreadLocal.withInitial(() -> new int[] { mix(Thread.currentThread().getId()) });
+
+  private final Object _lock = new Object();
+
+  private final Clock _clock;
+  private final long _interval;
+
+  // call time histograms of the slots, by parity of the phase
+  private final AtomicIntegerArray[] _histograms =
+      { new AtomicIntegerArray(HISTOGRAM_SIZE), new AtomicIntegerArray(HISTOGRAM_SIZE) };
+  private volatile Stripe[] _stripes = { new Stripe(_histograms) };
+  private volatile int _phase;
+
+  private volatile long _lastStartTime;
+  private volatile long _lastResetTime;
+  private final AtomicInteger _concurrency = new AtomicInteger();
+  private final AtomicInteger _concurrentMax = new AtomicInteger();
+  private final LongAdder _sumOfOutstandingStartTimes = new LongAdder();
+
+  // Totals of the intervals rolled over since the last reset
+  private volatile Totals _totals = new Totals();
+
+  private volatile CallStats _stats;
+  // Guarded by _lock
+  private long _startTime;
+  private Pending _pending = null;
+
+  // This CallTrackerListener list is immutable and copy-on-write.
+  private volatile List<StatsRolloverEventListener> _listeners = new ArrayList<StatsRolloverEventListener>();
+
+  public StripedCallTrackerImpl(long interval)
+  {
+    this(interval, DEFAULT_CLOCK);
+  }
+
+  public StripedCallTrackerImpl(long interval, Clock clock)
+  {
+    _clock = clock;
+    _interval = interval;
+    _lastStartTime = -1;
+    _lastResetTime = _clock.currentTimeMillis();
+    synchronized (_lock)
+    {
+      resetStats();
+    }
+  }
+
+  @Override
+  public CallCompletion startCall()
+  {
+    long currentTime = _clock.currentTimeMillis();
+    rolloverIfStale(currentTime);
+
+    Slot slot = enter();
+    Slot.CALL_START_COUNT.incrementAndGet(slot);
+    exit(slot);
+
+    int concurrency = _concurrency.incrementAndGet();
+    for (int max; concurrency > (max = _concurrentMax.get()); )
+    {
+      if (_concurrentMax.compareAndSet(max, concurrency))
+      {
+        break;
+      }
+    }
+    if (_lastStartTime != currentTime)
+    {
+      _lastStartTime = currentTime;
+    }
+    _sumOfOutstandingStartTimes.add(currentTime);
+    return new CallCompletionImpl(currentTime);
+  }
+
+  @Override
+  public CallStats getCallStats()
+  {
+    rolloverIfStale(_clock.currentTimeMillis());
+    return _stats;
+  }
+
+  @Override
+  public long getInterval()
+  {
+    return _interval;
+  }
+
+  @Override
+  public void addStatsRolloverEventListener(StatsRolloverEventListener listener)
+  {
+    synchronized (_lock)
+    {
+      List<StatsRolloverEventListener> copy = new ArrayList<StatsRolloverEventListener>(_listeners);
+      copy.add(listener);
+      _listeners = Collections.unmodifiableList(copy);
+    }
+  }
+
+  @Override
+  public boolean removeStatsRolloverEventListener(StatsRolloverEventListener listener)
+  {
+    boolean removed = false;
+    synchronized (_lock)
+    {
+      if (_listeners.contains(listener))
+      {
+        List<StatsRolloverEventListener> copy = new ArrayList<StatsRolloverEventListener>(_listeners);
+        removed = copy.remove(listener);
+        _listeners = Collections.unmodifiableList(copy);
+      }
+    }
+    return removed;
+  }
+
+  @Override
+  public long getCurrentCallCountTotal()
+  {
+    long count = _totals._callCount;
+    int slot = _phase & 1;
+    for (Stripe stripe : _stripes)
+    {
+      count += stripe._slots[slot]._callCount;
+    }
+    return count;
+  }
+
+  @Override
+  public long getCurrentCallStartCountTotal()
+  {
+    long count = _totals._callStartCount;
+    int slot = _phase & 1;
+    for (Stripe stripe : _stripes)
+    {
+      count += stripe._slots[slot]._callStartCount;
+    }
+    return count;
+  }
+
+  @Override
+  public long getCurrentErrorCountTotal()
+  {
+    long count = _totals._errorCount;
+    int slot = _phase & 1;
+    for (Stripe stripe : _stripes)
+    {
+      count += stripe._slots[slot]._errorCount;
+    }
+    return count;
+  }
+
+  @Override
+  public Map<ErrorType, Integer> getCurrentErrorTypeCountsTotal()
+  {
+    int[] counts = _totals._errorTypeCounts.clone();
+    int slot = _phase & 1;
+    for (Stripe stripe : _stripes)
+    {
+      AtomicIntegerArray slotCounts = stripe._slots[slot]._errorTypeCounts;
+      for (int i = 0; i < counts.length; i++)
+      {
+        counts[i] += slotCounts.get(i);
+      }
+    }
+    return Collections.unmodifiableMap(toMap(counts));
+  }
+
+  @Override
+  public int getCurrentConcurrency()
+  {
+    return _concurrency.get();
+  }
+
+  @Override
+  public long getTimeSinceLastCallStart()
+  {
+    long lastStartTime = _lastStartTime;
+    return lastStartTime == -1 ? -1 : _clock.currentTimeMillis() - lastStartTime;
+  }
+
+  @Override
+  public long getLastResetTime()
+  {
+    return _lastResetTime;
+  }
+
+  @Override
+  public void reset()
+  {
+    Pending pending;
+    synchronized (_lock)
+    {
+      _lastStartTime = -1;
+      _lastResetTime = _clock.currentTimeMillis();
+      // Like CallTrackerImpl, the reset event still has the error type counts total before the reset
+      _totals = new Totals(0, 0, 0, _totals._errorTypeCounts);
+      resetStats();
+      _totals = new Totals();
+      pending = checkForPending();
+    }
+    // Always deliver pending events without holding _lock to avoid deadlocks.
+    if (pending != null)
+    {
+      pending.deliver();
+    }
+  }
+
+  @Override
+  public void trackCall(long duration)
+  {
+    addCallData(duration, false, _clock.currentTimeMillis(), null);
+  }
+
+  @Override
+  public void trackCallWithError(long duration)
+  {
+    addCallData(duration, true, _clock.currentTimeMillis(), null);
+  }
+
+  private void addCallData(long duration, boolean hasError, long currentTime, ErrorType errorType)
+  {
+    rolloverIfStale(currentTime);
+
+    Slot slot = enter();
+    slot.addCall(duration, hasError, errorType);
+    exit(slot);
+  }
+
+  /**
+   * Enters the slot of the current phase in the stripe of the current thread. The slot must be exited once the
+   * call data is added.
+   */
+  private Slot enter()
+  {
+    int[] probe = PROBE.get();
+    for (;;)
+    {
+      int phase = _phase;
+      Stripe[] stripes = _stripes;
+      Slot slot = stripes[probe[0] & (stripes.length - 1)]._slots[phase & 1];
+      int writers = slot._writers;
+      if (!Slot.WRITERS.compareAndSet(slot, writers, writers + 1))
+      {
+        onContention(probe, stripes);
+        continue;
+      }
+      // The rollover flips the phase before waiting for the writers, so either it waits for this one,
+      // or this one sees the new phase
+      if (_phase == phase)
+      {
+        return slot;
+      }
+      exit(slot);
+    }
+  }
+
+  private static void exit(Slot slot)
+  {
+    Slot.WRITERS.decrementAndGet(slot);
+  }
+
+  private void onContention(int[] probe, Stripe[] stripes)
+  {
+    if (stripes.length < MAX_STRIPES)
+    {
+      synchronized (_lock)
+      {
+        if (_stripes == stripes)
+        {
+          Stripe[] grown = Arrays.copyOf(stripes, stripes.length * 2);
+          for (int i = stripes.length; i < grown.length; i++)
+          {
+            grown[i] = new Stripe(_histograms);
+          }
+          _stripes = grown;
+        }
+      }
+    }
+    // Move to another stripe, like LongAdder
+    int h = probe[0];
+    h ^= h << 13;
+    h ^= h >>> 17;
+    h ^= h << 5;
+    probe[0] = h;
+  }
+
+  private void rolloverIfStale(long currentTime)
+  {
+    if (_stats.stale(currentTime))
+    {
+      Pending pending;
+      synchronized (_lock)
+      {
+        getStatsWithCurrentTime(currentTime);
+        pending = checkForPending();
+      }
+      // Always deliver events without holding _lock to avoid deadlocks.
+      if (pending != null)
+      {
+        pending.deliver();
+      }
+    }
+  }
+
+  /**
+   * Must be called while holding _lock.
+   */
+  private void getStatsWithCurrentTime(long currentTime)
+  {
+    if (_stats.stale(currentTime))
+    {
+      long offset = currentTime - _lastResetTime;
+      long currentStartOffset = ((offset / _interval) * _interval);
+      long lastEnd = _lastResetTime + currentStartOffset;
+      long lastStart = lastEnd - _interval;
+      if (_startTime == lastStart)
+      {
+        // Current interval has elapsed.
+        // Emit stats and start new current interval.
+        rolloverStats(lastEnd, false, true);
+      }
+      else if (_startTime < lastStart)
+      {
+        // Current interval is stale, emit stale accumulated stats.
+        rolloverStats(_startTime + _interval, false, true);
+        // Start new interval, the calls added meanwhile belong to the interval after it.
+        _startTime = lastStart;
+        rolloverStats(lastEnd, false, false);
+      }
+    }
+  }
+
+  /**
+   * Discards the current interval and emits the empty reset interval, must be called while holding _lock.
+   */
+  private void resetStats()
+  {
+    drain();
+    _concurrentMax.set(_concurrency.get());
+    _startTime = _lastResetTime - _interval;
+    rolloverStats(_lastResetTime, true, false);
+  }
+
+  /**
+   * Rollover the stats and inform all the listeners for the new statistics, must be called while holding _lock.
+   *
+   * @param drain whether the calls of the current interval are aggregated, otherwise the interval is empty.
+   */
+  private void rolloverStats(long endTime, boolean reset, boolean drain)
+  {
+    Aggregate aggregate = drain ? drain() : new Aggregate();
+    Totals totals = _totals;
+    totals = new Totals(totals._callCount + aggregate._callCount,
+        totals._callStartCount + aggregate._callStartCount,
+        totals._errorCount + aggregate._errorCount,
+        add(totals._errorTypeCounts, aggregate._errorTypeCounts));
+    _totals = totals;
+
+    int concurrency = _concurrency.get();
+    _stats = new CallTrackerImpl.CallTrackerStats(
+        _interval,
+        _startTime,
+        endTime,
+        totals._callCount,
+        aggregate._callStartCount,
+        totals._callStartCount,
+        aggregate._errorCount,
+        totals._errorCount,
+        _concurrentMax.getAndSet(concurrency),
+        concurrency == 0 ? 0 : (_sumOfOutstandingStartTimes.sum() / concurrency),
+        concurrency,
+        aggregate._callTimeStats,
+        toMap(aggregate._errorTypeCounts),
+        toMap(totals._errorTypeCounts));
+
+    _startTime = endTime;
+
+    if (!_listeners.isEmpty())
+    {
+      if (_pending == null)
+      {
+        _pending = new Pending(_listeners);
+      }
+      _pending.add(_stats, reset);
+    }
+  }
+
+  /**
+   * Flips the phase, then collects and clears the slots of the previous phase, must be called while holding _lock.
+   */
+  private Aggregate drain()
+  {
+    int phase = _phase;
+    _phase = phase + 1;
+
+    Aggregate aggregate = new Aggregate();
+    for (Stripe stripe : _stripes)
+    {
+      Slot slot = stripe._slots[phase & 1];
+      while (slot._writers != 0)
+      {
+        Thread.yield();
+      }
+      slot.drainTo(aggregate);
+    }
+    aggregate.drainCallTimes(_histograms[phase & 1]);
+    return aggregate;
+  }
+
+  /**
+   * Check if there are pending events to be delivered, must be called while holding _lock.
+   *
+   * @return pending events
+   */
+  private Pending checkForPending()
+  {
+    Pending pending = _pending;
+    _pending = null;
+    return pending;
+  }
+
+  private static Map<ErrorType, Integer> toMap(int[] errorTypeCounts)
+  {
+    Map<ErrorType, Integer> map = new HashMap<ErrorType, Integer>();
+    for (int i = 0; i < errorTypeCounts.length; i++)
+    {
+      if (errorTypeCounts[i] != 0)
+      {
+        map.put(ERROR_TYPES[i], errorTypeCounts[i]);
+      }
+    }
+    return map;
+  }
+
+  private static int[] add(int[] a, int[] b)
+  {
+    int[] sum = a.clone();
+    for (int i = 0; i < sum.length; i++)
+    {
+      sum[i] += b[i];
+    }
+    return sum;
+  }
+
+  static int bucket(long value)
+  {
+    if (value < LINEAR_BUCKETS)
+    {
+      return value < 0 ? 0 : (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    if (exponent > MAX_EXPONENT)
+    {
+      return HISTOGRAM_SIZE - 1;
+    }
+    int shift = exponent - SUB_BUCKET_BITS;
+    return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+  }
+
+  /**
+   * @return the middle of the values of the bucket.
+   */
+  static long bucketValue(int bucket)
+  {
+    if (bucket < LINEAR_BUCKETS)
+    {
+      return bucket;
+    }
+    int shift = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+    long lowest = (long) (SUB_BUCKETS + (bucket - LINEAR_BUCKETS) % SUB_BUCKETS) << shift;
+    return lowest + (1L << (shift - 1));
+  }
+
+  private static int maxStripes(int processors)
+  {
+    int stripes = 1;
+    while (stripes < processors && stripes < STRIPE_LIMIT)
+    {
+      stripes <<= 1;
+    }
+    return stripes;
+  }
+
+  private static int mix(long id)
+  {
+    int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+    return h == 0 ? 1 : h;
+  }
+
+  private class CallCompletionImpl implements CallCompletion
+  {
+    private final AtomicBoolean _done = new AtomicBoolean();
+    private final long _start;
+    private final AtomicLong _endTime = new AtomicLong(0);
+
+    private CallCompletionImpl(long currentTime)
+    {
+      _start = currentTime;
+    }
+
+    @Override
+    public void record()
+    {
+      _endTime.compareAndSet(0, _clock.currentTimeMillis());
+    }
+
+    @Override
+    public void endCall()
+    {
+      endCall(false, null);
+    }
+
+    @Override
+    public void endCallWithError()
+    {
+      endCall(true, null);
+    }
+
+    @Override
+    public void endCallWithError(ErrorType errorType)
+    {
+      endCall(true, errorType);
+    }
+
+    private void endCall(boolean hasError, ErrorType errorType)
+    {
+      if (_done.compareAndSet(false, true))
+      {
+        _endTime.compareAndSet(0, _clock.currentTimeMillis());
+        long endTime = _endTime.get();
+
+        if (_start >= _lastResetTime)
+        {
+          addCallData(endTime - _start, hasError, endTime, errorType);
+        }
+
+        // Concurrency and the sum of outstanding start times are not reset
+        _concurrency.decrementAndGet();
+        _sumOfOutstandingStartTimes.add(-_start);
+      }
+    }
+  }
+
+  private static class Stripe
+  {
+    private final Slot[] _slots;
+
+    private Stripe(AtomicIntegerArray[] histograms)
+    {
+      _slots = new Slot[] { new Slot(histograms[0]), new Slot(histograms[1]) };
+    }
+  }
+
+  /**
+   * The calls of one stripe in one interval.
+   */
+  private static class Slot
+  {
+    private static final AtomicIntegerFieldUpdater<Slot> WRITERS =
+        AtomicIntegerFieldUpdater.newUpdater(Slot.class, "_writers");
+    private static final AtomicIntegerFieldUpdater<Slot> CALL_START_COUNT =
+        AtomicIntegerFieldUpdater.newUpdater(Slot.class, "_callStartCount");
+    private static final AtomicIntegerFieldUpdater<Slot> CALL_COUNT =
+        AtomicIntegerFieldUpdater.newUpdater(Slot.class, "_callCount");
+    private static final AtomicIntegerFieldUpdater<Slot> ERROR_COUNT =
+        AtomicIntegerFieldUpdater.newUpdater(Slot.class, "_errorCount");
+    private static final AtomicLongFieldUpdater<Slot> SUM =
+        AtomicLongFieldUpdater.newUpdater(Slot.class, "_sum");
+    private static final AtomicLongFieldUpdater<Slot> SUM_OF_SQUARES =
+        AtomicLongFieldUpdater.newUpdater(Slot.class, "_sumOfSquares");
+    private static final AtomicLongFieldUpdater<Slot> MIN =
+        AtomicLongFieldUpdater.newUpdater(Slot.class, "_min");
+    private static final AtomicLongFieldUpdater<Slot> MAX =
+        AtomicLongFieldUpdater.newUpdater(Slot.class, "_max");
+
+    private volatile int _writers;
+    private volatile int _callStartCount;
+    private volatile int _callCount;
+    private volatile int _errorCount;
+    private volatile long _sum;
+    private volatile long _sumOfSquares;
+    private volatile long _min = Long.MAX_VALUE;
+    private volatile long _max = Long.MIN_VALUE;
+    private final AtomicIntegerArray _errorTypeCounts = new AtomicIntegerArray(ERROR_TYPES.length);
+    // shared by the slots of the same parity of all the stripes
+    private final AtomicIntegerArray _histogram;
+
+    private Slot(AtomicIntegerArray histogram)
+    {
+      _histogram = histogram;
+    }
+
+    private void addCall(long duration, boolean hasError, ErrorType errorType)
+    {
+      CALL_COUNT.incrementAndGet(this);
+      SUM.addAndGet(this, duration);
+      SUM_OF_SQUARES.addAndGet(this, duration * duration);
+      for (long min; duration < (min = _min) && !MIN.compareAndSet(this, min, duration); )
+      {
+      }
+      for (long max; duration > (max = _max) && !MAX.compareAndSet(this, max, duration); )
+      {
+      }
+      _histogram.incrementAndGet(bucket(duration));
+      if (hasError)
+      {
+        ERROR_COUNT.incrementAndGet(this);
+      }
+      //we don't have to track the error if errorType is null
+      if (errorType != null)
+      {
+        _errorTypeCounts.incrementAndGet(errorType.ordinal());
+      }
+    }
+
+    /**
+     * Adds the calls but their call times to the aggregate and clears them, once there is no writer left.
+     */
+    private void drainTo(Aggregate aggregate)
+    {
+      aggregate._callStartCount += _callStartCount;
+      _callStartCount = 0;
+      int callCount = _callCount;
+      if (callCount == 0)
+      {
+        return;
+      }
+      aggregate._callCount += callCount;
+      aggregate._errorCount += _errorCount;
+      aggregate._sum += _sum;
+      aggregate._sumOfSquares += _sumOfSquares;
+      aggregate._min = Math.min(aggregate._min, _min);
+      aggregate._max = Math.max(aggregate._max, _max);
+      for (int i = 0; i < ERROR_TYPES.length; i++)
+      {
+        aggregate._errorTypeCounts[i] += _errorTypeCounts.getAndSet(i, 0);
+      }
+      _callCount = 0;
+      _errorCount = 0;
+      _sum = 0;
+      _sumOfSquares = 0;
+      _min = Long.MAX_VALUE;
+      _max = Long.MIN_VALUE;
+    }
+  }
+
+  /**
+   * The calls of all the stripes in one interval.
+   */
+  private static class Aggregate
+  {
+    private int _callStartCount;
+    private int _callCount;
+    private int _errorCount;
+    private long _sum;
+    private long _sumOfSquares;
+    private long _min = Long.MAX_VALUE;
+    private long _max = Long.MIN_VALUE;
+    private final int[] _errorTypeCounts = new int[ERROR_TYPES.length];
+    private LongStats _callTimeStats = new LongStats(0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    /**
+     * Computes the call time stats of the aggregate from the counts of its call times, then clears them.
+     */
+    private void drainCallTimes(AtomicIntegerArray histogram)
+    {
+      if (_callCount == 0)
+      {
+        return;
+      }
+      double average = (double) _sum / _callCount;
+      double standardDeviation = Math.sqrt((_sumOfSquares - _sum * average) / _callCount);
+
+      // Same percentile index as LongTracking, over the sorted call times
+      long[] percentiles = new long[PERCENTILES.length];
+      int bucket = 0;
+      int seen = histogram.get(0);
+      for (int i = 0; i < PERCENTILES.length; i++)
+      {
+        int index = (int) Math.round(PERCENTILES[i] * (_callCount - 1));
+        while (seen <= index && bucket < HISTOGRAM_SIZE - 1)
+        {
+          seen += histogram.get(++bucket);
+        }
+        percentiles[i] = Math.max(_min, Math.min(_max, bucketValue(bucket)));
+      }
+      _callTimeStats = new LongStats(_callCount, average, standardDeviation, _min, _max,
+          percentiles[0], percentiles[1], percentiles[2], percentiles[3]);
+
+      for (int i = 0; i < HISTOGRAM_SIZE; i++)
+      {
+        if (histogram.get(i) != 0)
+        {
+          histogram.set(i, 0);
+        }
+      }
+    }
+  }
+
+  /**
+   * Totals since the last reset of the intervals rolled over, immutable.
+   */
+  private static class Totals
+  {
+    private final long _callCount;
+    private final long _callStartCount;
+    private final long _errorCount;
+    private final int[] _errorTypeCounts;
+
+    private Totals()
+    {
+      this(0, 0, 0, new int[ERROR_TYPES.length]);
+    }
+
+    private Totals(long callCount, long callStartCount, long errorCount, int[] errorTypeCounts)
+    {
+      _callCount = callCount;
+      _callStartCount = callStartCount;
+      _errorCount = errorCount;
+      _errorTypeCounts = errorTypeCounts;
+    }
+  }
+
+  private static class Pending
+  {
+    private static class PendingEvent implements StatsRolloverEvent
+    {
+      private final CallStats _stats;
+      private final boolean _reset;
+
+      PendingEvent(CallStats stats, boolean reset)
+      {
+        _stats = stats;
+        _reset = reset;
+      }
+
+      @Override
+      public CallStats getCallStats()
+      {
+        return _stats;
+      }
+
+      @Override
+      public boolean isReset()
+      {
+        return _reset;
+      }
+    }
+
+    private final List<PendingEvent> _pendingEvents;
+    private final List<StatsRolloverEventListener> _listeners;
+
+    private Pending(List<StatsRolloverEventListener> listeners)
+    {
+      _pendingEvents = new ArrayList<PendingEvent>(4);
+      _listeners = listeners;
+    }
+
+    private void add(CallStats stats, boolean reset)
+    {
+      _pendingEvents.add(new PendingEvent(stats, reset));
+    }
+
+    private void deliver()
+    {
+      for (PendingEvent event : _pendingEvents)
+      {
+        for (StatsRolloverEventListener listener : _listeners)
+        {
+          listener.onStatsRollover(event);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,159 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.util.degrader;
+
+import com.linkedin.common.stats.LongStats;
+import com.linkedin.common.stats.LongTracking;
+import com.linkedin.util.clock.Clock;
+import com.linkedin.util.clock.SettableClock;
+import com.linkedin.util.clock.Time;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ * Runs the tests of {@link TestCallTracker} against {@link StripedCallTrackerImpl}, plus the tests of its call time
+ * histogram and of concurrent calls.
+ */
+public class TestStripedCallTracker extends TestCallTracker
+{
+  @Override
+  protected CallTracker createCallTracker(long interval, Clock clock)
+  {
+    return new StripedCallTrackerImpl(interval, clock);
+  }
+
+  @Test
+  public void testBuckets()
+  {
+    int previous = -1;
+    for (long value = 0; value < (1L << 41); value = value < 1000 ? value + 1 : value + value / 100)
+    {
+      int bucket = StripedCallTrackerImpl.bucket(value);
+      Assert.assertTrue(bucket == previous || bucket == previous + 1, "Bucket of " + value + " is not contiguous");
+      previous = bucket;
+
+      long bucketValue = StripedCallTrackerImpl.bucketValue(bucket);
+      if (value < 64)
+      {
+        Assert.assertEquals(bucketValue, value);
+      }
+      else
+      {
+        Assert.assertEquals(bucketValue, value, value / 32.0, "Bucket value of " + value);
+      }
+    }
+    Assert.assertEquals(StripedCallTrackerImpl.bucket(-1), 0);
+    Assert.assertEquals(StripedCallTrackerImpl.bucket(Long.MAX_VALUE), previous);
+  }
+
+  @Test
+  public void testCallTimeStats()
+  {
+    final long interval = Time.minutes(1);
+    SettableClock clock = new SettableClock();
+    CallTracker callTracker = createCallTracker(interval, clock);
+    LongTracking expected = new LongTracking();
+    Random random = new Random(42);
+    for (int i = 0; i < 3000; i++)
+    {
+      // mostly small call times, which are exact, and a tail of large ones
+      long duration = random.nextInt(10) == 0 ? 100 + random.nextInt(100000) : random.nextInt(64);
+      callTracker.trackCall(duration);
+      expected.addValue(duration);
+    }
+    clock.addDuration(interval);
+    LongStats actual = callTracker.getCallStats().getCallTimeStats();
+    LongStats stats = expected.getStats();
+
+    Assert.assertEquals(actual.getCount(), stats.getCount());
+    Assert.assertEquals(actual.getAverage(), stats.getAverage(), 0.0001);
+    Assert.assertEquals(actual.getStandardDeviation(), stats.getStandardDeviation(), 0.0001);
+    Assert.assertEquals(actual.getMinimum(), stats.getMinimum());
+    Assert.assertEquals(actual.getMaximum(), stats.getMaximum());
+    Assert.assertEquals(actual.get50Pct(), stats.get50Pct());
+    Assert.assertEquals(actual.get90Pct(), stats.get90Pct(), stats.get90Pct() / 32.0);
+    Assert.assertEquals(actual.get95Pct(), stats.get95Pct(), stats.get95Pct() / 32.0);
+    Assert.assertEquals(actual.get99Pct(), stats.get99Pct(), stats.get99Pct() / 32.0);
+  }
+
+  @Test
+  public void testConcurrentCalls() throws Exception
+  {
+    final int threads = 16;
+    final int calls = 10000;
+    final long interval = Time.minutes(1);
+    final SettableClock clock = new SettableClock();
+    final CallTracker callTracker = createCallTracker(interval, clock);
+    final CountDownLatch start = new CountDownLatch(1);
+
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < threads; i++)
+    {
+      Thread worker = new Thread(() ->
+      {
+        try
+        {
+          start.await();
+        }
+        catch (InterruptedException e)
+        {
+          return;
+        }
+        for (int j = 0; j < calls; j++)
+        {
+          CallCompletion callCompletion = callTracker.startCall();
+          if (j % 10 == 0)
+          {
+            callCompletion.endCallWithError(ErrorType.REMOTE_INVOCATION_EXCEPTION);
+          }
+          else
+          {
+            callCompletion.endCall();
+          }
+        }
+      });
+      worker.start();
+      workers.add(worker);
+    }
+    start.countDown();
+    for (Thread worker : workers)
+    {
+      worker.join();
+    }
+
+    Assert.assertEquals(callTracker.getCurrentConcurrency(), 0);
+    Assert.assertEquals(callTracker.getCurrentCallStartCountTotal(), threads * calls);
+    Assert.assertEquals(callTracker.getCurrentCallCountTotal(), threads * calls);
+    Assert.assertEquals(callTracker.getCurrentErrorCountTotal(), threads * calls / 10);
+    Assert.assertEquals((int) callTracker.getCurrentErrorTypeCountsTotal().get(ErrorType.REMOTE_INVOCATION_EXCEPTION),
+        threads * calls / 10);
+
+    clock.addDuration(interval);
+    CallTracker.CallStats stats = callTracker.getCallStats();
+    Assert.assertEquals(stats.getCallCount(), threads * calls);
+    Assert.assertEquals(stats.getCallStartCount(), threads * calls);
+    Assert.assertEquals(stats.getErrorCount(), threads * calls / 10);
+    Assert.assertEquals(stats.getCallCountTotal(), threads * calls);
+    Assert.assertTrue(stats.getConcurrentMax() >= 1 && stats.getConcurrentMax() <= threads);
+    Assert.assertEquals(stats.getOutstandingCount(), 0);
+  }
+}
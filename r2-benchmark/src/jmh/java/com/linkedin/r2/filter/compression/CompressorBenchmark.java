@@ -0,0 +1,126 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.compression;
+
+import com.linkedin.data.ByteString;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the latency distribution of compressing and decompressing JSON-like entities with each
+ * {@link Compressor}, through the stream based methods and through the {@link ByteString} methods, which
+ * use pooled zlib instances for deflate and gzip. Sample time mode reports latency percentiles and
+ * throughput mode compares the operations per second of the encoders; the compression ratio of each
+ * encoding and entity size is printed once per trial.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class CompressorBenchmark
+{
+  @Param({"gzip", "deflate", "snappy", "x-snappy-framed", "bzip2", "zstd", "x-lz4-framed"})
+  String _encoding;
+
+  @Param({"1024", "65536", "1048576"})
+  int _entityLength;
+
+  private Compressor _compressor;
+  private byte[] _entity;
+  private ByteString _entityByteString;
+  private byte[] _compressed;
+  private ByteString _compressedByteString;
+
+  @Setup
+  public void setup() throws CompressionException
+  {
+    _compressor = EncodingType.get(_encoding).getCompressor();
+    _entity = entity(_entityLength);
+    _entityByteString = ByteString.copy(_entity);
+    _compressed = _compressor.deflate(new ByteArrayInputStream(_entity));
+    _compressedByteString = ByteString.copy(_compressed);
+  }
+
+  @TearDown
+  public void printRatio()
+  {
+    System.out.printf("%n%s compression ratio for %d bytes: %.2f%n",
+                      _encoding, _entityLength, (double) _entityLength / _compressed.length);
+  }
+
+  @Benchmark
+  public byte[] deflateStream() throws CompressionException
+  {
+    return _compressor.deflate(new ByteArrayInputStream(_entity));
+  }
+
+  @Benchmark
+  public ByteString deflateByteString() throws CompressionException
+  {
+    return _compressor.deflate(_entityByteString);
+  }
+
+  @Benchmark
+  public byte[] inflateStream() throws CompressionException
+  {
+    return _compressor.inflate(new ByteArrayInputStream(_compressed));
+  }
+
+  @Benchmark
+  public ByteString inflateByteString() throws CompressionException
+  {
+    return _compressor.inflate(_compressedByteString);
+  }
+
+  /**
+   * Returns a JSON collection of records with repeated field names and varying values, as typical
+   * rest.li responses are.
+   */
+  private static byte[] entity(int length)
+  {
+    final Random random = new Random(length);
+    final StringBuilder builder = new StringBuilder(length + 128);
+    builder.append("{\"elements\":[");
+    for (int i = 0; builder.length() < length; i++)
+    {
+      builder.append(i == 0 ? "" : ",")
+          .append("{\"id\":").append(random.nextInt(1000000))
+          .append(",\"message\":\"greeting ").append(Long.toHexString(random.nextLong()))
+          .append("\",\"tone\":\"").append(random.nextBoolean() ? "FRIENDLY" : "SINCERE")
+          .append("\",\"score\":").append(random.nextDouble())
+          .append('}');
+    }
+    return builder.substring(0, length).getBytes(StandardCharsets.UTF_8);
+  }
+}
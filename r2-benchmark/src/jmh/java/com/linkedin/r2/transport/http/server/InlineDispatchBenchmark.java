@@ -0,0 +1,145 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.util.None;
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.filter.FilterChains;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.transport.common.Client;
+import com.linkedin.r2.transport.common.bridge.client.TransportClientAdapter;
+import com.linkedin.r2.transport.common.bridge.server.TransportDispatcherBuilder;
+import com.linkedin.r2.transport.http.client.HttpClientFactory;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the round trip latency of rest requests to a {@link HttpNettyServer} over loopback, with requests
+ * dispatched on the executor group of the server or inline on its event loops. The "async" resource answers on
+ * the thread it is invoked on, the "blocking" resource answers on the executor of the
+ * {@link R2Constants#BLOCKING_OFFLOAD_EXECUTOR} local attribute when there is one, as offloaded blocking rest.li
+ * methods do.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class InlineDispatchBenchmark
+{
+  private static final URI ASYNC = URI.create("/async");
+  private static final URI BLOCKING = URI.create("/blocking");
+
+  @Param({"false", "true"})
+  boolean _inlineDispatch;
+
+  @Param({"async", "blocking"})
+  String _resource;
+
+  @Param({"1024"})
+  int _entityLength;
+
+  private HttpServer _server;
+  private HttpClientFactory _clientFactory;
+  private Client _client;
+  private RestRequest _request;
+
+  @Setup
+  public void setup() throws IOException
+  {
+    final int port = freePort();
+    _server = new HttpNettyServerBuilder()
+        .filters(FilterChains.empty())
+        .port(port)
+        .inlineDispatch(_inlineDispatch)
+        .transportDispatcher(new TransportDispatcherBuilder()
+            .addRestHandler(ASYNC, (request, requestContext, callback) ->
+                callback.onSuccess(new RestResponseBuilder().setEntity(request.getEntity()).build()))
+            .addRestHandler(BLOCKING, (request, requestContext, callback) ->
+            {
+              final Runnable respond = () -> callback.onSuccess(new RestResponseBuilder().setEntity(request.getEntity()).build());
+              final Executor executor = (Executor) requestContext.getLocalAttr(R2Constants.BLOCKING_OFFLOAD_EXECUTOR);
+              if (executor == null)
+              {
+                respond.run();
+              }
+              else
+              {
+                executor.execute(respond);
+              }
+            })
+            .build())
+        .build();
+    _server.start();
+
+    _clientFactory = new HttpClientFactory.Builder().build();
+    _client = new TransportClientAdapter(_clientFactory.getClient(Collections.<String, Object>emptyMap()));
+    _request = new RestRequestBuilder(URI.create("http://localhost:" + port + "/" + _resource))
+        .setEntity(ByteString.copy(new byte[_entityLength]))
+        .build();
+  }
+
+  @TearDown
+  public void tearDown() throws Exception
+  {
+    final FutureCallback<None> clientShutdown = new FutureCallback<>();
+    _client.shutdown(clientShutdown);
+    clientShutdown.get(10, TimeUnit.SECONDS);
+    final FutureCallback<None> factoryShutdown = new FutureCallback<>();
+    _clientFactory.shutdown(factoryShutdown);
+    factoryShutdown.get(10, TimeUnit.SECONDS);
+    _server.stop();
+    _server.waitForStop();
+  }
+
+  @Benchmark
+  public RestResponse roundTrip() throws Exception
+  {
+    return _client.restRequest(_request).get(10, TimeUnit.SECONDS);
+  }
+
+  private static int freePort() throws IOException
+  {
+    try (ServerSocket socket = new ServerSocket(0))
+    {
+      return socket.getLocalPort();
+    }
+  }
+}
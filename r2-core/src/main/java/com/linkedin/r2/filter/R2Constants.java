@@ -66,4 +66,23 @@ public class R2Constants
   public static final String PREEMPTIVE_TIMEOUT_RATE = "PREEMPTIVE_TIMEOUT_RATE";
 
   public static final String PROJECTION_INFO = "PROJECTION_INFO";
+
+  /**
+   * Local attribute of the server request context holding a {@link Runnable} that the transport runs once
+   * the entity of the response has been written, e.g. to return pooled buffers backing the entity.
+   */
+  public static final String RESPONSE_ENTITY_RELEASE = "RESPONSE_ENTITY_RELEASE";
+
+  /**
+   * Local attribute of the server request context holding a {@link java.util.concurrent.Executor} when the
+   * transport dispatches the request on one of its I/O threads. Request handlers which may block should
+   * continue the request on this executor.
+   */
+  public static final String BLOCKING_OFFLOAD_EXECUTOR = "BLOCKING_OFFLOAD_EXECUTOR";
+
+  /**
+   * Local attribute of the client request context holding a {@link com.linkedin.r2.util.RequestCancellation}
+   * that the caller can use to abort the request while it is in flight.
+   */
+  public static final String REQUEST_CANCELLATION = "REQUEST_CANCELLATION";
 }
@@ -148,11 +148,29 @@ public class AsyncPoolStatsTracker
     _currentMaxPoolSize = Math.max(_poolSizeSupplier.get(), _currentMaxPoolSize);
   }
 
+  /**
+   * Samples a maximum pool size observed by the pool since the last sample, for pools which track it themselves
+   * rather than sampling on every creation.
+   */
+  public void sampleMaxPoolSize(int poolSize)
+  {
+    _currentMaxPoolSize = Math.max(poolSize, _currentMaxPoolSize);
+  }
+
   public void sampleMaxCheckedOut()
   {
     _currentMaxCheckedOut = Math.max(_checkedOutSupplier.get(), _currentMaxCheckedOut);
   }
 
+  /**
+   * Samples a maximum number of checked out objects observed by the pool since the last sample, for pools
+   * which track it themselves rather than sampling on every checkout.
+   */
+  public void sampleMaxCheckedOut(int checkedOut)
+  {
+    _currentMaxCheckedOut = Math.max(checkedOut, _currentMaxCheckedOut);
+  }
+
   public void sampleMaxWaitTime(long waitTimeMillis)
   {
     _currentMaxWaitTime = Math.max(waitTimeMillis, _currentMaxWaitTime);
@@ -0,0 +1,750 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.client;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.SimpleCallback;
+import com.linkedin.common.stats.LongTracker;
+import com.linkedin.common.stats.LongTracking;
+import com.linkedin.common.util.None;
+import com.linkedin.r2.SizeLimitExceededException;
+import com.linkedin.r2.transport.http.client.RateLimiter.Task;
+import com.linkedin.r2.util.Cancellable;
+import com.linkedin.util.ArgumentUtil;
+import com.linkedin.util.clock.Clock;
+import com.linkedin.util.clock.SystemClock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * An {@link AsyncPool} with the same behavior as {@link AsyncPoolImpl}, which does not hold any lock on the
+ * {@link #get(Callback)}, {@link #put(Object)} and {@link #dispose(Object)} paths. It suits pools shared by many
+ * event loop threads, where the single lock of {@link AsyncPoolImpl} is contended.
+ *
+ * <p>
+ * The idle objects and the waiters live in lock-free deques, and the pool size, number of checked out objects,
+ * idle objects and waiters are atomic counters. Since an object may be returned to the idle deque while a getter
+ * adds itself to the waiters, both sides hand idle objects to waiters after adding their element, so that at least
+ * one of them sees the other one's element.
+ *
+ * <p>
+ * The statistics are guarded by their own lock, which is only taken to count object creations and destructions,
+ * by getters that waited, and by {@link #getStats()}. The wait times and the maximum pool size and checked out
+ * objects are recorded outside of it, and {@link #getStats()} reports the pool size, checked out and idle counts
+ * from a single consistent read.
+ */
+public class LockFreeAsyncPoolImpl<T> implements AsyncPool<T>
+{
+  private static final Logger LOG = LoggerFactory.getLogger(LockFreeAsyncPoolImpl.class);
+  private static final int MAX_STATS_READS = 10;
+
+  // Configured
+  private final String _poolName;
+  private final Lifecycle<T> _lifecycle;
+  private final int _maxSize;
+  private final int _maxWaiters;
+  private final long _idleTimeout;
+  private final ScheduledExecutorService _timeoutExecutor;
+  private final int _minSize;
+  private final AsyncPoolImpl.Strategy _strategy;
+  private final RateLimiter _rateLimiter;
+  private volatile ScheduledFuture<?> _objectTimeoutFuture;
+
+  private enum State { NOT_YET_STARTED, RUNNING, SHUTTING_DOWN, STOPPED }
+
+  private final AtomicReference<State> _state = new AtomicReference<>(State.NOT_YET_STARTED);
+  private final AtomicReference<Callback<None>> _shutdownCallback = new AtomicReference<>();
+  // Including idle, checked out, and creations/destructions in progress
+  private final AtomicInteger _poolSize = new AtomicInteger();
+  private final AtomicInteger _checkedOut = new AtomicInteger();
+  // Maximum checked out and pool size since the last getStats
+  private final AtomicInteger _maxCheckedOut = new AtomicInteger();
+  private final AtomicInteger _maxPoolSize = new AtomicInteger();
+  // Unused objects live here, sorted by age.
+  // The first object is the least recently added object.
+  private final ConcurrentLinkedDeque<TimedObject<T>> _idle = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger _idleSize = new AtomicInteger();
+  // When no unused objects are available, waiters live here until they are served or cancelled
+  private final ConcurrentLinkedDeque<Waiter> _waiters = new ConcurrentLinkedDeque<>();
+  // Number of waiters not yet served or cancelled
+  private final AtomicInteger _waiterCount = new AtomicInteger();
+  // Gets completed without waiting, recorded with a zero wait time by getStats
+  private final LongAdder _immediateGets = new LongAdder();
+  // Guarded by itself, so that wait times are recorded without holding the lock of the statistics
+  private final LongTracker _waitTimeTracker;
+  // Whether an object creation failed since the rate limiter period was last reset
+  private volatile boolean _backingOff = false;
+
+  // Guarded by itself
+  private final AsyncPoolStatsTracker _statsTracker;
+  // Counts read at once by getStats and reported by the stats tracker, guarded by the stats tracker
+  private int _statsPoolSize;
+  private int _statsCheckedOut;
+  private int _statsIdleSize;
+
+  /**
+   * Constructs a pool with the same arguments as
+   * {@link AsyncPoolImpl#AsyncPoolImpl(String, Lifecycle, int, long, ScheduledExecutorService, int,
+   * AsyncPoolImpl.Strategy, int, RateLimiter, Clock, LongTracker)}.
+   */
+  public LockFreeAsyncPoolImpl(String name,
+      Lifecycle<T> lifecycle,
+      int maxSize,
+      long idleTimeout,
+      ScheduledExecutorService timeoutExecutor,
+      int maxWaiters,
+      AsyncPoolImpl.Strategy strategy,
+      int minSize,
+      RateLimiter rateLimiter,
+      Clock clock,
+      LongTracker waitTimeTracker)
+  {
+    ArgumentUtil.notNull(lifecycle, "lifecycle");
+    ArgumentUtil.notNull(timeoutExecutor, "timeoutExecutor");
+    ArgumentUtil.notNull(strategy, "strategy");
+    ArgumentUtil.notNull(rateLimiter, "rateLimiter");
+
+    _poolName = name + "/" + Integer.toHexString(hashCode());
+    _lifecycle = lifecycle;
+    _maxSize = maxSize;
+    _idleTimeout = idleTimeout;
+    _timeoutExecutor = timeoutExecutor;
+    _maxWaiters = maxWaiters;
+    _strategy = strategy;
+    _minSize = minSize;
+    _rateLimiter = rateLimiter;
+    _waitTimeTracker = waitTimeTracker;
+    _statsTracker = new AsyncPoolStatsTracker(
+        () -> _lifecycle.getStats(),
+        () -> _maxSize,
+        () -> _minSize,
+        () -> _statsPoolSize,
+        () -> _statsCheckedOut,
+        () -> _statsIdleSize,
+        clock,
+        waitTimeTracker);
+  }
+
+  /**
+   * Constructs a pool with a {@link NoopRateLimiter}, no maximum number of waiters and the {@link SystemClock}.
+   */
+  public LockFreeAsyncPoolImpl(String name,
+      Lifecycle<T> lifecycle,
+      int maxSize,
+      long idleTimeout,
+      ScheduledExecutorService timeoutExecutor,
+      AsyncPoolImpl.Strategy strategy,
+      int minSize)
+  {
+    this(name, lifecycle, maxSize, idleTimeout, timeoutExecutor, Integer.MAX_VALUE, strategy, minSize,
+        new NoopRateLimiter(), SystemClock.instance(), new LongTracking());
+  }
+
+  @Override
+  public String getName()
+  {
+    return _poolName;
+  }
+
+  @Override
+  public void start()
+  {
+    if (!_state.compareAndSet(State.NOT_YET_STARTED, State.RUNNING))
+    {
+      throw new IllegalStateException(_poolName + " is " + _state.get());
+    }
+    if (_idleTimeout > 0)
+    {
+      long freq = Math.min(_idleTimeout / 10, 1000);
+      _objectTimeoutFuture = _timeoutExecutor.scheduleAtFixedRate(this::timeoutObjects, freq, freq, TimeUnit.MILLISECONDS);
+    }
+
+    // Make the minimum required number of connections now
+    for (int i = 0; i < _minSize; i++)
+    {
+      if (shouldCreate())
+      {
+        create();
+      }
+    }
+  }
+
+  @Override
+  public void shutdown(Callback<None> callback)
+  {
+    if (!_state.compareAndSet(State.RUNNING, State.SHUTTING_DOWN))
+    {
+      callback.onError(new IllegalStateException(_poolName + " is " + _state.get()));
+      return;
+    }
+    _shutdownCallback.set(callback);
+    LOG.info("{}: {}", _poolName, "shutdown requested");
+    shutdownIfNeeded();
+  }
+
+  @Override
+  public Collection<Callback<T>> cancelWaiters()
+  {
+    List<Callback<T>> cancelled = new ArrayList<>(_waiterCount.get());
+    for (Waiter waiter; (waiter = pollWaiter()) != null;)
+    {
+      cancelled.add(waiter);
+    }
+    return cancelled;
+  }
+
+  @Override
+  public Cancellable get(final Callback<T> callback)
+  {
+    for (;;)
+    {
+      final State state = _state.get();
+      if (state != State.RUNNING)
+      {
+        _immediateGets.increment();
+        callback.onError(new IllegalStateException(_poolName + " is " + state));
+        return () -> false;
+      }
+      TimedObject<T> obj = pollIdle();
+      if (obj == null)
+      {
+        break;
+      }
+      T rawObj = obj.get();
+      if (_lifecycle.validateGet(rawObj))
+      {
+        trc("dequeued an idle object");
+        // Valid object; done
+        checkOut();
+        _immediateGets.increment();
+        callback.onSuccess(rawObj);
+        return () -> false;
+      }
+      // Invalid object, discard it and keep trying
+      destroy(rawObj, true);
+      trc("dequeued and disposed an invalid idle object");
+    }
+
+    if (_waiterCount.incrementAndGet() > _maxWaiters)
+    {
+      _waiterCount.decrementAndGet();
+      _immediateGets.increment();
+      // This is a recoverable exception. User can simply retry the failed get() operation.
+      callback.onError(
+          new SizeLimitExceededException("AsyncPool " + _poolName + " reached maximum waiter size: " + _maxWaiters));
+      return () -> false;
+    }
+    Waiter waiter = new Waiter(callback);
+    _waiters.offerLast(waiter);
+    trc("enqueued a waiter");
+    if (shouldCreate())
+    {
+      create();
+    }
+    // An object may have been added to the idle deque after it was found empty
+    serveWaiters();
+    return waiter;
+  }
+
+  @Override
+  public void put(T obj)
+  {
+    _checkedOut.decrementAndGet();
+    if (!_lifecycle.validatePut(obj))
+    {
+      destroy(obj, true);
+      return;
+    }
+    // A channel made it through a complete request lifecycle
+    if (_backingOff)
+    {
+      _backingOff = false;
+      _rateLimiter.setPeriod(0);
+    }
+    add(obj);
+  }
+
+  private void add(T obj)
+  {
+    // If we have waiters, the idle deque is usually empty, so hand the object over directly
+    Waiter waiter = _waiters.isEmpty() ? null : pollWaiter();
+    if (waiter != null)
+    {
+      trc("dequeued a waiter");
+      checkOut();
+      waiter.onSuccess(obj);
+    }
+    else
+    {
+      offerIdle(new TimedObject<>(obj));
+      trc("enqueued an idle object");
+      // A waiter may have been added after the waiters were found empty
+      serveWaiters();
+    }
+    shutdownIfNeeded();
+  }
+
+  /**
+   * Hands idle objects to waiters until either runs out. Both the getters, after adding a waiter, and the putters,
+   * after adding an idle object, call this method.
+   */
+  private void serveWaiters()
+  {
+    while (!_waiters.isEmpty())
+    {
+      TimedObject<T> obj = pollIdle();
+      if (obj == null)
+      {
+        return;
+      }
+      T rawObj = obj.get();
+      if (!_lifecycle.validateGet(rawObj))
+      {
+        destroy(rawObj, true);
+        continue;
+      }
+      Waiter waiter = pollWaiter();
+      if (waiter == null)
+      {
+        // Put the object back where it was, then check again for a waiter added meanwhile
+        if (_strategy == AsyncPoolImpl.Strategy.LRU)
+        {
+          _idle.offerFirst(obj);
+        }
+        else
+        {
+          _idle.offerLast(obj);
+        }
+        _idleSize.incrementAndGet();
+        continue;
+      }
+      trc("dequeued a waiter");
+      checkOut();
+      waiter.onSuccess(rawObj);
+    }
+  }
+
+  @Override
+  public void dispose(T obj)
+  {
+    _checkedOut.decrementAndGet();
+    destroy(obj, true);
+  }
+
+  @Override
+  public AsyncPoolStats getStats()
+  {
+    final long immediateGets = _immediateGets.sumThenReset();
+    synchronized (_waitTimeTracker)
+    {
+      for (long i = 0; i < immediateGets; i++)
+      {
+        _waitTimeTracker.addValue(0);
+      }
+    }
+
+    // The counters change independently of each other, read them again until they did not change while read
+    int poolSize;
+    int checkedOut;
+    int idleSize;
+    int attempts = 0;
+    do
+    {
+      poolSize = _poolSize.get();
+      checkedOut = _checkedOut.get();
+      idleSize = _idleSize.get();
+    }
+    while (++attempts < MAX_STATS_READS
+        && (poolSize != _poolSize.get() || checkedOut != _checkedOut.get() || idleSize != _idleSize.get()));
+
+    synchronized (_statsTracker)
+    {
+      _statsPoolSize = poolSize;
+      _statsCheckedOut = checkedOut;
+      _statsIdleSize = idleSize;
+      _statsTracker.sampleMaxCheckedOut(_maxCheckedOut.getAndSet(checkedOut));
+      _statsTracker.sampleMaxPoolSize(_maxPoolSize.getAndSet(poolSize));
+      // the stats tracker reads then resets the wait times
+      synchronized (_waitTimeTracker)
+      {
+        return _statsTracker.getStats();
+      }
+    }
+  }
+
+  private TimedObject<T> pollIdle()
+  {
+    TimedObject<T> obj = (_strategy == AsyncPoolImpl.Strategy.LRU) ? _idle.pollFirst() : _idle.pollLast();
+    if (obj != null)
+    {
+      _idleSize.decrementAndGet();
+    }
+    return obj;
+  }
+
+  private void offerIdle(TimedObject<T> obj)
+  {
+    _idle.offerLast(obj);
+    _idleSize.incrementAndGet();
+  }
+
+  /**
+   * @return the first waiter that is not cancelled, which is removed from the waiters, or null if there is none.
+   */
+  private Waiter pollWaiter()
+  {
+    for (Waiter waiter; (waiter = _waiters.pollFirst()) != null;)
+    {
+      if (waiter.claim())
+      {
+        return waiter;
+      }
+    }
+    return null;
+  }
+
+  private void checkOut()
+  {
+    updateMax(_maxCheckedOut, _checkedOut.incrementAndGet());
+  }
+
+  private static void updateMax(AtomicInteger max, int value)
+  {
+    for (int current; value > (current = max.get()); )
+    {
+      if (max.compareAndSet(current, value))
+      {
+        break;
+      }
+    }
+  }
+
+  private void destroy(T obj, boolean bad)
+  {
+    if (bad)
+    {
+      synchronized (_statsTracker)
+      {
+        _statsTracker.incrementBadDestroyed();
+      }
+    }
+    trc("disposing a pooled object");
+    _lifecycle.destroy(obj, bad, new Callback<T>()
+    {
+      @Override
+      public void onSuccess(T t)
+      {
+        synchronized (_statsTracker)
+        {
+          _statsTracker.incrementDestroyed();
+        }
+        if (objectDestroyed(1))
+        {
+          create();
+        }
+      }
+
+      @Override
+      public void onError(Throwable e)
+      {
+        synchronized (_statsTracker)
+        {
+          _statsTracker.incrementDestroyErrors();
+        }
+        if (objectDestroyed(1))
+        {
+          create();
+        }
+      }
+    });
+  }
+
+  /**
+   * @param num number of objects have been destroyed
+   * @return true if another object creation should be initiated
+   */
+  private boolean objectDestroyed(int num)
+  {
+    for (int poolSize; !_poolSize.compareAndSet(poolSize = _poolSize.get(), Math.max(poolSize - num, 0)); )
+    {
+    }
+    boolean create = shouldCreate();
+    shutdownIfNeeded();
+    return create;
+  }
+
+  /**
+   * Reserves a slot in the pool for a new object if it is needed and allowed.
+   *
+   * @return true if another object creation should be initiated.
+   */
+  private boolean shouldCreate()
+  {
+    if (_state.get() != State.RUNNING)
+    {
+      return false;
+    }
+    for (;;)
+    {
+      int poolSize = _poolSize.get();
+      if (poolSize >= _maxSize || (_waiterCount.get() == 0 && poolSize >= _minSize))
+      {
+        return false;
+      }
+      if (_poolSize.compareAndSet(poolSize, poolSize + 1))
+      {
+        updateMax(_maxPoolSize, poolSize + 1);
+        return true;
+      }
+    }
+  }
+
+  private void create()
+  {
+    trc("initiating object creation");
+    _rateLimiter.submit(new Task()
+    {
+      @Override
+      public void run(final SimpleCallback callback)
+      {
+        _lifecycle.create(new Callback<T>()
+        {
+          @Override
+          public void onSuccess(T t)
+          {
+            synchronized (_statsTracker)
+            {
+              _statsTracker.incrementCreated();
+            }
+            add(t);
+            callback.onDone();
+          }
+
+          @Override
+          public void onError(final Throwable e)
+          {
+            _rateLimiter.incrementPeriod();
+            _backingOff = true;
+            // Like AsyncPoolImpl, deny all waiters and cancel all pending creates if a create fails, so that
+            // waiters see the real reason rather than an eventual timeout while creations are rate limited.
+            final Collection<Task> cancelledCreate = _rateLimiter.cancelPendingTasks();
+            synchronized (_statsTracker)
+            {
+              _statsTracker.incrementCreateErrors();
+            }
+            boolean create = objectDestroyed(1 + cancelledCreate.size());
+            for (Callback<T> denied : cancelWaiters())
+            {
+              try
+              {
+                denied.onError(e);
+              }
+              catch (Exception ex)
+              {
+                LOG.error("Encountered error while invoking error waiter callback", ex);
+              }
+            }
+            if (create)
+            {
+              create();
+            }
+            LOG.debug(_poolName + ": object creation failed", e);
+            callback.onDone();
+          }
+        });
+      }
+    });
+  }
+
+  private void timeoutObjects()
+  {
+    List<T> toReap = new ArrayList<>();
+    long target = System.currentTimeMillis() - _idleTimeout;
+    int excess = _poolSize.get() - _minSize;
+    for (TimedObject<T> obj; excess > 0 && (obj = _idle.peekFirst()) != null && obj.getTime() < target; )
+    {
+      // A getter may have taken the object since it was peeked
+      if (_idle.removeFirstOccurrence(obj))
+      {
+        _idleSize.decrementAndGet();
+        toReap.add(obj.get());
+        excess--;
+      }
+    }
+
+    if (toReap.size() > 0)
+    {
+      synchronized (_statsTracker)
+      {
+        for (int i = 0; i < toReap.size(); i++)
+        {
+          _statsTracker.incrementTimedOut();
+        }
+      }
+      LOG.debug("{}: disposing {} objects due to idle timeout", _poolName, toReap.size());
+      for (T obj : toReap)
+      {
+        destroy(obj, false);
+      }
+    }
+  }
+
+  private void shutdownIfNeeded()
+  {
+    State state = _state.get();
+    if (state == State.SHUTTING_DOWN)
+    {
+      final int waiters = _waiterCount.get();
+      final int idle = _idleSize.get();
+      final int poolSize = _poolSize.get();
+      if (waiters == 0 && idle == poolSize)
+      {
+        _state.compareAndSet(State.SHUTTING_DOWN, State.STOPPED);
+        state = _state.get();
+      }
+      else
+      {
+        LOG.info("{}: {} waiters and {} objects outstanding before shutdown", new Object[]{ _poolName, waiters, poolSize - idle });
+      }
+    }
+    if (state == State.STOPPED)
+    {
+      // The shutdown callback may be set after another thread stopped the pool, whoever takes it completes it
+      Callback<None> shutdown = _shutdownCallback.getAndSet(null);
+      if (shutdown != null)
+      {
+        finishShutdown(shutdown);
+      }
+    }
+  }
+
+  private void finishShutdown(Callback<None> shutdown)
+  {
+    ScheduledFuture<?> future = _objectTimeoutFuture;
+    if (future != null)
+    {
+      future.cancel(false);
+    }
+
+    LOG.info("{}: {}", _poolName, "shutdown complete");
+
+    shutdown.onSuccess(None.none());
+  }
+
+  private static class TimedObject<T>
+  {
+    private final T _obj;
+    private final long _time;
+
+    public TimedObject(T obj)
+    {
+      _obj = obj;
+      _time = System.currentTimeMillis();
+    }
+
+    public T get()
+    {
+      return _obj;
+    }
+
+    public long getTime()
+    {
+      return _time;
+    }
+  }
+
+  /**
+   * A pending get, which is either claimed once to be served or cancelled.
+   */
+  private class Waiter implements Callback<T>, Cancellable
+  {
+    private final Callback<T> _callback;
+    private final long _startTime;
+    private final AtomicBoolean _claimed = new AtomicBoolean();
+
+    private Waiter(Callback<T> callback)
+    {
+      _callback = callback;
+      _startTime = System.currentTimeMillis();
+    }
+
+    private boolean claim()
+    {
+      if (_claimed.compareAndSet(false, true))
+      {
+        _waiterCount.decrementAndGet();
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public boolean cancel()
+    {
+      if (claim())
+      {
+        _waiters.removeFirstOccurrence(this);
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void onError(Throwable e)
+    {
+      trackWaitTime();
+      _callback.onError(e);
+    }
+
+    @Override
+    public void onSuccess(T result)
+    {
+      trackWaitTime();
+      _callback.onSuccess(result);
+    }
+
+    private void trackWaitTime()
+    {
+      long waitTime = System.currentTimeMillis() - _startTime;
+      synchronized (_waitTimeTracker)
+      {
+        _waitTimeTracker.addValue(waitTime);
+      }
+      synchronized (_statsTracker)
+      {
+        _statsTracker.sampleMaxWaitTime(waitTime);
+      }
+    }
+  }
+
+  private void trc(Object toLog)
+  {
+    LOG.trace("{}: {}", _poolName, toLog);
+  }
+}
@@ -23,9 +23,11 @@ package com.linkedin.r2.transport.http.client;
 import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
 import com.linkedin.r2.transport.common.bridge.common.TransportResponse;
 import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
+import com.linkedin.r2.util.Cancellable;
 import com.linkedin.r2.util.Timeout;
 import com.linkedin.r2.util.TimeoutExecutor;
 
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -34,15 +36,17 @@ import java.util.concurrent.TimeoutException;
  * A TransportCallback wrapper with associated timeout.  If the TimeoutTransportCallback's
  * onResponse method is invoked before the timeout expires, the timeout is cancelled.
  * Otherwise, when the timeout expires, the wrapped TransportCallback's onResponse method is
- * invoked with a {@link java.util.concurrent.TimeoutException}.
+ * invoked with a {@link java.util.concurrent.TimeoutException}. Cancelling it runs the timeout
+ * tasks right away, and the wrapped TransportCallback is invoked with a {@link CancellationException}.
  *
  * @author Steven Ihde
  * @version $Revision: $
  */
 
-public class TimeoutTransportCallback<T> implements TransportCallback<T>, TimeoutExecutor
+public class TimeoutTransportCallback<T> implements TransportCallback<T>, TimeoutExecutor, Cancellable
 {
   private final Timeout<TransportCallback<T>> _timeout;
+  private volatile boolean _cancelled;
 
   /**
    * Construct a new instance using the specified parameters.
@@ -66,7 +70,9 @@ public class TimeoutTransportCallback<T> implements TransportCallback<T>, Timeou
       @Override
       public void run()
       {
-        callback.onResponse(TransportResponseImpl.<T>error(new TimeoutException(timeoutMessage)));
+        callback.onResponse(TransportResponseImpl.<T>error(_cancelled
+            ? new CancellationException("Request was cancelled")
+            : new TimeoutException(timeoutMessage)));
       }
     });
   }
@@ -81,6 +87,13 @@ public class TimeoutTransportCallback<T> implements TransportCallback<T>, Timeou
     }
   }
 
+  @Override
+  public boolean cancel()
+  {
+    _cancelled = true;
+    return _timeout.expire();
+  }
+
   @Override
   public void addTimeoutTask(Runnable task)
   {
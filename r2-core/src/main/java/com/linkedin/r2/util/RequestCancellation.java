@@ -0,0 +1,72 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.util;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * A handle to cancel an in-flight request, passed to the transport in the request context under
+ * {@link com.linkedin.r2.filter.R2Constants#REQUEST_CANCELLATION}. The caller may cancel the request
+ * at any time; the transport registers the {@link Cancellable} which actually aborts the request
+ * once it has started writing it. A cancellation which happens before the transport registers is
+ * applied as soon as it does.
+ *
+ * Once cancelled, the callback of the request is invoked with a
+ * {@link java.util.concurrent.CancellationException}, unless the response already arrived.
+ */
+public class RequestCancellation implements Cancellable
+{
+  private static final Cancellable CANCELLED = () -> false;
+
+  private final AtomicReference<Cancellable> _cancellable = new AtomicReference<>();
+
+  /**
+   * Registers the {@link Cancellable} which aborts the request. Called by the transport; only the first
+   * registration is kept.
+   *
+   * @param cancellable the {@link Cancellable} which aborts the request.
+   */
+  public void setCancellable(Cancellable cancellable)
+  {
+    if (!_cancellable.compareAndSet(null, cancellable) && _cancellable.get() == CANCELLED)
+    {
+      cancellable.cancel();
+    }
+  }
+
+  /**
+   * @return true if {@link #cancel()} was called.
+   */
+  public boolean isCancelled()
+  {
+    return _cancellable.get() == CANCELLED;
+  }
+
+  /**
+   * Cancels the request. If the transport has not registered yet, the request is cancelled as soon
+   * as it does.
+   *
+   * @return true if an in-flight request was cancelled by this call.
+   */
+  @Override
+  public boolean cancel()
+  {
+    Cancellable cancellable = _cancellable.getAndSet(CANCELLED);
+    return cancellable != null && cancellable != CANCELLED && cancellable.cancel();
+  }
+}
@@ -61,28 +61,7 @@ public class Timeout<T> implements TimeoutExecutor
       throw new NullPointerException();
     }
     _item = new AtomicReference<>(item);
-    _future = executor.schedule(() -> {
-      T item1 = _item.getAndSet(null);
-      if (item1 != null)
-      {
-        List<Runnable> actions = _queue.close();
-        if (actions.isEmpty())
-        {
-          LOG.warn("Timeout elapsed but no action was specified");
-        }
-        for (Runnable action : actions)
-        {
-          try
-          {
-            action.run();
-          }
-          catch (Exception e)
-          {
-            LOG.error("Failed to execute timeout action", e);
-          }
-        }
-      }
-    }, timeout, timeoutUnit);
+    _future = executor.schedule(this::runTimeoutTasks, timeout, timeoutUnit);
   }
 
   /**
@@ -100,6 +79,48 @@ public class Timeout<T> implements TimeoutExecutor
     return item;
   }
 
+  /**
+   * Expire this Timeout before its delay elapses, executing its timeout tasks right away.
+   *
+   * @return true if this call expired the Timeout; false if the item was already retrieved
+   * or the Timeout already expired.
+   */
+  public boolean expire()
+  {
+    boolean expired = runTimeoutTasks();
+    if (expired)
+    {
+      _future.cancel(false);
+    }
+    return expired;
+  }
+
+  private boolean runTimeoutTasks()
+  {
+    T item = _item.getAndSet(null);
+    if (item == null)
+    {
+      return false;
+    }
+    List<Runnable> actions = _queue.close();
+    if (actions.isEmpty())
+    {
+      LOG.warn("Timeout elapsed but no action was specified");
+    }
+    for (Runnable action : actions)
+    {
+      try
+      {
+        action.run();
+      }
+      catch (Exception e)
+      {
+        LOG.error("Failed to execute timeout action", e);
+      }
+    }
+    return true;
+  }
+
   @Override
   public void addTimeoutTask(Runnable action)
   {
@@ -0,0 +1,111 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.util;
+
+import com.linkedin.r2.transport.common.bridge.common.TransportResponse;
+import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
+import com.linkedin.r2.transport.http.client.TimeoutTransportCallback;
+import java.util.Collections;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+public class TestRequestCancellation
+{
+  private ScheduledExecutorService _scheduler;
+
+  @BeforeClass
+  public void setUp()
+  {
+    _scheduler = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  @AfterClass
+  public void tearDown()
+  {
+    _scheduler.shutdownNow();
+  }
+
+  @Test
+  public void testCancelAfterRegistration()
+  {
+    AtomicReference<TransportResponse<String>> response = new AtomicReference<>();
+    AtomicInteger timeoutTasks = new AtomicInteger();
+    TimeoutTransportCallback<String> callback =
+        new TimeoutTransportCallback<>(_scheduler, 1, TimeUnit.HOURS, response::set, "timeout");
+    callback.addTimeoutTask(timeoutTasks::incrementAndGet);
+
+    RequestCancellation cancellation = new RequestCancellation();
+    cancellation.setCancellable(callback);
+    assertFalse(cancellation.isCancelled());
+    assertTrue(cancellation.cancel());
+
+    assertTrue(cancellation.isCancelled());
+    assertTrue(response.get().getError() instanceof CancellationException);
+    assertEquals(timeoutTasks.get(), 1);
+
+    // cancelling again or completing the request afterwards has no effect
+    assertFalse(cancellation.cancel());
+    callback.onResponse(TransportResponseImpl.success("response", Collections.emptyMap()));
+    assertTrue(response.get().getError() instanceof CancellationException);
+    assertEquals(timeoutTasks.get(), 1);
+  }
+
+  @Test
+  public void testCancelBeforeRegistration()
+  {
+    AtomicReference<TransportResponse<String>> response = new AtomicReference<>();
+    TimeoutTransportCallback<String> callback =
+        new TimeoutTransportCallback<>(_scheduler, 1, TimeUnit.HOURS, response::set, "timeout");
+
+    RequestCancellation cancellation = new RequestCancellation();
+    assertFalse(cancellation.cancel());
+    assertTrue(cancellation.isCancelled());
+
+    cancellation.setCancellable(callback);
+    assertTrue(response.get().getError() instanceof CancellationException);
+  }
+
+  @Test
+  public void testCancelAfterResponse()
+  {
+    AtomicReference<TransportResponse<String>> response = new AtomicReference<>();
+    AtomicInteger timeoutTasks = new AtomicInteger();
+    TimeoutTransportCallback<String> callback =
+        new TimeoutTransportCallback<>(_scheduler, 1, TimeUnit.HOURS, response::set, "timeout");
+    callback.addTimeoutTask(timeoutTasks::incrementAndGet);
+
+    RequestCancellation cancellation = new RequestCancellation();
+    cancellation.setCancellable(callback);
+    callback.onResponse(TransportResponseImpl.success("response", Collections.emptyMap()));
+
+    assertFalse(cancellation.cancel());
+    assertEquals(response.get().getResponse(), "response");
+    assertEquals(timeoutTasks.get(), 0);
+  }
+}
@@ -0,0 +1,374 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.transport.http.client;
+
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.stats.LongTracking;
+import com.linkedin.common.util.None;
+import com.linkedin.r2.SizeLimitExceededException;
+import com.linkedin.r2.transport.http.client.AsyncPool;
+import com.linkedin.r2.transport.http.client.AsyncPoolImpl;
+import com.linkedin.r2.transport.http.client.LockFreeAsyncPoolImpl;
+import com.linkedin.r2.transport.http.client.NoopRateLimiter;
+import com.linkedin.r2.transport.http.client.PoolStats;
+import com.linkedin.r2.util.Cancellable;
+import com.linkedin.util.clock.SettableClock;
+import com.linkedin.util.clock.Time;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+
+/**
+ * Tests of {@link LockFreeAsyncPoolImpl}, which must behave like {@link AsyncPoolImpl}, see {@link TestAsyncPool}.
+ */
+public class TestLockFreeAsyncPool
+{
+  private static final long SAMPLING_DURATION_INCREMENT = Time.minutes(2L);
+
+  private ScheduledExecutorService _executor = Executors.newSingleThreadScheduledExecutor();
+
+  @AfterClass
+  public void stopExecutor()
+  {
+    _executor.shutdown();
+  }
+
+  private <T> AsyncPool<T> createPool(AsyncPool.Lifecycle<T> lifecycle, int maxSize, long idleTimeout,
+      int maxWaiters, AsyncPoolImpl.Strategy strategy, int minSize)
+  {
+    return new LockFreeAsyncPoolImpl<>("object pool", lifecycle, maxSize, idleTimeout, _executor, maxWaiters,
+        strategy, minSize, new NoopRateLimiter(), new SettableClock(), new LongTracking());
+  }
+
+  @Test
+  public void testMustStart() throws Exception
+  {
+    AsyncPool<Object> pool = createPool(new TestAsyncPool.SynchronousLifecycle(), 1, 100, Integer.MAX_VALUE,
+        AsyncPoolImpl.Strategy.MRU, 0);
+    FutureCallback<Object> cb = new FutureCallback<>();
+    pool.get(cb);
+    try
+    {
+      cb.get(30, TimeUnit.SECONDS);
+      Assert.fail("Get succeeded on pool not yet started");
+    }
+    catch (ExecutionException e)
+    {
+      // expected
+    }
+  }
+
+  @Test
+  public void testMaxSize() throws Exception
+  {
+    final int ITERATIONS = 1000;
+    final int THREADS = 100;
+    final int POOL_SIZE = 25;
+    TestAsyncPool.SynchronousLifecycle lifecycle = new TestAsyncPool.SynchronousLifecycle();
+    // no idle timeout, so that no object is reaped while the final counts are checked
+    final AsyncPool<Object> pool = createPool(lifecycle, POOL_SIZE, 0, Integer.MAX_VALUE,
+        AsyncPoolImpl.Strategy.MRU, 0);
+    pool.start();
+
+    final AtomicBoolean failed = new AtomicBoolean();
+    Runnable r = () ->
+    {
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+        FutureCallback<Object> cb = new FutureCallback<>();
+        pool.get(cb);
+        try
+        {
+          // a lost wake up of a waiter would time out here
+          Object o = cb.get(30, TimeUnit.SECONDS);
+          pool.put(o);
+        }
+        catch (Exception e)
+        {
+          failed.set(true);
+          return;
+        }
+      }
+    };
+    List<Thread> threads = new ArrayList<>(THREADS);
+    for (int i = 0; i < THREADS; i++)
+    {
+      Thread t = new Thread(r);
+      t.start();
+      threads.add(t);
+    }
+    for (Thread t : threads)
+    {
+      t.join();
+    }
+    Assert.assertFalse(failed.get(), "Failed to get an object");
+    Assert.assertTrue(lifecycle.getHighWaterMark() <= POOL_SIZE, "High water mark exceeded " + POOL_SIZE);
+
+    PoolStats stats = pool.getStats();
+    Assert.assertEquals(stats.getCheckedOut(), 0);
+    Assert.assertEquals(stats.getIdleCount(), stats.getPoolSize());
+    Assert.assertEquals(stats.getPoolSize(), lifecycle.getLive());
+  }
+
+  @Test
+  public void testShutdown() throws Exception
+  {
+    final int POOL_SIZE = 25;
+    AsyncPool<Object> pool = createPool(new TestAsyncPool.SynchronousLifecycle(), POOL_SIZE, 100, Integer.MAX_VALUE,
+        AsyncPoolImpl.Strategy.MRU, 0);
+    pool.start();
+
+    List<Object> objects = new ArrayList<>(POOL_SIZE);
+    for (int i = 0; i < POOL_SIZE; i++)
+    {
+      FutureCallback<Object> cb = new FutureCallback<>();
+      pool.get(cb);
+      objects.add(cb.get());
+    }
+    FutureCallback<None> shutdown = new FutureCallback<>();
+    pool.shutdown(shutdown);
+
+    for (Object o : objects)
+    {
+      Assert.assertFalse(shutdown.isDone(), "Pool shutdown with objects checked out");
+      pool.put(o);
+    }
+    shutdown.get(30, TimeUnit.SECONDS);
+
+    FutureCallback<Object> cb = new FutureCallback<>();
+    pool.get(cb);
+    try
+    {
+      cb.get(30, TimeUnit.SECONDS);
+      Assert.fail("Get succeeded on pool shut down");
+    }
+    catch (ExecutionException e)
+    {
+      Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  @Test
+  public void testStrategies() throws Exception
+  {
+    final int GET = 15;
+    for (AsyncPoolImpl.Strategy strategy : AsyncPoolImpl.Strategy.values())
+    {
+      AsyncPool<Object> pool = createPool(new TestAsyncPool.SynchronousLifecycle(), 25, 1000, Integer.MAX_VALUE,
+          strategy, 0);
+      pool.start();
+
+      List<Object> objects = new ArrayList<>();
+      for (int i = 0; i < GET; i++)
+      {
+        FutureCallback<Object> cb = new FutureCallback<>();
+        pool.get(cb);
+        objects.add(cb.get());
+      }
+      for (Object object : objects)
+      {
+        pool.put(object);
+      }
+
+      // LRU gets the objects back in FIFO order, MRU in LIFO order
+      for (int i = 0; i < GET; i++)
+      {
+        FutureCallback<Object> cb = new FutureCallback<>();
+        pool.get(cb);
+        int expected = (strategy == AsyncPoolImpl.Strategy.LRU) ? i : GET - 1 - i;
+        Assert.assertSame(cb.get(), objects.get(expected), strategy.toString());
+      }
+    }
+  }
+
+  @Test
+  public void testMinSize() throws Exception
+  {
+    final int POOL_SIZE = 25;
+    final int MIN_SIZE = 15;
+    final int GET = 20;
+    final int DELAY = 1200;
+
+    for (AsyncPoolImpl.Strategy strategy : AsyncPoolImpl.Strategy.values())
+    {
+      TestAsyncPool.SynchronousLifecycle lifecycle = new TestAsyncPool.SynchronousLifecycle();
+      AsyncPool<Object> pool = createPool(lifecycle, POOL_SIZE, 100, Integer.MAX_VALUE, strategy, MIN_SIZE);
+      pool.start();
+
+      Assert.assertEquals(lifecycle.getLive(), MIN_SIZE);
+
+      List<Object> objects = new ArrayList<>();
+      for (int i = 0; i < GET; i++)
+      {
+        FutureCallback<Object> cb = new FutureCallback<>();
+        pool.get(cb);
+        objects.add(cb.get());
+      }
+      Assert.assertEquals(lifecycle.getLive(), GET);
+      for (Object object : objects)
+      {
+        pool.put(object);
+      }
+
+      Thread.sleep(DELAY);
+
+      Assert.assertEquals(lifecycle.getLive(), MIN_SIZE);
+      Assert.assertEquals(pool.getStats().getTotalTimedOut(), GET - MIN_SIZE);
+    }
+  }
+
+  @Test
+  public void testWaiters() throws Exception
+  {
+    final int MAX_WAITERS = 2;
+    AsyncPool<Object> pool = createPool(new TestAsyncPool.SynchronousLifecycle(), 1, 100, MAX_WAITERS,
+        AsyncPoolImpl.Strategy.MRU, 0);
+    pool.start();
+
+    FutureCallback<Object> cb = new FutureCallback<>();
+    pool.get(cb);
+    Object object = cb.get();
+
+    FutureCallback<Object> cancelled = new FutureCallback<>();
+    Cancellable cancellable = pool.get(cancelled);
+    FutureCallback<Object> waiter = new FutureCallback<>();
+    pool.get(waiter);
+    FutureCallback<Object> rejected = new FutureCallback<>();
+    pool.get(rejected);
+    try
+    {
+      rejected.get(30, TimeUnit.SECONDS);
+      Assert.fail("Get succeeded above the maximum number of waiters");
+    }
+    catch (ExecutionException e)
+    {
+      Assert.assertTrue(e.getCause() instanceof SizeLimitExceededException);
+    }
+
+    Assert.assertTrue(cancellable.cancel());
+    Assert.assertFalse(cancellable.cancel());
+    Assert.assertFalse(cancelled.isDone());
+
+    // the object is handed to the remaining waiter rather than the cancelled one
+    pool.put(object);
+    Assert.assertSame(waiter.get(30, TimeUnit.SECONDS), object);
+    Assert.assertFalse(cancelled.isDone());
+    Assert.assertEquals(pool.getStats().getCheckedOut(), 1);
+  }
+
+  @Test
+  public void testGetStats() throws Exception
+  {
+    final int POOL_SIZE = 25;
+    final int GET = 20;
+    final int PUT_GOOD = 2;
+    final int PUT_BAD = 3;
+    final int DISPOSE = 4;
+
+    final TestAsyncPool.UnreliableLifecycle lifecycle = new TestAsyncPool.UnreliableLifecycle();
+    final SettableClock clock = new SettableClock();
+    final AsyncPool<AtomicBoolean> pool = new LockFreeAsyncPoolImpl<>("object pool", lifecycle, POOL_SIZE, 100,
+        _executor, Integer.MAX_VALUE, AsyncPoolImpl.Strategy.MRU, 0, new NoopRateLimiter(), clock, new LongTracking());
+    pool.start();
+
+    final List<AtomicBoolean> objects = new ArrayList<>();
+    for (int i = 0; i < GET; i++)
+    {
+      FutureCallback<AtomicBoolean> cb = new FutureCallback<>();
+      pool.get(cb);
+      objects.add(cb.get());
+    }
+    clock.addDuration(SAMPLING_DURATION_INCREMENT);
+    PoolStats stats = pool.getStats();
+    Assert.assertEquals(stats.getTotalCreated(), GET);
+    Assert.assertEquals(stats.getCheckedOut(), GET);
+    Assert.assertEquals(stats.getPoolSize(), GET);
+    Assert.assertEquals(stats.getMaxPoolSize(), POOL_SIZE);
+    Assert.assertEquals(stats.getSampleMaxCheckedOut(), GET);
+    Assert.assertEquals(stats.getIdleCount(), 0);
+
+    for (int i = 0; i < PUT_GOOD; i++)
+    {
+      pool.put(objects.remove(objects.size() - 1));
+    }
+    clock.addDuration(SAMPLING_DURATION_INCREMENT);
+    stats = pool.getStats();
+    Assert.assertEquals(stats.getCheckedOut(), GET - PUT_GOOD);
+    Assert.assertEquals(stats.getIdleCount(), PUT_GOOD);
+    Assert.assertEquals(stats.getSampleMaxCheckedOut(), GET);
+
+    for (int i = 0; i < PUT_BAD; i++)
+    {
+      AtomicBoolean obj = objects.remove(objects.size() - 1);
+      obj.set(false);
+      pool.put(obj);
+    }
+    for (int i = 0; i < DISPOSE; i++)
+    {
+      pool.dispose(objects.remove(objects.size() - 1));
+    }
+    clock.addDuration(SAMPLING_DURATION_INCREMENT);
+    stats = pool.getStats();
+    Assert.assertEquals(stats.getCheckedOut(), GET - PUT_GOOD - PUT_BAD - DISPOSE);
+    Assert.assertEquals(stats.getPoolSize(), GET - PUT_BAD - DISPOSE);
+    Assert.assertEquals(stats.getTotalDestroyed(), PUT_BAD + DISPOSE);
+    Assert.assertEquals(stats.getTotalBadDestroyed(), PUT_BAD + DISPOSE);
+    Assert.assertEquals(stats.getSampleMaxCheckedOut(), GET - PUT_GOOD);
+  }
+
+  @Test
+  public void testCreateErrors() throws Exception
+  {
+    final int CREATE_BAD = 9;
+    final TestAsyncPool.UnreliableLifecycle lifecycle = new TestAsyncPool.UnreliableLifecycle();
+    AsyncPool<AtomicBoolean> pool = createPool(lifecycle, 25, 100, Integer.MAX_VALUE, AsyncPoolImpl.Strategy.MRU, 0);
+    pool.start();
+
+    lifecycle.setFail(true);
+    for (int i = 0; i < CREATE_BAD; i++)
+    {
+      FutureCallback<AtomicBoolean> cb = new FutureCallback<>();
+      pool.get(cb);
+      try
+      {
+        cb.get(30, TimeUnit.SECONDS);
+        Assert.fail("Get succeeded although the creation failed");
+      }
+      catch (ExecutionException e)
+      {
+        // expected
+      }
+    }
+    PoolStats stats = pool.getStats();
+    // like AsyncPoolImpl, a failed create is retried once for the waiter which is then denied
+    Assert.assertEquals(stats.getTotalCreateErrors(), 2 * CREATE_BAD);
+    Assert.assertEquals(stats.getPoolSize(), 0);
+
+    lifecycle.setFail(false);
+    FutureCallback<AtomicBoolean> cb = new FutureCallback<>();
+    pool.get(cb);
+    Assert.assertTrue(cb.get(30, TimeUnit.SECONDS).get());
+  }
+}
@@ -18,6 +18,7 @@ package com.linkedin.r2.filter;
 
 
 import com.linkedin.r2.filter.compression.ClientCompressionFilter;
+import java.util.Arrays;
 
 /**
  * By setting this config in {@link ClientCompressionFilter}, the client can set the default compression threshold
@@ -28,19 +29,35 @@ import com.linkedin.r2.filter.compression.ClientCompressionFilter;
  *
  * This default behavior can be overridden by {@link CompressionOption} in the request context.
  *
+ * The config optionally holds a zstd dictionary trained on the payloads of a service. Data compressed with it is
+ * labeled with a content encoding of its own, and a filter uses it only when the peer advertised it, falling back
+ * to plain zstd otherwise. A client takes the dictionary of its requests and responses from its per service
+ * configs; a server holds the dictionaries of all the services it serves.
+ *
  * @author Soojung Ha
  */
 public class CompressionConfig
 {
   private final int _compressionThreshold;
+  private final byte[] _zstdDictionary;
 
   public CompressionConfig(int compressionThreshold)
+  {
+    this(compressionThreshold, null);
+  }
+
+  /**
+   * @param compressionThreshold compression threshold
+   * @param zstdDictionary zstd dictionary used to compress and decompress the zstd encoding, or null to use none
+   */
+  public CompressionConfig(int compressionThreshold, byte[] zstdDictionary)
   {
     if (compressionThreshold < 0)
     {
       throw new IllegalArgumentException("compressionThreshold should not be negative.");
     }
     _compressionThreshold = compressionThreshold;
+    _zstdDictionary = zstdDictionary == null ? null : zstdDictionary.clone();
   }
 
   @Override
@@ -62,13 +79,13 @@ public class CompressionConfig
       return false;
     }
 
-    return true;
+    return Arrays.equals(_zstdDictionary, that._zstdDictionary);
   }
 
   @Override
   public int hashCode()
   {
-    return _compressionThreshold;
+    return 31 * _compressionThreshold + Arrays.hashCode(_zstdDictionary);
   }
 
   @Override
@@ -76,6 +93,7 @@ public class CompressionConfig
   {
     return "CompressionConfig{" +
         "_compressionThreshold=" + _compressionThreshold +
+        (_zstdDictionary == null ? "" : ", _zstdDictionary=" + _zstdDictionary.length + " bytes") +
         '}';
   }
 
@@ -83,4 +101,12 @@ public class CompressionConfig
   {
     return _compressionThreshold;
   }
+
+  /**
+   * @return the zstd dictionary, or null if the zstd encoding does not use one
+   */
+  public byte[] getZstdDictionary()
+  {
+    return _zstdDictionary;
+  }
 }
@@ -23,6 +23,7 @@ import com.linkedin.r2.filter.CompressionConfig;
 import com.linkedin.r2.filter.CompressionOption;
 import com.linkedin.r2.filter.message.rest.RestFilter;
 import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestException;
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestRequestBuilder;
 import com.linkedin.r2.message.rest.RestResponse;
@@ -39,6 +40,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Client filter for compression
+ *
+ * The zstd dictionaries of the request and response configs are negotiated as described in
+ * {@link ServerCompressionFilter}: responses are decoded with the dictionary their content encoding names, and
+ * requests are encoded with the request dictionary only once the server has listed it as accepted.
  */
 public class ClientCompressionFilter implements RestFilter
 {
@@ -48,6 +53,7 @@ public class ClientCompressionFilter implements RestFilter
   private final CompressionConfig _responseCompressionConfig;
   private final String _acceptEncodingHeader;
   private final ClientCompressionHelper _helper;
+  private final ClientZstdDictionaries _zstdDictionaries;
 
 
   /**
@@ -96,7 +102,9 @@ public class ClientCompressionFilter implements RestFilter
     // Null response compression config is allowed. This means that the default threshold on the server will be used.
 
     _requestContentEncoding = requestContentEncoding;
-    _acceptEncodingHeader = buildAcceptEncodingHeader(acceptedEncodings);
+    _zstdDictionaries = new ClientZstdDictionaries(requestCompressionConfig,
+        requestContentEncoding == EncodingType.ZSTD, responseCompressionConfig);
+    _acceptEncodingHeader = buildAcceptEncodingHeader(acceptedEncodings, _zstdDictionaries.getDictionaries());
     _responseCompressionConfig = responseCompressionConfig;
     _helper = new ClientCompressionHelper(requestCompressionConfig, responseCompressionOperations);
   }
@@ -123,6 +131,17 @@ public class ClientCompressionFilter implements RestFilter
    * @return string representation of the Accept-Encoding value for this client
    */
   /* package private */ static String buildAcceptEncodingHeader(EncodingType[] acceptedEncodings)
+  {
+    return buildAcceptEncodingHeader(acceptedEncodings, ZstdDictionaries.EMPTY);
+  }
+
+  /**
+   * Builds the accept encoding header as a string, advertising the zstd dictionaries with the quality of "zstd", or
+   * with the lowest quality if "zstd" is not accepted.
+   * @return string representation of the Accept-Encoding value for this client
+   */
+  /* package private */ static String buildAcceptEncodingHeader(EncodingType[] acceptedEncodings,
+                                                               ZstdDictionaries zstdDictionaries)
   {
     //Essentially, we want to assign nonzero quality values to all those specified;
     float delta = 1.0f/(acceptedEncodings.length+1);
@@ -134,7 +153,12 @@ public class ClientCompressionFilter implements RestFilter
     {
       EncodingType t = acceptedEncodings[i];
 
-      if(i > 0)
+      if (t == EncodingType.ZSTD)
+      {
+        zstdDictionaries.appendAcceptEncoding(acceptEncodingValue, currentQuality);
+        zstdDictionaries = ZstdDictionaries.EMPTY;
+      }
+      if(acceptEncodingValue.length() > 0)
       {
         acceptEncodingValue.append(CompressionConstants.ENCODING_DELIMITER);
       }
@@ -144,6 +168,7 @@ public class ClientCompressionFilter implements RestFilter
       acceptEncodingValue.append(String.format("%.2f", currentQuality));
       currentQuality = currentQuality - delta;
     }
+    zstdDictionaries.appendAcceptEncoding(acceptEncodingValue, currentQuality);
 
     return acceptEncodingValue.toString();
   }
@@ -191,7 +216,7 @@ public class ClientCompressionFilter implements RestFilter
             (CompressionOption) requestContext.getLocalAttr(R2Constants.REQUEST_COMPRESSION_OVERRIDE)
         ))
         {
-          Compressor compressor = _requestContentEncoding.getCompressor();
+          Compressor compressor = _requestContentEncoding.getCompressor(_zstdDictionaries.getRequestDictionary());
           byte[] compressed = compressor.deflate(req.getEntity().asInputStream());
 
           if (compressed.length < req.getEntity().length())
@@ -209,6 +234,12 @@ public class ClientCompressionFilter implements RestFilter
             (CompressionOption) requestContext.getLocalAttr(R2Constants.RESPONSE_COMPRESSION_OVERRIDE);
         req = addResponseCompressionHeaders(responseCompressionOverride, req);
       }
+      else if (_zstdDictionaries.isRequestDictionaryPending())
+      {
+        // only asks the server whether it holds the dictionaries; no response encoding is accepted by this
+        req = req.builder().setHeader(HttpConstants.ACCEPT_ENCODING,
+            _zstdDictionaries.getDictionaries().getAcceptEncodingNames()).build();
+      }
     }
     catch (CompressionException e)
     {
@@ -227,6 +258,7 @@ public class ClientCompressionFilter implements RestFilter
                              Map<String, String> wireAttrs,
                              NextFilter<RestRequest, RestResponse> nextFilter)
   {
+    _zstdDictionaries.onResponse(res.getHeader(HttpConstants.ACCEPT_ENCODING));
     Boolean decompressionOff = (Boolean) requestContext.getLocalAttr(R2Constants.RESPONSE_DECOMPRESSION_OFF);
     if (decompressionOff == null || !decompressionOff)
     {
@@ -238,20 +270,35 @@ public class ClientCompressionFilter implements RestFilter
         //Compress if necessary
         if (compressionHeader != null && res.getEntity().length() > 0)
         {
-          EncodingType encoding = null;
-          try
+          String compressionName = compressionHeader.trim().toLowerCase();
+          Compressor compressor;
+          if (ZstdDictionary.isDictionaryEncoding(compressionName))
           {
-            encoding = EncodingType.get(compressionHeader.trim().toLowerCase());
+            ZstdDictionary dictionary = _zstdDictionaries.getDictionaries().get(compressionName);
+            if (dictionary == null)
+            {
+              throw new CompressionException(CompressionConstants.SERVER_ENCODING_ERROR + compressionHeader);
+            }
+            compressor = EncodingType.ZSTD.getCompressor(dictionary);
           }
-          catch (IllegalArgumentException e)
+          else
           {
-            throw new CompressionException(CompressionConstants.SERVER_ENCODING_ERROR + compressionHeader);
+            EncodingType encoding = null;
+            try
+            {
+              encoding = EncodingType.get(compressionName);
+            }
+            catch (IllegalArgumentException e)
+            {
+              throw new CompressionException(CompressionConstants.SERVER_ENCODING_ERROR + compressionHeader);
+            }
+            if (!encoding.hasCompressor())
+            {
+              throw new CompressionException(CompressionConstants.SERVER_ENCODING_ERROR + compressionHeader);
+            }
+            compressor = encoding.getCompressor();
           }
-          if (!encoding.hasCompressor())
-          {
-            throw new CompressionException(CompressionConstants.SERVER_ENCODING_ERROR + compressionHeader);
-          }
-          byte[] inflated = encoding.getCompressor().inflate(res.getEntity().asInputStream());
+          byte[] inflated = compressor.inflate(res.getEntity().asInputStream());
           Map<String, String> headers = new HashMap<String, String>(res.getHeaders());
           headers.remove(HttpConstants.CONTENT_ENCODING);
           headers.put(HttpConstants.CONTENT_LENGTH, Integer.toString(inflated.length));
@@ -273,6 +320,11 @@ public class ClientCompressionFilter implements RestFilter
                           Map<String, String> wireAttrs,
                           NextFilter<RestRequest, RestResponse> nextFilter)
   {
+    if (ex instanceof RestException
+        && ((RestException) ex).getResponse().getStatus() == HttpConstants.UNSUPPORTED_MEDIA_TYPE)
+    {
+      _zstdDictionaries.onUnsupportedMediaType();
+    }
     nextFilter.onError(ex, requestContext, wireAttrs);
   }
 
@@ -49,6 +49,8 @@ import org.slf4j.LoggerFactory;
 /**
  * Client filter for compression
  *
+ * zstd dictionaries are negotiated as in {@link ClientCompressionFilter}.
+ *
  * @author Ang Xu
  */
 public class ClientStreamCompressionFilter implements StreamFilter
@@ -67,6 +69,7 @@ public class ClientStreamCompressionFilter implements StreamFilter
   private final ClientCompressionHelper _helper;
 
   private final Executor _executor;
+  private final ClientZstdDictionaries _zstdDictionaries;
 
 
   /**
@@ -114,6 +117,8 @@ public class ClientStreamCompressionFilter implements StreamFilter
     _acceptedEncodings = acceptedEncodings;
     _responseCompressionConfig = responseCompressionConfig;
 
+    _zstdDictionaries = new ClientZstdDictionaries(requestCompressionConfig,
+        requestContentEncoding == StreamEncodingType.ZSTD, responseCompressionConfig);
     _acceptEncodingHeader = buildAcceptEncodingHeader();
     _helper = new ClientCompressionHelper(requestCompressionConfig, responseCompressionOperations);
     _executor = executor;
@@ -138,11 +143,13 @@ public class ClientStreamCompressionFilter implements StreamFilter
   }
 
   /**
-   * Builds the accept encoding header as a string
+   * Builds the accept encoding header as a string, advertising the zstd dictionaries with the quality of "zstd", or
+   * with the lowest quality if "zstd" is not accepted.
    * @return string representation of the Accept-Encoding value for this client
    */
   public String buildAcceptEncodingHeader()
   {
+    ZstdDictionaries zstdDictionaries = _zstdDictionaries.getDictionaries();
     //Essentially, we want to assign nonzero quality values to all those specified;
     float delta = 1.0f/(_acceptedEncodings.length+1);
     float currentQuality = 1.0f;
@@ -153,7 +160,12 @@ public class ClientStreamCompressionFilter implements StreamFilter
     {
       StreamEncodingType t = _acceptedEncodings[i];
 
-      if(i > 0)
+      if (t == StreamEncodingType.ZSTD)
+      {
+        zstdDictionaries.appendAcceptEncoding(acceptEncodingValue, currentQuality);
+        zstdDictionaries = ZstdDictionaries.EMPTY;
+      }
+      if(acceptEncodingValue.length() > 0)
       {
         acceptEncodingValue.append(CompressionConstants.ENCODING_DELIMITER);
       }
@@ -163,6 +175,7 @@ public class ClientStreamCompressionFilter implements StreamFilter
       acceptEncodingValue.append(String.format("%.2f", currentQuality));
       currentQuality = currentQuality - delta;
     }
+    zstdDictionaries.appendAcceptEncoding(acceptEncodingValue, currentQuality);
 
     return acceptEncodingValue.toString();
   }
@@ -181,11 +194,18 @@ public class ClientStreamCompressionFilter implements StreamFilter
           (CompressionOption) requestContext.getLocalAttr(R2Constants.RESPONSE_COMPRESSION_OVERRIDE);
       req = addResponseCompressionHeaders(responseCompressionOverride, req);
     }
+    else if (_zstdDictionaries.isRequestDictionaryPending())
+    {
+      // only asks the server whether it holds the dictionaries; no response encoding is accepted by this
+      req = req.builder().setHeader(HttpConstants.ACCEPT_ENCODING,
+          _zstdDictionaries.getDictionaries().getAcceptEncodingNames()).build(req.getEntityStream());
+    }
 
     if (_requestContentEncoding != StreamEncodingType.IDENTITY)
     {
       final StreamRequest request = req;
-      final StreamingCompressor compressor = _requestContentEncoding.getCompressor(_executor);
+      final StreamingCompressor compressor =
+          _requestContentEncoding.getCompressor(_executor, _zstdDictionaries.getRequestDictionary());
       CompressionOption option = (CompressionOption) requestContext.getLocalAttr(R2Constants.REQUEST_COMPRESSION_OVERRIDE);
       if (option == null || option != CompressionOption.FORCE_OFF)
       {
@@ -233,6 +253,7 @@ public class ClientStreamCompressionFilter implements StreamFilter
   public void onStreamResponse(StreamResponse res, RequestContext requestContext, Map<String, String> wireAttrs,
                                NextFilter<StreamRequest, StreamResponse> nextFilter)
   {
+    _zstdDictionaries.onResponse(res.getHeader(HttpConstants.ACCEPT_ENCODING));
     Boolean decompressionOff = (Boolean) requestContext.getLocalAttr(R2Constants.RESPONSE_DECOMPRESSION_OFF);
     if (decompressionOff == null || !decompressionOff)
     {
@@ -241,15 +262,14 @@ public class ClientStreamCompressionFilter implements StreamFilter
       //decompress if necessary
       if (compressionHeader != null)
       {
-        final StreamEncodingType encoding = StreamEncodingType.get(compressionHeader.trim().toLowerCase());
-        if (encoding == null)
+        final StreamingCompressor compressor = getCompressor(compressionHeader);
+        if (compressor == null)
         {
           nextFilter.onError(new IllegalArgumentException("Server returned unrecognized content encoding: " +
               compressionHeader), requestContext, wireAttrs);
           return;
         }
 
-        final StreamingCompressor compressor = encoding.getCompressor(_executor);
         EntityStream uncompressedStream = compressor.inflate(res.getEntityStream());
         StreamResponseBuilder builder = res.builder();
         Map<String, String> headers =
@@ -267,6 +287,10 @@ public class ClientStreamCompressionFilter implements StreamFilter
   {
     if (ex instanceof StreamException)
     {
+      if (((StreamException) ex).getResponse().getStatus() == HttpConstants.UNSUPPORTED_MEDIA_TYPE)
+      {
+        _zstdDictionaries.onUnsupportedMediaType();
+      }
       Boolean decompressionOff = (Boolean) requestContext.getLocalAttr(R2Constants.RESPONSE_DECOMPRESSION_OFF);
       if (decompressionOff == null || !decompressionOff)
       {
@@ -279,10 +303,9 @@ public class ClientStreamCompressionFilter implements StreamFilter
         //decompress if necessary
         if (compressionHeader != null)
         {
-          StreamEncodingType encoding = StreamEncodingType.get(compressionHeader.trim().toLowerCase());
-          if (encoding != null)
+          final StreamingCompressor compressor = getCompressor(compressionHeader);
+          if (compressor != null)
           {
-            final StreamingCompressor compressor = encoding.getCompressor(_executor);
             EntityStream uncompressedStream = compressor.inflate(response.getEntityStream());
 
             StreamResponseBuilder builder = response.builder();
@@ -297,6 +320,21 @@ public class ClientStreamCompressionFilter implements StreamFilter
     nextFilter.onError(ex, requestContext, wireAttrs);
   }
 
+  /**
+   * Returns the compressor of the given content encoding of a response, or null if it is not recognized.
+   */
+  private StreamingCompressor getCompressor(String contentEncoding)
+  {
+    String encodingName = contentEncoding.trim().toLowerCase();
+    if (ZstdDictionary.isDictionaryEncoding(encodingName))
+    {
+      ZstdDictionary dictionary = _zstdDictionaries.getDictionaries().get(encodingName);
+      return dictionary == null ? null : StreamEncodingType.ZSTD.getCompressor(_executor, dictionary);
+    }
+    StreamEncodingType encoding = StreamEncodingType.get(encodingName);
+    return encoding == null ? null : encoding.getCompressor(_executor);
+  }
+
   private Map<String, String> stripHeaders(Map<String, String> headerMap, String...headers)
   {
     Map<String, String> newMap = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
@@ -0,0 +1,93 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.linkedin.r2.filter.compression;
+
+import com.linkedin.r2.filter.CompressionConfig;
+import java.util.Arrays;
+
+
+/**
+ * The zstd dictionaries of a client compression filter: the one of its requests, which it encodes requests with,
+ * and the one of its responses. It advertises both in Accept-Encoding and decodes the responses encoded with either.
+ *
+ * Requests are encoded with the dictionary only once a response has listed it in its Accept-Encoding header, which
+ * tells the server holds it; until then, and again after the server rejected a request as an unsupported media
+ * type, they are encoded with plain "zstd".
+ */
+final class ClientZstdDictionaries
+{
+  private final ZstdDictionaries _dictionaries;
+  private final ZstdDictionary _requestDictionary;
+  private volatile boolean _requestDictionaryAccepted;
+
+  /**
+   * @param requestCompressionConfig config of the requests, or null
+   * @param zstdRequests true if the requests are encoded with zstd
+   * @param responseCompressionConfig config of the responses, or null
+   */
+  ClientZstdDictionaries(CompressionConfig requestCompressionConfig,
+                         boolean zstdRequests,
+                         CompressionConfig responseCompressionConfig)
+  {
+    byte[] requestDictionary = requestCompressionConfig == null ? null : requestCompressionConfig.getZstdDictionary();
+    byte[] responseDictionary = responseCompressionConfig == null ? null : responseCompressionConfig.getZstdDictionary();
+    ZstdDictionary digestedRequestDictionary = ZstdDictionary.of(requestDictionary);
+    ZstdDictionary digestedResponseDictionary = Arrays.equals(requestDictionary, responseDictionary)
+        ? digestedRequestDictionary : ZstdDictionary.of(responseDictionary);
+    _dictionaries = new ZstdDictionaries(Arrays.asList(digestedRequestDictionary, digestedResponseDictionary));
+    _requestDictionary = zstdRequests ? digestedRequestDictionary : null;
+  }
+
+  ZstdDictionaries getDictionaries()
+  {
+    return _dictionaries;
+  }
+
+  /**
+   * @return the dictionary to encode requests with, or null to encode them with plain "zstd"
+   */
+  ZstdDictionary getRequestDictionary()
+  {
+    return _requestDictionaryAccepted ? _requestDictionary : null;
+  }
+
+  /**
+   * @return true if the request dictionary should be advertised to learn whether the server holds it
+   */
+  boolean isRequestDictionaryPending()
+  {
+    return _requestDictionary != null && !_requestDictionaryAccepted;
+  }
+
+  /**
+   * Records whether the server holds the request dictionary, from the Accept-Encoding header of a response.
+   */
+  void onResponse(String acceptEncoding)
+  {
+    if (_requestDictionary != null && acceptEncoding != null)
+    {
+      _requestDictionaryAccepted = ZstdDictionaries.isAccepted(acceptEncoding, _requestDictionary.getContentEncodingName());
+    }
+  }
+
+  /**
+   * Stops encoding requests with the dictionary after the server rejected a request as an unsupported media type.
+   */
+  void onUnsupportedMediaType()
+  {
+    _requestDictionaryAccepted = false;
+  }
+}
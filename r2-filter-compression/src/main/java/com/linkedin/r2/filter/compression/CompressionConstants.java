@@ -3,6 +3,8 @@ package com.linkedin.r2.filter.compression;
 public class CompressionConstants
 {
   public static final int BUFFER_SIZE = 4*1024; //NOTE: works reasonably well in most cases.
+  public static final int ZSTD_DEFAULT_LEVEL = 3; //NOTE: level of the zstd command line tool, faster than gzip at a similar ratio.
+  public static final String ZSTD_DICTIONARY_ENCODING_PREFIX = "x-zstd-dict-";
 
   public static final String DECODING_ERROR = "Cannot properly decode stream: ";
   public static final String BAD_STREAM = "Bad input stream";
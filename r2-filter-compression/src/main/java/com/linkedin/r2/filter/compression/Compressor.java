@@ -16,6 +16,7 @@
 
 package com.linkedin.r2.filter.compression;
 
+import com.linkedin.data.ByteString;
 import java.io.InputStream;
 import java.util.zip.DataFormatException;
 
@@ -44,4 +45,26 @@ public interface Compressor
    * @throws DataFormatException  if the data cannot be properly compressed
    * */
   public byte[] deflate(InputStream data) throws CompressionException;
+
+  /** Decompression function for entities held in a {@link ByteString}.
+   * Implementations may return a ByteString composed of several chunks without copying them.
+   * @param data ByteString of data to be decompressed
+   * @return ByteString of decompressed data
+   * @throws CompressionException if the data cannot be properly decompressed
+   * */
+  default ByteString inflate(ByteString data) throws CompressionException
+  {
+    return ByteString.unsafeWrap(inflate(data.asInputStream()));
+  }
+
+  /** Compress function for entities held in a {@link ByteString}.
+   * Implementations may return a ByteString composed of several chunks without copying them.
+   * @param data ByteString of data to be compressed
+   * @return ByteString of compressed data
+   * @throws CompressionException if the data cannot be properly compressed
+   * */
+  default ByteString deflate(ByteString data) throws CompressionException
+  {
+    return ByteString.unsafeWrap(deflate(data.asInputStream()));
+  }
 }
@@ -16,6 +16,7 @@
 
 package com.linkedin.r2.filter.compression;
 
+import com.linkedin.data.ByteString;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -133,4 +134,23 @@ public class DeflateCompressor implements Compressor
 
     return output.toByteArray();
   }
+
+  @Override
+  public ByteString inflate(ByteString data) throws CompressionException
+  {
+    try
+    {
+      return PooledZlib.inflate(data);
+    }
+    catch (DataFormatException e)
+    {
+      throw new CompressionException(CompressionConstants.DECODING_ERROR + getContentEncodingName(), e);
+    }
+  }
+
+  @Override
+  public ByteString deflate(ByteString data)
+  {
+    return PooledZlib.deflate(data);
+  }
 }
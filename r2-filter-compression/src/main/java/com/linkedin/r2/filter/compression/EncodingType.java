@@ -31,6 +31,8 @@ public enum EncodingType
   BZIP2(new Bzip2Compressor()),
   SNAPPY(new SnappyCompressor()),
   SNAPPY_FRAMED(new SnappyFramedCompressor()),
+  ZSTD(new ZstdCompressor()),
+  LZ4(new Lz4Compressor()),
   IDENTITY("identity"),
   ANY("*");
 
@@ -83,6 +85,16 @@ public enum EncodingType
     return compressor;
   }
 
+  /**
+   * Returns the compressor of this compression method, using the given zstd dictionary for {@link #ZSTD}.
+   *
+   * @param zstdDictionary digested zstd dictionary, or null to use none
+   */
+  public Compressor getCompressor(ZstdDictionary zstdDictionary)
+  {
+    return this == ZSTD && zstdDictionary != null ? new ZstdCompressor(zstdDictionary) : compressor;
+  }
+
   /**
    * Returns the encoding type corresponding to the encoding name.
    * Throws {@link IllegalArgumentException} if there is no corresponding enum.
@@ -16,9 +16,11 @@
 
 package com.linkedin.r2.filter.compression;
 
+import com.linkedin.data.ByteString;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.zip.DataFormatException;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -88,6 +90,25 @@ public class GzipCompressor implements Compressor
     return out.toByteArray();
   }
 
+  @Override
+  public ByteString inflate(ByteString data) throws CompressionException
+  {
+    try
+    {
+      return PooledZlib.gunzip(data);
+    }
+    catch (DataFormatException e)
+    {
+      throw new CompressionException(CompressionConstants.DECODING_ERROR + getContentEncodingName(), e);
+    }
+  }
+
+  @Override
+  public ByteString deflate(ByteString data)
+  {
+    return PooledZlib.gzip(data);
+  }
+
   @Override
   public String getContentEncodingName()
   {
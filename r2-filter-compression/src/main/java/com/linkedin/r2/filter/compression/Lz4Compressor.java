@@ -0,0 +1,69 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+import org.apache.commons.io.IOUtils;
+
+
+/**
+ * Compressor for "x-lz4-framed" Encoding, the LZ4 frame format.
+ */
+public class Lz4Compressor implements Compressor
+{
+  private static final String HTTP_NAME = "x-lz4-framed";
+
+  @Override
+  public String getContentEncodingName()
+  {
+    return HTTP_NAME;
+  }
+
+  @Override
+  public byte[] inflate(InputStream data) throws CompressionException
+  {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (LZ4FrameInputStream lz4 = new LZ4FrameInputStream(data))
+    {
+      IOUtils.copy(lz4, out);
+    }
+    catch (IOException e)
+    {
+      throw new CompressionException(CompressionConstants.DECODING_ERROR + getContentEncodingName(), e);
+    }
+    return out.toByteArray();
+  }
+
+  @Override
+  public byte[] deflate(InputStream data) throws CompressionException
+  {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (LZ4FrameOutputStream lz4 = new LZ4FrameOutputStream(out))
+    {
+      IOUtils.copy(data, lz4);
+    }
+    catch (IOException e)
+    {
+      throw new CompressionException(CompressionConstants.DECODING_ERROR + getContentEncodingName(), e);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,376 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.compression;
+
+import com.linkedin.data.ByteString;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+
+/**
+ * Deflate and gzip compression of {@link ByteString}s with per-thread {@link Deflater} and {@link Inflater}
+ * instances, which are reset instead of being allocated and ended for every entity. The input is fed to zlib
+ * straight from the byte arrays backing the ByteString and the output is composed from the chunks zlib wrote
+ * into, so neither is copied.
+ *
+ * Each thread keeps its instances, and the native memory they hold, for as long as it lives.
+ */
+final class PooledZlib
+{
+  private static final int MIN_CHUNK_SIZE = 512;
+  private static final int MAX_CHUNK_SIZE = 64 * 1024;
+
+  private static final int GZIP_HEADER_SIZE = 10;
+  private static final int GZIP_TRAILER_SIZE = 8;
+  // magic number, deflate compression method, no flags, no modification time, no extra flags, OS 0, like GZIPOutputStream
+  private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 };
+  private static final int FHCRC = 2;
+  private static final int FEXTRA = 4;
+  private static final int FNAME = 8;
+  private static final int FCOMMENT = 16;
+
+  private static final ThreadLocal<Deflater> ZLIB_DEFLATER =
+      ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, false));
+  private static final ThreadLocal<Deflater> RAW_DEFLATER =
+      ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+  private static final ThreadLocal<Inflater> ZLIB_INFLATER = ThreadLocal.withInitial(() -> new Inflater(false));
+  private static final ThreadLocal<Inflater> RAW_INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
+  private PooledZlib()
+  {
+  }
+
+  /**
+   * Compresses the data in the zlib format of the deflate content encoding.
+   */
+  static ByteString deflate(ByteString data)
+  {
+    final Deflater deflater = ZLIB_DEFLATER.get();
+    deflater.reset();
+    final ChunkedOutput output = new ChunkedOutput(data.length() / 2);
+    deflate(deflater, data, null, output);
+    return output.build();
+  }
+
+  /**
+   * Compresses the data in the gzip format, producing the same bytes as {@link java.util.zip.GZIPOutputStream}.
+   */
+  static ByteString gzip(ByteString data)
+  {
+    final Deflater deflater = RAW_DEFLATER.get();
+    deflater.reset();
+    final CRC32 crc = new CRC32();
+    final ChunkedOutput output = new ChunkedOutput(data.length() / 2);
+    output.write(GZIP_HEADER, 0, GZIP_HEADER_SIZE);
+    deflate(deflater, data, crc, output);
+    output.writeIntLE((int) crc.getValue());
+    output.writeIntLE(data.length());
+    return output.build();
+  }
+
+  /**
+   * Decompresses data in the zlib format of the deflate content encoding. Like {@link DeflateCompressor}, returns
+   * what could be decompressed if the data is truncated.
+   *
+   * @throws DataFormatException if the data is not in the zlib format
+   */
+  static ByteString inflate(ByteString data) throws DataFormatException
+  {
+    final Inflater inflater = ZLIB_INFLATER.get();
+    inflater.reset();
+    final ChunkedOutput output = new ChunkedOutput(data.length() * 4);
+    for (ByteBuffer chunk : chunks(data))
+    {
+      inflater.setInput(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+      while (!inflater.finished() && !inflater.needsInput())
+      {
+        if (output.inflate(inflater, null) == 0 && !inflater.needsInput())
+        {
+          throw new DataFormatException(inflater.needsDictionary() ? "Missing preset dictionary" : "Invalid zlib stream");
+        }
+      }
+      if (inflater.finished())
+      {
+        break;
+      }
+    }
+    return output.build();
+  }
+
+  /**
+   * Decompresses data in the gzip format, including concatenated gzip members, like
+   * {@link java.util.zip.GZIPInputStream}.
+   *
+   * @throws DataFormatException if the data is not in the gzip format, is truncated or fails the trailer check
+   */
+  static ByteString gunzip(ByteString data) throws DataFormatException
+  {
+    final ByteBuffer input = contiguous(data);
+    final byte[] bytes = input.array();
+    final int end = input.arrayOffset() + input.position() + input.remaining();
+    int position = input.arrayOffset() + input.position();
+
+    final Inflater inflater = RAW_INFLATER.get();
+    final CRC32 crc = new CRC32();
+    final ChunkedOutput output = new ChunkedOutput(data.length() * 4);
+    do
+    {
+      position = skipGzipHeader(bytes, position, end);
+      inflater.reset();
+      crc.reset();
+      inflater.setInput(bytes, position, end - position);
+      while (!inflater.finished())
+      {
+        if (output.inflate(inflater, crc) == 0)
+        {
+          if (inflater.needsInput())
+          {
+            throw new DataFormatException("Unexpected end of gzip input");
+          }
+          if (inflater.needsDictionary())
+          {
+            throw new DataFormatException("Missing preset dictionary");
+          }
+        }
+      }
+
+      position = end - inflater.getRemaining();
+      if (end - position < GZIP_TRAILER_SIZE
+          || readIntLE(bytes, position) != (int) crc.getValue()
+          || readIntLE(bytes, position + 4) != (int) inflater.getBytesWritten())
+      {
+        throw new DataFormatException("Corrupt gzip trailer");
+      }
+      position += GZIP_TRAILER_SIZE;
+    }
+    // like GZIPInputStream, ignore trailing bytes which do not start another member
+    while (end - position >= GZIP_HEADER_SIZE && bytes[position] == GZIP_HEADER[0] && bytes[position + 1] == GZIP_HEADER[1]);
+
+    return output.build();
+  }
+
+  private static void deflate(Deflater deflater, ByteString data, Checksum checksum, ChunkedOutput output)
+  {
+    for (ByteBuffer chunk : chunks(data))
+    {
+      final int offset = chunk.arrayOffset() + chunk.position();
+      if (checksum != null)
+      {
+        checksum.update(chunk.array(), offset, chunk.remaining());
+      }
+      deflater.setInput(chunk.array(), offset, chunk.remaining());
+      while (!deflater.needsInput())
+      {
+        output.deflate(deflater);
+      }
+    }
+    deflater.finish();
+    while (!deflater.finished())
+    {
+      output.deflate(deflater);
+    }
+  }
+
+  /**
+   * Returns the position of the compressed data of the gzip member starting at the given position.
+   */
+  private static int skipGzipHeader(byte[] bytes, int position, int end) throws DataFormatException
+  {
+    if (end - position < GZIP_HEADER_SIZE
+        || bytes[position] != GZIP_HEADER[0]
+        || bytes[position + 1] != GZIP_HEADER[1]
+        || bytes[position + 2] != Deflater.DEFLATED)
+    {
+      throw new DataFormatException("Not in gzip format");
+    }
+    final int flags = bytes[position + 3] & 0xff;
+    position += GZIP_HEADER_SIZE;
+
+    if ((flags & FEXTRA) != 0)
+    {
+      checkAvailable(position, 2, end);
+      position += 2 + ((bytes[position] & 0xff) | (bytes[position + 1] & 0xff) << 8);
+    }
+    if ((flags & FNAME) != 0)
+    {
+      position = skipZeroTerminated(bytes, position, end);
+    }
+    if ((flags & FCOMMENT) != 0)
+    {
+      position = skipZeroTerminated(bytes, position, end);
+    }
+    if ((flags & FHCRC) != 0)
+    {
+      position += 2;
+    }
+    checkAvailable(position, 0, end);
+    return position;
+  }
+
+  private static int skipZeroTerminated(byte[] bytes, int position, int end) throws DataFormatException
+  {
+    while (position < end && bytes[position] != 0)
+    {
+      position++;
+    }
+    checkAvailable(position, 1, end);
+    return position + 1;
+  }
+
+  private static void checkAvailable(int position, int length, int end) throws DataFormatException
+  {
+    if (position + length > end)
+    {
+      throw new DataFormatException("Unexpected end of gzip header");
+    }
+  }
+
+  private static int readIntLE(byte[] bytes, int position)
+  {
+    return (bytes[position] & 0xff)
+        | (bytes[position + 1] & 0xff) << 8
+        | (bytes[position + 2] & 0xff) << 16
+        | (bytes[position + 3] & 0xff) << 24;
+  }
+
+  /**
+   * Returns views of the byte arrays backing the ByteString.
+   */
+  private static List<ByteBuffer> chunks(ByteString data)
+  {
+    final List<ByteBuffer> chunks = new ArrayList<>(1);
+    try
+    {
+      data.write(new OutputStream()
+      {
+        @Override
+        public void write(int b)
+        {
+          throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len)
+        {
+          chunks.add(ByteBuffer.wrap(b, off, len));
+        }
+      });
+    }
+    catch (IOException e)
+    {
+      // the output stream above does not throw
+      throw new IllegalStateException(e);
+    }
+    return chunks;
+  }
+
+  /**
+   * Returns a view of the ByteString as a single byte array, which is only copied if the ByteString is
+   * composed of several.
+   */
+  private static ByteBuffer contiguous(ByteString data)
+  {
+    final List<ByteBuffer> chunks = chunks(data);
+    return chunks.size() == 1 ? chunks.get(0) : ByteBuffer.wrap(data.copyBytes());
+  }
+
+  /**
+   * Collects zlib output in byte array chunks, which are composed into a ByteString without being copied.
+   */
+  private static final class ChunkedOutput
+  {
+    private final ByteString.Builder _builder = new ByteString.Builder();
+    private byte[] _chunk;
+    private int _position;
+    private int _nextChunkSize;
+
+    ChunkedOutput(int sizeHint)
+    {
+      _nextChunkSize = Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, sizeHint));
+    }
+
+    void deflate(Deflater deflater)
+    {
+      ensureSpace();
+      _position += deflater.deflate(_chunk, _position, _chunk.length - _position);
+    }
+
+    int inflate(Inflater inflater, Checksum checksum) throws DataFormatException
+    {
+      ensureSpace();
+      final int inflated = inflater.inflate(_chunk, _position, _chunk.length - _position);
+      if (checksum != null)
+      {
+        checksum.update(_chunk, _position, inflated);
+      }
+      _position += inflated;
+      return inflated;
+    }
+
+    void write(byte[] bytes, int offset, int length)
+    {
+      while (length > 0)
+      {
+        ensureSpace();
+        final int written = Math.min(length, _chunk.length - _position);
+        System.arraycopy(bytes, offset, _chunk, _position, written);
+        _position += written;
+        offset += written;
+        length -= written;
+      }
+    }
+
+    void writeIntLE(int value)
+    {
+      write(new byte[] { (byte) value, (byte) (value >> 8), (byte) (value >> 16), (byte) (value >> 24) }, 0, 4);
+    }
+
+    ByteString build()
+    {
+      appendChunk();
+      return _builder.build();
+    }
+
+    private void ensureSpace()
+    {
+      if (_chunk == null || _position == _chunk.length)
+      {
+        appendChunk();
+        _chunk = new byte[_nextChunkSize];
+        _position = 0;
+        _nextChunkSize = MAX_CHUNK_SIZE;
+      }
+    }
+
+    private void appendChunk()
+    {
+      if (_chunk != null && _position > 0)
+      {
+        _builder.append(ByteString.unsafeWrap(_chunk, 0, _position));
+      }
+      _chunk = null;
+    }
+  }
+}
@@ -16,7 +16,10 @@
 
 package com.linkedin.r2.filter.compression;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -26,6 +29,7 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.linkedin.data.ByteString;
 import com.linkedin.r2.filter.CompressionConfig;
 import com.linkedin.r2.filter.NextFilter;
 import com.linkedin.r2.filter.message.rest.RestFilter;
@@ -40,6 +44,11 @@ import com.linkedin.r2.transport.http.common.HttpConstants;
  *
  * Filter class for server to negotiate acceptable compression formats from clients
  * and compresses the response with the relevant headers accordingly.
+ *
+ * The filter may hold zstd dictionaries, typically one per service it serves. It decodes requests encoded with any
+ * of them, and encodes a "zstd" response with one of them only if the client advertised that dictionary in
+ * Accept-Encoding. The dictionaries a client advertised which the filter holds are listed in the Accept-Encoding
+ * header of the response, so that the client knows it may encode its requests with them.
  * @author erli
  *
  */
@@ -49,6 +58,8 @@ public class ServerCompressionFilter implements RestFilter
 
   private final Set<EncodingType> _supportedEncoding;
   private final ServerCompressionHelper _serverCompressionHelper;
+  private final SizeAwareEncodingChooser _encodingChooser;
+  private final ZstdDictionaries _zstdDictionaries;
 
   private static final String EMPTY = "";
 
@@ -80,6 +91,39 @@ public class ServerCompressionFilter implements RestFilter
    * @param supportedEncoding
    */
   public ServerCompressionFilter(EncodingType[] supportedEncoding, CompressionConfig defaultResponseCompressionConfig)
+  {
+    this(supportedEncoding, defaultResponseCompressionConfig, null);
+  }
+
+  /** Instantiates a compression filter
+   * that supports the compression methods in the given set in argument and chooses
+   * the response encoding with the given chooser, taking the size of the response into account.
+   * @param supportedEncoding
+   * @param defaultResponseCompressionConfig
+   * @param encodingChooser chooser of the response encoding, or null to choose it with
+   *                        {@link AcceptEncoding#chooseBest(List)}
+   */
+  public ServerCompressionFilter(EncodingType[] supportedEncoding,
+                                 CompressionConfig defaultResponseCompressionConfig,
+                                 SizeAwareEncodingChooser encodingChooser)
+  {
+    this(supportedEncoding, defaultResponseCompressionConfig, encodingChooser,
+        Collections.<ZstdDictionary>emptyList());
+  }
+
+  /** Instantiates a compression filter
+   * that supports the compression methods in the given set in argument and chooses
+   * the response encoding with the given chooser, taking the size of the response into account.
+   * @param supportedEncoding
+   * @param defaultResponseCompressionConfig
+   * @param encodingChooser chooser of the response encoding, or null to choose it with
+   *                        {@link AcceptEncoding#chooseBest(List)}
+   * @param zstdDictionaries zstd dictionaries of the services, in addition to the one of the default config
+   */
+  public ServerCompressionFilter(EncodingType[] supportedEncoding,
+                                 CompressionConfig defaultResponseCompressionConfig,
+                                 SizeAwareEncodingChooser encodingChooser,
+                                 Collection<ZstdDictionary> zstdDictionaries)
   {
     if (defaultResponseCompressionConfig == null)
     {
@@ -89,6 +133,10 @@ public class ServerCompressionFilter implements RestFilter
     _supportedEncoding.add(EncodingType.IDENTITY);
     _supportedEncoding.add(EncodingType.ANY);
     _serverCompressionHelper = new ServerCompressionHelper(defaultResponseCompressionConfig);
+    _encodingChooser = encodingChooser;
+    List<ZstdDictionary> dictionaries = new ArrayList<ZstdDictionary>(zstdDictionaries);
+    dictionaries.add(ZstdDictionary.of(defaultResponseCompressionConfig.getZstdDictionary()));
+    _zstdDictionaries = new ZstdDictionaries(dictionaries);
   }
 
   /**
@@ -107,29 +155,39 @@ public class ServerCompressionFilter implements RestFilter
       if (requestContentEncoding != null)
       {
         //This must be a specific compression type other than *
-        EncodingType encoding;
-        try
-        {
-          encoding = EncodingType.get(requestContentEncoding.trim().toLowerCase());
-        }
-        catch (IllegalArgumentException ex)
+        String requestContentEncodingName = requestContentEncoding.trim().toLowerCase();
+        Compressor requestCompressor;
+        if (ZstdDictionary.isDictionaryEncoding(requestContentEncodingName))
         {
-          throw new CompressionException(CompressionConstants.UNSUPPORTED_ENCODING
-              + requestContentEncoding);
+          requestCompressor = getDictionaryCompressor(requestContentEncodingName);
         }
-        if (encoding == EncodingType.ANY)
+        else
         {
-          throw new CompressionException(CompressionConstants.REQUEST_ANY_ERROR
-              + requestContentEncoding);
+          EncodingType encoding;
+          try
+          {
+            encoding = EncodingType.get(requestContentEncodingName);
+          }
+          catch (IllegalArgumentException ex)
+          {
+            throw new CompressionException(CompressionConstants.UNSUPPORTED_ENCODING
+                + requestContentEncoding);
+          }
+          if (encoding == EncodingType.ANY)
+          {
+            throw new CompressionException(CompressionConstants.REQUEST_ANY_ERROR
+                + requestContentEncoding);
+          }
+          requestCompressor = encoding.getCompressor();
         }
 
         //Process the correct compression types only
-        if (encoding.hasCompressor())
+        if (requestCompressor != null)
         {
-          byte[] decompressedContent = encoding.getCompressor().inflate(req.getEntity().asInputStream());
+          ByteString decompressedContent = requestCompressor.inflate(req.getEntity());
           Map<String, String> headers = new HashMap<String, String>(req.getHeaders());
           headers.remove(HttpConstants.CONTENT_ENCODING);
-          headers.put(HttpConstants.CONTENT_LENGTH, Integer.toString(decompressedContent.length));
+          headers.put(HttpConstants.CONTENT_LENGTH, Integer.toString(decompressedContent.length()));
           req = req.builder().setEntity(decompressedContent).setHeaders(headers).build();
         }
       }
@@ -158,6 +216,20 @@ public class ServerCompressionFilter implements RestFilter
     }
   }
 
+  /**
+   * Returns the compressor of a request encoded with a zstd dictionary, which must be one of the dictionaries
+   * of this filter.
+   */
+  private Compressor getDictionaryCompressor(String contentEncoding) throws CompressionException
+  {
+    ZstdDictionary dictionary = _zstdDictionaries.get(contentEncoding);
+    if (dictionary == null)
+    {
+      throw new CompressionException(CompressionConstants.UNSUPPORTED_ENCODING + contentEncoding);
+    }
+    return new ZstdCompressor(dictionary);
+  }
+
   /**
    * Optionally compresses outgoing response
    * */
@@ -168,16 +240,25 @@ public class ServerCompressionFilter implements RestFilter
   {
     try
     {
+      String responseAcceptedEncodings = (String) requestContext.getLocalAttr(HttpConstants.ACCEPT_ENCODING);
+      String acceptedDictionaries = responseAcceptedEncodings == null
+          ? null : _zstdDictionaries.filterAccepted(responseAcceptedEncodings);
+      if (acceptedDictionaries != null)
+      {
+        res = res.builder().setHeader(HttpConstants.ACCEPT_ENCODING, acceptedDictionaries).build();
+      }
+
       if (res.getEntity().length() > 0)
       {
-        String responseAcceptedEncodings = (String) requestContext.getLocalAttr(HttpConstants.ACCEPT_ENCODING);
         if (responseAcceptedEncodings == null)
         {
           throw new CompressionException(HttpConstants.ACCEPT_ENCODING + " not in local attribute.");
         }
 
         List<AcceptEncoding> parsedEncodings = AcceptEncoding.parseAcceptEncodingHeader(responseAcceptedEncodings, _supportedEncoding);
-        EncodingType selectedEncoding = AcceptEncoding.chooseBest(parsedEncodings);
+        EncodingType selectedEncoding = _encodingChooser == null
+            ? AcceptEncoding.chooseBest(parsedEncodings)
+            : _encodingChooser.chooseBest(parsedEncodings, res.getEntity().length());
 
         //Check if there exists an acceptable encoding
         if (selectedEncoding != null)
@@ -185,10 +266,12 @@ public class ServerCompressionFilter implements RestFilter
           if (selectedEncoding.hasCompressor() &&
               res.getEntity().length() > (Integer) requestContext.getLocalAttr(HttpConstants.HEADER_RESPONSE_COMPRESSION_THRESHOLD))
           {
-            Compressor compressor = selectedEncoding.getCompressor();
-            byte[] compressed = compressor.deflate(res.getEntity().asInputStream());
+            Compressor compressor = selectedEncoding == EncodingType.ZSTD && acceptedDictionaries != null
+                ? new ZstdCompressor(_zstdDictionaries.chooseAccepted(responseAcceptedEncodings))
+                : selectedEncoding.getCompressor();
+            ByteString compressed = compressor.deflate(res.getEntity());
 
-            if (compressed.length < res.getEntity().length())
+            if (compressed.length() < res.getEntity().length())
             {
               RestResponseBuilder resCompress = res.builder();
               resCompress.addHeaderValue(HttpConstants.CONTENT_ENCODING, compressor.getContentEncodingName());
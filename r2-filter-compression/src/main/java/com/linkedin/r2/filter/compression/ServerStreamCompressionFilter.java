@@ -29,7 +29,10 @@ import com.linkedin.r2.message.stream.StreamResponse;
 import com.linkedin.r2.message.stream.StreamResponseBuilder;
 import com.linkedin.r2.message.stream.entitystream.EntityStream;
 import com.linkedin.r2.message.stream.entitystream.EntityStreams;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -40,6 +43,7 @@ import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.linkedin.r2.filter.CompressionConfig;
 import com.linkedin.r2.filter.NextFilter;
 import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.transport.http.common.HttpConstants;
@@ -48,6 +52,8 @@ import com.linkedin.r2.transport.http.common.HttpConstants;
  * Filter class for server to negotiate acceptable compression formats from clients
  * and compresses the response with the relevant headers accordingly.
  *
+ * zstd dictionaries are negotiated as in {@link ServerCompressionFilter}.
+ *
  * @author Ang Xu
  */
 public class ServerStreamCompressionFilter implements StreamFilter
@@ -57,6 +63,7 @@ public class ServerStreamCompressionFilter implements StreamFilter
   private final Set<StreamEncodingType> _supportedEncoding;
   private final Executor _executor;
   private final ServerCompressionHelper _serverCompressionHelper;
+  private final ZstdDictionaries _zstdDictionaries;
 
 
   /** Takes a comma delimited string containing standard
@@ -80,11 +87,46 @@ public class ServerStreamCompressionFilter implements StreamFilter
    */
   public ServerStreamCompressionFilter(StreamEncodingType[] supportedEncoding, Executor executor, int compressThreshold)
   {
+    this(supportedEncoding, executor, new CompressionConfig(compressThreshold));
+  }
+
+  /** Instantiates a compression filter
+   * that supports the compression methods in the given set in argument, with the threshold
+   * and zstd dictionary of the given config.
+   * @param supportedEncoding
+   * @param defaultResponseCompressionConfig
+   */
+  public ServerStreamCompressionFilter(StreamEncodingType[] supportedEncoding,
+                                       Executor executor,
+                                       CompressionConfig defaultResponseCompressionConfig)
+  {
+    this(supportedEncoding, executor, defaultResponseCompressionConfig, Collections.<ZstdDictionary>emptyList());
+  }
+
+  /** Instantiates a compression filter
+   * that supports the compression methods in the given set in argument, with the threshold
+   * and zstd dictionary of the given config.
+   * @param supportedEncoding
+   * @param defaultResponseCompressionConfig
+   * @param zstdDictionaries zstd dictionaries of the services, in addition to the one of the default config
+   */
+  public ServerStreamCompressionFilter(StreamEncodingType[] supportedEncoding,
+                                       Executor executor,
+                                       CompressionConfig defaultResponseCompressionConfig,
+                                       Collection<ZstdDictionary> zstdDictionaries)
+  {
+    if (defaultResponseCompressionConfig == null)
+    {
+      throw new IllegalArgumentException(CompressionConstants.NULL_CONFIG_ERROR);
+    }
     _supportedEncoding = new HashSet<StreamEncodingType>(Arrays.asList(supportedEncoding));
     _supportedEncoding.add(StreamEncodingType.IDENTITY);
     _supportedEncoding.add(StreamEncodingType.ANY);
     _executor = executor;
-    _serverCompressionHelper = new ServerCompressionHelper(compressThreshold);
+    _serverCompressionHelper = new ServerCompressionHelper(defaultResponseCompressionConfig);
+    List<ZstdDictionary> dictionaries = new ArrayList<ZstdDictionary>(zstdDictionaries);
+    dictionaries.add(ZstdDictionary.of(defaultResponseCompressionConfig.getZstdDictionary()));
+    _zstdDictionaries = new ZstdDictionaries(dictionaries);
   }
 
   /**
@@ -101,16 +143,30 @@ public class ServerStreamCompressionFilter implements StreamFilter
       if (requestContentEncoding != null)
       {
         //This must be a specific compression type other than *
-        StreamEncodingType encoding = StreamEncodingType.get(requestContentEncoding.trim().toLowerCase());
-        if (encoding == null || encoding == StreamEncodingType.ANY)
+        String requestContentEncodingName = requestContentEncoding.trim().toLowerCase();
+        StreamingCompressor compressor;
+        if (ZstdDictionary.isDictionaryEncoding(requestContentEncodingName))
         {
-          throw new CompressionException(CompressionConstants.UNSUPPORTED_ENCODING + requestContentEncoding);
+          ZstdDictionary dictionary = _zstdDictionaries.get(requestContentEncodingName);
+          if (dictionary == null)
+          {
+            throw new CompressionException(CompressionConstants.UNSUPPORTED_ENCODING + requestContentEncoding);
+          }
+          compressor = StreamEncodingType.ZSTD.getCompressor(_executor, dictionary);
         }
-        //Process the correct content-encoding types only
-        StreamingCompressor compressor = encoding.getCompressor(_executor);
-        if (compressor == null)
+        else
         {
-          throw new CompressionException(CompressionConstants.UNKNOWN_ENCODING + encoding);
+          StreamEncodingType encoding = StreamEncodingType.get(requestContentEncodingName);
+          if (encoding == null || encoding == StreamEncodingType.ANY)
+          {
+            throw new CompressionException(CompressionConstants.UNSUPPORTED_ENCODING + requestContentEncoding);
+          }
+          //Process the correct content-encoding types only
+          compressor = encoding.getCompressor(_executor);
+          if (compressor == null)
+          {
+            throw new CompressionException(CompressionConstants.UNKNOWN_ENCODING + encoding);
+          }
         }
         EntityStream uncompressedStream = compressor.inflate(req.getEntityStream());
         Map<String, String> headers = stripHeaders(req.getHeaders(), HttpConstants.CONTENT_ENCODING, HttpConstants.CONTENT_LENGTH);
@@ -146,13 +202,20 @@ public class ServerStreamCompressionFilter implements StreamFilter
    * Optionally compresses outgoing response
    * */
   @Override
-  public void onStreamResponse(final StreamResponse res, final RequestContext requestContext, final Map<String, String> wireAttrs,
+  public void onStreamResponse(StreamResponse res, final RequestContext requestContext, final Map<String, String> wireAttrs,
                                final NextFilter<StreamRequest, StreamResponse> nextFilter)
   {
+    String responseCompression = (String) requestContext.getLocalAttr(HttpConstants.ACCEPT_ENCODING);
+    String acceptedDictionaries = responseCompression == null
+        ? null : _zstdDictionaries.filterAccepted(responseCompression);
+    if (acceptedDictionaries != null)
+    {
+      res = res.builder().setHeader(HttpConstants.ACCEPT_ENCODING, acceptedDictionaries).build(res.getEntityStream());
+    }
+
     StreamResponse response = res;
     try
     {
-      String responseCompression = (String) requestContext.getLocalAttr(HttpConstants.ACCEPT_ENCODING);
       if (responseCompression == null)
       {
         throw new CompressionException(HttpConstants.ACCEPT_ENCODING + " not in local attribute.");
@@ -170,7 +233,10 @@ public class ServerStreamCompressionFilter implements StreamFilter
       else if (selectedEncoding != StreamEncodingType.IDENTITY)
       {
         final int threshold = (Integer) requestContext.getLocalAttr(HttpConstants.HEADER_RESPONSE_COMPRESSION_THRESHOLD);
-        final StreamingCompressor compressor = selectedEncoding.getCompressor(_executor);
+        final StreamingCompressor compressor = selectedEncoding == StreamEncodingType.ZSTD && acceptedDictionaries != null
+            ? selectedEncoding.getCompressor(_executor, _zstdDictionaries.chooseAccepted(responseCompression))
+            : selectedEncoding.getCompressor(_executor);
+        final StreamResponse uncompressedResponse = res;
         PartialReader reader = new PartialReader(threshold, new Callback<EntityStream[]>()
         {
           @Override
@@ -184,13 +250,13 @@ public class ServerStreamCompressionFilter implements StreamFilter
           {
             if (results.length == 1) // entity stream is less than threshold
             {
-              StreamResponse response = res.builder().build(results[0]);
+              StreamResponse response = uncompressedResponse.builder().build(results[0]);
               nextFilter.onResponse(response, requestContext, wireAttrs);
             }
             else
             {
               EntityStream compressedStream = compressor.deflate(EntityStreams.newEntityStream(new CompositeWriter(results)));
-              StreamResponseBuilder builder = res.builder();
+              StreamResponseBuilder builder = uncompressedResponse.builder();
               // remove original content-length header if presents.
               if (builder.getHeader(HttpConstants.CONTENT_LENGTH) != null)
               {
@@ -203,7 +269,7 @@ public class ServerStreamCompressionFilter implements StreamFilter
             }
           }
         });
-        res.getEntityStream().setReader(reader);
+        uncompressedResponse.getEntityStream().setReader(reader);
         return;
       }
     }
@@ -0,0 +1,115 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.compression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+
+/**
+ * Chooses the response encoding from the client's Accept-Encoding entries and the size of the entity.
+ *
+ * The client's preferences come first: only the acceptable encodings with the highest quality value are
+ * candidates, and the choice is the same as the one of {@link AcceptEncoding#chooseBest(List)} whenever it
+ * is not an encoding with a compressor. Among candidates of equal quality, the encoding listed first in the
+ * preferences for the entity's size wins, so that for instance a cheap encoding such as snappy is used for
+ * mid-size entities and one with a better ratio such as gzip for large entities.
+ */
+public class SizeAwareEncodingChooser
+{
+  /**
+   * Entity length from which the default preferences favor ratio over speed.
+   */
+  public static final int DEFAULT_LARGE_ENTITY_LENGTH = 128 * 1024;
+
+  private final NavigableMap<Integer, List<EncodingType>> _preferences;
+
+  /**
+   * Instantiates a chooser preferring lz4 or snappy below {@link #DEFAULT_LARGE_ENTITY_LENGTH} and zstd or gzip
+   * from it on.
+   */
+  public SizeAwareEncodingChooser()
+  {
+    this(defaultPreferences());
+  }
+
+  /**
+   * @param preferences preferred encodings, most preferred first, by minimum entity length. Entities shorter
+   *                    than the lowest minimum length are not given a preference.
+   */
+  public SizeAwareEncodingChooser(Map<Integer, List<EncodingType>> preferences)
+  {
+    _preferences = new TreeMap<Integer, List<EncodingType>>();
+    for (Map.Entry<Integer, List<EncodingType>> entry : preferences.entrySet())
+    {
+      _preferences.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<EncodingType>(entry.getValue())));
+    }
+  }
+
+  /**
+   * Chooses the best acceptable encoding for an entity of the given length.
+   * @param entries List of accepted-encoding entries, which is sorted and stripped of banned entries
+   * @param entityLength length of the entity to encode
+   * @return Encoding type of choice, null if HTTP 406 (NOT ACCEPTABLE) should be used
+   */
+  public EncodingType chooseBest(List<AcceptEncoding> entries, int entityLength)
+  {
+    final EncodingType best = AcceptEncoding.chooseBest(entries);
+    final Map.Entry<Integer, List<EncodingType>> preferred = _preferences.floorEntry(entityLength);
+    if (best == null || !best.hasCompressor() || preferred == null)
+    {
+      return best;
+    }
+
+    // entries are now sorted by descending quality, and best is the first entry with a compressor
+    float bestQuality = 0;
+    for (AcceptEncoding entry : entries)
+    {
+      if (entry.getType() == best)
+      {
+        bestQuality = entry.getQuality();
+        break;
+      }
+    }
+    for (EncodingType type : preferred.getValue())
+    {
+      for (AcceptEncoding entry : entries)
+      {
+        if (entry.getType() == type && entry.getQuality() == bestQuality)
+        {
+          return type;
+        }
+      }
+    }
+    return best;
+  }
+
+  private static Map<Integer, List<EncodingType>> defaultPreferences()
+  {
+    final Map<Integer, List<EncodingType>> preferences = new TreeMap<Integer, List<EncodingType>>();
+    preferences.put(0, Arrays.asList(EncodingType.LZ4, EncodingType.SNAPPY_FRAMED, EncodingType.SNAPPY,
+                                     EncodingType.ZSTD, EncodingType.DEFLATE, EncodingType.GZIP));
+    preferences.put(DEFAULT_LARGE_ENTITY_LENGTH, Arrays.asList(EncodingType.ZSTD, EncodingType.GZIP, EncodingType.DEFLATE,
+                                                               EncodingType.LZ4, EncodingType.SNAPPY_FRAMED, EncodingType.SNAPPY));
+    return preferences;
+  }
+}
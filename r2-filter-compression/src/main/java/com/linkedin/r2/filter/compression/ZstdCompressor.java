@@ -0,0 +1,119 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.compression;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.commons.io.IOUtils;
+
+
+/**
+ * Compressor for "zstd" Encoding, or for the encoding of its dictionary when given a dictionary trained on the
+ * payloads of a service.
+ */
+public class ZstdCompressor implements Compressor
+{
+  private static final String HTTP_NAME = "zstd";
+
+  private final ZstdDictionary _dictionary;
+  private final int _level;
+
+  public ZstdCompressor()
+  {
+    this((ZstdDictionary) null);
+  }
+
+  /**
+   * @param dictionary zstd dictionary, or null to compress without one. Data compressed with a dictionary can
+   *                   only be decompressed with the same dictionary.
+   */
+  public ZstdCompressor(byte[] dictionary)
+  {
+    this(dictionary, CompressionConstants.ZSTD_DEFAULT_LEVEL);
+  }
+
+  /**
+   * @param dictionary zstd dictionary, or null to compress without one
+   * @param level zstd compression level
+   */
+  public ZstdCompressor(byte[] dictionary, int level)
+  {
+    this(dictionary == null ? null : new ZstdDictionary(dictionary, level), level);
+  }
+
+  /**
+   * @param dictionary digested zstd dictionary, which gives the compression level, or null to compress without
+   *                   one at the default level
+   */
+  public ZstdCompressor(ZstdDictionary dictionary)
+  {
+    this(dictionary, dictionary == null ? CompressionConstants.ZSTD_DEFAULT_LEVEL : dictionary.getLevel());
+  }
+
+  private ZstdCompressor(ZstdDictionary dictionary, int level)
+  {
+    _dictionary = dictionary;
+    _level = level;
+  }
+
+  @Override
+  public String getContentEncodingName()
+  {
+    return _dictionary == null ? HTTP_NAME : _dictionary.getContentEncodingName();
+  }
+
+  @Override
+  public byte[] inflate(InputStream data) throws CompressionException
+  {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ZstdInputStream zstd = new ZstdInputStream(data))
+    {
+      if (_dictionary != null)
+      {
+        zstd.setDict(_dictionary.getDecompressDictionary());
+      }
+      IOUtils.copy(zstd, out);
+    }
+    catch (IOException e)
+    {
+      throw new CompressionException(CompressionConstants.DECODING_ERROR + getContentEncodingName(), e);
+    }
+    return out.toByteArray();
+  }
+
+  @Override
+  public byte[] deflate(InputStream data) throws CompressionException
+  {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ZstdOutputStream zstd = new ZstdOutputStream(out, _level))
+    {
+      if (_dictionary != null)
+      {
+        zstd.setDict(_dictionary.getCompressDictionary());
+      }
+      IOUtils.copy(data, zstd);
+    }
+    catch (IOException e)
+    {
+      throw new CompressionException(CompressionConstants.DECODING_ERROR + getContentEncodingName(), e);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,181 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.linkedin.r2.filter.compression;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * The zstd dictionaries a compression filter holds, keyed by their content encoding. A filter decodes the data
+ * encoded with any of them, and encodes data with one of them only if the peer advertised it in Accept-Encoding;
+ * otherwise plain "zstd" is used.
+ */
+final class ZstdDictionaries
+{
+  static final ZstdDictionaries EMPTY = new ZstdDictionaries(Collections.<ZstdDictionary>emptyList());
+
+  private final Map<String, ZstdDictionary> _dictionaries;
+  private final String _acceptEncodingNames;
+
+  ZstdDictionaries(Collection<ZstdDictionary> dictionaries)
+  {
+    _dictionaries = new LinkedHashMap<>();
+    for (ZstdDictionary dictionary : dictionaries)
+    {
+      if (dictionary != null)
+      {
+        _dictionaries.put(dictionary.getContentEncodingName(), dictionary);
+      }
+    }
+    _acceptEncodingNames = String.join(CompressionConstants.ENCODING_DELIMITER, _dictionaries.keySet());
+  }
+
+  boolean isEmpty()
+  {
+    return _dictionaries.isEmpty();
+  }
+
+  /**
+   * @return the dictionary of the given content encoding, or null if there is none
+   */
+  ZstdDictionary get(String contentEncoding)
+  {
+    return _dictionaries.get(contentEncoding);
+  }
+
+  /**
+   * @return the content encodings of all the dictionaries, delimited as in Accept-Encoding
+   */
+  String getAcceptEncodingNames()
+  {
+    return _acceptEncodingNames;
+  }
+
+  /**
+   * Appends the content encodings of all the dictionaries to an Accept-Encoding value, with the given quality.
+   */
+  void appendAcceptEncoding(StringBuilder acceptEncoding, float quality)
+  {
+    for (String name : _dictionaries.keySet())
+    {
+      if (acceptEncoding.length() > 0)
+      {
+        acceptEncoding.append(CompressionConstants.ENCODING_DELIMITER);
+      }
+      acceptEncoding.append(name);
+      acceptEncoding.append(CompressionConstants.QUALITY_DELIMITER);
+      acceptEncoding.append(CompressionConstants.QUALITY_PREFIX);
+      acceptEncoding.append(String.format("%.2f", quality));
+    }
+  }
+
+  /**
+   * Returns the dictionary of highest quality among the ones advertised in the given Accept-Encoding value,
+   * or null if none of them was.
+   */
+  ZstdDictionary chooseAccepted(String acceptEncoding)
+  {
+    ZstdDictionary chosen = null;
+    float chosenQuality = 0.0f;
+    if (!_dictionaries.isEmpty())
+    {
+      for (String entry : acceptEncoding.toLowerCase().split(CompressionConstants.ENCODING_DELIMITER))
+      {
+        String[] content = entry.trim().split(CompressionConstants.QUALITY_DELIMITER);
+        ZstdDictionary dictionary = _dictionaries.get(content[0].trim());
+        if (dictionary != null)
+        {
+          float quality = parseQuality(content);
+          if (quality > chosenQuality)
+          {
+            chosen = dictionary;
+            chosenQuality = quality;
+          }
+        }
+      }
+    }
+    return chosen;
+  }
+
+  /**
+   * Returns the content encodings of the dictionaries advertised in the given Accept-Encoding value, delimited
+   * as in Accept-Encoding, or null if none of them was.
+   */
+  String filterAccepted(String acceptEncoding)
+  {
+    StringBuilder accepted = null;
+    if (!_dictionaries.isEmpty())
+    {
+      for (String entry : acceptEncoding.toLowerCase().split(CompressionConstants.ENCODING_DELIMITER))
+      {
+        String[] content = entry.trim().split(CompressionConstants.QUALITY_DELIMITER);
+        String name = content[0].trim();
+        if (_dictionaries.containsKey(name) && parseQuality(content) > 0.0f)
+        {
+          if (accepted == null)
+          {
+            accepted = new StringBuilder(name);
+          }
+          else
+          {
+            accepted.append(CompressionConstants.ENCODING_DELIMITER).append(name);
+          }
+        }
+      }
+    }
+    return accepted == null ? null : accepted.toString();
+  }
+
+  /**
+   * @return true if the given Accept-Encoding value advertises the given content encoding
+   */
+  static boolean isAccepted(String acceptEncoding, String contentEncoding)
+  {
+    for (String entry : acceptEncoding.toLowerCase().split(CompressionConstants.ENCODING_DELIMITER))
+    {
+      String[] content = entry.trim().split(CompressionConstants.QUALITY_DELIMITER);
+      if (content[0].trim().equals(contentEncoding) && parseQuality(content) > 0.0f)
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static float parseQuality(String[] content)
+  {
+    if (content.length > 1)
+    {
+      String part = content[1].trim();
+      if (part.startsWith(CompressionConstants.QUALITY_PREFIX))
+      {
+        try
+        {
+          return Float.parseFloat(part.substring(CompressionConstants.QUALITY_PREFIX.length()));
+        }
+        catch (NumberFormatException e)
+        {
+          return 0.0f;
+        }
+      }
+      return 0.0f;
+    }
+    return 1.0f;
+  }
+}
@@ -0,0 +1,126 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.linkedin.r2.filter.compression;
+
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import java.util.zip.CRC32;
+
+
+/**
+ * A zstd dictionary digested once for compression at a given level and for decompression, so that the
+ * digested dictionaries can be shared by all the streams which use it instead of loading the raw dictionary
+ * into each stream.
+ *
+ * Data compressed with a dictionary is labeled with a content encoding of its own, "x-zstd-dict-" followed by the
+ * id of the dictionary, so that it is never mistaken for plain "zstd" by a peer which lacks the dictionary. The id
+ * is the one recorded in trained dictionaries, or a checksum of the content of raw dictionaries.
+ */
+public class ZstdDictionary
+{
+  private static final int DICTIONARY_MAGIC = 0xEC30A437;
+
+  private final ZstdDictCompress _compressDictionary;
+  private final ZstdDictDecompress _decompressDictionary;
+  private final int _level;
+  private final long _id;
+  private final String _contentEncodingName;
+
+  public ZstdDictionary(byte[] dictionary)
+  {
+    this(dictionary, CompressionConstants.ZSTD_DEFAULT_LEVEL);
+  }
+
+  /**
+   * @param dictionary raw zstd dictionary
+   * @param level zstd compression level of the data compressed with the dictionary
+   */
+  public ZstdDictionary(byte[] dictionary, int level)
+  {
+    _compressDictionary = new ZstdDictCompress(dictionary, level);
+    _decompressDictionary = new ZstdDictDecompress(dictionary);
+    _level = level;
+    _id = dictionaryId(dictionary);
+    _contentEncodingName = CompressionConstants.ZSTD_DICTIONARY_ENCODING_PREFIX + _id;
+  }
+
+  /**
+   * Returns the dictionary digested from the given raw dictionary, or null if there is none.
+   */
+  public static ZstdDictionary of(byte[] dictionary)
+  {
+    return dictionary == null ? null : new ZstdDictionary(dictionary);
+  }
+
+  public ZstdDictCompress getCompressDictionary()
+  {
+    return _compressDictionary;
+  }
+
+  public ZstdDictDecompress getDecompressDictionary()
+  {
+    return _decompressDictionary;
+  }
+
+  public int getLevel()
+  {
+    return _level;
+  }
+
+  public long getId()
+  {
+    return _id;
+  }
+
+  /**
+   * @return the content encoding of the data compressed with this dictionary
+   */
+  public String getContentEncodingName()
+  {
+    return _contentEncodingName;
+  }
+
+  /**
+   * @return true if the given content encoding is the one of data compressed with a zstd dictionary
+   */
+  public static boolean isDictionaryEncoding(String contentEncoding)
+  {
+    return contentEncoding.startsWith(CompressionConstants.ZSTD_DICTIONARY_ENCODING_PREFIX);
+  }
+
+  private static long dictionaryId(byte[] dictionary)
+  {
+    if (dictionary.length >= 8 && readIntLE(dictionary, 0) == DICTIONARY_MAGIC)
+    {
+      long id = readIntLE(dictionary, 4) & 0xFFFFFFFFL;
+      if (id != 0)
+      {
+        return id;
+      }
+    }
+    CRC32 checksum = new CRC32();
+    checksum.update(dictionary);
+    return checksum.getValue();
+  }
+
+  private static int readIntLE(byte[] bytes, int offset)
+  {
+    return (bytes[offset] & 0xFF)
+        | (bytes[offset + 1] & 0xFF) << 8
+        | (bytes[offset + 2] & 0xFF) << 16
+        | (bytes[offset + 3] & 0xFF) << 24;
+  }
+}
@@ -17,6 +17,7 @@
 
 package com.linkedin.r2.filter.compression.streaming;
 
+import com.linkedin.r2.filter.compression.ZstdDictionary;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -31,6 +32,8 @@ public enum StreamEncodingType
   DEFLATE("deflate"),
   SNAPPY_FRAMED("x-snappy-framed"),
   BZIP2("bzip2"),
+  ZSTD("zstd"),
+  LZ4("x-lz4-framed"),
   IDENTITY("identity"),
   ANY("*");
 
@@ -59,6 +62,17 @@ public enum StreamEncodingType
   }
 
   public StreamingCompressor getCompressor(Executor executor)
+  {
+    return getCompressor(executor, null);
+  }
+
+  /**
+   * Returns the compressor of this compression method, using the given zstd dictionary for {@link #ZSTD}.
+   *
+   * @param executor executor which decompresses the data
+   * @param zstdDictionary digested zstd dictionary, or null to use none
+   */
+  public StreamingCompressor getCompressor(Executor executor, ZstdDictionary zstdDictionary)
   {
     switch (this)
     {
@@ -70,6 +84,10 @@ public enum StreamEncodingType
         return new Bzip2Compressor(executor);
       case SNAPPY_FRAMED:
         return new SnappyCompressor(executor);
+      case ZSTD:
+        return new ZstdCompressor(executor, zstdDictionary);
+      case LZ4:
+        return new Lz4Compressor(executor);
       case IDENTITY:
         return new NoopCompressor();
       default:
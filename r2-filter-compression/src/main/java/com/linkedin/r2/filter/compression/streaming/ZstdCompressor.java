@@ -0,0 +1,123 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.compression.streaming;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.linkedin.r2.filter.compression.CompressionConstants;
+import com.linkedin.r2.filter.compression.ZstdDictionary;
+import com.linkedin.r2.message.stream.entitystream.EntityStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.Executor;
+
+
+/**
+ * Streaming compressor for "zstd" Encoding, or for the encoding of its dictionary when given a dictionary trained
+ * on the payloads of a service.
+ */
+public class ZstdCompressor extends AbstractCompressor
+{
+  private final Executor _executor;
+  private final ZstdDictionary _dictionary;
+  private final int _level;
+
+  public ZstdCompressor(Executor executor)
+  {
+    this(executor, (ZstdDictionary) null);
+  }
+
+  /**
+   * @param executor executor which decompresses the data
+   * @param dictionary zstd dictionary, or null to compress without one. Data compressed with a dictionary can
+   *                   only be decompressed with the same dictionary.
+   */
+  public ZstdCompressor(Executor executor, byte[] dictionary)
+  {
+    this(executor, dictionary, CompressionConstants.ZSTD_DEFAULT_LEVEL);
+  }
+
+  /**
+   * @param executor executor which decompresses the data
+   * @param dictionary zstd dictionary, or null to compress without one
+   * @param level zstd compression level
+   */
+  public ZstdCompressor(Executor executor, byte[] dictionary, int level)
+  {
+    this(executor, dictionary == null ? null : new ZstdDictionary(dictionary, level), level);
+  }
+
+  /**
+   * @param executor executor which decompresses the data
+   * @param dictionary digested zstd dictionary, which gives the compression level, or null to compress without
+   *                   one at the default level
+   */
+  public ZstdCompressor(Executor executor, ZstdDictionary dictionary)
+  {
+    this(executor, dictionary, dictionary == null ? CompressionConstants.ZSTD_DEFAULT_LEVEL : dictionary.getLevel());
+  }
+
+  private ZstdCompressor(Executor executor, ZstdDictionary dictionary, int level)
+  {
+    _executor = executor;
+    _dictionary = dictionary;
+    _level = level;
+  }
+
+  @Override
+  public String getContentEncodingName()
+  {
+    return _dictionary == null ? StreamEncodingType.ZSTD.getHttpName() : _dictionary.getContentEncodingName();
+  }
+
+  @Override
+  protected StreamingInflater createInflater(EntityStream underlying)
+  {
+    return new StreamingInflater(underlying, _executor)
+    {
+      @Override
+      protected InputStream createInputStream(InputStream in) throws IOException
+      {
+        ZstdInputStream zstd = new ZstdInputStream(in);
+        if (_dictionary != null)
+        {
+          zstd.setDict(_dictionary.getDecompressDictionary());
+        }
+        return zstd;
+      }
+    };
+  }
+
+  @Override
+  protected StreamingDeflater createDeflater(EntityStream underlying)
+  {
+    return new StreamingDeflater(underlying)
+    {
+      @Override
+      protected OutputStream createOutputStream(OutputStream out) throws IOException
+      {
+        ZstdOutputStream zstd = new ZstdOutputStream(out, _level);
+        if (_dictionary != null)
+        {
+          zstd.setDict(_dictionary.getCompressDictionary());
+        }
+        return zstd;
+      }
+    };
+  }
+}
@@ -0,0 +1,163 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.compression;
+
+import com.linkedin.data.ByteString;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+
+/**
+ * Checks that the pooled {@link ByteString} compression of {@link DeflateCompressor} and {@link GzipCompressor}
+ * is interchangeable with their stream based compression.
+ */
+public class TestPooledZlib
+{
+  @DataProvider(name = "payloads")
+  private Object[][] providePayloads()
+  {
+    return new Object[][] {
+        {0},
+        {1},
+        {100},
+        {4096},
+        {300 * 1024}
+    };
+  }
+
+  @Test(dataProvider = "payloads")
+  public void testDeflateCompatibility(int length) throws CompressionException
+  {
+    testCompatibility(new DeflateCompressor(), payload(length));
+  }
+
+  @Test(dataProvider = "payloads")
+  public void testGzipCompatibility(int length) throws CompressionException
+  {
+    testCompatibility(new GzipCompressor(), payload(length));
+  }
+
+  @Test
+  public void testGzipSameLengthAsStream() throws CompressionException
+  {
+    GzipCompressor compressor = new GzipCompressor();
+    byte[] payload = payload(10000);
+    Assert.assertEquals(compressor.deflate(ByteString.copy(payload)).length(),
+                        compressor.deflate(new ByteArrayInputStream(payload)).length);
+  }
+
+  @Test
+  public void testGunzipConcatenatedMembers() throws CompressionException
+  {
+    GzipCompressor compressor = new GzipCompressor();
+    byte[] first = payload(1000);
+    byte[] second = payload(3000);
+    ByteString concatenated = new ByteString.Builder()
+        .append(compressor.deflate(ByteString.copy(first)))
+        .append(compressor.deflate(ByteString.copy(second)))
+        .build();
+
+    byte[] expected = Arrays.copyOf(first, first.length + second.length);
+    System.arraycopy(second, 0, expected, first.length, second.length);
+    Assert.assertEquals(compressor.inflate(concatenated).copyBytes(), expected);
+  }
+
+  @Test
+  public void testGunzipHeaderWithFileName() throws CompressionException
+  {
+    GzipCompressor compressor = new GzipCompressor();
+    byte[] payload = payload(1000);
+    byte[] compressed = compressor.deflate(ByteString.copy(payload)).copyBytes();
+    byte[] name = {'f', 'i', 'l', 'e', 0};
+
+    // set FNAME and insert the zero terminated file name after the fixed size header
+    byte[] named = new byte[compressed.length + name.length];
+    System.arraycopy(compressed, 0, named, 0, 10);
+    named[3] = 8;
+    System.arraycopy(name, 0, named, 10, name.length);
+    System.arraycopy(compressed, 10, named, 10 + name.length, compressed.length - 10);
+
+    Assert.assertEquals(compressor.inflate(ByteString.copy(named)).copyBytes(), payload);
+    Assert.assertEquals(compressor.inflate(new ByteArrayInputStream(named)), payload);
+  }
+
+  @Test(expectedExceptions = CompressionException.class)
+  public void testGunzipCorruptTrailer() throws CompressionException
+  {
+    GzipCompressor compressor = new GzipCompressor();
+    byte[] compressed = compressor.deflate(ByteString.copy(payload(1000))).copyBytes();
+    compressed[compressed.length - 5]++;
+    compressor.inflate(ByteString.copy(compressed));
+  }
+
+  @Test(expectedExceptions = CompressionException.class)
+  public void testGunzipTruncated() throws CompressionException
+  {
+    GzipCompressor compressor = new GzipCompressor();
+    byte[] compressed = compressor.deflate(ByteString.copy(payload(1000))).copyBytes();
+    compressor.inflate(ByteString.copy(Arrays.copyOf(compressed, compressed.length / 2)));
+  }
+
+  @Test(expectedExceptions = CompressionException.class)
+  public void testInflateNotDeflate() throws CompressionException
+  {
+    new DeflateCompressor().inflate(ByteString.copy(payload(1000)));
+  }
+
+  private static void testCompatibility(Compressor compressor, byte[] payload) throws CompressionException
+  {
+    ByteString compressed = compressor.deflate(chunked(payload));
+    Assert.assertEquals(compressor.inflate(new ByteArrayInputStream(compressed.copyBytes())), payload);
+    Assert.assertEquals(compressor.inflate(chunked(compressed.copyBytes())).copyBytes(), payload);
+
+    byte[] streamCompressed = compressor.deflate(new ByteArrayInputStream(payload));
+    Assert.assertEquals(compressor.inflate(ByteString.copy(streamCompressed)).copyBytes(), payload);
+  }
+
+  /**
+   * Returns the bytes in a ByteString composed of several chunks.
+   */
+  private static ByteString chunked(byte[] bytes)
+  {
+    ByteString.Builder builder = new ByteString.Builder();
+    int chunkSize = Math.max(1, bytes.length / 3);
+    for (int offset = 0; offset < bytes.length; offset += chunkSize)
+    {
+      builder.append(ByteString.unsafeWrap(bytes, offset, Math.min(chunkSize, bytes.length - offset)));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Returns compressible but not trivial data.
+   */
+  private static byte[] payload(int length)
+  {
+    Random random = new Random(length);
+    byte[] payload = new byte[length];
+    for (int i = 0; i < length; i++)
+    {
+      payload[i] = (byte) ('a' + random.nextInt(8));
+    }
+    return payload;
+  }
+}
@@ -16,9 +16,12 @@
 
 package com.linkedin.r2.filter.compression;
 
+import com.linkedin.r2.filter.CompressionConfig;
 import com.linkedin.r2.filter.NextFilter;
 import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestException;
 import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.rest.RestResponseBuilder;
 import com.linkedin.r2.transport.http.common.HttpConstants;
@@ -27,7 +30,9 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
+import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
@@ -39,7 +44,13 @@ import java.util.Map;
  */
 public class TestServerCompressionFilter
 {
-  private static final String ACCEPT_COMPRESSIONS = "gzip, deflate, bzip2, snappy, x-snappy-framed";
+  private static final String ACCEPT_COMPRESSIONS = "gzip, deflate, bzip2, snappy, x-snappy-framed, zstd, x-lz4-framed";
+  private static final byte[] ZSTD_DICTIONARY =
+      "{\"id\":1,\"message\":\"Hello\",\"tone\":\"FRIENDLY\"}".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] ZSTD_OTHER_DICTIONARY =
+      "{\"id\":1,\"message\":\"Goodbye\",\"tone\":\"SINCERE\"}".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] ZSTD_ENTITY = ("[" + String.join(",", Collections.nCopies(20,
+      "{\"id\":2,\"message\":\"Hello\",\"tone\":\"FRIENDLY\"}")) + "]").getBytes(StandardCharsets.UTF_8);
 
   class HeaderCaptureFilter implements NextFilter<RestRequest, RestResponse>
   {
@@ -101,7 +112,10 @@ public class TestServerCompressionFilter
         {"gzip;q=1.00,deflate;q=0.80,bzip2;q=0.60,snappy;q=0.40", 1000, null},
         {"snappy", 1000, null},
         {"unknown;q=1.00,bzip2;q=0.70", 1000, null},
-        {"x-snappy-framed", 0, EncodingType.SNAPPY_FRAMED}
+        {"x-snappy-framed", 0, EncodingType.SNAPPY_FRAMED},
+        {"zstd", 0, EncodingType.ZSTD},
+        {"x-lz4-framed", 0, EncodingType.LZ4},
+        {"zstd;q=0.50,x-lz4-framed;q=1.00", 0, EncodingType.LZ4}
     };
   }
 
@@ -124,4 +138,181 @@ public class TestServerCompressionFilter
     serverCompressionFilter.onRestResponse(restResponse, context, Collections.<String, String>emptyMap(),
                                            new HeaderCaptureFilter(HttpConstants.CONTENT_ENCODING, expectedContentEncodingName, compressedLength));
   }
+
+  @DataProvider(name = "sizeAwareHeadersData")
+  private Object[][] provideSizeAwareHeadersData()
+  {
+    return new Object[][] {
+        {"gzip, snappy", 1000, EncodingType.SNAPPY},
+        {"gzip, snappy", SizeAwareEncodingChooser.DEFAULT_LARGE_ENTITY_LENGTH, EncodingType.GZIP},
+        {"deflate, x-snappy-framed", 1000, EncodingType.SNAPPY_FRAMED},
+        {"gzip;q=1.00,snappy;q=0.50", 1000, EncodingType.GZIP},
+        {"snappy;q=1.00,gzip;q=0.50", SizeAwareEncodingChooser.DEFAULT_LARGE_ENTITY_LENGTH, EncodingType.SNAPPY},
+        {"bzip2", 1000, EncodingType.BZIP2},
+        {"identity, gzip", 1000, null}
+    };
+  }
+
+  @Test(dataProvider = "sizeAwareHeadersData")
+  public void testSizeAwareResponseEncoding(String acceptEncoding, int entityLength, EncodingType expectedContentEncoding)
+      throws CompressionException
+  {
+    ServerCompressionFilter serverCompressionFilter = new ServerCompressionFilter(
+        AcceptEncoding.parseAcceptEncoding(ACCEPT_COMPRESSIONS), new CompressionConfig(0), new SizeAwareEncodingChooser());
+    RequestContext context = new RequestContext();
+    context.putLocalAttr(HttpConstants.ACCEPT_ENCODING, acceptEncoding);
+    context.putLocalAttr(HttpConstants.HEADER_RESPONSE_COMPRESSION_THRESHOLD, 0);
+    byte[] entity = new byte[entityLength];
+    Arrays.fill(entity, (byte) 'A');
+    int compressedLength = (expectedContentEncoding == null) ? entityLength :
+        expectedContentEncoding.getCompressor().deflate(new ByteArrayInputStream(entity)).length;
+    String expectedContentEncodingName = (expectedContentEncoding == null) ? null : expectedContentEncoding.getHttpName();
+    RestResponse restResponse = new RestResponseBuilder().setEntity(entity).build();
+    serverCompressionFilter.onRestResponse(restResponse, context, Collections.<String, String>emptyMap(),
+                                           new HeaderCaptureFilter(HttpConstants.CONTENT_ENCODING, expectedContentEncodingName, compressedLength));
+  }
+
+  @Test
+  public void testZstdDictionaryServerWithPlainZstdClient() throws CompressionException
+  {
+    ClientCompressionFilter client = newZstdClient(null);
+    ServerCompressionFilter server = newZstdServer(ZSTD_DICTIONARY);
+
+    for (int i = 0; i < 2; i++)
+    {
+      Exchange exchange = new Exchange(client, server);
+      Assert.assertEquals(exchange._wireRequest.getHeader(HttpConstants.CONTENT_ENCODING), EncodingType.ZSTD.getHttpName());
+      Assert.assertEquals(exchange._serverRequest.getEntity().copyBytes(), ZSTD_ENTITY);
+      Assert.assertEquals(exchange._wireResponse.getHeader(HttpConstants.CONTENT_ENCODING), EncodingType.ZSTD.getHttpName());
+      Assert.assertNull(exchange._wireResponse.getHeader(HttpConstants.ACCEPT_ENCODING));
+      // the response is plain zstd, which a peer without the dictionary decodes
+      Assert.assertEquals(new ZstdCompressor().inflate(exchange._wireResponse.getEntity().asInputStream()), ZSTD_ENTITY);
+      Assert.assertEquals(exchange._clientResponse.getEntity().copyBytes(), ZSTD_ENTITY);
+    }
+  }
+
+  @Test
+  public void testZstdDictionaryNegotiation() throws CompressionException
+  {
+    ClientCompressionFilter client = newZstdClient(ZSTD_DICTIONARY);
+    ServerCompressionFilter server = newZstdServer(ZSTD_DICTIONARY);
+    String dictionaryEncoding = new ZstdDictionary(ZSTD_DICTIONARY).getContentEncodingName();
+
+    // the request is plain zstd until the server has listed the dictionary as accepted
+    Exchange exchange = new Exchange(client, server);
+    Assert.assertEquals(exchange._wireRequest.getHeader(HttpConstants.CONTENT_ENCODING), EncodingType.ZSTD.getHttpName());
+    Assert.assertTrue(exchange._wireRequest.getHeader(HttpConstants.ACCEPT_ENCODING).contains(dictionaryEncoding));
+    Assert.assertEquals(exchange._wireResponse.getHeader(HttpConstants.CONTENT_ENCODING), dictionaryEncoding);
+    Assert.assertEquals(exchange._wireResponse.getHeader(HttpConstants.ACCEPT_ENCODING), dictionaryEncoding);
+    Assert.assertEquals(exchange._clientResponse.getEntity().copyBytes(), ZSTD_ENTITY);
+
+    exchange = new Exchange(client, server);
+    Assert.assertEquals(exchange._wireRequest.getHeader(HttpConstants.CONTENT_ENCODING), dictionaryEncoding);
+    Assert.assertEquals(exchange._serverRequest.getEntity().copyBytes(), ZSTD_ENTITY);
+    Assert.assertEquals(exchange._clientResponse.getEntity().copyBytes(), ZSTD_ENTITY);
+
+    // a server which rejects the dictionary puts the client back on plain zstd
+    client.onRestError(new RestException(new RestResponseBuilder().setStatus(HttpConstants.UNSUPPORTED_MEDIA_TYPE).build()),
+        new RequestContext(), Collections.<String, String>emptyMap(), new Capture());
+    exchange = new Exchange(client, server);
+    Assert.assertEquals(exchange._wireRequest.getHeader(HttpConstants.CONTENT_ENCODING), EncodingType.ZSTD.getHttpName());
+  }
+
+  @Test
+  public void testZstdDictionaryClientWithOtherServer() throws CompressionException
+  {
+    ClientCompressionFilter client = newZstdClient(ZSTD_DICTIONARY);
+    ServerCompressionFilter server = newZstdServer(ZSTD_OTHER_DICTIONARY);
+
+    for (int i = 0; i < 2; i++)
+    {
+      Exchange exchange = new Exchange(client, server);
+      Assert.assertEquals(exchange._wireRequest.getHeader(HttpConstants.CONTENT_ENCODING), EncodingType.ZSTD.getHttpName());
+      Assert.assertEquals(exchange._wireResponse.getHeader(HttpConstants.CONTENT_ENCODING), EncodingType.ZSTD.getHttpName());
+      Assert.assertNull(exchange._wireResponse.getHeader(HttpConstants.ACCEPT_ENCODING));
+      Assert.assertEquals(exchange._clientResponse.getEntity().copyBytes(), ZSTD_ENTITY);
+    }
+  }
+
+  @Test
+  public void testUnknownZstdDictionary() throws CompressionException
+  {
+    ZstdDictionary dictionary = new ZstdDictionary(ZSTD_OTHER_DICTIONARY);
+    RestRequest request = new RestRequestBuilder(URI.create("http://localhost/greetings"))
+        .setHeader(HttpConstants.CONTENT_ENCODING, dictionary.getContentEncodingName())
+        .setEntity(new ZstdCompressor(dictionary).deflate(new ByteArrayInputStream(ZSTD_ENTITY)))
+        .build();
+    Capture capture = new Capture();
+    newZstdServer(ZSTD_DICTIONARY).onRestRequest(request, new RequestContext(), Collections.<String, String>emptyMap(),
+        capture);
+    Assert.assertNull(capture._request);
+    Assert.assertEquals(((RestException) capture._error).getResponse().getStatus(), HttpConstants.UNSUPPORTED_MEDIA_TYPE);
+  }
+
+  private static ClientCompressionFilter newZstdClient(byte[] dictionary)
+  {
+    return new ClientCompressionFilter(EncodingType.ZSTD, new CompressionConfig(0, dictionary),
+        new EncodingType[] { EncodingType.ZSTD }, new CompressionConfig(0, dictionary),
+        Collections.singletonList(ClientCompressionHelper.COMPRESS_ALL_RESPONSES_INDICATOR));
+  }
+
+  private static ServerCompressionFilter newZstdServer(byte[] dictionary)
+  {
+    return new ServerCompressionFilter(new EncodingType[] { EncodingType.ZSTD }, new CompressionConfig(0, dictionary));
+  }
+
+  /**
+   * A request passed through a client and a server filter, and a response echoing its entity passed back.
+   */
+  private static class Exchange
+  {
+    private final RestRequest _wireRequest;
+    private final RestRequest _serverRequest;
+    private final RestResponse _wireResponse;
+    private final RestResponse _clientResponse;
+
+    Exchange(ClientCompressionFilter client, ServerCompressionFilter server)
+    {
+      Map<String, String> wireAttrs = Collections.emptyMap();
+      RequestContext clientContext = new RequestContext();
+      RequestContext serverContext = new RequestContext();
+      Capture capture = new Capture();
+
+      client.onRestRequest(new RestRequestBuilder(URI.create("http://localhost/greetings")).setEntity(ZSTD_ENTITY).build(),
+          clientContext, wireAttrs, capture);
+      _wireRequest = capture._request;
+      server.onRestRequest(_wireRequest, serverContext, wireAttrs, capture);
+      _serverRequest = capture._request;
+      server.onRestResponse(new RestResponseBuilder().setEntity(_serverRequest.getEntity()).build(), serverContext,
+          wireAttrs, capture);
+      _wireResponse = capture._response;
+      client.onRestResponse(_wireResponse, clientContext, wireAttrs, capture);
+      _clientResponse = capture._response;
+    }
+  }
+
+  private static class Capture implements NextFilter<RestRequest, RestResponse>
+  {
+    private RestRequest _request;
+    private RestResponse _response;
+    private Throwable _error;
+
+    @Override
+    public void onRequest(RestRequest restRequest, RequestContext requestContext, Map<String, String> wireAttrs)
+    {
+      _request = restRequest;
+    }
+
+    @Override
+    public void onResponse(RestResponse restResponse, RequestContext requestContext, Map<String, String> wireAttrs)
+    {
+      _response = restResponse;
+    }
+
+    @Override
+    public void onError(Throwable ex, RequestContext requestContext, Map<String, String> wireAttrs)
+    {
+      _error = ex;
+    }
+  }
 }
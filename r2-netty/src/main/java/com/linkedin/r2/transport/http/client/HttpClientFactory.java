@@ -51,8 +51,10 @@ import com.linkedin.r2.transport.http.client.rest.HttpNettyClient;
 import com.linkedin.r2.transport.http.client.stream.http.HttpNettyStreamClient;
 import com.linkedin.r2.transport.http.client.stream.http2.Http2NettyStreamClient;
 import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
+import com.linkedin.r2.transport.http.util.NettyTransport;
 import com.linkedin.r2.util.ConfigValueExtractor;
 import com.linkedin.r2.util.NamedThreadFactory;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -75,7 +77,7 @@ import org.slf4j.LoggerFactory;
  * A factory for HttpNettyClient instances.
  *
  * All clients created by the factory will share the same resources, in particular the
- * {@link io.netty.channel.nio.NioEventLoopGroup} and {@link ScheduledExecutorService}.
+ * {@link io.netty.channel.EventLoopGroup} and {@link ScheduledExecutorService}.
  *
  * In order to shutdown cleanly, all clients issued by the factory should be shutdown via
  * {@link TransportClient#shutdown(com.linkedin.common.callback.Callback)} and the factory
@@ -123,6 +125,8 @@ public class HttpClientFactory implements TransportClientFactory
   public static final String HTTP_MAX_CHUNK_SIZE = "http.maxChunkSize";
   public static final String HTTP_MAX_CONCURRENT_CONNECTIONS = "http.maxConcurrentConnections";
   public static final String HTTP_TCP_NO_DELAY = "http.tcpNoDelay";
+  public static final String HTTP_LOCK_FREE_POOL = "http.lockFreePool";
+  public static final String HTTP_PIPELINING_DEPTH = "http.pipeliningDepth";
   public static final String HTTP_PROTOCOL_VERSION = "http.protocolVersion";
 
   public static final int DEFAULT_QUERY_POST_THRESHOLD = Integer.MAX_VALUE;
@@ -142,6 +146,10 @@ public class HttpClientFactory implements TransportClientFactory
   public static final int DEFAULT_MAX_CHUNK_SIZE = 8 * 1024;
   // flag to enable/disable Nagle's algorithm
   public static final boolean DEFAULT_TCP_NO_DELAY = true;
+  // flag to use the lock-free implementation of the connection pool
+  public static final boolean DEFAULT_LOCK_FREE_POOL = false;
+  // maximum number of outstanding requests per HTTP/1.1 stream connection, 1 disables pipelining
+  public static final int DEFAULT_PIPELINING_DEPTH = 1;
   public static final boolean DEFAULT_SHARE_CONNECTION = false;
   public static final int DEFAULT_MAX_CONCURRENT_CONNECTIONS = Integer.MAX_VALUE;
   public static final EncodingType[] DEFAULT_RESPONSE_CONTENT_ENCODINGS
@@ -156,7 +164,7 @@ public class HttpClientFactory implements TransportClientFactory
 
   private static final String LIST_SEPARATOR = ",";
 
-  private final NioEventLoopGroup          _eventLoopGroup;
+  private final EventLoopGroup             _eventLoopGroup;
   private final ScheduledExecutorService   _executor;
   private final ExecutorService            _callbackExecutorGroup;
   private final boolean                    _shutdownFactory;
@@ -522,7 +530,7 @@ public class HttpClientFactory implements TransportClientFactory
   }
 
   private HttpClientFactory(FilterChain filters,
-                           NioEventLoopGroup eventLoopGroup,
+                           EventLoopGroup eventLoopGroup,
                            boolean shutdownFactory,
                            ScheduledExecutorService executor,
                            boolean shutdownExecutor,
@@ -575,7 +583,8 @@ public class HttpClientFactory implements TransportClientFactory
 
   public static class Builder
   {
-    private NioEventLoopGroup          _eventLoopGroup = null;
+    private EventLoopGroup             _eventLoopGroup = null;
+    private NettyTransport             _transport = NettyTransport.AUTO;
     private ScheduledExecutorService   _executor = null;
     private ExecutorService            _callbackExecutorGroup = null;
     private boolean                    _shutdownFactory = true;
@@ -603,6 +612,26 @@ public class HttpClientFactory implements TransportClientFactory
       return this;
     }
 
+    /**
+     * @param eventLoopGroup the {@link NioEventLoopGroup} or {@link io.netty.channel.epoll.EpollEventLoopGroup}
+     *                       that all Clients created by this factory will share
+     */
+    public Builder setEventLoopGroup(EventLoopGroup eventLoopGroup)
+    {
+      _eventLoopGroup = eventLoopGroup;
+      return this;
+    }
+
+    /**
+     * @param transport the Netty transport of the event loop group created when none is set,
+     *                  {@link NettyTransport#AUTO} by default, which uses epoll when available
+     */
+    public Builder setTransport(NettyTransport transport)
+    {
+      _transport = transport;
+      return this;
+    }
+
     /**
      * @param scheduleExecutorService an executor shared by all Clients created by this factory to schedule
      *                                tasks
@@ -728,8 +757,8 @@ public class HttpClientFactory implements TransportClientFactory
 
     public HttpClientFactory build()
     {
-      NioEventLoopGroup eventLoopGroup = _eventLoopGroup != null ? _eventLoopGroup
-          : new NioEventLoopGroup(0 /* use default settings */, new NamedThreadFactory("R2 Nio Event Loop"));
+      EventLoopGroup eventLoopGroup = _eventLoopGroup != null ? _eventLoopGroup
+          : _transport.newEventLoopGroup(0 /* use default settings */, "Event Loop");
       ScheduledExecutorService scheduledExecutorService = _executor != null ? _executor
           : Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("R2 Netty Scheduler"));
 
@@ -1129,6 +1158,8 @@ public class HttpClientFactory implements TransportClientFactory
     Integer maxHeaderSize = chooseNewOverDefault(getIntValue(properties, HTTP_MAX_HEADER_SIZE), DEFAULT_MAX_HEADER_SIZE);
     Integer maxChunkSize = chooseNewOverDefault(getIntValue(properties, HTTP_MAX_CHUNK_SIZE), DEFAULT_MAX_CHUNK_SIZE);
     Boolean tcpNoDelay = chooseNewOverDefault(getBooleanValue(properties, HTTP_TCP_NO_DELAY), DEFAULT_TCP_NO_DELAY);
+    Boolean lockFreePool = chooseNewOverDefault(getBooleanValue(properties, HTTP_LOCK_FREE_POOL), DEFAULT_LOCK_FREE_POOL);
+    Integer pipeliningDepth = chooseNewOverDefault(getIntValue(properties, HTTP_PIPELINING_DEPTH), DEFAULT_PIPELINING_DEPTH);
     Integer maxConcurrentConnectionInitializations = chooseNewOverDefault(getIntValue(properties, HTTP_MAX_CONCURRENT_CONNECTIONS), DEFAULT_MAX_CONCURRENT_CONNECTIONS);
     AsyncPoolImpl.Strategy strategy = chooseNewOverDefault(getStrategy(properties), DEFAULT_POOL_STRATEGY);
     Integer gracefulShutdownTimeout = chooseNewOverDefault(getIntValue(properties, HTTP_GRACEFUL_SHUTDOWN_TIMEOUT), DEFAULT_GRACEFUL_SHUTDOWN_TIMEOUT);
@@ -1139,7 +1170,8 @@ public class HttpClientFactory implements TransportClientFactory
       .setPoolWaiterSize(poolWaiterSize).setSSLParameters(sslParameters).setStrategy(strategy).setMinPoolSize(poolMinSize)
       .setMaxHeaderSize(maxHeaderSize).setMaxChunkSize(maxChunkSize)
       .setMaxConcurrentConnectionInitializations(maxConcurrentConnectionInitializations)
-      .setTcpNoDelay(tcpNoDelay).setPoolStatsNamePrefix(poolStatsNamePrefix).build();
+      .setTcpNoDelay(tcpNoDelay).setPoolStatsNamePrefix(poolStatsNamePrefix).setLockFreePool(lockFreePool)
+      .setPipeliningDepth(pipeliningDepth).build();
   }
 
   TransportClient getRawClient(Map<String, ? extends Object> properties,
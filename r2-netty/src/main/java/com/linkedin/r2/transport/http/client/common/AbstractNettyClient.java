@@ -18,6 +18,7 @@ package com.linkedin.r2.transport.http.client.common;
 
 import com.linkedin.common.callback.Callback;
 import com.linkedin.common.callback.MultiCallback;
+import com.linkedin.r2.util.RequestCancellation;
 import com.linkedin.r2.util.RequestTimeoutUtil;
 import com.linkedin.common.util.None;
 import com.linkedin.r2.filter.R2Constants;
@@ -234,6 +235,15 @@ public abstract class AbstractNettyClient<Req extends Request, Res extends Respo
       return;
     }
 
+    // Cancelling expires the timeout early, so the timeout tasks added by doWriteRequest release the
+    // channel or the pending channel request either way
+    RequestCancellation requestCancellation =
+        (RequestCancellation) requestContext.getLocalAttr(R2Constants.REQUEST_CANCELLATION);
+    if (requestCancellation != null)
+    {
+      requestCancellation.setCancellable(timeoutCallback);
+    }
+
     doWriteRequest(request, requestContext, address, wireAttrs, timeoutCallback, requestTimeout);
   }
 
@@ -22,7 +22,7 @@ import com.linkedin.r2.transport.http.client.rest.HttpNettyChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.stream.http.HttpNettyStreamChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.stream.http2.Http2NettyStreamChannelPoolFactory;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,15 +39,15 @@ public class ChannelPoolManagerFactoryImpl implements ChannelPoolManagerFactory
 {
   private static final Logger LOG = LoggerFactory.getLogger(ChannelPoolManagerFactoryImpl.class);
 
-  private final NioEventLoopGroup _eventLoopGroup;
+  private final EventLoopGroup _eventLoopGroup;
   private final ScheduledExecutorService _scheduler;
 
   /**
-   * @param eventLoopGroup The NioEventLoopGroup; it is the caller's responsibility to
+   * @param eventLoopGroup The EventLoopGroup; it is the caller's responsibility to
    *                       shut it down
    * @param scheduler      An executor; it is the caller's responsibility to shut it down
    */
-  public ChannelPoolManagerFactoryImpl(NioEventLoopGroup eventLoopGroup, ScheduledExecutorService scheduler)
+  public ChannelPoolManagerFactoryImpl(EventLoopGroup eventLoopGroup, ScheduledExecutorService scheduler)
   {
     _eventLoopGroup = eventLoopGroup;
     _scheduler = scheduler;
@@ -82,7 +82,8 @@ public class ChannelPoolManagerFactoryImpl implements ChannelPoolManagerFactory
         (int) channelPoolManagerKey.getMaxResponseSize(),
         _scheduler,
         channelPoolManagerKey.getMaxConcurrentConnectionInitializations(),
-        channelGroup),
+        channelGroup,
+        channelPoolManagerKey.isLockFreePool()),
       channelPoolManagerKey.getName(),
       channelGroup,
       _scheduler);
@@ -109,7 +110,9 @@ public class ChannelPoolManagerFactoryImpl implements ChannelPoolManagerFactory
         channelPoolManagerKey.getMaxChunkSize(),
         channelPoolManagerKey.getMaxResponseSize(),
         _eventLoopGroup,
-        channelGroup),
+        channelGroup,
+        channelPoolManagerKey.isLockFreePool(),
+        channelPoolManagerKey.getPipeliningDepth()),
       channelPoolManagerKey.getName() + "-Stream",
       channelGroup,
       _scheduler);
@@ -45,12 +45,15 @@ public class ChannelPoolManagerKey
   private final AsyncPoolImpl.Strategy _strategy;
   private final boolean _tcpNoDelay;
   private final String _poolStatsNamePrefix;
+  private final boolean _lockFreePool;
+  private final int _pipeliningDepth;
 
   public ChannelPoolManagerKey(SSLContext sslContext, SSLParameters sslParameters, int gracefulShutdownTimeout,
                                long idleTimeout, long sslIdleTimeout, int maxHeaderSize, int maxChunkSize,
                                long maxResponseSize, int maxPoolSize, int minPoolSize,
                                int maxConcurrentConnectionInitializations, int poolWaiterSize, AsyncPoolImpl.Strategy strategy,
-                               boolean tcpNoDelay, String poolStatsNamePrefix)
+                               boolean tcpNoDelay, String poolStatsNamePrefix, boolean lockFreePool,
+                               int pipeliningDepth)
   {
     _sslContext = sslContext;
     _sslParameters = sslParameters;
@@ -67,6 +70,8 @@ public class ChannelPoolManagerKey
     _strategy = strategy;
     _tcpNoDelay = tcpNoDelay;
     _poolStatsNamePrefix = poolStatsNamePrefix;
+    _lockFreePool = lockFreePool;
+    _pipeliningDepth = pipeliningDepth;
   }
 
   /**
@@ -106,6 +111,15 @@ public class ChannelPoolManagerKey
     result = 31 * result + (_tcpNoDelay ? 1 : 0);
     result = 31 * result + (isSsl() ? 1 : 0);
     result = 31 * result + (_poolStatsNamePrefix != null ? _poolStatsNamePrefix.hashCode() : 0);
+    // only mixed in when set, to keep the names of the existing pools unchanged
+    if (_lockFreePool)
+    {
+      result = 31 * result + 1;
+    }
+    if (_pipeliningDepth > 1)
+    {
+      result = 31 * result + _pipeliningDepth;
+    }
     return result;
   }
 
@@ -182,6 +196,16 @@ public class ChannelPoolManagerKey
     return _poolStatsNamePrefix;
   }
 
+  public boolean isLockFreePool()
+  {
+    return _lockFreePool;
+  }
+
+  public int getPipeliningDepth()
+  {
+    return _pipeliningDepth;
+  }
+
   @Override
   public boolean equals(Object o)
   {
@@ -200,6 +224,8 @@ public class ChannelPoolManagerKey
     if (_maxConcurrentConnectionInitializations != that._maxConcurrentConnectionInitializations) return false;
     if (_poolWaiterSize != that._poolWaiterSize) return false;
     if (_tcpNoDelay != that._tcpNoDelay) return false;
+    if (_lockFreePool != that._lockFreePool) return false;
+    if (_pipeliningDepth != that._pipeliningDepth) return false;
     if (isSsl() != that.isSsl()) return false;
     if (_strategy != that._strategy) return false;
     return _poolStatsNamePrefix != null ? _poolStatsNamePrefix.equals(that._poolStatsNamePrefix) : that._poolStatsNamePrefix == null;
@@ -45,6 +45,8 @@ public class ChannelPoolManagerKeyBuilder
   private int _poolWaiterSize = HttpClientFactory.DEFAULT_POOL_WAITER_SIZE;
   private AsyncPoolImpl.Strategy _strategy = HttpClientFactory.DEFAULT_POOL_STRATEGY;
   private boolean _tcpNoDelay = HttpClientFactory.DEFAULT_TCP_NO_DELAY;
+  private boolean _lockFreePool = HttpClientFactory.DEFAULT_LOCK_FREE_POOL;
+  private int _pipeliningDepth = HttpClientFactory.DEFAULT_PIPELINING_DEPTH;
   private String _poolStatsNamePrefix = HttpClientFactory.DEFAULT_POOL_STATS_NAME_PREFIX;
 
   /**
@@ -199,10 +201,32 @@ public class ChannelPoolManagerKeyBuilder
     return this;
   }
 
+  /**
+   * @param lockFreePool flag to use the {@link com.linkedin.r2.transport.http.client.LockFreeAsyncPoolImpl}
+   *                     instead of the {@link AsyncPoolImpl}
+   */
+  public ChannelPoolManagerKeyBuilder setLockFreePool(boolean lockFreePool)
+  {
+    _lockFreePool = lockFreePool;
+    return this;
+  }
+
+  /**
+   * @param pipeliningDepth maximum number of outstanding requests sent on an HTTP/1.1 stream connection before
+   *                        their responses are received; 1 disables pipelining
+   */
+  public ChannelPoolManagerKeyBuilder setPipeliningDepth(int pipeliningDepth)
+  {
+    ObjectUtil.checkPositive(pipeliningDepth, "pipeliningDepth");
+    _pipeliningDepth = pipeliningDepth;
+    return this;
+  }
+
   public ChannelPoolManagerKey build()
   {
     return new ChannelPoolManagerKey(_sslContext, _sslParameters, _gracefulShutdownTimeout, _idleTimeout, _sslIdleTimeout,
       _maxHeaderSize, _maxChunkSize, _maxResponseSize, _maxPoolSize, _minPoolSize, _maxConcurrentConnectionInitializations,
-      _poolWaiterSize, _strategy, _tcpNoDelay, _poolStatsNamePrefix);
+      _poolWaiterSize, _strategy, _tcpNoDelay, _poolStatsNamePrefix, _lockFreePool,
+      _pipeliningDepth);
   }
 }
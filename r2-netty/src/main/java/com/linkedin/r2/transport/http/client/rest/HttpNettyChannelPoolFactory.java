@@ -20,9 +20,11 @@ import com.linkedin.common.stats.NoopLongTracker;
 import com.linkedin.r2.transport.http.client.AsyncPool;
 import com.linkedin.r2.transport.http.client.AsyncPoolImpl;
 import com.linkedin.r2.transport.http.client.ExponentialBackOffRateLimiter;
+import com.linkedin.r2.transport.http.client.LockFreeAsyncPoolImpl;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolLifecycle;
 import com.linkedin.r2.transport.http.client.common.SessionResumptionSslHandler;
+import com.linkedin.r2.transport.http.util.NettyTransport;
 import com.linkedin.r2.transport.http.util.SslHandlerUtil;
 import com.linkedin.util.clock.SystemClock;
 import io.netty.bootstrap.Bootstrap;
@@ -30,7 +32,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import java.net.SocketAddress;
@@ -54,18 +56,19 @@ public class HttpNettyChannelPoolFactory implements ChannelPoolFactory
   private final ChannelGroup _allChannels;
   private final ScheduledExecutorService _scheduler;
   private final int _maxConcurrentConnectionInitializations;
+  private final boolean _lockFreePool;
 
   public HttpNettyChannelPoolFactory(int maxPoolSize, long idleTimeout, int maxPoolWaiterSize, AsyncPoolImpl.Strategy strategy,
       int minPoolSize, EventLoopGroup eventLoopGroup, SSLContext sslContext, SSLParameters sslParameters, int maxHeaderSize,
       int maxChunkSize, int maxResponseSize, ScheduledExecutorService scheduler, int maxConcurrentConnectionInitializations,
-      ChannelGroup allChannels)
+      ChannelGroup allChannels, boolean lockFreePool)
   {
 
     _allChannels = allChannels;
     _scheduler = scheduler;
     _maxConcurrentConnectionInitializations = maxConcurrentConnectionInitializations;
     Bootstrap bootstrap = new Bootstrap().group(eventLoopGroup)
-      .channel(NioSocketChannel.class)
+      .channel(NettyTransport.of(eventLoopGroup).socketChannelClass())
       .handler(new HttpClientPipelineInitializer(sslContext, sslParameters, maxHeaderSize, maxChunkSize, maxResponseSize));
 
     _bootstrap = bootstrap;
@@ -74,33 +77,51 @@ public class HttpNettyChannelPoolFactory implements ChannelPoolFactory
     _maxPoolWaiterSize = maxPoolWaiterSize;
     _strategy = strategy;
     _minPoolSize = minPoolSize;
+    _lockFreePool = lockFreePool;
   }
 
   @Override
   public AsyncPool<Channel> getPool(SocketAddress address)
   {
+    ChannelPoolLifecycle lifecycle = new ChannelPoolLifecycle(address,
+      _bootstrap,
+      _allChannels,
+      false);
+    ExponentialBackOffRateLimiter rateLimiter = new ExponentialBackOffRateLimiter(0,
+      ChannelPoolLifecycle.MAX_PERIOD_BEFORE_RETRY_CONNECTIONS,
+      ChannelPoolLifecycle.INITIAL_PERIOD_BEFORE_RETRY_CONNECTIONS,
+      _scheduler,
+      _maxConcurrentConnectionInitializations);
+    if (_lockFreePool)
+    {
+      return new LockFreeAsyncPoolImpl<>(address.toString(),
+        lifecycle,
+        _maxPoolSize,
+        _idleTimeout,
+        _scheduler,
+        _maxPoolWaiterSize,
+        _strategy,
+        _minPoolSize,
+        rateLimiter,
+        SystemClock.instance(),
+        NoopLongTracker.instance()
+      );
+    }
     return new AsyncPoolImpl<>(address.toString(),
-      new ChannelPoolLifecycle(address,
-        _bootstrap,
-        _allChannels,
-        false),
+      lifecycle,
       _maxPoolSize,
       _idleTimeout,
       _scheduler,
       _maxPoolWaiterSize,
       _strategy,
       _minPoolSize,
-      new ExponentialBackOffRateLimiter(0,
-        ChannelPoolLifecycle.MAX_PERIOD_BEFORE_RETRY_CONNECTIONS,
-        ChannelPoolLifecycle.INITIAL_PERIOD_BEFORE_RETRY_CONNECTIONS,
-        _scheduler,
-        _maxConcurrentConnectionInitializations),
+      rateLimiter,
       SystemClock.instance(),
       NoopLongTracker.instance()
     );
   }
 
-  static class HttpClientPipelineInitializer extends ChannelInitializer<NioSocketChannel>
+  static class HttpClientPipelineInitializer extends ChannelInitializer<SocketChannel>
   {
     private final SSLContext _sslContext;
     private final SSLParameters _sslParameters;
@@ -136,7 +157,7 @@ public class HttpNettyChannelPoolFactory implements ChannelPoolFactory
     }
 
     @Override
-    protected void initChannel(NioSocketChannel ch) throws Exception
+    protected void initChannel(SocketChannel ch) throws Exception
     {
       if (_sslContext != null)
       {
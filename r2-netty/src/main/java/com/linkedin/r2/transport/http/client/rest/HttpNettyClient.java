@@ -40,7 +40,7 @@ import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
 import com.linkedin.r2.util.Cancellable;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
 import java.net.SocketAddress;
 import java.util.Map;
@@ -62,7 +62,7 @@ public class HttpNettyClient extends AbstractNettyClient<RestRequest, RestRespon
 
   /**
    * Creates a new HttpNettyClient
-   *  @param eventLoopGroup            The NioEventLoopGroup; it is the caller's responsibility to
+   *  @param eventLoopGroup            The EventLoopGroup; it is the caller's responsibility to
    *                                  shut it down
    * @param executor                  An executor; it is the caller's responsibility to shut it down
    * @param requestTimeout            Timeout, in ms, to get a connection from the pool or create one
@@ -74,7 +74,7 @@ public class HttpNettyClient extends AbstractNettyClient<RestRequest, RestRespon
    * @param channelPoolManager        channelPoolManager instance to retrieve http only channels
    * @param sslChannelPoolManager     channelPoolManager instance to retrieve https only connection
    */
-  public HttpNettyClient(NioEventLoopGroup eventLoopGroup,
+  public HttpNettyClient(EventLoopGroup eventLoopGroup,
                          ScheduledExecutorService executor,
                          long requestTimeout,
                          long shutdownTimeout,
@@ -33,7 +33,7 @@ import com.linkedin.r2.transport.http.client.TimeoutTransportCallback;
 import com.linkedin.r2.transport.http.client.common.AbstractNettyClient;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolManager;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
 
 import java.net.SocketAddress;
@@ -58,7 +58,7 @@ public abstract class AbstractNettyStreamClient extends AbstractNettyClient<Stre
   /**
    * Creates a new HttpNettyClient
    *
-   * @param eventLoopGroup            The NioEventLoopGroup; it is the caller's responsibility to
+   * @param eventLoopGroup            The EventLoopGroup; it is the caller's responsibility to
    *                                  shut it down
    * @param executor                  An executor; it is the caller's responsibility to shut it down
    * @param requestTimeout            Timeout, in ms, to get a connection from the pool or create one
@@ -70,7 +70,7 @@ public abstract class AbstractNettyStreamClient extends AbstractNettyClient<Stre
    * @param channelPoolManager        channelPoolManager instance to retrieve http only channels
    * @param sslChannelPoolManager     channelPoolManager instance to retrieve https only connection
    * */
-  public AbstractNettyStreamClient(NioEventLoopGroup eventLoopGroup, ScheduledExecutorService executor, long requestTimeout,
+  public AbstractNettyStreamClient(EventLoopGroup eventLoopGroup, ScheduledExecutorService executor, long requestTimeout,
                                    long shutdownTimeout, ExecutorService callbackExecutors, AbstractJmxManager jmxManager,
                                    ChannelPoolManager channelPoolManager, ChannelPoolManager sslChannelPoolManager)
   {
@@ -26,6 +26,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.Attribute;
 import io.netty.util.AttributeKey;
 
 
@@ -40,6 +41,8 @@ import io.netty.util.AttributeKey;
  *
  * The handler operates as a singleton (it can be a member of multiple pipelines). It expects
  * that the channel's attachment will be an AsyncPool&lt;Channel&gt; to which the channel belongs.
+ * A {@link PipeliningChannelPool} stays attached since it is shared by the requests pipelined on the
+ * channel, each of which returns the channel once.
  */
 @ChannelHandler.Sharable
 class ChannelPoolStreamHandler extends ChannelInboundHandlerAdapter
@@ -49,12 +52,22 @@ class ChannelPoolStreamHandler extends ChannelInboundHandlerAdapter
   /* package private */ static final Object CHANNEL_RELEASE_SIGNAL = new Object();
   /* package private */ static final Object CHANNEL_DESTROY_SIGNAL = new Object();
 
+  /**
+   * Removes the pool from the channel, unless it is a {@link PipeliningChannelPool}, and returns it.
+   */
+  static AsyncPool<Channel> removePool(Channel channel)
+  {
+    Attribute<AsyncPool<Channel>> attr = channel.attr(CHANNEL_POOL_ATTR_KEY);
+    AsyncPool<Channel> pool = attr.get();
+    return pool instanceof PipeliningChannelPool ? pool : attr.getAndSet(null);
+  }
+
   @Override
   public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception
   {
     if (msg == CHANNEL_RELEASE_SIGNAL)
     {
-      AsyncPool<Channel> pool = ctx.channel().attr(CHANNEL_POOL_ATTR_KEY).getAndSet(null);
+      AsyncPool<Channel> pool = removePool(ctx.channel());
       if (pool != null)
       {
         pool.put(ctx.channel());
@@ -62,7 +75,7 @@ class ChannelPoolStreamHandler extends ChannelInboundHandlerAdapter
     }
     else if (msg == CHANNEL_DESTROY_SIGNAL)
     {
-      AsyncPool<Channel> pool = ctx.channel().attr(CHANNEL_POOL_ATTR_KEY).getAndSet(null);
+      AsyncPool<Channel> pool = removePool(ctx.channel());
       if (pool != null)
       {
         pool.dispose(ctx.channel());
@@ -73,7 +86,7 @@ class ChannelPoolStreamHandler extends ChannelInboundHandlerAdapter
   @Override
   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception
   {
-    AsyncPool<Channel> pool = ctx.channel().attr(CHANNEL_POOL_ATTR_KEY).getAndSet(null);
+    AsyncPool<Channel> pool = removePool(ctx.channel());
     if (pool != null)
     {
       // TODO do all exceptions mean we should get rid of the channel?
@@ -84,7 +97,7 @@ class ChannelPoolStreamHandler extends ChannelInboundHandlerAdapter
   @Override
   public void channelInactive(ChannelHandlerContext ctx) throws Exception
   {
-    AsyncPool<Channel> pool = ctx.channel().attr(CHANNEL_POOL_ATTR_KEY).getAndSet(null);
+    AsyncPool<Channel> pool = removePool(ctx.channel());
     if (pool != null)
     {
       pool.dispose(ctx.channel());
@@ -22,14 +22,16 @@ import com.linkedin.r2.transport.http.client.AsyncPoolImpl;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolLifecycle;
 import com.linkedin.r2.transport.http.client.ExponentialBackOffRateLimiter;
+import com.linkedin.r2.transport.http.client.LockFreeAsyncPoolImpl;
 import com.linkedin.r2.transport.http.client.stream.http2.Http2NettyStreamClient;
+import com.linkedin.r2.transport.http.util.NettyTransport;
 import com.linkedin.util.clock.SystemClock;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
@@ -51,6 +53,8 @@ public class HttpNettyStreamChannelPoolFactory implements ChannelPoolFactory
   private final ChannelGroup _allChannels;
   private final ScheduledExecutorService _scheduler;
   private final int _maxConcurrentConnectionInitializations;
+  private final boolean _lockFreePool;
+  private final int _pipeliningDepth;
 
   public HttpNettyStreamChannelPoolFactory(int maxPoolSize,
                                         long idleTimeout,
@@ -66,13 +70,15 @@ public class HttpNettyStreamChannelPoolFactory implements ChannelPoolFactory
                                         int maxChunkSize,
                                         long maxResponseSize,
                                         EventLoopGroup eventLoopGroup,
-                                        ChannelGroup channelGroup)
+                                        ChannelGroup channelGroup,
+                                        boolean lockFreePool,
+                                        int pipeliningDepth)
   {
-    ChannelInitializer<NioSocketChannel> initializer =
-      new RAPStreamClientPipelineInitializer(sslContext, sslParameters, maxHeaderSize, maxChunkSize, maxResponseSize);
+    ChannelInitializer<SocketChannel> initializer = new RAPStreamClientPipelineInitializer(sslContext, sslParameters,
+      maxHeaderSize, maxChunkSize, maxResponseSize, pipeliningDepth > 1);
 
     Bootstrap bootstrap = new Bootstrap().group(eventLoopGroup)
-      .channel(NioSocketChannel.class)
+      .channel(NettyTransport.of(eventLoopGroup).socketChannelClass())
       .handler(initializer);
 
     _bootstrap = bootstrap;
@@ -85,27 +91,52 @@ public class HttpNettyStreamChannelPoolFactory implements ChannelPoolFactory
     _allChannels = channelGroup;
     _scheduler = scheduler;
     _maxConcurrentConnectionInitializations = maxConcurrentConnectionInitializations;
+    _lockFreePool = lockFreePool;
+    _pipeliningDepth = pipeliningDepth;
   }
 
   @Override
   public AsyncPool<Channel> getPool(SocketAddress address)
   {
+    AsyncPool<Channel> pool = createPool(address);
+    return _pipeliningDepth > 1 ? new PipeliningChannelPool(pool, _pipeliningDepth) : pool;
+  }
+
+  private AsyncPool<Channel> createPool(SocketAddress address)
+  {
+    ChannelPoolLifecycle lifecycle = new ChannelPoolLifecycle(address,
+      _bootstrap,
+      _allChannels,
+      _tcpNoDelay);
+    ExponentialBackOffRateLimiter rateLimiter = new ExponentialBackOffRateLimiter(0,
+      ChannelPoolLifecycle.MAX_PERIOD_BEFORE_RETRY_CONNECTIONS,
+      ChannelPoolLifecycle.INITIAL_PERIOD_BEFORE_RETRY_CONNECTIONS,
+      _scheduler,
+      _maxConcurrentConnectionInitializations);
+    if (_lockFreePool)
+    {
+      return new LockFreeAsyncPoolImpl<>(address.toString(),
+        lifecycle,
+        _maxPoolSize,
+        _idleTimeout,
+        _scheduler,
+        _maxPoolWaiterSize,
+        _strategy,
+        _minPoolSize,
+        rateLimiter,
+        SystemClock.instance(),
+        NoopLongTracker.instance()
+      );
+    }
     return new AsyncPoolImpl<>(address.toString(),
-      new ChannelPoolLifecycle(address,
-        _bootstrap,
-        _allChannels,
-        _tcpNoDelay),
+      lifecycle,
       _maxPoolSize,
       _idleTimeout,
       _scheduler,
       _maxPoolWaiterSize,
       _strategy,
       _minPoolSize,
-      new ExponentialBackOffRateLimiter(0,
-        ChannelPoolLifecycle.MAX_PERIOD_BEFORE_RETRY_CONNECTIONS,
-        ChannelPoolLifecycle.INITIAL_PERIOD_BEFORE_RETRY_CONNECTIONS,
-        _scheduler,
-        _maxConcurrentConnectionInitializations),
+      rateLimiter,
       SystemClock.instance(),
       NoopLongTracker.instance()
     );
@@ -44,7 +44,7 @@ import com.linkedin.r2.util.Cancellable;
 import com.linkedin.r2.util.Timeout;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import java.net.SocketAddress;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
@@ -64,7 +64,7 @@ import java.util.concurrent.TimeoutException;
   /**
    * Creates a new HttpNettyStreamClient
    *
-   * @param eventLoopGroup            The NioEventLoopGroup; it is the caller's responsibility to
+   * @param eventLoopGroup            The EventLoopGroup; it is the caller's responsibility to
    *                                  shut it down
    * @param executor                  An executor; it is the caller's responsibility to shut it down
    * @param requestTimeout            Timeout, in ms, to get a connection from the pool or create one
@@ -76,7 +76,7 @@ import java.util.concurrent.TimeoutException;
    * @param channelPoolManager        channelPoolManager instance to retrieve http only channels
    * @param sslChannelPoolManager     channelPoolManager instance to retrieve https only connection
    */
-  public HttpNettyStreamClient(NioEventLoopGroup eventLoopGroup,
+  public HttpNettyStreamClient(EventLoopGroup eventLoopGroup,
                                ScheduledExecutorService executor,
                                long requestTimeout,
                                long shutdownTimeout,
@@ -117,7 +117,10 @@ import java.util.concurrent.TimeoutException;
     requestContext.putLocalAttr(R2Constants.HTTP_PROTOCOL_VERSION, HttpProtocolVersion.HTTP_1_1);
 
     Callback<Channel> getCallback = new ChannelPoolGetCallback(pool, request, requestContext, callback, requestTimeout);
-    final Cancellable pendingGet = pool.get(getCallback);
+    // requests which are not idempotent are never pipelined behind others
+    final Cancellable pendingGet = pool instanceof PipeliningChannelPool && !PipeliningChannelPool.isPipelined(request)
+        ? ((PipeliningChannelPool) pool).getExclusive(getCallback)
+        : pool.get(getCallback);
     if (pendingGet != null)
     {
       callback.addTimeoutTask(pendingGet::cancel);
@@ -148,16 +151,22 @@ import java.util.concurrent.TimeoutException;
       // Netty pipeline.
       channel.attr(ChannelPoolStreamHandler.CHANNEL_POOL_ATTR_KEY).set(_pool);
       _callback.addTimeoutTask(() -> {
-        AsyncPool<Channel> pool = channel.attr(ChannelPoolStreamHandler.CHANNEL_POOL_ATTR_KEY).getAndSet(null);
+        AsyncPool<Channel> pool = ChannelPoolStreamHandler.removePool(channel);
         if (pool != null)
         {
           pool.dispose(channel);
         }
       });
 
+      // The pipelining handler is only present if the channel is shared by pipelined requests, in which case
+      // the callback and the streaming timeout are attached to the channel once the response arrives.
+      final RAPStreamPipeliningHandler pipeliningHandler = channel.pipeline().get(RAPStreamPipeliningHandler.class);
+
       Timeout<None> streamingTimeout = new Timeout<>(_scheduler, _requestTimeout, TimeUnit.MILLISECONDS, None.none());
       _callback.addTimeoutTask(() -> {
-        Timeout<None> timeout = channel.attr(RAPStreamResponseDecoder.TIMEOUT_ATTR_KEY).getAndSet(null);
+        Timeout<None> timeout = pipeliningHandler == null
+            ? channel.attr(RAPStreamResponseDecoder.TIMEOUT_ATTR_KEY).getAndSet(null)
+            : streamingTimeout;
         if (timeout != null)
         {
           // stop the timeout for streaming since streaming of response would not happen
@@ -167,9 +176,12 @@ import java.util.concurrent.TimeoutException;
 
       TransportCallback<StreamResponse> sslTimingCallback = SslHandshakeTimingHandler.getSslTimingCallback(channel, _requestContext, _callback);
 
-      // This handler invokes the callback with the response once it arrives.
-      channel.attr(RAPStreamResponseHandler.CALLBACK_ATTR_KEY).set(sslTimingCallback);
-      channel.attr(RAPStreamResponseDecoder.TIMEOUT_ATTR_KEY).set(streamingTimeout);
+      if (pipeliningHandler == null)
+      {
+        // This handler invokes the callback with the response once it arrives.
+        channel.attr(RAPStreamResponseHandler.CALLBACK_ATTR_KEY).set(sslTimingCallback);
+        channel.attr(RAPStreamResponseDecoder.TIMEOUT_ATTR_KEY).set(streamingTimeout);
+      }
 
       // Set the session validator requested by the user
       SslSessionValidator sslSessionValidator = (SslSessionValidator) _requestContext.getLocalAttr(R2Constants.REQUESTED_SSL_SESSION_VALIDATOR);
@@ -190,7 +202,7 @@ import java.util.concurrent.TimeoutException;
         // Since we call the callback above, the timeout associated will be never invoked. On top of that
         // we never send the request to the pipeline (due to the return statement), and nobody is releasing the channel
         // until the channel is forcefully closed by the shutdownTimeout. Therefore we have to release it here
-        AsyncPool<Channel> pool = channel.attr(ChannelPoolStreamHandler.CHANNEL_POOL_ATTR_KEY).getAndSet(null);
+        AsyncPool<Channel> pool = ChannelPoolStreamHandler.removePool(channel);
         if (pool != null)
         {
           pool.put(channel);
@@ -198,6 +210,12 @@ import java.util.concurrent.TimeoutException;
         return;
       }
 
+      if (pipeliningHandler != null)
+      {
+        pipeliningHandler.write(_request, sslTimingCallback, streamingTimeout);
+        return;
+      }
+
       // here we want the exception in outbound operations to be passed back through pipeline so that
       // the user callback would be invoked with the exception and the channel can be put back into the pool
       channel.writeAndFlush(_request).addListener(new ErrorChannelFutureListener());
@@ -0,0 +1,338 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.client.stream.http;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.util.None;
+import com.linkedin.r2.message.Request;
+import com.linkedin.r2.message.rest.RestMethod;
+import com.linkedin.r2.transport.http.client.AsyncPool;
+import com.linkedin.r2.transport.http.client.PoolStats;
+import com.linkedin.r2.util.Cancellable;
+import io.netty.channel.Channel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * An {@link AsyncPool} of HTTP/1.1 channels which lets up to a pipelining depth of requests share a channel
+ * checked out from the underlying pool, so that their requests are pipelined on the connection.
+ *
+ * A get is served by a checked out channel with less than the pipelining depth of outstanding requests if there
+ * is one. Otherwise it waits for a channel from the underlying pool, each get of which serves up to the pipelining
+ * depth of waiters, so that a burst of requests opens as few connections as the depth allows. The channel is
+ * returned to the underlying pool once every request has put it. Disposing the channel for one request disposes
+ * it right away, since the responses to the other requests pipelined on it can no longer be told apart; the puts
+ * and disposes of those requests are then ignored.
+ *
+ * Only idempotent requests are pipelined, since a failure of the connection fails every request pipelined on it
+ * without telling which of them the server has processed. Other requests get a channel of their own through
+ * {@link #getExclusive(Callback)}.
+ */
+class PipeliningChannelPool implements AsyncPool<Channel>
+{
+  private static final String HEADER_METHOD_OVERRIDE = "X-HTTP-Method-Override";
+  private static final Set<String> PIPELINED_METHODS =
+      new HashSet<>(Arrays.asList(RestMethod.GET, "HEAD", RestMethod.PUT, RestMethod.DELETE));
+
+  private final AsyncPool<Channel> _pool;
+  private final int _pipeliningDepth;
+
+  private final Object _lock = new Object();
+  // number of outstanding requests of the channels checked out from the underlying pool
+  private final Map<Channel, Integer> _outstanding = new HashMap<>();
+  // checked out channels which accept another request, least recently used first
+  private final Set<Channel> _available = new LinkedHashSet<>();
+  // gets waiting for a channel, which are never more than the pending gets of the underlying pool can serve
+  private final LinkedList<Callback<Channel>> _waiters = new LinkedList<>();
+  private int _pendingGets = 0;
+  // channels checked out from the underlying pool for a single request which is not pipelined
+  private final Set<Channel> _exclusive = new HashSet<>();
+
+  PipeliningChannelPool(AsyncPool<Channel> pool, int pipeliningDepth)
+  {
+    if (pipeliningDepth < 2)
+    {
+      throw new IllegalArgumentException("The pipelining depth must be at least 2: " + pipeliningDepth);
+    }
+    _pool = pool;
+    _pipeliningDepth = pipeliningDepth;
+  }
+
+  /**
+   * Returns whether the request may be pipelined with others, which is only the case of idempotent methods,
+   * including the ones tunneled through POST.
+   */
+  static boolean isPipelined(Request request)
+  {
+    final String methodOverride = request.getHeader(HEADER_METHOD_OVERRIDE);
+    return PIPELINED_METHODS.contains(methodOverride == null ? request.getMethod() : methodOverride);
+  }
+
+  @Override
+  public String getName()
+  {
+    return _pool.getName();
+  }
+
+  @Override
+  public void start()
+  {
+    _pool.start();
+  }
+
+  @Override
+  public void shutdown(Callback<None> callback)
+  {
+    _pool.shutdown(callback);
+  }
+
+  @Override
+  public Collection<Callback<Channel>> cancelWaiters()
+  {
+    final Collection<Callback<Channel>> cancelled = _pool.cancelWaiters();
+    synchronized (_lock)
+    {
+      // the cancelled waiters of the underlying pool are the pending gets and the exclusive gets
+      final List<Callback<Channel>> waiters = new ArrayList<>(_waiters);
+      for (Callback<Channel> waiter : cancelled)
+      {
+        if (waiter instanceof UnderlyingGetCallback)
+        {
+          _pendingGets--;
+        }
+        else
+        {
+          waiters.add(waiter);
+        }
+      }
+      _waiters.clear();
+      return waiters;
+    }
+  }
+
+  @Override
+  public Cancellable get(final Callback<Channel> callback)
+  {
+    Channel shared = null;
+    boolean newGet = false;
+    synchronized (_lock)
+    {
+      for (Iterator<Channel> it = _available.iterator(); it.hasNext() && shared == null; )
+      {
+        final Channel channel = it.next();
+        it.remove();
+        if (channel.isActive())
+        {
+          shared = channel;
+          final int outstanding = _outstanding.get(channel) + 1;
+          _outstanding.put(channel, outstanding);
+          if (outstanding < _pipeliningDepth)
+          {
+            _available.add(channel);
+          }
+        }
+      }
+      if (shared == null)
+      {
+        _waiters.add(callback);
+        if (_waiters.size() > _pendingGets * _pipeliningDepth)
+        {
+          _pendingGets++;
+          newGet = true;
+        }
+      }
+    }
+
+    if (shared != null)
+    {
+      callback.onSuccess(shared);
+      return null;
+    }
+    if (newGet)
+    {
+      _pool.get(new UnderlyingGetCallback());
+    }
+    return () -> {
+      synchronized (_lock)
+      {
+        return _waiters.remove(callback);
+      }
+    };
+  }
+
+  /**
+   * Gets a channel of the underlying pool which is not shared with any other request.
+   */
+  Cancellable getExclusive(final Callback<Channel> callback)
+  {
+    return _pool.get(new Callback<Channel>()
+    {
+      @Override
+      public void onSuccess(Channel channel)
+      {
+        synchronized (_lock)
+        {
+          _exclusive.add(channel);
+        }
+        callback.onSuccess(channel);
+      }
+
+      @Override
+      public void onError(Throwable e)
+      {
+        callback.onError(e);
+      }
+    });
+  }
+
+  @Override
+  public void put(Channel channel)
+  {
+    Callback<Channel> waiter = null;
+    boolean release = false;
+    synchronized (_lock)
+    {
+      if (_exclusive.remove(channel))
+      {
+        release = true;
+      }
+      else
+      {
+        final Integer outstanding = _outstanding.get(channel);
+        if (outstanding == null)
+        {
+          return;
+        }
+        if (channel.isActive() && !_waiters.isEmpty())
+        {
+          // hands the request slot over to the oldest waiter
+          waiter = _waiters.poll();
+        }
+        else if (outstanding > 1)
+        {
+          _outstanding.put(channel, outstanding - 1);
+          if (channel.isActive())
+          {
+            _available.add(channel);
+          }
+        }
+        else
+        {
+          _outstanding.remove(channel);
+          _available.remove(channel);
+          release = true;
+        }
+      }
+    }
+
+    if (waiter != null)
+    {
+      waiter.onSuccess(channel);
+    }
+    else if (release)
+    {
+      _pool.put(channel);
+    }
+  }
+
+  @Override
+  public void dispose(Channel channel)
+  {
+    synchronized (_lock)
+    {
+      if (!_exclusive.remove(channel))
+      {
+        if (_outstanding.remove(channel) == null)
+        {
+          return;
+        }
+        _available.remove(channel);
+      }
+    }
+    _pool.dispose(channel);
+  }
+
+  @Override
+  public PoolStats getStats()
+  {
+    return _pool.getStats();
+  }
+
+  private class UnderlyingGetCallback implements Callback<Channel>
+  {
+    @Override
+    public void onSuccess(Channel channel)
+    {
+      final List<Callback<Channel>> waiters = new ArrayList<>(_pipeliningDepth);
+      synchronized (_lock)
+      {
+        _pendingGets--;
+        while (waiters.size() < _pipeliningDepth && !_waiters.isEmpty())
+        {
+          waiters.add(_waiters.poll());
+        }
+        if (!waiters.isEmpty())
+        {
+          _outstanding.put(channel, waiters.size());
+          if (waiters.size() < _pipeliningDepth)
+          {
+            _available.add(channel);
+          }
+        }
+      }
+
+      if (waiters.isEmpty())
+      {
+        // the waiters were served by other channels or cancelled
+        _pool.put(channel);
+        return;
+      }
+      for (Callback<Channel> waiter : waiters)
+      {
+        waiter.onSuccess(channel);
+      }
+    }
+
+    @Override
+    public void onError(Throwable e)
+    {
+      final List<Callback<Channel>> waiters = new ArrayList<>(_pipeliningDepth);
+      synchronized (_lock)
+      {
+        _pendingGets--;
+        while (_waiters.size() > _pendingGets * _pipeliningDepth)
+        {
+          waiters.add(_waiters.poll());
+        }
+      }
+      for (Callback<Channel> waiter : waiters)
+      {
+        waiter.onError(e);
+      }
+    }
+  }
+}
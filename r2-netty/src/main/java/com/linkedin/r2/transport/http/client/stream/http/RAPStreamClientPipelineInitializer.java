@@ -18,7 +18,7 @@ package com.linkedin.r2.transport.http.client.stream.http;
 
 import com.linkedin.r2.transport.http.client.common.SessionResumptionSslHandler;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpClientCodec;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -32,7 +32,7 @@ import org.slf4j.LoggerFactory;
 /**
  * Netty HTTP/1.1 streaming implementation of {@link ChannelInitializer}
  */
-public class RAPStreamClientPipelineInitializer extends ChannelInitializer<NioSocketChannel>
+public class RAPStreamClientPipelineInitializer extends ChannelInitializer<SocketChannel>
 {
   static final Logger LOG = LoggerFactory.getLogger(RAPStreamClientPipelineInitializer.class);
 
@@ -41,6 +41,7 @@ public class RAPStreamClientPipelineInitializer extends ChannelInitializer<NioSo
   private final int _maxHeaderSize;
   private final int _maxChunkSize;
   private final long _maxResponseSize;
+  private final boolean _pipelining;
 
   /**
    * Creates new instance.
@@ -51,9 +52,11 @@ public class RAPStreamClientPipelineInitializer extends ChannelInitializer<NioSo
    *          SSLContext.getDefaultSSLParameters(), but those turned out to be
    *          exceedingly difficult to configure, so we can't pass all desired
    *          configuration in sslContext.
+   * @param pipelining whether requests may be sent before the responses to the previous ones are received,
+   *          in which case the responses are matched to the requests in order and the flushes are consolidated
    */
   RAPStreamClientPipelineInitializer(SSLContext sslContext, SSLParameters sslParameters, int maxHeaderSize,
-      int maxChunkSize, long maxResponseSize)
+      int maxChunkSize, long maxResponseSize, boolean pipelining)
   {
     // Check if requested parameters are present in the supported params of the context.
     // Log warning for those not present. Throw an exception if none present.
@@ -85,6 +88,7 @@ public class RAPStreamClientPipelineInitializer extends ChannelInitializer<NioSo
     _maxHeaderSize = maxHeaderSize;
     _maxChunkSize = maxChunkSize;
     _maxResponseSize = maxResponseSize;
+    _pipelining = pipelining;
   }
 
   /**
@@ -121,7 +125,7 @@ public class RAPStreamClientPipelineInitializer extends ChannelInitializer<NioSo
   }
 
   @Override
-  protected void initChannel(NioSocketChannel ch)
+  protected void initChannel(SocketChannel ch)
   {
     if (_sslContext != null)
     {
@@ -129,6 +133,10 @@ public class RAPStreamClientPipelineInitializer extends ChannelInitializer<NioSo
         new SessionResumptionSslHandler(_sslContext, _sslParameters));
     }
     ch.pipeline().addLast("codec", new HttpClientCodec(4096, _maxHeaderSize, _maxChunkSize));
+    if (_pipelining)
+    {
+      ch.pipeline().addLast(RAPStreamPipeliningHandler.PIPELINE_PIPELINING_HANDLER, new RAPStreamPipeliningHandler());
+    }
     ch.pipeline().addLast("rapFullRequestEncoder", new RAPStreamFullRequestEncoder());
     ch.pipeline().addLast("rapEncoder", new RAPStreamRequestEncoder());
     ch.pipeline().addLast("rapDecoder", new RAPStreamResponseDecoder(_maxResponseSize));
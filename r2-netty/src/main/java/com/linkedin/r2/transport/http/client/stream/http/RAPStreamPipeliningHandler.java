@@ -0,0 +1,163 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.client.stream.http;
+
+import com.linkedin.common.util.None;
+import com.linkedin.r2.message.Request;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
+import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
+import com.linkedin.r2.transport.http.client.common.ErrorChannelFutureListener;
+import com.linkedin.r2.util.Timeout;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.HttpResponse;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Matches the responses received on an HTTP/1.1 channel to the requests pipelined on it, which the server answers
+ * in the order they were sent.
+ *
+ * The callback and the streaming timeout of a request are queued when the request is written, and handed over
+ * to the {@link RAPStreamResponseDecoder} and the {@link RAPStreamResponseHandler} through the channel attributes
+ * when the head of its response is received. The requests still waiting for their response fail when the channel
+ * is closed, which happens as soon as any exchange on it fails.
+ *
+ * The requests written by concurrent callers are queued and written by a single task of the event loop, which
+ * flushes them at once.
+ */
+class RAPStreamPipeliningHandler extends ChannelInboundHandlerAdapter
+{
+  static final String PIPELINE_PIPELINING_HANDLER = "pipeliningHandler";
+
+  // only accessed from the event loop of the channel
+  private final Queue<PendingResponse> _pendingResponses = new ArrayDeque<>();
+  // written from any thread and drained by the event loop
+  private final Queue<PendingRequest> _pendingRequests = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean _drainScheduled = new AtomicBoolean();
+  private ChannelHandlerContext _ctx;
+
+  @Override
+  public void handlerAdded(ChannelHandlerContext ctx) throws Exception
+  {
+    _ctx = ctx;
+  }
+
+  /**
+   * Writes the request after the requests previously written on the channel. This method may be invoked from
+   * any thread.
+   *
+   * @param callback the callback to invoke with the response
+   * @param streamingTimeout the timeout of the response entity
+   */
+  void write(Request request, TransportCallback<StreamResponse> callback, Timeout<None> streamingTimeout)
+  {
+    _pendingRequests.add(new PendingRequest(request, new PendingResponse(callback, streamingTimeout)));
+    if (_drainScheduled.compareAndSet(false, true))
+    {
+      _ctx.executor().execute(this::writePendingRequests);
+    }
+  }
+
+  private void writePendingRequests()
+  {
+    // cleared before draining, so that a request queued after the last poll schedules another drain
+    _drainScheduled.set(false);
+    boolean written = false;
+    PendingRequest pendingRequest;
+    while ((pendingRequest = _pendingRequests.poll()) != null)
+    {
+      if (!_ctx.channel().isActive())
+      {
+        pendingRequest._response.fail();
+        continue;
+      }
+      // the response is queued before the request is handed to the encoders, so that the queue follows the
+      // order of the requests on the wire
+      _pendingResponses.add(pendingRequest._response);
+      _ctx.channel().write(pendingRequest._request).addListener(new ErrorChannelFutureListener());
+      written = true;
+    }
+    if (written)
+    {
+      _ctx.channel().flush();
+    }
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception
+  {
+    if (msg instanceof HttpResponse)
+    {
+      final PendingResponse pendingResponse = _pendingResponses.poll();
+      if (pendingResponse != null)
+      {
+        ctx.channel().attr(RAPStreamResponseHandler.CALLBACK_ATTR_KEY).set(pendingResponse._callback);
+        ctx.channel().attr(RAPStreamResponseDecoder.TIMEOUT_ATTR_KEY).set(pendingResponse._streamingTimeout);
+      }
+    }
+    ctx.fireChannelRead(msg);
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception
+  {
+    PendingResponse pendingResponse;
+    while ((pendingResponse = _pendingResponses.poll()) != null)
+    {
+      pendingResponse.fail();
+    }
+    ctx.fireChannelInactive();
+  }
+
+  private static class PendingRequest
+  {
+    private final Request _request;
+    private final PendingResponse _response;
+
+    PendingRequest(Request request, PendingResponse response)
+    {
+      _request = request;
+      _response = response;
+    }
+  }
+
+  private static class PendingResponse
+  {
+    private final TransportCallback<StreamResponse> _callback;
+    private final Timeout<None> _streamingTimeout;
+
+    PendingResponse(TransportCallback<StreamResponse> callback, Timeout<None> streamingTimeout)
+    {
+      _callback = callback;
+      _streamingTimeout = streamingTimeout;
+    }
+
+    void fail()
+    {
+      _streamingTimeout.getItem();
+      _callback.onResponse(TransportResponseImpl.<StreamResponse>error(new ClosedChannelException(),
+          Collections.<String, String>emptyMap()));
+    }
+  }
+}
@@ -18,6 +18,7 @@ package com.linkedin.r2.transport.http.client.stream.http;
 
 import com.linkedin.data.ByteString;
 import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.message.Request;
 import com.linkedin.r2.message.stream.StreamRequest;
 import com.linkedin.r2.message.stream.entitystream.ReadHandle;
 import com.linkedin.r2.message.stream.entitystream.Reader;
@@ -33,6 +34,9 @@ import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.LastHttpContent;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.Queue;
 
 /**
  * This encoder encodes StreamRequest to Netty's HttpRequest.
@@ -47,8 +51,24 @@ import io.netty.handler.codec.http.LastHttpContent;
   private static final int FLUSH_THRESHOLD = R2Constants.DEFAULT_DATA_CHUNK_SIZE;
   private volatile BufferedReader _currentReader;
 
+  // requests written while the entity of the current request is being written, which only happens when requests
+  // are pipelined; only accessed from the event loop
+  private final Queue<PendingRequest> _pendingRequests = new ArrayDeque<>();
+
   @Override
   public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception
+  {
+    if (msg instanceof Request && (_currentReader != null || !_pendingRequests.isEmpty()))
+    {
+      _pendingRequests.add(new PendingRequest(msg, promise));
+    }
+    else
+    {
+      writeRequest(ctx, msg, promise);
+    }
+  }
+
+  private void writeRequest(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception
   {
     if (msg instanceof StreamRequest)
     {
@@ -65,6 +85,52 @@ import io.netty.handler.codec.http.LastHttpContent;
     }
   }
 
+  /**
+   * Writes the pipelined requests which were waiting for the entity of the previous request to be written, up to
+   * the next one with an entity stream.
+   */
+  private void writePendingRequests(ChannelHandlerContext ctx)
+  {
+    _currentReader = null;
+    if (_pendingRequests.isEmpty())
+    {
+      return;
+    }
+    PendingRequest pendingRequest;
+    while (_currentReader == null && (pendingRequest = _pendingRequests.poll()) != null)
+    {
+      try
+      {
+        writeRequest(ctx, pendingRequest._request, pendingRequest._promise);
+      }
+      catch (Exception e)
+      {
+        // as Netty does when a handler fails to write
+        pendingRequest._promise.tryFailure(e);
+      }
+    }
+    if (_currentReader != null)
+    {
+      // there is no flush to come for this request, which the reader is waiting for to start reading
+      _currentReader.flush();
+    }
+    else
+    {
+      ctx.flush();
+    }
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception
+  {
+    PendingRequest pendingRequest;
+    while ((pendingRequest = _pendingRequests.poll()) != null)
+    {
+      pendingRequest._promise.tryFailure(new ClosedChannelException());
+    }
+    ctx.fireChannelInactive();
+  }
+
   @Override
   public void flush(ChannelHandlerContext ctx)
       throws Exception
@@ -90,6 +156,7 @@ import io.netty.handler.codec.http.LastHttpContent;
     private final int _flushThreshold;
     private final ChannelHandlerContext _ctx;
     private volatile ReadHandle _readHandle;
+    private boolean _started;
     private int _notFlushedBytes;
     private int _notFlushedChunks;
 
@@ -133,8 +200,16 @@ import io.netty.handler.codec.http.LastHttpContent;
 
     public void onDone()
     {
-      _currentReader = null;
       _ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+      if (_ctx.executor().inEventLoop())
+      {
+        writePendingRequests(_ctx);
+      }
+      else
+      {
+        // runs after the write of the last content, which is queued on the event loop as well
+        _ctx.executor().execute(() -> writePendingRequests(_ctx));
+      }
     }
 
     public void onError(Throwable e)
@@ -143,9 +218,30 @@ import io.netty.handler.codec.http.LastHttpContent;
       _ctx.fireExceptionCaught(e);
     }
 
+    /**
+     * Starts reading on the first flush of the request. The later flushes, which are those of the requests
+     * pipelined while the entity is written, must not request more chunks, as the chunks requested when the
+     * written ones complete already keep up to the maximum number of chunks buffered.
+     */
     private void flush()
     {
-      _readHandle.request(_maxBufferedChunks);
+      if (!_started)
+      {
+        _started = true;
+        _readHandle.request(_maxBufferedChunks);
+      }
+    }
+  }
+
+  private static class PendingRequest
+  {
+    private final Object _request;
+    private final ChannelPromise _promise;
+
+    PendingRequest(Object request, ChannelPromise promise)
+    {
+      _request = request;
+      _promise = promise;
     }
   }
 }
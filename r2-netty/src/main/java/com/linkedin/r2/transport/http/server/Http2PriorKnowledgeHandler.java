@@ -0,0 +1,65 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.http2.Http2CodecUtil;
+import java.util.List;
+import java.util.function.Consumer;
+
+
+/**
+ * Detects cleartext HTTP/2 connections with prior knowledge, which start with the HTTP/2 connection preface
+ * instead of an HTTP/1.1 upgrade request. The handler reconfigures the pipeline for HTTP/2 when the preface is
+ * received, and otherwise leaves the HTTP/1.1 pipeline as is, then removes itself and passes the bytes read on.
+ */
+class Http2PriorKnowledgeHandler extends ByteToMessageDecoder
+{
+  private static final ByteBuf CONNECTION_PREFACE = Unpooled.unreleasableBuffer(Http2CodecUtil.connectionPrefaceBuf());
+
+  private final Consumer<ChannelPipeline> _http2PipelineConfigurator;
+
+  /**
+   * @param http2PipelineConfigurator replaces the HTTP/1.1 handlers of a pipeline by the HTTP/2 handlers
+   */
+  Http2PriorKnowledgeHandler(Consumer<ChannelPipeline> http2PipelineConfigurator)
+  {
+    _http2PipelineConfigurator = http2PipelineConfigurator;
+  }
+
+  @Override
+  protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception
+  {
+    final int prefaceLength = CONNECTION_PREFACE.readableBytes();
+    final int bytesRead = Math.min(in.readableBytes(), prefaceLength);
+
+    if (!ByteBufUtil.equals(CONNECTION_PREFACE, CONNECTION_PREFACE.readerIndex(), in, in.readerIndex(), bytesRead))
+    {
+      ctx.pipeline().remove(this);
+    }
+    else if (bytesRead == prefaceLength)
+    {
+      _http2PipelineConfigurator.accept(ctx.pipeline());
+      ctx.pipeline().remove(this);
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Configures the pipeline of a TLS connection for the protocol negotiated through ALPN once the handshake is
+ * complete: HTTP/2 for h2, and HTTP/1.1 for http/1.1 or when the client does not use ALPN.
+ */
+class Http2ServerAlpnHandler extends ApplicationProtocolNegotiationHandler
+{
+  private static final Logger LOG = LoggerFactory.getLogger(Http2ServerAlpnHandler.class);
+  public static final String PIPELINE_ALPN_HANDLER = "alpnHandler";
+
+  private final Consumer<ChannelPipeline> _http2PipelineConfigurator;
+  private final Consumer<ChannelPipeline> _http1PipelineConfigurator;
+
+  Http2ServerAlpnHandler(Consumer<ChannelPipeline> http2PipelineConfigurator,
+                         Consumer<ChannelPipeline> http1PipelineConfigurator)
+  {
+    super(ApplicationProtocolNames.HTTP_1_1);
+    _http2PipelineConfigurator = http2PipelineConfigurator;
+    _http1PipelineConfigurator = http1PipelineConfigurator;
+  }
+
+  @Override
+  protected void configurePipeline(ChannelHandlerContext ctx, String protocol) throws Exception
+  {
+    LOG.debug("Protocol {} is negotiated through ALPN", protocol);
+    if (ApplicationProtocolNames.HTTP_2.equals(protocol))
+    {
+      _http2PipelineConfigurator.accept(ctx.pipeline());
+    }
+    else if (ApplicationProtocolNames.HTTP_1_1.equals(protocol))
+    {
+      _http1PipelineConfigurator.accept(ctx.pipeline());
+    }
+    else
+    {
+      throw new IllegalStateException("Unsupported application protocol: " + protocol);
+    }
+  }
+}
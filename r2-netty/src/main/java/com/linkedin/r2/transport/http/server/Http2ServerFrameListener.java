@@ -0,0 +1,393 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamRequestBuilder;
+import com.linkedin.r2.message.stream.entitystream.EntityStreams;
+import com.linkedin.r2.message.stream.entitystream.WriteHandle;
+import com.linkedin.r2.message.stream.entitystream.Writer;
+import com.linkedin.r2.transport.http.common.HttpConstants;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.Http2Error;
+import io.netty.handler.codec.http2.Http2EventAdapter;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.handler.codec.http2.Http2LifecycleManager;
+import io.netty.handler.codec.http2.Http2Stream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.channels.ClosedChannelException;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Listens to HTTP/2 frames received by the server and assembles {@link StreamRequest}s, which are fired down
+ * the pipeline as {@link Http2StreamMessage}s as soon as their HEADERS frame is read.
+ *
+ * The bytes of the DATA frames are only returned to the flow controller of the stream once the reader of the
+ * request entity stream has requested them, so that a slow reader holds back the WINDOW_UPDATE frames of its
+ * stream and the client stops sending data rather than the server buffering it. Http/2 stream level errors
+ * should cause only the stream to be reset, not the entire connection.
+ */
+class Http2ServerFrameListener extends Http2EventAdapter
+{
+  private static final Logger LOG = LoggerFactory.getLogger(Http2ServerFrameListener.class);
+
+  private final Http2Connection _connection;
+  private final Http2Connection.PropertyKey _writerKey;
+  private final Http2LifecycleManager _lifecycleManager;
+  private final long _maxContentLength;
+
+  Http2ServerFrameListener(Http2Connection connection, Http2LifecycleManager lifecycleManager, long maxContentLength)
+  {
+    _connection = connection;
+    _writerKey = connection.newKey();
+    _lifecycleManager = lifecycleManager;
+    _maxContentLength = maxContentLength;
+
+    // listens to stream closures to fail the entity streams of requests which are not fully received
+    connection.addListener(this);
+  }
+
+  @Override
+  public void onHeadersRead(ChannelHandlerContext ctx, int streamId, Http2Headers headers, int streamDependency,
+      short weight, boolean exclusive, int padding, boolean endStream) throws Http2Exception
+  {
+    onHeadersRead(ctx, streamId, headers, padding, endStream);
+  }
+
+  @Override
+  public void onHeadersRead(ChannelHandlerContext ctx, int streamId, Http2Headers headers, int padding,
+      boolean endOfStream) throws Http2Exception
+  {
+    LOG.debug("Received HTTP/2 HEADERS frame, stream={}, end={}, headers={}, padding={}bytes",
+        new Object[]{streamId, endOfStream, headers.size(), padding});
+
+    final Http2Stream stream = _connection.stream(streamId);
+    final BufferedWriter trailersWriter = stream.getProperty(_writerKey);
+    if (trailersWriter != null)
+    {
+      // Trailing headers only end the request entity, they are not part of the request
+      if (endOfStream)
+      {
+        stream.removeProperty(_writerKey);
+        trailersWriter.onDataRead(null, true);
+      }
+      return;
+    }
+
+    final StreamRequestBuilder builder = toStreamRequestBuilder(streamId, headers);
+    final StreamRequest request;
+    if (endOfStream)
+    {
+      request = builder.build(EntityStreams.emptyStream());
+    }
+    else
+    {
+      final BufferedWriter writer = new BufferedWriter(ctx, streamId);
+      stream.setProperty(_writerKey, writer);
+      request = builder.build(EntityStreams.newEntityStream(writer));
+    }
+
+    ctx.fireChannelRead(new Http2StreamMessage<>(streamId, request));
+  }
+
+  @Override
+  public int onDataRead(ChannelHandlerContext ctx, int streamId, ByteBuf data, int padding, boolean endOfStream)
+      throws Http2Exception
+  {
+    LOG.debug("Received HTTP/2 DATA frame, stream={}, end={}, data={}bytes, padding={}bytes",
+        new Object[]{streamId, endOfStream, data.readableBytes(), padding});
+
+    final Http2Stream stream = _connection.stream(streamId);
+    final BufferedWriter writer = stream.getProperty(_writerKey);
+    if (writer == null)
+    {
+      // The request entity is no longer read, the bytes are returned to the flow controller right away
+      return data.readableBytes() + padding;
+    }
+    if (endOfStream)
+    {
+      stream.removeProperty(_writerKey);
+    }
+    return writer.onDataRead(data, endOfStream) + padding;
+  }
+
+  @Override
+  public void onRstStreamRead(ChannelHandlerContext ctx, int streamId, long errorCode) throws Http2Exception
+  {
+    LOG.debug("Received HTTP/2 RST_STREAM frame, stream={}, error={}", streamId, Http2Error.valueOf(errorCode));
+  }
+
+  @Override
+  public void onStreamClosed(Http2Stream stream)
+  {
+    final BufferedWriter writer = stream.removeProperty(_writerKey);
+    if (writer != null)
+    {
+      writer.onError(new ClosedChannelException());
+    }
+  }
+
+  /**
+   * Builds a request from the headers of an HTTP/2 request, whose pseudo headers give the method and the URI.
+   */
+  static StreamRequestBuilder toStreamRequestBuilder(int streamId, Http2Headers headers) throws Http2Exception
+  {
+    if (headers.method() == null || headers.path() == null)
+    {
+      throw Http2Exception.streamError(streamId, Http2Error.PROTOCOL_ERROR,
+          "Missing :method or :path pseudo header, stream=%d", streamId);
+    }
+
+    final StreamRequestBuilder builder;
+    try
+    {
+      builder = new StreamRequestBuilder(new URI(headers.path().toString()));
+    }
+    catch (URISyntaxException e)
+    {
+      throw Http2Exception.streamError(streamId, Http2Error.PROTOCOL_ERROR, e, "Invalid :path pseudo header");
+    }
+    builder.setMethod(headers.method().toString());
+    if (headers.authority() != null)
+    {
+      builder.addHeaderValue(HttpHeaderNames.HOST.toString(), headers.authority().toString());
+    }
+
+    // Process other HTTP headers
+    for (Map.Entry<CharSequence, CharSequence> header : headers)
+    {
+      if (Http2Headers.PseudoHeaderName.isPseudoHeader(header.getKey()))
+      {
+        // Do no set HTTP/2 pseudo headers to request
+        continue;
+      }
+
+      final String key = header.getKey().toString();
+      final String value = header.getValue().toString();
+      if (key.equalsIgnoreCase(HttpConstants.REQUEST_COOKIE_HEADER_NAME))
+      {
+        builder.addCookie(value);
+      }
+      else
+      {
+        builder.unsafeAddHeaderValue(key, value);
+      }
+    }
+    return builder;
+  }
+
+  /**
+   * A writer of the request entity which buffers the DATA frames of its stream and consumes their bytes from
+   * the local flow controller as the reader requests them. The buffered bytes are then bounded by the initial
+   * window size of the stream.
+   *
+   * Except for {@link #onInit(WriteHandle)}, the state of the writer is only accessed on the event loop.
+   */
+  private class BufferedWriter implements Writer
+  {
+    private final ChannelHandlerContext _ctx;
+    private final int _streamId;
+    private final Queue<ByteString> _buffer;
+    private volatile WriteHandle _wh;
+    private boolean _lastChunkReceived;
+    // whether the entity stream is done, failed or aborted, after which data is discarded
+    private boolean _closed;
+    private long _totalBytesReceived;
+    private Throwable _failureBeforeInit;
+
+    BufferedWriter(ChannelHandlerContext ctx, int streamId)
+    {
+      _ctx = ctx;
+      _streamId = streamId;
+      _buffer = new LinkedList<>();
+      _lastChunkReceived = false;
+      _closed = false;
+      _totalBytesReceived = 0;
+      _failureBeforeInit = null;
+    }
+
+    @Override
+    public void onInit(WriteHandle wh)
+    {
+      _wh = wh;
+    }
+
+    @Override
+    public void onWritePossible()
+    {
+      runOnEventLoop(() -> {
+        if (_failureBeforeInit != null)
+        {
+          _wh.error(_failureBeforeInit);
+          _failureBeforeInit = null;
+        }
+        else
+        {
+          doWrite();
+        }
+      });
+    }
+
+    @Override
+    public void onAbort(Throwable ex)
+    {
+      // The response may still be sent, so the stream is not reset; the remaining bytes are discarded instead
+      runOnEventLoop(() -> {
+        _closed = true;
+        int bufferedBytes = 0;
+        for (ByteString bytes : _buffer)
+        {
+          bufferedBytes += bytes.length();
+        }
+        _buffer.clear();
+        consumeBytes(bufferedBytes);
+      });
+    }
+
+    /**
+     * @param data data of the frame, or null when the request is ended by trailing headers
+     * @return number of bytes which the flow controller can consider as consumed right away
+     * @throws Http2Exception if the request entity is too long, which resets the stream
+     */
+    int onDataRead(ByteBuf data, boolean end) throws Http2Exception
+    {
+      final int length = data == null ? 0 : data.readableBytes();
+      if (_closed)
+      {
+        return length;
+      }
+      if (_totalBytesReceived + length > _maxContentLength)
+      {
+        final String message = "HTTP content length exceeded " + _maxContentLength + " bytes.";
+        onError(new TooLongFrameException(message));
+        throw Http2Exception.streamError(_streamId, Http2Error.CANCEL, message);
+      }
+
+      if (length > 0)
+      {
+        try
+        {
+          _buffer.add(ByteString.read(new ByteBufInputStream(data), length));
+        }
+        catch (IOException e)
+        {
+          onError(e);
+          return length;
+        }
+        _totalBytesReceived += length;
+      }
+      if (end)
+      {
+        _lastChunkReceived = true;
+      }
+      if (_wh != null)
+      {
+        doWrite();
+      }
+      return 0;
+    }
+
+    void onError(Throwable cause)
+    {
+      if (_closed)
+      {
+        return;
+      }
+      _closed = true;
+      _buffer.clear();
+      if (_wh != null)
+      {
+        _wh.error(cause);
+      }
+      else
+      {
+        _failureBeforeInit = cause;
+      }
+    }
+
+    private void doWrite()
+    {
+      int writtenBytes = 0;
+      while (!_closed && _wh.remaining() > 0)
+      {
+        if (!_buffer.isEmpty())
+        {
+          final ByteString bytes = _buffer.poll();
+          _wh.write(bytes);
+          writtenBytes += bytes.length();
+        }
+        else
+        {
+          if (_lastChunkReceived)
+          {
+            _closed = true;
+            _wh.done();
+          }
+          break;
+        }
+      }
+      consumeBytes(writtenBytes);
+    }
+
+    private void consumeBytes(int bytes)
+    {
+      final Http2Stream stream = _connection.stream(_streamId);
+      if (bytes == 0 || stream == null)
+      {
+        return;
+      }
+      try
+      {
+        // returns the bytes to the stream window, which sends a WINDOW_UPDATE frame once enough are consumed
+        if (_connection.local().flowController().consumeBytes(stream, bytes))
+        {
+          _ctx.flush();
+        }
+      }
+      catch (Http2Exception e)
+      {
+        _lifecycleManager.onError(_ctx, e);
+      }
+    }
+
+    private void runOnEventLoop(Runnable task)
+    {
+      if (_ctx.executor().inEventLoop())
+      {
+        task.run();
+      }
+      else
+      {
+        _ctx.executor().execute(task);
+      }
+    }
+  }
+}
@@ -0,0 +1,292 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamRequestBuilder;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.stream.entitystream.ByteStringWriter;
+import com.linkedin.r2.message.stream.entitystream.CancelingReader;
+import com.linkedin.r2.message.stream.entitystream.EntityStreams;
+import com.linkedin.r2.message.stream.entitystream.ReadHandle;
+import com.linkedin.r2.message.stream.entitystream.Reader;
+import com.linkedin.r2.transport.http.common.HttpConstants;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpServerUpgradeHandler;
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.Http2CodecUtil;
+import io.netty.handler.codec.http2.Http2ConnectionDecoder;
+import io.netty.handler.codec.http2.Http2ConnectionEncoder;
+import io.netty.handler.codec.http2.Http2ConnectionHandler;
+import io.netty.handler.codec.http2.Http2Error;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.util.AsciiString;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Encodes the {@link StreamResponse}s of {@link Http2StreamMessage}s to HTTP/2 frames on the server side.
+ * Requests are decoded by {@link Http2ServerFrameListener}.
+ *
+ * The response entity is read as the DATA frames are written, which the remote flow controller holds back
+ * until the window of the stream allows them, so that the writer of a response is slowed down to the pace
+ * of the client.
+ */
+class Http2ServerStreamCodec extends Http2ConnectionHandler
+{
+  private static final Logger LOG = LoggerFactory.getLogger(Http2ServerStreamCodec.class);
+  public static final String PIPELINE_HTTP2_CODEC_HANDLER = "http2Handler";
+
+  private static final int NO_PADDING = 0;
+  private static final int NO_DATA = 0;
+  private static final boolean NOT_END_STREAM = false;
+  private static final boolean END_STREAM = true;
+
+  /**
+   * RFC 7540, section 8.1.2.2: connection-specific header fields must not be sent over HTTP/2.
+   */
+  private static final Set<String> CONNECTION_HEADERS = new HashSet<>();
+  static {
+    CONNECTION_HEADERS.add(HttpHeaderNames.CONNECTION.toString());
+    @SuppressWarnings("deprecation")
+    AsciiString keepAlive = HttpHeaderNames.KEEP_ALIVE;
+    CONNECTION_HEADERS.add(keepAlive.toString());
+    @SuppressWarnings("deprecation")
+    AsciiString proxyConnection = HttpHeaderNames.PROXY_CONNECTION;
+    CONNECTION_HEADERS.add(proxyConnection.toString());
+    CONNECTION_HEADERS.add(HttpHeaderNames.TRANSFER_ENCODING.toString());
+    CONNECTION_HEADERS.add(HttpHeaderNames.UPGRADE.toString());
+  }
+
+  Http2ServerStreamCodec(Http2ConnectionDecoder decoder, Http2ConnectionEncoder encoder, Http2Settings initialSettings)
+  {
+    super(decoder, encoder, initialSettings);
+  }
+
+  @Override
+  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception
+  {
+    if (!(msg instanceof Http2StreamMessage))
+    {
+      ctx.write(msg, promise);
+      return;
+    }
+
+    final int streamId = ((Http2StreamMessage<?>) msg).streamId();
+    final StreamResponse response = (StreamResponse) ((Http2StreamMessage<?>) msg).message();
+    if (connection().stream(streamId) == null)
+    {
+      // The stream was reset or the connection closed while the request was handled
+      response.getEntityStream().setReader(new CancelingReader());
+      promise.setFailure(Http2Exception.streamError(streamId, Http2Error.STREAM_CLOSED,
+          "Stream is closed, stream=%d", streamId));
+      return;
+    }
+
+    final Http2Headers headers = toHttp2Headers(response);
+    final BufferedReader reader = new BufferedReader(ctx, streamId);
+    response.getEntityStream().setReader(reader);
+    LOG.debug("Sent HTTP/2 HEADERS frame, stream={}, end={}, headers={}, padding={}bytes",
+        new Object[] { streamId, NOT_END_STREAM, headers.size(), NO_PADDING});
+    encoder().writeHeaders(ctx, streamId, headers, NO_PADDING, NOT_END_STREAM, promise).addListener(future -> {
+      if (future.isSuccess())
+      {
+        reader.request();
+      }
+      else
+      {
+        reader.cancel();
+      }
+    });
+  }
+
+  @Override
+  public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception
+  {
+    if (evt instanceof HttpServerUpgradeHandler.UpgradeEvent)
+    {
+      // The HTTP/1.1 request of a cleartext upgrade is answered on the first stream, which the upgrade opened
+      final FullHttpRequest upgradeRequest = ((HttpServerUpgradeHandler.UpgradeEvent) evt).upgradeRequest();
+      try
+      {
+        ctx.fireChannelRead(new Http2StreamMessage<>(Http2CodecUtil.HTTP_UPGRADE_STREAM_ID, toStreamRequest(upgradeRequest)));
+      }
+      catch (URISyntaxException e)
+      {
+        onError(ctx, Http2Exception.streamError(Http2CodecUtil.HTTP_UPGRADE_STREAM_ID, Http2Error.PROTOCOL_ERROR, e,
+            "Invalid upgrade request URI"));
+      }
+    }
+    super.userEventTriggered(ctx, evt);
+  }
+
+  private static StreamRequest toStreamRequest(FullHttpRequest nettyRequest) throws URISyntaxException, IOException
+  {
+    final StreamRequestBuilder builder = new StreamRequestBuilder(new URI(nettyRequest.uri()));
+    builder.setMethod(nettyRequest.method().name());
+    for (Map.Entry<String, String> e : nettyRequest.headers())
+    {
+      if (e.getKey().equalsIgnoreCase(HttpConstants.REQUEST_COOKIE_HEADER_NAME))
+      {
+        builder.addCookie(e.getValue());
+      }
+      else
+      {
+        builder.unsafeAddHeaderValue(e.getKey(), e.getValue());
+      }
+    }
+    final ByteBuf content = nettyRequest.content();
+    if (!content.isReadable())
+    {
+      return builder.build(EntityStreams.emptyStream());
+    }
+    return builder.build(EntityStreams.newEntityStream(new ByteStringWriter(
+        ByteString.read(new ByteBufInputStream(content), content.readableBytes()))));
+  }
+
+  private static Http2Headers toHttp2Headers(StreamResponse response)
+  {
+    final Http2Headers headers = new DefaultHttp2Headers().status(String.valueOf(response.getStatus()));
+    for (Map.Entry<String, String> entry : response.getHeaders().entrySet())
+    {
+      // RFC 7540, section 8.1.2: header field names must be converted to lowercase
+      final String name = entry.getKey().toLowerCase();
+      if (!CONNECTION_HEADERS.contains(name))
+      {
+        headers.set(name, entry.getValue());
+      }
+    }
+    for (String cookie : response.getCookies())
+    {
+      headers.add(HttpHeaderNames.SET_COOKIE, cookie);
+    }
+    return headers;
+  }
+
+  /**
+   * A reader of the response entity that has pipelining/buffered reading, mirroring the reader of the request
+   * entity of the client.
+   *
+   * The entity stream may call the reader on any thread, so frames are always written from tasks of the event
+   * loop, which keeps the chunks in order whichever threads they come from.
+   */
+  private class BufferedReader implements Reader
+  {
+    private static final int MAX_BUFFERED_CHUNKS = 10;
+
+    // this threshold is to mitigate the effect of the inter-play of Nagle's algorithm & Delayed ACK
+    // when sending responses with small entity
+    private static final int FLUSH_THRESHOLD = R2Constants.DEFAULT_DATA_CHUNK_SIZE;
+
+    private final int _streamId;
+    private final ChannelHandlerContext _ctx;
+    private volatile ReadHandle _readHandle;
+    private int _notFlushedBytes;
+    private int _notFlushedChunks;
+
+    BufferedReader(ChannelHandlerContext ctx, int streamId)
+    {
+      _streamId = streamId;
+      _ctx = ctx;
+      _notFlushedBytes = 0;
+      _notFlushedChunks = 0;
+    }
+
+    @Override
+    public void onInit(ReadHandle rh)
+    {
+      _readHandle = rh;
+    }
+
+    @Override
+    public void onDataAvailable(final ByteString data)
+    {
+      _ctx.executor().execute(() -> {
+        ByteBuf content = Unpooled.wrappedBuffer(data.asByteBuffer());
+        encoder().writeData(_ctx, _streamId, content, NO_PADDING, NOT_END_STREAM, _ctx.newPromise())
+            .addListener(future -> {
+              if (future.isSuccess())
+              {
+                _readHandle.request(1);
+              }
+              else
+              {
+                _readHandle.cancel();
+              }
+            });
+        LOG.debug("Sent HTTP/2 DATA frame, stream={}, end={}, data={}bytes, padding={}bytes",
+            new Object[] { _streamId, NOT_END_STREAM, content.readableBytes(), NO_PADDING });
+        _notFlushedBytes += data.length();
+        _notFlushedChunks++;
+        if (_notFlushedBytes >= FLUSH_THRESHOLD || _notFlushedChunks == MAX_BUFFERED_CHUNKS)
+        {
+          _ctx.channel().flush();
+          _notFlushedBytes = 0;
+          _notFlushedChunks = 0;
+        }
+      });
+    }
+
+    @Override
+    public void onDone()
+    {
+      _ctx.executor().execute(() -> {
+        encoder().writeData(_ctx, _streamId, Unpooled.EMPTY_BUFFER, NO_PADDING, END_STREAM, _ctx.newPromise());
+        LOG.debug("Sent HTTP/2 DATA frame, stream={}, end={}, data={}bytes, padding={}bytes",
+            new Object[] { _streamId, END_STREAM, NO_DATA, NO_PADDING });
+        _ctx.channel().flush();
+      });
+    }
+
+    @Override
+    public void onError(Throwable cause)
+    {
+      _ctx.executor().execute(() -> {
+        LOG.error("Failed to read the response entity, resetting stream " + _streamId, cause);
+        resetStream(_ctx, _streamId, Http2Error.INTERNAL_ERROR.code(), _ctx.newPromise());
+        _ctx.channel().flush();
+      });
+    }
+
+    private void request()
+    {
+      _readHandle.request(MAX_BUFFERED_CHUNKS);
+    }
+
+    private void cancel()
+    {
+      _readHandle.cancel();
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.message.Messages;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.message.rest.RestStatus;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.transport.common.WireAttributeHelper;
+import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
+import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Dispatches the {@link StreamRequest}s decoded from the HTTP/2 streams of a connection and writes their
+ * responses back to the stream of the request. Unlike the HTTP/1.1 handlers, requests are dispatched as soon
+ * as their headers are received and their entity is streamed.
+ */
+class Http2ServerStreamHandler extends SimpleChannelInboundHandler<Http2StreamMessage<StreamRequest>>
+{
+  private static final Logger LOG = LoggerFactory.getLogger(Http2ServerStreamHandler.class);
+  private final HttpDispatcher _dispatcher;
+  private final Executor _blockingOffloadExecutor;
+
+  /**
+   * @param blockingOffloadExecutor executor for blocking request handling when the handler runs on the event
+   *                                loop, or null when it does not
+   */
+  Http2ServerStreamHandler(HttpDispatcher dispatcher, Executor blockingOffloadExecutor)
+  {
+    _dispatcher = dispatcher;
+    _blockingOffloadExecutor = blockingOffloadExecutor;
+  }
+
+  @Override
+  protected void channelRead0(ChannelHandlerContext ctx, Http2StreamMessage<StreamRequest> msg) throws Exception
+  {
+    final Channel ch = ctx.channel();
+    final int streamId = msg.streamId();
+    final RequestContext requestContext = new RequestContext();
+    if (_blockingOffloadExecutor != null)
+    {
+      requestContext.putLocalAttr(R2Constants.BLOCKING_OFFLOAD_EXECUTOR, _blockingOffloadExecutor);
+    }
+    final TransportCallback<StreamResponse> writeResponseCallback = response -> {
+      final StreamResponse streamResponse;
+      if (response.hasError())
+      {
+        // As for HTTP/1.1, errors not turned into a response by the upper layers are internal server errors
+        streamResponse = Messages.toStreamResponse(
+            new RestResponseBuilder(RestStatus.responseForError(RestStatus.INTERNAL_SERVER_ERROR, response.getError()))
+                .unsafeOverwriteHeaders(WireAttributeHelper.toWireAttributes(response.getWireAttributes()))
+                .build());
+      }
+      else
+      {
+        streamResponse = response.getResponse().builder()
+            .unsafeOverwriteHeaders(WireAttributeHelper.toWireAttributes(response.getWireAttributes()))
+            .build(response.getResponse().getEntityStream());
+      }
+      ch.writeAndFlush(new Http2StreamMessage<>(streamId, streamResponse));
+    };
+    try
+    {
+      _dispatcher.handleRequest(msg.message(), requestContext, writeResponseCallback);
+    }
+    catch (Exception ex)
+    {
+      writeResponseCallback.onResponse(TransportResponseImpl.<StreamResponse> error(ex,
+          Collections.<String, String> emptyMap()));
+    }
+  }
+
+  @Override
+  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception
+  {
+    LOG.error("Exception caught on channel: " + ctx.channel().remoteAddress(), cause);
+    ctx.close();
+  }
+}
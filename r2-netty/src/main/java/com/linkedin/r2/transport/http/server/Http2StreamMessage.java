@@ -0,0 +1,49 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.r2.message.MessageHeaders;
+
+
+/**
+ * An R2 request or response and the ID of the HTTP/2 stream it is received from or sent to, passed between the
+ * HTTP/2 codec and the request handler of the server pipeline.
+ *
+ * @param <M> {@link com.linkedin.r2.message.stream.StreamRequest} or
+ *            {@link com.linkedin.r2.message.stream.StreamResponse}
+ */
+class Http2StreamMessage<M extends MessageHeaders>
+{
+  private final int _streamId;
+  private final M _message;
+
+  Http2StreamMessage(int streamId, M message)
+  {
+    _streamId = streamId;
+    _message = message;
+  }
+
+  int streamId()
+  {
+    return _streamId;
+  }
+
+  M message()
+  {
+    return _message;
+  }
+}
@@ -21,15 +21,17 @@
 package com.linkedin.r2.transport.http.server;
 
 import com.linkedin.r2.filter.R2Constants;
-import com.linkedin.r2.util.NamedThreadFactory;
+import com.linkedin.r2.transport.http.util.NettyTransport;
 import io.netty.bootstrap.ServerBootstrap;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
 import io.netty.util.concurrent.EventExecutorGroup;
 import java.net.InetSocketAddress;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
@@ -40,6 +42,8 @@ import javax.net.ssl.SSLParameters;
 
 /* package private */ class HttpNettyServer implements HttpServer
 {
+  private static final Logger LOG = LoggerFactory.getLogger(HttpNettyServer.class);
+
   private final int _port;
   private final int _threadPoolSize;
   private final HttpDispatcher _dispatcher;
@@ -47,9 +51,14 @@ import javax.net.ssl.SSLParameters;
   private final SSLContext _sslContext;
   private final SSLParameters _sslParameters;
   private final int _startupTimeoutMillis;
-
-  private NioEventLoopGroup _bossGroup;
-  private NioEventLoopGroup _workerGroup;
+  private final NettyTransport _transport;
+  private final boolean _reusePort;
+  private final int _acceptorThreads;
+  private final boolean _inlineDispatch;
+  private final boolean _http2;
+
+  private EventLoopGroup _bossGroup;
+  private EventLoopGroup _workerGroup;
   private EventExecutorGroup _eventExecutors;
 
   public HttpNettyServer(int port, int threadPoolSize, HttpDispatcher dispatcher)
@@ -76,6 +85,36 @@ import javax.net.ssl.SSLParameters;
 
   public HttpNettyServer(int port, int threadPoolSize, HttpDispatcher dispatcher, boolean restOverStream,
                          SSLContext sslContext, SSLParameters sslParameters, int startupTimeoutMillis)
+  {
+    this(port, threadPoolSize, dispatcher, restOverStream, sslContext, sslParameters, startupTimeoutMillis,
+        NettyTransport.NIO, false, 1, false);
+  }
+
+  /**
+   * @param transport Netty transport of the server
+   * @param reusePort whether to bind {@code acceptorThreads} server channels to the port with SO_REUSEPORT, so
+   *                  that the kernel balances incoming connections across several acceptor threads; only
+   *                  supported by the epoll transport
+   * @param acceptorThreads number of threads accepting connections
+   * @param inlineDispatch whether to dispatch requests on the event loops, offloading only the request handling
+   *                       which may block to the {@code threadPoolSize} threads
+   */
+  public HttpNettyServer(int port, int threadPoolSize, HttpDispatcher dispatcher, boolean restOverStream,
+                         SSLContext sslContext, SSLParameters sslParameters, int startupTimeoutMillis,
+                         NettyTransport transport, boolean reusePort, int acceptorThreads, boolean inlineDispatch)
+  {
+    this(port, threadPoolSize, dispatcher, restOverStream, sslContext, sslParameters, startupTimeoutMillis,
+        transport, reusePort, acceptorThreads, inlineDispatch, false);
+  }
+
+  /**
+   * @param http2 whether to serve HTTP/2 besides HTTP/1.1, negotiated through ALPN with TLS and otherwise
+   *              upgraded from HTTP/1.1 or started with prior knowledge
+   */
+  public HttpNettyServer(int port, int threadPoolSize, HttpDispatcher dispatcher, boolean restOverStream,
+                         SSLContext sslContext, SSLParameters sslParameters, int startupTimeoutMillis,
+                         NettyTransport transport, boolean reusePort, int acceptorThreads, boolean inlineDispatch,
+                         boolean http2)
   {
     _port = port;
     _threadPoolSize = threadPoolSize;
@@ -84,22 +123,41 @@ import javax.net.ssl.SSLParameters;
     _sslContext = sslContext;
     _sslParameters = sslParameters;
     _startupTimeoutMillis = startupTimeoutMillis;
+    _transport = transport.resolve();
+    _reusePort = reusePort;
+    _acceptorThreads = acceptorThreads;
+    _inlineDispatch = inlineDispatch;
+    _http2 = http2;
   }
 
   @Override
   public void start()
   {
     _eventExecutors =  new DefaultEventExecutorGroup(_threadPoolSize);
-    _bossGroup = new NioEventLoopGroup(1, new NamedThreadFactory("R2 Nio Boss"));
-    _workerGroup = new NioEventLoopGroup(0, new NamedThreadFactory("R2 Nio Worker"));
+    final boolean reusePort = _reusePort && _transport == NettyTransport.EPOLL;
+    if (_reusePort && !reusePort)
+    {
+      LOG.warn("SO_REUSEPORT is only supported by the epoll transport, accepting connections on a single thread");
+    }
+    // each server channel bound with SO_REUSEPORT is registered with its own boss event loop
+    final int serverChannels = reusePort ? Math.max(1, _acceptorThreads) : 1;
+    _bossGroup = _transport.newEventLoopGroup(serverChannels, "Boss");
+    _workerGroup = _transport.newEventLoopGroup(0, "Worker");
 
     final HttpNettyServerPipelineInitializer pipelineInitializer = new HttpNettyServerPipelineInitializer(
-        _dispatcher, _eventExecutors, _sslContext, _sslParameters, _restOverStream);
+        _dispatcher, _eventExecutors, _sslContext, _sslParameters, _restOverStream, _inlineDispatch, _http2);
     ServerBootstrap bootstrap = new ServerBootstrap()
                                       .group(_bossGroup, _workerGroup)
-                                      .channel(NioServerSocketChannel.class)
+                                      .channel(_transport.serverSocketChannelClass())
                                       .childHandler(pipelineInitializer);
-    bootstrap.bind(new InetSocketAddress(_port)).awaitUninterruptibly(_startupTimeoutMillis);
+    if (reusePort)
+    {
+      bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+    }
+    for (int i = 0; i < serverChannels; i++)
+    {
+      bootstrap.bind(new InetSocketAddress(_port)).awaitUninterruptibly(_startupTimeoutMillis);
+    }
   }
 
   @Override
@@ -20,6 +20,7 @@ import com.linkedin.r2.filter.FilterChain;
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.filter.transport.FilterChainDispatcher;
 import com.linkedin.r2.transport.common.bridge.server.TransportDispatcher;
+import com.linkedin.r2.transport.http.util.NettyTransport;
 import com.linkedin.util.ArgumentUtil;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
@@ -36,6 +37,7 @@ public class HttpNettyServerBuilder
 {
   public static final int DEFAULT_NETTY_HTTP_SERVER_PORT = 8080;
   public static final int DEFAULT_THREAD_POOL_SIZE = 256;
+  public static final int DEFAULT_STARTUP_TIMEOUT_MILLIS = 10000;
 
   // The following fields are required.
   private TransportDispatcher _transportDispatcher = null;
@@ -45,6 +47,11 @@ public class HttpNettyServerBuilder
   private int _port = DEFAULT_NETTY_HTTP_SERVER_PORT;
   private int _threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
   private boolean _restOverStream = R2Constants.DEFAULT_REST_OVER_STREAM;
+  private NettyTransport _transport = NettyTransport.AUTO;
+  private boolean _reusePort = false;
+  private int _acceptorThreads = 1;
+  private boolean _inlineDispatch = false;
+  private boolean _http2 = false;
 
   // The following fields are optional.
   private SSLContext _sslContext = null;
@@ -92,17 +99,75 @@ public class HttpNettyServerBuilder
     return this;
   }
 
+  /**
+   * Sets the Netty transport, {@link NettyTransport#AUTO} by default, which uses epoll when available.
+   */
+  public HttpNettyServerBuilder transport(NettyTransport transport)
+  {
+    _transport = transport;
+    return this;
+  }
+
+  /**
+   * Binds {@link #acceptorThreads(int)} server channels to the port with SO_REUSEPORT, so that the kernel
+   * balances incoming connections across the acceptor threads. Ignored, with a warning, unless the epoll
+   * transport is used.
+   */
+  public HttpNettyServerBuilder reusePort(boolean reusePort)
+  {
+    _reusePort = reusePort;
+    return this;
+  }
+
+  /**
+   * Sets the number of threads accepting connections when {@link #reusePort(boolean)} is enabled.
+   */
+  public HttpNettyServerBuilder acceptorThreads(int acceptorThreads)
+  {
+    _acceptorThreads = acceptorThreads;
+    return this;
+  }
+
+  /**
+   * Dispatches requests on the event loop of their channel rather than on the {@link #threadPoolSize(int)}
+   * threads, which saves two thread hops per request for asynchronous request handlers. The threads are then
+   * only used by request handlers which may block and continue the request on the executor that the
+   * {@link R2Constants#BLOCKING_OFFLOAD_EXECUTOR} local attribute of the request context holds.
+   */
+  public HttpNettyServerBuilder inlineDispatch(boolean inlineDispatch)
+  {
+    _inlineDispatch = inlineDispatch;
+    return this;
+  }
+
+  /**
+   * Serves HTTP/2 besides HTTP/1.1 on the same port. With an {@link #sslContext(SSLContext)}, the protocol is
+   * negotiated through ALPN, which requires ALPN support in the JVM as for the HTTP/2 client. Without, clients
+   * either upgrade HTTP/1.1 connections or start with the HTTP/2 connection preface (h2c).
+   */
+  public HttpNettyServerBuilder http2(boolean http2)
+  {
+    _http2 = http2;
+    return this;
+  }
+
   public HttpNettyServer build()
   {
     validateParameters();
     final TransportDispatcher filterDispatcher = new FilterChainDispatcher(_transportDispatcher, _filters);
     final HttpDispatcher dispatcher = new HttpDispatcher(filterDispatcher);
-    return new HttpNettyServer(_port, _threadPoolSize, dispatcher, _sslContext, _sslParameters);
+    return new HttpNettyServer(_port, _threadPoolSize, dispatcher, _restOverStream, _sslContext, _sslParameters,
+        DEFAULT_STARTUP_TIMEOUT_MILLIS, _transport, _reusePort, _acceptorThreads, _inlineDispatch, _http2);
   }
 
   private void validateParameters()
   {
     ArgumentUtil.notNull(_transportDispatcher, "transportDispatcher");
     ArgumentUtil.notNull(_filters, "filters");
+    ArgumentUtil.notNull(_transport, "transport");
+    if (_acceptorThreads < 1)
+    {
+      throw new IllegalArgumentException("acceptorThreads must be positive: " + _acceptorThreads);
+    }
   }
 }
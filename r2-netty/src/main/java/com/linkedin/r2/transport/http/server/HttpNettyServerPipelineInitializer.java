@@ -18,58 +18,256 @@ package com.linkedin.r2.transport.http.server;
 
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.transport.http.util.SslHandlerUtil;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
 import io.netty.channel.SimpleChannelInboundHandler;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpRequestDecoder;
 import io.netty.handler.codec.http.HttpResponseEncoder;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpServerUpgradeHandler;
+import io.netty.handler.codec.http2.DefaultHttp2Connection;
+import io.netty.handler.codec.http2.Http2CodecUtil;
+import io.netty.handler.codec.http2.Http2ServerUpgradeCodec;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.IdentityCipherSuiteFilter;
+import io.netty.handler.ssl.JdkSslContext;
 import io.netty.handler.ssl.SslHandler;
+import io.netty.util.AsciiString;
+import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.EventExecutorGroup;
+import java.util.Arrays;
+import java.util.Collection;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
-public class HttpNettyServerPipelineInitializer extends ChannelInitializer<NioSocketChannel>
+public class HttpNettyServerPipelineInitializer extends ChannelInitializer<SocketChannel>
 {
+  private static final int MAX_REQUEST_SIZE = 1048576;
+  private static final long HTTP2_GRACEFUL_SHUTDOWN_TIMEOUT_MILLIS = 30000;
+
   private final SSLContext _sslContext;
   private final SSLParameters _sslParameters;
   private final EventExecutorGroup _eventExecutors;
   private final boolean _restOverStream;
   private final HttpDispatcher _dispatcher;
+  private final boolean _inlineDispatch;
+  private final boolean _http2;
 
 
   HttpNettyServerPipelineInitializer(HttpDispatcher dispatcher, EventExecutorGroup eventExecutors,
                                      SSLContext sslContext, SSLParameters sslParameters,
                                      boolean restOverStream)
+  {
+    this(dispatcher, eventExecutors, sslContext, sslParameters, restOverStream, false);
+  }
+
+  /**
+   * @param inlineDispatch whether to dispatch requests on the event loop of their channel instead of on
+   *                       {@code eventExecutors}, which then only run the request handling that may block
+   */
+  HttpNettyServerPipelineInitializer(HttpDispatcher dispatcher, EventExecutorGroup eventExecutors,
+                                     SSLContext sslContext, SSLParameters sslParameters,
+                                     boolean restOverStream, boolean inlineDispatch)
+  {
+    this(dispatcher, eventExecutors, sslContext, sslParameters, restOverStream, inlineDispatch, false);
+  }
+
+  /**
+   * @param http2 whether to also serve HTTP/2, negotiated through ALPN with TLS, and otherwise either upgraded
+   *              from HTTP/1.1 or started with prior knowledge (h2c)
+   */
+  HttpNettyServerPipelineInitializer(HttpDispatcher dispatcher, EventExecutorGroup eventExecutors,
+                                     SSLContext sslContext, SSLParameters sslParameters,
+                                     boolean restOverStream, boolean inlineDispatch, boolean http2)
   {
     _dispatcher = dispatcher;
     _sslContext = sslContext;
     _sslParameters = sslParameters;
     _eventExecutors = eventExecutors;
     _restOverStream = restOverStream;
+    _inlineDispatch = inlineDispatch;
+    _http2 = http2;
   }
 
   @Override
-  protected void initChannel(NioSocketChannel ch) throws Exception
+  protected void initChannel(SocketChannel ch) throws Exception
   {
     SslHandlerUtil.validateSslParameters(_sslContext, _sslParameters);
+    if (_http2)
+    {
+      if (_sslContext != null)
+      {
+        configureHttpsPipeline(ch);
+      }
+      else
+      {
+        configureH2cPipeline(ch.pipeline());
+      }
+      return;
+    }
+
     // If _sslContext is not NULL, we should first add SSL handler to the pipeline to secure the channel.
     if (_sslContext != null)
     {
       final SslHandler sslHandler = SslHandlerUtil.getServerSslHandler(_sslContext, _sslParameters);
       ch.pipeline().addLast(SslHandlerUtil.PIPELINE_SSL_HANDLER, sslHandler);
     }
+    configureHttpPipeline(ch.pipeline());
+  }
 
-    ch.pipeline().addLast("decoder", new HttpRequestDecoder());
-    ch.pipeline().addLast("aggregator", new HttpObjectAggregator(1048576));
-    ch.pipeline().addLast("encoder", new HttpResponseEncoder());
-    ch.pipeline().addLast("rapi", new RAPServerCodec());
+  /**
+   * Sets up the HTTP/1.1 pipeline.
+   */
+  private void configureHttpPipeline(ChannelPipeline pipeline)
+  {
+    pipeline.addLast("decoder", new HttpRequestDecoder());
+    pipeline.addLast("encoder", new HttpResponseEncoder());
+    addHttpRequestHandlers(pipeline);
+  }
+
+  /**
+   * Sets up an HTTP/1.1 pipeline which switches to HTTP/2 over TCP (h2c), either upon a protocol upgrade or
+   * when the connection starts with the HTTP/2 connection preface.
+   */
+  private void configureH2cPipeline(ChannelPipeline pipeline)
+  {
+    final HttpServerCodec sourceCodec = new HttpServerCodec();
+    final HttpServerUpgradeHandler upgradeHandler = new HttpServerUpgradeHandler(sourceCodec, protocol ->
+        AsciiString.contentEquals(Http2CodecUtil.HTTP_UPGRADE_PROTOCOL_NAME, protocol) ? new Http2UpgradeCodec() : null,
+        MAX_REQUEST_SIZE);
+
+    pipeline.addLast("priorKnowledgeHandler", new Http2PriorKnowledgeHandler(p -> {
+      p.remove(sourceCodec);
+      p.remove(upgradeHandler);
+      removeHttpRequestHandlers(p);
+      configureHttp2Pipeline(p);
+    }));
+    pipeline.addLast("sourceCodec", sourceCodec);
+    pipeline.addLast("upgradeHandler", upgradeHandler);
+    addHttpRequestHandlers(pipeline);
+  }
+
+  /**
+   * Sets up HTTP/2 or HTTP/1.1 over TLS, depending on the protocol negotiated through ALPN (h2).
+   */
+  private void configureHttpsPipeline(SocketChannel ch)
+  {
+    final JdkSslContext context = new JdkSslContext(
+        _sslContext,
+        false,
+        _sslParameters == null || _sslParameters.getCipherSuites() == null ?
+            null : Arrays.asList(_sslParameters.getCipherSuites()),
+        IdentityCipherSuiteFilter.INSTANCE,
+        new ApplicationProtocolConfig(
+            ApplicationProtocolConfig.Protocol.ALPN,
+            ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+            ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+            ApplicationProtocolNames.HTTP_2,
+            ApplicationProtocolNames.HTTP_1_1),
+        _sslParameters != null && _sslParameters.getNeedClientAuth() ? ClientAuth.REQUIRE :
+            _sslParameters != null && _sslParameters.getWantClientAuth() ? ClientAuth.OPTIONAL : ClientAuth.NONE);
 
-    final SimpleChannelInboundHandler<RestRequest> restHandler = _restOverStream ?
-        new PipelineStreamHandler(_dispatcher) : new PipelineRestHandler(_dispatcher);
-    ch.pipeline().addLast(_eventExecutors, "handler", restHandler);
+    ch.pipeline().addLast(SslHandlerUtil.PIPELINE_SSL_HANDLER, context.newHandler(ch.alloc()));
+    ch.pipeline().addLast(Http2ServerAlpnHandler.PIPELINE_ALPN_HANDLER,
+        new Http2ServerAlpnHandler(this::configureHttp2Pipeline, this::configureHttpPipeline));
+  }
+
+  /**
+   * Sets up the HTTP/2 pipeline of a connection whose first bytes are the HTTP/2 connection preface.
+   */
+  private void configureHttp2Pipeline(ChannelPipeline pipeline)
+  {
+    pipeline.addLast(Http2ServerStreamCodec.PIPELINE_HTTP2_CODEC_HANDLER, newHttp2Codec());
+    addHttp2RequestHandler(pipeline);
+  }
+
+  private Http2ServerStreamCodec newHttp2Codec()
+  {
+    return new Http2ServerStreamCodecBuilder()
+        .connection(new DefaultHttp2Connection(true /* server */))
+        .maxContentLength(MAX_REQUEST_SIZE)
+        .gracefulShutdownTimeoutMillis(HTTP2_GRACEFUL_SHUTDOWN_TIMEOUT_MILLIS)
+        .build();
+  }
+
+  private void addHttpRequestHandlers(ChannelPipeline pipeline)
+  {
+    pipeline.addLast("aggregator", new HttpObjectAggregator(MAX_REQUEST_SIZE));
+    pipeline.addLast("rapi", new RAPServerCodec());
+
+    if (_inlineDispatch)
+    {
+      // like the handler added with an executor group below, blocking requests of the channel run on one executor
+      final EventExecutor offloadExecutor = _eventExecutors.next();
+      final SimpleChannelInboundHandler<RestRequest> restHandler = _restOverStream ?
+          new PipelineStreamHandler(_dispatcher, offloadExecutor) : new PipelineRestHandler(_dispatcher, offloadExecutor);
+      pipeline.addLast("handler", restHandler);
+    }
+    else
+    {
+      final SimpleChannelInboundHandler<RestRequest> restHandler = _restOverStream ?
+          new PipelineStreamHandler(_dispatcher) : new PipelineRestHandler(_dispatcher);
+      pipeline.addLast(_eventExecutors, "handler", restHandler);
+    }
+  }
+
+  private static void removeHttpRequestHandlers(ChannelPipeline pipeline)
+  {
+    pipeline.remove("aggregator");
+    pipeline.remove("rapi");
+    pipeline.remove("handler");
+  }
+
+  private void addHttp2RequestHandler(ChannelPipeline pipeline)
+  {
+    if (_inlineDispatch)
+    {
+      pipeline.addLast("handler", new Http2ServerStreamHandler(_dispatcher, _eventExecutors.next()));
+    }
+    else
+    {
+      pipeline.addLast(_eventExecutors, "handler", new Http2ServerStreamHandler(_dispatcher, null));
+    }
+  }
+
+  /**
+   * Upgrades a cleartext HTTP/1.1 connection to HTTP/2, replacing the HTTP/1.1 request handlers with the
+   * HTTP/2 ones. The upgrade request itself is handled as the first HTTP/2 stream by {@link Http2ServerStreamCodec}.
+   */
+  private class Http2UpgradeCodec implements HttpServerUpgradeHandler.UpgradeCodec
+  {
+    private final Http2ServerUpgradeCodec _upgradeCodec =
+        new Http2ServerUpgradeCodec(Http2ServerStreamCodec.PIPELINE_HTTP2_CODEC_HANDLER, newHttp2Codec());
+
+    @Override
+    public Collection<CharSequence> requiredUpgradeHeaders()
+    {
+      return _upgradeCodec.requiredUpgradeHeaders();
+    }
+
+    @Override
+    public boolean prepareUpgradeResponse(ChannelHandlerContext ctx, FullHttpRequest upgradeRequest,
+        HttpHeaders upgradeHeaders)
+    {
+      return _upgradeCodec.prepareUpgradeResponse(ctx, upgradeRequest, upgradeHeaders);
+    }
+
+    @Override
+    public void upgradeTo(ChannelHandlerContext ctx, FullHttpRequest upgradeRequest)
+    {
+      removeHttpRequestHandlers(ctx.pipeline());
+      _upgradeCodec.upgradeTo(ctx, upgradeRequest);
+      addHttp2RequestHandler(ctx.pipeline());
+    }
   }
 }
@@ -16,6 +16,8 @@
 
 package com.linkedin.r2.transport.http.server;
 
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.rest.RestResponseBuilder;
@@ -24,10 +26,10 @@ import com.linkedin.r2.transport.common.WireAttributeHelper;
 import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
 import com.linkedin.r2.transport.common.bridge.common.TransportResponse;
 import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
-import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import java.util.Collections;
+import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,16 +38,40 @@ class PipelineRestHandler extends SimpleChannelInboundHandler<RestRequest>
 {
   private static final Logger LOG = LoggerFactory.getLogger(PipelineRestHandler.class);
   private final HttpDispatcher _dispatcher;
+  private final Executor _blockingOffloadExecutor;
+  // the responses to pipelined requests are written in the order of the requests
+  private ResponseSequencer _sequencer;
 
   PipelineRestHandler(HttpDispatcher dispatcher)
+  {
+    this(dispatcher, null);
+  }
+
+  /**
+   * @param blockingOffloadExecutor executor for blocking request handling when the handler runs on the event
+   *                                loop, or null when it does not
+   */
+  PipelineRestHandler(HttpDispatcher dispatcher, Executor blockingOffloadExecutor)
   {
     _dispatcher = dispatcher;
+    _blockingOffloadExecutor = blockingOffloadExecutor;
+  }
+
+  @Override
+  public void handlerAdded(ChannelHandlerContext ctx)
+  {
+    _sequencer = new ResponseSequencer(ctx.channel());
   }
 
   @Override
   protected void channelRead0(ChannelHandlerContext ctx, RestRequest request) throws Exception
   {
-    final Channel ch = ctx.channel();
+    final long sequence = _sequencer.nextSequence();
+    final RequestContext requestContext = new RequestContext();
+    if (_blockingOffloadExecutor != null)
+    {
+      requestContext.putLocalAttr(R2Constants.BLOCKING_OFFLOAD_EXECUTOR, _blockingOffloadExecutor);
+    }
     TransportCallback<RestResponse> writeResponseCallback = new TransportCallback<RestResponse>()
     {
       @Override
@@ -72,12 +98,14 @@ class PipelineRestHandler extends SimpleChannelInboundHandler<RestRequest>
             .unsafeOverwriteHeaders(WireAttributeHelper.toWireAttributes(response.getWireAttributes()))
             .build();
 
-        ch.writeAndFlush(responseBuilder.build());
+        // the entity may reference pooled buffers, which can be reused once written
+        final Runnable release = (Runnable) requestContext.getLocalAttr(R2Constants.RESPONSE_ENTITY_RELEASE);
+        _sequencer.write(sequence, responseBuilder.build(), release);
       }
     };
     try
     {
-      _dispatcher.handleRequest(request, writeResponseCallback);
+      _dispatcher.handleRequest(request, requestContext, writeResponseCallback);
     }
     catch (Exception ex)
     {
@@ -17,7 +17,9 @@
 package com.linkedin.r2.transport.http.server;
 
 import com.linkedin.common.callback.Callback;
+import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.message.Messages;
+import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.rest.RestResponseBuilder;
@@ -27,10 +29,10 @@ import com.linkedin.r2.transport.common.WireAttributeHelper;
 import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
 import com.linkedin.r2.transport.common.bridge.common.TransportResponse;
 import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
-import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import java.util.Collections;
+import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,33 +41,57 @@ class PipelineStreamHandler extends SimpleChannelInboundHandler<RestRequest>
 {
   private static final Logger LOG = LoggerFactory.getLogger(PipelineStreamHandler.class);
   private final HttpDispatcher _dispatcher;
+  private final Executor _blockingOffloadExecutor;
+  // the responses to pipelined requests are written in the order of the requests
+  private ResponseSequencer _sequencer;
 
   PipelineStreamHandler(HttpDispatcher dispatcher)
+  {
+    this(dispatcher, null);
+  }
+
+  /**
+   * @param blockingOffloadExecutor executor for blocking request handling when the handler runs on the event
+   *                                loop, or null when it does not
+   */
+  PipelineStreamHandler(HttpDispatcher dispatcher, Executor blockingOffloadExecutor)
   {
     _dispatcher = dispatcher;
+    _blockingOffloadExecutor = blockingOffloadExecutor;
   }
 
-  private void writeError(Channel ch, TransportResponse<StreamResponse> response, Throwable ex)
+  @Override
+  public void handlerAdded(ChannelHandlerContext ctx)
+  {
+    _sequencer = new ResponseSequencer(ctx.channel());
+  }
+
+  private void writeError(long sequence, TransportResponse<StreamResponse> response, Throwable ex)
   {
     RestResponseBuilder responseBuilder =
         new RestResponseBuilder(RestStatus.responseForError(RestStatus.INTERNAL_SERVER_ERROR, ex))
             .unsafeOverwriteHeaders(WireAttributeHelper.toWireAttributes(response.getWireAttributes()));
 
-    ch.writeAndFlush(responseBuilder.build());
+    _sequencer.write(sequence, responseBuilder.build(), null);
   }
 
-  private void writeResponse(Channel ch, TransportResponse<StreamResponse> response,  RestResponse restResponse)
+  private void writeResponse(long sequence, TransportResponse<StreamResponse> response,  RestResponse restResponse)
   {
     RestResponseBuilder responseBuilder = restResponse.builder()
         .unsafeOverwriteHeaders(WireAttributeHelper.toWireAttributes(response.getWireAttributes()));
 
-    ch.writeAndFlush(responseBuilder.build());
+    _sequencer.write(sequence, responseBuilder.build(), null);
   }
 
   @Override
   protected void channelRead0(ChannelHandlerContext ctx, RestRequest request) throws Exception
   {
-    final Channel ch = ctx.channel();
+    final long sequence = _sequencer.nextSequence();
+    final RequestContext requestContext = new RequestContext();
+    if (_blockingOffloadExecutor != null)
+    {
+      requestContext.putLocalAttr(R2Constants.BLOCKING_OFFLOAD_EXECUTOR, _blockingOffloadExecutor);
+    }
     TransportCallback<StreamResponse> writeResponseCallback = new TransportCallback<StreamResponse>()
     {
       @Override
@@ -80,7 +106,7 @@ class PipelineStreamHandler extends SimpleChannelInboundHandler<RestRequest>
           // turning it into a Response, or
           // (2) the HttpBridge-installed callback's onError declined to convert the exception to a
           // response and passed it along to here.
-          writeError(ch, response, response.getError());
+          writeError(sequence, response, response.getError());
         }
         else
         {
@@ -89,13 +115,13 @@ class PipelineStreamHandler extends SimpleChannelInboundHandler<RestRequest>
             @Override
             public void onError(Throwable e)
             {
-              writeError(ch, response, e);
+              writeError(sequence, response, e);
             }
 
             @Override
             public void onSuccess(RestResponse result)
             {
-              writeResponse(ch, response, result);
+              writeResponse(sequence, response, result);
             }
           });
         }
@@ -103,7 +129,7 @@ class PipelineStreamHandler extends SimpleChannelInboundHandler<RestRequest>
     };
     try
     {
-      _dispatcher.handleRequest(Messages.toStreamRequest(request), writeResponseCallback);
+      _dispatcher.handleRequest(Messages.toStreamRequest(request), requestContext, writeResponseCallback);
     }
     catch (Exception ex)
     {
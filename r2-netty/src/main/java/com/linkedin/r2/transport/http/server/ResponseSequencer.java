@@ -0,0 +1,110 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.linkedin.r2.transport.http.server;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Writes the responses to the requests pipelined on an HTTP/1.1 connection in the order of the requests, which
+ * is the only way the client can match them, whatever order the handling of the requests completes in.
+ *
+ * Requests are numbered by {@link #nextSequence()} as they are read. A response written out of turn is held
+ * until the responses to all the earlier requests have been written.
+ */
+class ResponseSequencer
+{
+  private final Channel _channel;
+  // only accessed by the handler reading the requests
+  private long _nextRequest = 0;
+  // only accessed on the event loop of the channel
+  private long _nextResponse = 0;
+  private final Map<Long, HeldResponse> _held = new HashMap<>();
+
+  ResponseSequencer(Channel channel)
+  {
+    _channel = channel;
+  }
+
+  /**
+   * Returns the sequence number of the request being read.
+   */
+  long nextSequence()
+  {
+    return _nextRequest++;
+  }
+
+  /**
+   * Writes the response to the request of the given sequence number once its turn comes.
+   *
+   * @param onWritten run once the response is written, or null
+   */
+  void write(long sequence, Object response, Runnable onWritten)
+  {
+    final EventLoop eventLoop = _channel.eventLoop();
+    if (eventLoop.inEventLoop())
+    {
+      doWrite(sequence, new HeldResponse(response, onWritten));
+    }
+    else
+    {
+      eventLoop.execute(() -> doWrite(sequence, new HeldResponse(response, onWritten)));
+    }
+  }
+
+  private void doWrite(long sequence, HeldResponse response)
+  {
+    if (sequence != _nextResponse)
+    {
+      _held.put(sequence, response);
+      return;
+    }
+
+    for (HeldResponse next = response; next != null; next = _held.remove(_nextResponse))
+    {
+      next.write();
+      _nextResponse++;
+    }
+    _channel.flush();
+  }
+
+  private class HeldResponse
+  {
+    private final Object _response;
+    private final Runnable _onWritten;
+
+    HeldResponse(Object response, Runnable onWritten)
+    {
+      _response = response;
+      _onWritten = onWritten;
+    }
+
+    void write()
+    {
+      if (_onWritten == null)
+      {
+        _channel.write(_response);
+      }
+      else
+      {
+        _channel.write(_response).addListener(future -> _onWritten.run());
+      }
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.util;
+
+import com.linkedin.r2.util.NamedThreadFactory;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+
+/**
+ * The Netty transport, made of an event loop group and the matching channel types, used by the r2 Netty
+ * clients and server.
+ *
+ * The native epoll transport avoids the selector wakeups and garbage of NIO and supports SO_REUSEPORT, but
+ * only works on Linux with the native library of Netty available. {@link #AUTO} uses it whenever it is
+ * available and falls back to NIO otherwise.
+ */
+public enum NettyTransport
+{
+  /**
+   * Epoll if it is available, NIO otherwise.
+   */
+  AUTO,
+  NIO,
+  EPOLL;
+
+  /**
+   * Returns the transport to use, which is either {@link #NIO} or {@link #EPOLL}.
+   *
+   * @throws IllegalStateException if epoll is requested but not available
+   */
+  public NettyTransport resolve()
+  {
+    switch (this)
+    {
+      case AUTO:
+        return Epoll.isAvailable() ? EPOLL : NIO;
+      case EPOLL:
+        if (!Epoll.isAvailable())
+        {
+          throw new IllegalStateException("The native epoll transport is not available", Epoll.unavailabilityCause());
+        }
+        return EPOLL;
+      default:
+        return NIO;
+    }
+  }
+
+  /**
+   * Creates an event loop group of the transport.
+   *
+   * @param nThreads number of threads, or 0 for the Netty default
+   * @param name name of the threads, which is prefixed with the name of the transport
+   */
+  public EventLoopGroup newEventLoopGroup(int nThreads, String name)
+  {
+    if (resolve() == EPOLL)
+    {
+      return new EpollEventLoopGroup(nThreads, new NamedThreadFactory("R2 Epoll " + name));
+    }
+    return new NioEventLoopGroup(nThreads, new NamedThreadFactory("R2 Nio " + name));
+  }
+
+  public Class<? extends ServerSocketChannel> serverSocketChannelClass()
+  {
+    return resolve() == EPOLL ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+  }
+
+  public Class<? extends SocketChannel> socketChannelClass()
+  {
+    return resolve() == EPOLL ? EpollSocketChannel.class : NioSocketChannel.class;
+  }
+
+  /**
+   * Returns the transport of an event loop group created by the caller.
+   */
+  public static NettyTransport of(EventLoopGroup eventLoopGroup)
+  {
+    return eventLoopGroup instanceof EpollEventLoopGroup ? EPOLL : NIO;
+  }
+}
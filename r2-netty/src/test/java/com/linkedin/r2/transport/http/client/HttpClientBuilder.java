@@ -237,4 +237,11 @@ public class HttpClientBuilder
     return this;
   }
 
+  public HttpClientBuilder setPipeliningDepth(int pipeliningDepth)
+  {
+    _channelPoolManagerKeyBuilder.setPipeliningDepth(pipeliningDepth);
+    _sslChannelPoolManagerKeyBuilder.setPipeliningDepth(pipeliningDepth);
+    return this;
+  }
+
 }
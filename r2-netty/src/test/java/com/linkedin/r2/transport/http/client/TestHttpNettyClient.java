@@ -35,6 +35,7 @@ import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.rest.HttpNettyClient;
 import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
+import com.linkedin.r2.util.RequestCancellation;
 import com.linkedin.util.clock.SettableClock;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelException;
@@ -54,6 +55,7 @@ import java.net.URI;
 import java.net.UnknownHostException;
 import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -161,6 +163,41 @@ public class TestHttpNettyClient
     testServer.shutdown();
   }
 
+  @Test
+  public void testNoResponseCancelled()
+      throws InterruptedException, IOException
+  {
+    TestServer testServer = new TestServer();
+
+    HttpNettyClient client = new HttpClientBuilder(_eventLoop, _scheduler).setRequestTimeout(30000).setIdleTimeout(10000)
+      .setShutdownTimeout(500).buildRestClient();
+
+    RestRequest r = new RestRequestBuilder(testServer.getNoResponseURI()).build();
+    FutureCallback<RestResponse> cb = new FutureCallback<RestResponse>();
+    TransportCallback<RestResponse> callback = new TransportCallbackAdapter<RestResponse>(cb);
+    RequestContext requestContext = new RequestContext();
+    RequestCancellation cancellation = new RequestCancellation();
+    requestContext.putLocalAttr(R2Constants.REQUEST_CANCELLATION, cancellation);
+    client.restRequest(r, requestContext, new HashMap<String, String>(), callback);
+
+    Assert.assertTrue(cancellation.cancel());
+    try
+    {
+      // the request is cancelled long before its timeout
+      cb.get(10, TimeUnit.SECONDS);
+      Assert.fail("Get was supposed to be cancelled");
+    }
+    catch (TimeoutException e)
+    {
+      Assert.fail("Unexpected TimeoutException, should have been ExecutionException", e);
+    }
+    catch (ExecutionException e)
+    {
+      verifyCauseChain(e, RemoteInvocationException.class, CancellationException.class);
+    }
+    testServer.shutdown();
+  }
+
   @Test
   public void testBadAddress() throws InterruptedException, IOException, TimeoutException
   {
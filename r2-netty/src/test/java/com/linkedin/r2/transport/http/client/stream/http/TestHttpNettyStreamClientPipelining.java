@@ -0,0 +1,547 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.client.stream.http;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.util.None;
+import com.linkedin.r2.message.Messages;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamRequestBuilder;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.stream.entitystream.EntityStream;
+import com.linkedin.r2.message.stream.entitystream.EntityStreams;
+import com.linkedin.r2.message.stream.entitystream.WriteHandle;
+import com.linkedin.r2.message.stream.entitystream.Writer;
+import com.linkedin.r2.transport.common.bridge.common.FutureTransportCallback;
+import com.linkedin.r2.transport.http.client.AsyncPool;
+import com.linkedin.r2.transport.http.client.HttpClientBuilder;
+import com.linkedin.r2.transport.http.client.PoolStats;
+import com.linkedin.r2.util.Cancellable;
+import com.linkedin.r2.util.Timeout;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+
+public class TestHttpNettyStreamClientPipelining
+{
+  private static final int PIPELINING_DEPTH = 4;
+  private static final Pattern REQUEST_LINE = Pattern.compile("GET (/\\d+) HTTP/1\\.1");
+
+  private NioEventLoopGroup _eventLoop;
+  private ScheduledExecutorService _scheduler;
+
+  @BeforeClass
+  public void setup()
+  {
+    _eventLoop = new NioEventLoopGroup();
+    _scheduler = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  @AfterClass
+  public void tearDown()
+  {
+    _scheduler.shutdown();
+    _eventLoop.shutdownGracefully();
+  }
+
+  @Test
+  public void testPipelinedRequests() throws Exception
+  {
+    // the server only answers once all the requests are received, in a single write
+    try (PipeliningServer server = new PipeliningServer(PIPELINING_DEPTH, PIPELINING_DEPTH))
+    {
+      final HttpNettyStreamClient client = newClient();
+      final List<FutureTransportCallback<StreamResponse>> callbacks = sendRequests(client, server, PIPELINING_DEPTH);
+      for (int i = 0; i < PIPELINING_DEPTH; i++)
+      {
+        Assert.assertEquals(toRestResponse(callbacks.get(i)).getEntity().asString(StandardCharsets.US_ASCII), "/" + i);
+      }
+      Assert.assertEquals(server.getConnectionCount(), 1);
+      shutdown(client);
+    }
+  }
+
+  @Test
+  public void testPoisonedChannel() throws Exception
+  {
+    // the server closes the connection after the first response
+    try (PipeliningServer server = new PipeliningServer(PIPELINING_DEPTH, 1))
+    {
+      final HttpNettyStreamClient client = newClient();
+      final List<FutureTransportCallback<StreamResponse>> callbacks = sendRequests(client, server, PIPELINING_DEPTH);
+      Assert.assertEquals(toRestResponse(callbacks.get(0)).getEntity().asString(StandardCharsets.US_ASCII), "/0");
+      for (int i = 1; i < PIPELINING_DEPTH; i++)
+      {
+        Assert.assertTrue(callbacks.get(i).get(10, TimeUnit.SECONDS).hasError(),
+            "The requests pipelined after the last response should fail");
+      }
+      shutdown(client);
+    }
+  }
+
+  @Test
+  public void testPoolSharing()
+  {
+    final CountingPool pool = new CountingPool();
+    final PipeliningChannelPool pipeliningPool = new PipeliningChannelPool(pool, 2);
+
+    final List<Channel> channels = new ArrayList<>();
+    for (int i = 0; i < 4; i++)
+    {
+      pipeliningPool.get(new Callback<Channel>()
+      {
+        @Override
+        public void onSuccess(Channel channel)
+        {
+          channels.add(channel);
+        }
+
+        @Override
+        public void onError(Throwable e)
+        {
+          Assert.fail("Unexpected error", e);
+        }
+      });
+    }
+    Assert.assertEquals(pool._gets, 2);
+    Assert.assertSame(channels.get(0), channels.get(1));
+    Assert.assertSame(channels.get(2), channels.get(3));
+    Assert.assertNotSame(channels.get(0), channels.get(2));
+
+    // the channel goes back to the pool once all the requests put it
+    pipeliningPool.put(channels.get(0));
+    Assert.assertEquals(pool._puts, 0);
+    pipeliningPool.put(channels.get(1));
+    Assert.assertEquals(pool._puts, 1);
+
+    // disposing the channel for one request disposes it for all of them
+    pipeliningPool.dispose(channels.get(2));
+    pipeliningPool.put(channels.get(3));
+    Assert.assertEquals(pool._disposes, 1);
+    Assert.assertEquals(pool._puts, 1);
+  }
+
+  @Test
+  public void testBurstSharesPendingGets()
+  {
+    final CountingPool pool = new CountingPool();
+    pool._deferGets = true;
+    final PipeliningChannelPool pipeliningPool = new PipeliningChannelPool(pool, 2);
+
+    final List<Channel> channels = new ArrayList<>();
+    for (int i = 0; i < 3; i++)
+    {
+      pipeliningPool.get(new Callback<Channel>()
+      {
+        @Override
+        public void onSuccess(Channel channel)
+        {
+          channels.add(channel);
+        }
+
+        @Override
+        public void onError(Throwable e)
+        {
+          Assert.fail("Unexpected error", e);
+        }
+      });
+    }
+    // a get of the underlying pool serves up to the pipelining depth of waiters
+    Assert.assertEquals(pool._gets, 2);
+
+    final Channel channel = new EmbeddedChannel();
+    pool._pendingGets.poll().onSuccess(channel);
+    Assert.assertEquals(channels.size(), 2);
+    Assert.assertSame(channels.get(0), channel);
+    Assert.assertSame(channels.get(1), channel);
+
+    // the slot freed by a request goes to the oldest waiter, and the channel of the pending get back to the pool
+    pipeliningPool.put(channel);
+    Assert.assertEquals(channels.size(), 3);
+    Assert.assertSame(channels.get(2), channel);
+    pool._pendingGets.poll().onSuccess(new EmbeddedChannel());
+    Assert.assertEquals(pool._puts, 1);
+  }
+
+  @Test
+  public void testNonIdempotentRequestsAreNotPipelined()
+  {
+    Assert.assertTrue(PipeliningChannelPool.isPipelined(newRequest("GET")));
+    Assert.assertTrue(PipeliningChannelPool.isPipelined(newRequest("PUT")));
+    Assert.assertFalse(PipeliningChannelPool.isPipelined(newRequest("POST")));
+    Assert.assertTrue(PipeliningChannelPool.isPipelined(new StreamRequestBuilder(URI.create("http://localhost/0"))
+        .setMethod("POST").setHeader("X-HTTP-Method-Override", "GET").build(EntityStreams.emptyStream())));
+
+    final CountingPool pool = new CountingPool();
+    final PipeliningChannelPool pipeliningPool = new PipeliningChannelPool(pool, 2);
+    final List<Channel> channels = new ArrayList<>();
+    final Callback<Channel> callback = new Callback<Channel>()
+    {
+      @Override
+      public void onSuccess(Channel channel)
+      {
+        channels.add(channel);
+      }
+
+      @Override
+      public void onError(Throwable e)
+      {
+        Assert.fail("Unexpected error", e);
+      }
+    };
+
+    // an exclusive channel is shared neither with other exclusive gets nor with pipelined ones
+    pipeliningPool.getExclusive(callback);
+    pipeliningPool.getExclusive(callback);
+    pipeliningPool.get(callback);
+    Assert.assertEquals(pool._gets, 3);
+    Assert.assertNotSame(channels.get(0), channels.get(1));
+    Assert.assertNotSame(channels.get(0), channels.get(2));
+    Assert.assertNotSame(channels.get(1), channels.get(2));
+
+    pipeliningPool.put(channels.get(0));
+    Assert.assertEquals(pool._puts, 1);
+    pipeliningPool.dispose(channels.get(1));
+    Assert.assertEquals(pool._disposes, 1);
+  }
+
+  @Test
+  public void testPipelinedRequestsShareFlush()
+  {
+    final CountingOutboundHandler counter = new CountingOutboundHandler();
+    final RAPStreamPipeliningHandler pipeliningHandler = new RAPStreamPipeliningHandler();
+    final EmbeddedChannel channel = new EmbeddedChannel(counter, pipeliningHandler);
+    for (int i = 0; i < PIPELINING_DEPTH; i++)
+    {
+      pipeliningHandler.write(newRequest(i, EntityStreams.emptyStream()), new FutureTransportCallback<>(),
+          new Timeout<>(_scheduler, 10, TimeUnit.SECONDS, None.none()));
+    }
+    // the requests queued before the event loop gets to them are written by a single task with a single flush
+    channel.runPendingTasks();
+    Assert.assertEquals(counter._writes, PIPELINING_DEPTH);
+    Assert.assertEquals(counter._flushes, 1);
+    channel.close();
+  }
+
+  @Test
+  public void testPipelinedFlushesKeepEntityBufferingBounded() throws Exception
+  {
+    final IdleWriter writer = new IdleWriter();
+    final EmbeddedChannel channel = new EmbeddedChannel(new RAPStreamRequestEncoder());
+    channel.writeAndFlush(newRequest(0, EntityStreams.newEntityStream(writer)));
+    final int requested = writer._writeHandle.remaining();
+    Assert.assertTrue(requested > 0);
+
+    // the flushes of the requests pipelined while the entity is written do not request more chunks
+    for (int i = 1; i < PIPELINING_DEPTH; i++)
+    {
+      channel.writeAndFlush(newRequest(i, EntityStreams.emptyStream()));
+    }
+    Assert.assertEquals(writer._writeHandle.remaining(), requested);
+    channel.close();
+  }
+
+  private static StreamRequest newRequest(int i, EntityStream entityStream)
+  {
+    return new StreamRequestBuilder(URI.create("http://localhost/" + i)).setMethod("POST").build(entityStream);
+  }
+
+  private static StreamRequest newRequest(String method)
+  {
+    return new StreamRequestBuilder(URI.create("http://localhost/0")).setMethod(method).build(EntityStreams.emptyStream());
+  }
+
+  private HttpNettyStreamClient newClient()
+  {
+    return new HttpClientBuilder(_eventLoop, _scheduler)
+        .setMaxPoolSize(1)
+        .setPipeliningDepth(PIPELINING_DEPTH)
+        .buildStreamClient();
+  }
+
+  private static List<FutureTransportCallback<StreamResponse>> sendRequests(HttpNettyStreamClient client,
+      PipeliningServer server, int count)
+  {
+    final List<FutureTransportCallback<StreamResponse>> callbacks = new ArrayList<>();
+    for (int i = 0; i < count; i++)
+    {
+      final FutureTransportCallback<StreamResponse> callback = new FutureTransportCallback<>();
+      client.streamRequest(
+          new StreamRequestBuilder(URI.create("http://localhost:" + server.getPort() + "/" + i))
+              .setMethod("GET")
+              .build(EntityStreams.emptyStream()),
+          new RequestContext(), new HashMap<>(), callback);
+      callbacks.add(callback);
+    }
+    return callbacks;
+  }
+
+  private static RestResponse toRestResponse(FutureTransportCallback<StreamResponse> callback) throws Exception
+  {
+    final FutureCallback<RestResponse> restCallback = new FutureCallback<>();
+    Messages.toRestResponse(callback.get(10, TimeUnit.SECONDS).getResponse(), restCallback);
+    return restCallback.get(10, TimeUnit.SECONDS);
+  }
+
+  private static void shutdown(HttpNettyStreamClient client) throws Exception
+  {
+    final FutureCallback<None> shutdownCallback = new FutureCallback<>();
+    client.shutdown(shutdownCallback);
+    shutdownCallback.get(30, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Waits for a number of requests on a connection, then answers each of them with its path, up to a number of
+   * responses after which the connection is closed.
+   */
+  private static class PipeliningServer implements AutoCloseable
+  {
+    private final ServerSocket _serverSocket;
+    private final AtomicInteger _connectionCount = new AtomicInteger();
+    private final Thread _thread;
+
+    PipeliningServer(int requestCount, int responseCount) throws IOException
+    {
+      _serverSocket = new ServerSocket(0);
+      _thread = new Thread(() -> {
+        try
+        {
+          while (true)
+          {
+            try (Socket socket = _serverSocket.accept())
+            {
+              _connectionCount.incrementAndGet();
+              final List<String> paths = readRequests(socket.getInputStream(), requestCount);
+              final StringBuilder responses = new StringBuilder();
+              for (String path : paths.subList(0, responseCount))
+              {
+                responses.append("HTTP/1.1 200 OK\r\nContent-Length: ").append(path.length()).append("\r\n\r\n")
+                    .append(path);
+              }
+              final OutputStream out = socket.getOutputStream();
+              out.write(responses.toString().getBytes(StandardCharsets.US_ASCII));
+              out.flush();
+              if (responseCount < requestCount)
+              {
+                // half closes the connection, so that the responses are not lost to a reset of a full close
+                socket.shutdownOutput();
+              }
+              // keeps the connection open until the client closes it
+              while (socket.getInputStream().read() >= 0)
+              {
+              }
+            }
+          }
+        }
+        catch (IOException e)
+        {
+          // the server socket is closed
+        }
+      });
+      _thread.start();
+    }
+
+    private static List<String> readRequests(InputStream in, int requestCount) throws IOException
+    {
+      final StringBuilder received = new StringBuilder();
+      final byte[] buffer = new byte[4096];
+      while (true)
+      {
+        final List<String> paths = new ArrayList<>();
+        final Matcher matcher = REQUEST_LINE.matcher(received);
+        while (matcher.find())
+        {
+          paths.add(matcher.group(1));
+        }
+        // each request ends with the last chunk of its empty entity
+        if (paths.size() == requestCount && received.toString().endsWith("\r\n\r\n0\r\n\r\n"))
+        {
+          return paths;
+        }
+        final int read = in.read(buffer);
+        if (read < 0)
+        {
+          throw new IOException("Connection closed after " + paths.size() + " requests");
+        }
+        received.append(new String(buffer, 0, read, StandardCharsets.US_ASCII));
+      }
+    }
+
+    int getPort()
+    {
+      return _serverSocket.getLocalPort();
+    }
+
+    int getConnectionCount()
+    {
+      return _connectionCount.get();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+      _serverSocket.close();
+      try
+      {
+        _thread.join(10000);
+      }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static class CountingOutboundHandler extends ChannelOutboundHandlerAdapter
+  {
+    private int _writes;
+    private int _flushes;
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception
+    {
+      _writes++;
+      super.write(ctx, msg, promise);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception
+    {
+      _flushes++;
+      super.flush(ctx);
+    }
+  }
+
+  /**
+   * Writes no data, so that the chunks requested by the reader of the entity add up in the write handle.
+   */
+  private static class IdleWriter implements Writer
+  {
+    private WriteHandle _writeHandle;
+
+    @Override
+    public void onInit(WriteHandle wh)
+    {
+      _writeHandle = wh;
+    }
+
+    @Override
+    public void onWritePossible()
+    {
+    }
+
+    @Override
+    public void onAbort(Throwable e)
+    {
+    }
+  }
+
+  private static class CountingPool implements AsyncPool<Channel>
+  {
+    private final Queue<Callback<Channel>> _pendingGets = new ArrayDeque<>();
+    private boolean _deferGets;
+    private int _gets;
+    private int _puts;
+    private int _disposes;
+
+    @Override
+    public String getName()
+    {
+      return "counting";
+    }
+
+    @Override
+    public void start()
+    {
+    }
+
+    @Override
+    public void shutdown(Callback<None> callback)
+    {
+      callback.onSuccess(None.none());
+    }
+
+    @Override
+    public Collection<Callback<Channel>> cancelWaiters()
+    {
+      return new ArrayList<>();
+    }
+
+    @Override
+    public Cancellable get(Callback<Channel> callback)
+    {
+      _gets++;
+      if (_deferGets)
+      {
+        _pendingGets.add(callback);
+      }
+      else
+      {
+        callback.onSuccess(new EmbeddedChannel());
+      }
+      return null;
+    }
+
+    @Override
+    public void put(Channel obj)
+    {
+      _puts++;
+    }
+
+    @Override
+    public void dispose(Channel obj)
+    {
+      _disposes++;
+    }
+
+    @Override
+    public PoolStats getStats()
+    {
+      return null;
+    }
+  }
+}
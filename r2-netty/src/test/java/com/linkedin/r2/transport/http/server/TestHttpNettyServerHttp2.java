@@ -0,0 +1,261 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.util.None;
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.filter.FilterChains;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.message.stream.StreamRequestBuilder;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.stream.StreamResponseBuilder;
+import com.linkedin.r2.message.stream.entitystream.ByteStringWriter;
+import com.linkedin.r2.message.stream.entitystream.EntityStreams;
+import com.linkedin.r2.message.stream.entitystream.FullEntityReader;
+import com.linkedin.r2.message.stream.entitystream.ReadHandle;
+import com.linkedin.r2.message.stream.entitystream.Reader;
+import com.linkedin.r2.transport.common.Client;
+import com.linkedin.r2.transport.common.bridge.client.TransportClientAdapter;
+import com.linkedin.r2.transport.common.bridge.server.TransportDispatcherBuilder;
+import com.linkedin.r2.transport.http.client.HttpClientFactory;
+import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
+import io.netty.handler.codec.http2.Http2CodecUtil;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class TestHttpNettyServerHttp2
+{
+  private static final URI ECHO = URI.create("/echo");
+  private static final URI SLOW_ECHO = URI.create("/slowEcho");
+  private static final int LARGE_ENTITY_LENGTH = 1000 * 1000;
+  private static final byte SETTINGS_FRAME_TYPE = 0x4;
+
+  private ScheduledExecutorService _scheduler;
+  private AtomicInteger _slowReads;
+
+  @BeforeClass
+  public void setUp()
+  {
+    _scheduler = Executors.newSingleThreadScheduledExecutor();
+    _slowReads = new AtomicInteger();
+  }
+
+  @AfterClass
+  public void tearDown()
+  {
+    _scheduler.shutdownNow();
+  }
+
+  @DataProvider
+  public Object[][] protocols()
+  {
+    return new Object[][] {
+        { HttpProtocolVersion.HTTP_2, false },
+        { HttpProtocolVersion.HTTP_2, true },
+        { HttpProtocolVersion.HTTP_1_1, false },
+        { HttpProtocolVersion.HTTP_1_1, true },
+    };
+  }
+
+  @Test(dataProvider = "protocols")
+  public void testRoundTrip(HttpProtocolVersion protocolVersion, boolean inlineDispatch) throws Exception
+  {
+    final int port = freePort();
+    final HttpServer server = newServer(port, inlineDispatch);
+    server.start();
+
+    final HttpClientFactory factory = new HttpClientFactory.Builder().build();
+    final Client client = new TransportClientAdapter(factory.getClient(
+        Collections.singletonMap(HttpClientFactory.HTTP_PROTOCOL_VERSION, protocolVersion.name())));
+    try
+    {
+      for (int i = 0; i < 4; i++)
+      {
+        final byte[] entity = ("request " + i).getBytes();
+        final RestResponse response = client.restRequest(
+            new RestRequestBuilder(URI.create("http://localhost:" + port + ECHO)).setEntity(entity).build())
+            .get(30, TimeUnit.SECONDS);
+        Assert.assertEquals(response.getStatus(), 200);
+        Assert.assertEquals(response.getEntity().copyBytes(), entity);
+      }
+    }
+    finally
+    {
+      shutdown(client, factory, server);
+    }
+  }
+
+  /**
+   * Streams a request larger than the initial window of its stream to a slow reader, which is only possible if
+   * the server sends WINDOW_UPDATE frames as the reader requests data.
+   */
+  @Test
+  public void testFlowControl() throws Exception
+  {
+    final int port = freePort();
+    final HttpServer server = newServer(port, false);
+    server.start();
+
+    final HttpClientFactory factory = new HttpClientFactory.Builder().build();
+    final Map<String, String> properties = new HashMap<>();
+    properties.put(HttpClientFactory.HTTP_PROTOCOL_VERSION, HttpProtocolVersion.HTTP_2.name());
+    // the slow reader takes longer than the default request timeout
+    properties.put(HttpClientFactory.HTTP_REQUEST_TIMEOUT, "30000");
+    final Client client = new TransportClientAdapter(factory.getClient(properties));
+    try
+    {
+      final byte[] entity = new byte[LARGE_ENTITY_LENGTH];
+      new Random(0).nextBytes(entity);
+
+      final FutureCallback<StreamResponse> responseCallback = new FutureCallback<>();
+      client.streamRequest(new StreamRequestBuilder(URI.create("http://localhost:" + port + SLOW_ECHO))
+          .setMethod("POST")
+          .build(EntityStreams.newEntityStream(new ByteStringWriter(ByteString.copy(entity)))), responseCallback);
+      final StreamResponse response = responseCallback.get(30, TimeUnit.SECONDS);
+      Assert.assertEquals(response.getStatus(), 200);
+
+      final FutureCallback<ByteString> entityCallback = new FutureCallback<>();
+      response.getEntityStream().setReader(new FullEntityReader(entityCallback));
+      Assert.assertEquals(entityCallback.get(30, TimeUnit.SECONDS).copyBytes(), entity);
+      Assert.assertTrue(_slowReads.get() > 1, "Request entity was read in " + _slowReads.get() + " chunks");
+    }
+    finally
+    {
+      shutdown(client, factory, server);
+    }
+  }
+
+  @Test
+  public void testPriorKnowledge() throws Exception
+  {
+    final int port = freePort();
+    final HttpServer server = newServer(port, false);
+    server.start();
+
+    try (Socket socket = new Socket("localhost", port))
+    {
+      final OutputStream out = socket.getOutputStream();
+      final byte[] preface = new byte[Http2CodecUtil.connectionPrefaceBuf().readableBytes()];
+      Http2CodecUtil.connectionPrefaceBuf().readBytes(preface);
+      out.write(preface);
+      // an empty SETTINGS frame
+      out.write(new byte[] { 0, 0, 0, SETTINGS_FRAME_TYPE, 0, 0, 0, 0, 0 });
+      out.flush();
+
+      // the server preface is a SETTINGS frame
+      socket.setSoTimeout(30000);
+      final byte[] frameHeader = new byte[9];
+      new DataInputStream(socket.getInputStream()).readFully(frameHeader);
+      Assert.assertEquals(frameHeader[3], SETTINGS_FRAME_TYPE);
+    }
+    finally
+    {
+      server.stop();
+      server.waitForStop();
+    }
+  }
+
+  private HttpServer newServer(int port, boolean inlineDispatch)
+  {
+    return new HttpNettyServerBuilder()
+        .filters(FilterChains.empty())
+        .port(port)
+        .http2(true)
+        .inlineDispatch(inlineDispatch)
+        .transportDispatcher(new TransportDispatcherBuilder()
+            .addRestHandler(ECHO, (request, requestContext, callback) ->
+                callback.onSuccess(new RestResponseBuilder().setEntity(request.getEntity()).build()))
+            .addStreamHandler(SLOW_ECHO, (request, requestContext, callback) ->
+                request.getEntityStream().setReader(new Reader()
+                {
+                  private ReadHandle _rh;
+                  private ByteString.Builder _entity = new ByteString.Builder();
+
+                  @Override
+                  public void onInit(ReadHandle rh)
+                  {
+                    _rh = rh;
+                    _rh.request(1);
+                  }
+
+                  @Override
+                  public void onDataAvailable(ByteString data)
+                  {
+                    _slowReads.incrementAndGet();
+                    _entity.append(data);
+                    _scheduler.schedule(() -> _rh.request(1), 1, TimeUnit.MILLISECONDS);
+                  }
+
+                  @Override
+                  public void onDone()
+                  {
+                    callback.onSuccess(new StreamResponseBuilder()
+                        .build(EntityStreams.newEntityStream(new ByteStringWriter(_entity.build()))));
+                  }
+
+                  @Override
+                  public void onError(Throwable e)
+                  {
+                    callback.onError(e);
+                  }
+                }))
+            .build())
+        .build();
+  }
+
+  private static void shutdown(Client client, HttpClientFactory factory, HttpServer server) throws Exception
+  {
+    final FutureCallback<None> clientShutdown = new FutureCallback<None>();
+    client.shutdown(clientShutdown);
+    clientShutdown.get(30, TimeUnit.SECONDS);
+
+    final FutureCallback<None> factoryShutdown = new FutureCallback<None>();
+    factory.shutdown(factoryShutdown);
+    factoryShutdown.get(30, TimeUnit.SECONDS);
+    server.stop();
+    server.waitForStop();
+  }
+
+  private static int freePort() throws IOException
+  {
+    try (ServerSocket socket = new ServerSocket(0))
+    {
+      return socket.getLocalPort();
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.util.None;
+import com.linkedin.r2.filter.FilterChains;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.transport.common.Client;
+import com.linkedin.r2.transport.common.bridge.client.TransportClientAdapter;
+import com.linkedin.r2.transport.common.bridge.server.TransportDispatcherBuilder;
+import com.linkedin.r2.transport.http.client.HttpClientFactory;
+import io.netty.util.concurrent.FastThreadLocalThread;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestHttpNettyServerInlineDispatch
+{
+  private static final URI RESOURCE = URI.create("/blocking");
+
+  @Test
+  public void testExecutorDispatch() throws Exception
+  {
+    final DispatchTrace trace = roundTrip(false, false);
+    Assert.assertFalse(trace._handlerThread.getName().startsWith("R2 "), trace._handlerThread.getName());
+    Assert.assertNull(trace._offloadExecutor);
+  }
+
+  @Test
+  public void testInlineDispatch() throws Exception
+  {
+    final DispatchTrace trace = roundTrip(true, false);
+    Assert.assertTrue(trace._handlerThread.getName().contains("Worker"), trace._handlerThread.getName());
+    Assert.assertNotNull(trace._offloadExecutor);
+  }
+
+  @Test
+  public void testInlineDispatchWithOffload() throws Exception
+  {
+    final DispatchTrace trace = roundTrip(true, true);
+    Assert.assertTrue(trace._handlerThread.getName().contains("Worker"), trace._handlerThread.getName());
+    Assert.assertFalse(trace._responseThread.getName().contains("Worker"), trace._responseThread.getName());
+    Assert.assertTrue(trace._responseThread instanceof FastThreadLocalThread);
+  }
+
+  private static DispatchTrace roundTrip(boolean inlineDispatch, boolean offload) throws Exception
+  {
+    final DispatchTrace trace = new DispatchTrace();
+    final AtomicReference<Thread> responseThread = new AtomicReference<>();
+    final int port = freePort();
+    final HttpServer server = new HttpNettyServerBuilder()
+        .filters(FilterChains.empty())
+        .port(port)
+        .inlineDispatch(inlineDispatch)
+        .transportDispatcher(new TransportDispatcherBuilder()
+            .addRestHandler(RESOURCE, (request, requestContext, callback) ->
+            {
+              trace._handlerThread = Thread.currentThread();
+              trace._offloadExecutor = (Executor) requestContext.getLocalAttr(R2Constants.BLOCKING_OFFLOAD_EXECUTOR);
+              final Runnable respond = () ->
+              {
+                responseThread.set(Thread.currentThread());
+                callback.onSuccess(new RestResponseBuilder().build());
+              };
+              if (offload)
+              {
+                trace._offloadExecutor.execute(respond);
+              }
+              else
+              {
+                respond.run();
+              }
+            })
+            .build())
+        .build();
+    server.start();
+
+    final HttpClientFactory factory = new HttpClientFactory.Builder().build();
+    try
+    {
+      final Client client = new TransportClientAdapter(factory.getClient(Collections.<String, Object>emptyMap()));
+      Assert.assertEquals(client.restRequest(new RestRequestBuilder(URI.create("http://localhost:" + port + RESOURCE))
+          .build()).get(30, TimeUnit.SECONDS).getStatus(), 200);
+      trace._responseThread = responseThread.get();
+
+      final FutureCallback<None> clientShutdown = new FutureCallback<None>();
+      client.shutdown(clientShutdown);
+      clientShutdown.get(30, TimeUnit.SECONDS);
+    }
+    finally
+    {
+      final FutureCallback<None> factoryShutdown = new FutureCallback<None>();
+      factory.shutdown(factoryShutdown);
+      factoryShutdown.get(30, TimeUnit.SECONDS);
+      server.stop();
+      server.waitForStop();
+    }
+    return trace;
+  }
+
+  private static int freePort() throws IOException
+  {
+    try (ServerSocket socket = new ServerSocket(0))
+    {
+      return socket.getLocalPort();
+    }
+  }
+
+  private static class DispatchTrace
+  {
+    private volatile Thread _handlerThread;
+    private volatile Thread _responseThread;
+    private volatile Executor _offloadExecutor;
+  }
+}
@@ -0,0 +1,84 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.transport.common.bridge.server.TransportDispatcherBuilder;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class TestHttpNettyServerPipelining
+{
+  private static final URI RESOURCE = URI.create("/pipelined");
+  private static final int PIPELINED_REQUESTS = 4;
+
+  @DataProvider
+  public Object[][] restOverStream()
+  {
+    return new Object[][] { { false }, { true } };
+  }
+
+  @Test(dataProvider = "restOverStream")
+  public void testResponsesFollowRequestOrder(boolean restOverStream)
+  {
+    final List<Callback<RestResponse>> callbacks = new ArrayList<>();
+    final HttpDispatcher dispatcher = new HttpDispatcher(new TransportDispatcherBuilder(restOverStream)
+        .addRestHandler(RESOURCE, (request, requestContext, callback) -> callbacks.add(callback))
+        .build());
+    final SimpleChannelInboundHandler<?> handler = restOverStream ?
+        new PipelineStreamHandler(dispatcher) : new PipelineRestHandler(dispatcher);
+    final EmbeddedChannel channel = new EmbeddedChannel(handler);
+    for (int i = 0; i < PIPELINED_REQUESTS; i++)
+    {
+      channel.writeInbound(new RestRequestBuilder(RESOURCE).build());
+    }
+    Assert.assertEquals(callbacks.size(), PIPELINED_REQUESTS);
+
+    // the requests complete in reverse order, and no response is written before the one to the first request
+    for (int i = PIPELINED_REQUESTS - 1; i > 0; i--)
+    {
+      callbacks.get(i).onSuccess(newResponse(i));
+    }
+    channel.runPendingTasks();
+    Assert.assertNull(channel.readOutbound());
+
+    callbacks.get(0).onSuccess(newResponse(0));
+    channel.runPendingTasks();
+    for (int i = 0; i < PIPELINED_REQUESTS; i++)
+    {
+      final RestResponse response = channel.readOutbound();
+      Assert.assertEquals(response.getEntity().asString(StandardCharsets.US_ASCII), String.valueOf(i));
+    }
+    Assert.assertNull(channel.readOutbound());
+    channel.close();
+  }
+
+  private static RestResponse newResponse(int i)
+  {
+    return new RestResponseBuilder().setEntity(String.valueOf(i).getBytes(StandardCharsets.US_ASCII)).build();
+  }
+}
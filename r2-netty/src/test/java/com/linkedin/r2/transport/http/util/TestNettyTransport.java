@@ -0,0 +1,181 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.util;
+
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.util.None;
+import com.linkedin.r2.filter.FilterChains;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.transport.common.Client;
+import com.linkedin.r2.transport.common.bridge.client.TransportClientAdapter;
+import com.linkedin.r2.transport.common.bridge.server.TransportDispatcherBuilder;
+import com.linkedin.r2.transport.http.client.HttpClientFactory;
+import com.linkedin.r2.transport.http.server.HttpNettyServerBuilder;
+import com.linkedin.r2.transport.http.server.HttpServer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class TestNettyTransport
+{
+  private static final URI RESOURCE = URI.create("/echo");
+
+  @Test
+  public void testResolve()
+  {
+    Assert.assertEquals(NettyTransport.NIO.resolve(), NettyTransport.NIO);
+    Assert.assertEquals(NettyTransport.AUTO.resolve(), Epoll.isAvailable() ? NettyTransport.EPOLL : NettyTransport.NIO);
+    if (!Epoll.isAvailable())
+    {
+      try
+      {
+        NettyTransport.EPOLL.resolve();
+        Assert.fail("Requesting epoll should fail when it is not available");
+      }
+      catch (IllegalStateException e)
+      {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void testNioTransport() throws InterruptedException
+  {
+    EventLoopGroup group = NettyTransport.NIO.newEventLoopGroup(1, "Test");
+    try
+    {
+      Assert.assertTrue(group instanceof NioEventLoopGroup);
+      Assert.assertEquals(NettyTransport.of(group), NettyTransport.NIO);
+      Assert.assertEquals(NettyTransport.NIO.socketChannelClass(), NioSocketChannel.class);
+      Assert.assertEquals(NettyTransport.NIO.serverSocketChannelClass(), NioServerSocketChannel.class);
+    }
+    finally
+    {
+      group.shutdownGracefully(0, 0, TimeUnit.SECONDS).await();
+    }
+  }
+
+  @Test
+  public void testEpollTransport() throws InterruptedException
+  {
+    requireEpoll();
+    EventLoopGroup group = NettyTransport.EPOLL.newEventLoopGroup(1, "Test");
+    try
+    {
+      Assert.assertTrue(group instanceof EpollEventLoopGroup);
+      Assert.assertEquals(NettyTransport.of(group), NettyTransport.EPOLL);
+      Assert.assertEquals(NettyTransport.EPOLL.socketChannelClass(), EpollSocketChannel.class);
+    }
+    finally
+    {
+      group.shutdownGracefully(0, 0, TimeUnit.SECONDS).await();
+    }
+  }
+
+  @DataProvider
+  public Object[][] transports()
+  {
+    return new Object[][] {
+        { NettyTransport.NIO, false },
+        { NettyTransport.NIO, true },
+        { NettyTransport.EPOLL, false },
+        { NettyTransport.EPOLL, true },
+    };
+  }
+
+  @Test(dataProvider = "transports")
+  public void testRoundTrip(NettyTransport transport, boolean reusePort) throws Exception
+  {
+    if (transport == NettyTransport.EPOLL)
+    {
+      requireEpoll();
+    }
+
+    final int port = freePort();
+    final HttpServer server = new HttpNettyServerBuilder()
+        .filters(FilterChains.empty())
+        .port(port)
+        .transport(transport)
+        .reusePort(reusePort)
+        .acceptorThreads(2)
+        .transportDispatcher(new TransportDispatcherBuilder()
+            .addRestHandler(RESOURCE, (request, requestContext, callback) ->
+                callback.onSuccess(new RestResponseBuilder().setEntity(request.getEntity()).build()))
+            .build())
+        .build();
+    server.start();
+
+    final HttpClientFactory factory = new HttpClientFactory.Builder().setTransport(transport).build();
+    try
+    {
+      final Client client = new TransportClientAdapter(factory.getClient(Collections.<String, Object>emptyMap()));
+      for (int i = 0; i < 4; i++)
+      {
+        final byte[] entity = ("request " + i).getBytes();
+        final RestResponse response = client.restRequest(
+            new RestRequestBuilder(URI.create("http://localhost:" + port + RESOURCE)).setEntity(entity).build())
+            .get(30, TimeUnit.SECONDS);
+        Assert.assertEquals(response.getEntity().copyBytes(), entity);
+      }
+
+      final FutureCallback<None> clientShutdown = new FutureCallback<None>();
+      client.shutdown(clientShutdown);
+      clientShutdown.get(30, TimeUnit.SECONDS);
+    }
+    finally
+    {
+      final FutureCallback<None> factoryShutdown = new FutureCallback<None>();
+      factory.shutdown(factoryShutdown);
+      factoryShutdown.get(30, TimeUnit.SECONDS);
+      server.stop();
+      server.waitForStop();
+    }
+  }
+
+  private static void requireEpoll()
+  {
+    if (!Epoll.isAvailable())
+    {
+      throw new SkipException("The native epoll transport is not available: " + Epoll.unavailabilityCause());
+    }
+  }
+
+  private static int freePort() throws IOException
+  {
+    try (ServerSocket socket = new ServerSocket(0))
+    {
+      return socket.getLocalPort();
+    }
+  }
+}
@@ -17,6 +17,7 @@
 /* $Id$ */
 package test.r2.perf;
 
+import com.linkedin.r2.transport.http.util.NettyTransport;
 import java.lang.reflect.Field;
 import java.net.URI;
 
@@ -42,6 +43,9 @@ public class PerfConfig
   private static final String PERF_SERVER_NUM_HEADERS = "perf.server.num_headers";
   private static final String PERF_CLIENT_HEADER_SIZE = "perf.client.header_size";
   private static final String PERF_SERVER_HEADER_SIZE = "perf.server.header_size";
+  private static final String PERF_TRANSPORT = "perf.transport";
+  private static final String PERF_SERVER_REUSE_PORT = "perf.server.reuse_port";
+  private static final String PERF_SERVER_ACCEPTOR_THREADS = "perf.server.acceptor_threads";
 
   // Default property values
   private static final String DEFAULT_HOST = "localhost";
@@ -60,6 +64,9 @@ public class PerfConfig
   private static final int DEFAULT_SERVER_NUM_HEADERS = 0;
   private static final int DEFAULT_SERVER_HEADER_SIZE = 0;
 
+  private static final String DEFAULT_TRANSPORT = NettyTransport.AUTO.name();
+  private static final int DEFAULT_SERVER_ACCEPTOR_THREADS = 1;
+
   public static int getHttpPort()
   {
     return getInt(PERF_HTTP_PORT);
@@ -140,6 +147,21 @@ public class PerfConfig
     return getBoolean(PERF_SERVER_REST_OVER_STREAM);
   }
 
+  public static NettyTransport getTransport()
+  {
+    return NettyTransport.valueOf(getString(PERF_TRANSPORT).toUpperCase());
+  }
+
+  public static boolean serverReusePort()
+  {
+    return getBoolean(PERF_SERVER_REUSE_PORT);
+  }
+
+  public static int getServerAcceptorThreads()
+  {
+    return getInt(PERF_SERVER_ACCEPTOR_THREADS);
+  }
+
   private static URI getUri(String propName)
   {
     final String propVal = System.getProperty(propName);
@@ -39,7 +39,10 @@ public class PerfClient
     _numThreads = numThreads;
   }
 
-  public void run() throws Exception
+  /**
+   * Sends the requests and returns the statistics of the requests completed after the warmup period.
+   */
+  public Stats run() throws Exception
   {
     final AtomicReference<Stats> statsRef = new AtomicReference<Stats>();
     statsRef.set(new Stats(System.currentTimeMillis()));
@@ -95,6 +98,7 @@ public class PerfClient
     statsTimer.cancel();
     Runtime.getRuntime().removeShutdownHook(shutdownTask);
     resultsTask.run();
+    return statsRef.get();
   }
 
   public void shutdown()
@@ -28,13 +28,13 @@ import com.linkedin.r2.transport.common.TransportClientFactory;
 import com.linkedin.r2.transport.common.bridge.client.TransportClient;
 import com.linkedin.r2.transport.common.bridge.client.TransportClientAdapter;
 import com.linkedin.r2.transport.http.client.HttpClientFactory;
+import com.linkedin.r2.transport.http.util.NettyTransport;
 
 import java.net.URI;
 import java.util.Collections;
 import java.util.concurrent.Executors;
 
 import com.linkedin.r2.util.NamedThreadFactory;
-import io.netty.channel.nio.NioEventLoopGroup;
 import test.r2.perf.Generator;
 import test.r2.perf.PerfConfig;
 
@@ -45,14 +45,7 @@ import test.r2.perf.PerfConfig;
  */
 public class PerfClients
 {
-  private static final TransportClientFactory FACTORY = new HttpClientFactory.Builder()
-      .setNioEventLoopGroup(new NioEventLoopGroup(0 /* use default settings */, new NamedThreadFactory("R2 Nio Event Loop")))
-      .setShutDownFactory(true)
-      .setScheduleExecutorService(Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("R2 Netty Scheduler")))
-      .setShutdownScheduledExecutorService(true)
-      .setCallbackExecutor(Executors.newFixedThreadPool(24))
-      .setShutdownCallbackExecutor(true)
-      .build();
+  private static final TransportClientFactory FACTORY = newFactory(PerfConfig.getTransport());
 
   private static int NUM_CLIENTS = 0;
 
@@ -66,6 +59,29 @@ public class PerfClients
     return new FactoryClient(crf, numThreads);
   }
 
+  /**
+   * Returns a rest client with its own factory on the given transport, which is shut down with the client.
+   */
+  public static PerfClient httpRest(URI uri, NettyTransport transport, int numThreads, int numMsgs, int msgSize,
+                                    int numHeaders, int headerSize)
+  {
+    final TransportClientFactory factory = newFactory(transport);
+    final TransportClient transportClient = factory.getClient(Collections.<String, String>emptyMap());
+    final Client client = new TransportClientAdapter(transportClient, PerfConfig.clientRestOverStream());
+    final Generator<RestRequest> reqGen = new RestRequestGenerator(uri, numMsgs, msgSize, numHeaders, headerSize);
+    final ClientRunnableFactory crf = new RestClientRunnableFactory(client, reqGen);
+
+    return new PerfClient(crf, numThreads)
+    {
+      @Override
+      public void shutdown()
+      {
+        super.shutdown();
+        factory.shutdown(Callbacks.<None>empty());
+      }
+    };
+  }
+
   public static PerfClient httpPureStream(URI uri, int numThreads, int numMsgs, int msgSize, int numHeaders, int headerSize)
   {
     final TransportClient transportClient = FACTORY.getClient(Collections.<String, String>emptyMap());
@@ -76,6 +92,18 @@ public class PerfClients
     return new FactoryClient(crf, numThreads);
   }
 
+  private static TransportClientFactory newFactory(NettyTransport transport)
+  {
+    return new HttpClientFactory.Builder()
+        .setTransport(transport)
+        .setShutDownFactory(true)
+        .setScheduleExecutorService(Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("R2 Netty Scheduler")))
+        .setShutdownScheduledExecutorService(true)
+        .setCallbackExecutor(Executors.newFixedThreadPool(24))
+        .setShutdownCallbackExecutor(true)
+        .build();
+  }
+
   private static class FactoryClient extends PerfClient
   {
     public FactoryClient(ClientRunnableFactory runnableFactory, int numThreads)
@@ -0,0 +1,87 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.perf.driver;
+
+import com.linkedin.r2.transport.common.Server;
+import com.linkedin.r2.transport.http.util.NettyTransport;
+import io.netty.channel.epoll.Epoll;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import test.r2.perf.PerfConfig;
+import test.r2.perf.client.PerfClient;
+import test.r2.perf.client.PerfClients;
+import test.r2.perf.client.Stats;
+import test.r2.perf.server.NettyPerfServerFactory;
+
+
+/**
+ * Measures the rest throughput of a Netty client and server over loopback with the NIO transport and then with
+ * the native epoll transport, if it is available, and prints the results side by side. The server uses
+ * SO_REUSEPORT with epoll when perf.server.reuse_port is set.
+ */
+public class RunNettyTransportBenchmark
+{
+  public static void main(String[] args) throws Exception
+  {
+    final int port = PerfConfig.getHttpPort();
+    final URI relativeUri = PerfConfig.getRelativeUri();
+    final URI uri = URI.create("http://localhost:" + port + relativeUri);
+    final int numThreads = PerfConfig.getNumClientThreads();
+    final int numMsgs = PerfConfig.getNumMessages();
+    final int msgSize = PerfConfig.getMessageSize();
+    final int numHeaders = PerfConfig.getNumHeaders();
+    final int headerSize = PerfConfig.getHeaderSize();
+    final int serverMsgSize = PerfConfig.getServerMessageSize();
+
+    final Map<NettyTransport, Stats> results = new LinkedHashMap<NettyTransport, Stats>();
+    for (NettyTransport transport : new NettyTransport[] { NettyTransport.NIO, NettyTransport.EPOLL })
+    {
+      if (transport == NettyTransport.EPOLL && !Epoll.isAvailable())
+      {
+        System.out.println("Skipping epoll, which is not available: " + Epoll.unavailabilityCause());
+        continue;
+      }
+
+      System.out.println("\n=== " + transport + " ===\n");
+      final Server server = new NettyPerfServerFactory(transport, PerfConfig.serverReusePort(),
+          PerfConfig.getServerAcceptorThreads()).create(port, relativeUri, serverMsgSize);
+      server.start();
+      try
+      {
+        final PerfClient client = PerfClients.httpRest(uri, transport, numThreads, numMsgs, msgSize, numHeaders, headerSize);
+        results.put(transport, client.run());
+        client.shutdown();
+      }
+      finally
+      {
+        server.stop();
+        server.waitForStop();
+      }
+    }
+
+    System.out.println("\nTransport   Reqs / Sec   Mean latency (in millis)   Errors");
+    for (Map.Entry<NettyTransport, Stats> entry : results.entrySet())
+    {
+      final Stats stats = entry.getValue();
+      final double reqPerSec = stats.getElapsedTime() != 0 ? stats.getSuccessCount() * 1000.0 / stats.getElapsedTime() : 0;
+      System.out.printf("%-9s %12.1f %26.3f %8d%n", entry.getKey(), reqPerSec,
+          stats.getLatencyStats().getAverage() / 10E6, stats.getErrorCount());
+    }
+    System.exit(0);
+  }
+}
@@ -0,0 +1,55 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.perf.server;
+
+import com.linkedin.r2.filter.FilterChains;
+import com.linkedin.r2.transport.common.Server;
+import com.linkedin.r2.transport.common.bridge.server.TransportDispatcher;
+import com.linkedin.r2.transport.http.server.HttpNettyServerBuilder;
+import com.linkedin.r2.transport.http.util.NettyTransport;
+
+
+/**
+ * Creates a Netty {@link Server} on the given transport.
+ */
+public class NettyPerfServerFactory extends AbstractPerfServerFactory
+{
+  private final NettyTransport _transport;
+  private final boolean _reusePort;
+  private final int _acceptorThreads;
+
+  public NettyPerfServerFactory(NettyTransport transport, boolean reusePort, int acceptorThreads)
+  {
+    _transport = transport;
+    _reusePort = reusePort;
+    _acceptorThreads = acceptorThreads;
+  }
+
+  @Override
+  protected Server createServer(int port, TransportDispatcher dispatcher, boolean restOverStream)
+  {
+    return new HttpNettyServerBuilder()
+        .filters(FilterChains.empty())
+        .port(port)
+        .transportDispatcher(dispatcher)
+        ._restOverStream(restOverStream)
+        .transport(_transport)
+        .reusePort(_reusePort)
+        .acceptorThreads(_acceptorThreads)
+        .build();
+  }
+}
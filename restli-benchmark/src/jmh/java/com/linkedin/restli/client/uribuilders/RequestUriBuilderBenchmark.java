@@ -0,0 +1,135 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.client.uribuilders;
+
+import com.linkedin.data.schema.PathSpec;
+import com.linkedin.restli.client.BatchGetEntityRequestBuilder;
+import com.linkedin.restli.client.FindRequestBuilder;
+import com.linkedin.restli.client.GetRequestBuilder;
+import com.linkedin.restli.client.Request;
+import com.linkedin.restli.client.RestliRequestOptions;
+import com.linkedin.restli.common.CompoundKey;
+import com.linkedin.restli.common.EmptyRecord;
+import com.linkedin.restli.common.ProtocolVersion;
+import com.linkedin.restli.common.ResourceMethod;
+import com.linkedin.restli.common.ResourceSpec;
+import com.linkedin.restli.common.ResourceSpecImpl;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the building of the URIs of typical client requests by {@link RestliUriBuilderUtil}: a batch get of
+ * {@link #BATCH_SIZE} keys, a finder with query parameters and a projection, and a get of an association entity
+ * under a path key.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RequestUriBuilderBenchmark
+{
+  private static final int BATCH_SIZE = 200;
+  private static final String URI_PREFIX = "d2://";
+
+  @Param({ "1.0.0", "2.0.0" })
+  private String _protocolVersion;
+
+  private ProtocolVersion _version;
+  private Request<?> _batchGet;
+  private Request<?> _finder;
+  private Request<?> _associationGet;
+
+  @Setup
+  public void setUp()
+  {
+    _version = new ProtocolVersion(_protocolVersion);
+
+    final ResourceSpec collectionSpec = new ResourceSpecImpl(EnumSet.allOf(ResourceMethod.class),
+        Collections.emptyMap(), Collections.emptyMap(), Long.class, null, null, EmptyRecord.class,
+        Collections.<String, Class<?>>emptyMap());
+    final List<Long> ids = new ArrayList<>(BATCH_SIZE);
+    for (long id = 0; id < BATCH_SIZE; id++)
+    {
+      ids.add(1000000L + id);
+    }
+    _batchGet = new BatchGetEntityRequestBuilder<Long, EmptyRecord>("greetings", collectionSpec,
+        RestliRequestOptions.DEFAULT_OPTIONS)
+        .ids(ids)
+        .build();
+
+    _finder = new FindRequestBuilder<Long, EmptyRecord>("greetings", EmptyRecord.class, collectionSpec,
+        RestliRequestOptions.DEFAULT_OPTIONS)
+        .name("search")
+        .setParam("keywords", "hello world & more")
+        .setParam("tone", "FRIENDLY")
+        .addParam("ids", 1L)
+        .addParam("ids", 2L)
+        .paginate(20, 10)
+        .fields(new PathSpec("message"), new PathSpec("tone"), new PathSpec("sender", "name"))
+        .build();
+
+    final Map<String, Object> keyParts = new HashMap<>();
+    keyParts.put("src", Long.class);
+    keyParts.put("dest", Long.class);
+    final ResourceSpec associationSpec = new ResourceSpecImpl(EnumSet.allOf(ResourceMethod.class),
+        Collections.emptyMap(), Collections.emptyMap(), CompoundKey.class, null, null, EmptyRecord.class,
+        keyParts);
+    _associationGet = new GetRequestBuilder<CompoundKey, EmptyRecord>("groups/{groupId}/memberships",
+        EmptyRecord.class, associationSpec, RestliRequestOptions.DEFAULT_OPTIONS)
+        .id(new CompoundKey().append("src", 42L).append("dest", 4242L))
+        .pathKey("groupId", 7L)
+        .build();
+  }
+
+  @Benchmark
+  public URI batchGet()
+  {
+    return RestliUriBuilderUtil.createUriBuilder(_batchGet, URI_PREFIX, _version).build();
+  }
+
+  @Benchmark
+  public URI finder()
+  {
+    return RestliUriBuilderUtil.createUriBuilder(_finder, URI_PREFIX, _version).build();
+  }
+
+  @Benchmark
+  public URI associationGet()
+  {
+    return RestliUriBuilderUtil.createUriBuilder(_associationGet, URI_PREFIX, _version).build();
+  }
+}
@@ -0,0 +1,90 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server;
+
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.restli.common.RestConstants;
+import com.linkedin.restli.example.impl.AlbumEntryResource;
+import com.linkedin.restli.example.impl.AlbumResource;
+import com.linkedin.restli.example.impl.PhotoResource;
+import com.linkedin.restli.internal.common.AllProtocolVersions;
+import com.linkedin.restli.internal.server.model.ResourceMethodDescriptor;
+import com.linkedin.restli.internal.server.model.RestLiApiBuilder;
+import com.linkedin.restli.internal.server.util.RestLiSyntaxException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the routing by {@link RestLiRouter} of requests to the resources of restli-example-server, including
+ * the creation of the resource context of each request, which the router fills with the keys of the path.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RestLiRouterBenchmark
+{
+  @Param({
+      "GET /photos/1",
+      "GET /photos?q=titleAndOrFormat&title=foo",
+      "POST /photos?action=purge",
+      "GET /albums/1",
+      "GET /albumEntry/(albumId:1,photoId:2)"
+  })
+  String _request;
+
+  private RestLiRouter _router;
+  private RestRequest _restRequest;
+
+  @Setup
+  public void setUp()
+  {
+    _router = new RestLiRouter(RestLiApiBuilder.buildResourceModels(
+        new HashSet<>(Arrays.<Class<?>>asList(PhotoResource.class, AlbumResource.class, AlbumEntryResource.class))));
+
+    final String[] methodAndUri = _request.split(" ");
+    _restRequest = new RestRequestBuilder(URI.create(methodAndUri[1]))
+        .setMethod(methodAndUri[0])
+        .setHeader(RestConstants.HEADER_RESTLI_PROTOCOL_VERSION,
+            AllProtocolVersions.RESTLI_PROTOCOL_2_0_0.getProtocolVersion().toString())
+        .build();
+  }
+
+  @Benchmark
+  public ResourceMethodDescriptor route() throws RestLiSyntaxException
+  {
+    return _router.process(new ResourceContextImpl(new PathKeysImpl(), _restRequest, new RequestContext()));
+  }
+}
@@ -0,0 +1,115 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.server;
+
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.restli.common.EmptyRecord;
+import com.linkedin.restli.common.ResourceMethod;
+import com.linkedin.restli.common.RestConstants;
+import com.linkedin.restli.internal.common.AllProtocolVersions;
+import com.linkedin.restli.internal.server.model.ResourceMethodDescriptor;
+import com.linkedin.restli.server.annotations.RestLiCollection;
+import com.linkedin.restli.server.resources.CollectionResourceTemplate;
+import com.linkedin.restli.server.resources.PrototypeResourceFactory;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the in-process dispatch of a GET request by {@link RestLiServer} to a synchronous resource method,
+ * and the invocation of that method alone through reflection and through its {@link ResourceMethodDescriptor}.
+ * Running the dispatch benchmark on a revision invoking resource methods through reflection gives the baseline
+ * of the end-to-end dispatch.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ResourceMethodInvocationBenchmark
+{
+  private RestLiServer _server;
+  private RestRequest _request;
+  private Method _method;
+  private ResourceMethodDescriptor _descriptor;
+  private GreetingsResource _resource;
+  private long _key;
+
+  @Setup
+  public void setUp() throws NoSuchMethodException
+  {
+    final RestLiConfig config = new RestLiConfig();
+    config.addResourceClassNames(GreetingsResource.class.getName());
+    _server = new RestLiServer(config, new PrototypeResourceFactory(), null);
+    _request = new RestRequestBuilder(URI.create("/greetings/1"))
+        .setHeader(RestConstants.HEADER_RESTLI_PROTOCOL_VERSION, AllProtocolVersions.LATEST_PROTOCOL_VERSION.toString())
+        .build();
+
+    _method = GreetingsResource.class.getMethod("get", Long.class);
+    _descriptor = ResourceMethodDescriptor.createForRestful(ResourceMethod.GET, _method,
+        ResourceMethodDescriptor.InterfaceType.SYNC);
+    _resource = new GreetingsResource();
+  }
+
+  @Benchmark
+  public RestResponse dispatch() throws Exception
+  {
+    final FutureCallback<RestResponse> callback = new FutureCallback<>();
+    _server.handleRequest(_request, new RequestContext(), callback);
+    return callback.get();
+  }
+
+  @Benchmark
+  public Object invokeReflection() throws Exception
+  {
+    return _method.invoke(_resource, new Object[] { ++_key });
+  }
+
+  @Benchmark
+  public Object invokeDescriptor() throws Exception
+  {
+    return _descriptor.invoke(_resource, new Object[] { ++_key });
+  }
+
+  @RestLiCollection(name = "greetings")
+  public static class GreetingsResource extends CollectionResourceTemplate<Long, EmptyRecord>
+  {
+    private static final EmptyRecord RECORD = new EmptyRecord();
+
+    @Override
+    public EmptyRecord get(Long key)
+    {
+      return RECORD;
+    }
+  }
+}
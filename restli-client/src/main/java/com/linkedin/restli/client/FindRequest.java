@@ -59,7 +59,8 @@ public class FindRequest<T extends RecordTemplate>
           null,
           headers,
           cookies,
-          new CollectionResponseDecoder<T>(templateClass),
+          new CollectionResponseDecoder<T>(templateClass,
+              (requestOptions == null) ? ResponseDecodingOption.GENERIC : requestOptions.getResponseDecodingOption()),
           resourceSpec,
           queryParams,
           queryParamClasses,
@@ -51,7 +51,8 @@ public class GetAllRequest<T extends RecordTemplate> extends
           null,
           headers,
           cookies,
-          new CollectionResponseDecoder<T>(templateClass),
+          new CollectionResponseDecoder<T>(templateClass,
+              (requestOptions == null) ? ResponseDecodingOption.GENERIC : requestOptions.getResponseDecodingOption()),
           resourceSpec,
           queryParams,
           queryParamClasses,
@@ -55,7 +55,8 @@ public class GetRequest<T extends RecordTemplate> extends Request<T>
           null,
           headers,
           cookies,
-          new EntityResponseDecoder<T>(templateClass),
+          new EntityResponseDecoder<T>(templateClass,
+              (requestOptions == null) ? ResponseDecodingOption.GENERIC : requestOptions.getResponseDecodingOption()),
           resourceSpec,
           queryParams,
           queryParamClasses,
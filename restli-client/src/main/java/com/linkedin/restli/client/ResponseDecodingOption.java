@@ -0,0 +1,45 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.client;
+
+
+/**
+ * Controls how the entities of JSON responses are decoded, see {@link RestliRequestOptionsBuilder#setResponseDecodingOption}.
+ * Only responses of GET, FINDER and GET_ALL requests support schema-aware decoding, other responses are always
+ * decoded generically.
+ */
+public enum ResponseDecodingOption
+{
+  /**
+   * Decode the response into a schema-less {@link com.linkedin.data.DataMap}, values are coerced to the types of
+   * the schema when they are read from the record templates.
+   */
+  GENERIC,
+
+  /**
+   * Decode the response with {@link com.linkedin.data.codec.JacksonSchemaDataDecoder}, which sizes records, shares
+   * field names and coerces values using the schema of the response entity while parsing.
+   */
+  SCHEMA_AWARE,
+
+  /**
+   * Same as {@link #SCHEMA_AWARE}, and drop fields that are not defined by the schema of the response entity.
+   * CAUTION: the dropped fields are not available to the application, for example when the server runs a newer
+   * version of the schema.
+   */
+  SCHEMA_AWARE_SKIP_UNKNOWN_FIELDS
+}
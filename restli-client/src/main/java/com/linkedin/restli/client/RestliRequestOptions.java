@@ -37,6 +37,7 @@ public class RestliRequestOptions
   private final ContentType _contentType;
   private final List<ContentType> _acceptTypes;
   private final boolean _acceptResponseAttachments;
+  private final ResponseDecodingOption _responseDecodingOption;
 
   public static final RestliRequestOptions DEFAULT_OPTIONS
       = new RestliRequestOptions(ProtocolVersionOption.USE_LATEST_IF_AVAILABLE, null, null, null, null, false);
@@ -75,6 +76,23 @@ public class RestliRequestOptions
                        ContentType contentType,
                        List<ContentType> acceptTypes,
                        boolean acceptResponseAttachments)
+  {
+    this(protocolVersionOption, requestCompressionOverride, responseCompressionOverride, contentType, acceptTypes,
+        acceptResponseAttachments, null);
+  }
+
+  /**
+   * Same as {@link #RestliRequestOptions(ProtocolVersionOption, CompressionOption, CompressionOption, ContentType, List, boolean)},
+   * with the option controlling how response entities are decoded.
+   * @param responseDecodingOption how response entities are decoded, defaults to {@link ResponseDecodingOption#GENERIC}
+   */
+  RestliRequestOptions(ProtocolVersionOption protocolVersionOption,
+                       CompressionOption requestCompressionOverride,
+                       CompressionOption responseCompressionOverride,
+                       ContentType contentType,
+                       List<ContentType> acceptTypes,
+                       boolean acceptResponseAttachments,
+                       ResponseDecodingOption responseDecodingOption)
   {
     _protocolVersionOption =
         (protocolVersionOption == null) ? ProtocolVersionOption.USE_LATEST_IF_AVAILABLE : protocolVersionOption;
@@ -83,6 +101,8 @@ public class RestliRequestOptions
     _contentType = contentType;
     _acceptTypes = acceptTypes;
     _acceptResponseAttachments = acceptResponseAttachments;
+    _responseDecodingOption =
+        (responseDecodingOption == null) ? ResponseDecodingOption.GENERIC : responseDecodingOption;
   }
 
   public ProtocolVersionOption getProtocolVersionOption()
@@ -115,6 +135,11 @@ public class RestliRequestOptions
     return _acceptResponseAttachments;
   }
 
+  public ResponseDecodingOption getResponseDecodingOption()
+  {
+    return _responseDecodingOption;
+  }
+
   @Override
   public boolean equals(Object o)
   {
@@ -153,6 +178,10 @@ public class RestliRequestOptions
     {
       return false;
     }
+    if (_responseDecodingOption != that._responseDecodingOption)
+    {
+      return false;
+    }
 
     return true;
   }
@@ -166,6 +195,7 @@ public class RestliRequestOptions
     result = 31 * result + (_contentType != null ? _contentType.hashCode() : 0);
     result = 31 * result + (_acceptTypes != null ? _acceptTypes.hashCode() : 0);
     result = 31 * result + (_acceptResponseAttachments ? 1 : 0);
+    result = 31 * result + _responseDecodingOption.hashCode();
     return result;
   }
 
@@ -179,6 +209,7 @@ public class RestliRequestOptions
         ", _contentType=" + _contentType +
         ", _acceptTypes=" + _acceptTypes +
         ", _acceptResponseAttachments=" + _acceptResponseAttachments +
+        ", _responseDecodingOption=" + _responseDecodingOption +
         '}';
   }
 }
\ No newline at end of file
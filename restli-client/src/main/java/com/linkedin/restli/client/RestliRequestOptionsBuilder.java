@@ -38,6 +38,7 @@ public class RestliRequestOptionsBuilder
   private List<ContentType> _acceptTypes;
   private CompressionOption _responseCompressionOverride;
   private boolean _acceptResponseAttachments = false;
+  private ResponseDecodingOption _responseDecodingOption;
 
   public RestliRequestOptionsBuilder()
   {
@@ -51,6 +52,7 @@ public class RestliRequestOptionsBuilder
     setContentType(restliRequestOptions.getContentType());
     setAcceptTypes(restliRequestOptions.getAcceptTypes());
     setAcceptResponseAttachments(restliRequestOptions.getAcceptResponseAttachments());
+    setResponseDecodingOption(restliRequestOptions.getResponseDecodingOption());
   }
 
   public RestliRequestOptionsBuilder setProtocolVersionOption(ProtocolVersionOption protocolVersionOption)
@@ -124,10 +126,17 @@ public class RestliRequestOptionsBuilder
     return this;
   }
 
+  public RestliRequestOptionsBuilder setResponseDecodingOption(ResponseDecodingOption responseDecodingOption)
+  {
+    _responseDecodingOption = responseDecodingOption;
+    return this;
+  }
+
   public RestliRequestOptions build()
   {
     return new RestliRequestOptions(_protocolVersionOption, _requestCompressionOverride, _responseCompressionOverride,
-        _contentType, _acceptTypes != null ? Collections.unmodifiableList(_acceptTypes) : null, _acceptResponseAttachments);
+        _contentType, _acceptTypes != null ? Collections.unmodifiableList(_acceptTypes) : null, _acceptResponseAttachments,
+        _responseDecodingOption);
   }
 
   public ProtocolVersionOption getProtocolVersionOption()
@@ -159,4 +168,9 @@ public class RestliRequestOptionsBuilder
   {
     return _acceptResponseAttachments;
   }
+
+  public ResponseDecodingOption getResponseDecodingOption()
+  {
+    return _responseDecodingOption;
+  }
 }
@@ -18,9 +18,7 @@ package com.linkedin.restli.client.uribuilders;
 
 
 import com.linkedin.data.DataMap;
-import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.jersey.api.uri.UriComponent;
-import com.linkedin.jersey.api.uri.UriTemplate;
 import com.linkedin.restli.client.Request;
 import com.linkedin.restli.common.CompoundKey;
 import com.linkedin.restli.common.ProtocolVersion;
@@ -43,6 +41,11 @@ abstract class AbstractRestliRequestUriBuilder<R extends Request<?>> implements
   protected final ProtocolVersion _version;
   protected final CompoundKey _assocKey; // can be null
 
+  private static final int INITIAL_URI_BUILDER_CAPACITY = 256;
+  private static final int MAX_REUSED_URI_BUILDER_CAPACITY = 64 * 1024;
+  private static final ThreadLocal<StringBuilder> _uriBuilder =
+      ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_URI_BUILDER_CAPACITY));
+
   private final String _uriPrefix;
 
   AbstractRestliRequestUriBuilder(R request, String uriPrefix, ProtocolVersion version)
@@ -74,41 +77,59 @@ abstract class AbstractRestliRequestUriBuilder<R extends Request<?>> implements
     return _request;
   }
 
-  private String bindPathKeys()
+  private StringBuilder bindPathKeys(StringBuilder uri)
+  {
+    CompiledUriTemplate.forTemplate(_request.getBaseUriTemplate()).bind(uri, _request.getPathKeys(), _version);
+    return uri;
+  }
+
+  /**
+   * Starts building the URI of the request, from the prefix and the base URI with the path keys bound, into a
+   * builder reused by the calling thread. The URI must be completed with {@link #toUri(StringBuilder)} before
+   * building another one on the same thread.
+   */
+  protected final StringBuilder startUri()
   {
-    UriTemplate template = new UriTemplate(_request.getBaseUriTemplate());
-    return template.createURI(URIParamUtils.encodePathKeysForUri(_request.getPathKeys(), _version));
+    StringBuilder uri = _uriBuilder.get();
+    if (uri.capacity() > MAX_REUSED_URI_BUILDER_CAPACITY)
+    {
+      uri = new StringBuilder(INITIAL_URI_BUILDER_CAPACITY);
+      _uriBuilder.set(uri);
+    }
+    uri.setLength(0);
+    uri.append(_uriPrefix);
+    return bindPathKeys(uri);
   }
 
-  private final String addPrefix(String uri)
+  protected final URI toUri(StringBuilder uri)
   {
-    return _uriPrefix + uri;
+    return URI.create(uri.toString());
   }
 
-  protected void appendKeyToPath(UriBuilder uriBuilder, Object key)
+  protected void appendKeyToPath(StringBuilder uri, Object key)
   {
     if (!_request.getResourceProperties().isKeylessResource())
     {
-      uriBuilder.path(URIParamUtils.encodeKeyForUri(key, UriComponent.Type.PATH_SEGMENT, _version));
+      appendPathSegment(uri, URIParamUtils.encodeKeyForUri(key, UriComponent.Type.PATH_SEGMENT, _version));
     }
   }
 
-  protected void appendQueryParams(UriBuilder b)
+  protected void appendQueryParams(StringBuilder uri)
   {
     DataMap params = QueryParamsUtil.convertToDataMap(_request.getQueryParamsObjects(),
                                                       _request.getQueryParamClasses(),
                                                       _version);
     if (_version.compareTo(AllProtocolVersions.RESTLI_PROTOCOL_2_0_0.getProtocolVersion()) >= 0)
     {
-      URIParamUtils.addSortedParams(b, params);
+      URIParamUtils.appendSortedParams(uri, params);
     }
     else
     {
-      QueryParamsDataMap.addSortedParams(b, params);
+      QueryParamsDataMap.appendSortedParams(uri, params);
     }
   }
 
-  protected final void appendAssocKeys(UriBuilder uriBuilder)
+  protected final void appendAssocKeys(StringBuilder uri)
   {
     if (_assocKey == null)
     {
@@ -116,18 +137,38 @@ abstract class AbstractRestliRequestUriBuilder<R extends Request<?>> implements
     }
     if (_assocKey.getNumParts() != 0)
     {
-      uriBuilder.path(URIParamUtils.encodeKeyForUri(_assocKey, UriComponent.Type.PATH_SEGMENT, _version));
+      appendPathSegment(uri, URIParamUtils.encodeKeyForUri(_assocKey, UriComponent.Type.PATH_SEGMENT, _version));
+    }
+  }
+
+  /**
+   * Appends an escaped segment to the path the same way as {@link com.linkedin.jersey.api.uri.UriBuilder#path(String)}.
+   */
+  private static void appendPathSegment(StringBuilder uri, String segment)
+  {
+    if (segment == null)
+    {
+      throw new IllegalArgumentException("Path segment is null");
+    }
+    if (segment.isEmpty())
+    {
+      return;
+    }
+    if (uri.length() > 0 && uri.charAt(uri.length() - 1) != '/')
+    {
+      uri.append('/');
     }
+    uri.append(segment);
   }
 
   @Override
   public URI buildBaseUri()
   {
-    return URI.create(bindPathKeys());
+    return toUri(bindPathKeys(new StringBuilder()));
   }
 
   public URI buildBaseUriWithPrefix()
   {
-    return URI.create(addPrefix(bindPathKeys()));
+    return toUri(bindPathKeys(new StringBuilder(_uriPrefix)));
   }
 }
@@ -17,7 +17,6 @@
 package com.linkedin.restli.client.uribuilders;
 
 
-import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.jersey.api.uri.UriComponent;
 import com.linkedin.restli.client.ActionRequest;
 import com.linkedin.restli.common.ProtocolVersion;
@@ -40,12 +39,12 @@ class ActionRequestUriBuilder extends AbstractRestliRequestUriBuilder<ActionRequ
   public URI build()
   {
     ActionRequest<?> actionRequest = getRequest();
-    UriBuilder b = UriBuilder.fromUri(buildBaseUriWithPrefix());
+    StringBuilder b = startUri();
     if (actionRequest.getId() != null)
     {
       appendKeyToPath(b, actionRequest.getId());
     }
     appendQueryParams(b);
-    return b.build();
+    return toUri(b);
   }
 }
@@ -16,7 +16,6 @@
 
 package com.linkedin.restli.client.uribuilders;
 
-import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.restli.client.BatchCreateIdEntityRequest;
 import com.linkedin.restli.common.ProtocolVersion;
 
@@ -36,8 +35,8 @@ public class BatchCreateIdEntityRequestUriBuilder extends AbstractRestliRequestU
   @Override
   public URI build()
   {
-    UriBuilder b = UriBuilder.fromUri(buildBaseUriWithPrefix());
+    StringBuilder b = startUri();
     appendQueryParams(b);
-    return b.build();
+    return toUri(b);
   }
 }
\ No newline at end of file
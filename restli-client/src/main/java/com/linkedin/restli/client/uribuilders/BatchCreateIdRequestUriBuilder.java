@@ -17,7 +17,6 @@
 package com.linkedin.restli.client.uribuilders;
 
 
-import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.restli.client.BatchCreateIdRequest;
 import com.linkedin.restli.common.ProtocolVersion;
 
@@ -38,8 +37,8 @@ public class BatchCreateIdRequestUriBuilder extends AbstractRestliRequestUriBuil
   @Override
   public URI build()
   {
-    UriBuilder b = UriBuilder.fromUri(buildBaseUriWithPrefix());
+    StringBuilder b = startUri();
     appendQueryParams(b);
-    return b.build();
+    return toUri(b);
   }
 }
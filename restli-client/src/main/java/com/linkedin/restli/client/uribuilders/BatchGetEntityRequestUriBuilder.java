@@ -17,7 +17,6 @@
 package com.linkedin.restli.client.uribuilders;
 
 
-import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.restli.client.BatchGetEntityRequest;
 import com.linkedin.restli.common.ProtocolVersion;
 
@@ -37,8 +36,8 @@ public class BatchGetEntityRequestUriBuilder extends AbstractRestliRequestUriBui
   @Override
   public URI build()
   {
-    final UriBuilder builder = UriBuilder.fromUri(buildBaseUriWithPrefix());
+    final StringBuilder builder = startUri();
     appendQueryParams(builder);
-    return builder.build();
+    return toUri(builder);
   }
 }
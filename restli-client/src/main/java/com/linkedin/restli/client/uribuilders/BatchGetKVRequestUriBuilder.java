@@ -17,7 +17,6 @@
 package com.linkedin.restli.client.uribuilders;
 
 
-import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.restli.client.BatchGetKVRequest;
 import com.linkedin.restli.common.ProtocolVersion;
 import java.net.URI;
@@ -36,8 +35,8 @@ public class BatchGetKVRequestUriBuilder extends AbstractRestliRequestUriBuilder
   @Override
   public URI build()
   {
-    UriBuilder b = UriBuilder.fromUri(buildBaseUriWithPrefix());
+    StringBuilder b = startUri();
     appendQueryParams(b);
-    return b.build();
+    return toUri(b);
   }
 }
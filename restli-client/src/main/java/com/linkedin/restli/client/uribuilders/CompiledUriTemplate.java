@@ -0,0 +1,112 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.linkedin.restli.client.uribuilders;
+
+
+import com.linkedin.jersey.api.uri.UriComponent;
+import com.linkedin.jersey.api.uri.UriTemplateParser;
+import com.linkedin.restli.common.ProtocolVersion;
+import com.linkedin.restli.internal.common.URIParamUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * The base URI template of requests, compiled once into its literal parts and variable names, which binds the
+ * path keys of a request straight into the URI being built.
+ *
+ * Request builders share their base URI template with all their requests, so compiled templates are cached by
+ * template.
+ */
+class CompiledUriTemplate
+{
+  private static final Pattern TEMPLATE_NAMES_PATTERN = Pattern.compile("\\{(\\w[-\\w\\.]*)\\}");
+  private static final int MAX_CACHED_TEMPLATES = 1024;
+  private static final ConcurrentMap<String, CompiledUriTemplate> _templates = new ConcurrentHashMap<>();
+
+  // the literal parts surrounding the variables, which are one more than the variables
+  private final String[] _literals;
+  private final String[] _variables;
+
+  private CompiledUriTemplate(String template)
+  {
+    final String normalizedTemplate = new UriTemplateParser(template).getNormalizedTemplate();
+    final List<String> literals = new ArrayList<>();
+    final List<String> variables = new ArrayList<>();
+    final Matcher matcher = TEMPLATE_NAMES_PATTERN.matcher(normalizedTemplate);
+    int literalStart = 0;
+    while (matcher.find())
+    {
+      literals.add(normalizedTemplate.substring(literalStart, matcher.start()));
+      variables.add(matcher.group(1));
+      literalStart = matcher.end();
+    }
+    literals.add(normalizedTemplate.substring(literalStart));
+
+    _literals = literals.toArray(new String[literals.size()]);
+    _variables = variables.toArray(new String[variables.size()]);
+  }
+
+  /**
+   * @param template base URI template of a request
+   * @throws IllegalArgumentException if the template is empty or invalid
+   */
+  static CompiledUriTemplate forTemplate(String template)
+  {
+    CompiledUriTemplate compiled = _templates.get(template);
+    if (compiled == null)
+    {
+      compiled = new CompiledUriTemplate(template);
+      // templates are normally constants of the request builders, the bound only guards against dynamic ones
+      if (_templates.size() < MAX_CACHED_TEMPLATES)
+      {
+        _templates.putIfAbsent(template, compiled);
+      }
+    }
+    return compiled;
+  }
+
+  /**
+   * Appends the template to the URI with its variables replaced by the escaped path keys of the same name,
+   * or by nothing for variables without path key.
+   *
+   * @throws IllegalArgumentException if a path key has no value
+   */
+  void bind(StringBuilder uri, Map<String, Object> pathKeys, ProtocolVersion version)
+  {
+    uri.append(_literals[0]);
+    for (int i = 0; i < _variables.length; i++)
+    {
+      if (pathKeys.containsKey(_variables[i]))
+      {
+        final String value =
+            URIParamUtils.encodeKeyForUri(pathKeys.get(_variables[i]), UriComponent.Type.PATH_SEGMENT, version);
+        if (value == null)
+        {
+          throw new IllegalArgumentException("Missing value for path key " + _variables[i]);
+        }
+        uri.append(value);
+      }
+      uri.append(_literals[i + 1]);
+    }
+  }
+}
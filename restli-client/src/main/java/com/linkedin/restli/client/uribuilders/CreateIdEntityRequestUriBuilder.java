@@ -1,6 +1,5 @@
 package com.linkedin.restli.client.uribuilders;
 
-import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.restli.client.CreateIdEntityRequest;
 import com.linkedin.restli.common.ProtocolVersion;
 
@@ -19,8 +18,8 @@ public class CreateIdEntityRequestUriBuilder extends AbstractRestliRequestUriBui
   @Override
   public URI build()
   {
-    UriBuilder b = UriBuilder.fromUri(buildBaseUriWithPrefix());
+    StringBuilder b = startUri();
     appendQueryParams(b);
-    return b.build();
+    return toUri(b);
   }
 }
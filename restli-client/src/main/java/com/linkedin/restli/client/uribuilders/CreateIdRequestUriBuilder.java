@@ -17,7 +17,6 @@
 package com.linkedin.restli.client.uribuilders;
 
 
-import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.restli.client.CreateIdRequest;
 import com.linkedin.restli.common.ProtocolVersion;
 
@@ -37,8 +36,8 @@ public class CreateIdRequestUriBuilder extends AbstractRestliRequestUriBuilder<C
   @Override
   public URI build()
   {
-    UriBuilder b = UriBuilder.fromUri(buildBaseUriWithPrefix());
+    StringBuilder b = startUri();
     appendQueryParams(b);
-    return b.build();
+    return toUri(b);
   }
 }
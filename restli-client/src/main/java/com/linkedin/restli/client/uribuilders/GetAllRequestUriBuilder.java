@@ -17,7 +17,6 @@
 package com.linkedin.restli.client.uribuilders;
 
 
-import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.restli.client.GetAllRequest;
 import com.linkedin.restli.common.ProtocolVersion;
 import java.net.URI;
@@ -36,9 +35,9 @@ class GetAllRequestUriBuilder extends AbstractRestliRequestUriBuilder<GetAllRequ
   @Override
   public URI build()
   {
-    UriBuilder b = UriBuilder.fromUri(buildBaseUriWithPrefix());
+    StringBuilder b = startUri();
     appendAssocKeys(b);
     appendQueryParams(b);
-    return b.build();
+    return toUri(b);
   }
 }
@@ -17,7 +17,6 @@
 package com.linkedin.restli.client.uribuilders;
 
 
-import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.restli.client.GetRequest;
 import com.linkedin.restli.common.ProtocolVersion;
 import java.net.URI;
@@ -37,9 +36,9 @@ class GetRequestUriBuilder extends AbstractRestliRequestUriBuilder<GetRequest<?>
   public URI build()
   {
     GetRequest<?> getRequest = getRequest();
-    UriBuilder b = UriBuilder.fromUri(buildBaseUriWithPrefix());
+    StringBuilder b = startUri();
     appendKeyToPath(b, getRequest.getObjectId());
     appendQueryParams(b);
-    return b.build();
+    return toUri(b);
   }
 }
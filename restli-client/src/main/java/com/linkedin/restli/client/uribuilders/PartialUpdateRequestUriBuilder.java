@@ -17,7 +17,6 @@
 package com.linkedin.restli.client.uribuilders;
 
 
-import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.restli.client.PartialUpdateRequest;
 import com.linkedin.restli.common.ProtocolVersion;
 import java.net.URI;
@@ -37,9 +36,9 @@ class PartialUpdateRequestUriBuilder extends AbstractRestliRequestUriBuilder<Par
   public URI build()
   {
     PartialUpdateRequest<?> partialUpdateRequest = getRequest();
-    UriBuilder b = UriBuilder.fromUri(buildBaseUriWithPrefix());
+    StringBuilder b = startUri();
     appendKeyToPath(b, partialUpdateRequest.getId());
     appendQueryParams(b);
-    return b.build();
+    return toUri(b);
   }
 }
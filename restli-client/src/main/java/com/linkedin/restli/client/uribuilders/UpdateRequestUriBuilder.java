@@ -17,7 +17,6 @@
 package com.linkedin.restli.client.uribuilders;
 
 
-import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.restli.client.UpdateRequest;
 import com.linkedin.restli.common.ProtocolVersion;
 import java.net.URI;
@@ -37,9 +36,9 @@ public class UpdateRequestUriBuilder extends AbstractRestliRequestUriBuilder<Upd
   public URI build()
   {
     UpdateRequest<?> updateRequest = getRequest();
-    UriBuilder b = UriBuilder.fromUri(buildBaseUriWithPrefix());
+    StringBuilder b = startUri();
     appendKeyToPath(b, updateRequest.getId());
     appendQueryParams(b);
-    return b.build();
+    return toUri(b);
   }
 }
@@ -21,13 +21,21 @@
 package com.linkedin.restli.internal.client;
 
 import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.SchemaDecodingPlan;
+import com.linkedin.data.schema.ArrayDataSchema;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.template.DataTemplateUtil;
 import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.restli.client.ResponseDecodingOption;
+import com.linkedin.restli.common.CollectionMetadata;
 import com.linkedin.restli.common.CollectionResponse;
 import com.linkedin.restli.common.ProtocolVersion;
 import com.linkedin.restli.common.RestConstants;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -38,11 +46,36 @@ import java.util.Map;
 
 public class CollectionResponseDecoder<T extends RecordTemplate> extends RestResponseDecoder<CollectionResponse<T>>
 {
+  private static final Map<Class<?>, SchemaDecodingPlan> _plans = new ConcurrentHashMap<>();
+  private static final Map<Class<?>, SchemaDecodingPlan> _plansSkippingUnknownFields = new ConcurrentHashMap<>();
+
   private final Class<T> _elementClass;
+  private final SchemaDecodingPlan _schemaDecodingPlan;
 
   public CollectionResponseDecoder(Class<T> elementClass)
+  {
+    this(elementClass, ResponseDecodingOption.GENERIC);
+  }
+
+  public CollectionResponseDecoder(Class<T> elementClass, ResponseDecodingOption responseDecodingOption)
   {
     _elementClass = elementClass;
+    _schemaDecodingPlan = (responseDecodingOption == ResponseDecodingOption.GENERIC) ? null :
+        getPlan(elementClass, responseDecodingOption == ResponseDecodingOption.SCHEMA_AWARE_SKIP_UNKNOWN_FIELDS);
+  }
+
+  private static SchemaDecodingPlan getPlan(Class<? extends RecordTemplate> elementClass, boolean skipUnknownFields)
+  {
+    Map<Class<?>, SchemaDecodingPlan> plans = skipUnknownFields ? _plansSkippingUnknownFields : _plans;
+    SchemaDecodingPlan plan = plans.get(elementClass);
+    return (plan != null) ? plan : plans.computeIfAbsent(elementClass, key ->
+    {
+      // custom metadata has no schema known to the client and is decoded generically
+      Map<String, DataSchema> fieldSchemas = new HashMap<>();
+      fieldSchemas.put(CollectionResponse.ELEMENTS, new ArrayDataSchema(DataTemplateUtil.getSchema(elementClass)));
+      fieldSchemas.put(CollectionResponse.PAGING, DataTemplateUtil.getSchema(CollectionMetadata.class));
+      return SchemaDecodingPlan.forEnvelope(fieldSchemas, skipUnknownFields);
+    });
   }
 
   @Override
@@ -51,6 +84,12 @@ public class CollectionResponseDecoder<T extends RecordTemplate> extends RestRes
     return _elementClass;
   }
 
+  @Override
+  protected SchemaDecodingPlan getSchemaDecodingPlan()
+  {
+    return _schemaDecodingPlan;
+  }
+
   @Override
   public CollectionResponse<T> wrapResponse(DataMap dataMap, Map<String, String> headers, ProtocolVersion version)
       throws NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException
@@ -24,7 +24,9 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.Map;
 
 import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.SchemaDecodingPlan;
 import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.restli.client.ResponseDecodingOption;
 import com.linkedin.restli.common.ProtocolVersion;
 import com.linkedin.restli.common.RestConstants;
 
@@ -37,10 +39,19 @@ import com.linkedin.restli.common.RestConstants;
 public class EntityResponseDecoder<T extends RecordTemplate> extends RestResponseDecoder<T>
 {
   private final Class<T> _entityClass;
+  private final SchemaDecodingPlan _schemaDecodingPlan;
 
   public EntityResponseDecoder(Class<T> templateClass)
+  {
+    this(templateClass, ResponseDecodingOption.GENERIC);
+  }
+
+  public EntityResponseDecoder(Class<T> templateClass, ResponseDecodingOption responseDecodingOption)
   {
     _entityClass = templateClass;
+    _schemaDecodingPlan = (responseDecodingOption == ResponseDecodingOption.GENERIC) ? null :
+        SchemaDecodingPlan.forTemplate(templateClass,
+            responseDecodingOption == ResponseDecodingOption.SCHEMA_AWARE_SKIP_UNKNOWN_FIELDS);
   }
 
   @Override
@@ -49,6 +60,12 @@ public class EntityResponseDecoder<T extends RecordTemplate> extends RestRespons
     return _entityClass;
   }
 
+  @Override
+  protected SchemaDecodingPlan getSchemaDecodingPlan()
+  {
+    return _schemaDecodingPlan;
+  }
+
   @Override
   public T wrapResponse(DataMap dataMap, Map<String, String> headers, ProtocolVersion version)
                   throws NoSuchMethodException, InvocationTargetException, InstantiationException, IllegalAccessException
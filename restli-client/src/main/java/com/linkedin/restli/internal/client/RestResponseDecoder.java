@@ -24,6 +24,8 @@ package com.linkedin.restli.internal.client;
 import com.linkedin.common.callback.Callback;
 import com.linkedin.data.ByteString;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.JacksonSchemaDataDecoder;
+import com.linkedin.data.codec.SchemaDecodingPlan;
 import com.linkedin.data.codec.entitystream.StreamDataCodec;
 import com.linkedin.multipart.MultiPartMIMEReader;
 import com.linkedin.multipart.MultiPartMIMEReaderCallback;
@@ -72,6 +74,8 @@ import static com.linkedin.restli.common.ContentType.JSON;
  */
 public abstract class RestResponseDecoder<T>
 {
+  private static final JacksonSchemaDataDecoder SCHEMA_DATA_DECODER = new JacksonSchemaDataDecoder();
+
   public void decodeResponse(final StreamResponse streamResponse, final Callback<Response<T>> responseCallback) throws RestLiDecodingException
   {
     //Determine content type and take appropriate action.
@@ -102,7 +106,9 @@ public abstract class RestResponseDecoder<T>
     StreamDataCodec streamDataCodec = null;
     try
     {
-       streamDataCodec = getContentType(streamResponse.getHeaders().get(RestConstants.HEADER_CONTENT_TYPE)).orElse(JSON).getStreamCodec();
+       // schema-aware decoding reads the full entity, see createResponse
+       streamDataCodec = isSchemaAwareDecoding(streamResponse.getHeaders()) ? null :
+           getContentType(streamResponse.getHeaders().get(RestConstants.HEADER_CONTENT_TYPE)).orElse(JSON).getStreamCodec();
     }
     catch (MimeTypeParseException e)
     {
@@ -172,7 +178,7 @@ public abstract class RestResponseDecoder<T>
 
     try
     {
-      DataMap dataMap = (entity.isEmpty()) ? null : DataMapConverter.bytesToDataMap(headers, entity);
+      DataMap dataMap = (entity.isEmpty()) ? null : bytesToDataMap(headers, entity);
       response.setEntity(wrapResponse(dataMap, headers, ProtocolVersionUtil.extractProtocolVersion(response.getHeaders())));
       return response;
     }
@@ -202,6 +208,22 @@ public abstract class RestResponseDecoder<T>
     }
   }
 
+  private DataMap bytesToDataMap(Map<String, String> headers, ByteString entity)
+      throws MimeTypeParseException, IOException
+  {
+    if (isSchemaAwareDecoding(headers))
+    {
+      return SCHEMA_DATA_DECODER.readMap(entity.asInputStream(), getSchemaDecodingPlan());
+    }
+    return DataMapConverter.bytesToDataMap(headers, entity);
+  }
+
+  private boolean isSchemaAwareDecoding(Map<String, String> headers) throws MimeTypeParseException
+  {
+    return getSchemaDecodingPlan() != null
+        && getContentType(headers.get(RestConstants.HEADER_CONTENT_TYPE)).orElse(JSON) == JSON;
+  }
+
   private ResponseImpl<T> createResponse(Map<String, String> headers, int status, DataMap dataMap, List<String> cookies)
       throws RestLiDecodingException
   {
@@ -375,6 +397,18 @@ public abstract class RestResponseDecoder<T>
 
   public abstract Class<?> getEntityClass();
 
+  /**
+   * Returns the plan used to decode JSON entities straight into the data of the response type, or null to decode them
+   * generically. Subclasses return a plan when schema-aware decoding is requested with
+   * {@link com.linkedin.restli.client.ResponseDecodingOption}.
+   *
+   * @return the plan used to decode JSON entities, null by default.
+   */
+  protected SchemaDecodingPlan getSchemaDecodingPlan()
+  {
+    return null;
+  }
+
   /**
    * @deprecated use {@link #wrapResponse(com.linkedin.data.DataMap, java.util.Map, com.linkedin.restli.common.ProtocolVersion)}
    */
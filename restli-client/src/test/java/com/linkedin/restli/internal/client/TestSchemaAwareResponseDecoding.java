@@ -0,0 +1,120 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.client;
+
+
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.data.ByteString;
+import com.linkedin.data.DataMap;
+import com.linkedin.r2.message.Messages;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.restli.client.Response;
+import com.linkedin.restli.client.ResponseDecodingOption;
+import com.linkedin.restli.client.test.TestRecord;
+import com.linkedin.restli.common.CollectionResponse;
+import com.linkedin.restli.common.ContentType;
+import com.linkedin.restli.common.RestConstants;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+/**
+ * Tests decoding responses with the {@link ResponseDecodingOption}s.
+ */
+public class TestSchemaAwareResponseDecoding
+{
+  private static final String ENTITY = "{ \"id\" : 1, \"message\" : \"hello\", \"extra\" : [ 1, 2 ] }";
+
+  @DataProvider
+  private static Object[][] responseDecodingOptions()
+  {
+    return new Object[][] {
+      { ResponseDecodingOption.GENERIC },
+      { ResponseDecodingOption.SCHEMA_AWARE },
+      { ResponseDecodingOption.SCHEMA_AWARE_SKIP_UNKNOWN_FIELDS }
+    };
+  }
+
+  @Test(dataProvider = "responseDecodingOptions")
+  public void testEntityResponse(ResponseDecodingOption option) throws Exception
+  {
+    EntityResponseDecoder<TestRecord> decoder = new EntityResponseDecoder<TestRecord>(TestRecord.class, option);
+    TestRecord record = decoder.decodeResponse(jsonResponse(ENTITY)).getEntity();
+
+    Assert.assertEquals(record.getId().longValue(), 1L);
+    Assert.assertEquals(record.getMessage(), "hello");
+    assertDecoded(record.data(), option);
+  }
+
+  @Test(dataProvider = "responseDecodingOptions")
+  public void testStreamEntityResponse(ResponseDecodingOption option) throws Exception
+  {
+    EntityResponseDecoder<TestRecord> decoder = new EntityResponseDecoder<TestRecord>(TestRecord.class, option);
+    FutureCallback<Response<TestRecord>> callback = new FutureCallback<Response<TestRecord>>();
+    decoder.decodeResponse(Messages.toStreamResponse(jsonResponse(ENTITY)), callback);
+    TestRecord record = callback.get().getEntity();
+
+    Assert.assertEquals(record.getId().longValue(), 1L);
+    assertDecoded(record.data(), option);
+  }
+
+  @Test(dataProvider = "responseDecodingOptions")
+  public void testCollectionResponse(ResponseDecodingOption option) throws Exception
+  {
+    CollectionResponseDecoder<TestRecord> decoder = new CollectionResponseDecoder<TestRecord>(TestRecord.class, option);
+    String entity = "{ \"elements\" : [ " + ENTITY + " ], \"paging\" : { \"start\" : 0, \"count\" : 10, \"links\" : [] }, " +
+        "\"metadata\" : { \"custom\" : true } }";
+    CollectionResponse<TestRecord> response = decoder.decodeResponse(jsonResponse(entity)).getEntity();
+
+    Assert.assertEquals(response.getElements().size(), 1);
+    Assert.assertEquals(response.getElements().get(0).getId().longValue(), 1L);
+    Assert.assertEquals(response.getPaging().getCount().intValue(), 10);
+    Assert.assertEquals(response.getMetadataRaw().get("custom"), Boolean.TRUE);
+    assertDecoded(response.getElements().get(0).data(), option);
+  }
+
+  @Test
+  public void testPsonResponseIsDecodedGenerically() throws Exception
+  {
+    TestRecord record = new TestRecord().setId(1L).setMessage("hello");
+    RestResponse response = new RestResponseBuilder()
+        .setHeader(RestConstants.HEADER_CONTENT_TYPE, RestConstants.HEADER_VALUE_APPLICATION_PSON)
+        .setEntity(ContentType.PSON.getCodec().mapToBytes(record.data()))
+        .build();
+    EntityResponseDecoder<TestRecord> decoder =
+        new EntityResponseDecoder<TestRecord>(TestRecord.class, ResponseDecodingOption.SCHEMA_AWARE);
+    Assert.assertEquals(decoder.decodeResponse(response).getEntity(), record);
+  }
+
+  private static void assertDecoded(DataMap data, ResponseDecodingOption option)
+  {
+    // schema-aware decoding coerces the long field while parsing
+    Assert.assertEquals(data.get("id"), option == ResponseDecodingOption.GENERIC ? (Object) 1 : (Object) 1L);
+    Assert.assertEquals(data.containsKey("extra"), option != ResponseDecodingOption.SCHEMA_AWARE_SKIP_UNKNOWN_FIELDS);
+  }
+
+  private static RestResponse jsonResponse(String entity)
+  {
+    return new RestResponseBuilder()
+        .setHeader(RestConstants.HEADER_CONTENT_TYPE, RestConstants.HEADER_VALUE_APPLICATION_JSON)
+        .setEntity(ByteString.copyString(entity, "UTF-8"))
+        .build();
+  }
+}
@@ -16,10 +16,14 @@
 
 package com.linkedin.restli.common;
 
+import com.linkedin.data.codec.BinaryDataCodec;
 import com.linkedin.data.codec.DataCodec;
 import com.linkedin.data.codec.JacksonDataCodec;
 import com.linkedin.data.codec.PsonDataCodec;
+import com.linkedin.data.codec.SymbolTable;
+import com.linkedin.data.codec.entitystream.BinaryStreamDataCodec;
 import com.linkedin.data.codec.entitystream.JacksonStreamDataCodec;
+import com.linkedin.data.codec.entitystream.PsonStreamDataCodec;
 import com.linkedin.data.codec.entitystream.StreamDataCodec;
 import com.linkedin.r2.filter.R2Constants;
 
@@ -41,11 +45,18 @@ public class ContentType
   private static final JacksonDataCodec JACKSON_DATA_CODEC = new JacksonDataCodec();
   private static final JacksonStreamDataCodec JACKSON_STREAM_DATA_CODEC = new JacksonStreamDataCodec(R2Constants.DEFAULT_DATA_CHUNK_SIZE);
   private static final PsonDataCodec PSON_DATA_CODEC = new PsonDataCodec();
+  private static final PsonStreamDataCodec PSON_STREAM_DATA_CODEC = new PsonStreamDataCodec(R2Constants.DEFAULT_DATA_CHUNK_SIZE);
+  private static final Map<String, SymbolTable> SYMBOL_TABLES = new ConcurrentHashMap<>();
+  private static final BinaryDataCodec BINARY_DATA_CODEC = new BinaryDataCodec(SYMBOL_TABLES::get);
+  private static final BinaryStreamDataCodec BINARY_STREAM_DATA_CODEC =
+      new BinaryStreamDataCodec(R2Constants.DEFAULT_DATA_CHUNK_SIZE, SYMBOL_TABLES::get, null);
 
   public static final ContentType PSON =
-      new ContentType(RestConstants.HEADER_VALUE_APPLICATION_PSON, PSON_DATA_CODEC, null);
+      new ContentType(RestConstants.HEADER_VALUE_APPLICATION_PSON, PSON_DATA_CODEC, PSON_STREAM_DATA_CODEC);
   public static final ContentType JSON =
       new ContentType(RestConstants.HEADER_VALUE_APPLICATION_JSON, JACKSON_DATA_CODEC, JACKSON_STREAM_DATA_CODEC);
+  public static final ContentType BINARY =
+      new ContentType(RestConstants.HEADER_VALUE_APPLICATION_BINARY, BINARY_DATA_CODEC, BINARY_STREAM_DATA_CODEC);
   // Content type to be used only as an accept type.
   public static final ContentType ACCEPT_TYPE_ANY =
       new ContentType(RestConstants.HEADER_VALUE_ACCEPT_ANY, JACKSON_DATA_CODEC, null);
@@ -56,6 +67,27 @@ public class ContentType
     // Include content types supported by Rest.Li by default.
     SUPPORTED_TYPES.put(PSON.getHeaderKey(), PSON);
     SUPPORTED_TYPES.put(JSON.getHeaderKey(), JSON);
+    SUPPORTED_TYPES.put(BINARY.getHeaderKey(), BINARY);
+  }
+
+  /**
+   * Register a shared symbol table of the {@link #BINARY} content type. Messages encoded with a registered table can
+   * be decoded, and a response is encoded with the table named by the
+   * {@link RestConstants#HEADER_RESTLI_SYMBOL_TABLE} header of its request if it is registered.
+   *
+   * @param symbolTable the symbol table, which replaces any registered table with the same name.
+   */
+  public static void registerSymbolTable(SymbolTable symbolTable)
+  {
+    SYMBOL_TABLES.put(symbolTable.getName(), symbolTable);
+  }
+
+  /**
+   * @return the registered shared symbol table with the specified name, or null if there is none.
+   */
+  public static SymbolTable getSymbolTable(String name)
+  {
+    return SYMBOL_TABLES.get(name);
   }
 
   /**
@@ -131,4 +163,36 @@ public class ContentType
   {
     return _streamCodec;
   }
+
+  /**
+   * Get the codec to encode the response of a request with the specified headers. For {@link #BINARY}, the codec
+   * uses the registered symbol table named by the {@link RestConstants#HEADER_RESTLI_SYMBOL_TABLE} header, if any.
+   */
+  public DataCodec getCodec(Map<String, String> requestHeaders)
+  {
+    SymbolTable symbolTable = getRequestedSymbolTable(requestHeaders);
+    return symbolTable == null ? _codec : new BinaryDataCodec(SYMBOL_TABLES::get, symbolTable);
+  }
+
+  /**
+   * Get the stream codec to encode the response of a request with the specified headers, see
+   * {@link #getCodec(Map)}.
+   */
+  public StreamDataCodec getStreamCodec(Map<String, String> requestHeaders)
+  {
+    SymbolTable symbolTable = getRequestedSymbolTable(requestHeaders);
+    return symbolTable == null
+        ? _streamCodec
+        : new BinaryStreamDataCodec(R2Constants.DEFAULT_DATA_CHUNK_SIZE, SYMBOL_TABLES::get, symbolTable);
+  }
+
+  private SymbolTable getRequestedSymbolTable(Map<String, String> requestHeaders)
+  {
+    if (this != BINARY || requestHeaders == null)
+    {
+      return null;
+    }
+    String name = requestHeaders.get(RestConstants.HEADER_RESTLI_SYMBOL_TABLE);
+    return name == null ? null : SYMBOL_TABLES.get(name);
+  }
 }
@@ -42,14 +42,16 @@ public interface RestConstants
   String HEADER_CONTENT_DISPOSITION = "Content-Disposition";
   String HEADER_VALUE_APPLICATION_JSON = "application/json";
   String HEADER_VALUE_APPLICATION_PSON = "application/x-pson";
+  String HEADER_VALUE_APPLICATION_BINARY = "application/x-restli-binary";
   String HEADER_VALUE_MULTIPART_RELATED = "multipart/related";
   String HEADER_VALUE_ACCEPT_ANY = "*/*";
   String HEADER_RESTLI_PROTOCOL_VERSION = "X-RestLi-Protocol-Version";
   String HEADER_CONTENT_ID = "Content-ID";
+  String HEADER_RESTLI_SYMBOL_TABLE = "X-RestLi-Symbol-Table"; // name of the shared symbol table to encode the binary response with
 
-  // Default supported mime types.
+  // Default supported mime types, the last one is preferred when the accept header matches several of them equally.
   Set<String> SUPPORTED_MIME_TYPES = new LinkedHashSet<>(
-      Arrays.asList(HEADER_VALUE_APPLICATION_PSON, HEADER_VALUE_APPLICATION_JSON));
+      Arrays.asList(HEADER_VALUE_APPLICATION_BINARY, HEADER_VALUE_APPLICATION_PSON, HEADER_VALUE_APPLICATION_JSON));
 
   String START_PARAM = "start";
   String COUNT_PARAM = "count";
@@ -119,6 +119,14 @@ public class RestLiDataValidator
   private final ResourceMethod _resourceMethod;
   // To be passed into DataSchemaAnnotationValidator.
   private final Map<String, Class<? extends Validator>> _validatorClassMap;
+  // Options of the validation of input entities, of patched entities and of output entities.
+  private final ValidationOptions _inputValidationOptions;
+  private final ValidationOptions _patchValidationOptions;
+  private final ValidationOptions _outputValidationOptions;
+  // Validators compiled for the last schema of input and output data. Building one traverses the schema and
+  // instantiates the custom validators, and once built they do not maintain state across validations.
+  private volatile CompiledValidator _inputValidator;
+  private volatile CompiledValidator _outputValidator;
 
   private static final String INSTANTIATION_ERROR = "InstantiationException while trying to instantiate the record template class";
   private static final String ILLEGAL_ACCESS_ERROR = "IllegalAccessException while trying to instantiate the record template class";
@@ -268,6 +276,59 @@ public class RestLiDataValidator
     _valueClass = valueClass;
     _resourceMethod = resourceMethod;
     _validatorClassMap = Collections.unmodifiableMap(validatorClassMap);
+
+    _inputValidationOptions = new ValidationOptions();
+    if (readOnlyOptional.contains(_resourceMethod))
+    {
+      // Even if ReadOnly fields are non-optional, the client cannot supply them in a create request, so they should be treated as optional.
+      _inputValidationOptions.setTreatOptional(_readOnlyPredicate);
+    }
+    // It's okay if required fields are absent in a partial update request, so use ignore mode.
+    _patchValidationOptions = new ValidationOptions(RequiredMode.IGNORE);
+    _outputValidationOptions = new ValidationOptions();
+  }
+
+  /**
+   * A {@link Validator} compiled for a schema.
+   */
+  private static class CompiledValidator
+  {
+    private final DataSchema _schema;
+    private final Validator _validator;
+
+    private CompiledValidator(DataSchema schema, Validator validator)
+    {
+      _schema = schema;
+      _validator = validator;
+    }
+  }
+
+  /**
+   * @return the validator of input data of the given schema, checking the Rest.li annotations
+   */
+  private Validator inputValidator(DataSchema schema)
+  {
+    CompiledValidator compiled = _inputValidator;
+    if (compiled == null || compiled._schema != schema)
+    {
+      compiled = new CompiledValidator(schema, new DataValidator(schema));
+      _inputValidator = compiled;
+    }
+    return compiled._validator;
+  }
+
+  /**
+   * @return the validator of output data of the given schema
+   */
+  private Validator outputValidator(DataSchema schema)
+  {
+    CompiledValidator compiled = _outputValidator;
+    if (compiled == null || compiled._schema != schema)
+    {
+      compiled = new CompiledValidator(schema, new DataSchemaAnnotationValidator(schema));
+      _outputValidator = compiled;
+    }
+    return compiled._validator;
   }
 
   private class DataValidator extends DataSchemaAnnotationValidator
@@ -519,9 +580,8 @@ public class RestLiDataValidator
       return checkSetResult;
     }
     // Custom validation rules and Rest.li annotations for set operations are checked here.
-    // It's okay if required fields are absent in a partial update request, so use ignore mode.
     return ValidateDataAgainstSchema.validate(new SimpleDataElement(entity.data(), entity.schema()),
-        new ValidationOptions(RequiredMode.IGNORE), new DataValidator(entity.schema()));
+        _patchValidationOptions, inputValidator(entity.schema()));
   }
 
   private ValidationResult checkNewRecordsAreNotMissingFields(RecordTemplate entity, MessageList<Message> messages)
@@ -592,20 +652,13 @@ public class RestLiDataValidator
 
   private ValidationResult validateInputEntity(RecordTemplate entity)
   {
-    ValidationOptions validationOptions = new ValidationOptions();
-    if (readOnlyOptional.contains(_resourceMethod))
-    {
-      // Even if ReadOnly fields are non-optional, the client cannot supply them in a create request, so they should be treated as optional.
-      validationOptions.setTreatOptional(_readOnlyPredicate);
-    }
-    ValidationResult result = ValidateDataAgainstSchema.validate(entity, validationOptions, new DataValidator(entity.schema()));
-    return result;
+    return ValidateDataAgainstSchema.validate(entity, _inputValidationOptions, inputValidator(entity.schema()));
   }
 
   private ValidationResult validateOutputEntity(RecordTemplate entity, DataSchema validatingSchema)
   {
-    DataSchemaAnnotationValidator validator = new DataSchemaAnnotationValidator(validatingSchema);
-    return ValidateDataAgainstSchema.validate(entity.data(), validatingSchema, new ValidationOptions(), validator);
+    return ValidateDataAgainstSchema.validate(entity.data(), validatingSchema, _outputValidationOptions,
+        outputValidator(validatingSchema));
   }
 
   private static ValidationErrorResult validationResultWithErrorMessage(String errorMessage)
@@ -458,6 +458,37 @@ public class QueryParamsDataMap
     addSortedParams(uriBuilder, queryString(params));
   }
 
+  /**
+   * Appends the query string of the provided DataMap, starting with '?', to the given URI, with the same
+   * parameters in the same order as {@link #addSortedParams(UriBuilder, DataMap)}.
+   *
+   * @param uri the URI, which must not have a query yet
+   * @param params the query parameters
+   */
+  public static void appendSortedParams(StringBuilder uri, DataMap params)
+  {
+    final Map<String, List<String>> queryString = queryString(params);
+    List<String> keysList = new ArrayList<String>(queryString.keySet());
+    Collections.sort(keysList);
+
+    char separator = '?';
+    for (String key : keysList)
+    {
+      final String encodedKey = UriComponent.encode(key, UriComponent.Type.QUERY_PARAM);
+      List<String> values = new ArrayList<String>(queryString.get(key));
+      Collections.sort(values);
+      for (String value : values)
+      {
+        uri.append(separator).append(encodedKey);
+        separator = '&';
+        if (!value.isEmpty())
+        {
+          uri.append('=').append(UriComponent.encode(value, UriComponent.Type.QUERY_PARAM));
+        }
+      }
+    }
+  }
+
   /**
    * Because of backwards compatibility concerns, array fields of the key component of a
    * {@link ComplexResourceKey}s in a get request will be represented in the request url in the old
@@ -37,6 +37,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.TreeMap;
 
 
 /**
@@ -449,6 +450,48 @@ public class URIParamUtils
     addSortedParams(uriBuilder, map);
   }
 
+  /**
+   * Appends the query string of the given parameters, starting with '?', to the given URI, with the same
+   * parameters in the same order as {@link #addSortedParams(UriBuilder, DataMap)}. The values are escaped
+   * straight into the URI.
+   *
+   * @param uri the URI, which must not have a query yet
+   * @param params the query parameters
+   */
+  public static void appendSortedParams(StringBuilder uri, DataMap params)
+  {
+    // the parameters are sorted by escaped name
+    final Map<String, String> names = new TreeMap<String, String>();
+    for (String name : params.keySet())
+    {
+      names.put(encodeString(name, URLEscaper.Escaping.URL_ESCAPING, UriComponent.Type.QUERY_PARAM), name);
+    }
+
+    char separator = '?';
+    for (Map.Entry<String, String> name : names.entrySet())
+    {
+      uri.append(separator).append(name.getKey()).append('=');
+      separator = '&';
+      final int valueStart = uri.length();
+      if (RestConstants.PROJECTION_PARAMETERS.contains(name.getValue()))
+      {
+        // masks are not escaped by their encoding
+        uri.append(UriComponent.contextualEncode(URIMaskUtil.encodeMaskForURI(params.getDataMap(name.getValue())),
+                                                 UriComponent.Type.QUERY_PARAM,
+                                                 true));
+      }
+      else
+      {
+        encodeDataObject(params.get(name.getValue()), URLEscaper.Escaping.URL_ESCAPING, UriComponent.Type.QUERY_PARAM, uri);
+      }
+      if (uri.length() == valueStart)
+      {
+        // like UriBuilder, leave out the separator of empty values
+        uri.setLength(valueStart - 1);
+      }
+    }
+  }
+
   // params must already be escaped.
   private static void addSortedParams(UriBuilder uriBuilder, Map<String, String> params)
   {
@@ -17,9 +17,16 @@
 package com.linkedin.restli.internal.common;
 
 
+import com.linkedin.data.codec.BinaryDataCodec;
+import com.linkedin.data.codec.SymbolTable;
+import com.linkedin.data.codec.entitystream.BinaryStreamDataCodec;
 import com.linkedin.restli.common.ContentType;
+import com.linkedin.restli.common.RestConstants;
 import org.testng.Assert;
 import org.testng.annotations.Test;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 import javax.activation.MimeTypeParseException;
 
 
@@ -45,6 +52,31 @@ public class TestContentType
     Assert.assertEquals(contentTypeWithParameter, ContentType.PSON);
   }
 
+  @Test
+  public void testBinaryContentType() throws MimeTypeParseException
+  {
+    ContentType contentType = ContentType.getContentType("application/x-restli-binary").get();
+    Assert.assertEquals(contentType, ContentType.BINARY);
+  }
+
+  @Test
+  public void testBinarySymbolTableNegotiation()
+  {
+    SymbolTable symbolTable = new SymbolTable("testBinarySymbolTableNegotiation", Arrays.asList("id", "name"));
+    ContentType.registerSymbolTable(symbolTable);
+    Assert.assertSame(ContentType.getSymbolTable(symbolTable.getName()), symbolTable);
+
+    Map<String, String> headers = Collections.singletonMap(RestConstants.HEADER_RESTLI_SYMBOL_TABLE, symbolTable.getName());
+    Assert.assertSame(((BinaryDataCodec) ContentType.BINARY.getCodec(headers)).getSymbolTable(), symbolTable);
+    Assert.assertSame(((BinaryStreamDataCodec) ContentType.BINARY.getStreamCodec(headers)).getSymbolTable(), symbolTable);
+
+    // unknown tables, and other content types, use the default codecs
+    Map<String, String> unknownHeaders = Collections.singletonMap(RestConstants.HEADER_RESTLI_SYMBOL_TABLE, "unknown");
+    Assert.assertSame(ContentType.BINARY.getCodec(unknownHeaders), ContentType.BINARY.getCodec());
+    Assert.assertSame(ContentType.BINARY.getStreamCodec(unknownHeaders), ContentType.BINARY.getStreamCodec());
+    Assert.assertSame(ContentType.JSON.getCodec(headers), ContentType.JSON.getCodec());
+  }
+
   @Test
   public void testUnknowContentType() throws MimeTypeParseException
   {
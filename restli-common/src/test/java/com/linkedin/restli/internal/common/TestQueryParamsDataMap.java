@@ -21,6 +21,7 @@ import com.linkedin.data.DataMap;
 import com.linkedin.data.schema.PathSpec;
 import com.linkedin.data.transform.filter.request.MaskCreator;
 import com.linkedin.data.transform.filter.request.MaskTree;
+import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.jersey.api.uri.UriComponent;
 import com.linkedin.restli.common.RestConstants;
 import com.linkedin.restli.internal.common.PathSegment.PathSegmentSyntaxException;
@@ -372,4 +373,22 @@ public class TestQueryParamsDataMap
           "for " + entry.getKey() + " does not match what is expected!");
     }
   }
+
+  @Test
+  public void testAppendSortedParams()
+  {
+    DataMap queryParams = new DataMap();
+    DataMap paramMap = new DataMap();
+    paramMap.put("foo", "bar & baz");
+    paramMap.put("empty", "");
+    queryParams.put("aParam", paramMap);
+    queryParams.put("b Param", new DataList(Arrays.asList("y", "100%", "x")));
+
+    UriBuilder uriBuilder = UriBuilder.fromPath("resource");
+    QueryParamsDataMap.addSortedParams(uriBuilder, queryParams);
+
+    StringBuilder uri = new StringBuilder("resource");
+    QueryParamsDataMap.appendSortedParams(uri, queryParams);
+    Assert.assertEquals(uri.toString(), uriBuilder.build().toString());
+  }
 }
@@ -334,6 +334,36 @@ public class TestUriParamUtils
     Assert.assertEquals(rawQuery, "aParam=(empty:(),foo:bar)&bParam=List(x,y,z)&fields=name,friends:($start:1,$count:2)");
   }
 
+  @Test
+  public void testAppendSortedParams()
+  {
+    DataMap queryParams = new DataMap();
+
+    DataMap fields = new DataMap();
+    fields.put("name", 1);
+    fields.put("with space", 1);
+    queryParams.put("fields", fields);
+
+    DataMap paramMap = new DataMap();
+    paramMap.put("foo", "bar & baz");
+    paramMap.put("empty", new DataMap());
+    queryParams.put("aParam", paramMap);
+
+    DataList paramList = new DataList();
+    paramList.add("x");
+    paramList.add("");
+    paramList.add("100%");
+    queryParams.put("b Param", paramList);
+    queryParams.put("cParam", "{template}");
+
+    UriBuilder uriBuilder = UriBuilder.fromPath("resource");
+    URIParamUtils.addSortedParams(uriBuilder, queryParams);
+
+    StringBuilder uri = new StringBuilder("resource");
+    URIParamUtils.appendSortedParams(uri, queryParams);
+    Assert.assertEquals(uri.toString(), uriBuilder.build().toString());
+  }
+
   @Test
   public void testExtractionWithTemplateVariables()
   {
@@ -20,6 +20,7 @@ package com.linkedin.restli.internal.server;
 import com.linkedin.data.ByteString;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.schema.PathSpec;
 import com.linkedin.data.template.StringArray;
 import com.linkedin.data.transform.filter.request.MaskTree;
 import com.linkedin.jersey.api.uri.UriComponent;
@@ -41,8 +42,10 @@ import com.linkedin.restli.internal.common.QueryParamsDataMap;
 import com.linkedin.restli.internal.common.URIParamUtils;
 import com.linkedin.restli.internal.server.util.ArgumentUtils;
 import com.linkedin.restli.internal.server.util.MIMEParse;
+import com.linkedin.restli.internal.server.util.RestUtils;
 import com.linkedin.restli.internal.server.util.RestLiSyntaxException;
 import com.linkedin.restli.server.ProjectionMode;
+import com.linkedin.restli.server.QueryParamsCache;
 import com.linkedin.restli.server.RestLiResponseAttachments;
 import com.linkedin.restli.server.RestLiServiceException;
 import com.linkedin.restli.server.RoutingException;
@@ -133,6 +136,24 @@ public class ResourceContextImpl implements ServerResourceContext
   public ResourceContextImpl(final MutablePathKeys pathKeys,
                              final Request request,
                              final RequestContext requestContext) throws RestLiSyntaxException
+  {
+    this(pathKeys, request, requestContext, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param pathKeys path keys object
+   * @param request request
+   * @param requestContext context for the request
+   * @param queryParamsCache cache of the parsed query parameters, null to parse them
+   * @throws RestLiSyntaxException if the syntax of query parameters in the request is
+   *           incorrect
+   */
+  public ResourceContextImpl(final MutablePathKeys pathKeys,
+                             final Request request,
+                             final RequestContext requestContext,
+                             final QueryParamsCache queryParamsCache) throws RestLiSyntaxException
   {
     _pathKeys = pathKeys;
     _request = request;
@@ -146,24 +167,24 @@ public class ResourceContextImpl implements ServerResourceContext
 
     _protocolVersion = ProtocolVersionUtil.extractProtocolVersion(request.getHeaders());
 
-    try
+    final String rawQuery = _request.getURI().getRawQuery();
+    if (queryParamsCache == null || rawQuery == null)
     {
-      if (_protocolVersion.compareTo(AllProtocolVersions.RESTLI_PROTOCOL_2_0_0.getProtocolVersion()) >= 0)
+      _parameters = parseParameters();
+    }
+    else
+    {
+      final DataMap cachedParameters = queryParamsCache.getParameters(rawQuery, _protocolVersion);
+      if (cachedParameters == null)
       {
-        Map<String, List<String>> queryParameters = UriComponent.decodeQuery(_request.getURI(), false);
-        _parameters = URIParamUtils.parseUriParams(queryParameters);
+        _parameters = parseParameters();
+        queryParamsCache.putParameters(rawQuery, _protocolVersion, _parameters);
       }
       else
       {
-        Map<String, List<String>> queryParameters = ArgumentUtils.getQueryParameters(_request.getURI());
-        _parameters = QueryParamsDataMap.parseDataMapKeys(queryParameters);
+        _parameters = cachedParameters;
       }
     }
-    catch (PathSegmentSyntaxException e)
-    {
-      throw new RestLiSyntaxException("Invalid query parameters syntax: "
-          + _request.getURI().toString(), e);
-    }
 
     if (_parameters.containsKey(RestConstants.FIELDS_PARAM))
     {
@@ -198,6 +219,28 @@ public class ResourceContextImpl implements ServerResourceContext
     _metadataProjectionMode = ProjectionMode.getDefault();
   }
 
+  private DataMap parseParameters() throws RestLiSyntaxException
+  {
+    try
+    {
+      if (_protocolVersion.compareTo(AllProtocolVersions.RESTLI_PROTOCOL_2_0_0.getProtocolVersion()) >= 0)
+      {
+        Map<String, List<String>> queryParameters = UriComponent.decodeQuery(_request.getURI(), false);
+        return URIParamUtils.parseUriParams(queryParameters);
+      }
+      else
+      {
+        Map<String, List<String>> queryParameters = ArgumentUtils.getQueryParameters(_request.getURI());
+        return QueryParamsDataMap.parseDataMapKeys(queryParameters);
+      }
+    }
+    catch (PathSegmentSyntaxException e)
+    {
+      throw new RestLiSyntaxException("Invalid query parameters syntax: "
+          + _request.getURI().toString(), e);
+    }
+  }
+
   private static boolean isResponseAttachmentsAllowed(Request request)
   {
     final String acceptTypeHeader = request.getHeader(RestConstants.HEADER_ACCEPT);
@@ -272,6 +315,18 @@ public class ResourceContextImpl implements ServerResourceContext
     return _projectionMask;
   }
 
+  @Override
+  public boolean isFieldNeeded(PathSpec path)
+  {
+    if (_projectionMask == null)
+    {
+      return true;
+    }
+
+    return !_projectionMask.getDataMap().isEmpty()
+        && RestUtils.getCompiledProjection(_projectionMask).isPathPresent(path);
+  }
+
   @Override
   public void setProjectionMask(MaskTree projectionMask)
   {
@@ -23,6 +23,7 @@ import com.linkedin.parseq.Task;
 import com.linkedin.parseq.promise.Promise;
 import com.linkedin.parseq.promise.PromiseListener;
 import com.linkedin.parseq.promise.Promises;
+import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.restli.common.EmptyRecord;
 import com.linkedin.restli.common.HttpStatus;
 import com.linkedin.restli.common.RestConstants;
@@ -37,7 +38,7 @@ import com.linkedin.restli.server.RestLiServiceException;
 import com.linkedin.restli.server.resources.BaseResource;
 import com.linkedin.restli.server.resources.ResourceFactory;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
 
 
 /**
@@ -84,8 +85,6 @@ public class RestLiMethodInvoker
       final ServerResourceContext resourceContext,
       final Object... arguments) throws IllegalAccessException
   {
-    final Method method = descriptor.getMethod();
-
     try
     {
       switch (descriptor.getInterfaceType())
@@ -118,12 +117,12 @@ public class RestLiMethodInvoker
             }
           };
 
-          method.invoke(resource, arguments);
+          descriptor.invoke(resource, arguments);
           // App code should use the callback
           break;
 
         case SYNC:
-          Object applicationResult = method.invoke(resource, arguments);
+          Object applicationResult = descriptor.invoke(resource, arguments);
           callback.onSuccess(applicationResult);
           break;
 
@@ -139,7 +138,7 @@ public class RestLiMethodInvoker
             contextIndex = descriptor.indexOfParameterType(ParamType.PARSEQ_CONTEXT);
           }
           // run through the engine to get the context
-          Task<Object> restliTask = createRestLiParSeqTask(arguments, contextIndex, method, resource);
+          Task<Object> restliTask = createRestLiParSeqTask(arguments, contextIndex, descriptor, resource);
 
           // propagate the result to the callback
           restliTask.addListener(new CallbackPromiseAdapter<>(callback));
@@ -156,7 +155,7 @@ public class RestLiMethodInvoker
 
           //addListener requires Task<Object> in this case
           @SuppressWarnings("unchecked")
-          Task<Object> task = (Task<Object>) method.invoke(resource, arguments);
+          Task<Object> task = (Task<Object>) descriptor.invoke(resource, arguments);
           if (task == null)
           {
             callback.onError(new RestLiServiceException(HttpStatus.S_500_INTERNAL_SERVER_ERROR,
@@ -286,8 +285,26 @@ public class RestLiMethodInvoker
       }
 
       Object[] args = restLiArgumentBuilder.buildArguments(requestData, invokableMethod);
-      // Now invoke the resource implementation.
-      doInvoke(resourceMethodDescriptor, callback, resource, resourceContext, args);
+      // Now invoke the resource implementation, off the transport thread if it may block.
+      final Executor offloadExecutor = blockingOffloadExecutor(resourceMethodDescriptor, resourceContext);
+      if (offloadExecutor == null)
+      {
+        doInvoke(resourceMethodDescriptor, callback, resource, resourceContext, args);
+      }
+      else
+      {
+        offloadExecutor.execute(() ->
+        {
+          try
+          {
+            doInvoke(resourceMethodDescriptor, callback, resource, resourceContext, args);
+          }
+          catch (Exception e)
+          {
+            callback.onError(e);
+          }
+        });
+      }
     }
     catch (Exception e)
     {
@@ -295,12 +312,28 @@ public class RestLiMethodInvoker
     }
   }
 
+  /**
+   * Returns the executor to invoke a blocking method on when the transport dispatched the request on one of its
+   * I/O threads, null if the method can be invoked on the current thread. Methods invoked within the plan of a
+   * multiplexed request are not offloaded, which would lose the plan. The multiplexed request is offloaded as a
+   * whole instead, see {@link com.linkedin.restli.server.multiplexer.MultiplexedRequestHandlerImpl}.
+   */
+  private static Executor blockingOffloadExecutor(ResourceMethodDescriptor descriptor,
+      ServerResourceContext resourceContext)
+  {
+    if (!descriptor.isBlocking() || TASK_CONTEXT.get() != null)
+    {
+      return null;
+    }
+    return (Executor) resourceContext.getRawRequestContext().getLocalAttr(R2Constants.BLOCKING_OFFLOAD_EXECUTOR);
+  }
+
   /**
    * Creates a ParSeq task that supplies a context to the resource class method.
    */
   private static Task<Object> createRestLiParSeqTask(final Object[] arguments,
       final int contextIndex,
-      final Method method,
+      final ResourceMethodDescriptor descriptor,
       final Object resource)
   {
     return Task.async(context ->
@@ -312,7 +345,7 @@ public class RestLiMethodInvoker
           // we can now supply the context
           arguments[contextIndex] = context;
         }
-        Object applicationResult = method.invoke(resource, arguments);
+        Object applicationResult = descriptor.invoke(resource, arguments);
         if (applicationResult == null)
         {
           return Promises.error(new RestLiServiceException(HttpStatus.S_500_INTERNAL_SERVER_ERROR,
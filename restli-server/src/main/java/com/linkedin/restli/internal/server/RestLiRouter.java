@@ -39,22 +39,17 @@ import com.linkedin.restli.internal.server.model.ResourceModel;
 import com.linkedin.restli.internal.server.util.AlternativeKeyCoercerException;
 import com.linkedin.restli.internal.server.util.ArgumentUtils;
 import com.linkedin.restli.server.Key;
+import com.linkedin.restli.server.QueryParamsCache;
 import com.linkedin.restli.server.ResourceLevel;
 import com.linkedin.restli.server.RestLiServiceException;
 import com.linkedin.restli.server.RoutingException;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLDecoder;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
-import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,7 +64,8 @@ public class RestLiRouter
 {
   private static final Logger log = LoggerFactory.getLogger(RestLiRouter.class);
   private static final Map<ResourceMethodMatchKey, ResourceMethod> _resourceMethodLookup = setupResourceMethodLookup();
-  private final Map<String, ResourceModel> _pathRootResourceMap;
+  private final RoutingTrie _routingTrie;
+  private final QueryParamsCache _queryParamsCache;
 
   /**
    * Constructor.
@@ -79,59 +75,75 @@ public class RestLiRouter
    */
   public RestLiRouter(final Map<String, ResourceModel> pathRootResourceMap)
   {
-    super();
-    _pathRootResourceMap = pathRootResourceMap;
+    this(pathRootResourceMap, null);
   }
 
-  private static final Pattern SLASH_PATTERN = Pattern.compile(Pattern.quote("/"));
+  /**
+   * Constructor.
+   *
+   * @param pathRootResourceMap a map of resource root paths to corresponding
+   *          {@link ResourceModel}s
+   * @param queryParamsCache cache of the parsed batch keys, null to parse them
+   */
+  public RestLiRouter(final Map<String, ResourceModel> pathRootResourceMap, final QueryParamsCache queryParamsCache)
+  {
+    super();
+    _routingTrie = new RoutingTrie(pathRootResourceMap);
+    _queryParamsCache = queryParamsCache;
+  }
 
   /**
    * Processes provided {@link Request}.
    */
   public ResourceMethodDescriptor process(final ServerResourceContext context)
   {
-    String path = context.getRequestURI().getRawPath();
+    final String path = context.getRequestURI().getRawPath();
     if (path.length() < 2)
     {
       throw new RoutingException(HttpStatus.S_404_NOT_FOUND.getCode());
     }
 
-    if (path.charAt(0) == '/')
+    final int start = path.charAt(0) == '/' ? 1 : 0;
+    // trailing empty segments are ignored
+    int end = path.length();
+    while (end > start && path.charAt(end - 1) == '/')
     {
-      path = path.substring(1);
+      end--;
     }
 
-    Queue<String> remainingPath = new LinkedList<>(Arrays.asList(SLASH_PATTERN.split(path)));
-
-    String rootPath = "/" + remainingPath.poll();
-
-    ResourceModel currentResource;
-    try
-    {
-      currentResource =
-          _pathRootResourceMap.get(URLDecoder.decode(rootPath,
-                                                     RestConstants.DEFAULT_CHARSET_NAME));
-    }
-    catch (UnsupportedEncodingException e)
-    {
-      throw new RestLiInternalException("UnsupportedEncodingException while trying to decode the root path",
-                                        e);
-    }
-    if (currentResource == null)
+    final int rootEnd = segmentEnd(path, start, end);
+    final RoutingTrie.Node root = _routingTrie.getRoot().match(path, start, rootEnd);
+    if (root == null)
     {
       throw new RoutingException(String.format("No root resource defined for path '%s'",
-                                               rootPath),
+                                               "/" + path.substring(start, rootEnd)),
                                  HttpStatus.S_404_NOT_FOUND.getCode());
     }
 
-    return processResourceTree(currentResource, context, remainingPath);
+    return processResourceTree(root, context, path, rootEnd, end);
+  }
+
+  /**
+   * @return the index of the slash ending the segment starting at the given index, or the end of the path
+   */
+  private static int segmentEnd(final String path, final int start, final int end)
+  {
+    final int slash = path.indexOf('/', start);
+    return slash == -1 || slash > end ? end : slash;
   }
 
-  private ResourceMethodDescriptor processResourceTree(final ResourceModel resource,
+  /**
+   * Descends the resource tree from the given node along the segments of the path remaining after the given
+   * index, which is the one of the slash ending the previous segment.
+   */
+  private ResourceMethodDescriptor processResourceTree(final RoutingTrie.Node node,
                                             final ServerResourceContext context,
-                                            final Queue<String> remainingPath)
+                                            final String path,
+                                            final int index,
+                                            final int end)
   {
-    ResourceModel currentResource = resource;
+    RoutingTrie.Node currentNode = node;
+    ResourceModel currentResource = node.getResource();
 
     // iterate through all path segments, simultaneously descending the resource hierarchy
     // and parsing path keys where applicable;
@@ -139,17 +151,20 @@ public class RestLiRouter
     // currentResource, and to parse the necessary information into the context
     ResourceLevel currentLevel = currentResource.getResourceLevel();
 
-    while (remainingPath.peek() != null)
+    int segmentStart = index + 1;
+    while (segmentStart <= end)
     {
-      String currentPathSegment = remainingPath.poll();
+      final int segmentEnd = segmentEnd(path, segmentStart, end);
 
       if (currentLevel.equals(ResourceLevel.ENTITY))
       {
-        currentResource = currentResource.getSubResource(parseSubresourceName(currentPathSegment));
+        currentNode = currentNode.match(path, segmentStart, segmentEnd);
+        currentResource = currentNode == null ? null : currentNode.getResource();
         currentLevel = currentResource == null ? ResourceLevel.ANY : currentResource.getResourceLevel();
       }
       else
       {
+        final String currentPathSegment = path.substring(segmentStart, segmentEnd);
         if (currentResource.getKeys().isEmpty())
         {
           throw new RoutingException(String.format("Path key not supported on resource '%s' for URI '%s'",
@@ -197,6 +212,8 @@ public class RestLiRouter
       {
         throw new RoutingException(HttpStatus.S_404_NOT_FOUND.getCode());
       }
+
+      segmentStart = segmentEnd + 1;
     }
 
     parseBatchKeysParameter(currentResource, context); //now we know the key type, look for batch parameter
@@ -204,19 +221,6 @@ public class RestLiRouter
     return findMethodDescriptor(currentResource, currentLevel, context);
   }
 
-  /** given path segment, parses subresource name out of it */
-  private static String parseSubresourceName(final String pathSegment)
-  {
-    try
-    {
-      return URLDecoder.decode(pathSegment, RestConstants.DEFAULT_CHARSET_NAME);
-    }
-    catch (UnsupportedEncodingException e)
-    {
-      throw new RestLiInternalException("UnsupportedEncodingException while trying to decode the subresource name", e);
-    }
-  }
-
   private ResourceMethodDescriptor findMethodDescriptor(final ResourceModel resource,
                                              final ResourceLevel resourceLevel,
                                              final ServerResourceContext context)
@@ -472,6 +476,21 @@ public class RestLiRouter
     ProtocolVersion version = context.getRestliProtocolVersion();
     final Set<Object> batchKeys;
 
+    // alternative keys are not cached since they are coerced by the resource
+    final String rawQuery = context.getRequestURI().getRawQuery();
+    final boolean cacheable = _queryParamsCache != null && rawQuery != null
+        && context.hasParameter(RestConstants.QUERY_BATCH_IDS_PARAM)
+        && !context.hasParameter(RestConstants.ALT_KEY_PARAM);
+    if (cacheable)
+    {
+      final Set<Object> cachedBatchKeys = _queryParamsCache.getBatchKeys(resource, rawQuery, version);
+      if (cachedBatchKeys != null)
+      {
+        context.getPathKeys().setBatchKeys(new HashSet<>(cachedBatchKeys));
+        return;
+      }
+    }
+
     try
     {
       if (context.getParameters().containsKey(RestConstants.ALT_KEY_PARAM))
@@ -506,7 +525,8 @@ public class RestLiRouter
               context.getBatchKeyErrors().put(complexKey, new RestLiServiceException(HttpStatus.S_400_BAD_REQUEST));
               continue;
             }
-            batchKeys.add(ComplexResourceKey.buildFromDataMap((DataMap) complexKey, ComplexKeySpec.forClassesMaybeNull(resource.getKeyKeyClass(), resource.getKeyParamsClass())));
+            // the key is fixed up while validated, which the parameters may not allow
+            batchKeys.add(ComplexResourceKey.buildFromDataMap((DataMap) ArgumentUtils.copyIfReadOnly(complexKey), ComplexKeySpec.forClassesMaybeNull(resource.getKeyKeyClass(), resource.getKeyParamsClass())));
           }
         }
       }
@@ -557,33 +577,15 @@ public class RestLiRouter
       // collection batch get in v2, collection or association batch get in v1
       else if (context.hasParameter(RestConstants.QUERY_BATCH_IDS_PARAM))
       {
-        batchKeys = new HashSet<>();
-
-        List<String> ids = context.getParameterValues(RestConstants.QUERY_BATCH_IDS_PARAM);
         if (version.compareTo(AllProtocolVersions.RESTLI_PROTOCOL_2_0_0.getProtocolVersion()) >= 0)
         {
-          for (String id : ids)
-          {
-            Key key = resource.getPrimaryKey();
-            Object value;
-            try
-            {
-              // in v2, compound keys have already been converted and dealt with, so all we need to do here is convert simple values.
-              value = ArgumentUtils.convertSimpleValue(id, key.getDataSchema(), key.getType());
-              batchKeys.add(value);
-            }
-            catch (NumberFormatException e)
-            {
-              throw new RoutingException("NumberFormatException parsing batch key '" + id + "'", HttpStatus.S_400_BAD_REQUEST.getCode(), e);
-            }
-            catch (IllegalArgumentException e)
-            {
-              throw new RoutingException("IllegalArgumentException parsing batch key '" + id + "'", HttpStatus.S_400_BAD_REQUEST.getCode(), e);
-            }
-          }
+          // in v2, compound keys have already been converted and dealt with, so all we need to do here is convert simple values.
+          batchKeys = parseSimpleBatchKeys(resource, context.getStructuredParameter(RestConstants.QUERY_BATCH_IDS_PARAM));
         }
         else
         {
+          batchKeys = new HashSet<>();
+          List<String> ids = context.getParameterValues(RestConstants.QUERY_BATCH_IDS_PARAM);
           for (String id : ids)
           {
             try
@@ -622,9 +624,50 @@ public class RestLiRouter
           HttpStatus.S_400_BAD_REQUEST.getCode(), e);
     }
 
+    if (cacheable && batchKeys != null && context.getBatchKeyErrors().isEmpty())
+    {
+      _queryParamsCache.putBatchKeys(resource, rawQuery, version, batchKeys);
+    }
     context.getPathKeys().setBatchKeys(batchKeys);
   }
 
+  /**
+   * Converts the simple batch keys of a v2 request straight from the parsed list of ids.
+   */
+  private static Set<Object> parseSimpleBatchKeys(final ResourceModel resource, final Object ids)
+  {
+    if (!(ids instanceof DataList))
+    {
+      throw new RoutingException("Invalid value type for parameter " + RestConstants.QUERY_BATCH_IDS_PARAM,
+                                 HttpStatus.S_400_BAD_REQUEST.getCode());
+    }
+
+    final DataList idList = (DataList) ids;
+    final Key key = resource.getPrimaryKey();
+    final Set<Object> batchKeys = new HashSet<>(idList.size() * 4 / 3 + 1);
+    for (Object id : idList)
+    {
+      if (!(id instanceof String))
+      {
+        throw new RoutingException("Invalid value type for parameter " + RestConstants.QUERY_BATCH_IDS_PARAM,
+                                   HttpStatus.S_400_BAD_REQUEST.getCode());
+      }
+      try
+      {
+        batchKeys.add(ArgumentUtils.convertSimpleValue((String) id, key.getDataSchema(), key.getType()));
+      }
+      catch (NumberFormatException e)
+      {
+        throw new RoutingException("NumberFormatException parsing batch key '" + id + "'", HttpStatus.S_400_BAD_REQUEST.getCode(), e);
+      }
+      catch (IllegalArgumentException e)
+      {
+        throw new RoutingException("IllegalArgumentException parsing batch key '" + id + "'", HttpStatus.S_400_BAD_REQUEST.getCode(), e);
+      }
+    }
+    return batchKeys;
+  }
+
   private static Set<Object> parseAlternativeBatchKeys(final ResourceModel resource,
                                                        final ServerResourceContext context)
   {
@@ -0,0 +1,177 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server;
+
+
+import com.linkedin.restli.common.RestConstants;
+import com.linkedin.restli.internal.server.model.ResourceModel;
+import com.linkedin.restli.server.ResourceDefinition;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.Map;
+
+
+/**
+ * Resource tree of a {@link RestLiRouter}, compiled from its root {@link ResourceModel}s, which matches the
+ * segments of raw request paths in place.
+ *
+ * Each node holds the names of its sub-resources, or of the root resources for the root node, in an open
+ * addressing table keyed by the hash code of the name, so that a segment is matched by computing its hash
+ * code and comparing regions of the path, without extracting it. Only segments that contain an escape are
+ * extracted and decoded.
+ */
+final class RoutingTrie
+{
+  private final Node _root;
+
+  /**
+   * @param pathRootResourceMap a map of resource root paths, which are the names of the root resources prefixed
+   *          with a slash, to corresponding {@link ResourceModel}s
+   */
+  RoutingTrie(final Map<String, ResourceModel> pathRootResourceMap)
+  {
+    final String[] names = new String[pathRootResourceMap.size()];
+    final Node[] nodes = new Node[names.length];
+    int i = 0;
+    for (Map.Entry<String, ResourceModel> entry : pathRootResourceMap.entrySet())
+    {
+      final String rootPath = entry.getKey();
+      // root paths without the leading slash cannot be requested
+      names[i] = rootPath.startsWith("/") ? rootPath.substring(1) : null;
+      nodes[i] = compile(entry.getValue());
+      i++;
+    }
+    _root = new Node(null, names, nodes);
+  }
+
+  Node getRoot()
+  {
+    return _root;
+  }
+
+  private static Node compile(final ResourceModel resource)
+  {
+    final Map<String, ResourceDefinition> subResources = resource.getSubResourceDefinitions();
+    final String[] names = new String[subResources.size()];
+    final Node[] nodes = new Node[names.length];
+    int i = 0;
+    for (Map.Entry<String, ResourceDefinition> entry : subResources.entrySet())
+    {
+      names[i] = entry.getKey();
+      nodes[i] = compile((ResourceModel) entry.getValue());
+      i++;
+    }
+    return new Node(resource, names, nodes);
+  }
+
+  static final class Node
+  {
+    private final ResourceModel _resource;
+    private final String[] _names;
+    private final Node[] _children;
+    private final int _mask;
+
+    private Node(final ResourceModel resource, final String[] names, final Node[] children)
+    {
+      _resource = resource;
+
+      int capacity = 1;
+      while (capacity < names.length * 2)
+      {
+        capacity <<= 1;
+      }
+      _names = new String[capacity];
+      _children = new Node[capacity];
+      _mask = capacity - 1;
+      for (int i = 0; i < names.length; i++)
+      {
+        if (names[i] != null)
+        {
+          int slot = names[i].hashCode() & _mask;
+          while (_names[slot] != null)
+          {
+            slot = (slot + 1) & _mask;
+          }
+          _names[slot] = names[i];
+          _children[slot] = children[i];
+        }
+      }
+    }
+
+    /**
+     * @return the resource of this node, null for the root node
+     */
+    ResourceModel getResource()
+    {
+      return _resource;
+    }
+
+    /**
+     * Returns the child node named by the segment of the path between the given indexes, decoded if it contains
+     * an escape, or null if there is none.
+     */
+    Node match(final String path, final int start, final int end)
+    {
+      int hash = 0;
+      for (int i = start; i < end; i++)
+      {
+        final char c = path.charAt(i);
+        if (c == '%' || c == '+')
+        {
+          return match(decode(path.substring(start, end)));
+        }
+        hash = 31 * hash + c;
+      }
+
+      final int length = end - start;
+      for (int slot = hash & _mask; _names[slot] != null; slot = (slot + 1) & _mask)
+      {
+        final String name = _names[slot];
+        if (name.length() == length && path.regionMatches(start, name, 0, length))
+        {
+          return _children[slot];
+        }
+      }
+      return null;
+    }
+
+    private Node match(final String name)
+    {
+      for (int slot = name.hashCode() & _mask; _names[slot] != null; slot = (slot + 1) & _mask)
+      {
+        if (_names[slot].equals(name))
+        {
+          return _children[slot];
+        }
+      }
+      return null;
+    }
+  }
+
+  private static String decode(final String segment)
+  {
+    try
+    {
+      return URLDecoder.decode(segment, RestConstants.DEFAULT_CHARSET_NAME);
+    }
+    catch (UnsupportedEncodingException e)
+    {
+      throw new RestLiInternalException("UnsupportedEncodingException while trying to decode the path segment", e);
+    }
+  }
+}
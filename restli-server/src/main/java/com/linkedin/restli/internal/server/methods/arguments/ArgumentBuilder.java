@@ -45,7 +45,6 @@ import com.linkedin.restli.common.ProtocolVersion;
 import com.linkedin.restli.common.ResourceMethod;
 import com.linkedin.restli.common.RestConstants;
 import com.linkedin.restli.common.TypeSpec;
-import com.linkedin.restli.common.validation.RestLiDataValidator;
 import com.linkedin.restli.internal.common.PathSegment;
 import com.linkedin.restli.internal.common.QueryParamsDataMap;
 import com.linkedin.restli.internal.server.RoutingResult;
@@ -179,9 +178,7 @@ public class ArgumentBuilder
         }
         else if (param.getParamType() == Parameter.ParamType.VALIDATOR_PARAM)
         {
-          RestLiDataValidator validator = new RestLiDataValidator(resourceMethod.getResourceModel().getResourceClass().getAnnotations(),
-                                                                  resourceMethod.getResourceModel().getValueClass(), resourceMethod.getMethodType());
-          arguments[i] = validator;
+          arguments[i] = resourceMethod.getValidator();
           continue;
         }
         else if (param.getParamType() == Parameter.ParamType.RESTLI_ATTACHMENTS_PARAM)
@@ -341,7 +338,9 @@ public class ArgumentBuilder
       int j = 0;
       for (Object paramData: itemsList)
       {
-        final DataTemplate<?> itemsElem = DataTemplateUtil.wrap(paramData, param.getItemType().asSubclass(DataTemplate.class));
+        // the items are fixed up while validated, which the parameters may not allow
+        final DataTemplate<?> itemsElem = DataTemplateUtil.wrap(ArgumentUtils.copyIfReadOnly(paramData),
+                                                                param.getItemType().asSubclass(DataTemplate.class));
 
         ValidateDataAgainstSchema.validate(itemsElem.data(),
                                            itemsElem.schema(),
@@ -482,7 +481,8 @@ public class ArgumentBuilder
   private static DataTemplate<?> buildDataTemplateArgument(final ResourceContext context,
                                                            final Parameter<?> param)
   {
-    Object paramValue = context.getStructuredParameter(param.getName());
+    // the value is fixed up while validated, which the parameters may not allow
+    Object paramValue = ArgumentUtils.copyIfReadOnly(context.getStructuredParameter(param.getName()));
     DataTemplate<?> paramRecordTemplate;
 
     if (paramValue == null)
@@ -21,9 +21,16 @@ import com.linkedin.data.schema.RecordDataSchema;
 import com.linkedin.data.template.FieldDef;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.restli.common.ResourceMethod;
+import com.linkedin.restli.common.validation.RestLiDataValidator;
 import com.linkedin.restli.server.ResourceLevel;
+import com.linkedin.restli.server.annotations.Blocking;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -41,6 +48,9 @@ public class ResourceMethodDescriptor
   private ResourceModel                                 _resourceModel;
   private final ResourceMethod                          _type;
   private final Method                                  _method;
+  private final MethodHandle                            _invoker;
+  private final Class<?>[]                              _parameterTypes;
+  private final Class<?>[]                              _argumentTypes;
   private final List<Parameter<?>>                      _parameters;
   private final String                                  _finderName;
   private final Class<? extends RecordTemplate>         _collectionCustomMetadataType;
@@ -52,6 +62,8 @@ public class ResourceMethodDescriptor
   private final RecordDataSchema                        _requestDataSchema;
   private final InterfaceType                           _interfaceType;
   private final DataMap                                 _customAnnotations;
+  private volatile Boolean                              _blocking;
+  private volatile RestLiDataValidator                  _validator;
 
   /**
    * Finder resource method descriptor factory.
@@ -194,6 +206,9 @@ public class ResourceMethodDescriptor
     super();
     _type = type;
     _method = method;
+    _invoker = createInvoker(method);
+    _parameterTypes = _invoker == null ? null : method.getParameterTypes();
+    _argumentTypes = _invoker == null ? null : argumentTypes(_parameterTypes);
     _parameters = parameters;
     _finderName = finderName;
     _actionName = actionName;
@@ -246,6 +261,104 @@ public class ResourceMethodDescriptor
     return _method;
   }
 
+  /**
+   * Invokes the resource method, with the same contract as {@link Method#invoke(Object, Object...)}.
+   *
+   * The method is invoked through a method handle unreflected and adapted to take the resource and the argument
+   * array once, when the descriptor is created. The resource and the arguments are checked against the method
+   * before the handle is invoked, so that only the exceptions thrown by the method itself are wrapped in an
+   * {@link InvocationTargetException}. Invalid ones are passed to reflection, which reports them as it always did.
+   *
+   * @param resource resource instance to invoke the method on
+   * @param arguments method arguments
+   * @return the value returned by the method, null if it returns void
+   * @throws IllegalAccessException if the method is not accessible
+   * @throws IllegalArgumentException if the resource or the arguments do not match the method
+   * @throws InvocationTargetException if the method throws, wrapping the thrown exception
+   */
+  public Object invoke(final Object resource, final Object[] arguments)
+      throws IllegalAccessException, InvocationTargetException
+  {
+    if (_invoker == null || !acceptsArguments(resource, arguments))
+    {
+      return _method.invoke(resource, arguments);
+    }
+
+    try
+    {
+      return (Object) _invoker.invokeExact(resource, arguments);
+    }
+    catch (Throwable t)
+    {
+      throw new InvocationTargetException(t);
+    }
+  }
+
+  /**
+   * Returns whether the handle can be invoked with the resource and the arguments without failing to adapt them,
+   * that is whether each argument is an instance of its parameter type or, for a primitive parameter, of its exact
+   * wrapper type. Arguments reflection would widen, such as an Integer for a long parameter, are left to it.
+   */
+  private boolean acceptsArguments(final Object resource, final Object[] arguments)
+  {
+    if (!_method.getDeclaringClass().isInstance(resource)
+        || arguments == null
+        || arguments.length != _argumentTypes.length)
+    {
+      return false;
+    }
+
+    for (int i = 0; i < arguments.length; i++)
+    {
+      final Object argument = arguments[i];
+      if (argument == null ? _parameterTypes[i].isPrimitive() : !_argumentTypes[i].isInstance(argument))
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns a handle of type (Object, Object[])Object invoking the method, null if the method is static or not
+   * public, in which case it is invoked through reflection.
+   */
+  private static MethodHandle createInvoker(final Method method)
+  {
+    if (method == null || Modifier.isStatic(method.getModifiers()))
+    {
+      return null;
+    }
+
+    try
+    {
+      return MethodHandles.publicLookup()
+          .unreflect(method)
+          .asSpreader(Object[].class, method.getParameterCount())
+          .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+    }
+    catch (IllegalAccessException e)
+    {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the parameter types, with primitive types replaced by their wrapper types.
+   */
+  private static Class<?>[] argumentTypes(final Class<?>[] parameterTypes)
+  {
+    final Class<?>[] types = parameterTypes.clone();
+    for (int i = 0; i < types.length; i++)
+    {
+      if (types[i].isPrimitive())
+      {
+        types[i] = MethodType.methodType(types[i]).wrap().returnType();
+      }
+    }
+    return types;
+  }
+
   /**
    * Get the list of the method {@link Parameter}s.
    *
@@ -385,6 +498,44 @@ public class ResourceMethodDescriptor
     return _interfaceType;
   }
 
+  /**
+   * Returns whether invoking the method may block the calling thread, as declared by the {@link Blocking}
+   * annotation of the method or else of its resource class. Without annotation, only synchronous methods
+   * are considered blocking.
+   */
+  public boolean isBlocking()
+  {
+    Boolean blocking = _blocking;
+    if (blocking == null)
+    {
+      Blocking annotation = _method == null ? null : _method.getAnnotation(Blocking.class);
+      if (annotation == null && _resourceModel != null)
+      {
+        annotation = _resourceModel.getResourceClass().getAnnotation(Blocking.class);
+      }
+      blocking = annotation != null ? annotation.value() : _interfaceType == InterfaceType.SYNC;
+      _blocking = blocking;
+    }
+    return blocking;
+  }
+
+  /**
+   * Returns the validator of the data of the method, which is created on first use and shared by the requests to
+   * the method since it compiles the schema of the resource.
+   */
+  public RestLiDataValidator getValidator()
+  {
+    RestLiDataValidator validator = _validator;
+    if (validator == null)
+    {
+      validator = new RestLiDataValidator(_resourceModel.getResourceClass().getAnnotations(),
+                                          _resourceModel.getValueClass(),
+                                          _type);
+      _validator = validator;
+    }
+    return validator;
+  }
+
   public DataMap getCustomAnnotationData()
   {
     return _customAnnotations;
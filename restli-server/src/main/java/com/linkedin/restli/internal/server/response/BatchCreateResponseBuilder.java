@@ -136,9 +136,9 @@ public class BatchCreateResponseBuilder implements RestLiResponseBuilder<RestLiR
           if (createKVResponse.getError() == null)
           {
             DataMap entityData = createKVResponse.getEntity() != null ? createKVResponse.getEntity().data() : null;
-            final DataMap data = RestUtils.projectFields(entityData,
-                                                         resourceContext.getProjectionMode(),
-                                                         resourceContext.getProjectionMask());
+            final DataMap data = RestUtils.projectFieldsForResponse(entityData,
+                                                                    resourceContext.getProjectionMode(),
+                                                                    resourceContext.getProjectionMask());
 
             CreateIdEntityStatus<Object, RecordTemplate> entry = new CreateIdEntityStatus<>(
                     createKVResponse.getStatus().getCode(),
@@ -149,7 +149,7 @@ public abstract class CollectionResponseBuilder<D extends RestLiResponseData<? e
             "Unexpected null encountered. Null element inside of a List returned by the resource method: " + routingResult.getResourceMethod());
       }
       processedElements.add(new AnyRecord(RestUtils
-          .projectFields(entry.data(), resourceContext.getProjectionMode(), resourceContext.getProjectionMask())));
+          .projectFieldsForResponse(entry.data(), resourceContext.getProjectionMode(), resourceContext.getProjectionMask())));
     }
 
     //Now for custom metadata
@@ -157,7 +157,7 @@ public abstract class CollectionResponseBuilder<D extends RestLiResponseData<? e
     if (customMetadata != null)
     {
       projectedCustomMetadata = new AnyRecord(RestUtils
-          .projectFields(customMetadata.data(), resourceContext.getMetadataProjectionMode(),
+          .projectFieldsForResponse(customMetadata.data(), resourceContext.getMetadataProjectionMode(),
               resourceContext.getMetadataProjectionMask()));
     }
     else
@@ -117,7 +117,7 @@ public class CreateResponseBuilder implements RestLiResponseBuilder<RestLiRespon
       }
 
       DataMap entityData = entity.data();
-      final DataMap data = RestUtils.projectFields(entityData, resourceContext.getProjectionMode(), resourceContext.getProjectionMask());
+      final DataMap data = RestUtils.projectFieldsForResponse(entityData, resourceContext.getProjectionMode(), resourceContext.getProjectionMask());
       idResponse = new AnyRecord(data);
       // Ideally, we should set an IdEntityResponse to the envelope. But we are keeping AnyRecord
       // to make sure the runtime object is backwards compatible.
@@ -73,8 +73,8 @@ public class GetResponseBuilder implements RestLiResponseBuilder<RestLiResponseD
       status = HttpStatus.S_200_OK;
     }
     final ResourceContext resourceContext = routingResult.getContext();
-    final DataMap data = RestUtils.projectFields(record.data(), resourceContext.getProjectionMode(),
-                                                 resourceContext.getProjectionMask());
+    final DataMap data = RestUtils.projectFieldsForResponse(record.data(), resourceContext.getProjectionMode(),
+                                                            resourceContext.getProjectionMask());
 
     return new RestLiResponseDataImpl<>(new GetResponseEnvelope(status, new AnyRecord(data)), headers, cookies);
   }
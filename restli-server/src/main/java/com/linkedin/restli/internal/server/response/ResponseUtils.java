@@ -19,8 +19,11 @@ package com.linkedin.restli.internal.server.response;
 
 import com.linkedin.data.ByteString;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.BufferPool;
+import com.linkedin.data.codec.PooledByteString;
 import com.linkedin.data.codec.entitystream.StreamDataCodec;
 import com.linkedin.entitystream.EntityStream;
+import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.message.rest.RestException;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.rest.RestResponseBuilder;
@@ -83,6 +86,18 @@ public class ResponseUtils
   }
 
   public static RestResponse buildResponse(RoutingResult routingResult, RestLiResponse restLiResponse)
+  {
+    return buildResponse(routingResult, restLiResponse, null);
+  }
+
+  /**
+   * Build the {@link RestResponse}. When the response is encoded as PSON and a {@link BufferPool} is provided, the
+   * entity references buffers borrowed from the pool, and a {@link Runnable} returning them is set as the
+   * {@link R2Constants#RESPONSE_ENTITY_RELEASE} local attribute of the request context for the transport to run
+   * once the entity is written.
+   */
+  public static RestResponse buildResponse(RoutingResult routingResult, RestLiResponse restLiResponse,
+      BufferPool psonBufferPool)
   {
     RestResponseBuilder builder = new RestResponseBuilder()
         .setHeaders(restLiResponse.getHeaders())
@@ -97,12 +112,13 @@ public class ResponseUtils
     {
       DataMap dataMap = restLiResponse.getDataMap();
       String mimeType = context.getResponseMimeType();
-      builder = encodeResult(mimeType, builder, dataMap);
+      builder = encodeResult(mimeType, builder, dataMap, context, psonBufferPool);
     }
     return builder.build();
   }
 
-  private static RestResponseBuilder encodeResult(String mimeType, RestResponseBuilder builder, DataMap dataMap)
+  private static RestResponseBuilder encodeResult(String mimeType, RestResponseBuilder builder, DataMap dataMap,
+      ServerResourceContext context, BufferPool psonBufferPool)
   {
     try
     {
@@ -111,8 +127,17 @@ public class ResponseUtils
               "Requested mime type for encoding is not supported. Mimetype: " + mimeType));
       assert type != null;
       builder.setHeader(RestConstants.HEADER_CONTENT_TYPE, type.getHeaderKey());
-      // Use unsafe wrap to avoid copying the bytes when request builder creates ByteString.
-      builder.setEntity(ByteString.unsafeWrap(DataMapUtils.mapToBytes(dataMap, type.getCodec())));
+      if (type == ContentType.PSON && psonBufferPool != null)
+      {
+        PooledByteString entity = DataMapUtils.mapToPooledPsonByteString(dataMap, psonBufferPool);
+        builder.setEntity(entity.getByteString());
+        context.getRawRequestContext().putLocalAttr(R2Constants.RESPONSE_ENTITY_RELEASE, (Runnable) entity::release);
+      }
+      else
+      {
+        // Use unsafe wrap to avoid copying the bytes when request builder creates ByteString.
+        builder.setEntity(ByteString.unsafeWrap(DataMapUtils.mapToBytes(dataMap, type.getCodec(context.getRequestHeaders()))));
+      }
     }
     catch (MimeTypeParseException e)
     {
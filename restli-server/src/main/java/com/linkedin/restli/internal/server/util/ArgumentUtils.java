@@ -17,6 +17,7 @@
 package com.linkedin.restli.internal.server.util;
 
 
+import com.linkedin.data.DataComplex;
 import com.linkedin.data.DataMap;
 import com.linkedin.data.schema.DataSchema;
 import com.linkedin.data.schema.DataSchemaUtil;
@@ -24,6 +25,7 @@ import com.linkedin.data.template.DataTemplateUtil;
 import com.linkedin.data.template.InvalidAlternativeKeyException;
 import com.linkedin.data.template.KeyCoercer;
 import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.data.transform.filter.CompiledProjection;
 import com.linkedin.data.transform.filter.request.MaskTree;
 import com.linkedin.jersey.api.uri.UriComponent;
 import com.linkedin.restli.common.ComplexResourceKey;
@@ -67,6 +69,10 @@ import java.util.regex.Pattern;
 public class ArgumentUtils
 {
   private static final Logger _log = LoggerFactory.getLogger(ArgumentUtils.class);
+
+  private static final int DECODED_MASKS_CACHE_SIZE = 512;
+  private static final ConcurrentBoundedCache<String, CompiledProjection> _decodedMasks =
+      new ConcurrentBoundedCache<>(DECODED_MASKS_CACHE_SIZE);
   private static final Pattern SIMPLE_KEY_DELIMETER_PATTERN =
           Pattern.compile(Pattern.quote(String.valueOf(RestConstants.SIMPLE_KEY_DELIMITER)));
   private static final Pattern LEGACY_SIMPLE_KEY_DELIMETER_PATTERN = Pattern.compile(Pattern.quote(";"));
@@ -150,14 +156,45 @@ public class ArgumentUtils
    */
   public static MaskTree decodeMaskUriFormat(final String uriParam) throws RestLiSyntaxException
   {
-    try
+    // requests to the same finders usually repeat the same projection, so the parsed masks are compiled and
+    // cached by their uri format, and every request gets its own copy it is free to modify
+    CompiledProjection projection = _decodedMasks.get(uriParam);
+    if (projection == null)
     {
-      return URIMaskUtil.decodeMaskUriFormat(new StringBuilder(uriParam));
+      final DataMap mask;
+      try
+      {
+        mask = URIMaskUtil.decodeMaskUriFormat(new StringBuilder(uriParam)).getDataMap();
+      }
+      catch (IllegalMaskException e)
+      {
+        throw new RestLiSyntaxException("error parsing mask", e);
+      }
+      mask.makeReadOnly();
+      projection = CompiledProjection.compile(mask);
+      _decodedMasks.put(uriParam, projection);
     }
-    catch (IllegalMaskException e)
+    return new DecodedMaskTree(projection);
+  }
+
+  /**
+   * @param data query parameter value, which is read only if the parameters are cached
+   * @return a copy of the data if it is a read only {@link DataComplex}, the data otherwise
+   */
+  public static Object copyIfReadOnly(final Object data)
+  {
+    if (data instanceof DataComplex && ((DataComplex) data).isReadOnly())
     {
-      throw new RestLiSyntaxException("error parsing mask", e);
+      try
+      {
+        return ((DataComplex) data).copy();
+      }
+      catch (CloneNotSupportedException e)
+      {
+        throw new RestLiInternalException(e);
+      }
     }
+    return data;
   }
 
   /**
@@ -263,18 +300,21 @@ public class ArgumentUtils
       String value = dataMap.getString(name);
       if (value != null)
       {
-        dataMap.remove(name);
         compoundKey.append(name, convertSimpleValue(value, key.getDataSchema(), key.getType()));
       }
     }
-    if (!dataMap.isEmpty())
+    // the data map is left untouched since it may be read only
+    if (compoundKey.getNumParts() != dataMap.size())
     {
       StringBuilder errorMessageBuilder = new StringBuilder();
       for (String leftOverKey: dataMap.keySet())
       {
-        errorMessageBuilder.append("Unknown key part named '");
-        errorMessageBuilder.append(leftOverKey);
-        errorMessageBuilder.append("'");
+        if (compoundKey.getPart(leftOverKey) == null)
+        {
+          errorMessageBuilder.append("Unknown key part named '");
+          errorMessageBuilder.append(leftOverKey);
+          errorMessageBuilder.append("'");
+        }
       }
       throw new IllegalArgumentException(errorMessageBuilder.toString());
     }
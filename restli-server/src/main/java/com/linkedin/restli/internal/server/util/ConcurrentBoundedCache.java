@@ -0,0 +1,118 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server.util;
+
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * A thread safe map holding about a given number of entries. Lookups do not lock, and only mark the entry
+ * they find as referenced. When a put takes the cache over its capacity, entries are evicted with the clock
+ * algorithm, which approximates least recently used eviction: a hand goes round the entries, clearing the
+ * mark of referenced ones and evicting the others. Only one thread evicts at a time, so the cache may hold
+ * a few more entries than its capacity while puts race with it. Keys and values must not be modified once
+ * they are put in the cache.
+ */
+public class ConcurrentBoundedCache<K, V>
+{
+  private final int _capacity;
+  private final ConcurrentHashMap<K, Entry<V>> _entries;
+  private final AtomicBoolean _evicting = new AtomicBoolean();
+  // guarded by _evicting, the weakly consistent iterator stays usable as entries come and go
+  private Iterator<Entry<V>> _hand;
+
+  public ConcurrentBoundedCache(final int capacity)
+  {
+    _capacity = capacity;
+    _entries = new ConcurrentHashMap<>();
+  }
+
+  public V get(K key)
+  {
+    final Entry<V> entry = _entries.get(key);
+    if (entry == null)
+    {
+      return null;
+    }
+    // check first, so that hot entries are not written by every reader
+    if (!entry._referenced)
+    {
+      entry._referenced = true;
+    }
+    return entry._value;
+  }
+
+  public void put(K key, V value)
+  {
+    _entries.put(key, new Entry<>(value));
+    if (_entries.size() > _capacity)
+    {
+      evict();
+    }
+  }
+
+  public int size()
+  {
+    return _entries.size();
+  }
+
+  private void evict()
+  {
+    if (!_evicting.compareAndSet(false, true))
+    {
+      return;
+    }
+
+    try
+    {
+      while (_entries.size() > _capacity)
+      {
+        if (_hand == null || !_hand.hasNext())
+        {
+          _hand = _entries.values().iterator();
+        }
+        final Entry<V> entry = _hand.next();
+        if (entry._referenced)
+        {
+          entry._referenced = false;
+        }
+        else
+        {
+          _hand.remove();
+        }
+      }
+    }
+    finally
+    {
+      _evicting.set(false);
+    }
+  }
+
+  private static final class Entry<V>
+  {
+    private final V _value;
+    private volatile boolean _referenced;
+
+    Entry(V value)
+    {
+      _value = value;
+    }
+  }
+}
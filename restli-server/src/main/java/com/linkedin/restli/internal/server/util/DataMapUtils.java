@@ -21,8 +21,10 @@ import com.linkedin.data.ByteString;
 import com.linkedin.data.DataComplex;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.BufferPool;
 import com.linkedin.data.codec.DataCodec;
 import com.linkedin.data.codec.JacksonDataCodec;
+import com.linkedin.data.codec.PooledByteString;
 import com.linkedin.data.codec.PsonDataCodec;
 import com.linkedin.data.schema.DataSchema;
 import com.linkedin.data.template.DataTemplate;
@@ -389,6 +391,26 @@ public class DataMapUtils
     return ByteString.unsafeWrap(DataMapUtils.mapToPsonBytes(dataMap));
   }
 
+  /**
+   * Encode the {@link DataMap} using {@link PsonDataCodec} into buffers borrowed from the provided pool.
+   *
+   * @param dataMap input {@link DataMap}
+   * @param bufferPool pool to borrow the buffers from.
+   * @return {@link PooledByteString} which must be released to return the buffers to the pool.
+   */
+  public static PooledByteString mapToPooledPsonByteString(final DataMap dataMap, BufferPool bufferPool)
+  {
+    try
+    {
+      return new PsonDataCodec().setOptions(new PsonDataCodec.Options().setBufferPool(bufferPool))
+          .mapToPooledByteString(dataMap);
+    }
+    catch (IOException e)
+    {
+      throw new RestLiInternalException(e);
+    }
+  }
+
   /**
    * Encode {@link DataMap} as a byte array using the provided codec.
    *
@@ -0,0 +1,60 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server.util;
+
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.transform.filter.CompiledProjection;
+import com.linkedin.data.transform.filter.request.MaskTree;
+import com.linkedin.restli.internal.server.RestLiInternalException;
+
+
+/**
+ * A projection mask decoded from its uri format, carrying the projection compiled from the decoded mask, so that
+ * projecting with it does not look the compiled projection up by mask content. The mask is a copy of the decoded
+ * one, which requests are free to modify.
+ */
+class DecodedMaskTree extends MaskTree
+{
+  private final CompiledProjection _projection;
+
+  DecodedMaskTree(CompiledProjection projection)
+  {
+    super(copy(projection.getMask()));
+    _projection = projection;
+  }
+
+  /**
+   * @return the compiled projection of this mask, or null if the mask was modified since it was decoded
+   */
+  CompiledProjection getCompiledProjection()
+  {
+    return getDataMap().equals(_projection.getMask()) ? _projection : null;
+  }
+
+  private static DataMap copy(DataMap mask)
+  {
+    try
+    {
+      return mask.copy();
+    }
+    catch (CloneNotSupportedException e)
+    {
+      throw new RestLiInternalException(e);
+    }
+  }
+}
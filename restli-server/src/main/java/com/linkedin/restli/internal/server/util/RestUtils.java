@@ -25,7 +25,7 @@ import com.linkedin.data.it.IterationOrder;
 import com.linkedin.data.it.Predicate;
 import com.linkedin.data.schema.RecordDataSchema;
 import com.linkedin.data.template.RecordTemplate;
-import com.linkedin.data.transform.filter.CopyFilter;
+import com.linkedin.data.transform.filter.CompiledProjection;
 import com.linkedin.data.transform.filter.request.MaskTree;
 import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.restli.common.CollectionMetadata;
@@ -250,6 +250,29 @@ public class RestUtils
    */
   public static DataMap projectFields(final DataMap dataMap, final ProjectionMode projectionMode,
       final MaskTree projectionMask)
+  {
+    return projectFields(dataMap, projectionMode, projectionMask, false);
+  }
+
+  /**
+   * Same as {@link #projectFields(DataMap, ProjectionMode, MaskTree)}, except that the input {@link DataMap} itself
+   * is returned instead of a copy if the projection keeps all of it, for instance if the projection mask lists
+   * every field of the entity's schema. Meant for building responses, where neither the input nor the result
+   * are modified afterwards.
+   *
+   * @param dataMap {@link DataMap} to filter
+   * @param projectionMode {@link ProjectionMode} to decide if restli should project or not
+   * @param  projectionMask {@link MaskTree} the mask to use when projecting
+   * @return filtered DataMap, which may be the input one. Empty one if the projection mask specifies no fields.
+   */
+  public static DataMap projectFieldsForResponse(final DataMap dataMap, final ProjectionMode projectionMode,
+      final MaskTree projectionMask)
+  {
+    return projectFields(dataMap, projectionMode, projectionMask, true);
+  }
+
+  private static DataMap projectFields(final DataMap dataMap, final ProjectionMode projectionMode,
+      final MaskTree projectionMask, final boolean reuseIfKeptAll)
   {
     if (projectionMode == ProjectionMode.MANUAL)
     {
@@ -261,7 +284,6 @@ public class RestUtils
       return dataMap;
     }
 
-    final DataMap filterMap = projectionMask.getDataMap();
     //Special-case: when present, an empty filter should not return any fields.
     if (projectionMask.getDataMap().isEmpty())
     {
@@ -270,7 +292,12 @@ public class RestUtils
 
     try
     {
-      return (DataMap) new CopyFilter().filter(dataMap, filterMap);
+      final CompiledProjection projection = getCompiledProjection(projectionMask);
+      if (reuseIfKeptAll && dataMap != null && projection.keepsAll(dataMap))
+      {
+        return dataMap;
+      }
+      return (DataMap) projection.project(dataMap);
     }
     catch (Exception e)
     {
@@ -278,6 +305,48 @@ public class RestUtils
     }
   }
 
+  /**
+   * Returns the compiled form of the given projection mask. Masks decoded from a request carry their compiled
+   * projection, unless they were modified since. Other masks are compiled once and cached by their content, so
+   * requests with the same projection, which get equal but distinct masks, share it.
+   *
+   * @param projectionMask a non empty projection mask
+   * @return the compiled projection
+   */
+  public static CompiledProjection getCompiledProjection(MaskTree projectionMask)
+  {
+    if (projectionMask instanceof DecodedMaskTree)
+    {
+      final CompiledProjection projection = ((DecodedMaskTree) projectionMask).getCompiledProjection();
+      if (projection != null)
+      {
+        return projection;
+      }
+    }
+
+    final DataMap filterMap = projectionMask.getDataMap();
+    CompiledProjection projection = _compiledProjections.get(filterMap);
+    if (projection == null)
+    {
+      DataMap mask = filterMap;
+      if (!mask.isReadOnly())
+      {
+        try
+        {
+          mask = mask.copy();
+        }
+        catch (CloneNotSupportedException e)
+        {
+          throw new RestLiInternalException(e);
+        }
+        mask.makeReadOnly();
+      }
+      projection = CompiledProjection.compile(mask);
+      _compiledProjections.put(mask, projection);
+    }
+    return projection;
+  }
+
   /**
    * Validate request headers.
    *
@@ -313,6 +382,10 @@ public class RestUtils
     EMPTY_DATAMAP.makeReadOnly();
   }
 
+  private static final int COMPILED_PROJECTIONS_CACHE_SIZE = 512;
+  private static final ConcurrentBoundedCache<DataMap, CompiledProjection> _compiledProjections =
+      new ConcurrentBoundedCache<>(COMPILED_PROJECTIONS_CACHE_SIZE);
+
   /**
    * This method recursively removes all values from a RecordTemplate
    * that do not match some field in the schema via an all positive
@@ -341,7 +341,7 @@ class AttachmentHandlingRestLiServer extends StreamRestLiServer
         RoutingResult routingResult,
         com.linkedin.restli.common.ContentType contentType)
     {
-      super(callback, contentType);
+      super(callback, contentType, contentType.getStreamCodec(routingResult.getContext().getRequestHeaders()));
       _routingResult = routingResult;
     }
 
@@ -64,6 +64,7 @@ abstract class BaseRestLiServer
   private final ErrorResponseBuilder _errorResponseBuilder;
   private final List<Filter> _filters;
   private final Set<String> _customContentTypes;
+  private final QueryParamsCache _queryParamsCache;
 
   BaseRestLiServer(RestLiConfig config,
       ResourceFactory resourceFactory,
@@ -75,7 +76,8 @@ abstract class BaseRestLiServer
         .map(ContentType::getHeaderKey)
         .collect(Collectors.toSet());
 
-    _router = new RestLiRouter(rootResources);
+    _queryParamsCache = config.getQueryParamsCache();
+    _router = new RestLiRouter(rootResources, _queryParamsCache);
     resourceFactory.setRootResources(rootResources);
     _methodInvoker = new RestLiMethodInvoker(resourceFactory, engine, config.getInternalErrorMessage());
 
@@ -126,7 +128,8 @@ abstract class BaseRestLiServer
 
     try
     {
-      ServerResourceContext context = new ResourceContextImpl(new PathKeysImpl(), request, requestContext);
+      ServerResourceContext context = new ResourceContextImpl(new PathKeysImpl(), request, requestContext,
+          _queryParamsCache);
       RestUtils.validateRequestHeadersAndUpdateResourceContext(request.getHeaders(), _customContentTypes,
           context);
 
@@ -0,0 +1,208 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.linkedin.restli.server;
+
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.DataMap;
+import com.linkedin.restli.common.ComplexResourceKey;
+import com.linkedin.restli.common.CompoundKey;
+import com.linkedin.restli.common.ProtocolVersion;
+import com.linkedin.restli.internal.common.AllProtocolVersions;
+import com.linkedin.restli.internal.server.model.ResourceModel;
+import com.linkedin.restli.internal.server.util.ConcurrentBoundedCache;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Bounded cache of the query parameters and batch keys parsed from request URIs, keyed by the raw query
+ * string, for services receiving many requests with identical query strings, such as repeated finders and
+ * batch gets. See {@link RestLiConfig#setQueryParamsCache(QueryParamsCache)}.
+ *
+ * Cached values are shared by the requests: the query parameters are read only, and so are the compound
+ * and complex batch keys. Batch keys of other types are cached only if they are immutable.
+ *
+ * Lookups do not lock. Once the cache is full, entries not looked up recently are evicted first.
+ */
+public class QueryParamsCache
+{
+  private final ConcurrentBoundedCache<CacheKey, DataMap> _parameters;
+  private final ConcurrentBoundedCache<CacheKey, Set<Object>> _batchKeys;
+  private final AtomicLong _hitCount = new AtomicLong();
+  private final AtomicLong _missCount = new AtomicLong();
+
+  /**
+   * @param capacity maximum number of query strings for which the parameters are cached, which is also
+   *                 the maximum number of cached batch key sets
+   */
+  public QueryParamsCache(int capacity)
+  {
+    if (capacity <= 0)
+    {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    _parameters = new ConcurrentBoundedCache<>(capacity);
+    _batchKeys = new ConcurrentBoundedCache<>(capacity);
+  }
+
+  /**
+   * @return number of lookups of parameters or batch keys which were found in the cache
+   */
+  public long getHitCount()
+  {
+    return _hitCount.get();
+  }
+
+  /**
+   * @return number of lookups of parameters or batch keys which were not found in the cache
+   */
+  public long getMissCount()
+  {
+    return _missCount.get();
+  }
+
+  /**
+   * @return the read only parameters parsed from the given query string, or null if they are not cached
+   */
+  public DataMap getParameters(String rawQuery, ProtocolVersion version)
+  {
+    return count(_parameters.get(new CacheKey(null, rawQuery, version)));
+  }
+
+  /**
+   * Caches the parameters parsed from the given query string, which are made read only.
+   */
+  public void putParameters(String rawQuery, ProtocolVersion version, DataMap parameters)
+  {
+    parameters.makeReadOnly();
+    _parameters.put(new CacheKey(null, rawQuery, version), parameters);
+  }
+
+  /**
+   * @return the batch keys of the resource parsed from the given query string, or null if they are not cached.
+   *         The returned set is unmodifiable.
+   */
+  public Set<Object> getBatchKeys(ResourceModel resource, String rawQuery, ProtocolVersion version)
+  {
+    return count(_batchKeys.get(new CacheKey(resource, rawQuery, version)));
+  }
+
+  /**
+   * Caches the batch keys of the resource parsed from the given query string if all of them can be shared
+   * by requests, in which case the compound and complex keys are made read only.
+   */
+  public void putBatchKeys(ResourceModel resource, String rawQuery, ProtocolVersion version, Set<Object> batchKeys)
+  {
+    for (Object key : batchKeys)
+    {
+      if (!isShareable(key))
+      {
+        return;
+      }
+    }
+    for (Object key : batchKeys)
+    {
+      if (key instanceof CompoundKey)
+      {
+        ((CompoundKey) key).makeReadOnly();
+      }
+      else if (key instanceof ComplexResourceKey)
+      {
+        ((ComplexResourceKey<?, ?>) key).makeReadOnly();
+      }
+    }
+    _batchKeys.put(new CacheKey(resource, rawQuery, version), Collections.unmodifiableSet(new HashSet<>(batchKeys)));
+  }
+
+  private <V> V count(V value)
+  {
+    if (value == null)
+    {
+      _missCount.incrementAndGet();
+    }
+    else
+    {
+      _hitCount.incrementAndGet();
+    }
+    return value;
+  }
+
+  private static boolean isShareable(Object key)
+  {
+    if (key instanceof CompoundKey)
+    {
+      final CompoundKey compoundKey = (CompoundKey) key;
+      for (String name : compoundKey.getPartKeys())
+      {
+        if (!isImmutable(compoundKey.getPart(name)))
+        {
+          return false;
+        }
+      }
+      return true;
+    }
+    return key instanceof ComplexResourceKey || isImmutable(key);
+  }
+
+  private static boolean isImmutable(Object value)
+  {
+    return value instanceof String || value instanceof Integer || value instanceof Long || value instanceof Float
+        || value instanceof Double || value instanceof Boolean || value instanceof Enum || value instanceof ByteString;
+  }
+
+  /**
+   * The query string, the resource if the value depends on it, and whether the protocol is at least 2.0.0,
+   * since this is the only version difference affecting the parsing.
+   */
+  private static final class CacheKey
+  {
+    private final ResourceModel _resource;
+    private final String _rawQuery;
+    private final boolean _version2;
+
+    CacheKey(ResourceModel resource, String rawQuery, ProtocolVersion version)
+    {
+      _resource = resource;
+      _rawQuery = rawQuery;
+      _version2 = version.compareTo(AllProtocolVersions.RESTLI_PROTOCOL_2_0_0.getProtocolVersion()) >= 0;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      if (this == o)
+      {
+        return true;
+      }
+      if (!(o instanceof CacheKey))
+      {
+        return false;
+      }
+      final CacheKey other = (CacheKey) o;
+      return _resource == other._resource && _version2 == other._version2 && _rawQuery.equals(other._rawQuery);
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return 31 * (31 * System.identityHashCode(_resource) + _rawQuery.hashCode()) + (_version2 ? 1 : 0);
+    }
+  }
+}
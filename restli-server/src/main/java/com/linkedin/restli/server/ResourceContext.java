@@ -17,6 +17,8 @@
 package com.linkedin.restli.server;
 
 
+import com.linkedin.data.schema.PathSpec;
+import com.linkedin.data.transform.ProjectionUtil;
 import com.linkedin.data.transform.filter.request.MaskTree;
 import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.message.rest.RestRequest;
@@ -63,6 +65,20 @@ public interface ResourceContext extends CustomRequestContext
    */
   MaskTree getProjectionMask();
 
+  /**
+   * Check whether the field represented by the given {@link PathSpec} is selected by the projection mask for root
+   * object entities, in other words whether it would survive projection. All fields are needed when no projection
+   * mask was requested. Resources can use this to avoid computing or fetching fields the client did not ask for.
+   *
+   * @param path the {@link PathSpec} of the field
+   * @return true if the field is needed in the response
+   * @see ProjectionUtil#isPathPresent(MaskTree, PathSpec)
+   */
+  default boolean isFieldNeeded(PathSpec path)
+  {
+    return ProjectionUtil.isPathPresent(getProjectionMask(), path);
+  }
+
   /**
    * Get the projection mask parsed from the query for CollectionResult metadata
    *
@@ -17,6 +17,7 @@
 package com.linkedin.restli.server;
 
 
+import com.linkedin.data.codec.BufferPool;
 import com.linkedin.data.codec.DataCodec;
 import com.linkedin.restli.common.ContentType;
 import com.linkedin.restli.internal.server.response.ErrorResponseBuilder;
@@ -88,6 +89,8 @@ public class RestLiConfig
   private final List<ContentType> _customContentTypes = new LinkedList<>();
   private final List<ResourceDefinitionListener> _resourceDefinitionListeners = new ArrayList<>();
   private boolean _useStreamCodec = false;
+  private BufferPool _psonBufferPool = null;
+  private QueryParamsCache _queryParamsCache = null;
 
   /**
    * Constructor.
@@ -451,4 +454,46 @@ public class RestLiConfig
   {
     _useStreamCodec = useStreamCodec;
   }
+
+  /**
+   * Gets the {@link BufferPool} used to encode PSON responses of {@link com.linkedin.r2.message.rest.RestRequest}s,
+   * null if PSON responses are encoded into freshly allocated buffers.
+   */
+  public BufferPool getPsonBufferPool()
+  {
+    return _psonBufferPool;
+  }
+
+  /**
+   * Sets the {@link BufferPool} used to encode PSON responses of {@link com.linkedin.r2.message.rest.RestRequest}s.
+   * The response entity references the pooled buffers without copying them. The buffers are returned to the pool
+   * once the transport has written the response, see {@link com.linkedin.r2.filter.R2Constants#RESPONSE_ENTITY_RELEASE};
+   * with transports that don't support it, they are garbage collected instead.
+   * CAUTION: filters must not retain the response entity after the response is sent.
+   */
+  public void setPsonBufferPool(BufferPool psonBufferPool)
+  {
+    _psonBufferPool = psonBufferPool;
+  }
+
+  /**
+   * Gets the {@link QueryParamsCache} holding the query parameters and batch keys parsed from request URIs,
+   * null if they are parsed for every request.
+   */
+  public QueryParamsCache getQueryParamsCache()
+  {
+    return _queryParamsCache;
+  }
+
+  /**
+   * Sets the {@link QueryParamsCache} holding the query parameters and batch keys parsed from request URIs, which
+   * saves parsing them again for requests with the same query string.
+   * CAUTION: the query parameters of the resource context, including the ones returned by
+   * {@link com.linkedin.restli.server.filter.FilterRequestContext#getQueryParameters()}, are then read only, and so
+   * are the compound and complex batch keys.
+   */
+  public void setQueryParamsCache(QueryParamsCache queryParamsCache)
+  {
+    _queryParamsCache = queryParamsCache;
+  }
 }
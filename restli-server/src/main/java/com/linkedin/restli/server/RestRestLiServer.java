@@ -3,6 +3,7 @@ package com.linkedin.restli.server;
 import com.linkedin.common.callback.Callback;
 import com.linkedin.common.callback.CallbackAdapter;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.BufferPool;
 import com.linkedin.parseq.Engine;
 import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.message.rest.RestException;
@@ -40,6 +41,7 @@ class RestRestLiServer extends BaseRestLiServer implements RestRequestHandler
   private static final Logger log = LoggerFactory.getLogger(RestRestLiServer.class);
 
   private final List<NonResourceRequestHandler> _nonResourceRequestHandlers;
+  private final BufferPool _psonBufferPool;
 
   RestRestLiServer(RestLiConfig config,
       ResourceFactory resourceFactory,
@@ -54,6 +56,7 @@ class RestRestLiServer extends BaseRestLiServer implements RestRequestHandler
         errorResponseBuilder);
 
     _nonResourceRequestHandlers = new ArrayList<>();
+    _psonBufferPool = config.getPsonBufferPool();
 
     // Add documentation request handler
     RestLiDocumentationRequestHandler docReqHandler = config.getDocumentationRequestHandler();
@@ -167,24 +170,27 @@ class RestRestLiServer extends BaseRestLiServer implements RestRequestHandler
     handleResourceRequest(request,
         routingResult,
         entityDataMap,
-        new RestLiToRestResponseCallbackAdapter(callback, routingResult));
+        new RestLiToRestResponseCallbackAdapter(callback, routingResult, _psonBufferPool));
   }
 
   static class RestLiToRestResponseCallbackAdapter extends CallbackAdapter<RestResponse, RestLiResponse>
   {
     private final RoutingResult _routingResult;
+    private final BufferPool _psonBufferPool;
 
-    RestLiToRestResponseCallbackAdapter(Callback<RestResponse> callback, RoutingResult routingResult)
+    RestLiToRestResponseCallbackAdapter(Callback<RestResponse> callback, RoutingResult routingResult,
+        BufferPool psonBufferPool)
     {
       super(callback);
       _routingResult = routingResult;
+      _psonBufferPool = psonBufferPool;
     }
 
     @Override
     protected RestResponse convertResponse(RestLiResponse restLiResponse)
           throws Exception
     {
-      return ResponseUtils.buildResponse(_routingResult, restLiResponse);
+      return ResponseUtils.buildResponse(_routingResult, restLiResponse, _psonBufferPool);
     }
 
     @Override
@@ -165,7 +165,7 @@ class StreamRestLiServer extends BaseRestLiServer implements StreamRequestHandle
       return;
     }
     StreamDataCodec reqCodec = reqContentType.getStreamCodec();
-    StreamDataCodec respCodec = respContentType.getStreamCodec();
+    StreamDataCodec respCodec = respContentType.getStreamCodec(request.getHeaders());
 
     if (_useStreamCodec && reqCodec != null && respCodec != null)
     {
@@ -232,17 +232,26 @@ class StreamRestLiServer extends BaseRestLiServer implements StreamRequestHandle
       RoutingResult routingResult,
       ContentType contentType)
   {
-    return new StreamToRestLiResponseCallbackAdapter(callback, contentType);
+    return new StreamToRestLiResponseCallbackAdapter(callback, contentType,
+        contentType.getStreamCodec(routingResult.getContext().getRequestHeaders()));
   }
 
   static class StreamToRestLiResponseCallbackAdapter extends CallbackAdapter<StreamResponse, RestLiResponse>
   {
     private final ContentType _contentType;
+    private final StreamDataCodec _streamCodec;
 
     StreamToRestLiResponseCallbackAdapter(Callback<StreamResponse> callback, ContentType contentType)
+    {
+      this(callback, contentType, contentType.getStreamCodec());
+    }
+
+    StreamToRestLiResponseCallbackAdapter(Callback<StreamResponse> callback, ContentType contentType,
+        StreamDataCodec streamCodec)
     {
       super(callback);
       _contentType = contentType;
+      _streamCodec = streamCodec;
     }
 
     @Override
@@ -258,7 +267,7 @@ class StreamRestLiServer extends BaseRestLiServer implements StreamRequestHandle
       if (restLiResponse.hasData())
       {
         responseBuilder.setHeader(RestConstants.HEADER_CONTENT_TYPE, _contentType.getHeaderKey());
-        entityStream = _contentType.getStreamCodec().encodeMap(restLiResponse.getDataMap());
+        entityStream = _streamCodec.encodeMap(restLiResponse.getDataMap());
       }
       else
       {
@@ -273,7 +282,7 @@ class StreamRestLiServer extends BaseRestLiServer implements StreamRequestHandle
     {
       if (e instanceof RestLiResponseException)
       {
-        return ResponseUtils.buildStreamException((RestLiResponseException) e, _contentType.getStreamCodec());
+        return ResponseUtils.buildStreamException((RestLiResponseException) e, _streamCodec);
       }
       else
       {
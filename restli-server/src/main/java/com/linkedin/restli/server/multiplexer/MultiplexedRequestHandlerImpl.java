@@ -22,6 +22,7 @@ import com.linkedin.data.template.DataTemplateUtil;
 import com.linkedin.parseq.Engine;
 import com.linkedin.parseq.Task;
 import com.linkedin.parseq.Tasks;
+import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.message.Request;
 import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.message.rest.RestException;
@@ -49,6 +50,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Executor;
 import javax.activation.MimeTypeParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -112,6 +114,31 @@ public class MultiplexedRequestHandlerImpl implements MultiplexedRequestHandler
 
   @Override
   public void handleRequest(RestRequest request, RequestContext requestContext, final Callback<RestResponse> callback)
+  {
+    // Individual requests may resolve to blocking methods, which are not offloaded within the plan of the multiplexed
+    // request. When the transport dispatched the request on one of its I/O threads, handle it on the offload executor.
+    final Executor offloadExecutor = (Executor) requestContext.getLocalAttr(R2Constants.BLOCKING_OFFLOAD_EXECUTOR);
+    if (offloadExecutor == null)
+    {
+      doHandleRequest(request, requestContext, callback);
+    }
+    else
+    {
+      offloadExecutor.execute(() ->
+      {
+        try
+        {
+          doHandleRequest(request, requestContext, callback);
+        }
+        catch (Exception e)
+        {
+          callback.onError(e);
+        }
+      });
+    }
+  }
+
+  private void doHandleRequest(RestRequest request, RequestContext requestContext, final Callback<RestResponse> callback)
   {
     if (HttpMethod.POST != HttpMethod.valueOf(request.getMethod()))
     {
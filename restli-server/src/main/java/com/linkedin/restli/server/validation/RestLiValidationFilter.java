@@ -48,6 +48,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import static com.linkedin.restli.common.ResourceMethod.*;
 import static com.linkedin.restli.common.util.ProjectionMaskApplier.*;
@@ -69,6 +71,11 @@ public class RestLiValidationFilter implements Filter
 
   private static final String TEMPLATE_RUNTIME_EXCEPTION_MESSAGE = "Could not find schema for entity during validation";
 
+  // Validators of the requests and of the responses without projection of each resource class and method, which
+  // compile the schema of the resource once instead of on every request
+  private final Map<Class<?>, Map<ResourceMethod, RestLiDataValidator>> _inputValidators = new ConcurrentHashMap<>();
+  private final Map<Class<?>, Map<ResourceMethod, RestLiDataValidator>> _outputValidators = new ConcurrentHashMap<>();
+
   @Override
   public CompletableFuture<Void> onRequest(final FilterRequestContext requestContext)
   {
@@ -108,9 +115,10 @@ public class RestLiValidationFilter implements Filter
     }
 
     ResourceMethod method = requestContext.getMethodType();
-    RestLiDataValidator validator = new RestLiDataValidator(resourceClass.getAnnotations(),
-        requestContext.getFilterResourceModel().getValueClass(),
-        method);
+    RestLiDataValidator validator = validator(_inputValidators, resourceClass, method,
+        () -> new RestLiDataValidator(resourceClass.getAnnotations(),
+            requestContext.getFilterResourceModel().getValueClass(),
+            method));
     RestLiRequestData requestData = requestContext.getRequestData();
 
     if (method == CREATE || method == UPDATE)
@@ -192,24 +200,31 @@ public class RestLiValidationFilter implements Filter
       DataSchema validatingSchema =  (DataSchema) requestContext.getFilterScratchpad().get(VALIDATING_SCHEMA_KEY);
 
       // Otherwise, build validating schema from original schema
+      Class<?> resourceClass = requestContext.getFilterResourceModel().getResourceClass();
+      ResourceMethod method = requestContext.getMethodType();
+      RestLiDataValidator validator;
       if (validatingSchema == null)
       {
-        try
-        {
-          // Value class from resource model is the only source of truth for record schema.
-          // Schema from the record template itself should not be used.
-          validatingSchema = DataTemplateUtil.getSchema(requestContext.getFilterResourceModel().getValueClass());
-        }
-        catch (TemplateRuntimeException e)
+        validator = validator(_outputValidators, resourceClass, method, () ->
         {
-          throw new RestLiServiceException(HttpStatus.S_500_INTERNAL_SERVER_ERROR, TEMPLATE_RUNTIME_EXCEPTION_MESSAGE);
-        }
+          try
+          {
+            // Value class from resource model is the only source of truth for record schema.
+            // Schema from the record template itself should not be used.
+            return new RestLiDataSchemaDataValidator(resourceClass.getAnnotations(), method,
+                DataTemplateUtil.getSchema(requestContext.getFilterResourceModel().getValueClass()));
+          }
+          catch (TemplateRuntimeException e)
+          {
+            throw new RestLiServiceException(HttpStatus.S_500_INTERNAL_SERVER_ERROR, TEMPLATE_RUNTIME_EXCEPTION_MESSAGE);
+          }
+        });
+      }
+      else
+      {
+        // the schema of a projection is specific to the request
+        validator = new RestLiDataSchemaDataValidator(resourceClass.getAnnotations(), method, validatingSchema);
       }
-
-      Class<?> resourceClass = requestContext.getFilterResourceModel().getResourceClass();
-      ResourceMethod method = requestContext.getMethodType();
-      RestLiDataSchemaDataValidator
-          validator = new RestLiDataSchemaDataValidator(resourceClass.getAnnotations(), method, validatingSchema);
 
       switch (method)
       {
@@ -243,6 +258,13 @@ public class RestLiValidationFilter implements Filter
     return CompletableFuture.completedFuture(null);
   }
 
+  private static RestLiDataValidator validator(Map<Class<?>, Map<ResourceMethod, RestLiDataValidator>> validators,
+      Class<?> resourceClass, ResourceMethod method, Supplier<RestLiDataValidator> supplier)
+  {
+    return validators.computeIfAbsent(resourceClass, key -> new ConcurrentHashMap<>())
+        .computeIfAbsent(method, key -> supplier.get());
+  }
+
   private void validateSingleResponse(RestLiDataValidator validator, RecordTemplate entity)
   {
     ValidationResult result = validator.validateOutput(entity);
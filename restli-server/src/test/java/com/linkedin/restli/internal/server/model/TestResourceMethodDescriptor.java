@@ -0,0 +1,139 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server.model;
+
+import com.linkedin.restli.common.ResourceMethod;
+import java.lang.reflect.InvocationTargetException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class TestResourceMethodDescriptor
+{
+  @Test
+  public void testInvoke() throws Exception
+  {
+    final ResourceMethodDescriptor descriptor = descriptor(PublicResource.class, "add", long.class, int.class);
+    Assert.assertEquals(descriptor.invoke(new PublicResource(), new Object[] { 1L, 2 }), 3L);
+  }
+
+  @Test
+  public void testInvokeVoid() throws Exception
+  {
+    final PublicResource resource = new PublicResource();
+    final ResourceMethodDescriptor descriptor = descriptor(PublicResource.class, "set", String.class);
+    Assert.assertNull(descriptor.invoke(resource, new Object[] { "value" }));
+    Assert.assertEquals(resource._value, "value");
+  }
+
+  @Test
+  public void testInvokeThrows() throws Exception
+  {
+    final ResourceMethodDescriptor descriptor = descriptor(PublicResource.class, "fail");
+    try
+    {
+      descriptor.invoke(new PublicResource(), new Object[0]);
+      Assert.fail("The exception of the method should have been thrown");
+    }
+    catch (InvocationTargetException e)
+    {
+      Assert.assertTrue(e.getCause() instanceof UnsupportedOperationException);
+    }
+  }
+
+  @Test
+  public void testInvokeWidened() throws Exception
+  {
+    final ResourceMethodDescriptor descriptor = descriptor(PublicResource.class, "add", long.class, int.class);
+    Assert.assertEquals(descriptor.invoke(new PublicResource(), new Object[] { 1, (short) 2 }), 3L);
+  }
+
+  @DataProvider
+  public Object[][] invalidArguments()
+  {
+    return new Object[][] {
+        { new Object[] { null, 2 } },
+        { new Object[] { 1L } },
+        { new Object[] { 1L, 2, 3 } },
+        { new Object[] { "1", 2 } },
+        { null }
+    };
+  }
+
+  @Test(dataProvider = "invalidArguments", expectedExceptions = IllegalArgumentException.class)
+  public void testInvokeInvalidArguments(Object[] arguments) throws Exception
+  {
+    descriptor(PublicResource.class, "add", long.class, int.class).invoke(new PublicResource(), arguments);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testInvokeInvalidResource() throws Exception
+  {
+    descriptor(PublicResource.class, "fail").invoke(new Object(), new Object[0]);
+  }
+
+  @Test(expectedExceptions = NullPointerException.class)
+  public void testInvokeNullResource() throws Exception
+  {
+    descriptor(PublicResource.class, "fail").invoke(null, new Object[0]);
+  }
+
+  @Test
+  public void testInvokeNonPublicClass() throws Exception
+  {
+    final ResourceMethodDescriptor descriptor = descriptor(PrivateResource.class, "get");
+    descriptor.getMethod().setAccessible(true);
+    Assert.assertEquals(descriptor.invoke(new PrivateResource(), new Object[0]), "private");
+  }
+
+  private static ResourceMethodDescriptor descriptor(Class<?> resourceClass, String name, Class<?>... parameterTypes)
+      throws NoSuchMethodException
+  {
+    return ResourceMethodDescriptor.createForRestful(ResourceMethod.GET,
+                                                     resourceClass.getMethod(name, parameterTypes),
+                                                     ResourceMethodDescriptor.InterfaceType.SYNC);
+  }
+
+  public static class PublicResource
+  {
+    private String _value;
+
+    public long add(long a, int b)
+    {
+      return a + b;
+    }
+
+    public void set(String value)
+    {
+      _value = value;
+    }
+
+    public void fail()
+    {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private static class PrivateResource
+  {
+    public String get()
+    {
+      return "private";
+    }
+  }
+}
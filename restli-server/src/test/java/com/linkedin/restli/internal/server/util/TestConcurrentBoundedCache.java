@@ -0,0 +1,101 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server.util;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestConcurrentBoundedCache
+{
+  @Test
+  public void testGetPut()
+  {
+    final ConcurrentBoundedCache<String, Integer> cache = new ConcurrentBoundedCache<>(2);
+    Assert.assertNull(cache.get("a"));
+    cache.put("a", 1);
+    Assert.assertEquals(cache.get("a"), Integer.valueOf(1));
+    cache.put("a", 2);
+    Assert.assertEquals(cache.get("a"), Integer.valueOf(2));
+    Assert.assertEquals(cache.size(), 1);
+  }
+
+  @Test
+  public void testEvictsUnreferencedEntries()
+  {
+    final ConcurrentBoundedCache<Integer, Integer> cache = new ConcurrentBoundedCache<>(4);
+    for (int i = 0; i < 4; i++)
+    {
+      cache.put(i, i);
+    }
+    cache.get(0);
+    cache.get(2);
+
+    cache.put(4, 4);
+    cache.put(5, 5);
+
+    Assert.assertEquals(cache.size(), 4);
+    Assert.assertEquals(cache.get(0), Integer.valueOf(0));
+    Assert.assertEquals(cache.get(2), Integer.valueOf(2));
+    Assert.assertNull(cache.get(1));
+    Assert.assertNull(cache.get(3));
+  }
+
+  @Test
+  public void testConcurrentPuts() throws Exception
+  {
+    final int capacity = 64;
+    final ConcurrentBoundedCache<Integer, Integer> cache = new ConcurrentBoundedCache<>(capacity);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try
+    {
+      final List<Callable<Void>> tasks = new ArrayList<>();
+      for (int t = 0; t < 4; t++)
+      {
+        final int offset = t * 10000;
+        tasks.add(() ->
+        {
+          for (int i = 0; i < 10000; i++)
+          {
+            cache.put(offset + i, i);
+            cache.get(offset + i / 2);
+          }
+          return null;
+        });
+      }
+      for (Future<Void> future : executor.invokeAll(tasks))
+      {
+        future.get();
+      }
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+
+    // the last put of a thread may race with the eviction of another one, but nothing is left once they are done
+    cache.put(-1, -1);
+    Assert.assertEquals(cache.size(), capacity);
+  }
+}
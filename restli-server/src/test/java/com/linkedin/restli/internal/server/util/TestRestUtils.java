@@ -22,6 +22,7 @@ import com.linkedin.data.DataMap;
 import com.linkedin.data.schema.PathSpec;
 import com.linkedin.data.template.LongMap;
 import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.data.transform.filter.CompiledProjection;
 import com.linkedin.data.transform.filter.request.MaskOperation;
 import com.linkedin.data.transform.filter.request.MaskTree;
 import com.linkedin.pegasus.generator.test.NestedArrayRefRecord;
@@ -36,6 +37,7 @@ import com.linkedin.restli.common.HttpStatus;
 import com.linkedin.restli.internal.server.ResourceContextImpl;
 import com.linkedin.restli.internal.server.ServerResourceContext;
 import com.linkedin.restli.server.LinkedListNode;
+import com.linkedin.restli.server.ProjectionMode;
 import com.linkedin.restli.server.RestLiServiceException;
 
 import java.util.Collections;
@@ -54,6 +56,7 @@ public class TestRestUtils
 {
   private static final String JSON_TYPE = "application/json";
   private static final String PSON_TYPE = "application/x-pson";
+  private static final String BINARY_TYPE = "application/x-restli-binary";
   private static final String EMPTY_TYPE = "";
   private static final String HTML_HEADER = "text/html";
   private static final String UNKNOWN_TYPE_HEADER = "foo/bar";
@@ -66,6 +69,8 @@ public class TestRestUtils
   private static final String UNKNOWN_TYPE_HEADER_WITH_VALID_PARAMS_JSON = "foo/bar; level=1, application/json";
   private static final String JSON_HEADER = "application/json";
   private static final String PSON_HEADER = "application/x-pson";
+  private static final String BINARY_HEADER = "application/x-restli-binary";
+  private static final String ANY_HEADER = "*/*";
   private static final String INVALID_TYPE_HEADER_1 = "foo";
   private static final String INVALID_TYPE_HEADER_2 = "foo, bar, baz";
   private static final String INVALID_TYPES_JSON_HEADER = "foo, bar, baz, application/json";
@@ -79,6 +84,8 @@ public class TestRestUtils
     {
         { JSON_HEADER, JSON_TYPE },
         { PSON_HEADER, PSON_TYPE },
+        { BINARY_HEADER, BINARY_TYPE },
+        { ANY_HEADER, JSON_TYPE },
         { HTML_HEADER, EMPTY_TYPE },
         { UNKNOWN_TYPE_HEADER, EMPTY_TYPE },
         { UNKNOWN_TYPE_HEADER_WITH_INVALID_PARAMS, EMPTY_TYPE },
@@ -146,7 +153,7 @@ public class TestRestUtils
     {
       Assert.assertEquals(e.getStatus(), HttpStatus.S_406_NOT_ACCEPTABLE);
       Assert.assertEquals(e.getMessage(),
-                          "None of the types in the request's 'Accept' header are supported. Supported MIME types are: [application/x-pson, application/json][]");
+                          "None of the types in the request's 'Accept' header are supported. Supported MIME types are: [application/x-restli-binary, application/x-pson, application/json][]");
       Assert.assertEquals(resourceContext.getResponseMimeType(), null);
     }
   }
@@ -499,4 +506,61 @@ public class TestRestUtils
 
     RestUtils.trimRecordTemplate(bar, false);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testProjectFieldsWithModifiedMask() throws Exception
+  {
+    DataMap data = new DataMap();
+    data.put("foo", "bar");
+    data.put("baz", new DataMap(Collections.singletonMap("qux", 1)));
+
+    MaskTree mask = ArgumentUtils.parseProjectionParameter("foo");
+    DataMap expected = new DataMap(Collections.singletonMap("foo", "bar"));
+    Assert.assertEquals(RestUtils.projectFields(data, ProjectionMode.AUTOMATIC, mask), expected);
+    Assert.assertEquals(RestUtils.projectFields(data, ProjectionMode.AUTOMATIC, ArgumentUtils.parseProjectionParameter("foo")),
+                        expected);
+
+    // the compiled projection of a mask must not be reused once the mask changes
+    mask.addOperation(new PathSpec("baz", "qux"), MaskOperation.POSITIVE_MASK_OP);
+    expected.put("baz", new DataMap(Collections.singletonMap("qux", 1)));
+    Assert.assertEquals(RestUtils.projectFields(data, ProjectionMode.AUTOMATIC, mask), expected);
+    Assert.assertEquals(ArgumentUtils.parseProjectionParameter("foo").getDataMap(),
+                        new DataMap(Collections.singletonMap("foo", 1)));
+  }
+
+  @Test
+  public void testDecodedMaskCarriesCompiledProjection() throws Exception
+  {
+    MaskTree mask = ArgumentUtils.parseProjectionParameter("foo,bar");
+    CompiledProjection projection = RestUtils.getCompiledProjection(mask);
+    Assert.assertSame(RestUtils.getCompiledProjection(ArgumentUtils.parseProjectionParameter("foo,bar")), projection);
+    Assert.assertNotSame(ArgumentUtils.parseProjectionParameter("foo,bar").getDataMap(), mask.getDataMap());
+
+    mask.getDataMap().remove("bar");
+    Assert.assertNotSame(RestUtils.getCompiledProjection(mask), projection);
+    Assert.assertEquals(RestUtils.getCompiledProjection(mask).getMask(), new DataMap(Collections.singletonMap("foo", 1)));
+  }
+
+  @Test
+  public void testProjectFieldsForResponse() throws Exception
+  {
+    DataMap data = new DataMap();
+    data.put("foo", "bar");
+    data.put("baz", new DataMap(Collections.singletonMap("qux", 1)));
+
+    DataMap keptAll = RestUtils.projectFieldsForResponse(data, ProjectionMode.AUTOMATIC,
+                                                         ArgumentUtils.parseProjectionParameter("foo,baz:(qux),other"));
+    Assert.assertSame(keptAll, data);
+
+    DataMap projected = RestUtils.projectFieldsForResponse(data, ProjectionMode.AUTOMATIC,
+                                                           ArgumentUtils.parseProjectionParameter("foo,baz:(other)"));
+    Assert.assertNotSame(projected, data);
+    DataMap expected = new DataMap();
+    expected.put("foo", "bar");
+    expected.put("baz", new DataMap());
+    Assert.assertEquals(projected, expected);
+
+    Assert.assertNotSame(RestUtils.projectFields(data, ProjectionMode.AUTOMATIC,
+                                                 ArgumentUtils.parseProjectionParameter("foo,baz")), data);
+  }
+}
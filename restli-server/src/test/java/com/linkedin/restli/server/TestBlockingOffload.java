@@ -0,0 +1,223 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.server;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.data.codec.JacksonDataCodec;
+import com.linkedin.parseq.Engine;
+import com.linkedin.parseq.EngineBuilder;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.restli.common.EmptyRecord;
+import com.linkedin.restli.common.HttpMethod;
+import com.linkedin.restli.common.RestConstants;
+import com.linkedin.restli.common.multiplexer.IndividualRequest;
+import com.linkedin.restli.common.multiplexer.IndividualRequestMap;
+import com.linkedin.restli.common.multiplexer.MultiplexedRequestContent;
+import com.linkedin.restli.internal.common.AllProtocolVersions;
+import com.linkedin.restli.server.annotations.Blocking;
+import com.linkedin.restli.server.annotations.CallbackParam;
+import com.linkedin.restli.server.annotations.RestLiCollection;
+import com.linkedin.restli.server.multiplexer.MultiplexerRunMode;
+import com.linkedin.restli.server.resources.CollectionResourceAsyncTemplate;
+import com.linkedin.restli.server.resources.CollectionResourceTemplate;
+import com.linkedin.restli.server.resources.PrototypeResourceFactory;
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+
+
+/**
+ * Checks which resource methods are invoked on the {@link R2Constants#BLOCKING_OFFLOAD_EXECUTOR} of the request.
+ */
+public class TestBlockingOffload
+{
+  private RestLiServer _server;
+
+  @BeforeClass
+  public void setUp()
+  {
+    RestLiConfig config = new RestLiConfig();
+    config.addResourceClassNames(SyncResource.class.getName(), NonBlockingSyncResource.class.getName(),
+        AsyncResource.class.getName(), BlockingAsyncResource.class.getName());
+    _server = new RestLiServer(config, new PrototypeResourceFactory(), null);
+  }
+
+  @DataProvider
+  public Object[][] resources()
+  {
+    return new Object[][] {
+        { "sync", true },
+        { "nonBlockingSync", false },
+        { "async", false },
+        { "blockingAsync", true },
+    };
+  }
+
+  @Test(dataProvider = "resources")
+  public void testOffload(String resource, boolean offloaded) throws Exception
+  {
+    final AtomicInteger executions = new AtomicInteger();
+    final Executor executor = command ->
+    {
+      executions.incrementAndGet();
+      new Thread(command).start();
+    };
+    final RequestContext requestContext = new RequestContext();
+    requestContext.putLocalAttr(R2Constants.BLOCKING_OFFLOAD_EXECUTOR, executor);
+
+    assertEquals(get(resource, requestContext).getStatus(), 200);
+    assertEquals(executions.get(), offloaded ? 1 : 0);
+  }
+
+  @Test(dataProvider = "resources")
+  public void testNoOffloadExecutor(String resource, boolean offloaded) throws Exception
+  {
+    assertEquals(get(resource, new RequestContext()).getStatus(), 200);
+  }
+
+  @DataProvider
+  public Object[][] multiplexerRunModes()
+  {
+    return new Object[][] {
+        { MultiplexerRunMode.SINGLE_PLAN },
+        { MultiplexerRunMode.MULTIPLE_PLANS },
+    };
+  }
+
+  /**
+   * The engine runs its tasks on the thread starting the plan, so that a blocking method invoked within the plan of
+   * the multiplexed request would run on the thread the request was dispatched on, the event loop of the transport.
+   */
+  @Test(dataProvider = "multiplexerRunModes")
+  public void testOffloadMultiplexed(MultiplexerRunMode multiplexerRunMode) throws Exception
+  {
+    final RestLiConfig config = new RestLiConfig();
+    config.addResourceClassNames(SyncResource.class.getName());
+    config.setMultiplexerRunMode(multiplexerRunMode);
+    final ScheduledExecutorService timerScheduler = Executors.newSingleThreadScheduledExecutor();
+    final Engine engine = new EngineBuilder()
+        .setTaskExecutor(Runnable::run)
+        .setTimerScheduler(timerScheduler)
+        .build();
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try
+    {
+      final RestLiServer server = new RestLiServer(config, new PrototypeResourceFactory(), engine);
+      final RequestContext requestContext = new RequestContext();
+      requestContext.putLocalAttr(R2Constants.BLOCKING_OFFLOAD_EXECUTOR, executor);
+
+      final IndividualRequest individualRequest = new IndividualRequest();
+      individualRequest.setMethod(HttpMethod.GET.name());
+      individualRequest.setRelativeUrl("/sync/1");
+      individualRequest.setDependentRequests(new IndividualRequestMap());
+      final MultiplexedRequestContent content = new MultiplexedRequestContent();
+      content.setRequests(new IndividualRequestMap(Collections.singletonMap("0", individualRequest)));
+
+      SyncResource.INVOKING_THREAD.set(null);
+      final FutureCallback<RestResponse> callback = new FutureCallback<>();
+      server.handleRequest(new RestRequestBuilder(URI.create("/mux"))
+              .setMethod(HttpMethod.POST.name())
+              .setEntity(new JacksonDataCodec().mapToBytes(content.data()))
+              .setHeader(RestConstants.HEADER_CONTENT_TYPE, RestConstants.HEADER_VALUE_APPLICATION_JSON)
+              .build(),
+          requestContext, callback);
+
+      assertEquals(callback.get(10, TimeUnit.SECONDS).getStatus(), 200);
+      assertNotNull(SyncResource.INVOKING_THREAD.get());
+      assertNotEquals(SyncResource.INVOKING_THREAD.get(), Thread.currentThread());
+    }
+    finally
+    {
+      engine.shutdown();
+      executor.shutdownNow();
+      timerScheduler.shutdownNow();
+    }
+  }
+
+  private RestResponse get(String resource, RequestContext requestContext) throws Exception
+  {
+    final FutureCallback<RestResponse> callback = new FutureCallback<>();
+    _server.handleRequest(new RestRequestBuilder(URI.create("/" + resource + "/1"))
+            .setHeader(RestConstants.HEADER_RESTLI_PROTOCOL_VERSION,
+                AllProtocolVersions.LATEST_PROTOCOL_VERSION.toString())
+            .build(),
+        requestContext, callback);
+    return callback.get(10, TimeUnit.SECONDS);
+  }
+
+  @RestLiCollection(name = "sync")
+  public static class SyncResource extends CollectionResourceTemplate<Long, EmptyRecord>
+  {
+    static final AtomicReference<Thread> INVOKING_THREAD = new AtomicReference<>();
+
+    @Override
+    public EmptyRecord get(Long key)
+    {
+      INVOKING_THREAD.set(Thread.currentThread());
+      return new EmptyRecord();
+    }
+  }
+
+  @RestLiCollection(name = "nonBlockingSync")
+  public static class NonBlockingSyncResource extends CollectionResourceTemplate<Long, EmptyRecord>
+  {
+    @Blocking(false)
+    @Override
+    public EmptyRecord get(Long key)
+    {
+      return new EmptyRecord();
+    }
+  }
+
+  @RestLiCollection(name = "async")
+  public static class AsyncResource extends CollectionResourceAsyncTemplate<Long, EmptyRecord>
+  {
+    @Override
+    public void get(Long key, @CallbackParam Callback<EmptyRecord> callback)
+    {
+      callback.onSuccess(new EmptyRecord());
+    }
+  }
+
+  @Blocking
+  @RestLiCollection(name = "blockingAsync")
+  public static class BlockingAsyncResource extends CollectionResourceAsyncTemplate<Long, EmptyRecord>
+  {
+    @Override
+    public void get(Long key, @CallbackParam Callback<EmptyRecord> callback)
+    {
+      callback.onSuccess(new EmptyRecord());
+    }
+  }
+}
@@ -0,0 +1,182 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.linkedin.restli.server;
+
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.restli.common.CollectionMetadata;
+import com.linkedin.restli.common.CompoundKey;
+import com.linkedin.restli.common.EmptyRecord;
+import com.linkedin.restli.common.ProtocolVersion;
+import com.linkedin.restli.common.RestConstants;
+import com.linkedin.restli.internal.common.AllProtocolVersions;
+import com.linkedin.restli.internal.common.DataMapConverter;
+import com.linkedin.restli.internal.server.model.ResourceModel;
+import com.linkedin.restli.internal.server.model.RestLiAnnotationReader;
+import com.linkedin.restli.internal.server.util.ArgumentUtils;
+import com.linkedin.restli.server.annotations.Finder;
+import com.linkedin.restli.server.annotations.QueryParam;
+import com.linkedin.restli.server.annotations.RestLiCollection;
+import com.linkedin.restli.server.resources.CollectionResourceTemplate;
+import com.linkedin.restli.server.resources.PrototypeResourceFactory;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+public class TestQueryParamsCache
+{
+  private static final ProtocolVersion VERSION = AllProtocolVersions.LATEST_PROTOCOL_VERSION;
+
+  @Test
+  public void testBatchKeysCached() throws Exception
+  {
+    final QueryParamsCache cache = new QueryParamsCache(16);
+    final RestLiServer server = newServer(cache);
+
+    for (int i = 0; i < 2; i++)
+    {
+      final DataMap results = get(server, "/cachedKeys?ids=List(1,2,3)").getDataMap("results");
+      assertEquals(results.keySet(), new HashSet<>(Arrays.asList("1", "2", "3")));
+    }
+    // the parameters and the batch keys are both looked up for each request
+    assertEquals(cache.getMissCount(), 2);
+    assertEquals(cache.getHitCount(), 2);
+  }
+
+  @Test
+  public void testFinderRecordParameterFixedUp() throws Exception
+  {
+    final QueryParamsCache cache = new QueryParamsCache(16);
+    final RestLiServer server = newServer(cache);
+
+    for (int i = 0; i < 2; i++)
+    {
+      final DataList elements = get(server, "/cachedKeys?q=search&metadata=(start:0,count:2,total:2)")
+          .getDataList("elements");
+      assertEquals(elements.size(), 2);
+    }
+    assertEquals(cache.getHitCount(), 1);
+  }
+
+  @Test
+  public void testParametersReadOnly()
+  {
+    final QueryParamsCache cache = new QueryParamsCache(16);
+    assertNull(cache.getParameters("a=b", VERSION));
+
+    final DataMap parameters = new DataMap(Collections.singletonMap("a", "b"));
+    cache.putParameters("a=b", VERSION, parameters);
+    assertSame(cache.getParameters("a=b", VERSION), parameters);
+    assertTrue(parameters.isReadOnly());
+    assertNull(cache.getParameters("a=b", AllProtocolVersions.RESTLI_PROTOCOL_1_0_0.getProtocolVersion()));
+    assertEquals(cache.getHitCount(), 1);
+    assertEquals(cache.getMissCount(), 2);
+  }
+
+  @Test
+  public void testBatchKeysShareable()
+  {
+    final QueryParamsCache cache = new QueryParamsCache(16);
+    final ResourceModel resource = RestLiAnnotationReader.processResource(CachedKeysResource.class);
+
+    final CompoundKey compoundKey = new CompoundKey().append("a", 1L).append("b", "c");
+    cache.putBatchKeys(resource, "ids=List((a:1,b:c))", VERSION, Collections.singleton(compoundKey));
+    assertEquals(cache.getBatchKeys(resource, "ids=List((a:1,b:c))", VERSION), Collections.singleton(compoundKey));
+    assertTrue(compoundKey.isReadOnly());
+
+    // mutable keys may be modified by the resource
+    cache.putBatchKeys(resource, "ids=List(1)", VERSION, Collections.singleton(new ArrayList<>()));
+    assertNull(cache.getBatchKeys(resource, "ids=List(1)", VERSION));
+  }
+
+  @Test
+  public void testReadOnlyCompoundKey()
+  {
+    final DataMap dataMap = new DataMap();
+    dataMap.put("a", "1");
+    dataMap.makeReadOnly();
+
+    final CompoundKey compoundKey =
+        ArgumentUtils.dataMapToCompoundKey(dataMap, Collections.singleton(new Key("a", Long.class)));
+    assertEquals(compoundKey.getPart("a"), 1L);
+  }
+
+  private static RestLiServer newServer(QueryParamsCache cache)
+  {
+    final RestLiConfig config = new RestLiConfig();
+    config.addResourceClassNames(CachedKeysResource.class.getName());
+    config.setQueryParamsCache(cache);
+    return new RestLiServer(config, new PrototypeResourceFactory(), null);
+  }
+
+  private static DataMap get(RestLiServer server, String uri) throws Exception
+  {
+    final FutureCallback<RestResponse> callback = new FutureCallback<>();
+    server.handleRequest(new RestRequestBuilder(URI.create(uri))
+            .setHeader(RestConstants.HEADER_RESTLI_PROTOCOL_VERSION, VERSION.toString())
+            .build(),
+        new RequestContext(), callback);
+    final RestResponse response = callback.get(10, TimeUnit.SECONDS);
+    assertEquals(response.getStatus(), 200);
+    return DataMapConverter.bytesToDataMap(response.getHeaders(), response.getEntity());
+  }
+
+  @RestLiCollection(name = "cachedKeys")
+  public static class CachedKeysResource extends CollectionResourceTemplate<Long, EmptyRecord>
+  {
+    @Override
+    public Map<Long, EmptyRecord> batchGet(Set<Long> ids)
+    {
+      final Map<Long, EmptyRecord> results = new HashMap<>();
+      for (Long id : ids)
+      {
+        results.put(id, new EmptyRecord());
+      }
+      // the keys of each request are its own
+      ids.clear();
+      return results;
+    }
+
+    @Finder("search")
+    public List<EmptyRecord> search(@QueryParam("metadata") CollectionMetadata metadata)
+    {
+      final List<EmptyRecord> elements = new ArrayList<>();
+      for (int i = 0; i < metadata.getCount(); i++)
+      {
+        elements.add(new EmptyRecord());
+      }
+      return elements;
+    }
+  }
+}
@@ -20,7 +20,9 @@ package com.linkedin.restli.server.test;
 import com.linkedin.data.ByteString;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.schema.PathSpec;
 import com.linkedin.data.transform.filter.FilterConstants;
+import com.linkedin.data.transform.filter.request.MaskOperation;
 import com.linkedin.data.transform.filter.request.MaskTree;
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.message.RequestContext;
@@ -154,6 +156,33 @@ public class TestResourceContext
     //therefore it will be included in the subsequent test.
   }
 
+  @Test(dataProvider = TestConstants.RESTLI_PROTOCOL_1_2_PREFIX + "queryParamsProjectionMaskWithSyntax")
+  public void testResourceContextIsFieldNeeded(ProtocolVersion version, String stringUri) throws Exception
+  {
+    URI uri = URI.create(stringUri);
+    Map<String, String> headers = new HashMap<String, String>(1);
+    headers.put(RestConstants.HEADER_RESTLI_PROTOCOL_VERSION, version.toString());
+
+    ResourceContext context = new ResourceContextImpl(new PathKeysImpl(),
+                                                      new MockRequest(uri, headers),
+                                                      new RequestContext());
+
+    Assert.assertTrue(context.isFieldNeeded(new PathSpec("locale")));
+    Assert.assertTrue(context.isFieldNeeded(new PathSpec("location")));
+    Assert.assertTrue(context.isFieldNeeded(new PathSpec("location", "latitude")));
+    Assert.assertFalse(context.isFieldNeeded(new PathSpec("location", "altitude")));
+    Assert.assertFalse(context.isFieldNeeded(new PathSpec("city")));
+
+    // changes to the mask are taken into account
+    context.getProjectionMask().addOperation(new PathSpec("city"), MaskOperation.POSITIVE_MASK_OP);
+    Assert.assertTrue(context.isFieldNeeded(new PathSpec("city")));
+
+    ResourceContext noProjectionContext = new ResourceContextImpl(new PathKeysImpl(),
+                                                                  new MockRequest(URI.create("groups/?q=emailDomain"), headers),
+                                                                  new RequestContext());
+    Assert.assertTrue(noProjectionContext.isFieldNeeded(new PathSpec("city")));
+  }
+
   @DataProvider(name = TestConstants.RESTLI_PROTOCOL_1_2_PREFIX + "projectionMaskWithSyntax")
   public Object[][] projectionMaskWithSyntax()
   {
@@ -1589,6 +1589,14 @@ public class TestRestLiRouting
           RepliesCollectionResource.class,
           "create"
         },
+        {
+          "/statuses/1/r%65plies",
+          AllProtocolVersions.RESTLI_PROTOCOL_2_0_0.getProtocolVersion(),
+          "POST",
+          ResourceMethod.CREATE,
+          RepliesCollectionResource.class,
+          "create"
+        },
         {
           "/statuses/1/location",
           AllProtocolVersions.RESTLI_PROTOCOL_1_0_0.getProtocolVersion(),
@@ -23,6 +23,7 @@ import com.linkedin.data.transform.filter.request.MaskTree;
 import com.linkedin.restli.common.EmptyRecord;
 import com.linkedin.restli.common.HttpStatus;
 import com.linkedin.restli.common.IdResponse;
+import com.linkedin.restli.common.ResourceMethod;
 import com.linkedin.restli.internal.server.filter.FilterResourceModelImpl;
 import com.linkedin.restli.internal.server.model.ResourceModel;
 import com.linkedin.restli.internal.server.model.RestLiAnnotationReader;
@@ -137,6 +138,39 @@ public class TestRestLiValidationFilter
     validationFilter.onResponse(filterRequestContext, filterResponseContext);
   }
 
+  /**
+   * Ensures that the validators the filter keeps for a resource method give the same results across requests.
+   */
+  @Test
+  public void testValidatorReusedAcrossRequests()
+  {
+    FilterRequestContext requestContext = mock(FilterRequestContext.class);
+    when(requestContext.getMethodType()).thenReturn(ResourceMethod.CREATE);
+    when(requestContext.getFilterResourceModel())
+        .thenReturn(new FilterResourceModelImpl(RestLiAnnotationReader.processResource(CollectionResource.class)));
+    when(requestContext.getCustomAnnotations()).thenReturn(new DataMap());
+
+    RestLiValidationFilter validationFilter = new RestLiValidationFilter();
+    TestRecord invalidRecord = makeTestRecord();
+    invalidRecord.removeIntField();
+    for (int i = 0; i < 2; i++)
+    {
+      when(requestContext.getRequestData()).thenReturn(new RestLiRequestDataImpl.Builder().entity(makeTestRecord()).build());
+      validationFilter.onRequest(requestContext);
+
+      when(requestContext.getRequestData()).thenReturn(new RestLiRequestDataImpl.Builder().entity(invalidRecord).build());
+      try
+      {
+        validationFilter.onRequest(requestContext);
+        Assert.fail("Expected the record without its required field to be rejected");
+      }
+      catch (RestLiServiceException e)
+      {
+        Assert.assertEquals(e.getStatus(), HttpStatus.S_422_UNPROCESSABLE_ENTITY);
+      }
+    }
+  }
+
   @DataProvider(name = "validateWithProjectionData")
   public Object[][] validateWithProjectionData()
   {